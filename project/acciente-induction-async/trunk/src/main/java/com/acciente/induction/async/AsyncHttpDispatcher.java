@@ -0,0 +1,378 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.async;
+
+import com.acciente.induction.dispatcher.HttpDispatcher;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is a variant of the Induction dispatcher servlet that releases the container's request thread while a
+ * request is processed. It is used in place of com.acciente.induction.dispatcher.HttpDispatcher in web.xml,
+ * with async-supported set to true for the servlet (and for the filters that apply to it).
+ * <p>
+ * Each request is put in asynchronous mode and dispatched on an executor, by default an executor that runs
+ * each request on a new virtual thread (on a Java runtime that provides virtual threads), so that a
+ * controller that waits on a slow backend holds a virtual thread instead of a container thread. Interceptors,
+ * controllers, views, redirects and error controllers run exactly as with the HttpDispatcher, on the
+ * executor thread.
+ * <p>
+ * A controller may also return a java.util.concurrent.CompletionStage, the redirect or view it completes with
+ * is then processed as if the controller had returned it. If the stage completes exceptionally, or does not
+ * complete within the async timeout, the exception is handled like an exception thrown by the controller
+ * (i.e. it is dispatched to the error controller).
+ * <p>
+ * The following servlet init parameters are supported, each prefixed with the name of the servlet, for
+ * example myapp.async-executor:
+ * <ul>
+ * <li>async-executor: virtual (the default) to run each request on a new virtual thread, or pool to run
+ * requests on a pool of platform threads. If virtual threads are not available the pool is used.</li>
+ * <li>async-pool-size: the number of threads in the pool (default 200)</li>
+ * <li>async-timeout: the maximum time in milliseconds to wait for a CompletionStage returned by a controller
+ * (default 30000, 0 to wait without a limit)</li>
+ * </ul>
+ * If a request does not support asynchronous processing (e.g. a filter is not async-supported) it is
+ * processed on the container thread.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class AsyncHttpDispatcher extends HttpDispatcher
+{
+   public static final String ASYNC_EXECUTOR       = "async-executor";
+   public static final String ASYNC_POOL_SIZE      = "async-pool-size";
+   public static final String ASYNC_TIMEOUT        = "async-timeout";
+
+   private static final String EXECUTOR_VIRTUAL    = "virtual";
+   private static final String EXECUTOR_POOL       = "pool";
+
+   // the time the request entered the dispatcher, used to compute the time left for a CompletionStage
+   private static final String START_TIME_ATTRIBUTE = AsyncHttpDispatcher.class.getName() + ".start-time";
+
+   private  ExecutorService   _oExecutor;
+   private  long              _lTimeoutMillis;
+   private  ClassLoader       _oContextClassLoader;
+   private  boolean           _bSyncFallbackLogged;
+   private  Log               _oLog;
+
+   public void init( ServletConfig oServletConfig )
+      throws   ServletException
+   {
+      super.init( oServletConfig );
+
+      _oLog = LogFactory.getLog( AsyncHttpDispatcher.class );
+
+      String   sExecutor   = getInitParameter( oServletConfig, ASYNC_EXECUTOR, EXECUTOR_VIRTUAL );
+      int      iPoolSize   = getIntInitParameter( oServletConfig, ASYNC_POOL_SIZE, 200 );
+
+      _lTimeoutMillis      = getIntInitParameter( oServletConfig, ASYNC_TIMEOUT, 30000 );
+
+      // executor threads may be created outside of a request, so they are given the class loader of the web app
+      _oContextClassLoader = Thread.currentThread().getContextClassLoader();
+
+      if ( EXECUTOR_VIRTUAL.equals( sExecutor ) )
+      {
+         _oExecutor = createVirtualThreadExecutor();
+
+         if ( _oExecutor == null )
+         {
+            _oLog.warn( "init: virtual threads are not available on this Java runtime, using a pool of " + iPoolSize + " threads" );
+         }
+      }
+      else if ( ! EXECUTOR_POOL.equals( sExecutor ) )
+      {
+         throw new ServletException( "init-error: " + ASYNC_EXECUTOR + " must be " + EXECUTOR_VIRTUAL + " or " + EXECUTOR_POOL );
+      }
+
+      if ( _oExecutor == null )
+      {
+         ThreadPoolExecutor oThreadPoolExecutor = new ThreadPoolExecutor( iPoolSize,
+                                                                          iPoolSize,
+                                                                          60,
+                                                                          TimeUnit.SECONDS,
+                                                                          new LinkedBlockingQueue(),
+                                                                          new DispatchThreadFactory() );
+         oThreadPoolExecutor.allowCoreThreadTimeOut( true );
+
+         _oExecutor = oThreadPoolExecutor;
+      }
+   }
+
+   /**
+    * This method is called by the webcontainer when this servlet is taken out of service
+    */
+   public void destroy()
+   {
+      if ( _oExecutor != null )
+      {
+         _oExecutor.shutdown();
+
+         try
+         {
+            // requests in progress use the models and views that are destroyed next
+            if ( ! _oExecutor.awaitTermination( Math.max( _lTimeoutMillis, 1000 ), TimeUnit.MILLISECONDS ) )
+            {
+               _oLog.warn( "destroy: requests still in progress" );
+            }
+         }
+         catch ( InterruptedException e )
+         {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      super.destroy();
+   }
+
+   public void service( HttpServletRequest oRequest, HttpServletResponse oResponse )
+      throws IOException
+   {
+      oRequest.setAttribute( START_TIME_ATTRIBUTE, Long.valueOf( System.currentTimeMillis() ) );
+
+      if ( ! oRequest.isAsyncSupported() )
+      {
+         if ( ! _bSyncFallbackLogged )
+         {
+            _bSyncFallbackLogged = true;
+            _oLog.warn( "service: request does not support asynchronous processing (is async-supported set for the servlet"
+                        + " and its filters?), processing on the container thread" );
+         }
+
+         dispatchRequest( oRequest, oResponse );
+         return;
+      }
+
+      AsyncContext oAsyncContext = oRequest.startAsync( oRequest, oResponse );
+
+      // as for a synchronous request the container does not time out the request, the async timeout only
+      // applies to waiting for a CompletionStage
+      oAsyncContext.setTimeout( 0 );
+
+      try
+      {
+         _oExecutor.execute( new AsyncDispatch( oAsyncContext, oRequest, oResponse ) );
+      }
+      catch ( RejectedExecutionException e )
+      {
+         // the servlet is being destroyed
+         oResponse.sendError( HttpServletResponse.SC_SERVICE_UNAVAILABLE );
+         oAsyncContext.complete();
+      }
+   }
+
+   /**
+    * Waits for the result of a CompletionStage returned by a controller, any other value is returned as is
+    */
+   protected Object resolveControllerReturnValue( HttpServletRequest   oRequest,
+                                                  HttpServletResponse  oResponse,
+                                                  Object               oControllerReturnValue )
+      throws Exception
+   {
+      if ( ! ( oControllerReturnValue instanceof CompletionStage ) )
+      {
+         return oControllerReturnValue;
+      }
+
+      CompletableFuture oFuture = ( ( CompletionStage ) oControllerReturnValue ).toCompletableFuture();
+
+      try
+      {
+         if ( _lTimeoutMillis == 0 )
+         {
+            return oFuture.get();
+         }
+
+         // the stage gets the time left since the request entered the dispatcher
+         Long oStartTime   = ( Long ) oRequest.getAttribute( START_TIME_ATTRIBUTE );
+         long lElapsed     = oStartTime == null ? 0 : System.currentTimeMillis() - oStartTime.longValue();
+
+         // a TimeoutException is handled like any other controller exception
+         return oFuture.get( Math.max( _lTimeoutMillis - lElapsed, 0 ), TimeUnit.MILLISECONDS );
+      }
+      catch ( ExecutionException e )
+      {
+         // the error controller gets the exception the stage completed with
+         Throwable oCause = e.getCause();
+
+         if ( oCause instanceof Exception )
+         {
+            throw ( Exception ) oCause;
+         }
+
+         if ( oCause instanceof Error )
+         {
+            throw ( Error ) oCause;
+         }
+
+         throw e;
+      }
+   }
+
+   /**
+    * @return an executor that starts a virtual thread for each task, or null if the Java runtime does not
+    * provide virtual threads (this module is compiled for Java 8, so the executor is created reflectively)
+    */
+   private static ExecutorService createVirtualThreadExecutor()
+   {
+      try
+      {
+         Method oFactoryMethod = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor", new Class[ 0 ] );
+
+         return ( ExecutorService ) oFactoryMethod.invoke( null, ( Object[] ) null );
+      }
+      catch ( NoSuchMethodException e )
+      {
+         return null;
+      }
+      catch ( Exception e )
+      {
+         // e.g. virtual threads are a preview feature on this runtime
+         return null;
+      }
+   }
+
+   private static String getInitParameter( ServletConfig oServletConfig, String sName, String sDefaultValue )
+   {
+      String sValue = oServletConfig.getInitParameter( oServletConfig.getServletName() + "." + sName );
+
+      return sValue == null || sValue.trim().length() == 0 ? sDefaultValue : sValue.trim();
+   }
+
+   private static int getIntInitParameter( ServletConfig oServletConfig, String sName, int iDefaultValue )
+      throws ServletException
+   {
+      String sValue = getInitParameter( oServletConfig, sName, null );
+
+      if ( sValue == null )
+      {
+         return iDefaultValue;
+      }
+
+      try
+      {
+         int iValue = Integer.parseInt( sValue );
+
+         if ( iValue >= 0 )
+         {
+            return iValue;
+         }
+      }
+      catch ( NumberFormatException e )
+      {
+         // reported below
+      }
+
+      throw new ServletException( "init-error: " + sName + " must be a non-negative integer, found: " + sValue );
+   }
+
+   /**
+    * Processes a request on an executor thread and completes its async context
+    */
+   private class AsyncDispatch implements Runnable
+   {
+      private  AsyncContext         _oAsyncContext;
+      private  HttpServletRequest   _oRequest;
+      private  HttpServletResponse  _oResponse;
+
+      private AsyncDispatch( AsyncContext oAsyncContext, HttpServletRequest oRequest, HttpServletResponse oResponse )
+      {
+         _oAsyncContext = oAsyncContext;
+         _oRequest      = oRequest;
+         _oResponse     = oResponse;
+      }
+
+      public void run()
+      {
+         Thread      oThread                    = Thread.currentThread();
+         ClassLoader oPreviousContextClassLoader = oThread.getContextClassLoader();
+
+         oThread.setContextClassLoader( _oContextClassLoader );
+
+         try
+         {
+            dispatchRequest( _oRequest, _oResponse );
+         }
+         catch ( Throwable e )
+         {
+            // on the container thread the container would have reported this error
+            _oLog.error( "dispatch-request: unhandled error", e );
+
+            if ( ! _oResponse.isCommitted() )
+            {
+               try
+               {
+                  _oResponse.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+               }
+               catch ( IOException e1 )
+               {
+                  // the client is gone
+               }
+            }
+         }
+         finally
+         {
+            oThread.setContextClassLoader( oPreviousContextClassLoader );
+
+            try
+            {
+               _oAsyncContext.complete();
+            }
+            catch ( IllegalStateException e )
+            {
+               // the request already completed, e.g. the client disconnected
+            }
+         }
+      }
+   }
+
+   private static class DispatchThreadFactory implements ThreadFactory
+   {
+      private AtomicInteger _oThreadCount = new AtomicInteger();
+
+      public Thread newThread( Runnable oRunnable )
+      {
+         Thread oThread = new Thread( oRunnable, "induction-async-dispatch-" + _oThreadCount.incrementAndGet() );
+
+         oThread.setDaemon( true );
+
+         return oThread;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import com.acciente.induction.util.BufferPool;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Internal.
+ * The buffer type of the pool of direct byte buffers used by the embedded server to read requests and write
+ * responses. Direct buffers are used since the socket channels copy heap buffers to a direct buffer on every
+ * read and write.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class DirectBufferType implements BufferPool.BufferType
+{
+   public Object createBuffer( int iSize )
+   {
+      return ByteBuffer.allocateDirect( iSize );
+   }
+
+   public int getSize( Object oBuffer )
+   {
+      return ( ( ByteBuffer ) oBuffer ).capacity();
+   }
+
+   public void clear( Object oBuffer )
+   {
+      ( ( ByteBuffer ) oBuffer ).clear();
+   }
+
+   public void dispose( Object oBuffer )
+   {
+      // the memory of a direct buffer is freed when the buffer is garbage collected
+   }
+}
+
+// EOF
\ No newline at end of file
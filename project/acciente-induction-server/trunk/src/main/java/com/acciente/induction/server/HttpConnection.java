@@ -0,0 +1,514 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import com.acciente.induction.util.BufferPool;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Internal.
+ * A client connection of the embedded server.
+ * <p>
+ * Requests are read and parsed by the listener's selector thread without blocking: bytes are read into a
+ * pooled direct buffer until the request head and the request body are complete, and then the request is
+ * handed to the request processor. The connection is not read while a request is processed, when the response
+ * is complete the connection either closes or goes back to reading (requests that a client pipelined are
+ * already in the read buffer). The read buffer is returned to the pool whenever it is empty, so an idle
+ * keep-alive connection holds no buffer. The body buffer grows as body bytes arrive, so a client that declares
+ * a large body and then sends it slowly holds memory in proportion to the bytes it actually sent.
+ * <p>
+ * Responses are written by the thread processing the request, when the socket cannot take more bytes the
+ * thread waits until the selector reports the socket writable again.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class HttpConnection
+{
+   private static final byte[]   CONTINUE_RESPONSE          = "HTTP/1.1 100 Continue\r\n\r\n".getBytes();
+   private static final int      INITIAL_BODY_BUFFER_SIZE   = 8 * 1024;
+
+   private SocketChannel      _oChannel;
+   private SelectionKey       _oKey;
+   private HttpListener       _oListener;
+   private RequestProcessor   _oRequestProcessor;
+   private BufferPool         _oBufferPool;
+   private int                _iMaxRequestBodySize;
+   private long               _lIdleTimeoutMillis;
+
+   // the following state is only used by the selector thread
+   private ByteBuffer         _oReadBuffer;
+   private int                _iScanIndex;
+   private RequestHead        _oHead;
+   private byte[]             _ayBody;
+   private int                _iBodyLength;
+   private int                _iContentLength;
+   private long               _lLastActivityTime;
+   private boolean            _bProcessing;
+
+   private Object             _oWriteMonitor     = new Object();
+   private boolean            _bWritable;
+   private volatile boolean   _bClosed;
+
+   private Log                _oLog;
+
+   public HttpConnection( SocketChannel oChannel, HttpListener oListener, RequestProcessor oRequestProcessor,
+                          BufferPool oBufferPool, ServerConfig oServerConfig )
+   {
+      _oChannel            = oChannel;
+      _oListener           = oListener;
+      _oRequestProcessor   = oRequestProcessor;
+      _oBufferPool         = oBufferPool;
+      _iMaxRequestBodySize = oServerConfig.getMaxRequestBodySize();
+      _lIdleTimeoutMillis  = oServerConfig.getIdleTimeoutSeconds() * 1000L;
+      _lLastActivityTime   = System.currentTimeMillis();
+      _oLog                = LogFactory.getLog( HttpConnection.class );
+   }
+
+   void setKey( SelectionKey oKey )
+   {
+      _oKey = oKey;
+   }
+
+   /**
+    * @return the address of the client, or null if it is not known
+    */
+   public SocketAddress getRemoteAddress()
+   {
+      try
+      {
+         return _oChannel.getRemoteAddress();
+      }
+      catch ( IOException e )
+      {
+         return null;
+      }
+   }
+
+   /**
+    * @return the address the client connected to, or null if it is not known
+    */
+   public SocketAddress getLocalAddress()
+   {
+      try
+      {
+         return _oChannel.getLocalAddress();
+      }
+      catch ( IOException e )
+      {
+         return null;
+      }
+   }
+
+   public boolean isClosed()
+   {
+      return _bClosed;
+   }
+
+   /**
+    * Called by the selector thread when the channel has bytes to read
+    */
+   void onReadable()
+   {
+      if ( _oReadBuffer == null )
+      {
+         _oReadBuffer = ( ByteBuffer ) _oBufferPool.acquire();
+      }
+
+      int iBytesRead;
+
+      try
+      {
+         iBytesRead = _oChannel.read( _oReadBuffer );
+      }
+      catch ( IOException e )
+      {
+         close();
+         return;
+      }
+
+      if ( iBytesRead < 0 )
+      {
+         close();
+         return;
+      }
+
+      _lLastActivityTime = System.currentTimeMillis();
+
+      processInput();
+   }
+
+   /**
+    * Called by the selector thread when the channel can take more bytes
+    */
+   void onWritable()
+   {
+      _oKey.interestOps( _oKey.interestOps() & ~SelectionKey.OP_WRITE );
+
+      synchronized ( _oWriteMonitor )
+      {
+         _bWritable = true;
+         _oWriteMonitor.notifyAll();
+      }
+   }
+
+   /**
+    * Called by the selector thread periodically
+    *
+    * @param lNow the current time
+    * @return true if the connection has been idle (while not processing a request) for longer than the idle timeout
+    */
+   boolean isIdleExpired( long lNow )
+   {
+      return ! _bProcessing && lNow - _lLastActivityTime > _lIdleTimeoutMillis;
+   }
+
+   /**
+    * Parses the bytes in the read buffer, dispatches a request if one is complete
+    */
+   private void processInput()
+   {
+      if ( _oHead == null )
+      {
+         int iHeadLength = RequestHead.findEndOfHead( _oReadBuffer, _iScanIndex );
+
+         if ( iHeadLength == -1 )
+         {
+            if ( ! _oReadBuffer.hasRemaining() )
+            {
+               closeWithError( 431, "Request Header Fields Too Large" );
+            }
+            else
+            {
+               _iScanIndex = _oReadBuffer.position();
+
+               releaseReadBufferIfEmpty();
+            }
+
+            return;
+         }
+
+         long lContentLength;
+
+         try
+         {
+            _oHead         = RequestHead.parse( _oReadBuffer, iHeadLength );
+            lContentLength = _oHead.getContentLength();
+
+            if ( lContentLength > _iMaxRequestBodySize )
+            {
+               throw new HttpParseException( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "request body too large" );
+            }
+         }
+         catch ( HttpParseException e )
+         {
+            _oLog.debug( "request: " + e.getMessage() );
+
+            closeWithError( e.getStatus(), ServerResponse.getReasonPhrase( e.getStatus() ) );
+            return;
+         }
+
+         consume( iHeadLength );
+
+         _iScanIndex       = 0;
+         _iContentLength   = ( int ) lContentLength;
+         _ayBody           = new byte[ Math.min( _iContentLength, INITIAL_BODY_BUFFER_SIZE ) ];
+         _iBodyLength      = 0;
+
+         if ( _oHead.isExpectContinue() && _oReadBuffer.position() < _iContentLength )
+         {
+            try
+            {
+               // the socket's send buffer is empty at this point, so this short write does not block
+               _oChannel.write( ByteBuffer.wrap( CONTINUE_RESPONSE ) );
+            }
+            catch ( IOException e )
+            {
+               close();
+               return;
+            }
+         }
+      }
+
+      if ( _iBodyLength < _iContentLength )
+      {
+         int         iLength  = Math.min( _oReadBuffer.position(), _iContentLength - _iBodyLength );
+         ByteBuffer  oBytes   = _oReadBuffer.duplicate();
+
+         if ( _iBodyLength + iLength > _ayBody.length )
+         {
+            growBody( _iBodyLength + iLength );
+         }
+
+         oBytes.flip();
+         oBytes.get( _ayBody, _iBodyLength, iLength );
+
+         consume( iLength );
+
+         _iBodyLength += iLength;
+
+         if ( _iBodyLength < _iContentLength )
+         {
+            releaseReadBufferIfEmpty();
+            return;
+         }
+      }
+
+      RequestHead oHead = _oHead;
+      byte[]      ayBody = _ayBody;
+
+      _oHead         = null;
+      _ayBody        = null;
+      _bProcessing   = true;
+
+      releaseReadBufferIfEmpty();
+
+      // the connection is not read while the request is processed
+      _oKey.interestOps( 0 );
+
+      if ( ! _oRequestProcessor.process( this, oHead, ayBody ) )
+      {
+         close();
+      }
+   }
+
+   /**
+    * Called by the thread that processed a request when the response is complete
+    *
+    * @param bKeepAlive true if the connection can be used for another request
+    */
+   void requestCompleted( final boolean bKeepAlive )
+   {
+      _oListener.runOnSelectorThread( new Runnable()
+      {
+         public void run()
+         {
+            if ( _bClosed )
+            {
+               return;
+            }
+
+            if ( ! bKeepAlive )
+            {
+               close();
+               return;
+            }
+
+            _bProcessing         = false;
+            _lLastActivityTime   = System.currentTimeMillis();
+
+            // a client may have pipelined the next request
+            if ( _oReadBuffer != null )
+            {
+               processInput();
+            }
+
+            if ( ! _bProcessing && ! _bClosed )
+            {
+               _oKey.interestOps( SelectionKey.OP_READ );
+            }
+         }
+      } );
+   }
+
+   /**
+    * Writes the specified buffers completely, blocking the calling thread if the socket cannot take the bytes
+    *
+    * @param aoBuffers the buffers to write
+    * @throws IOException if the connection is closed or the client does not read for longer than the idle timeout
+    */
+   void write( ByteBuffer[] aoBuffers )
+      throws IOException
+   {
+      while ( hasRemaining( aoBuffers ) )
+      {
+         if ( _bClosed )
+         {
+            throw new IOException( "connection closed" );
+         }
+
+         if ( _oChannel.write( aoBuffers ) == 0 )
+         {
+            awaitWritable();
+         }
+      }
+   }
+
+   private void awaitWritable()
+      throws IOException
+   {
+      synchronized ( _oWriteMonitor )
+      {
+         _bWritable = false;
+      }
+
+      _oListener.runOnSelectorThread( new Runnable()
+      {
+         public void run()
+         {
+            if ( _oKey.isValid() )
+            {
+               _oKey.interestOps( _oKey.interestOps() | SelectionKey.OP_WRITE );
+            }
+         }
+      } );
+
+      long lDeadline = System.currentTimeMillis() + _lIdleTimeoutMillis;
+
+      synchronized ( _oWriteMonitor )
+      {
+         while ( ! _bWritable && ! _bClosed )
+         {
+            long lWaitMillis = lDeadline - System.currentTimeMillis();
+
+            if ( lWaitMillis <= 0 )
+            {
+               throw new IOException( "write timed out" );
+            }
+
+            try
+            {
+               _oWriteMonitor.wait( lWaitMillis );
+            }
+            catch ( InterruptedException e )
+            {
+               Thread.currentThread().interrupt();
+
+               throw new InterruptedIOException( "interrupted while writing" );
+            }
+         }
+      }
+   }
+
+   /**
+    * Sends an error response to a request that could not be read and closes the connection, called by the
+    * selector thread
+    */
+   private void closeWithError( int iStatus, String sReasonPhrase )
+   {
+      String sResponse = "HTTP/1.1 " + iStatus + " " + sReasonPhrase + "\r\n"
+                         + "Date: " + HttpDate.now() + "\r\n"
+                         + "Content-Length: 0\r\n"
+                         + "Connection: close\r\n\r\n";
+      try
+      {
+         // a best effort, the client may not be reading
+         _oChannel.write( ByteBuffer.wrap( sResponse.getBytes( "ISO-8859-1" ) ) );
+      }
+      catch ( IOException e )
+      {
+         // the connection is closed below
+      }
+
+      close();
+   }
+
+   /**
+    * Closes the connection, called by the selector thread
+    */
+   void close()
+   {
+      if ( _bClosed )
+      {
+         return;
+      }
+
+      _bClosed = true;
+
+      try
+      {
+         _oChannel.close();
+      }
+      catch ( IOException e )
+      {
+         // nothing more to do
+      }
+
+      if ( _oReadBuffer != null )
+      {
+         _oBufferPool.release( _oReadBuffer );
+         _oReadBuffer = null;
+      }
+
+      _oListener.connectionClosed( this );
+
+      // wake up a thread waiting to write
+      synchronized ( _oWriteMonitor )
+      {
+         _oWriteMonitor.notifyAll();
+      }
+   }
+
+   /**
+    * Grows the body buffer to hold at least the specified number of bytes, the buffer at least doubles so
+    * that a body is copied a logarithmic number of times, but never grows past the declared content length
+    */
+   private void growBody( int iMinLength )
+   {
+      byte[] ayBody = new byte[ Math.min( _iContentLength, Math.max( iMinLength, _ayBody.length * 2 ) ) ];
+
+      System.arraycopy( _ayBody, 0, ayBody, 0, _iBodyLength );
+
+      _ayBody = ayBody;
+   }
+
+   /**
+    * Removes bytes from the start of the read buffer
+    */
+   private void consume( int iLength )
+   {
+      _oReadBuffer.flip();
+      _oReadBuffer.position( iLength );
+      _oReadBuffer.compact();
+   }
+
+   private void releaseReadBufferIfEmpty()
+   {
+      if ( _oReadBuffer != null && _oReadBuffer.position() == 0 )
+      {
+         _oBufferPool.release( _oReadBuffer );
+         _oReadBuffer   = null;
+         _iScanIndex    = 0;
+      }
+   }
+
+   private static boolean hasRemaining( ByteBuffer[] aoBuffers )
+   {
+      for ( int i = 0; i < aoBuffers.length; i++ )
+      {
+         if ( aoBuffers[ i ].hasRemaining() )
+         {
+            return true;
+         }
+      }
+
+      return false;
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Internal.
+ * Formats and parses the dates used in HTTP headers.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class HttpDate
+{
+   private static final String[]       PARSE_PATTERNS =
+      {
+         "EEE, dd MMM yyyy HH:mm:ss zzz",       // RFC 1123
+         "EEEE, dd-MMM-yy HH:mm:ss zzz",        // RFC 1036
+         "EEE MMM d HH:mm:ss yyyy"              // asctime
+      };
+
+   private static final SimpleDateFormat  FORMAT      = createFormat( PARSE_PATTERNS[ 0 ] );
+
+   // the Date header of a response is formatted at most once a second
+   private static volatile CachedDate     _oCachedDate   = new CachedDate( 0, null );
+
+   /**
+    * @return the current time formatted for a Date header
+    */
+   public static String now()
+   {
+      long        lSecond     = System.currentTimeMillis() / 1000;
+      CachedDate  oCachedDate = _oCachedDate;
+
+      if ( oCachedDate._lSecond != lSecond )
+      {
+         oCachedDate    = new CachedDate( lSecond, format( lSecond * 1000 ) );
+         _oCachedDate   = oCachedDate;
+      }
+
+      return oCachedDate._sFormattedDate;
+   }
+
+   public static String format( long lTime )
+   {
+      synchronized ( FORMAT )
+      {
+         return FORMAT.format( new Date( lTime ) );
+      }
+   }
+
+   /**
+    * @param sDate a date in one of the formats allowed in HTTP headers
+    * @return the time in milliseconds, or -1 if the date cannot be parsed
+    */
+   public static long parse( String sDate )
+   {
+      for ( int i = 0; i < PARSE_PATTERNS.length; i++ )
+      {
+         try
+         {
+            return createFormat( PARSE_PATTERNS[ i ] ).parse( sDate ).getTime();
+         }
+         catch ( ParseException e )
+         {
+            // try the next format
+         }
+      }
+
+      return -1;
+   }
+
+   private static SimpleDateFormat createFormat( String sPattern )
+   {
+      SimpleDateFormat oFormat = new SimpleDateFormat( sPattern, Locale.US );
+
+      oFormat.setTimeZone( TimeZone.getTimeZone( "GMT" ) );
+
+      return oFormat;
+   }
+
+   private static class CachedDate
+   {
+      private long   _lSecond;
+      private String _sFormattedDate;
+
+      private CachedDate( long lSecond, String sFormattedDate )
+      {
+         _lSecond          = lSecond;
+         _sFormattedDate   = sFormattedDate;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
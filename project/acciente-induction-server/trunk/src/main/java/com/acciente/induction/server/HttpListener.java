@@ -0,0 +1,380 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import com.acciente.induction.util.BufferPool;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Internal.
+ * Accepts connections on a server socket channel and reads requests from them, all on a single selector
+ * thread. Work that other threads need done on the selector (such as resuming reads on a connection after a
+ * response completes) is queued with runOnSelectorThread().
+ * <p>
+ * The listener stops accepting connections while the configured maximum number of connections is open, and
+ * for a short delay after an accept fails (for example when the process runs out of file descriptors), so
+ * that the selector does not spin on a server socket that stays acceptable.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class HttpListener implements Runnable
+{
+   private static final long     IDLE_CHECK_INTERVAL_MILLIS = 1000;
+   private static final long     ACCEPT_RETRY_DELAY_MILLIS  = 500;
+
+   private ServerSocketChannel   _oServerChannel;
+   private RequestProcessor      _oRequestProcessor;
+   private BufferPool            _oBufferPool;
+   private ServerConfig          _oServerConfig;
+   private Selector              _oSelector;
+   private SelectionKey          _oAcceptKey;
+   private long                  _lAcceptRetryTime;                       // 0 unless accepting is paused after a failure
+   private boolean               _bAcceptFailing;                         // true from a failed accept to the next accept
+   private Thread                _oThread;
+   private ConcurrentLinkedQueue _oPendingTasks       = new ConcurrentLinkedQueue();
+   private Set                   _oConnections        = new HashSet();
+   private volatile boolean      _bRunning;
+   private Log                   _oLog;
+
+   /**
+    * @param oServerChannel a bound server socket channel
+    * @param oRequestProcessor the processor to hand complete requests to
+    * @param oBufferPool a pool of direct byte buffers
+    * @param oServerConfig the server settings
+    * @throws IOException if the selector cannot be opened
+    */
+   public HttpListener( ServerSocketChannel oServerChannel, RequestProcessor oRequestProcessor, BufferPool oBufferPool,
+                        ServerConfig oServerConfig )
+      throws IOException
+   {
+      _oServerChannel      = oServerChannel;
+      _oRequestProcessor   = oRequestProcessor;
+      _oBufferPool         = oBufferPool;
+      _oServerConfig       = oServerConfig;
+      _oSelector           = Selector.open();
+      _oLog                = LogFactory.getLog( HttpListener.class );
+
+      _oServerChannel.configureBlocking( false );
+      _oAcceptKey = _oServerChannel.register( _oSelector, SelectionKey.OP_ACCEPT );
+   }
+
+   public SocketAddress getLocalAddress()
+      throws IOException
+   {
+      return _oServerChannel.getLocalAddress();
+   }
+
+   public void start()
+   {
+      _bRunning   = true;
+      _oThread    = new Thread( this, "induction-server-listener" );
+      _oThread.start();
+   }
+
+   /**
+    * Stops accepting new connections, connections already accepted are still served
+    */
+   public void stopAccepting()
+   {
+      runOnSelectorThread( new Runnable()
+      {
+         public void run()
+         {
+            try
+            {
+               // clients that connect now are refused instead of waiting in the backlog
+               _oServerChannel.close();
+            }
+            catch ( IOException e )
+            {
+               _oLog.warn( "listener: error closing server socket", e );
+            }
+         }
+      } );
+   }
+
+   /**
+    * Stops accepting connections and closes all connections, requests being processed are not waited for
+    */
+   public void stop()
+   {
+      _bRunning = false;
+      _oSelector.wakeup();
+
+      try
+      {
+         _oThread.join();
+      }
+      catch ( InterruptedException e )
+      {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * Queues a task to run on the selector thread, tasks queued after the listener stopped do not run
+    *
+    * @param oTask a task
+    */
+   public void runOnSelectorThread( Runnable oTask )
+   {
+      _oPendingTasks.add( oTask );
+      _oSelector.wakeup();
+   }
+
+   void connectionClosed( HttpConnection oConnection )
+   {
+      _oConnections.remove( oConnection );
+   }
+
+   public void run()
+   {
+      long lLastIdleCheckTime = System.currentTimeMillis();
+
+      while ( _bRunning )
+      {
+         try
+         {
+            _oSelector.select( getSelectTimeout() );
+         }
+         catch ( IOException e )
+         {
+            _oLog.error( "listener: select failed", e );
+            break;
+         }
+
+         runPendingTasks();
+
+         for ( Iterator oIter = _oSelector.selectedKeys().iterator(); oIter.hasNext(); )
+         {
+            SelectionKey oKey = ( SelectionKey ) oIter.next();
+
+            oIter.remove();
+
+            if ( ! oKey.isValid() )
+            {
+               continue;
+            }
+
+            if ( oKey.isAcceptable() )
+            {
+               acceptConnections();
+            }
+            else
+            {
+               HttpConnection oConnection = ( HttpConnection ) oKey.attachment();
+
+               if ( oKey.isWritable() )
+               {
+                  oConnection.onWritable();
+               }
+
+               if ( oKey.isValid() && oKey.isReadable() )
+               {
+                  oConnection.onReadable();
+               }
+            }
+         }
+
+         long lNow = System.currentTimeMillis();
+
+         if ( lNow - lLastIdleCheckTime >= IDLE_CHECK_INTERVAL_MILLIS )
+         {
+            lLastIdleCheckTime = lNow;
+
+            closeIdleConnections( lNow );
+         }
+
+         updateAcceptInterest( lNow );
+      }
+
+      closeAll();
+   }
+
+   private long getSelectTimeout()
+   {
+      if ( _lAcceptRetryTime == 0 )
+      {
+         return IDLE_CHECK_INTERVAL_MILLIS;
+      }
+
+      return Math.max( 1, Math.min( IDLE_CHECK_INTERVAL_MILLIS, _lAcceptRetryTime - System.currentTimeMillis() ) );
+   }
+
+   /**
+    * Selects the server socket for accepting only while there is room for more connections and accepting is
+    * not paused after a failure
+    */
+   private void updateAcceptInterest( long lNow )
+   {
+      if ( _lAcceptRetryTime != 0 && lNow >= _lAcceptRetryTime )
+      {
+         _lAcceptRetryTime = 0;
+      }
+
+      if ( _oAcceptKey.isValid() )
+      {
+         boolean bAccept = _lAcceptRetryTime == 0 && _oConnections.size() < _oServerConfig.getMaxConnections();
+
+         _oAcceptKey.interestOps( bAccept ? SelectionKey.OP_ACCEPT : 0 );
+      }
+   }
+
+   private void runPendingTasks()
+   {
+      Runnable oTask;
+
+      while ( ( oTask = ( Runnable ) _oPendingTasks.poll() ) != null )
+      {
+         try
+         {
+            oTask.run();
+         }
+         catch ( RuntimeException e )
+         {
+            // e.g. a CancelledKeyException for a connection the client closed
+            _oLog.debug( "listener: task failed", e );
+         }
+      }
+   }
+
+   private void acceptConnections()
+   {
+      while ( _oConnections.size() < _oServerConfig.getMaxConnections() )
+      {
+         SocketChannel oChannel;
+
+         try
+         {
+            oChannel = _oServerChannel.accept();
+         }
+         catch ( IOException e )
+         {
+            // e.g. the process ran out of file descriptors, the connection stays in the backlog, retrying at
+            // once would fail again, so accepting is paused for a while
+            if ( ! _bAcceptFailing )
+            {
+               _oLog.warn( "listener: accept failed, retrying every " + ACCEPT_RETRY_DELAY_MILLIS + " ms", e );
+            }
+
+            _bAcceptFailing   = true;
+            _lAcceptRetryTime = System.currentTimeMillis() + ACCEPT_RETRY_DELAY_MILLIS;
+            return;
+         }
+
+         if ( oChannel == null )
+         {
+            return;
+         }
+
+         if ( _bAcceptFailing )
+         {
+            _bAcceptFailing = false;
+            _oLog.info( "listener: accepting connections again" );
+         }
+
+         HttpConnection oConnection = new HttpConnection( oChannel, this, _oRequestProcessor, _oBufferPool, _oServerConfig );
+
+         try
+         {
+            oChannel.configureBlocking( false );
+
+            setTcpNoDelay( oChannel );
+
+            oConnection.setKey( oChannel.register( _oSelector, SelectionKey.OP_READ, oConnection ) );
+
+            _oConnections.add( oConnection );
+         }
+         catch ( IOException e )
+         {
+            oConnection.close();
+         }
+      }
+   }
+
+   private static void setTcpNoDelay( SocketChannel oChannel )
+      throws IOException
+   {
+      try
+      {
+         // responses are written in whole buffers, so small segments are not delayed waiting for acks
+         oChannel.setOption( StandardSocketOptions.TCP_NODELAY, Boolean.TRUE );
+      }
+      catch ( UnsupportedOperationException e )
+      {
+         // not a TCP socket
+      }
+   }
+
+   private void closeIdleConnections( long lNow )
+   {
+      List oIdleConnections = new ArrayList();
+
+      for ( Iterator oIter = _oConnections.iterator(); oIter.hasNext(); )
+      {
+         HttpConnection oConnection = ( HttpConnection ) oIter.next();
+
+         if ( oConnection.isIdleExpired( lNow ) )
+         {
+            oIdleConnections.add( oConnection );
+         }
+      }
+
+      for ( Iterator oIter = oIdleConnections.iterator(); oIter.hasNext(); )
+      {
+         ( ( HttpConnection ) oIter.next() ).close();
+      }
+   }
+
+   private void closeAll()
+   {
+      for ( Iterator oIter = new ArrayList( _oConnections ).iterator(); oIter.hasNext(); )
+      {
+         ( ( HttpConnection ) oIter.next() ).close();
+      }
+
+      try
+      {
+         _oServerChannel.close();
+         _oSelector.close();
+      }
+      catch ( IOException e )
+      {
+         _oLog.warn( "listener: error closing server socket", e );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
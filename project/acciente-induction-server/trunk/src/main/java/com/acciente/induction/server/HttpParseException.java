@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+/**
+ * Internal.
+ * Thrown when a request cannot be read, the exception carries the status to send to the client before the
+ * connection is closed.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class HttpParseException extends Exception
+{
+   private int _iStatus;
+
+   public HttpParseException( int iStatus, String sMessage )
+   {
+      super( sMessage );
+
+      _iStatus = iStatus;
+   }
+
+   public int getStatus()
+   {
+      return _iStatus;
+   }
+}
+
+// EOF
\ No newline at end of file
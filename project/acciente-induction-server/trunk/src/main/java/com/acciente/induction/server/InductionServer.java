@@ -0,0 +1,401 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.BufferPool;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.Servlet;
+import javax.servlet.ServletException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class runs an Induction application without a servlet container. It embeds a small HTTP/1.1 server
+ * built on non-blocking NIO channels, and runs the Induction dispatcher servlet (or a subclass of it) with
+ * request and response objects that implement the servlet API. The application is configured exactly as
+ * when it runs in a servlet container, with an XML config file named induction-[servlet-name].xml.
+ * <p>
+ * The server is started from the command line with:
+ * <pre>
+ *    java com.acciente.induction.server.InductionServer --port=8080 --servlet-name=myapp --webapp-dir=web
+ * </pre>
+ * or from code by creating an instance with a ServerConfig and calling start(). Instead of a TCP port the
+ * server can listen on a Unix domain socket (--unix-socket=/run/myapp.sock), for deployments where a
+ * reverse proxy on the same host forwards requests to the server.
+ * <p>
+ * The server supports persistent connections and pipelining, request bodies sent with a Content-Length
+ * (up to a configured size), chunked and fixed-length responses, and cookie-based HTTP sessions held in
+ * memory. It does not support TLS, request dispatchers, servlet filters or servlet listeners, an application
+ * that needs these should run in a servlet container.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class InductionServer
+{
+   public static final String SERVER_INFO = "Induction Server";
+
+   private static final long  SESSION_EXPIRY_INTERVAL_SECONDS = 60;
+   private static final int   ACCEPT_BACKLOG                  = 1024;
+
+   private ServerConfig                _oServerConfig;
+   private Servlet                     _oServlet;
+   private SessionManager              _oSessionManager;
+   private RequestProcessor            _oRequestProcessor;
+   private HttpListener                _oListener;
+   private ScheduledExecutorService    _oSessionExpiryExecutor;
+   private Log                         _oLog;
+
+   public InductionServer( ServerConfig oServerConfig )
+   {
+      _oServerConfig = oServerConfig;
+      _oLog          = LogFactory.getLog( InductionServer.class );
+   }
+
+   /**
+    * Initializes the dispatcher servlet and starts accepting connections
+    *
+    * @throws ServletException if the servlet could not be created or failed to initialize
+    * @throws IOException if the server socket could not be opened
+    */
+   public synchronized void start()
+      throws ServletException, IOException
+   {
+      if ( _oListener != null )
+      {
+         throw new IllegalStateException( "server already started" );
+      }
+
+      long           lStartTime     = System.currentTimeMillis();
+      ClassLoader    oClassLoader   = Thread.currentThread().getContextClassLoader();
+      ServerContext  oServerContext = new ServerContext( _oServerConfig, oClassLoader );
+
+      // the servlet is initialized before the socket is opened, so no request sees an uninitialized dispatcher
+      _oServlet = createServlet( oClassLoader );
+      _oServlet.init( new ServerServletConfig( _oServerConfig, oServerContext ) );
+
+      BufferPool oBufferPool = new BufferPool( "server.buffers",
+                                               new DirectBufferType(),
+                                               _oServerConfig.getBufferSize(),
+                                               _oServerConfig.getMaxPooledBuffers(),
+                                               _oServerConfig.getBufferSize(),
+                                               new Statistics() );
+
+      _oSessionManager     = new SessionManager( oServerContext, _oServerConfig.getSessionTimeoutMinutes() );
+      _oRequestProcessor   = new RequestProcessor( _oServerConfig,
+                                                   oServerContext,
+                                                   _oSessionManager,
+                                                   _oServlet,
+                                                   oBufferPool,
+                                                   oClassLoader );
+
+      _oListener = new HttpListener( openServerChannel(), _oRequestProcessor, oBufferPool, _oServerConfig );
+      _oListener.start();
+
+      _oSessionExpiryExecutor = Executors.newSingleThreadScheduledExecutor( new ThreadFactory()
+      {
+         public Thread newThread( Runnable oRunnable )
+         {
+            Thread oThread = new Thread( oRunnable, "induction-server-session-expiry" );
+
+            oThread.setDaemon( true );
+
+            return oThread;
+         }
+      } );
+      _oSessionExpiryExecutor.scheduleWithFixedDelay( new Runnable()
+                                                      {
+                                                         public void run()
+                                                         {
+                                                            _oSessionManager.expireSessions();
+                                                         }
+                                                      },
+                                                      SESSION_EXPIRY_INTERVAL_SECONDS,
+                                                      SESSION_EXPIRY_INTERVAL_SECONDS,
+                                                      TimeUnit.SECONDS );
+
+      _oLog.info( "started on " + getLocalAddress() + " in " + ( System.currentTimeMillis() - lStartTime ) + " ms" );
+   }
+
+   /**
+    * Stops accepting connections, waits for the requests in progress to complete (up to the idle timeout),
+    * and destroys the dispatcher servlet
+    */
+   public synchronized void stop()
+   {
+      if ( _oListener == null )
+      {
+         return;
+      }
+
+      _oListener.stopAccepting();
+      _oRequestProcessor.destroy();
+      _oListener.stop();
+      _oSessionExpiryExecutor.shutdownNow();
+
+      if ( _oServerConfig.getUnixSocketFile() != null )
+      {
+         // unlike a TCP port a socket file outlives the socket
+         _oServerConfig.getUnixSocketFile().delete();
+      }
+
+      _oServlet.destroy();
+      _oSessionManager.destroy();
+
+      _oListener = null;
+
+      _oLog.info( "stopped" );
+   }
+
+   /**
+    * @return the address the server listens on (useful when the server is started on port 0)
+    * @throws IOException if the server is not running
+    */
+   public SocketAddress getLocalAddress()
+      throws IOException
+   {
+      if ( _oListener == null )
+      {
+         throw new IOException( "server not started" );
+      }
+
+      // a Unix domain socket may have been bound at a temporary path and then renamed
+      if ( _oServerConfig.getUnixSocketFile() != null )
+      {
+         return UnixSocketChannels.getSocketAddress( _oServerConfig.getUnixSocketFile() );
+      }
+
+      return _oListener.getLocalAddress();
+   }
+
+   private Servlet createServlet( ClassLoader oClassLoader )
+      throws ServletException
+   {
+      try
+      {
+         return ( Servlet ) Class.forName( _oServerConfig.getServletClassName(), true, oClassLoader ).getConstructor( ( Class[] ) null ).newInstance( ( Object[] ) null );
+      }
+      catch ( Exception e )
+      {
+         throw new ServletException( "init-error: servlet class: " + _oServerConfig.getServletClassName(), e );
+      }
+   }
+
+   private ServerSocketChannel openServerChannel()
+      throws IOException
+   {
+      if ( _oServerConfig.getUnixSocketFile() != null )
+      {
+         return UnixSocketChannels.openServerChannel( _oServerConfig.getUnixSocketFile(),
+                                                      _oServerConfig.getUnixSocketPermissions(),
+                                                      ACCEPT_BACKLOG );
+      }
+
+      ServerSocketChannel oServerChannel = ServerSocketChannel.open();
+
+      try
+      {
+         InetSocketAddress oAddress = _oServerConfig.getHost() == null
+                                      ? new InetSocketAddress( _oServerConfig.getPort() )
+                                      : new InetSocketAddress( _oServerConfig.getHost(), _oServerConfig.getPort() );
+
+         // allows a restarted server to bind while connections of the previous process are in TIME_WAIT
+         oServerChannel.socket().setReuseAddress( true );
+         oServerChannel.bind( oAddress, ACCEPT_BACKLOG );
+      }
+      catch ( IOException e )
+      {
+         oServerChannel.close();
+         throw e;
+      }
+
+      return oServerChannel;
+   }
+
+   /**
+    * Starts a server configured with command line options, see the usage message for the options
+    *
+    * @param asArgs command line options
+    */
+   public static void main( String[] asArgs )
+   {
+      ServerConfig oServerConfig = new ServerConfig();
+
+      try
+      {
+         for ( int i = 0; i < asArgs.length; i++ )
+         {
+            parseOption( oServerConfig, asArgs[ i ] );
+         }
+      }
+      catch ( IllegalArgumentException e )
+      {
+         System.err.println( e.getMessage() );
+         System.err.println( getUsage() );
+         System.exit( 1 );
+      }
+
+      final InductionServer oServer = new InductionServer( oServerConfig );
+
+      try
+      {
+         oServer.start();
+      }
+      catch ( Exception e )
+      {
+         LogFactory.getLog( InductionServer.class ).fatal( "start failed", e );
+         System.exit( 1 );
+      }
+
+      Runtime.getRuntime().addShutdownHook( new Thread( "induction-server-shutdown" )
+      {
+         public void run()
+         {
+            oServer.stop();
+         }
+      } );
+   }
+
+   private static void parseOption( ServerConfig oServerConfig, String sOption )
+   {
+      int iEquals = sOption.indexOf( '=' );
+
+      if ( ! sOption.startsWith( "--" ) || iEquals == -1 )
+      {
+         throw new IllegalArgumentException( "invalid option: " + sOption );
+      }
+
+      String sName   = sOption.substring( 2, iEquals );
+      String sValue  = sOption.substring( iEquals + 1 );
+
+      try
+      {
+         if ( sName.equals( "host" ) )
+         {
+            oServerConfig.setHost( sValue );
+         }
+         else if ( sName.equals( "port" ) )
+         {
+            oServerConfig.setPort( Integer.parseInt( sValue ) );
+         }
+         else if ( sName.equals( "unix-socket" ) )
+         {
+            oServerConfig.setUnixSocketFile( new File( sValue ) );
+         }
+         else if ( sName.equals( "unix-socket-permissions" ) )
+         {
+            oServerConfig.setUnixSocketPermissions( sValue );
+         }
+         else if ( sName.equals( "context-path" ) )
+         {
+            oServerConfig.setContextPath( sValue );
+         }
+         else if ( sName.equals( "webapp-dir" ) )
+         {
+            oServerConfig.setWebappDir( new File( sValue ) );
+         }
+         else if ( sName.equals( "servlet-name" ) )
+         {
+            oServerConfig.setServletName( sValue );
+         }
+         else if ( sName.equals( "servlet-class" ) )
+         {
+            oServerConfig.setServletClassName( sValue );
+         }
+         else if ( sName.startsWith( "init-param." ) )
+         {
+            oServerConfig.addInitParameter( sName.substring( "init-param.".length() ), sValue );
+         }
+         else if ( sName.equals( "executor" ) )
+         {
+            oServerConfig.setExecutor( sValue );
+         }
+         else if ( sName.equals( "worker-pool-size" ) )
+         {
+            oServerConfig.setWorkerPoolSize( Integer.parseInt( sValue ) );
+         }
+         else if ( sName.equals( "buffer-size" ) )
+         {
+            oServerConfig.setBufferSize( Integer.parseInt( sValue ) );
+         }
+         else if ( sName.equals( "max-pooled-buffers" ) )
+         {
+            oServerConfig.setMaxPooledBuffers( Integer.parseInt( sValue ) );
+         }
+         else if ( sName.equals( "max-request-body-size" ) )
+         {
+            oServerConfig.setMaxRequestBodySize( Integer.parseInt( sValue ) );
+         }
+         else if ( sName.equals( "max-connections" ) )
+         {
+            oServerConfig.setMaxConnections( Integer.parseInt( sValue ) );
+         }
+         else if ( sName.equals( "idle-timeout" ) )
+         {
+            oServerConfig.setIdleTimeoutSeconds( Integer.parseInt( sValue ) );
+         }
+         else if ( sName.equals( "session-timeout" ) )
+         {
+            oServerConfig.setSessionTimeoutMinutes( Integer.parseInt( sValue ) );
+         }
+         else
+         {
+            throw new IllegalArgumentException( "unknown option: " + sOption );
+         }
+      }
+      catch ( NumberFormatException e )
+      {
+         throw new IllegalArgumentException( "option: " + sName + " must be a number: " + sValue );
+      }
+   }
+
+   private static String getUsage()
+   {
+      return "usage: java " + InductionServer.class.getName() + " [options]\n"
+             + "  --host=<host>                   the address to listen on (default: all addresses)\n"
+             + "  --port=<port>                   the TCP port to listen on (default: 8080)\n"
+             + "  --unix-socket=<file>            listen on a Unix domain socket instead of the TCP port\n"
+             + "  --unix-socket-permissions=<p>   the permissions of the socket file, e.g. rw-rw---- (default: umask)\n"
+             + "  --context-path=<path>           the context path of the application (default: none)\n"
+             + "  --webapp-dir=<dir>              the directory containing WEB-INF (default: none, the classpath is used)\n"
+             + "  --servlet-name=<name>           selects the config file induction-<name>.xml (default: app)\n"
+             + "  --servlet-class=<class>         the dispatcher servlet class (default: com.acciente.induction.dispatcher.HttpDispatcher)\n"
+             + "  --init-param.<name>=<value>     a servlet init parameter\n"
+             + "  --executor=virtual|pool         run requests on virtual threads or a thread pool (default: virtual)\n"
+             + "  --worker-pool-size=<n>          the size of the thread pool (default: 200)\n"
+             + "  --buffer-size=<bytes>           the size of the I/O buffers (default: 16384)\n"
+             + "  --max-pooled-buffers=<n>        the number of idle I/O buffers kept (default: 256)\n"
+             + "  --max-request-body-size=<bytes> the largest request body accepted (default: 10485760)\n"
+             + "  --max-connections=<n>           the most client connections open at once (default: 10000)\n"
+             + "  --idle-timeout=<seconds>        closes idle and stalled connections (default: 30)\n"
+             + "  --session-timeout=<minutes>     the session inactivity timeout (default: 30)";
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Internal.
+ * The request line and headers of an HTTP/1.x request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class RequestHead
+{
+   public static final String HTTP_1_0 = "HTTP/1.0";
+   public static final String HTTP_1_1 = "HTTP/1.1";
+
+   private String    _sMethod;
+   private String    _sRequestURI;
+   private String    _sQueryString;
+   private String    _sProtocol;
+   private List      _oHeaderNames     = new ArrayList();
+   private List      _oHeaderValues    = new ArrayList();
+
+   private RequestHead()
+   {
+   }
+
+   /**
+    * Finds the end of a request head, the head ends with an empty line
+    *
+    * @param oBuffer a buffer with request bytes from position 0 to the buffer's position
+    * @param iFromIndex the index to start the search at, the caller passes the previous buffer position so that
+    * bytes are not scanned twice
+    * @return the index just past the empty line that ends the head, or -1 if the head is not complete
+    */
+   public static int findEndOfHead( ByteBuffer oBuffer, int iFromIndex )
+   {
+      int iEnd = oBuffer.position();
+
+      // back up so that a line end split over two reads is found
+      for ( int i = Math.max( 0, iFromIndex - 3 ); i < iEnd; i++ )
+      {
+         if ( oBuffer.get( i ) == '\n' )
+         {
+            if ( i + 1 < iEnd && oBuffer.get( i + 1 ) == '\n' )
+            {
+               return i + 2;
+            }
+
+            if ( i + 2 < iEnd && oBuffer.get( i + 1 ) == '\r' && oBuffer.get( i + 2 ) == '\n' )
+            {
+               return i + 3;
+            }
+         }
+      }
+
+      return -1;
+   }
+
+   /**
+    * Parses a request head
+    *
+    * @param oBuffer a buffer with the request head from position 0
+    * @param iHeadLength the length of the head, as returned by findEndOfHead()
+    * @return the parsed head
+    * @throws HttpParseException if the head is malformed
+    */
+   public static RequestHead parse( ByteBuffer oBuffer, int iHeadLength )
+      throws HttpParseException
+   {
+      char[] acHead = new char[ iHeadLength ];
+
+      for ( int i = 0; i < iHeadLength; i++ )
+      {
+         acHead[ i ] = ( char ) ( oBuffer.get( i ) & 0xFF );
+      }
+
+      RequestHead oHead          = new RequestHead();
+      int         iLineStart     = 0;
+      boolean     bRequestLine   = true;
+
+      while ( iLineStart < iHeadLength )
+      {
+         int iLineEnd = iLineStart;
+
+         while ( acHead[ iLineEnd ] != '\n' )
+         {
+            iLineEnd++;
+         }
+
+         int iNextLineStart = iLineEnd + 1;
+
+         if ( iLineEnd > iLineStart && acHead[ iLineEnd - 1 ] == '\r' )
+         {
+            iLineEnd--;
+         }
+
+         if ( bRequestLine )
+         {
+            // empty lines before the request line are ignored
+            if ( iLineEnd > iLineStart )
+            {
+               oHead.parseRequestLine( new String( acHead, iLineStart, iLineEnd - iLineStart ) );
+               bRequestLine = false;
+            }
+         }
+         else if ( iLineEnd > iLineStart )
+         {
+            if ( acHead[ iLineStart ] == ' ' || acHead[ iLineStart ] == '\t' )
+            {
+               throw new HttpParseException( HttpServletResponse.SC_BAD_REQUEST, "obsolete header line folding" );
+            }
+
+            oHead.parseHeaderLine( new String( acHead, iLineStart, iLineEnd - iLineStart ) );
+         }
+
+         iLineStart = iNextLineStart;
+      }
+
+      if ( bRequestLine )
+      {
+         throw new HttpParseException( HttpServletResponse.SC_BAD_REQUEST, "missing request line" );
+      }
+
+      return oHead;
+   }
+
+   private void parseRequestLine( String sLine )
+      throws HttpParseException
+   {
+      int iFirstSpace   = sLine.indexOf( ' ' );
+      int iLastSpace    = sLine.lastIndexOf( ' ' );
+
+      if ( iFirstSpace <= 0 || iLastSpace == iFirstSpace )
+      {
+         throw new HttpParseException( HttpServletResponse.SC_BAD_REQUEST, "malformed request line" );
+      }
+
+      _sMethod    = sLine.substring( 0, iFirstSpace );
+      _sProtocol  = sLine.substring( iLastSpace + 1 );
+
+      if ( ! _sProtocol.equals( HTTP_1_1 ) && ! _sProtocol.equals( HTTP_1_0 ) )
+      {
+         throw new HttpParseException( HttpServletResponse.SC_HTTP_VERSION_NOT_SUPPORTED, "unsupported protocol: " + _sProtocol );
+      }
+
+      String sTarget = sLine.substring( iFirstSpace + 1, iLastSpace ).trim();
+
+      // absolute-form targets are sent to proxies, but a server must accept them
+      if ( sTarget.startsWith( "http://" ) || sTarget.startsWith( "https://" ) )
+      {
+         int iPathStart = sTarget.indexOf( '/', sTarget.indexOf( "//" ) + 2 );
+
+         sTarget = iPathStart == -1 ? "/" : sTarget.substring( iPathStart );
+      }
+
+      if ( ! sTarget.startsWith( "/" ) )
+      {
+         throw new HttpParseException( HttpServletResponse.SC_BAD_REQUEST, "unsupported request target: " + sTarget );
+      }
+
+      int iQueryStart = sTarget.indexOf( '?' );
+
+      if ( iQueryStart == -1 )
+      {
+         _sRequestURI   = sTarget;
+      }
+      else
+      {
+         _sRequestURI   = sTarget.substring( 0, iQueryStart );
+         _sQueryString  = sTarget.substring( iQueryStart + 1 );
+      }
+   }
+
+   private void parseHeaderLine( String sLine )
+      throws HttpParseException
+   {
+      int iColon = sLine.indexOf( ':' );
+
+      if ( iColon <= 0 || sLine.charAt( iColon - 1 ) == ' ' || sLine.charAt( iColon - 1 ) == '\t' )
+      {
+         throw new HttpParseException( HttpServletResponse.SC_BAD_REQUEST, "malformed header line" );
+      }
+
+      _oHeaderNames.add( sLine.substring( 0, iColon ) );
+      _oHeaderValues.add( sLine.substring( iColon + 1 ).trim() );
+   }
+
+   public String getMethod()
+   {
+      return _sMethod;
+   }
+
+   /**
+    * @return the path of the request target, not decoded
+    */
+   public String getRequestURI()
+   {
+      return _sRequestURI;
+   }
+
+   public String getQueryString()
+   {
+      return _sQueryString;
+   }
+
+   public String getProtocol()
+   {
+      return _sProtocol;
+   }
+
+   public String getHeader( String sName )
+   {
+      for ( int i = 0; i < _oHeaderNames.size(); i++ )
+      {
+         if ( sName.equalsIgnoreCase( ( String ) _oHeaderNames.get( i ) ) )
+         {
+            return ( String ) _oHeaderValues.get( i );
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * @param sName a header name
+    * @return the values of all headers with the specified name, in the order received
+    */
+   public List getHeaders( String sName )
+   {
+      List oValues = new ArrayList();
+
+      for ( int i = 0; i < _oHeaderNames.size(); i++ )
+      {
+         if ( sName.equalsIgnoreCase( ( String ) _oHeaderNames.get( i ) ) )
+         {
+            oValues.add( _oHeaderValues.get( i ) );
+         }
+      }
+
+      return oValues;
+   }
+
+   /**
+    * @return the distinct header names, in the order received
+    */
+   public List getHeaderNames()
+   {
+      List oNames = new ArrayList();
+
+      for ( int i = 0; i < _oHeaderNames.size(); i++ )
+      {
+         String   sName    = ( String ) _oHeaderNames.get( i );
+         boolean  bFound   = false;
+
+         for ( int j = 0; j < oNames.size() && ! bFound; j++ )
+         {
+            bFound = sName.equalsIgnoreCase( ( String ) oNames.get( j ) );
+         }
+
+         if ( ! bFound )
+         {
+            oNames.add( sName );
+         }
+      }
+
+      return oNames;
+   }
+
+   /**
+    * @return true if the client asked for the connection to stay open after this request
+    */
+   public boolean isKeepAlive()
+   {
+      String sConnection = getHeader( "Connection" );
+
+      if ( _sProtocol.equals( HTTP_1_1 ) )
+      {
+         return sConnection == null || ! hasToken( sConnection, "close" );
+      }
+
+      return sConnection != null && hasToken( sConnection, "keep-alive" );
+   }
+
+   /**
+    * @return the length of the request body
+    * @throws HttpParseException if the body length is not valid or the body is not sent with a length
+    */
+   public long getContentLength()
+      throws HttpParseException
+   {
+      if ( getHeader( "Transfer-Encoding" ) != null )
+      {
+         // request bodies are read completely before the request is dispatched, so their length must be known
+         throw new HttpParseException( HttpServletResponse.SC_LENGTH_REQUIRED, "request body without a Content-Length" );
+      }
+
+      List oValues = getHeaders( "Content-Length" );
+
+      if ( oValues.isEmpty() )
+      {
+         return 0;
+      }
+
+      try
+      {
+         long lContentLength = parseContentLength( ( String ) oValues.get( 0 ) );
+
+         for ( int i = 1; i < oValues.size(); i++ )
+         {
+            if ( parseContentLength( ( String ) oValues.get( i ) ) != lContentLength )
+            {
+               throw new HttpParseException( HttpServletResponse.SC_BAD_REQUEST, "conflicting Content-Length headers" );
+            }
+         }
+
+         if ( lContentLength >= 0 )
+         {
+            return lContentLength;
+         }
+      }
+      catch ( NumberFormatException e )
+      {
+         // reported below
+      }
+
+      throw new HttpParseException( HttpServletResponse.SC_BAD_REQUEST, "invalid Content-Length" );
+   }
+
+   private static long parseContentLength( String sValue )
+   {
+      // only digits, Long.parseLong() also accepts a sign, which another server in front of this one may not
+      for ( int i = 0; i < sValue.length(); i++ )
+      {
+         if ( sValue.charAt( i ) < '0' || sValue.charAt( i ) > '9' )
+         {
+            throw new NumberFormatException( sValue );
+         }
+      }
+
+      return Long.parseLong( sValue );
+   }
+
+   /**
+    * @return true if the client waits for a 100 (Continue) response before sending the request body
+    */
+   public boolean isExpectContinue()
+   {
+      String sExpect = getHeader( "Expect" );
+
+      return sExpect != null && sExpect.equalsIgnoreCase( "100-continue" ) && _sProtocol.equals( HTTP_1_1 );
+   }
+
+   private static boolean hasToken( String sHeaderValue, String sToken )
+   {
+      String[] asTokens = sHeaderValue.split( "," );
+
+      for ( int i = 0; i < asTokens.length; i++ )
+      {
+         if ( asTokens[ i ].trim().equalsIgnoreCase( sToken ) )
+         {
+            return true;
+         }
+      }
+
+      return false;
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import com.acciente.induction.util.BufferPool;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Internal.
+ * Runs the requests read by the listeners through the dispatcher servlet, on virtual threads or on a pool of
+ * worker threads.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class RequestProcessor
+{
+   private ServerConfig       _oServerConfig;
+   private ServerContext      _oServerContext;
+   private SessionManager     _oSessionManager;
+   private Servlet            _oServlet;
+   private BufferPool         _oBufferPool;
+   private ClassLoader        _oContextClassLoader;
+   private ExecutorService    _oExecutor;
+   private Log                _oLog;
+
+   public RequestProcessor( ServerConfig     oServerConfig,
+                            ServerContext    oServerContext,
+                            SessionManager   oSessionManager,
+                            Servlet          oServlet,
+                            BufferPool       oBufferPool,
+                            ClassLoader      oContextClassLoader )
+   {
+      _oServerConfig       = oServerConfig;
+      _oServerContext      = oServerContext;
+      _oSessionManager     = oSessionManager;
+      _oServlet            = oServlet;
+      _oBufferPool         = oBufferPool;
+      _oContextClassLoader = oContextClassLoader;
+      _oLog                = LogFactory.getLog( RequestProcessor.class );
+
+      if ( ServerConfig.EXECUTOR_VIRTUAL.equals( oServerConfig.getExecutor() ) )
+      {
+         _oExecutor = createVirtualThreadExecutor();
+
+         if ( _oExecutor == null )
+         {
+            _oLog.warn( "virtual threads are not available on this Java runtime, using a pool of "
+                        + oServerConfig.getWorkerPoolSize() + " threads" );
+         }
+      }
+
+      if ( _oExecutor == null )
+      {
+         ThreadPoolExecutor oThreadPoolExecutor = new ThreadPoolExecutor( oServerConfig.getWorkerPoolSize(),
+                                                                          oServerConfig.getWorkerPoolSize(),
+                                                                          60,
+                                                                          TimeUnit.SECONDS,
+                                                                          new LinkedBlockingQueue(),
+                                                                          new WorkerThreadFactory() );
+         oThreadPoolExecutor.allowCoreThreadTimeOut( true );
+
+         _oExecutor = oThreadPoolExecutor;
+      }
+   }
+
+   /**
+    * Queues a request for processing, called by the selector thread of a listener
+    *
+    * @param oConnection the connection the request was read from
+    * @param oHead the request line and headers
+    * @param ayBody the request body
+    * @return false if the request could not be queued since the server is stopping
+    */
+   boolean process( HttpConnection oConnection, RequestHead oHead, byte[] ayBody )
+   {
+      try
+      {
+         _oExecutor.execute( new RequestTask( oConnection, oHead, ayBody ) );
+
+         return true;
+      }
+      catch ( RejectedExecutionException e )
+      {
+         return false;
+      }
+   }
+
+   /**
+    * Stops accepting requests and waits for the requests in progress to complete
+    */
+   public void destroy()
+   {
+      _oExecutor.shutdown();
+
+      try
+      {
+         if ( ! _oExecutor.awaitTermination( _oServerConfig.getIdleTimeoutSeconds(), TimeUnit.SECONDS ) )
+         {
+            _oLog.warn( "destroy: requests still in progress" );
+         }
+      }
+      catch ( InterruptedException e )
+      {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private void processRequest( HttpConnection oConnection, RequestHead oHead, byte[] ayBody )
+   {
+      ServerRequest  oRequest    = new ServerRequest( _oServerContext, _oSessionManager, oConnection, oHead, ayBody );
+      ServerResponse oResponse   = new ServerResponse( oConnection, oRequest, _oBufferPool );
+      boolean        bKeepAlive  = false;
+
+      oRequest.setResponse( oResponse );
+
+      try
+      {
+         if ( ! oRequest.isInContext() )
+         {
+            oResponse.sendError( HttpServletResponse.SC_NOT_FOUND );
+         }
+         else if ( ! oRequest.isPathValid() )
+         {
+            oResponse.sendError( HttpServletResponse.SC_BAD_REQUEST );
+         }
+         else
+         {
+            _oServlet.service( oRequest, oResponse );
+         }
+
+         bKeepAlive = oResponse.finish();
+      }
+      catch ( IOException e )
+      {
+         // most likely the client closed the connection
+         _oLog.debug( "request: " + oHead.getMethod() + " " + oHead.getRequestURI() + ": " + e );
+      }
+      catch ( Throwable e )
+      {
+         // in a servlet container the container would report this error
+         _oLog.error( "request: unhandled error processing: " + oHead.getMethod() + " " + oHead.getRequestURI(), e );
+
+         if ( ! oResponse.isCommitted() )
+         {
+            try
+            {
+               oResponse.reset();
+               oResponse.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+
+               bKeepAlive = oResponse.finish();
+            }
+            catch ( Throwable e1 )
+            {
+               bKeepAlive = false;
+            }
+         }
+      }
+      finally
+      {
+         oResponse.release();
+         oConnection.requestCompleted( bKeepAlive );
+      }
+   }
+
+   /**
+    * @return an executor that starts a virtual thread for each task, or null if the Java runtime does not
+    * provide virtual threads (this module is compiled for Java 8, so the executor is created reflectively)
+    */
+   private static ExecutorService createVirtualThreadExecutor()
+   {
+      try
+      {
+         Method oFactoryMethod = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor", new Class[ 0 ] );
+
+         return ( ExecutorService ) oFactoryMethod.invoke( null, ( Object[] ) null );
+      }
+      catch ( Exception e )
+      {
+         // the method does not exist or virtual threads are a preview feature on this runtime
+         return null;
+      }
+   }
+
+   private class RequestTask implements Runnable
+   {
+      private HttpConnection  _oConnection;
+      private RequestHead     _oHead;
+      private byte[]          _ayBody;
+
+      private RequestTask( HttpConnection oConnection, RequestHead oHead, byte[] ayBody )
+      {
+         _oConnection   = oConnection;
+         _oHead         = oHead;
+         _ayBody        = ayBody;
+      }
+
+      public void run()
+      {
+         Thread      oThread                       = Thread.currentThread();
+         ClassLoader oPreviousContextClassLoader   = oThread.getContextClassLoader();
+
+         oThread.setContextClassLoader( _oContextClassLoader );
+
+         try
+         {
+            processRequest( _oConnection, _oHead, _ayBody );
+         }
+         finally
+         {
+            oThread.setContextClassLoader( oPreviousContextClassLoader );
+         }
+      }
+   }
+
+   private static class WorkerThreadFactory implements ThreadFactory
+   {
+      private AtomicInteger _oThreadCount = new AtomicInteger();
+
+      public Thread newThread( Runnable oRunnable )
+      {
+         Thread oThread = new Thread( oRunnable, "induction-server-worker-" + _oThreadCount.incrementAndGet() );
+
+         oThread.setDaemon( true );
+
+         return oThread;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
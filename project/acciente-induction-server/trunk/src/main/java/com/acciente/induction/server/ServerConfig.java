@@ -0,0 +1,406 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class is the container for the settings of the embedded server. The settings of the Induction application
+ * itself are read as usual from the application's XML config file (induction-[servlet-name].xml), which is
+ * looked up in the WEB-INF directory of the web app directory, if one is configured, and then on the classpath.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ServerConfig
+{
+   public static final String EXECUTOR_VIRTUAL  = "virtual";
+   public static final String EXECUTOR_POOL     = "pool";
+
+   private String    _sHost;
+   private int       _iPort                     = 8080;
+   private File      _oUnixSocketFile;
+   private String    _sUnixSocketPermissions;
+   private String    _sContextPath              = "";
+   private File      _oWebappDir;
+   private String    _sServletName              = "app";
+   private String    _sServletClassName         = "com.acciente.induction.dispatcher.HttpDispatcher";
+   private Map       _oInitParameters           = new LinkedHashMap();
+   private String    _sExecutor                 = EXECUTOR_VIRTUAL;
+   private int       _iWorkerPoolSize           = 200;
+   private int       _iBufferSize               = 16 * 1024;
+   private int       _iMaxPooledBuffers         = 256;
+   private int       _iMaxRequestBodySize       = 10 * 1024 * 1024;
+   private int       _iMaxConnections           = 10000;
+   private int       _iIdleTimeoutSeconds       = 30;
+   private int       _iSessionTimeoutMinutes    = 30;
+
+   public String getHost()
+   {
+      return _sHost;
+   }
+
+   /**
+    * Sets the host name or address the server listens on, by default the server listens on all addresses
+    *
+    * @param sHost a host name or IP address, or null for all addresses
+    */
+   public void setHost( String sHost )
+   {
+      _sHost = ( sHost == null || sHost.trim().length() == 0 ) ? null : sHost.trim();
+   }
+
+   public int getPort()
+   {
+      return _iPort;
+   }
+
+   /**
+    * Sets the TCP port the server listens on
+    *
+    * @param iPort a port number, 0 selects a free port
+    */
+   public void setPort( int iPort )
+   {
+      if ( iPort < 0 || iPort > 65535 )
+      {
+         throw new IllegalArgumentException( "config-error: port must be between 0 and 65535" );
+      }
+
+      _iPort = iPort;
+   }
+
+   public File getUnixSocketFile()
+   {
+      return _oUnixSocketFile;
+   }
+
+   /**
+    * Sets a Unix domain socket for the server to listen on instead of the TCP port, for example when a reverse
+    * proxy on the same host forwards requests to the server. Requires Java 16 or later.
+    *
+    * @param oUnixSocketFile the path of the socket file, or null to listen on the TCP port
+    */
+   public void setUnixSocketFile( File oUnixSocketFile )
+   {
+      if ( oUnixSocketFile != null && oUnixSocketFile.isDirectory() )
+      {
+         throw new IllegalArgumentException( "config-error: unix socket: " + oUnixSocketFile + " is a directory" );
+      }
+
+      _oUnixSocketFile = oUnixSocketFile;
+   }
+
+   public String getUnixSocketPermissions()
+   {
+      return _sUnixSocketPermissions;
+   }
+
+   /**
+    * Sets the permissions of the Unix domain socket file, a client needs write permission to connect
+    *
+    * @param sUnixSocketPermissions POSIX permissions in the form rw-rw----, or null to keep the permissions
+    * the process creates files with
+    */
+   public void setUnixSocketPermissions( String sUnixSocketPermissions )
+   {
+      if ( sUnixSocketPermissions != null && ! sUnixSocketPermissions.matches( "([r-][w-][x-]){3}" ) )
+      {
+         throw new IllegalArgumentException( "config-error: unix socket permissions must be in the form rw-rw----" );
+      }
+
+      _sUnixSocketPermissions = sUnixSocketPermissions;
+   }
+
+   public String getContextPath()
+   {
+      return _sContextPath;
+   }
+
+   /**
+    * Sets the context path of the application, all requests outside the context path are answered with
+    * a 404 status, the dispatcher is mapped to all paths in the context (/*)
+    *
+    * @param sContextPath a path starting with a slash, or an empty string (the default) for the root context
+    */
+   public void setContextPath( String sContextPath )
+   {
+      if ( sContextPath == null || sContextPath.equals( "/" ) )
+      {
+         sContextPath = "";
+      }
+
+      if ( sContextPath.length() > 0 && ( ! sContextPath.startsWith( "/" ) || sContextPath.endsWith( "/" ) ) )
+      {
+         throw new IllegalArgumentException( "config-error: context path must start with a / and must not end with a /" );
+      }
+
+      _sContextPath = sContextPath;
+   }
+
+   public File getWebappDir()
+   {
+      return _oWebappDir;
+   }
+
+   /**
+    * Sets the web app directory, the directory that contains the WEB-INF directory. Servlet context resources
+    * (and the XML config) are looked up in this directory and then on the classpath under META-INF/resources,
+    * if no directory is set resources are only looked up on the classpath.
+    *
+    * @param oWebappDir a directory or null
+    */
+   public void setWebappDir( File oWebappDir )
+   {
+      if ( oWebappDir != null && ! oWebappDir.isDirectory() )
+      {
+         throw new IllegalArgumentException( "config-error: webapp dir: " + oWebappDir + " is not a directory" );
+      }
+
+      _oWebappDir = oWebappDir;
+   }
+
+   public String getServletName()
+   {
+      return _sServletName;
+   }
+
+   /**
+    * Sets the servlet name of the dispatcher, as in web.xml the servlet name selects the XML config file
+    * (induction-[servlet-name].xml) and prefixes the init parameter names
+    *
+    * @param sServletName a name
+    */
+   public void setServletName( String sServletName )
+   {
+      if ( sServletName == null || sServletName.trim().length() == 0 )
+      {
+         throw new IllegalArgumentException( "config-error: servlet name cannot be empty" );
+      }
+
+      _sServletName = sServletName.trim();
+   }
+
+   public String getServletClassName()
+   {
+      return _sServletClassName;
+   }
+
+   /**
+    * Sets the class of the dispatcher servlet, the default is com.acciente.induction.dispatcher.HttpDispatcher
+    *
+    * @param sServletClassName the name of a subclass of javax.servlet.http.HttpServlet
+    */
+   public void setServletClassName( String sServletClassName )
+   {
+      if ( sServletClassName == null || sServletClassName.trim().length() == 0 )
+      {
+         throw new IllegalArgumentException( "config-error: servlet class name cannot be empty" );
+      }
+
+      _sServletClassName = sServletClassName.trim();
+   }
+
+   public Map getInitParameters()
+   {
+      return Collections.unmodifiableMap( _oInitParameters );
+   }
+
+   /**
+    * Adds a servlet init parameter, as in web.xml the names of the parameters read by Induction are
+    * prefixed with the servlet name (for example app.config-loader-class)
+    *
+    * @param sName a parameter name
+    * @param sValue a parameter value
+    */
+   public void addInitParameter( String sName, String sValue )
+   {
+      if ( sName == null || sName.length() == 0 )
+      {
+         throw new IllegalArgumentException( "config-error: init parameter name cannot be empty" );
+      }
+
+      _oInitParameters.put( sName, sValue );
+   }
+
+   public String getExecutor()
+   {
+      return _sExecutor;
+   }
+
+   /**
+    * Selects how requests are executed once they are read: virtual (the default) runs each request on a new
+    * virtual thread, pool runs requests on a pool of platform threads. If the Java runtime does not provide
+    * virtual threads the pool is used.
+    *
+    * @param sExecutor virtual or pool
+    */
+   public void setExecutor( String sExecutor )
+   {
+      if ( ! EXECUTOR_VIRTUAL.equals( sExecutor ) && ! EXECUTOR_POOL.equals( sExecutor ) )
+      {
+         throw new IllegalArgumentException( "config-error: executor must be " + EXECUTOR_VIRTUAL + " or " + EXECUTOR_POOL );
+      }
+
+      _sExecutor = sExecutor;
+   }
+
+   public int getWorkerPoolSize()
+   {
+      return _iWorkerPoolSize;
+   }
+
+   /**
+    * Sets the number of threads in the worker pool (used when the executor is pool)
+    *
+    * @param iWorkerPoolSize a number of threads
+    */
+   public void setWorkerPoolSize( int iWorkerPoolSize )
+   {
+      if ( iWorkerPoolSize < 1 )
+      {
+         throw new IllegalArgumentException( "config-error: worker pool size must be at least 1" );
+      }
+
+      _iWorkerPoolSize = iWorkerPoolSize;
+   }
+
+   public int getBufferSize()
+   {
+      return _iBufferSize;
+   }
+
+   /**
+    * Sets the size of the (direct) buffers used to read requests and write responses, the request line
+    * and headers of a request must fit in one buffer
+    *
+    * @param iBufferSize a size in bytes
+    */
+   public void setBufferSize( int iBufferSize )
+   {
+      if ( iBufferSize < 1024 )
+      {
+         throw new IllegalArgumentException( "config-error: buffer size must be at least 1024" );
+      }
+
+      _iBufferSize = iBufferSize;
+   }
+
+   public int getMaxPooledBuffers()
+   {
+      return _iMaxPooledBuffers;
+   }
+
+   /**
+    * Sets the maximum number of idle buffers kept for reuse, a value of 0 turns off pooling
+    *
+    * @param iMaxPooledBuffers a number of buffers
+    */
+   public void setMaxPooledBuffers( int iMaxPooledBuffers )
+   {
+      if ( iMaxPooledBuffers < 0 )
+      {
+         throw new IllegalArgumentException( "config-error: max pooled buffers cannot be negative" );
+      }
+
+      _iMaxPooledBuffers = iMaxPooledBuffers;
+   }
+
+   public int getMaxRequestBodySize()
+   {
+      return _iMaxRequestBodySize;
+   }
+
+   /**
+    * Sets the maximum size of a request body, a larger request is answered with a 413 status
+    *
+    * @param iMaxRequestBodySize a size in bytes
+    */
+   public void setMaxRequestBodySize( int iMaxRequestBodySize )
+   {
+      if ( iMaxRequestBodySize < 0 )
+      {
+         throw new IllegalArgumentException( "config-error: max request body size cannot be negative" );
+      }
+
+      _iMaxRequestBodySize = iMaxRequestBodySize;
+   }
+
+   public int getMaxConnections()
+   {
+      return _iMaxConnections;
+   }
+
+   /**
+    * Sets the maximum number of open client connections, when the limit is reached the server stops accepting
+    * connections (clients wait in the listen backlog) until a connection closes
+    *
+    * @param iMaxConnections a number of connections
+    */
+   public void setMaxConnections( int iMaxConnections )
+   {
+      if ( iMaxConnections < 1 )
+      {
+         throw new IllegalArgumentException( "config-error: max connections must be at least 1" );
+      }
+
+      _iMaxConnections = iMaxConnections;
+   }
+
+   public int getIdleTimeoutSeconds()
+   {
+      return _iIdleTimeoutSeconds;
+   }
+
+   /**
+    * Sets the time after which an idle keep-alive connection, a connection that stalls while sending a request
+    * or a client that stops reading a response is closed
+    *
+    * @param iIdleTimeoutSeconds a time in seconds
+    */
+   public void setIdleTimeoutSeconds( int iIdleTimeoutSeconds )
+   {
+      if ( iIdleTimeoutSeconds < 1 )
+      {
+         throw new IllegalArgumentException( "config-error: idle timeout must be at least 1 second" );
+      }
+
+      _iIdleTimeoutSeconds = iIdleTimeoutSeconds;
+   }
+
+   public int getSessionTimeoutMinutes()
+   {
+      return _iSessionTimeoutMinutes;
+   }
+
+   /**
+    * Sets the default maximum inactive interval of HTTP sessions
+    *
+    * @param iSessionTimeoutMinutes a time in minutes, 0 or less means sessions do not time out
+    */
+   public void setSessionTimeoutMinutes( int iSessionTimeoutMinutes )
+   {
+      _iSessionTimeoutMinutes = iSessionTimeoutMinutes;
+   }
+}
+
+// EOF
\ No newline at end of file
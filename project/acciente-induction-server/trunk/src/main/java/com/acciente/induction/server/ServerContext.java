@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.Servlet;
+import javax.servlet.ServletContext;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Internal.
+ * The servlet context of the application run by the embedded server. Resources are looked up in the web app
+ * directory, if one is configured, and then on the classpath under META-INF/resources (so that an application
+ * packaged as a single jar can carry its WEB-INF files). Only the dispatcher servlet exists in this context,
+ * so request dispatchers are not supported.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ServerContext implements ServletContext
+{
+   private static final String   CLASSPATH_RESOURCE_PREFIX = "META-INF/resources";
+
+   private static final Map      MIME_TYPES                = new HashMap();
+
+   static
+   {
+      // types commonly served by web apps that the JDK's file name map does not know
+      MIME_TYPES.put( "css",     "text/css" );
+      MIME_TYPES.put( "js",      "application/javascript" );
+      MIME_TYPES.put( "json",    "application/json" );
+      MIME_TYPES.put( "svg",     "image/svg+xml" );
+      MIME_TYPES.put( "ico",     "image/x-icon" );
+      MIME_TYPES.put( "woff",    "font/woff" );
+      MIME_TYPES.put( "woff2",   "font/woff2" );
+      MIME_TYPES.put( "webp",    "image/webp" );
+      MIME_TYPES.put( "ftl",     "text/plain" );
+   }
+
+   private ServerConfig    _oServerConfig;
+   private File            _oWebappDir;
+   private ClassLoader     _oClassLoader;
+   private Map             _oAttributes   = new ConcurrentHashMap();
+   private Log             _oLog;
+
+   public ServerContext( ServerConfig oServerConfig, ClassLoader oClassLoader )
+   {
+      _oServerConfig = oServerConfig;
+      _oWebappDir    = oServerConfig.getWebappDir();
+      _oClassLoader  = oClassLoader;
+      _oLog          = LogFactory.getLog( ServerContext.class );
+   }
+
+   public String getContextPath()
+   {
+      return _oServerConfig.getContextPath();
+   }
+
+   public ServletContext getContext( String sURIPath )
+   {
+      return sURIPath.startsWith( getContextPath() ) ? this : null;
+   }
+
+   public int getMajorVersion()
+   {
+      return 2;
+   }
+
+   public int getMinorVersion()
+   {
+      return 4;
+   }
+
+   public String getMimeType( String sFileName )
+   {
+      int iDotIndex = sFileName.lastIndexOf( '.' );
+
+      if ( iDotIndex != -1 )
+      {
+         String sMimeType = ( String ) MIME_TYPES.get( sFileName.substring( iDotIndex + 1 ).toLowerCase() );
+
+         if ( sMimeType != null )
+         {
+            return sMimeType;
+         }
+      }
+
+      return URLConnection.getFileNameMap().getContentTypeFor( sFileName );
+   }
+
+   public Set getResourcePaths( String sPath )
+   {
+      File oDir = getFile( sPath );
+
+      if ( oDir == null || ! oDir.isDirectory() )
+      {
+         return null;
+      }
+
+      String   sPrefix     = sPath.endsWith( "/" ) ? sPath : sPath + "/";
+      Set      oPathSet    = new TreeSet();
+      File[]   aoFiles     = oDir.listFiles();
+
+      for ( int i = 0; aoFiles != null && i < aoFiles.length; i++ )
+      {
+         oPathSet.add( sPrefix + aoFiles[ i ].getName() + ( aoFiles[ i ].isDirectory() ? "/" : "" ) );
+      }
+
+      return oPathSet;
+   }
+
+   public URL getResource( String sPath ) throws MalformedURLException
+   {
+      if ( sPath == null || ! sPath.startsWith( "/" ) )
+      {
+         throw new MalformedURLException( "resource path must start with a /: " + sPath );
+      }
+
+      File oFile = getFile( sPath );
+
+      if ( oFile != null && oFile.exists() )
+      {
+         return oFile.toURI().toURL();
+      }
+
+      return _oClassLoader.getResource( CLASSPATH_RESOURCE_PREFIX + sPath );
+   }
+
+   public InputStream getResourceAsStream( String sPath )
+   {
+      try
+      {
+         URL oURL = getResource( sPath );
+
+         return oURL == null ? null : oURL.openStream();
+      }
+      catch ( IOException e )
+      {
+         return null;
+      }
+   }
+
+   public RequestDispatcher getRequestDispatcher( String sPath )
+   {
+      return null;
+   }
+
+   public RequestDispatcher getNamedDispatcher( String sName )
+   {
+      return null;
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public Servlet getServlet( String sName )
+   {
+      return null;
+   }
+
+   /**
+    * @deprecated as of servlet 2.0
+    */
+   @Deprecated
+   public Enumeration getServlets()
+   {
+      return new Vector().elements();
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public Enumeration getServletNames()
+   {
+      return new Vector().elements();
+   }
+
+   public void log( String sMessage )
+   {
+      _oLog.info( sMessage );
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public void log( Exception oException, String sMessage )
+   {
+      _oLog.error( sMessage, oException );
+   }
+
+   public void log( String sMessage, Throwable oThrowable )
+   {
+      _oLog.error( sMessage, oThrowable );
+   }
+
+   public String getRealPath( String sPath )
+   {
+      File oFile = getFile( sPath );
+
+      return oFile == null ? null : oFile.getAbsolutePath();
+   }
+
+   public String getServerInfo()
+   {
+      return InductionServer.SERVER_INFO;
+   }
+
+   public String getInitParameter( String sName )
+   {
+      return null;
+   }
+
+   public Enumeration getInitParameterNames()
+   {
+      return new Vector().elements();
+   }
+
+   public Object getAttribute( String sName )
+   {
+      return _oAttributes.get( sName );
+   }
+
+   public Enumeration getAttributeNames()
+   {
+      return Collections.enumeration( _oAttributes.keySet() );
+   }
+
+   public void setAttribute( String sName, Object oValue )
+   {
+      if ( oValue == null )
+      {
+         _oAttributes.remove( sName );
+      }
+      else
+      {
+         _oAttributes.put( sName, oValue );
+      }
+   }
+
+   public void removeAttribute( String sName )
+   {
+      _oAttributes.remove( sName );
+   }
+
+   public String getServletContextName()
+   {
+      return _oServerConfig.getServletName();
+   }
+
+   /**
+    * @param sPath a context relative path
+    * @return the file in the web app directory for the path, or null if there is no web app directory or the
+    * path leaves the web app directory
+    */
+   private File getFile( String sPath )
+   {
+      if ( _oWebappDir == null || sPath == null )
+      {
+         return null;
+      }
+
+      if ( ( "/" + sPath.replace( '\\', '/' ) + "/" ).indexOf( "/../" ) != -1 )
+      {
+         return null;
+      }
+
+      return new File( _oWebappDir, sPath );
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,852 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Internal.
+ * Adapts a request read by the embedded server to the servlet API. The dispatcher is mapped to all paths
+ * of the context (/*), so the servlet path is always empty and the path info is the decoded path after the
+ * context path. Query strings and form bodies are decoded with the request's character encoding, UTF-8 if
+ * none is set.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ServerRequest implements HttpServletRequest
+{
+   private static final String   DEFAULT_CHARACTER_ENCODING = "UTF-8";
+   private static final String   FORM_CONTENT_TYPE          = "application/x-www-form-urlencoded";
+
+   private static final int      INPUT_NONE     = 0;
+   private static final int      INPUT_STREAM   = 1;
+   private static final int      INPUT_READER   = 2;
+
+   private ServerContext      _oServerContext;
+   private SessionManager     _oSessionManager;
+   private HttpConnection     _oConnection;
+   private RequestHead        _oHead;
+   private byte[]             _ayBody;
+   private ServerResponse     _oResponse;
+
+   private String             _sCharacterEncoding;
+   private Map                _oAttributes         = new HashMap();
+   private Map                _oParameterMap;
+   private Cookie[]           _aoCookies;
+   private ServerSession      _oSession;
+   private String             _sPathInfo;
+   private boolean            _bPathInfoParsed;
+   private boolean            _bPathMalformed;
+   private int                _iInputMode          = INPUT_NONE;
+
+   public ServerRequest( ServerContext oServerContext, SessionManager oSessionManager, HttpConnection oConnection,
+                         RequestHead oHead, byte[] ayBody )
+   {
+      _oServerContext   = oServerContext;
+      _oSessionManager  = oSessionManager;
+      _oConnection      = oConnection;
+      _oHead            = oHead;
+      _ayBody           = ayBody;
+
+      String sContentType = oHead.getHeader( "Content-Type" );
+
+      if ( sContentType != null )
+      {
+         _sCharacterEncoding = ServerResponse.getCharsetParameter( sContentType );
+      }
+   }
+
+   void setResponse( ServerResponse oResponse )
+   {
+      _oResponse = oResponse;
+   }
+
+   RequestHead getHead()
+   {
+      return _oHead;
+   }
+
+   /**
+    * @return true if the request path is in the context of the application
+    */
+   boolean isInContext()
+   {
+      String sContextPath  = getContextPath();
+      String sRequestURI   = _oHead.getRequestURI();
+
+      return sRequestURI.startsWith( sContextPath )
+             && ( sRequestURI.length() == sContextPath.length() || sRequestURI.charAt( sContextPath.length() ) == '/' );
+   }
+
+   /**
+    * @return false if the path is not properly encoded or has segments that lead out of the context
+    */
+   boolean isPathValid()
+   {
+      String sPathInfo = getPathInfo();
+
+      if ( sPathInfo == null )
+      {
+         return ! _bPathMalformed;
+      }
+
+      return ( sPathInfo + "/" ).indexOf( "/../" ) == -1 && sPathInfo.indexOf( '\0' ) == -1;
+   }
+
+   // ---------------------------------------------------------------------------------------------------------
+   // ServletRequest
+
+   public Object getAttribute( String sName )
+   {
+      return _oAttributes.get( sName );
+   }
+
+   public Enumeration getAttributeNames()
+   {
+      return Collections.enumeration( new ArrayList( _oAttributes.keySet() ) );
+   }
+
+   public String getCharacterEncoding()
+   {
+      return _sCharacterEncoding;
+   }
+
+   public void setCharacterEncoding( String sCharacterEncoding )
+      throws UnsupportedEncodingException
+   {
+      if ( ! Charset.isSupported( sCharacterEncoding ) )
+      {
+         throw new UnsupportedEncodingException( sCharacterEncoding );
+      }
+
+      // as in a servlet container, this has no effect once the parameters have been read
+      _sCharacterEncoding = sCharacterEncoding;
+   }
+
+   public int getContentLength()
+   {
+      return _oHead.getHeader( "Content-Length" ) == null ? -1 : _ayBody.length;
+   }
+
+   public String getContentType()
+   {
+      return _oHead.getHeader( "Content-Type" );
+   }
+
+   public ServletInputStream getInputStream()
+   {
+      if ( _iInputMode == INPUT_READER )
+      {
+         throw new IllegalStateException( "getReader() has already been called for this request" );
+      }
+
+      _iInputMode = INPUT_STREAM;
+
+      return new BodyInputStream( _ayBody );
+   }
+
+   public BufferedReader getReader()
+      throws UnsupportedEncodingException
+   {
+      if ( _iInputMode == INPUT_STREAM )
+      {
+         throw new IllegalStateException( "getInputStream() has already been called for this request" );
+      }
+
+      _iInputMode = INPUT_READER;
+
+      return new BufferedReader( new InputStreamReader( new ByteArrayInputStream( _ayBody ), getEffectiveCharacterEncoding() ) );
+   }
+
+   public String getParameter( String sName )
+   {
+      String[] asValues = ( String[] ) getParameterMap().get( sName );
+
+      return asValues == null ? null : asValues[ 0 ];
+   }
+
+   public Enumeration getParameterNames()
+   {
+      return Collections.enumeration( getParameterMap().keySet() );
+   }
+
+   public String[] getParameterValues( String sName )
+   {
+      return ( String[] ) getParameterMap().get( sName );
+   }
+
+   public Map getParameterMap()
+   {
+      if ( _oParameterMap == null )
+      {
+         _oParameterMap = Collections.unmodifiableMap( parseParameters() );
+      }
+
+      return _oParameterMap;
+   }
+
+   public String getProtocol()
+   {
+      return _oHead.getProtocol();
+   }
+
+   public String getScheme()
+   {
+      return "http";
+   }
+
+   public String getServerName()
+   {
+      String sHost = _oHead.getHeader( "Host" );
+
+      if ( sHost == null || sHost.length() == 0 )
+      {
+         return getLocalName();
+      }
+
+      // the port follows the last colon, unless the colon is part of an IPv6 address
+      int iPortSeparator = sHost.lastIndexOf( ':' );
+
+      if ( iPortSeparator != -1 && iPortSeparator > sHost.lastIndexOf( ']' ) )
+      {
+         return sHost.substring( 0, iPortSeparator );
+      }
+
+      return sHost;
+   }
+
+   public int getServerPort()
+   {
+      String sHost = _oHead.getHeader( "Host" );
+
+      if ( sHost == null || sHost.length() == 0 )
+      {
+         return getLocalPort();
+      }
+
+      int iPortSeparator = sHost.lastIndexOf( ':' );
+
+      if ( iPortSeparator != -1 && iPortSeparator > sHost.lastIndexOf( ']' ) )
+      {
+         try
+         {
+            return Integer.parseInt( sHost.substring( iPortSeparator + 1 ) );
+         }
+         catch ( NumberFormatException e )
+         {
+            // use the default port
+         }
+      }
+
+      return 80;
+   }
+
+   public String getRemoteAddr()
+   {
+      SocketAddress oAddress = _oConnection.getRemoteAddress();
+
+      // a client connected to a Unix domain socket is on this host
+      return oAddress instanceof InetSocketAddress
+             ? ( ( InetSocketAddress ) oAddress ).getAddress().getHostAddress()
+             : "127.0.0.1";
+   }
+
+   public String getRemoteHost()
+   {
+      // as most containers do by default, the address is not resolved to a host name
+      return getRemoteAddr();
+   }
+
+   public int getRemotePort()
+   {
+      SocketAddress oAddress = _oConnection.getRemoteAddress();
+
+      return oAddress instanceof InetSocketAddress ? ( ( InetSocketAddress ) oAddress ).getPort() : 0;
+   }
+
+   public String getLocalName()
+   {
+      SocketAddress oAddress = _oConnection.getLocalAddress();
+
+      return oAddress instanceof InetSocketAddress ? ( ( InetSocketAddress ) oAddress ).getHostName() : "localhost";
+   }
+
+   public String getLocalAddr()
+   {
+      SocketAddress oAddress = _oConnection.getLocalAddress();
+
+      return oAddress instanceof InetSocketAddress
+             ? ( ( InetSocketAddress ) oAddress ).getAddress().getHostAddress()
+             : "127.0.0.1";
+   }
+
+   public int getLocalPort()
+   {
+      SocketAddress oAddress = _oConnection.getLocalAddress();
+
+      return oAddress instanceof InetSocketAddress ? ( ( InetSocketAddress ) oAddress ).getPort() : 0;
+   }
+
+   public void setAttribute( String sName, Object oValue )
+   {
+      if ( oValue == null )
+      {
+         _oAttributes.remove( sName );
+      }
+      else
+      {
+         _oAttributes.put( sName, oValue );
+      }
+   }
+
+   public void removeAttribute( String sName )
+   {
+      _oAttributes.remove( sName );
+   }
+
+   public Locale getLocale()
+   {
+      return ( Locale ) getLocaleList().get( 0 );
+   }
+
+   public Enumeration getLocales()
+   {
+      return Collections.enumeration( getLocaleList() );
+   }
+
+   public boolean isSecure()
+   {
+      return false;
+   }
+
+   public RequestDispatcher getRequestDispatcher( String sPath )
+   {
+      return null;
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public String getRealPath( String sPath )
+   {
+      return _oServerContext.getRealPath( sPath );
+   }
+
+   // ---------------------------------------------------------------------------------------------------------
+   // HttpServletRequest
+
+   public String getAuthType()
+   {
+      return null;
+   }
+
+   public Cookie[] getCookies()
+   {
+      if ( _aoCookies == null )
+      {
+         _aoCookies = parseCookies();
+      }
+
+      return _aoCookies.length == 0 ? null : _aoCookies;
+   }
+
+   public long getDateHeader( String sName )
+   {
+      String sValue = _oHead.getHeader( sName );
+
+      if ( sValue == null )
+      {
+         return -1;
+      }
+
+      long lDate = HttpDate.parse( sValue );
+
+      if ( lDate == -1 )
+      {
+         throw new IllegalArgumentException( "header: " + sName + " is not a date: " + sValue );
+      }
+
+      return lDate;
+   }
+
+   public String getHeader( String sName )
+   {
+      return _oHead.getHeader( sName );
+   }
+
+   public Enumeration getHeaders( String sName )
+   {
+      return Collections.enumeration( _oHead.getHeaders( sName ) );
+   }
+
+   public Enumeration getHeaderNames()
+   {
+      return Collections.enumeration( _oHead.getHeaderNames() );
+   }
+
+   public int getIntHeader( String sName )
+   {
+      String sValue = _oHead.getHeader( sName );
+
+      return sValue == null ? -1 : Integer.parseInt( sValue );
+   }
+
+   public String getMethod()
+   {
+      return _oHead.getMethod();
+   }
+
+   public String getPathInfo()
+   {
+      if ( ! _bPathInfoParsed )
+      {
+         String sPath = _oHead.getRequestURI().substring( getContextPath().length() );
+
+         if ( sPath.length() > 0 )
+         {
+            _sPathInfo        = decodePath( sPath );
+            _bPathMalformed   = _sPathInfo == null;
+         }
+
+         _bPathInfoParsed = true;
+      }
+
+      return _sPathInfo;
+   }
+
+   public String getPathTranslated()
+   {
+      return getPathInfo() == null ? null : _oServerContext.getRealPath( getPathInfo() );
+   }
+
+   public String getContextPath()
+   {
+      return _oServerContext.getContextPath();
+   }
+
+   public String getQueryString()
+   {
+      return _oHead.getQueryString();
+   }
+
+   public String getRemoteUser()
+   {
+      return null;
+   }
+
+   public boolean isUserInRole( String sRole )
+   {
+      return false;
+   }
+
+   public Principal getUserPrincipal()
+   {
+      return null;
+   }
+
+   public String getRequestedSessionId()
+   {
+      Cookie[] aoCookies = getCookies();
+
+      for ( int i = 0; aoCookies != null && i < aoCookies.length; i++ )
+      {
+         if ( aoCookies[ i ].getName().equals( SessionManager.SESSION_COOKIE_NAME ) )
+         {
+            return aoCookies[ i ].getValue();
+         }
+      }
+
+      return null;
+   }
+
+   public String getRequestURI()
+   {
+      return _oHead.getRequestURI();
+   }
+
+   public StringBuffer getRequestURL()
+   {
+      StringBuffer oURL = new StringBuffer();
+
+      oURL.append( getScheme() ).append( "://" ).append( getServerName() );
+
+      if ( getServerPort() != 80 )
+      {
+         oURL.append( ':' ).append( getServerPort() );
+      }
+
+      return oURL.append( getRequestURI() );
+   }
+
+   public String getServletPath()
+   {
+      return "";
+   }
+
+   public HttpSession getSession( boolean bCreate )
+   {
+      if ( _oSession != null && _oSession.isValid() )
+      {
+         return _oSession;
+      }
+
+      if ( _oSession == null )
+      {
+         _oSession = _oSessionManager.getSession( getRequestedSessionId() );
+
+         if ( _oSession != null )
+         {
+            _oSession.access();
+
+            return _oSession;
+         }
+      }
+
+      if ( ! bCreate )
+      {
+         return null;
+      }
+
+      if ( _oResponse.isCommitted() )
+      {
+         throw new IllegalStateException( "cannot create a session after the response has been committed" );
+      }
+
+      _oSession = _oSessionManager.createSession();
+
+      _oResponse.addSessionCookie( _oSession.getId() );
+
+      return _oSession;
+   }
+
+   public HttpSession getSession()
+   {
+      return getSession( true );
+   }
+
+   public boolean isRequestedSessionIdValid()
+   {
+      return _oSessionManager.getSession( getRequestedSessionId() ) != null;
+   }
+
+   public boolean isRequestedSessionIdFromCookie()
+   {
+      return getRequestedSessionId() != null;
+   }
+
+   public boolean isRequestedSessionIdFromURL()
+   {
+      return false;
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public boolean isRequestedSessionIdFromUrl()
+   {
+      return false;
+   }
+
+   // ---------------------------------------------------------------------------------------------------------
+   // helpers
+
+   private String getEffectiveCharacterEncoding()
+   {
+      return _sCharacterEncoding == null ? DEFAULT_CHARACTER_ENCODING : _sCharacterEncoding;
+   }
+
+   private Map parseParameters()
+   {
+      Map      oParameterMap  = new LinkedHashMap();
+      String   sEncoding      = getEffectiveCharacterEncoding();
+
+      if ( _oHead.getQueryString() != null )
+      {
+         addParameters( oParameterMap, _oHead.getQueryString(), sEncoding );
+      }
+
+      String sContentType = getContentType();
+
+      if ( _ayBody.length > 0
+           && _iInputMode == INPUT_NONE
+           && sContentType != null
+           && sContentType.toLowerCase().startsWith( FORM_CONTENT_TYPE ) )
+      {
+         try
+         {
+            addParameters( oParameterMap, new String( _ayBody, "ISO-8859-1" ), sEncoding );
+         }
+         catch ( UnsupportedEncodingException e )
+         {
+            throw new RuntimeException( e );
+         }
+      }
+
+      return oParameterMap;
+   }
+
+   private static void addParameters( Map oParameterMap, String sEncodedParameters, String sEncoding )
+   {
+      String[] asPairs = sEncodedParameters.split( "&" );
+
+      for ( int i = 0; i < asPairs.length; i++ )
+      {
+         if ( asPairs[ i ].length() == 0 )
+         {
+            continue;
+         }
+
+         int      iEquals  = asPairs[ i ].indexOf( '=' );
+         String   sName    = decodeParameter( iEquals == -1 ? asPairs[ i ] : asPairs[ i ].substring( 0, iEquals ), sEncoding );
+         String   sValue   = iEquals == -1 ? "" : decodeParameter( asPairs[ i ].substring( iEquals + 1 ), sEncoding );
+
+         if ( sName == null || sValue == null )
+         {
+            // a malformed parameter is skipped, as most containers do
+            continue;
+         }
+
+         String[] asValues = ( String[] ) oParameterMap.get( sName );
+
+         if ( asValues == null )
+         {
+            oParameterMap.put( sName, new String[]{ sValue } );
+         }
+         else
+         {
+            String[] asNewValues = new String[ asValues.length + 1 ];
+
+            System.arraycopy( asValues, 0, asNewValues, 0, asValues.length );
+            asNewValues[ asValues.length ] = sValue;
+
+            oParameterMap.put( sName, asNewValues );
+         }
+      }
+   }
+
+   private static String decodeParameter( String sEncoded, String sEncoding )
+   {
+      try
+      {
+         return URLDecoder.decode( sEncoded, sEncoding );
+      }
+      catch ( UnsupportedEncodingException e )
+      {
+         return null;
+      }
+      catch ( IllegalArgumentException e )
+      {
+         return null;
+      }
+   }
+
+   /**
+    * @return the decoded path, or null if the path is not properly encoded
+    */
+   private static String decodePath( String sPath )
+   {
+      if ( sPath.indexOf( '%' ) == -1 )
+      {
+         return sPath;
+      }
+
+      try
+      {
+         // in a path a + is not a space
+         return URLDecoder.decode( sPath.replaceAll( "\\+", "%2B" ), DEFAULT_CHARACTER_ENCODING );
+      }
+      catch ( UnsupportedEncodingException e )
+      {
+         return null;
+      }
+      catch ( IllegalArgumentException e )
+      {
+         return null;
+      }
+   }
+
+   private Cookie[] parseCookies()
+   {
+      List oCookies = new ArrayList();
+      List oHeaders = _oHead.getHeaders( "Cookie" );
+
+      for ( int i = 0; i < oHeaders.size(); i++ )
+      {
+         String[] asPairs = ( ( String ) oHeaders.get( i ) ).split( "[;,]" );
+
+         for ( int j = 0; j < asPairs.length; j++ )
+         {
+            int iEquals = asPairs[ j ].indexOf( '=' );
+
+            if ( iEquals == -1 )
+            {
+               continue;
+            }
+
+            String sName   = asPairs[ j ].substring( 0, iEquals ).trim();
+            String sValue  = asPairs[ j ].substring( iEquals + 1 ).trim();
+
+            if ( sName.length() == 0 || sName.startsWith( "$" ) )
+            {
+               continue;
+            }
+
+            if ( sValue.length() >= 2 && sValue.startsWith( "\"" ) && sValue.endsWith( "\"" ) )
+            {
+               sValue = sValue.substring( 1, sValue.length() - 1 );
+            }
+
+            try
+            {
+               oCookies.add( new Cookie( sName, sValue ) );
+            }
+            catch ( IllegalArgumentException e )
+            {
+               // a name the servlet API reserves, or a name that is not a token
+            }
+         }
+      }
+
+      return ( Cookie[] ) oCookies.toArray( new Cookie[ oCookies.size() ] );
+   }
+
+   private List getLocaleList()
+   {
+      List     oLocales          = new ArrayList();
+      List     oQualities        = new ArrayList();
+      String   sAcceptLanguage   = _oHead.getHeader( "Accept-Language" );
+
+      if ( sAcceptLanguage != null )
+      {
+         String[] asRanges = sAcceptLanguage.split( "," );
+
+         for ( int i = 0; i < asRanges.length; i++ )
+         {
+            String[] asParts  = asRanges[ i ].trim().split( ";" );
+            String   sTag     = asParts[ 0 ].trim();
+            double   dQuality = 1;
+
+            for ( int j = 1; j < asParts.length; j++ )
+            {
+               String sParameter = asParts[ j ].trim();
+
+               if ( sParameter.startsWith( "q=" ) )
+               {
+                  try
+                  {
+                     dQuality = Double.parseDouble( sParameter.substring( 2 ) );
+                  }
+                  catch ( NumberFormatException e )
+                  {
+                     dQuality = 0;
+                  }
+               }
+            }
+
+            if ( sTag.length() == 0 || sTag.equals( "*" ) || dQuality <= 0 )
+            {
+               continue;
+            }
+
+            // keep the list sorted by quality, ranges of equal quality stay in the order sent
+            int iIndex = oQualities.size();
+
+            while ( iIndex > 0 && ( ( Double ) oQualities.get( iIndex - 1 ) ).doubleValue() < dQuality )
+            {
+               iIndex--;
+            }
+
+            String[] asTagParts = sTag.split( "-" );
+
+            oLocales.add( iIndex, asTagParts.length > 1 ? new Locale( asTagParts[ 0 ], asTagParts[ 1 ] ) : new Locale( asTagParts[ 0 ] ) );
+            oQualities.add( iIndex, Double.valueOf( dQuality ) );
+         }
+      }
+
+      if ( oLocales.isEmpty() )
+      {
+         oLocales.add( Locale.getDefault() );
+      }
+
+      return oLocales;
+   }
+
+   private static class BodyInputStream extends ServletInputStream
+   {
+      private ByteArrayInputStream _oInputStream;
+
+      private BodyInputStream( byte[] ayBody )
+      {
+         _oInputStream = new ByteArrayInputStream( ayBody );
+      }
+
+      public int read()
+      {
+         return _oInputStream.read();
+      }
+
+      public int read( byte[] ayBuffer, int iOffset, int iLength )
+      {
+         return _oInputStream.read( ayBuffer, iOffset, iLength );
+      }
+
+      public int available()
+      {
+         return _oInputStream.available();
+      }
+
+      public long skip( long lCount )
+      {
+         return _oInputStream.skip( lCount );
+      }
+
+      public void close()
+         throws IOException
+      {
+         _oInputStream.close();
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,940 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import com.acciente.induction.util.BufferPool;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Internal.
+ * Adapts the response to a request read by the embedded server to the servlet API.
+ * <p>
+ * The body is collected in a pooled direct buffer. If the response completes before the buffer fills up, it
+ * is sent with a Content-Length header in a single write together with the headers. A larger response is
+ * committed when the buffer fills up, and is sent with the length the application set, or else chunked (to
+ * HTTP/1.1 clients) or delimited by closing the connection (to HTTP/1.0 clients).
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ServerResponse implements HttpServletResponse
+{
+   private static final String   DEFAULT_CHARACTER_ENCODING = "ISO-8859-1";
+   private static final byte[]   CRLF                       = { '\r', '\n' };
+   private static final byte[]   LAST_CHUNK                 = { '0', '\r', '\n', '\r', '\n' };
+   private static final Map      REASON_PHRASES             = new HashMap();
+
+   private static final int      OUTPUT_NONE    = 0;
+   private static final int      OUTPUT_STREAM  = 1;
+   private static final int      OUTPUT_WRITER  = 2;
+
+   static
+   {
+      Object[] aoReasonPhrases =
+         {
+            Integer.valueOf( 100 ), "Continue",
+            Integer.valueOf( 200 ), "OK",
+            Integer.valueOf( 201 ), "Created",
+            Integer.valueOf( 202 ), "Accepted",
+            Integer.valueOf( 204 ), "No Content",
+            Integer.valueOf( 206 ), "Partial Content",
+            Integer.valueOf( 301 ), "Moved Permanently",
+            Integer.valueOf( 302 ), "Found",
+            Integer.valueOf( 303 ), "See Other",
+            Integer.valueOf( 304 ), "Not Modified",
+            Integer.valueOf( 307 ), "Temporary Redirect",
+            Integer.valueOf( 308 ), "Permanent Redirect",
+            Integer.valueOf( 400 ), "Bad Request",
+            Integer.valueOf( 401 ), "Unauthorized",
+            Integer.valueOf( 403 ), "Forbidden",
+            Integer.valueOf( 404 ), "Not Found",
+            Integer.valueOf( 405 ), "Method Not Allowed",
+            Integer.valueOf( 406 ), "Not Acceptable",
+            Integer.valueOf( 408 ), "Request Timeout",
+            Integer.valueOf( 409 ), "Conflict",
+            Integer.valueOf( 410 ), "Gone",
+            Integer.valueOf( 411 ), "Length Required",
+            Integer.valueOf( 412 ), "Precondition Failed",
+            Integer.valueOf( 413 ), "Payload Too Large",
+            Integer.valueOf( 414 ), "URI Too Long",
+            Integer.valueOf( 415 ), "Unsupported Media Type",
+            Integer.valueOf( 416 ), "Range Not Satisfiable",
+            Integer.valueOf( 429 ), "Too Many Requests",
+            Integer.valueOf( 431 ), "Request Header Fields Too Large",
+            Integer.valueOf( 500 ), "Internal Server Error",
+            Integer.valueOf( 501 ), "Not Implemented",
+            Integer.valueOf( 502 ), "Bad Gateway",
+            Integer.valueOf( 503 ), "Service Unavailable",
+            Integer.valueOf( 504 ), "Gateway Timeout",
+            Integer.valueOf( 505 ), "HTTP Version Not Supported"
+         };
+
+      for ( int i = 0; i < aoReasonPhrases.length; i += 2 )
+      {
+         REASON_PHRASES.put( aoReasonPhrases[ i ], aoReasonPhrases[ i + 1 ] );
+      }
+   }
+
+   private HttpConnection  _oConnection;
+   private ServerRequest   _oRequest;
+   private BufferPool      _oBufferPool;
+   private boolean         _bHeadRequest;
+
+   private int             _iStatus             = SC_OK;
+   private List            _oHeaderNames        = new ArrayList();
+   private List            _oHeaderValues       = new ArrayList();
+   private String          _sContentType;
+   private String          _sCharacterEncoding;
+   private long            _lContentLength      = -1;
+   private Locale          _oLocale;
+   private boolean         _bKeepAlive;
+
+   private int             _iOutputMode         = OUTPUT_NONE;
+   private PrintWriter     _oWriter;
+   private ByteBuffer      _oBuffer;
+   private boolean         _bCommitted;
+   private boolean         _bChunked;
+   private boolean         _bComplete;
+   private boolean         _bFlushingWriter;
+   private long            _lBodyBytesSent;
+
+   public ServerResponse( HttpConnection oConnection, ServerRequest oRequest, BufferPool oBufferPool )
+   {
+      _oConnection   = oConnection;
+      _oRequest      = oRequest;
+      _oBufferPool   = oBufferPool;
+      _bHeadRequest  = oRequest.getMethod().equals( "HEAD" );
+      _bKeepAlive    = oRequest.getHead().isKeepAlive();
+   }
+
+   /**
+    * @param iStatus an HTTP status code
+    * @return the standard reason phrase for the status
+    */
+   public static String getReasonPhrase( int iStatus )
+   {
+      String sReasonPhrase = ( String ) REASON_PHRASES.get( Integer.valueOf( iStatus ) );
+
+      return sReasonPhrase == null ? "Status " + iStatus : sReasonPhrase;
+   }
+
+   /**
+    * @param sContentType a content type
+    * @return the value of the charset parameter of the content type, or null if there is none
+    */
+   static String getCharsetParameter( String sContentType )
+   {
+      String[] asParts = sContentType.split( ";" );
+
+      for ( int i = 1; i < asParts.length; i++ )
+      {
+         String sParameter = asParts[ i ].trim();
+
+         if ( sParameter.toLowerCase().startsWith( "charset=" ) )
+         {
+            String sCharset = sParameter.substring( 8 ).trim();
+
+            if ( sCharset.length() >= 2 && sCharset.startsWith( "\"" ) && sCharset.endsWith( "\"" ) )
+            {
+               sCharset = sCharset.substring( 1, sCharset.length() - 1 );
+            }
+
+            return sCharset;
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * Completes the response, called when the servlet returns
+    *
+    * @return true if the connection can be used for another request
+    * @throws IOException if the response could not be written
+    */
+   boolean finish()
+      throws IOException
+   {
+      flushWriter();
+
+      sendBuffer( true );
+
+      // a client cannot find the end of a response that does not match its Content-Length
+      if ( _lContentLength >= 0 && _lBodyBytesSent != _lContentLength && isBodyAllowed() && ! _bHeadRequest )
+      {
+         _bKeepAlive = false;
+      }
+
+      return _bKeepAlive;
+   }
+
+   /**
+    * Returns the response's buffer to the pool
+    */
+   void release()
+   {
+      if ( _oBuffer != null )
+      {
+         _oBufferPool.release( _oBuffer );
+         _oBuffer = null;
+      }
+   }
+
+   void addSessionCookie( String sSessionId )
+   {
+      String sPath = _oRequest.getContextPath().length() == 0 ? "/" : _oRequest.getContextPath();
+
+      addHeader( "Set-Cookie", SessionManager.SESSION_COOKIE_NAME + "=" + sSessionId + "; Path=" + sPath + "; HttpOnly" );
+   }
+
+   // ---------------------------------------------------------------------------------------------------------
+   // ServletResponse
+
+   public String getCharacterEncoding()
+   {
+      return _sCharacterEncoding == null ? DEFAULT_CHARACTER_ENCODING : _sCharacterEncoding;
+   }
+
+   public String getContentType()
+   {
+      if ( _sContentType == null )
+      {
+         return null;
+      }
+
+      return _sCharacterEncoding == null ? _sContentType : _sContentType + "; charset=" + _sCharacterEncoding;
+   }
+
+   public ServletOutputStream getOutputStream()
+   {
+      if ( _iOutputMode == OUTPUT_WRITER )
+      {
+         throw new IllegalStateException( "getWriter() has already been called for this response" );
+      }
+
+      _iOutputMode = OUTPUT_STREAM;
+
+      return new ResponseOutputStream();
+   }
+
+   public PrintWriter getWriter()
+      throws UnsupportedEncodingException
+   {
+      if ( _iOutputMode == OUTPUT_STREAM )
+      {
+         throw new IllegalStateException( "getOutputStream() has already been called for this response" );
+      }
+
+      if ( _oWriter == null )
+      {
+         // the encoding used by the writer is announced in the content type
+         if ( _sCharacterEncoding == null )
+         {
+            _sCharacterEncoding = DEFAULT_CHARACTER_ENCODING;
+         }
+
+         _oWriter       = new PrintWriter( new OutputStreamWriter( new ResponseOutputStream(), _sCharacterEncoding ) );
+         _iOutputMode   = OUTPUT_WRITER;
+      }
+
+      return _oWriter;
+   }
+
+   public void setCharacterEncoding( String sCharacterEncoding )
+   {
+      if ( _bCommitted || _oWriter != null || sCharacterEncoding == null )
+      {
+         return;
+      }
+
+      if ( Charset.isSupported( sCharacterEncoding ) )
+      {
+         _sCharacterEncoding = sCharacterEncoding;
+      }
+   }
+
+   public void setContentLength( int iContentLength )
+   {
+      if ( ! _bCommitted )
+      {
+         _lContentLength = iContentLength;
+      }
+   }
+
+   public void setContentType( String sContentType )
+   {
+      if ( _bCommitted )
+      {
+         return;
+      }
+
+      if ( sContentType == null )
+      {
+         _sContentType = null;
+         return;
+      }
+
+      int      iSemicolon  = sContentType.indexOf( ';' );
+      String   sCharset    = getCharsetParameter( sContentType );
+
+      // other parameters are kept with the type
+      _sContentType = iSemicolon == -1 ? sContentType.trim() : removeCharsetParameter( sContentType );
+
+      if ( sCharset != null )
+      {
+         setCharacterEncoding( sCharset );
+      }
+   }
+
+   public void setBufferSize( int iBufferSize )
+   {
+      if ( _bCommitted || ( _oBuffer != null && _oBuffer.position() > 0 ) )
+      {
+         throw new IllegalStateException( "cannot set the buffer size after content has been written" );
+      }
+
+      // the buffers are pooled, so the configured size is used
+   }
+
+   public int getBufferSize()
+   {
+      return _oBufferPool.getBufferSize();
+   }
+
+   public void flushBuffer()
+      throws IOException
+   {
+      flushWriter();
+
+      sendBuffer( false );
+   }
+
+   public void resetBuffer()
+   {
+      // characters held by the writer's encoder are moved to the buffer so they can be discarded
+      flushWriter();
+
+      if ( _bCommitted )
+      {
+         throw new IllegalStateException( "the response has already been committed" );
+      }
+
+      if ( _oBuffer != null )
+      {
+         _oBuffer.clear();
+      }
+   }
+
+   public boolean isCommitted()
+   {
+      return _bCommitted;
+   }
+
+   public void reset()
+   {
+      resetBuffer();
+
+      _iStatus          = SC_OK;
+      _sContentType     = null;
+      _lContentLength   = -1;
+      _oLocale          = null;
+
+      if ( _oWriter == null )
+      {
+         _sCharacterEncoding = null;
+      }
+
+      // the session cookie must survive, since the session exists whether or not this response is reset
+      for ( int i = _oHeaderNames.size() - 1; i >= 0; i-- )
+      {
+         String sValue = ( String ) _oHeaderValues.get( i );
+
+         if ( ! ( "Set-Cookie".equals( _oHeaderNames.get( i ) ) && sValue.startsWith( SessionManager.SESSION_COOKIE_NAME + "=" ) ) )
+         {
+            _oHeaderNames.remove( i );
+            _oHeaderValues.remove( i );
+         }
+      }
+   }
+
+   public void setLocale( Locale oLocale )
+   {
+      if ( ! _bCommitted )
+      {
+         _oLocale = oLocale;
+      }
+   }
+
+   public Locale getLocale()
+   {
+      return _oLocale == null ? Locale.getDefault() : _oLocale;
+   }
+
+   // ---------------------------------------------------------------------------------------------------------
+   // HttpServletResponse
+
+   public void addCookie( Cookie oCookie )
+   {
+      StringBuffer oHeader = new StringBuffer();
+
+      oHeader.append( oCookie.getName() ).append( '=' ).append( oCookie.getValue() == null ? "" : oCookie.getValue() );
+
+      if ( oCookie.getMaxAge() >= 0 )
+      {
+         oHeader.append( "; Max-Age=" ).append( oCookie.getMaxAge() );
+         oHeader.append( "; Expires=" ).append( HttpDate.format( System.currentTimeMillis() + oCookie.getMaxAge() * 1000L ) );
+      }
+
+      if ( oCookie.getDomain() != null )
+      {
+         oHeader.append( "; Domain=" ).append( oCookie.getDomain() );
+      }
+
+      if ( oCookie.getPath() != null )
+      {
+         oHeader.append( "; Path=" ).append( oCookie.getPath() );
+      }
+
+      if ( oCookie.getSecure() )
+      {
+         oHeader.append( "; Secure" );
+      }
+
+      addHeader( "Set-Cookie", oHeader.toString() );
+   }
+
+   public boolean containsHeader( String sName )
+   {
+      if ( sName.equalsIgnoreCase( "Content-Type" ) )
+      {
+         return _sContentType != null;
+      }
+
+      if ( sName.equalsIgnoreCase( "Content-Length" ) )
+      {
+         return _lContentLength != -1;
+      }
+
+      return indexOfHeader( sName ) != -1;
+   }
+
+   public String encodeURL( String sURL )
+   {
+      // sessions are only tracked with cookies
+      return sURL;
+   }
+
+   public String encodeRedirectURL( String sURL )
+   {
+      return sURL;
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public String encodeUrl( String sURL )
+   {
+      return sURL;
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public String encodeRedirectUrl( String sURL )
+   {
+      return sURL;
+   }
+
+   public void sendError( int iStatus, String sMessage )
+      throws IOException
+   {
+      resetBuffer();
+
+      _iStatus          = iStatus;
+      _lContentLength   = -1;
+
+      StringBuffer oPage = new StringBuffer();
+      String       sTitle = iStatus + " " + getReasonPhrase( iStatus );
+
+      oPage.append( "<html><head><title>" ).append( sTitle ).append( "</title></head><body><h1>" ).append( sTitle ).append( "</h1>" );
+
+      if ( sMessage != null )
+      {
+         oPage.append( "<p>" ).append( escapeHTML( sMessage ) ).append( "</p>" );
+      }
+
+      oPage.append( "</body></html>" );
+
+      _sContentType        = "text/html";
+      _sCharacterEncoding  = "UTF-8";
+
+      writeBody( oPage.toString().getBytes( "UTF-8" ) );
+   }
+
+   public void sendError( int iStatus )
+      throws IOException
+   {
+      sendError( iStatus, null );
+   }
+
+   public void sendRedirect( String sLocation )
+      throws IOException
+   {
+      resetBuffer();
+
+      _iStatus          = SC_FOUND;
+      _lContentLength   = -1;
+
+      setHeader( "Location", toAbsoluteURL( sLocation ) );
+
+      writeBody( new byte[ 0 ] );
+   }
+
+   public void setDateHeader( String sName, long lDate )
+   {
+      setHeader( sName, HttpDate.format( lDate ) );
+   }
+
+   public void addDateHeader( String sName, long lDate )
+   {
+      addHeader( sName, HttpDate.format( lDate ) );
+   }
+
+   public void setHeader( String sName, String sValue )
+   {
+      if ( _bCommitted || setSpecialHeader( sName, sValue ) )
+      {
+         return;
+      }
+
+      int iIndex;
+
+      while ( ( iIndex = indexOfHeader( sName ) ) != -1 )
+      {
+         _oHeaderNames.remove( iIndex );
+         _oHeaderValues.remove( iIndex );
+      }
+
+      if ( sValue != null )
+      {
+         _oHeaderNames.add( sName );
+         _oHeaderValues.add( sValue );
+      }
+   }
+
+   public void addHeader( String sName, String sValue )
+   {
+      if ( _bCommitted || sValue == null || setSpecialHeader( sName, sValue ) )
+      {
+         return;
+      }
+
+      _oHeaderNames.add( sName );
+      _oHeaderValues.add( sValue );
+   }
+
+   public void setIntHeader( String sName, int iValue )
+   {
+      setHeader( sName, String.valueOf( iValue ) );
+   }
+
+   public void addIntHeader( String sName, int iValue )
+   {
+      addHeader( sName, String.valueOf( iValue ) );
+   }
+
+   public void setStatus( int iStatus )
+   {
+      if ( ! _bCommitted )
+      {
+         _iStatus = iStatus;
+      }
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public void setStatus( int iStatus, String sMessage )
+   {
+      setStatus( iStatus );
+   }
+
+   // ---------------------------------------------------------------------------------------------------------
+   // helpers
+
+   /**
+    * Handles the headers that are represented by fields of this response
+    *
+    * @return true if the header was handled
+    */
+   private boolean setSpecialHeader( String sName, String sValue )
+   {
+      if ( sName.equalsIgnoreCase( "Content-Type" ) )
+      {
+         setContentType( sValue );
+         return true;
+      }
+
+      if ( sName.equalsIgnoreCase( "Content-Length" ) )
+      {
+         try
+         {
+            _lContentLength = sValue == null ? -1 : Long.parseLong( sValue.trim() );
+         }
+         catch ( NumberFormatException e )
+         {
+            throw new IllegalArgumentException( "Content-Length is not a number: " + sValue );
+         }
+         return true;
+      }
+
+      if ( sName.equalsIgnoreCase( "Connection" ) || sName.equalsIgnoreCase( "Transfer-Encoding" ) )
+      {
+         // the framing of the response is managed by the server, an application can only ask to close
+         if ( sValue != null && sValue.equalsIgnoreCase( "close" ) )
+         {
+            _bKeepAlive = false;
+         }
+         return true;
+      }
+
+      return false;
+   }
+
+   /**
+    * Moves the characters held by the writer's encoder to the buffer, without sending the buffer
+    */
+   private void flushWriter()
+   {
+      if ( _oWriter != null )
+      {
+         _bFlushingWriter = true;
+
+         try
+         {
+            _oWriter.flush();
+         }
+         finally
+         {
+            _bFlushingWriter = false;
+         }
+      }
+   }
+
+   private int indexOfHeader( String sName )
+   {
+      for ( int i = 0; i < _oHeaderNames.size(); i++ )
+      {
+         if ( sName.equalsIgnoreCase( ( String ) _oHeaderNames.get( i ) ) )
+         {
+            return i;
+         }
+      }
+
+      return -1;
+   }
+
+   private boolean isBodyAllowed()
+   {
+      return _iStatus != SC_NO_CONTENT && _iStatus != SC_NOT_MODIFIED && ( _iStatus < 100 || _iStatus >= 200 );
+   }
+
+   /**
+    * Writes the complete body of a generated response (an error page or a redirect), anything the application
+    * writes after this is discarded
+    */
+   private void writeBody( byte[] ayBody )
+      throws IOException
+   {
+      _bComplete = false;
+
+      write( ayBody, 0, ayBody.length );
+
+      _bComplete = true;
+   }
+
+   private void write( byte[] ayBytes, int iOffset, int iLength )
+      throws IOException
+   {
+      if ( _bComplete )
+      {
+         return;
+      }
+
+      while ( iLength > 0 )
+      {
+         if ( _oBuffer == null )
+         {
+            _oBuffer = ( ByteBuffer ) _oBufferPool.acquire();
+         }
+
+         int iChunkLength = Math.min( iLength, _oBuffer.remaining() );
+
+         _oBuffer.put( ayBytes, iOffset, iChunkLength );
+
+         iOffset += iChunkLength;
+         iLength -= iChunkLength;
+
+         if ( ! _oBuffer.hasRemaining() )
+         {
+            sendBuffer( false );
+         }
+      }
+   }
+
+   /**
+    * Sends the buffered body, and the headers if the response is not committed yet
+    *
+    * @param bFinal true if the response is complete
+    */
+   private void sendBuffer( boolean bFinal )
+      throws IOException
+   {
+      int         iBodyLength = _oBuffer == null ? 0 : _oBuffer.position();
+      ByteBuffer  oHead       = null;
+
+      if ( ! _bCommitted )
+      {
+         if ( _lContentLength == -1 && bFinal && isBodyAllowed() )
+         {
+            _lContentLength = iBodyLength;
+         }
+
+         _bChunked = _lContentLength == -1 && isBodyAllowed() && getProtocol().equals( RequestHead.HTTP_1_1 );
+
+         if ( _lContentLength == -1 && isBodyAllowed() && ! _bChunked )
+         {
+            // an HTTP/1.0 client reads the body until the connection closes
+            _bKeepAlive = false;
+         }
+
+         oHead       = ByteBuffer.wrap( formatHead() );
+         _bCommitted = true;
+      }
+      else if ( iBodyLength == 0 && ! ( bFinal && _bChunked ) )
+      {
+         return;
+      }
+
+      List oBuffers = new ArrayList( 5 );
+
+      if ( oHead != null )
+      {
+         oBuffers.add( oHead );
+      }
+
+      if ( iBodyLength > 0 && isBodyAllowed() && ! _bHeadRequest )
+      {
+         _oBuffer.flip();
+
+         if ( _bChunked )
+         {
+            oBuffers.add( ByteBuffer.wrap( ( Integer.toHexString( iBodyLength ) + "\r\n" ).getBytes( "ISO-8859-1" ) ) );
+            oBuffers.add( _oBuffer );
+            oBuffers.add( ByteBuffer.wrap( CRLF ) );
+         }
+         else
+         {
+            oBuffers.add( _oBuffer );
+         }
+
+         _lBodyBytesSent += iBodyLength;
+      }
+
+      if ( bFinal && _bChunked && ! _bHeadRequest )
+      {
+         oBuffers.add( ByteBuffer.wrap( LAST_CHUNK ) );
+      }
+
+      try
+      {
+         _oConnection.write( ( ByteBuffer[] ) oBuffers.toArray( new ByteBuffer[ oBuffers.size() ] ) );
+      }
+      finally
+      {
+         if ( _oBuffer != null )
+         {
+            _oBuffer.clear();
+         }
+      }
+   }
+
+   private byte[] formatHead()
+      throws UnsupportedEncodingException
+   {
+      StringBuffer oHead = new StringBuffer( 256 );
+
+      oHead.append( RequestHead.HTTP_1_1 ).append( ' ' ).append( _iStatus ).append( ' ' ).append( getReasonPhrase( _iStatus ) ).append( "\r\n" );
+      oHead.append( "Date: " ).append( HttpDate.now() ).append( "\r\n" );
+
+      if ( _sContentType != null )
+      {
+         oHead.append( "Content-Type: " ).append( getContentType() ).append( "\r\n" );
+      }
+
+      if ( _oLocale != null )
+      {
+         oHead.append( "Content-Language: " ).append( _oLocale.toString().replace( '_', '-' ) ).append( "\r\n" );
+      }
+
+      for ( int i = 0; i < _oHeaderNames.size(); i++ )
+      {
+         oHead.append( _oHeaderNames.get( i ) ).append( ": " ).append( _oHeaderValues.get( i ) ).append( "\r\n" );
+      }
+
+      if ( _bChunked )
+      {
+         oHead.append( "Transfer-Encoding: chunked\r\n" );
+      }
+      else if ( _lContentLength >= 0 && isBodyAllowed() )
+      {
+         oHead.append( "Content-Length: " ).append( _lContentLength ).append( "\r\n" );
+      }
+
+      if ( ! _bKeepAlive )
+      {
+         oHead.append( "Connection: close\r\n" );
+      }
+      else if ( getProtocol().equals( RequestHead.HTTP_1_0 ) )
+      {
+         oHead.append( "Connection: keep-alive\r\n" );
+      }
+
+      oHead.append( "\r\n" );
+
+      return oHead.toString().getBytes( "ISO-8859-1" );
+   }
+
+   private String getProtocol()
+   {
+      return _oRequest.getProtocol();
+   }
+
+   private String toAbsoluteURL( String sLocation )
+   {
+      if ( sLocation.indexOf( "://" ) != -1 )
+      {
+         return sLocation;
+      }
+
+      StringBuffer oURL = new StringBuffer();
+
+      oURL.append( _oRequest.getScheme() ).append( "://" ).append( _oRequest.getServerName() );
+
+      if ( _oRequest.getServerPort() != 80 )
+      {
+         oURL.append( ':' ).append( _oRequest.getServerPort() );
+      }
+
+      if ( sLocation.startsWith( "/" ) )
+      {
+         oURL.append( sLocation );
+      }
+      else
+      {
+         // relative to the directory of the request URI
+         String sRequestURI = _oRequest.getRequestURI();
+
+         oURL.append( sRequestURI.substring( 0, sRequestURI.lastIndexOf( '/' ) + 1 ) ).append( sLocation );
+      }
+
+      return oURL.toString();
+   }
+
+   private static String removeCharsetParameter( String sContentType )
+   {
+      String[]     asParts  = sContentType.split( ";" );
+      StringBuffer oResult  = new StringBuffer( asParts[ 0 ].trim() );
+
+      for ( int i = 1; i < asParts.length; i++ )
+      {
+         if ( ! asParts[ i ].trim().toLowerCase().startsWith( "charset=" ) )
+         {
+            oResult.append( ";" ).append( asParts[ i ] );
+         }
+      }
+
+      return oResult.toString();
+   }
+
+   private static String escapeHTML( String sText )
+   {
+      StringBuffer oEscaped = new StringBuffer( sText.length() );
+
+      for ( int i = 0; i < sText.length(); i++ )
+      {
+         char c = sText.charAt( i );
+
+         switch ( c )
+         {
+            case '<':   oEscaped.append( "&lt;" );    break;
+            case '>':   oEscaped.append( "&gt;" );    break;
+            case '&':   oEscaped.append( "&amp;" );   break;
+            case '"':   oEscaped.append( "&quot;" );  break;
+            default:    oEscaped.append( c );
+         }
+      }
+
+      return oEscaped.toString();
+   }
+
+   private class ResponseOutputStream extends ServletOutputStream
+   {
+      public void write( int iByte )
+         throws IOException
+      {
+         ServerResponse.this.write( new byte[]{ ( byte ) iByte }, 0, 1 );
+      }
+
+      public void write( byte[] ayBytes, int iOffset, int iLength )
+         throws IOException
+      {
+         ServerResponse.this.write( ayBytes, iOffset, iLength );
+      }
+
+      public void flush()
+         throws IOException
+      {
+         // as in a servlet container flushing the stream (or the writer) commits the response
+         if ( ! _bFlushingWriter )
+         {
+            sendBuffer( false );
+         }
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
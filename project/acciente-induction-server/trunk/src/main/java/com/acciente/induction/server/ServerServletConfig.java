@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+
+/**
+ * Internal.
+ * The servlet config of the dispatcher servlet run by the embedded server.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ServerServletConfig implements ServletConfig
+{
+   private String          _sServletName;
+   private Map             _oInitParameters;
+   private ServletContext  _oServletContext;
+
+   public ServerServletConfig( ServerConfig oServerConfig, ServletContext oServletContext )
+   {
+      _sServletName     = oServerConfig.getServletName();
+      _oInitParameters  = oServerConfig.getInitParameters();
+      _oServletContext  = oServletContext;
+   }
+
+   public String getServletName()
+   {
+      return _sServletName;
+   }
+
+   public ServletContext getServletContext()
+   {
+      return _oServletContext;
+   }
+
+   public String getInitParameter( String sName )
+   {
+      return ( String ) _oInitParameters.get( sName );
+   }
+
+   public Enumeration getInitParameterNames()
+   {
+      return Collections.enumeration( _oInitParameters.keySet() );
+   }
+}
+
+// EOF
\ No newline at end of file
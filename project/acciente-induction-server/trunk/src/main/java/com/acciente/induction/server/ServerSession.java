@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Internal.
+ * An HTTP session held in memory by the embedded server.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ServerSession implements HttpSession
+{
+   private String          _sId;
+   private SessionManager  _oSessionManager;
+   private long            _lCreationTime;
+   private Map             _oAttributes         = new ConcurrentHashMap();
+
+   private volatile long      _lLastAccessedTime;
+   private volatile long      _lThisAccessedTime;
+   private volatile int       _iMaxInactiveInterval;
+   private volatile boolean   _bNew                = true;
+   private volatile boolean   _bValid              = true;
+
+   ServerSession( String sId, SessionManager oSessionManager, int iMaxInactiveInterval )
+   {
+      _sId                    = sId;
+      _oSessionManager        = oSessionManager;
+      _lCreationTime          = System.currentTimeMillis();
+      _lLastAccessedTime      = _lCreationTime;
+      _lThisAccessedTime      = _lCreationTime;
+      _iMaxInactiveInterval   = iMaxInactiveInterval;
+   }
+
+   /**
+    * Called when a request that belongs to this session arrives
+    */
+   void access()
+   {
+      _bNew                = false;
+      _lLastAccessedTime   = _lThisAccessedTime;
+      _lThisAccessedTime   = System.currentTimeMillis();
+   }
+
+   boolean isExpired( long lNow )
+   {
+      return _iMaxInactiveInterval > 0 && lNow - _lThisAccessedTime > _iMaxInactiveInterval * 1000L;
+   }
+
+   boolean isValid()
+   {
+      return _bValid;
+   }
+
+   public long getCreationTime()
+   {
+      checkValid();
+
+      return _lCreationTime;
+   }
+
+   public String getId()
+   {
+      return _sId;
+   }
+
+   public long getLastAccessedTime()
+   {
+      return _lLastAccessedTime;
+   }
+
+   public ServletContext getServletContext()
+   {
+      return _oSessionManager.getServletContext();
+   }
+
+   public void setMaxInactiveInterval( int iMaxInactiveInterval )
+   {
+      _iMaxInactiveInterval = iMaxInactiveInterval;
+   }
+
+   public int getMaxInactiveInterval()
+   {
+      return _iMaxInactiveInterval;
+   }
+
+   /**
+    * @deprecated as of servlet 2.1
+    */
+   @Deprecated
+   public javax.servlet.http.HttpSessionContext getSessionContext()
+   {
+      return null;
+   }
+
+   public Object getAttribute( String sName )
+   {
+      checkValid();
+
+      return _oAttributes.get( sName );
+   }
+
+   /**
+    * @deprecated as of servlet 2.2
+    */
+   @Deprecated
+   public Object getValue( String sName )
+   {
+      return getAttribute( sName );
+   }
+
+   public Enumeration getAttributeNames()
+   {
+      checkValid();
+
+      return Collections.enumeration( new ArrayList( _oAttributes.keySet() ) );
+   }
+
+   /**
+    * @deprecated as of servlet 2.2
+    */
+   @Deprecated
+   public String[] getValueNames()
+   {
+      checkValid();
+
+      return ( String[] ) _oAttributes.keySet().toArray( new String[ 0 ] );
+   }
+
+   public void setAttribute( String sName, Object oValue )
+   {
+      checkValid();
+
+      if ( oValue == null )
+      {
+         removeAttribute( sName );
+         return;
+      }
+
+      if ( oValue instanceof HttpSessionBindingListener )
+      {
+         ( ( HttpSessionBindingListener ) oValue ).valueBound( new HttpSessionBindingEvent( this, sName, oValue ) );
+      }
+
+      Object oPreviousValue = _oAttributes.put( sName, oValue );
+
+      if ( oPreviousValue != oValue && oPreviousValue instanceof HttpSessionBindingListener )
+      {
+         ( ( HttpSessionBindingListener ) oPreviousValue ).valueUnbound( new HttpSessionBindingEvent( this, sName, oPreviousValue ) );
+      }
+   }
+
+   /**
+    * @deprecated as of servlet 2.2
+    */
+   @Deprecated
+   public void putValue( String sName, Object oValue )
+   {
+      setAttribute( sName, oValue );
+   }
+
+   public void removeAttribute( String sName )
+   {
+      checkValid();
+
+      Object oValue = _oAttributes.remove( sName );
+
+      if ( oValue instanceof HttpSessionBindingListener )
+      {
+         ( ( HttpSessionBindingListener ) oValue ).valueUnbound( new HttpSessionBindingEvent( this, sName, oValue ) );
+      }
+   }
+
+   /**
+    * @deprecated as of servlet 2.2
+    */
+   @Deprecated
+   public void removeValue( String sName )
+   {
+      removeAttribute( sName );
+   }
+
+   public void invalidate()
+   {
+      checkValid();
+
+      _oSessionManager.removeSession( this );
+
+      destroy();
+   }
+
+   public boolean isNew()
+   {
+      checkValid();
+
+      return _bNew;
+   }
+
+   /**
+    * Unbinds all attributes, called when the session is invalidated or expires
+    */
+   void destroy()
+   {
+      _bValid = false;
+
+      List oNames = new ArrayList( _oAttributes.keySet() );
+
+      for ( Iterator oIter = oNames.iterator(); oIter.hasNext(); )
+      {
+         String sName   = ( String ) oIter.next();
+         Object oValue  = _oAttributes.remove( sName );
+
+         if ( oValue instanceof HttpSessionBindingListener )
+         {
+            ( ( HttpSessionBindingListener ) oValue ).valueUnbound( new HttpSessionBindingEvent( this, sName, oValue ) );
+         }
+      }
+   }
+
+   private void checkValid()
+   {
+      if ( ! _bValid )
+      {
+         throw new IllegalStateException( "session: " + _sId + " has been invalidated" );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
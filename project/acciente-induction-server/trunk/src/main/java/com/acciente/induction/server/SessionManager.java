@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.ServletContext;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Internal.
+ * Manages the HTTP sessions of the embedded server. Sessions are held in memory and are tracked with a
+ * cookie, expired sessions are removed by calls to expireSessions().
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class SessionManager
+{
+   public static final String SESSION_COOKIE_NAME = "JSESSIONID";
+
+   private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+   private ServletContext  _oServletContext;
+   private int             _iMaxInactiveInterval;
+   private Map             _oSessionMap         = new ConcurrentHashMap();
+   private SecureRandom    _oRandom             = new SecureRandom();
+   private Log             _oLog;
+
+   public SessionManager( ServletContext oServletContext, int iSessionTimeoutMinutes )
+   {
+      _oServletContext        = oServletContext;
+      _iMaxInactiveInterval   = iSessionTimeoutMinutes * 60;
+      _oLog                   = LogFactory.getLog( SessionManager.class );
+   }
+
+   public ServletContext getServletContext()
+   {
+      return _oServletContext;
+   }
+
+   /**
+    * @param sId a session id sent by a client
+    * @return the valid session with the specified id, or null
+    */
+   public ServerSession getSession( String sId )
+   {
+      if ( sId == null )
+      {
+         return null;
+      }
+
+      ServerSession oSession = ( ServerSession ) _oSessionMap.get( sId );
+
+      if ( oSession == null || ! oSession.isValid() || oSession.isExpired( System.currentTimeMillis() ) )
+      {
+         return null;
+      }
+
+      return oSession;
+   }
+
+   public ServerSession createSession()
+   {
+      byte[]   ayId  = new byte[ 16 ];
+      char[]   acId  = new char[ ayId.length * 2 ];
+
+      _oRandom.nextBytes( ayId );
+
+      for ( int i = 0; i < ayId.length; i++ )
+      {
+         acId[ i * 2 ]     = HEX_DIGITS[ ( ayId[ i ] >> 4 ) & 0xF ];
+         acId[ i * 2 + 1 ] = HEX_DIGITS[ ayId[ i ] & 0xF ];
+      }
+
+      ServerSession oSession = new ServerSession( new String( acId ), this, _iMaxInactiveInterval );
+
+      _oSessionMap.put( oSession.getId(), oSession );
+
+      return oSession;
+   }
+
+   void removeSession( ServerSession oSession )
+   {
+      _oSessionMap.remove( oSession.getId() );
+   }
+
+   /**
+    * Removes the sessions that have been inactive for longer than their maximum inactive interval
+    */
+   public void expireSessions()
+   {
+      long  lNow              = System.currentTimeMillis();
+      List  oExpiredSessions  = new ArrayList();
+
+      for ( Iterator oIter = _oSessionMap.values().iterator(); oIter.hasNext(); )
+      {
+         ServerSession oSession = ( ServerSession ) oIter.next();
+
+         if ( oSession.isExpired( lNow ) )
+         {
+            oIter.remove();
+            oExpiredSessions.add( oSession );
+         }
+      }
+
+      destroySessions( oExpiredSessions );
+   }
+
+   /**
+    * Removes all sessions, called when the server stops
+    */
+   public void destroy()
+   {
+      List oSessions = new ArrayList( _oSessionMap.values() );
+
+      _oSessionMap.clear();
+
+      destroySessions( oSessions );
+   }
+
+   private void destroySessions( List oSessions )
+   {
+      for ( Iterator oIter = oSessions.iterator(); oIter.hasNext(); )
+      {
+         ServerSession oSession = ( ServerSession ) oIter.next();
+
+         try
+         {
+            oSession.destroy();
+         }
+         catch ( RuntimeException e )
+         {
+            _oLog.error( "session: error unbinding attributes of session: " + oSession.getId(), e );
+         }
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ConnectException;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * Internal.
+ * Opens server channels on Unix domain sockets. Unix domain socket channels were added to the JDK in Java 16,
+ * since this module is compiled for Java 8 they are opened reflectively.
+ * <p>
+ * A socket file is created by bind with the permissions the process creates files with, and Java cannot change
+ * the process umask. So when permissions are specified the socket is bound in a new directory that only the
+ * process can access, its permissions are set there, and it is then renamed to the requested path. Clients
+ * cannot connect to the socket before its permissions are set.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class UnixSocketChannels
+{
+   /**
+    * Opens a server channel bound to a Unix domain socket
+    *
+    * @param oSocketFile the path of the socket file, a stale socket file left by a previous process is replaced,
+    * a socket file on which another process accepts connections is not
+    * @param sPermissions the POSIX permissions of the socket file (for example rw-rw----), or null to keep the
+    * permissions the process creates files with
+    * @param iBacklog the maximum number of pending connections
+    * @return a bound server channel
+    * @throws IOException if the Java runtime does not support Unix domain sockets, or the socket cannot be bound
+    */
+   public static ServerSocketChannel openServerChannel( File oSocketFile, String sPermissions, int iBacklog )
+      throws IOException
+   {
+      Path                 oSocketPath    = oSocketFile.toPath();
+      ServerSocketChannel  oServerChannel = ( ServerSocketChannel ) open( ServerSocketChannel.class );
+
+      try
+      {
+         // binding fails if the file exists, and a socket file is not removed when a process is killed (a
+         // socket file is neither a regular file, a directory nor a link, so other files are never deleted)
+         if ( Files.exists( oSocketPath, new LinkOption[]{ LinkOption.NOFOLLOW_LINKS } )
+              && Files.readAttributes( oSocketPath, BasicFileAttributes.class, new LinkOption[]{ LinkOption.NOFOLLOW_LINKS } ).isOther() )
+         {
+            if ( isListening( oSocketFile ) )
+            {
+               throw new IOException( "unix domain socket: " + oSocketFile + " is in use by another process" );
+            }
+
+            Files.delete( oSocketPath );
+         }
+
+         if ( sPermissions == null )
+         {
+            oServerChannel.bind( getSocketAddress( oSocketFile ), iBacklog );
+         }
+         else
+         {
+            Path oPrivateDir = Files.createTempDirectory( oSocketPath.toAbsolutePath().getParent(),
+                                                          ".sock",
+                                                          new FileAttribute[]{ PosixFilePermissions.asFileAttribute( PosixFilePermissions.fromString( "rwx------" ) ) } );
+            Path oPrivatePath = oPrivateDir.resolve( oSocketPath.getFileName() );
+
+            try
+            {
+               oServerChannel.bind( getSocketAddress( oPrivatePath.toFile() ), iBacklog );
+
+               Files.setPosixFilePermissions( oPrivatePath, PosixFilePermissions.fromString( sPermissions ) );
+               Files.move( oPrivatePath, oSocketPath, new StandardCopyOption[]{ StandardCopyOption.ATOMIC_MOVE } );
+            }
+            finally
+            {
+               Files.deleteIfExists( oPrivatePath );
+               Files.delete( oPrivateDir );
+            }
+         }
+      }
+      catch ( IOException e )
+      {
+         oServerChannel.close();
+         throw e;
+      }
+
+      return oServerChannel;
+   }
+
+   /**
+    * @param oSocketFile the path of a socket file
+    * @return the address of the Unix domain socket
+    * @throws IOException if the Java runtime does not support Unix domain sockets
+    */
+   public static SocketAddress getSocketAddress( File oSocketFile )
+      throws IOException
+   {
+      try
+      {
+         Class    oAddressClass  = Class.forName( "java.net.UnixDomainSocketAddress" );
+         Method   oOfMethod      = oAddressClass.getMethod( "of", new Class[]{ String.class } );
+
+         return ( SocketAddress ) oOfMethod.invoke( null, new Object[]{ oSocketFile.getPath() } );
+      }
+      catch ( ClassNotFoundException e )
+      {
+         throw new IOException( "unix domain sockets require Java 16 or later" );
+      }
+      catch ( NoSuchMethodException e )
+      {
+         throw new IOException( "unix domain sockets require Java 16 or later" );
+      }
+      catch ( IllegalAccessException e )
+      {
+         throw new IOException( "unix domain sockets: " + e );
+      }
+      catch ( InvocationTargetException e )
+      {
+         throw new IOException( "unix domain sockets: " + e.getTargetException(), e.getTargetException() );
+      }
+   }
+
+   /**
+    * @return true if a process accepts connections on the specified socket file, false if the connection is refused,
+    * that is if the socket file was left by a process that ended
+    */
+   private static boolean isListening( File oSocketFile )
+      throws IOException
+   {
+      SocketChannel oChannel = ( SocketChannel ) open( SocketChannel.class );
+
+      try
+      {
+         oChannel.connect( getSocketAddress( oSocketFile ) );
+
+         return true;
+      }
+      catch ( ConnectException e )
+      {
+         return false;
+      }
+      finally
+      {
+         oChannel.close();
+      }
+   }
+
+   /**
+    * Opens a Unix domain socket channel
+    *
+    * @param oChannelClass ServerSocketChannel or SocketChannel
+    */
+   private static Object open( Class oChannelClass )
+      throws IOException
+   {
+      try
+      {
+         ProtocolFamily oUnixFamily = StandardProtocolFamily.valueOf( "UNIX" );
+
+         Method oOpenMethod = oChannelClass.getMethod( "open", new Class[]{ ProtocolFamily.class } );
+
+         return oOpenMethod.invoke( null, new Object[]{ oUnixFamily } );
+      }
+      catch ( IllegalArgumentException e )
+      {
+         throw new IOException( "unix domain sockets require Java 16 or later" );
+      }
+      catch ( NoSuchMethodException e )
+      {
+         throw new IOException( "unix domain sockets require Java 16 or later" );
+      }
+      catch ( IllegalAccessException e )
+      {
+         throw new IOException( "unix domain sockets: " + e );
+      }
+      catch ( InvocationTargetException e )
+      {
+         // e.g. UnsupportedOperationException if the platform does not support Unix domain sockets
+         throw new IOException( "unix domain sockets: " + e.getTargetException(), e.getTargetException() );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
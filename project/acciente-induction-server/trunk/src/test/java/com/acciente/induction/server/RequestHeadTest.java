@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.server;
+
+import junit.framework.TestCase;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.ByteBuffer;
+
+/**
+ * Tests the parsing of request heads, and the body length rules applied to them
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class RequestHeadTest extends TestCase
+{
+   public void testHeadIsFoundAcrossReads() throws Exception
+   {
+      ByteBuffer oBuffer = ByteBuffer.allocate( 256 );
+
+      oBuffer.put( "GET / HTTP/1.1\r\nHost: a\r\n\r".getBytes( "ISO-8859-1" ) );
+
+      int iPosition = oBuffer.position();
+
+      assertEquals( -1, RequestHead.findEndOfHead( oBuffer, 0 ) );
+
+      oBuffer.put( "\nbody".getBytes( "ISO-8859-1" ) );
+
+      assertEquals( iPosition + 1, RequestHead.findEndOfHead( oBuffer, iPosition ) );
+   }
+
+   public void testRequestLineAndHeaders() throws Exception
+   {
+      RequestHead oHead = parse( "POST /a/b?x=1 HTTP/1.1\r\nHost: a\r\nX-Multi: 1\r\nx-multi: 2\r\n\r\n" );
+
+      assertEquals( "POST", oHead.getMethod() );
+      assertEquals( "/a/b", oHead.getRequestURI() );
+      assertEquals( "x=1", oHead.getQueryString() );
+      assertEquals( 2, oHead.getHeaders( "X-MULTI" ).size() );
+      assertEquals( 2, oHead.getHeaderNames().size() );
+   }
+
+   public void testNoBody() throws Exception
+   {
+      assertEquals( 0, parse( "GET / HTTP/1.1\r\n\r\n" ).getContentLength() );
+   }
+
+   public void testContentLength() throws Exception
+   {
+      assertEquals( 42, parse( "POST / HTTP/1.1\r\nContent-Length: 42\r\n\r\n" ).getContentLength() );
+   }
+
+   public void testRepeatedEqualContentLengthIsAccepted() throws Exception
+   {
+      assertEquals( 42, parse( "POST / HTTP/1.1\r\nContent-Length: 42\r\nContent-Length: 42\r\n\r\n" ).getContentLength() );
+   }
+
+   public void testConflictingContentLengthIsRejected() throws Exception
+   {
+      assertContentLengthRejected( "POST / HTTP/1.1\r\nContent-Length: 42\r\nContent-Length: 43\r\n\r\n",
+                                   HttpServletResponse.SC_BAD_REQUEST );
+   }
+
+   public void testInvalidContentLengthIsRejected() throws Exception
+   {
+      assertContentLengthRejected( "POST / HTTP/1.1\r\nContent-Length: -1\r\n\r\n", HttpServletResponse.SC_BAD_REQUEST );
+      assertContentLengthRejected( "POST / HTTP/1.1\r\nContent-Length: +42\r\n\r\n", HttpServletResponse.SC_BAD_REQUEST );
+      assertContentLengthRejected( "POST / HTTP/1.1\r\nContent-Length: 4 2\r\n\r\n", HttpServletResponse.SC_BAD_REQUEST );
+      assertContentLengthRejected( "POST / HTTP/1.1\r\nContent-Length: 42, 42\r\n\r\n", HttpServletResponse.SC_BAD_REQUEST );
+      assertContentLengthRejected( "POST / HTTP/1.1\r\nContent-Length: 99999999999999999999\r\n\r\n", HttpServletResponse.SC_BAD_REQUEST );
+   }
+
+   public void testTransferEncodingIsRejected() throws Exception
+   {
+      assertContentLengthRejected( "POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n", HttpServletResponse.SC_LENGTH_REQUIRED );
+   }
+
+   public void testTransferEncodingWithContentLengthIsRejected() throws Exception
+   {
+      // a request with both headers may be framed differently by another server in front of this one
+      assertContentLengthRejected( "POST / HTTP/1.1\r\nContent-Length: 42\r\nTransfer-Encoding: chunked\r\n\r\n",
+                                   HttpServletResponse.SC_LENGTH_REQUIRED );
+   }
+
+   public void testHeaderFoldingIsRejected() throws Exception
+   {
+      try
+      {
+         parse( "GET / HTTP/1.1\r\nX-A: 1\r\n 2\r\n\r\n" );
+         fail( "expected HttpParseException" );
+      }
+      catch ( HttpParseException e )
+      {
+         assertEquals( HttpServletResponse.SC_BAD_REQUEST, e.getStatus() );
+      }
+   }
+
+   public void testWhitespaceBeforeColonIsRejected() throws Exception
+   {
+      try
+      {
+         parse( "POST / HTTP/1.1\r\nContent-Length : 42\r\n\r\n" );
+         fail( "expected HttpParseException" );
+      }
+      catch ( HttpParseException e )
+      {
+         assertEquals( HttpServletResponse.SC_BAD_REQUEST, e.getStatus() );
+      }
+   }
+
+   private static void assertContentLengthRejected( String sHead, int iStatus ) throws Exception
+   {
+      try
+      {
+         parse( sHead ).getContentLength();
+         fail( "expected HttpParseException for: " + sHead );
+      }
+      catch ( HttpParseException e )
+      {
+         assertEquals( iStatus, e.getStatus() );
+      }
+   }
+
+   private static RequestHead parse( String sHead ) throws Exception
+   {
+      ByteBuffer oBuffer = ByteBuffer.allocate( sHead.length() );
+
+      oBuffer.put( sHead.getBytes( "ISO-8859-1" ) );
+
+      return RequestHead.parse( oBuffer, RequestHead.findEndOfHead( oBuffer, 0 ) );
+   }
+}
+
+// EOF
\ No newline at end of file
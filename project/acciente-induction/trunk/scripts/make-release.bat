@@ -3,8 +3,9 @@
 @rem May 27, 2008 APR	created
 @rem Jun 23, 2008 APR	updated
 @rem May 04, 2009 APR	updated
+@rem Oct 19, 2026 APR	updated, single jdk1_8 build
 
-@set path=%path%;C:\Program Files\Java\jdk1.6.0_20\bin
+@set path=%path%;C:\Program Files\Java\jdk1.8.0_202\bin
 
 @rem -- check if the user specified a release-name, otherwise complain
 @if %1_==_ goto :error_usage
@@ -56,8 +57,7 @@
 @pause "install svn before running this"
 @call svn update
 @call mvn clean
-@call mvn install -P jdk1_4 -D induction-version=%release_version%
-@call mvn install -P jdk1_6 -D induction-version=%release_version%
+@call mvn install -P jdk1_8 -D induction-version=%release_version%
 @call mvn source:jar        -D induction-version=%release_version%
 @call mvn javadoc:jar       -D induction-version=%release_version%
 @move target\*.jar						%release_root%
@@ -67,20 +67,17 @@
 @pause "install svn before running this"
 @call svn update
 @call mvn clean
-@call mvn install -P jdk1_4 -D induction-version=%release_version%
-@call mvn install -P jdk1_6 -D induction-version=%release_version%
+@call mvn install -P jdk1_8 -D induction-version=%release_version%
 @call mvn source:jar        -D induction-version=%release_version%
 @call mvn javadoc:jar       -D induction-version=%release_version%
 @move target\*.jar					%release_root%
 
-@jar -ufM %release_root%\acciente-commons-%release_version%-jdk1_4.jar	-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
-@jar -ufM %release_root%\acciente-commons-%release_version%-jdk1_6.jar	-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
+@jar -ufM %release_root%\acciente-commons-%release_version%-jdk1_8.jar	-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
 @jar -ufM %release_root%\acciente-commons-%release_version%-sources.jar			-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
 @jar -ufM %release_root%\acciente-commons-%release_version%-javadoc.jar			-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
 
 @rem -- create jars for Acciente Induction
-@jar -ufM %release_root%\acciente-induction-%release_version%-jdk1_4.jar	-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
-@jar -ufM %release_root%\acciente-induction-%release_version%-jdk1_6.jar	-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
+@jar -ufM %release_root%\acciente-induction-%release_version%-jdk1_8.jar	-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
 @jar -ufM %release_root%\acciente-induction-%release_version%-sources.jar		-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
 @jar -ufM %release_root%\acciente-induction-%release_version%-javadoc.jar		-C %license_root% LICENSE.txt -C %license_root% NOTICE.txt
 
@@ -22,13 +22,21 @@ import com.acciente.induction.controller.Redirect;
 import com.acciente.induction.dispatcher.controller.ControllerExecutor;
 import com.acciente.induction.dispatcher.controller.ControllerParameterProviderFactory;
 import com.acciente.induction.dispatcher.controller.ControllerPool;
+import com.acciente.induction.dispatcher.asset.StaticAssetServer;
+import com.acciente.induction.dispatcher.batch.BatchEndpoint;
 import com.acciente.induction.dispatcher.interceptor.RequestInterceptorExecutor;
 import com.acciente.induction.dispatcher.interceptor.RequestInterceptorParameterProviderFactory;
 import com.acciente.induction.dispatcher.model.ModelFactory;
 import com.acciente.induction.dispatcher.model.ModelPool;
+import com.acciente.induction.dispatcher.model.ModelPrefetcher;
 import com.acciente.induction.dispatcher.redirect.RedirectExecutor;
 import com.acciente.induction.dispatcher.redirect.RedirectExecutorException;
 import com.acciente.induction.dispatcher.resolver.*;
+import com.acciente.induction.dispatcher.view.ConditionalGet;
+import com.acciente.induction.dispatcher.view.EventStreamSender;
+import com.acciente.induction.dispatcher.view.OutputCache;
+import com.acciente.induction.dispatcher.view.RequestCoalescer;
+import com.acciente.induction.dispatcher.view.ResponseCompression;
 import com.acciente.induction.dispatcher.view.ViewExecutor;
 import com.acciente.induction.dispatcher.view.ViewExecutorException;
 import com.acciente.induction.dispatcher.view.ViewFactory;
@@ -38,14 +46,18 @@ import com.acciente.induction.init.ConfigLoaderInitializer;
 import com.acciente.induction.init.ControllerResolverInitializer;
 import com.acciente.induction.init.RedirectResolverInitializer;
 import com.acciente.induction.init.RequestInterceptorInitializer;
+import com.acciente.induction.init.SessionModelStoreInitializer;
 import com.acciente.induction.init.TemplatingEngineInitializer;
 import com.acciente.induction.init.ViewResolverInitializer;
 import com.acciente.induction.init.config.Config;
 import com.acciente.induction.init.config.ConfigLoaderException;
 import com.acciente.induction.interceptor.RequestInterceptor;
+import com.acciente.induction.model.SessionModelStore;
 import com.acciente.induction.resolver.ControllerResolver;
 import com.acciente.induction.resolver.RedirectResolver;
 import com.acciente.induction.resolver.ViewResolver;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.template.FragmentCache;
 import com.acciente.induction.template.TemplatingEngine;
 import com.acciente.induction.util.ConstructorNotFoundException;
 import com.acciente.induction.util.MethodNotFoundException;
@@ -77,6 +89,13 @@ public class HttpDispatcher extends HttpServlet
 
    private  ControllerExecutor         _oControllerExecutor;
    private  ViewExecutor               _oViewExecutor;
+   private  OutputCache                _oOutputCache;
+   private  EventStreamSender          _oEventStreamSender;
+   private  StaticAssetServer          _oStaticAssetServer;
+   private  BatchEndpoint              _oBatchEndpoint;
+
+   private  ModelPool                  _oModelPool;
+   private  ModelPrefetcher            _oModelPrefetcher;
 
    private  Log                        _oLog;
 
@@ -131,17 +150,56 @@ public class HttpDispatcher extends HttpServlet
       catch ( ClassNotFoundException e )
       {  throw new ServletException( "init-error: class-loader-initializer", e );    }
 
+      // the statistics registry is shared by all the subsystems that publish operational statistics
+      Statistics oStatistics = new Statistics();
+
+      // the fragment cache is shared by the templating engine and the application code that invalidates fragments
+      FragmentCache oFragmentCache = new FragmentCache( oConfig.getTemplating().getFragmentCache(), oStatistics );
+
       // we setup the model factory and pool managers early since we now support inject models
       // into the initializers for the templating engine, controller resolver, view resolver and
       // redirect resolver
       ModelFactory   oModelFactory  = new ModelFactory( oClassLoader,
                                                         oServletConfig,
-                                                        oConfig.getFileUpload() );
+                                                        oConfig.getFileUpload(),
+                                                        oConfig.getModelDefs(),
+                                                        oStatistics );
       ModelPool      oModelPool;
 
+      // the session model store decides where session scope models are kept between requests
+      SessionModelStore oSessionModelStore;
+      try
+      {
+         oSessionModelStore
+            =  SessionModelStoreInitializer
+                  .getSessionModelStore( oConfig.getModelDefs().getSessionModelStore(),
+                                         oClassLoader,
+                                         oServletConfig,
+                                         oStatistics );
+      }
+      catch ( IOException e )
+      {  throw new ServletException( "init-error: session-model-store-initializer", e ); }
+      catch ( ClassNotFoundException e )
+      {  throw new ServletException( "init-error: session-model-store-initializer", e ); }
+      catch ( InvocationTargetException e )
+      {  throw new ServletException( "init-error: session-model-store-initializer", e ); }
+      catch ( IllegalAccessException e )
+      {  throw new ServletException( "init-error: session-model-store-initializer", e ); }
+      catch ( InstantiationException e )
+      {  throw new ServletException( "init-error: session-model-store-initializer", e ); }
+      catch ( ConstructorNotFoundException e )
+      {  throw new ServletException( "init-error: session-model-store-initializer", e ); }
+      catch ( ParameterProviderException e )
+      {  throw new ServletException( "init-error: session-model-store-initializer", e ); }
+
       try
       {
-         oModelPool = new ModelPool( oConfig.getModelDefs(), oModelFactory, oServletConfig.getServletContext() );
+         oModelPool = new ModelPool( oConfig.getModelDefs(),
+                                     oModelFactory,
+                                     oServletConfig.getServletContext(),
+                                     oSessionModelStore,
+                                     oFragmentCache,
+                                     oStatistics );
       }
       catch ( MethodNotFoundException e )
       {  throw new ServletException( "init-error: model-pool", e ); }
@@ -161,6 +219,8 @@ public class HttpDispatcher extends HttpServlet
       // now set the pool for the model factory to use in model-to-model injection
       oModelFactory.setModelPool( oModelPool );
 
+      _oModelPool = oModelPool;
+
       // we instantiate the templating engine early since we now support injecting the
       // TemplatingEngine instance into models
       TemplatingEngine oTemplatingEngine;
@@ -169,9 +229,12 @@ public class HttpDispatcher extends HttpServlet
          oTemplatingEngine
          =  TemplatingEngineInitializer
                .getTemplatingEngine( oConfig.getTemplating(),
+                                     oConfig.getBufferPool(),
+                                     oFragmentCache,
                                      oModelPool,
                                      oClassLoader,
-                                     oServletConfig );
+                                     oServletConfig,
+                                     oStatistics );
       }
       catch ( IOException e )
       {  throw new ServletException( "init-error: templating-engine-initializer", e ); }
@@ -366,7 +429,13 @@ public class HttpDispatcher extends HttpServlet
       oModelFactory.setRedirectResolver( _oRedirectResolverExecutor );
 
       // the ControllerPool manages a pool of controllers, reloading if the underlying controller def changes
-      ControllerPool oControllerPool = new ControllerPool( oClassLoader, oServletConfig );
+      ControllerPool oControllerPool = new ControllerPool( oClassLoader,
+                                                           oServletConfig,
+                                                           oConfig.getControllerMapping(),
+                                                           oStatistics );
+
+      // the ModelPrefetcher creates the independent models needed by a controller method concurrently
+      _oModelPrefetcher = new ModelPrefetcher( oModelPool, oConfig.getModelDefs(), oClassLoader, oStatistics );
 
       // the ControllerExecutor manages the execution of controllers
       _oControllerExecutor = new ControllerExecutor( oControllerPool,
@@ -374,7 +443,8 @@ public class HttpDispatcher extends HttpServlet
                                                                                              oConfig.getFileUpload(),
                                                                                              oTemplatingEngine,
                                                                                              _oRedirectResolverExecutor,
-                                                                                             oClassLoader ) );
+                                                                                             oClassLoader ),
+                                                     _oModelPrefetcher );
 
       // the ViewExecutor manages the loading (when needed) and processing of views
       ViewParameterProviderFactory
@@ -390,8 +460,95 @@ public class HttpDispatcher extends HttpServlet
       // ViewFactory have a cyclical relationship
       oViewParameterProviderFactory.setViewFactory( oViewFactory );
 
+      // the ConditionalGet answers conditional requests for views
+      ConditionalGet oConditionalGet = new ConditionalGet( oConfig.getConditionalGet(), oStatistics );
+
+      // the ResponseCompression gzip compresses view responses for clients that accept it
+      ResponseCompression oResponseCompression = new ResponseCompression( oConfig.getCompression(), oStatistics );
+
+      // the StaticAssetServer answers requests for static assets ahead of the rest of the dispatcher
+      if ( oConfig.getStaticAssets().isEnabled() )
+      {
+         try
+         {
+            _oStaticAssetServer = new StaticAssetServer( oConfig.getStaticAssets(),
+                                                         oConfig.getBufferPool(),
+                                                         oServletConfig.getServletContext(),
+                                                         oConditionalGet,
+                                                         oResponseCompression,
+                                                         oStatistics );
+         }
+         catch ( IOException e )
+         {  throw new ServletException( "init-error: static-asset-server", e ); }
+
+         oModelFactory.setStaticAssetServer( _oStaticAssetServer );
+      }
+
+      // the OutputCache keeps the complete output of cacheable views
+      _oOutputCache = new OutputCache( oConfig.getViewMapping().getOutputCache(), oConditionalGet, oResponseCompression, oStatistics );
+
+      // the RequestCoalescer lets identical requests share the output of a view being rendered
+      RequestCoalescer oRequestCoalescer = new RequestCoalescer( oConfig.getViewMapping().getRequestCoalescing(), _oOutputCache, oStatistics );
+
+      // the EventStreamSender keeps the streams of event stream views open
+      _oEventStreamSender = new EventStreamSender( oConfig.getEventStream(), oStatistics );
+
       // finally create the view executor
-      _oViewExecutor = new ViewExecutor( oViewFactory, oTemplatingEngine );
+      _oViewExecutor = new ViewExecutor( oViewFactory,
+                                         oTemplatingEngine,
+                                         oModelPool,
+                                         oConfig.getTemplating().getStreaming(),
+                                         oConfig.getBufferPool(),
+                                         _oOutputCache,
+                                         oRequestCoalescer,
+                                         oConditionalGet,
+                                         oResponseCompression,
+                                         _oEventStreamSender,
+                                         oStatistics );
+
+      // the BatchEndpoint answers batch requests by dispatching their sub-requests through this servlet
+      if ( oConfig.getBatchEndpoint().isEnabled() )
+      {
+         _oBatchEndpoint = new BatchEndpoint( oConfig.getBatchEndpoint(), oConfig.getModelDefs(), this, oStatistics );
+      }
+   }
+
+   /**
+    * This method is called by the webcontainer when this servlet is taken out of service
+    */
+   public void destroy()
+   {
+      if ( _oModelPrefetcher != null )
+      {
+         _oModelPrefetcher.destroy();
+      }
+
+      if ( _oModelPool != null )
+      {
+         _oModelPool.destroy();
+      }
+
+      if ( _oOutputCache != null )
+      {
+         _oOutputCache.destroy();
+      }
+
+      if ( _oStaticAssetServer != null )
+      {
+         _oStaticAssetServer.destroy();
+      }
+
+      if ( _oEventStreamSender != null )
+      {
+         _oEventStreamSender.destroy();
+      }
+
+      if ( _oBatchEndpoint != null )
+      {
+         _oBatchEndpoint.destroy();
+      }
+
+      super.destroy();
    }
 
    public void service( HttpServletRequest oRequest, HttpServletResponse oResponse )
@@ -402,6 +559,36 @@ public class HttpDispatcher extends HttpServlet
 
    public void dispatchRequest( HttpServletRequest oRequest, HttpServletResponse oResponse )
       throws IOException
+   {
+      // a batch request is dispatched as a set of sub-requests, each of which comes back through this method
+      if ( _oBatchEndpoint != null && _oBatchEndpoint.isBatchRequest( oRequest ) )
+      {
+         _oBatchEndpoint.dispatch( oRequest, oResponse );
+         return;
+      }
+
+      // static assets do not use models, interceptors or controllers
+      if ( _oStaticAssetServer != null && _oStaticAssetServer.serve( oRequest, oResponse ) )
+      {
+         return;
+      }
+
+      // the request is registered with the model pool, so that model instances replaced by a refresh
+      // while this request is in progress are not destroyed before the request ends
+      _oModelPool.requestStarted( oRequest );
+
+      try
+      {
+         dispatchRequest_tracked( oRequest, oResponse );
+      }
+      finally
+      {
+         _oModelPool.requestEnded( oRequest );
+      }
+   }
+
+   private void dispatchRequest_tracked( HttpServletRequest oRequest, HttpServletResponse oResponse )
+      throws IOException
    {
       try
       {
@@ -631,6 +818,7 @@ public class HttpDispatcher extends HttpServlet
          try
          {
             oControllerReturnValue = _oControllerExecutor.execute( oControllerResolution, oRequest, oResponse, null );
+            oControllerReturnValue = resolveControllerReturnValue( oRequest, oResponse, oControllerReturnValue );
          }
          catch ( Throwable e1 )
          {
@@ -744,6 +932,27 @@ public class HttpDispatcher extends HttpServlet
       return false;
    }
 
+   /**
+    * Called with the value returned by a controller (or an error controller) before it is processed as a
+    * redirect or a view. This implementation returns the value as is, a subclass may override this method
+    * to turn a value that represents a pending result (for example a future) into the redirect or view it
+    * completes with. An exception thrown by this method is handled exactly as an exception thrown by the
+    * controller.
+    *
+    * @param oRequest the request
+    * @param oResponse the response
+    * @param oControllerReturnValue the value returned by the controller, may be null
+    * @return the value to process as a redirect or a view, or null if there is nothing to process
+    * @throws Exception if the result cannot be obtained
+    */
+   protected Object resolveControllerReturnValue( HttpServletRequest   oRequest,
+                                                  HttpServletResponse  oResponse,
+                                                  Object               oControllerReturnValue )
+      throws Exception
+   {
+      return oControllerReturnValue;
+   }
+
    private boolean dispatchErrorController( HttpServletRequest             oRequest,
                                             HttpServletResponse            oResponse,
                                             ControllerResolver.Resolution  oControllerResolution,
@@ -764,6 +973,7 @@ public class HttpDispatcher extends HttpServlet
          try
          {
             oErrorControllerReturnValue = _oControllerExecutor.execute( oErrorControllerResolution, oRequest, oResponse, oError );
+            oErrorControllerReturnValue = resolveControllerReturnValue( oRequest, oResponse, oErrorControllerReturnValue );
          }
          catch ( Throwable e1 )
          {
@@ -839,7 +1049,7 @@ public class HttpDispatcher extends HttpServlet
       else
       {
          // ... otherwise process as a view object
-         _oViewExecutor.execute( oControllerReturnValue, oResponse );
+         _oViewExecutor.execute( oControllerReturnValue, oRequest, oResponse );
       }
    }
 
@@ -920,7 +1130,11 @@ public class HttpDispatcher extends HttpServlet
          _oLog.error( "| Context: " + oSignal.getErrorContext() + sError );
       }
 
-      oResponse.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR, sError );
+      // a streamed view may have committed the response before it failed, the status cannot be changed then
+      if ( ! oResponse.isCommitted() )
+      {
+         oResponse.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR, sError );
+      }
    }
 
    private Throwable getRootCause( Throwable oError )
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.asset;
+
+import java.io.File;
+
+/**
+ * Internal.
+ * A static asset known to the static asset server, the content is only held for assets small enough to be
+ * kept in memory. Instances are immutable, a changed file is represented by a new instance.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class StaticAsset
+{
+   // the number of hex digits of the content hash used in fingerprinted URLs
+   public static final int FINGERPRINT_LENGTH = 12;
+
+   private String    _sPath;
+   private File      _oFile;
+   private String    _sContentType;
+   private long      _lLength;
+   private long      _lLastModified;
+   private String    _sHash;
+   private byte[]    _ayContent;
+   private byte[]    _ayCompressedContent;
+
+   public StaticAsset( String     sPath,
+                       File       oFile,
+                       String     sContentType,
+                       long       lLength,
+                       long       lLastModified,
+                       String     sHash,
+                       byte[]     ayContent,
+                       byte[]     ayCompressedContent )
+   {
+      _sPath               = sPath;
+      _oFile               = oFile;
+      _sContentType        = sContentType;
+      _lLength             = lLength;
+      _lLastModified       = lLastModified;
+      _sHash               = sHash;
+      _ayContent           = ayContent;
+      _ayCompressedContent = ayCompressedContent;
+   }
+
+   /**
+    * @return the path of the asset relative to its root directory, using / as the separator
+    */
+   public String getPath()
+   {
+      return _sPath;
+   }
+
+   public File getFile()
+   {
+      return _oFile;
+   }
+
+   public String getContentType()
+   {
+      return _sContentType;
+   }
+
+   public long getLength()
+   {
+      return _lLength;
+   }
+
+   public long getLastModified()
+   {
+      return _lLastModified;
+   }
+
+   /**
+    * @return the content hash, as hex digits
+    */
+   public String getHash()
+   {
+      return _sHash;
+   }
+
+   public String getFingerprint()
+   {
+      return _sHash.substring( 0, FINGERPRINT_LENGTH );
+   }
+
+   /**
+    * @return the path with the fingerprint inserted before the extension of the file name, e.g. css/site.css
+    * becomes css/site-0123456789ab.css
+    */
+   public String getFingerprintedPath()
+   {
+      int iSlashIndex   = _sPath.lastIndexOf( '/' );
+      int iDotIndex     = _sPath.lastIndexOf( '.' );
+
+      if ( iDotIndex <= iSlashIndex + 1 )
+      {
+         // no extension, or a name that starts with a dot
+         return _sPath + "-" + getFingerprint();
+      }
+
+      return _sPath.substring( 0, iDotIndex ) + "-" + getFingerprint() + _sPath.substring( iDotIndex );
+   }
+
+   /**
+    * @return the content, or null if the asset is too large to be kept in memory
+    */
+   public byte[] getContent()
+   {
+      return _ayContent;
+   }
+
+   /**
+    * @return the content in gzip format, or null if the asset is not kept compressed
+    */
+   public byte[] getCompressedContent()
+   {
+      return _ayCompressedContent;
+   }
+
+   /**
+    * @return an estimate of the memory used by this asset
+    */
+   public long getWeight()
+   {
+      return ( _ayContent == null ? 0 : _ayContent.length )
+             + ( _ayCompressedContent == null ? 0 : _ayCompressedContent.length )
+             + _sPath.length() * 4
+             + 256;
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,603 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.asset;
+
+import com.acciente.induction.dispatcher.view.ConditionalGet;
+import com.acciente.induction.dispatcher.view.FileSender;
+import com.acciente.induction.dispatcher.view.ResponseCompression;
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.BufferPool;
+import com.acciente.induction.view.FileView;
+import com.acciente.induction.view.VersionedView;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Internal.
+ * Serves the files under the configured root directories for requests whose path starts with the configured
+ * URL prefix, before the request reaches interceptors, controllers or views.
+ * <p>
+ * An asset is loaded when it is first requested (or at startup if preloading is configured). Assets up to the
+ * maximum asset size are kept in memory, together with their gzip compressed form if their mime type is one of
+ * the mime types configured for compression, in a least recently used map bounded by the configured memory
+ * size. Larger assets are sent from their file.
+ * <p>
+ * An asset requested with a fingerprinted URL (a URL with the start of the content hash inserted before the
+ * extension, as returned by getURL()) that matches its current content is sent with a far-future
+ * Cache-Control header, otherwise it is sent with Cache-Control: no-cache and an ETag, so that clients
+ * revalidate it.
+ * <p>
+ * When watching is configured a background thread watches the root directories, so that a changed asset is
+ * reloaded and gets a new fingerprint.
+ * <p>
+ * The following counters are published: static-assets.hits, static-assets.loads, static-assets.evictions,
+ * static-assets.memory-size.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class StaticAssetServer
+{
+   private static final Pattern  FINGERPRINTED_PATH   = Pattern.compile( "(.*)-([0-9a-f]{" + StaticAsset.FINGERPRINT_LENGTH + "})(\\.[^./]*)?" );
+   private static final char[]   HEX_DIGITS           = "0123456789abcdef".toCharArray();
+
+   private  String               _sURLPrefix;
+   private  File[]               _aoRootDirs;
+   private  int                  _iMaxMemorySize;
+   private  int                  _iMaxAssetSize;
+   private  String               _sImmutableCacheControl;
+   private  boolean              _bGzip;
+
+   private  ServletContext       _oServletContext;
+   private  ConditionalGet       _oConditionalGet;
+   private  ResponseCompression  _oResponseCompression;
+   private  FileSender           _oFileSender;
+   private  StaticAssetWatcher   _oWatcher;
+   private  Log                  _oLog;
+
+   // the assets by path in least recently used order, and the generation that is incremented on every change
+   private  LinkedHashMap        _oAssetMap;
+   private  long                 _lMemorySize;
+   private  long                 _lGeneration;
+
+   private  Counter              _oHitCounter;
+   private  Counter              _oLoadCounter;
+   private  Counter              _oEvictionCounter;
+   private  Counter              _oMemorySizeCounter;
+
+   public StaticAssetServer( Config.StaticAssets   oStaticAssetsConfig,
+                             Config.BufferPool     oBufferPoolConfig,
+                             ServletContext        oServletContext,
+                             ConditionalGet        oConditionalGet,
+                             ResponseCompression   oResponseCompression,
+                             Statistics            oStatistics )
+      throws IOException
+   {
+      _sURLPrefix             = oStaticAssetsConfig.getURLPrefix();
+      _iMaxMemorySize         = oStaticAssetsConfig.getMaxMemorySize();
+      _iMaxAssetSize          = oStaticAssetsConfig.getMaxAssetSize();
+      _sImmutableCacheControl = "public, max-age=" + oStaticAssetsConfig.getMaxAge() + ", immutable";
+      _bGzip                  = oStaticAssetsConfig.isGzip();
+
+      _oServletContext        = oServletContext;
+      _oConditionalGet        = oConditionalGet;
+      _oResponseCompression   = oResponseCompression;
+      _oFileSender            = new FileSender( oConditionalGet,
+                                                new BufferPool( "buffer-pool.static-assets.byte-array",
+                                                                BufferPool.BYTE_ARRAY,
+                                                                oBufferPoolConfig.getBufferSize(),
+                                                                oBufferPoolConfig.getMaxPooledBuffers(),
+                                                                oBufferPoolConfig.getMaxRetainedSize(),
+                                                                oStatistics ),
+                                                oStatistics );
+      _oLog                   = LogFactory.getLog( StaticAssetServer.class );
+
+      _oAssetMap              = new LinkedHashMap( 64, 0.75f, true );
+
+      _oHitCounter            = oStatistics.getCounter( "static-assets.hits" );
+      _oLoadCounter           = oStatistics.getCounter( "static-assets.loads" );
+      _oEvictionCounter       = oStatistics.getCounter( "static-assets.evictions" );
+      _oMemorySizeCounter     = oStatistics.getCounter( "static-assets.memory-size" );
+
+      _aoRootDirs             = getRootDirs( oStaticAssetsConfig.getRootList() );
+
+      if ( oStaticAssetsConfig.isWatch() && _aoRootDirs.length > 0 )
+      {
+         _oWatcher = new StaticAssetWatcher( _aoRootDirs, this );
+         _oWatcher.start();
+      }
+
+      if ( oStaticAssetsConfig.isPreload() )
+      {
+         for ( int i = 0; i < _aoRootDirs.length; i++ )
+         {
+            preload( _aoRootDirs[ i ], "" );
+         }
+      }
+   }
+
+   /**
+    * Sends an asset if the request path starts with the URL prefix
+    *
+    * @param oRequest the request
+    * @param oResponse the response
+    * @return true if the request was answered, false if the request is not for a static asset
+    * @throws IOException if the asset could not be read or sent
+    */
+   public boolean serve( HttpServletRequest oRequest, HttpServletResponse oResponse ) throws IOException
+   {
+      String sURLPath = getURLPath( oRequest );
+      String sMethod  = oRequest.getMethod();
+
+      if ( ! sURLPath.startsWith( _sURLPrefix + "/" ) || ( ! "GET".equals( sMethod ) && ! "HEAD".equals( sMethod ) ) )
+      {
+         return false;
+      }
+
+      String      sPath          = sURLPath.substring( _sURLPrefix.length() + 1 );
+      String      sFingerprint   = null;
+      StaticAsset oAsset         = null;
+      Matcher     oMatcher       = FINGERPRINTED_PATH.matcher( sPath );
+
+      if ( oMatcher.matches() )
+      {
+         oAsset = getAsset( oMatcher.group( 1 ) + ( oMatcher.group( 3 ) == null ? "" : oMatcher.group( 3 ) ) );
+
+         if ( oAsset != null )
+         {
+            sFingerprint = oMatcher.group( 2 );
+         }
+      }
+
+      if ( oAsset == null )
+      {
+         oAsset = getAsset( sPath );
+      }
+
+      if ( oAsset == null )
+      {
+         oResponse.sendError( HttpServletResponse.SC_NOT_FOUND );
+         return true;
+      }
+
+      _oHitCounter.increment();
+
+      // an outdated fingerprint gets the current content, but it must not be cached as if it were that version
+      oResponse.setHeader( "Cache-Control",
+                           oAsset.getFingerprint().equals( sFingerprint ) ? _sImmutableCacheControl : "no-cache" );
+
+      if ( oAsset.getContent() == null )
+      {
+         _oFileSender.sendFile( oRequest, oResponse, new AssetFileView( oAsset ) );
+         return true;
+      }
+
+      boolean  bCompressed = oAsset.getCompressedContent() != null && _oResponseCompression.isAcceptedBy( oRequest );
+      String   sETag       = ConditionalGet.toETag( oAsset.getHash() );
+
+      if ( oAsset.getCompressedContent() != null )
+      {
+         oResponse.addHeader( "Vary", "Accept-Encoding" );
+      }
+
+      if ( _oConditionalGet.checkNotModified( oRequest,
+                                              oResponse,
+                                              bCompressed ? ResponseCompression.toCompressedETag( sETag ) : sETag,
+                                              oAsset.getLastModified() ) )
+      {
+         return true;
+      }
+
+      byte[] ayContent = bCompressed ? oAsset.getCompressedContent() : oAsset.getContent();
+
+      oResponse.setContentType( oAsset.getContentType() );
+      oResponse.setContentLength( ayContent.length );
+
+      if ( bCompressed )
+      {
+         oResponse.setHeader( "Content-Encoding", "gzip" );
+      }
+
+      if ( ! "HEAD".equals( sMethod ) )
+      {
+         OutputStream oOutputStream = oResponse.getOutputStream();
+
+         oOutputStream.write( ayContent );
+         oOutputStream.flush();
+      }
+
+      return true;
+   }
+
+   /**
+    * Returns the URL of an asset, fingerprinted with the current content of the asset
+    *
+    * @param sAssetPath the path of the asset relative to the root directories, e.g. css/site.css
+    * @param oRequest the current request, used for the context path
+    * @return the URL of the asset, if the asset does not exist the URL is not fingerprinted
+    */
+   public String getURL( String sAssetPath, HttpServletRequest oRequest )
+   {
+      String      sPath    = sAssetPath.startsWith( "/" ) ? sAssetPath.substring( 1 ) : sAssetPath;
+      StaticAsset oAsset   = null;
+
+      try
+      {
+         oAsset = getAsset( sPath );
+      }
+      catch ( IOException e )
+      {
+         _oLog.warn( "static-assets: unable to read asset: " + sPath, e );
+      }
+
+      return oRequest.getContextPath() + _sURLPrefix + "/" + ( oAsset == null ? sPath : oAsset.getFingerprintedPath() );
+   }
+
+   /**
+    * Drops an asset, or all the assets under a directory, so that it is loaded again when next requested
+    *
+    * @param sPath a path relative to a root directory, using / as the separator
+    */
+   public synchronized void invalidate( String sPath )
+   {
+      String sDirPrefix = sPath + "/";
+
+      _lGeneration++;
+
+      for ( Iterator oIter = _oAssetMap.entrySet().iterator(); oIter.hasNext(); )
+      {
+         Map.Entry   oMapEntry   = ( Map.Entry ) oIter.next();
+         String      sAssetPath  = ( String ) oMapEntry.getKey();
+
+         if ( sAssetPath.equals( sPath ) || sAssetPath.startsWith( sDirPrefix ) )
+         {
+            oIter.remove();
+            _lMemorySize -= ( ( StaticAsset ) oMapEntry.getValue() ).getWeight();
+         }
+      }
+
+      _oMemorySizeCounter.set( _lMemorySize );
+   }
+
+   public synchronized void invalidateAll()
+   {
+      _lGeneration++;
+
+      _oAssetMap.clear();
+      _lMemorySize = 0;
+      _oMemorySizeCounter.set( 0 );
+   }
+
+   public void destroy()
+   {
+      if ( _oWatcher != null )
+      {
+         _oWatcher.close();
+      }
+
+      invalidateAll();
+   }
+
+   private StaticAsset getAsset( String sPath ) throws IOException
+   {
+      long lGeneration;
+
+      synchronized ( this )
+      {
+         StaticAsset oAsset = ( StaticAsset ) _oAssetMap.get( sPath );
+
+         if ( oAsset != null )
+         {
+            return oAsset;
+         }
+
+         lGeneration = _lGeneration;
+      }
+
+      // the file is read without the lock held, concurrent first requests for the same asset may both read it
+      StaticAsset oAsset = loadAsset( sPath );
+
+      if ( oAsset != null )
+      {
+         putAsset( sPath, oAsset, lGeneration );
+      }
+
+      return oAsset;
+   }
+
+   private synchronized void putAsset( String sPath, StaticAsset oAsset, long lGeneration )
+   {
+      // an asset read before a change was reported may be outdated, so it is used for this request only
+      if ( lGeneration != _lGeneration )
+      {
+         return;
+      }
+
+      StaticAsset oReplacedAsset = ( StaticAsset ) _oAssetMap.put( sPath, oAsset );
+
+      if ( oReplacedAsset != null )
+      {
+         _lMemorySize -= oReplacedAsset.getWeight();
+      }
+
+      _lMemorySize += oAsset.getWeight();
+
+      for ( Iterator oIter = _oAssetMap.values().iterator(); _lMemorySize > _iMaxMemorySize && oIter.hasNext(); )
+      {
+         StaticAsset oEvictedAsset = ( StaticAsset ) oIter.next();
+
+         oIter.remove();
+         _lMemorySize -= oEvictedAsset.getWeight();
+         _oEvictionCounter.increment();
+      }
+
+      _oMemorySizeCounter.set( _lMemorySize );
+   }
+
+   private StaticAsset loadAsset( String sPath ) throws IOException
+   {
+      File oFile = findFile( sPath );
+
+      if ( oFile == null )
+      {
+         return null;
+      }
+
+      _oLoadCounter.increment();
+
+      long           lLength        = oFile.length();
+      long           lLastModified  = oFile.lastModified();
+      MessageDigest  oDigest        = getDigest();
+      byte[]         ayContent      = null;
+      byte[]         ayCompressed   = null;
+      InputStream    oInputStream   = new FileInputStream( oFile );
+
+      try
+      {
+         if ( lLength <= _iMaxAssetSize )
+         {
+            ayContent = new byte[ ( int ) lLength ];
+
+            for ( int iOffset = 0, iRead; iOffset < ayContent.length; iOffset += iRead )
+            {
+               iRead = oInputStream.read( ayContent, iOffset, ayContent.length - iOffset );
+
+               if ( iRead < 0 )
+               {
+                  // the file was truncated while we read it, the watcher will report the change
+                  throw new IOException( "static-assets: file changed while reading: " + oFile );
+               }
+            }
+
+            oDigest.update( ayContent );
+         }
+         else
+         {
+            byte[] ayBuffer = new byte[ 8192 ];
+
+            for ( int iRead; ( iRead = oInputStream.read( ayBuffer ) ) > 0; )
+            {
+               oDigest.update( ayBuffer, 0, iRead );
+            }
+         }
+      }
+      finally
+      {
+         oInputStream.close();
+      }
+
+      String sContentType = _oServletContext.getMimeType( oFile.getName() );
+
+      if ( sContentType == null )
+      {
+         sContentType = "application/octet-stream";
+      }
+
+      if ( ayContent != null
+           && _bGzip
+           && ayContent.length >= _oResponseCompression.getMinSize()
+           && _oResponseCompression.isCompressible( sContentType ) )
+      {
+         ayCompressed = _oResponseCompression.compress( ayContent );
+
+         if ( ayCompressed.length >= ayContent.length )
+         {
+            // already compressed content, e.g. an svgz file served as image/svg+xml
+            ayCompressed = null;
+         }
+      }
+
+      return new StaticAsset( sPath, oFile, sContentType, lLength, lLastModified, toHex( oDigest.digest() ), ayContent, ayCompressed );
+   }
+
+   /**
+    * @return the file of an asset in the first root directory that has it, or null
+    */
+   private File findFile( String sPath ) throws IOException
+   {
+      if ( sPath.length() == 0 || sPath.indexOf( '\\' ) != -1 || sPath.indexOf( '\0' ) != -1 )
+      {
+         return null;
+      }
+
+      for ( int i = 0; i < _aoRootDirs.length; i++ )
+      {
+         File oFile = new File( _aoRootDirs[ i ], sPath );
+
+         // a path with .. segments (or a link) must not reach a file outside the root directory
+         if ( oFile.isFile() && oFile.getCanonicalPath().startsWith( _aoRootDirs[ i ].getPath() + File.separator ) )
+         {
+            return oFile;
+         }
+      }
+
+      return null;
+   }
+
+   private void preload( File oDir, String sPathPrefix ) throws IOException
+   {
+      File[] aoFiles = oDir.listFiles();
+
+      for ( int i = 0; aoFiles != null && i < aoFiles.length; i++ )
+      {
+         if ( aoFiles[ i ].isDirectory() )
+         {
+            preload( aoFiles[ i ], sPathPrefix + aoFiles[ i ].getName() + "/" );
+         }
+         else
+         {
+            getAsset( sPathPrefix + aoFiles[ i ].getName() );
+         }
+      }
+   }
+
+   private File[] getRootDirs( List oRootList ) throws IOException
+   {
+      List oRootDirList = new ArrayList();
+
+      for ( Iterator oIter = oRootList.iterator(); oIter.hasNext(); )
+      {
+         Object   oRoot = oIter.next();
+         File     oDir;
+
+         if ( oRoot instanceof Config.StaticAssets.WebappPath )
+         {
+            String sRealPath = _oServletContext.getRealPath( ( ( Config.StaticAssets.WebappPath ) oRoot ).getPath() );
+
+            if ( sRealPath == null )
+            {
+               _oLog.warn( "static-assets: web app path: " + ( ( Config.StaticAssets.WebappPath ) oRoot ).getPath()
+                           + " is not available as a directory (is the web application unpacked?), ignored" );
+               continue;
+            }
+
+            oDir = new File( sRealPath );
+         }
+         else
+         {
+            oDir = ( ( Config.StaticAssets.Dir ) oRoot ).getDir();
+         }
+
+         if ( ! oDir.isDirectory() )
+         {
+            _oLog.warn( "static-assets: " + oDir + " is not a directory, ignored" );
+            continue;
+         }
+
+         oRootDirList.add( oDir.getCanonicalFile() );
+      }
+
+      return ( File[] ) oRootDirList.toArray( new File[ oRootDirList.size() ] );
+   }
+
+   private static MessageDigest getDigest()
+   {
+      try
+      {
+         return MessageDigest.getInstance( "MD5" );
+      }
+      catch ( NoSuchAlgorithmException e )
+      {
+         // every java platform is required to support MD5
+         throw new IllegalStateException( "static-assets: MD5 digest not available" );
+      }
+   }
+
+   private static String toHex( byte[] ayBytes )
+   {
+      StringBuffer oBuffer = new StringBuffer( ayBytes.length * 2 );
+
+      for ( int i = 0; i < ayBytes.length; i++ )
+      {
+         oBuffer.append( HEX_DIGITS[ ( ayBytes[ i ] >> 4 ) & 0xf ] );
+         oBuffer.append( HEX_DIGITS[ ayBytes[ i ] & 0xf ] );
+      }
+
+      return oBuffer.toString();
+   }
+
+   private static String getURLPath( HttpServletRequest oRequest )
+   {
+      return oRequest.getPathInfo() == null
+         ? oRequest.getServletPath()
+         : oRequest.getServletPath() + oRequest.getPathInfo();
+   }
+
+   /**
+    * Presents an asset that is not kept in memory to the file sender
+    */
+   private static class AssetFileView implements FileView, VersionedView
+   {
+      private StaticAsset _oAsset;
+
+      private AssetFileView( StaticAsset oAsset )
+      {
+         _oAsset = oAsset;
+      }
+
+      public File getFile()
+      {
+         return _oAsset.getFile();
+      }
+
+      public String getMimeType()
+      {
+         return _oAsset.getContentType();
+      }
+
+      public String getDownloadName()
+      {
+         return null;
+      }
+
+      public String getVersion()
+      {
+         return _oAsset.getHash();
+      }
+
+      public long getLastModified()
+      {
+         return _oAsset.getLastModified();
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
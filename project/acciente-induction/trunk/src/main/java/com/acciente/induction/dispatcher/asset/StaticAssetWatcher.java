@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.asset;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Internal.
+ * Watches the root directories of the static asset server and invalidates the assets whose files are created,
+ * changed or deleted.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+class StaticAssetWatcher implements Runnable
+{
+   private static final WatchEvent.Kind[] WATCHED_EVENTS = new WatchEvent.Kind[]{ StandardWatchEventKinds.ENTRY_CREATE,
+                                                                                   StandardWatchEventKinds.ENTRY_MODIFY,
+                                                                                   StandardWatchEventKinds.ENTRY_DELETE };
+
+   private  StaticAssetServer    _oStaticAssetServer;
+   private  WatchService         _oWatchService;
+   private  Thread               _oThread;
+   private  Log                  _oLog;
+
+   // the asset path (relative to its root directory) of each watched directory, keyed by watch key
+   private  Map                  _oWatchedDirMap;
+
+   StaticAssetWatcher( File[] aoRootDirs, StaticAssetServer oStaticAssetServer ) throws IOException
+   {
+      _oStaticAssetServer  = oStaticAssetServer;
+      _oWatchService       = FileSystems.getDefault().newWatchService();
+      _oLog                = LogFactory.getLog( StaticAssetWatcher.class );
+      _oWatchedDirMap      = new HashMap();
+
+      for ( int i = 0; i < aoRootDirs.length; i++ )
+      {
+         register( aoRootDirs[ i ], "" );
+      }
+   }
+
+   void start()
+   {
+      _oThread = new Thread( this, "induction-static-asset-watcher" );
+      _oThread.setDaemon( true );
+      _oThread.start();
+   }
+
+   void close()
+   {
+      try
+      {
+         _oWatchService.close();
+      }
+      catch ( IOException e )
+      {
+         _oLog.warn( "static-assets: error closing watch service", e );
+      }
+   }
+
+   public void run()
+   {
+      try
+      {
+         while ( true )
+         {
+            WatchKey oWatchKey = _oWatchService.take();
+            String   sDirPath  = ( String ) _oWatchedDirMap.get( oWatchKey );
+
+            for ( Iterator oIter = oWatchKey.pollEvents().iterator(); oIter.hasNext(); )
+            {
+               WatchEvent oEvent = ( WatchEvent ) oIter.next();
+
+               if ( oEvent.kind() == StandardWatchEventKinds.OVERFLOW || sDirPath == null )
+               {
+                  // events were lost, we do not know which assets changed
+                  _oStaticAssetServer.invalidateAll();
+                  continue;
+               }
+
+               String sName   = ( ( Path ) oEvent.context() ).toString();
+               String sPath   = sDirPath + sName;
+
+               _oStaticAssetServer.invalidate( sPath );
+
+               if ( oEvent.kind() == StandardWatchEventKinds.ENTRY_CREATE )
+               {
+                  File oFile = ( ( Path ) oWatchKey.watchable() ).resolve( sName ).toFile();
+
+                  if ( oFile.isDirectory() )
+                  {
+                     register( oFile, sPath + "/" );
+                  }
+               }
+            }
+
+            if ( ! oWatchKey.reset() )
+            {
+               // the directory is gone
+               _oWatchedDirMap.remove( oWatchKey );
+            }
+         }
+      }
+      catch ( ClosedWatchServiceException e )
+      {
+         // the server was destroyed
+      }
+      catch ( InterruptedException e )
+      {
+         // the thread was stopped
+      }
+      catch ( IOException e )
+      {
+         _oLog.error( "static-assets: watching stopped, changed files will not be reloaded", e );
+      }
+   }
+
+   private void register( File oDir, String sDirPath ) throws IOException
+   {
+      _oWatchedDirMap.put( oDir.toPath().register( _oWatchService, WATCHED_EVENTS ), sDirPath );
+
+      File[] aoFiles = oDir.listFiles();
+
+      for ( int i = 0; aoFiles != null && i < aoFiles.length; i++ )
+      {
+         if ( aoFiles[ i ].isDirectory() )
+         {
+            register( aoFiles[ i ], sDirPath + aoFiles[ i ].getName() + "/" );
+         }
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,673 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.batch;
+
+import com.acciente.induction.dispatcher.HttpDispatcher;
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Internal.
+ * Answers batch requests, a batch request is a POST to the configured batch path whose body lists one
+ * sub-request per line, in the form of the first line of an HTTP request:
+ * <pre>
+ *    GET /catalog/item?id=17
+ *    GET /cart
+ *    /profile
+ * </pre>
+ * The method may be omitted (it defaults to GET) and the path is relative to the context path, as in the
+ * request URI. Each sub-request is dispatched to the controller, view and interceptors of its path, as a
+ * separate request would be, with the headers, cookies and session of the batch request.
+ * <p>
+ * Up to parallelism sub-requests of a batch run at the same time, on a pool of threads shared by all batches.
+ * The response is a multipart/mixed response with one application/http part per sub-request, the parts are
+ * sent in the order in which the sub-requests complete, and the Content-ID of a part is the line number (from
+ * 1) of its sub-request. Sub-requests that have not started when the batch timeout expires are answered with
+ * a 504 status, the batch response ends when the sub-requests that had started complete.
+ * <p>
+ * If the application has session scope models the session is created before the response is sent, since a
+ * session created by a sub-request could not be sent to the client. For the same reason a controller that
+ * creates a session itself fails in a batch unless the batch request already has a session.
+ * <p>
+ * The following counters are published: batch-endpoint.batches, batch-endpoint.sub-requests,
+ * batch-endpoint.timeouts.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class BatchEndpoint
+{
+   private static final String   CRLF              = "\r\n";
+
+   // the largest number of chars accepted per sub-request line
+   private static final int      MAX_LINE_LENGTH   = 4096;
+
+   private static final Map      REASON_PHRASE_MAP = new HashMap();
+
+   static
+   {
+      REASON_PHRASE_MAP.put( new Integer( 200 ), "OK" );
+      REASON_PHRASE_MAP.put( new Integer( 201 ), "Created" );
+      REASON_PHRASE_MAP.put( new Integer( 202 ), "Accepted" );
+      REASON_PHRASE_MAP.put( new Integer( 204 ), "No Content" );
+      REASON_PHRASE_MAP.put( new Integer( 301 ), "Moved Permanently" );
+      REASON_PHRASE_MAP.put( new Integer( 302 ), "Found" );
+      REASON_PHRASE_MAP.put( new Integer( 303 ), "See Other" );
+      REASON_PHRASE_MAP.put( new Integer( 304 ), "Not Modified" );
+      REASON_PHRASE_MAP.put( new Integer( 307 ), "Temporary Redirect" );
+      REASON_PHRASE_MAP.put( new Integer( 400 ), "Bad Request" );
+      REASON_PHRASE_MAP.put( new Integer( 401 ), "Unauthorized" );
+      REASON_PHRASE_MAP.put( new Integer( 403 ), "Forbidden" );
+      REASON_PHRASE_MAP.put( new Integer( 404 ), "Not Found" );
+      REASON_PHRASE_MAP.put( new Integer( 405 ), "Method Not Allowed" );
+      REASON_PHRASE_MAP.put( new Integer( 409 ), "Conflict" );
+      REASON_PHRASE_MAP.put( new Integer( 410 ), "Gone" );
+      REASON_PHRASE_MAP.put( new Integer( 500 ), "Internal Server Error" );
+      REASON_PHRASE_MAP.put( new Integer( 501 ), "Not Implemented" );
+      REASON_PHRASE_MAP.put( new Integer( 502 ), "Bad Gateway" );
+      REASON_PHRASE_MAP.put( new Integer( 503 ), "Service Unavailable" );
+      REASON_PHRASE_MAP.put( new Integer( 504 ), "Gateway Timeout" );
+   }
+
+   private  HttpDispatcher       _oHttpDispatcher;
+   private  String               _sPath;
+   private  int                  _iMaxSubRequests;
+   private  int                  _iParallelism;
+   private  long                 _lTimeoutMillis;
+   private  boolean              _bCreateSession;
+
+   private  ThreadPoolExecutor   _oExecutor;
+   private  Log                  _oLog;
+
+   private  Counter              _oBatchCounter;
+   private  Counter              _oSubRequestCounter;
+   private  Counter              _oTimeoutCounter;
+
+   public BatchEndpoint( Config.BatchEndpoint   oBatchEndpointConfig,
+                         Config.ModelDefs       oModelDefsConfig,
+                         HttpDispatcher         oHttpDispatcher,
+                         Statistics             oStatistics )
+   {
+      _oHttpDispatcher  = oHttpDispatcher;
+      _sPath            = oBatchEndpointConfig.getPath();
+      _iMaxSubRequests  = oBatchEndpointConfig.getMaxSubRequests();
+      _iParallelism     = oBatchEndpointConfig.getParallelism();
+      _lTimeoutMillis   = oBatchEndpointConfig.getTimeout();
+      _bCreateSession   = false;
+
+      for ( Iterator oIter = oModelDefsConfig.getModelDefList().iterator(); oIter.hasNext(); )
+      {
+         if ( ( ( Config.ModelDefs.ModelDef ) oIter.next() ).isSessionScope() )
+         {
+            _bCreateSession = true;
+         }
+      }
+
+      _oExecutor = new ThreadPoolExecutor( oBatchEndpointConfig.getMaxThreads(),
+                                           oBatchEndpointConfig.getMaxThreads(),
+                                           60, TimeUnit.SECONDS,
+                                           new LinkedBlockingQueue(),
+                                           new BatchThreadFactory() );
+      _oExecutor.allowCoreThreadTimeOut( true );
+
+      _oLog                = LogFactory.getLog( BatchEndpoint.class );
+
+      _oBatchCounter       = oStatistics.getCounter( "batch-endpoint.batches" );
+      _oSubRequestCounter  = oStatistics.getCounter( "batch-endpoint.sub-requests" );
+      _oTimeoutCounter     = oStatistics.getCounter( "batch-endpoint.timeouts" );
+   }
+
+   /**
+    * @param oRequest a request
+    * @return true if the request is for the batch path
+    */
+   public boolean isBatchRequest( HttpServletRequest oRequest )
+   {
+      return _sPath.equals( getPath( oRequest ) );
+   }
+
+   /**
+    * Dispatches the sub-requests of a batch request and sends the batch response
+    *
+    * @param oRequest the batch request
+    * @param oResponse the batch response
+    * @throws IOException if the batch request could not be read, or the response could not be sent
+    */
+   public void dispatch( HttpServletRequest oRequest, HttpServletResponse oResponse )
+      throws IOException
+   {
+      if ( ! "POST".equals( oRequest.getMethod() ) )
+      {
+         oResponse.setHeader( "Allow", "POST" );
+         oResponse.sendError( HttpServletResponse.SC_METHOD_NOT_ALLOWED );
+         return;
+      }
+
+      List oSubRequestList = new ArrayList();
+
+      try
+      {
+         parseSubRequests( oRequest, oSubRequestList );
+      }
+      catch ( BatchFormatException e )
+      {
+         oResponse.sendError( e.getStatus(), e.getMessage() );
+         return;
+      }
+
+      _oBatchCounter.increment();
+      _oSubRequestCounter.add( oSubRequestList.size() );
+
+      if ( _bCreateSession )
+      {
+         oRequest.getSession( true );
+      }
+
+      String sBoundary = "batch-" + UUID.randomUUID();
+
+      oResponse.setContentType( "multipart/mixed; boundary=" + sBoundary );
+      oResponse.setHeader( "Cache-Control", "no-store" );
+
+      new Batch( oRequest, oResponse, oSubRequestList, sBoundary ).run();
+   }
+
+   /**
+    * Stops the threads that dispatch sub-requests
+    */
+   public void destroy()
+   {
+      _oExecutor.shutdown();
+   }
+
+   private void parseSubRequests( HttpServletRequest oRequest, List oSubRequestList )
+      throws IOException, BatchFormatException
+   {
+      Reader         oReader        = oRequest.getReader();
+      StringBuffer   oLine          = new StringBuffer();
+      Object         oSessionLock   = new Object();
+      int            iLineNumber    = 0;
+      int            iChar;
+
+      do
+      {
+         iChar = oReader.read();
+
+         if ( iChar != -1 && iChar != '\n' )
+         {
+            if ( oLine.length() == MAX_LINE_LENGTH )
+            {
+               throw new BatchFormatException( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                                               "batch line " + ( iLineNumber + 1 ) + ": longer than " + MAX_LINE_LENGTH + " chars" );
+            }
+
+            oLine.append( ( char ) iChar );
+            continue;
+         }
+
+         iLineNumber++;
+
+         String sLine = oLine.toString().trim();
+
+         oLine.setLength( 0 );
+
+         if ( sLine.length() == 0 )
+         {
+            continue;
+         }
+
+         if ( oSubRequestList.size() == _iMaxSubRequests )
+         {
+            throw new BatchFormatException( HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                                            "batch has more than " + _iMaxSubRequests + " sub-requests" );
+         }
+
+         oSubRequestList.add( parseSubRequest( oRequest, sLine, iLineNumber, oSessionLock ) );
+      }
+      while ( iChar != -1 );
+
+      if ( oSubRequestList.isEmpty() )
+      {
+         throw new BatchFormatException( HttpServletResponse.SC_BAD_REQUEST, "batch has no sub-requests" );
+      }
+   }
+
+   private SubRequest parseSubRequest( HttpServletRequest oRequest, String sLine, int iLineNumber, Object oSessionLock )
+      throws BatchFormatException
+   {
+      StringTokenizer   oTokenizer  = new StringTokenizer( sLine, " \t" );
+      String            sMethod     = "GET";
+      String            sTarget     = oTokenizer.nextToken();
+
+      if ( oTokenizer.hasMoreTokens() )
+      {
+         sMethod = sTarget;
+         sTarget = oTokenizer.nextToken();
+
+         // an HTTP version is allowed, so that request lines can be used unchanged
+         if ( oTokenizer.hasMoreTokens() && ! oTokenizer.nextToken().startsWith( "HTTP/" ) )
+         {
+            throw invalidLine( iLineNumber, "expected a method and a path" );
+         }
+
+         if ( oTokenizer.hasMoreTokens() )
+         {
+            throw invalidLine( iLineNumber, "expected a method and a path" );
+         }
+
+         for ( int i = 0; i < sMethod.length(); i++ )
+         {
+            if ( sMethod.charAt( i ) < 'A' || sMethod.charAt( i ) > 'Z' )
+            {
+               throw invalidLine( iLineNumber, "invalid method: " + sMethod );
+            }
+         }
+      }
+
+      int      iQueryIndex    = sTarget.indexOf( '?' );
+      String   sRawPath       = iQueryIndex == -1 ? sTarget : sTarget.substring( 0, iQueryIndex );
+      String   sQueryString   = iQueryIndex == -1 ? null : sTarget.substring( iQueryIndex + 1 );
+      String   sEncoding      = oRequest.getCharacterEncoding() == null ? "UTF-8" : oRequest.getCharacterEncoding();
+      String   sPath;
+      Map      oParameterMap;
+
+      if ( ! sRawPath.startsWith( "/" ) )
+      {
+         throw invalidLine( iLineNumber, "path must start with a /: " + sRawPath );
+      }
+
+      try
+      {
+         // a + in a path is not a space
+         sPath          = URLDecoder.decode( sRawPath.replaceAll( "\\+", "%2B" ), sEncoding );
+         oParameterMap  = parseQueryString( sQueryString, sEncoding );
+      }
+      catch ( IllegalArgumentException e )
+      {
+         throw invalidLine( iLineNumber, "invalid escape sequence: " + sTarget );
+      }
+      catch ( UnsupportedEncodingException e )
+      {
+         throw invalidLine( iLineNumber, "unsupported character encoding: " + sEncoding );
+      }
+
+      if ( ( sPath + "/" ).indexOf( "/./" ) != -1 || ( sPath + "/" ).indexOf( "/../" ) != -1 )
+      {
+         throw invalidLine( iLineNumber, "path must not have . or .. segments: " + sRawPath );
+      }
+
+      if ( sPath.equals( _sPath ) )
+      {
+         throw invalidLine( iLineNumber, "a batch cannot include a batch" );
+      }
+
+      // if the servlet is mapped to a path prefix (the batch request has path info) the sub-request path must
+      // start with the same prefix, otherwise the servlet is the default servlet and the path is the servlet path
+      String   sServletPath;
+      String   sPathInfo;
+
+      if ( oRequest.getPathInfo() == null )
+      {
+         sServletPath   = sPath;
+         sPathInfo      = null;
+      }
+      else
+      {
+         sServletPath = oRequest.getServletPath();
+
+         if ( ! sPath.startsWith( sServletPath + "/" ) )
+         {
+            throw invalidLine( iLineNumber, "path is not mapped to this servlet: " + sRawPath );
+         }
+
+         sPathInfo = sPath.substring( sServletPath.length() );
+      }
+
+      return new SubRequest( iLineNumber,
+                             new BatchSubRequest( oRequest,
+                                                  sMethod,
+                                                  sServletPath,
+                                                  sPathInfo,
+                                                  oRequest.getContextPath() + sRawPath,
+                                                  sQueryString,
+                                                  oParameterMap,
+                                                  oSessionLock ) );
+   }
+
+   private static Map parseQueryString( String sQueryString, String sEncoding )
+      throws UnsupportedEncodingException
+   {
+      Map oValueListMap = new LinkedHashMap();
+
+      if ( sQueryString != null )
+      {
+         for ( StringTokenizer oTokenizer = new StringTokenizer( sQueryString, "&" ); oTokenizer.hasMoreTokens(); )
+         {
+            String   sParameter     = oTokenizer.nextToken();
+            int      iEqualsIndex   = sParameter.indexOf( '=' );
+            String   sName          = URLDecoder.decode( iEqualsIndex == -1 ? sParameter : sParameter.substring( 0, iEqualsIndex ), sEncoding );
+            String   sValue         = iEqualsIndex == -1 ? "" : URLDecoder.decode( sParameter.substring( iEqualsIndex + 1 ), sEncoding );
+            List     oValueList     = ( List ) oValueListMap.get( sName );
+
+            if ( oValueList == null )
+            {
+               oValueList = new ArrayList();
+               oValueListMap.put( sName, oValueList );
+            }
+
+            oValueList.add( sValue );
+         }
+      }
+
+      Map oParameterMap = new LinkedHashMap();
+
+      for ( Iterator oIter = oValueListMap.entrySet().iterator(); oIter.hasNext(); )
+      {
+         Map.Entry   oEntry      = ( Map.Entry ) oIter.next();
+         List        oValueList  = ( List ) oEntry.getValue();
+
+         oParameterMap.put( oEntry.getKey(), oValueList.toArray( new String[ oValueList.size() ] ) );
+      }
+
+      return oParameterMap;
+   }
+
+   private static String getReasonPhrase( int iStatus )
+   {
+      String sReasonPhrase = ( String ) REASON_PHRASE_MAP.get( new Integer( iStatus ) );
+
+      return sReasonPhrase == null ? "" : sReasonPhrase;
+   }
+
+   private static BatchFormatException invalidLine( int iLineNumber, String sMessage )
+   {
+      return new BatchFormatException( HttpServletResponse.SC_BAD_REQUEST, "batch line " + iLineNumber + ": " + sMessage );
+   }
+
+   private static String getPath( HttpServletRequest oRequest )
+   {
+      return oRequest.getPathInfo() == null
+         ? oRequest.getServletPath()
+         : oRequest.getServletPath() + oRequest.getPathInfo();
+   }
+
+   /**
+    * The state of one batch request, the request thread writes the parts while the sub-requests run on the
+    * executor
+    */
+   private class Batch
+   {
+      private  HttpServletRequest   _oRequest;
+      private  HttpServletResponse  _oResponse;
+      private  SubRequest[]         _aoSubRequests;
+      private  String               _sBoundary;
+
+      // the index of the next sub-request to start, a sub-request is started, or answered with a timeout,
+      // by the thread that takes its index
+      private  AtomicInteger        _oNextIndex;
+      private  BlockingQueue        _oCompletedQueue;
+
+      private Batch( HttpServletRequest oRequest, HttpServletResponse oResponse, List oSubRequestList, String sBoundary )
+      {
+         _oRequest         = oRequest;
+         _oResponse        = oResponse;
+         _aoSubRequests    = ( SubRequest[] ) oSubRequestList.toArray( new SubRequest[ oSubRequestList.size() ] );
+         _sBoundary        = sBoundary;
+         _oNextIndex       = new AtomicInteger();
+         _oCompletedQueue  = new LinkedBlockingQueue();
+      }
+
+      private void run() throws IOException
+      {
+         long           lDeadline      = System.currentTimeMillis() + _lTimeoutMillis;
+         int            iRunnerCount   = Math.min( _iParallelism, _aoSubRequests.length );
+         int            iSentCount     = 0;
+         OutputStream   oOutputStream  = _oResponse.getOutputStream();
+         IOException    oWriteError    = null;
+         boolean        bInterrupted   = false;
+
+         for ( int i = 0; i < iRunnerCount; i++ )
+         {
+            _oExecutor.execute( new Runner() );
+         }
+
+         while ( iSentCount < _aoSubRequests.length )
+         {
+            SubRequest oSubRequest;
+
+            try
+            {
+               long lRemainingMillis = lDeadline - System.currentTimeMillis();
+
+               if ( _oNextIndex.get() >= _aoSubRequests.length )
+               {
+                  oSubRequest = ( SubRequest ) _oCompletedQueue.take();
+               }
+               else if ( lRemainingMillis > 0 )
+               {
+                  oSubRequest = ( SubRequest ) _oCompletedQueue.poll( lRemainingMillis, TimeUnit.MILLISECONDS );
+               }
+               else
+               {
+                  oSubRequest = null;
+               }
+            }
+            catch ( InterruptedException e )
+            {
+               // we stop starting sub-requests, but still wait for the ones running
+               bInterrupted   = true;
+               oSubRequest    = null;
+               lDeadline      = 0;
+            }
+
+            if ( oSubRequest == null )
+            {
+               // the timeout expired, the sub-requests that did not start are answered here, the sub-requests
+               // that are running must complete before the request thread returns, since they use the request
+               int iIndex;
+
+               while ( ( iIndex = _oNextIndex.getAndIncrement() ) < _aoSubRequests.length )
+               {
+                  _aoSubRequests[ iIndex ]._iStatus = HttpServletResponse.SC_GATEWAY_TIMEOUT;
+                  _oCompletedQueue.add( _aoSubRequests[ iIndex ] );
+                  _oTimeoutCounter.increment();
+               }
+
+               continue;
+            }
+
+            iSentCount++;
+
+            if ( oWriteError == null )
+            {
+               try
+               {
+                  writePart( oOutputStream, oSubRequest );
+               }
+               catch ( IOException e )
+               {
+                  // the client is gone, we stop starting sub-requests but wait for the ones running
+                  oWriteError = e;
+                  lDeadline   = 0;
+               }
+            }
+         }
+
+         if ( bInterrupted )
+         {
+            Thread.currentThread().interrupt();
+         }
+
+         if ( oWriteError != null )
+         {
+            throw oWriteError;
+         }
+
+         oOutputStream.write( ( "--" + _sBoundary + "--" + CRLF ).getBytes( "ISO-8859-1" ) );
+      }
+
+      private void writePart( OutputStream oOutputStream, SubRequest oSubRequest )
+         throws IOException
+      {
+         StringBuffer      oHead          = new StringBuffer();
+         BatchSubResponse  oSubResponse   = oSubRequest._oResponse;
+         byte[]            ayBody         = oSubResponse == null ? new byte[ 0 ] : oSubResponse.getOutput();
+
+         oHead.append( "--" ).append( _sBoundary ).append( CRLF );
+         oHead.append( "Content-Type: application/http" ).append( CRLF );
+         oHead.append( "Content-ID: <" ).append( oSubRequest._iLineNumber ).append( '>' ).append( CRLF );
+         oHead.append( CRLF );
+         oHead.append( "HTTP/1.1 " ).append( oSubRequest._iStatus ).append( ' ' ).append( getReasonPhrase( oSubRequest._iStatus ) ).append( CRLF );
+
+         if ( oSubResponse != null )
+         {
+            if ( oSubResponse.getContentType() != null )
+            {
+               oHead.append( "Content-Type: " ).append( oSubResponse.getContentType() ).append( CRLF );
+            }
+
+            for ( Iterator oIter = oSubResponse.getHeaderList().iterator(); oIter.hasNext(); )
+            {
+               String[] asHeader = ( String[] ) oIter.next();
+
+               oHead.append( asHeader[ 0 ] ).append( ": " ).append( asHeader[ 1 ] ).append( CRLF );
+            }
+         }
+
+         oHead.append( "Content-Length: " ).append( ayBody.length ).append( CRLF );
+         oHead.append( CRLF );
+
+         oOutputStream.write( oHead.toString().getBytes( "ISO-8859-1" ) );
+
+         if ( ! "HEAD".equals( oSubRequest._oRequest.getMethod() ) )
+         {
+            oOutputStream.write( ayBody );
+         }
+
+         oOutputStream.write( CRLF.getBytes( "ISO-8859-1" ) );
+
+         // each part is sent as soon as it is ready
+         oOutputStream.flush();
+      }
+
+      /**
+       * Takes sub-requests of the batch and dispatches them, until all sub-requests are taken
+       */
+      private class Runner implements Runnable
+      {
+         public void run()
+         {
+            int iIndex;
+
+            while ( ( iIndex = _oNextIndex.getAndIncrement() ) < _aoSubRequests.length )
+            {
+               SubRequest        oSubRequest    = _aoSubRequests[ iIndex ];
+               BatchSubResponse  oSubResponse   = new BatchSubResponse( oSubRequest._oRequest, _oResponse );
+
+               try
+               {
+                  _oHttpDispatcher.dispatchRequest( oSubRequest._oRequest, oSubResponse );
+
+                  oSubRequest._oResponse  = oSubResponse;
+                  oSubRequest._iStatus    = oSubResponse.getStatus();
+               }
+               catch ( Throwable e )
+               {
+                  _oLog.error( "batch sub-request failed: " + oSubRequest._oRequest.getRequestURI(), e );
+
+                  oSubRequest._iStatus = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+               }
+
+               _oCompletedQueue.add( oSubRequest );
+            }
+         }
+      }
+   }
+
+   private static class SubRequest
+   {
+      private  int                 _iLineNumber;
+      private  BatchSubRequest     _oRequest;
+      private  BatchSubResponse    _oResponse;
+      private  int                 _iStatus;
+
+      private SubRequest( int iLineNumber, BatchSubRequest oRequest )
+      {
+         _iLineNumber   = iLineNumber;
+         _oRequest      = oRequest;
+      }
+   }
+
+   private static class BatchFormatException extends Exception
+   {
+      private int _iStatus;
+
+      private BatchFormatException( int iStatus, String sMessage )
+      {
+         super( sMessage );
+
+         _iStatus = iStatus;
+      }
+
+      private int getStatus()
+      {
+         return _iStatus;
+      }
+   }
+
+   private static class BatchThreadFactory implements ThreadFactory
+   {
+      private AtomicInteger _oThreadCounter = new AtomicInteger();
+
+      public Thread newThread( Runnable oRunnable )
+      {
+         Thread oThread = new Thread( oRunnable, "induction-batch-" + _oThreadCounter.incrementAndGet() );
+
+         oThread.setDaemon( true );
+
+         return oThread;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
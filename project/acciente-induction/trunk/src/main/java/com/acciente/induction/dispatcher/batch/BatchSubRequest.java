@@ -0,0 +1,343 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.batch;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Internal.
+ * The request seen by the dispatcher for one sub-request of a batch. The method, path and parameters are the
+ * sub-request's own, the headers, cookies and session are those of the batch request.
+ * <p>
+ * A sub-request has no body, and the headers that describe the body of the batch request, or that would make
+ * a conditional, partial or compressed response of the batch request, are hidden. Request attributes are kept
+ * per sub-request, the attributes of the batch request are visible unless a sub-request replaces them.
+ * <p>
+ * The sub-requests of a batch run concurrently against the same container request, which containers do not
+ * expect, so access to the session of the container request is serialized by a lock shared by the batch.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class BatchSubRequest extends HttpServletRequestWrapper
+{
+   private static final Set      HIDDEN_HEADER_SET = new HashSet();
+
+   // the sendfile support attribute is hidden, since a file can only be sent with sendfile to the container response
+   private static final String   SENDFILE_SUPPORT  = "org.apache.tomcat.sendfile.support";
+
+   private static final Object   REMOVED_ATTRIBUTE = new Object();
+
+   static
+   {
+      HIDDEN_HEADER_SET.add( "content-type" );
+      HIDDEN_HEADER_SET.add( "content-length" );
+      HIDDEN_HEADER_SET.add( "transfer-encoding" );
+      HIDDEN_HEADER_SET.add( "expect" );
+      HIDDEN_HEADER_SET.add( "if-match" );
+      HIDDEN_HEADER_SET.add( "if-none-match" );
+      HIDDEN_HEADER_SET.add( "if-modified-since" );
+      HIDDEN_HEADER_SET.add( "if-unmodified-since" );
+      HIDDEN_HEADER_SET.add( "if-range" );
+      HIDDEN_HEADER_SET.add( "range" );
+      HIDDEN_HEADER_SET.add( "accept-encoding" );
+   }
+
+   private  String   _sMethod;
+   private  String   _sServletPath;
+   private  String   _sPathInfo;
+   private  String   _sRequestURI;
+   private  String   _sQueryString;
+   private  Map      _oParameterMap;
+   private  Map      _oAttributeMap;
+   private  Object   _oSessionLock;
+
+   /**
+    * @param oRequest the batch request
+    * @param sMethod the method of the sub-request
+    * @param sServletPath the servlet path of the sub-request
+    * @param sPathInfo the path info of the sub-request, or null
+    * @param sRequestURI the request URI of the sub-request, as sent by the client
+    * @param sQueryString the query string of the sub-request, or null
+    * @param oParameterMap the parameters of the sub-request, a map of String to String[]
+    * @param oSessionLock the lock that serializes the session access of the sub-requests of the batch
+    */
+   public BatchSubRequest( HttpServletRequest   oRequest,
+                           String               sMethod,
+                           String               sServletPath,
+                           String               sPathInfo,
+                           String               sRequestURI,
+                           String               sQueryString,
+                           Map                  oParameterMap,
+                           Object               oSessionLock )
+   {
+      super( oRequest );
+
+      _sMethod          = sMethod;
+      _sServletPath     = sServletPath;
+      _sPathInfo        = sPathInfo;
+      _sRequestURI      = sRequestURI;
+      _sQueryString     = sQueryString;
+      _oParameterMap    = Collections.unmodifiableMap( oParameterMap );
+      _oAttributeMap    = new HashMap();
+      _oSessionLock     = oSessionLock;
+   }
+
+   public String getMethod()
+   {
+      return _sMethod;
+   }
+
+   public String getServletPath()
+   {
+      return _sServletPath;
+   }
+
+   public String getPathInfo()
+   {
+      return _sPathInfo;
+   }
+
+   public String getPathTranslated()
+   {
+      return _sPathInfo == null ? null : getRealPath( _sPathInfo );
+   }
+
+   public String getRequestURI()
+   {
+      return _sRequestURI;
+   }
+
+   public StringBuffer getRequestURL()
+   {
+      StringBuffer   oRequestURL = new StringBuffer();
+      int            iPort       = getServerPort();
+
+      oRequestURL.append( getScheme() ).append( "://" ).append( getServerName() );
+
+      if ( ! ( ( "http".equals( getScheme() ) && iPort == 80 ) || ( "https".equals( getScheme() ) && iPort == 443 ) ) )
+      {
+         oRequestURL.append( ':' ).append( iPort );
+      }
+
+      return oRequestURL.append( _sRequestURI );
+   }
+
+   public String getQueryString()
+   {
+      return _sQueryString;
+   }
+
+   public String getParameter( String sName )
+   {
+      String[] asValues = ( String[] ) _oParameterMap.get( sName );
+
+      return asValues == null ? null : asValues[ 0 ];
+   }
+
+   public String[] getParameterValues( String sName )
+   {
+      String[] asValues = ( String[] ) _oParameterMap.get( sName );
+
+      return asValues == null ? null : asValues.clone();
+   }
+
+   public Enumeration getParameterNames()
+   {
+      return Collections.enumeration( _oParameterMap.keySet() );
+   }
+
+   public Map getParameterMap()
+   {
+      return _oParameterMap;
+   }
+
+   public String getHeader( String sName )
+   {
+      return isHiddenHeader( sName ) ? null : super.getHeader( sName );
+   }
+
+   public Enumeration getHeaders( String sName )
+   {
+      return isHiddenHeader( sName ) ? Collections.enumeration( Collections.EMPTY_LIST ) : super.getHeaders( sName );
+   }
+
+   public Enumeration getHeaderNames()
+   {
+      List oHeaderNameList = new ArrayList();
+
+      for ( Enumeration oHeaderNames = super.getHeaderNames(); oHeaderNames != null && oHeaderNames.hasMoreElements(); )
+      {
+         String sName = ( String ) oHeaderNames.nextElement();
+
+         if ( ! isHiddenHeader( sName ) )
+         {
+            oHeaderNameList.add( sName );
+         }
+      }
+
+      return Collections.enumeration( oHeaderNameList );
+   }
+
+   public long getDateHeader( String sName )
+   {
+      return isHiddenHeader( sName ) ? -1 : super.getDateHeader( sName );
+   }
+
+   public int getIntHeader( String sName )
+   {
+      return isHiddenHeader( sName ) ? -1 : super.getIntHeader( sName );
+   }
+
+   public String getContentType()
+   {
+      return null;
+   }
+
+   public int getContentLength()
+   {
+      return -1;
+   }
+
+   public ServletInputStream getInputStream()
+   {
+      return new ServletInputStream()
+      {
+         public int read()
+         {
+            return -1;
+         }
+      };
+   }
+
+   public BufferedReader getReader()
+   {
+      return new BufferedReader( new StringReader( "" ) );
+   }
+
+   public Object getAttribute( String sName )
+   {
+      synchronized ( _oAttributeMap )
+      {
+         Object oValue = _oAttributeMap.get( sName );
+
+         if ( oValue != null )
+         {
+            return oValue == REMOVED_ATTRIBUTE ? null : oValue;
+         }
+      }
+
+      return SENDFILE_SUPPORT.equals( sName ) ? null : super.getAttribute( sName );
+   }
+
+   public Enumeration getAttributeNames()
+   {
+      Set oNameSet = new HashSet();
+
+      for ( Enumeration oNames = super.getAttributeNames(); oNames.hasMoreElements(); )
+      {
+         oNameSet.add( oNames.nextElement() );
+      }
+
+      oNameSet.remove( SENDFILE_SUPPORT );
+
+      synchronized ( _oAttributeMap )
+      {
+         for ( Iterator oIter = _oAttributeMap.entrySet().iterator(); oIter.hasNext(); )
+         {
+            Map.Entry oEntry = ( Map.Entry ) oIter.next();
+
+            if ( oEntry.getValue() == REMOVED_ATTRIBUTE )
+            {
+               oNameSet.remove( oEntry.getKey() );
+            }
+            else
+            {
+               oNameSet.add( oEntry.getKey() );
+            }
+         }
+      }
+
+      return Collections.enumeration( oNameSet );
+   }
+
+   public void setAttribute( String sName, Object oValue )
+   {
+      if ( oValue == null )
+      {
+         removeAttribute( sName );
+         return;
+      }
+
+      synchronized ( _oAttributeMap )
+      {
+         _oAttributeMap.put( sName, oValue );
+      }
+   }
+
+   public void removeAttribute( String sName )
+   {
+      synchronized ( _oAttributeMap )
+      {
+         _oAttributeMap.put( sName, REMOVED_ATTRIBUTE );
+      }
+   }
+
+   public HttpSession getSession()
+   {
+      return getSession( true );
+   }
+
+   public HttpSession getSession( boolean bCreate )
+   {
+      synchronized ( _oSessionLock )
+      {
+         return super.getSession( bCreate );
+      }
+   }
+
+   public boolean isRequestedSessionIdValid()
+   {
+      synchronized ( _oSessionLock )
+      {
+         return super.isRequestedSessionIdValid();
+      }
+   }
+
+   private static boolean isHiddenHeader( String sName )
+   {
+      return sName != null && HIDDEN_HEADER_SET.contains( sName.toLowerCase() );
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,474 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.batch;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Internal.
+ * The response seen by the dispatcher for one sub-request of a batch. The status, headers and output are kept
+ * in memory and sent as a part of the batch response after the sub-request completes, nothing is passed on to
+ * the container response except URL encoding.
+ * <p>
+ * This class is not thread safe, it is used by the thread that dispatches the sub-request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class BatchSubResponse extends HttpServletResponseWrapper
+{
+   private static final String   DEFAULT_CHARACTER_ENCODING = "ISO-8859-1";
+
+   private  HttpServletRequest      _oRequest;
+   private  ByteArrayOutputStream   _oOutputBuffer;
+   private  ServletOutputStream     _oOutputStream;
+   private  PrintWriter             _oWriter;
+   private  List                    _oHeaderList;
+   private  String                  _sContentType;
+   private  String                  _sCharacterEncoding;
+   private  Locale                  _oLocale;
+   private  int                     _iStatus;
+   private  boolean                 _bCommitted;
+
+   /**
+    * @param oRequest the sub-request, used to make redirect locations absolute
+    * @param oResponse the batch response
+    */
+   public BatchSubResponse( HttpServletRequest oRequest, HttpServletResponse oResponse )
+   {
+      super( oResponse );
+
+      _oRequest         = oRequest;
+      _oOutputBuffer    = new ByteArrayOutputStream();
+      _oHeaderList      = new ArrayList();
+      _iStatus          = SC_OK;
+   }
+
+   public int getStatus()
+   {
+      return _iStatus;
+   }
+
+   /**
+    * @return the headers set by the sub-request, other than Content-Type, each element is a String[] holding
+    * the header name and value
+    */
+   public List getHeaderList()
+   {
+      return _oHeaderList;
+   }
+
+   /**
+    * @return the output of the sub-request
+    * @throws IOException if the writer could not be flushed
+    */
+   public byte[] getOutput() throws IOException
+   {
+      if ( _oWriter != null )
+      {
+         _oWriter.flush();
+      }
+
+      return _oOutputBuffer.toByteArray();
+   }
+
+   public String getContentType()
+   {
+      if ( _sContentType == null )
+      {
+         return null;
+      }
+
+      return _sCharacterEncoding == null ? _sContentType : _sContentType + ";charset=" + _sCharacterEncoding;
+   }
+
+   public void setContentType( String sContentType )
+   {
+      if ( sContentType == null || _bCommitted )
+      {
+         return;
+      }
+
+      int iCharsetIndex = sContentType.toLowerCase().indexOf( "charset=" );
+
+      if ( iCharsetIndex == -1 )
+      {
+         _sContentType = sContentType.trim();
+      }
+      else
+      {
+         int iParameterIndex = sContentType.lastIndexOf( ';', iCharsetIndex );
+
+         _sContentType = sContentType.substring( 0, iParameterIndex == -1 ? iCharsetIndex : iParameterIndex ).trim();
+
+         if ( _oWriter == null )
+         {
+            _sCharacterEncoding = sContentType.substring( iCharsetIndex + "charset=".length() ).trim().replace( '"', ' ' ).trim();
+         }
+      }
+   }
+
+   public String getCharacterEncoding()
+   {
+      return _sCharacterEncoding == null ? DEFAULT_CHARACTER_ENCODING : _sCharacterEncoding;
+   }
+
+   public void setCharacterEncoding( String sCharacterEncoding )
+   {
+      if ( _oWriter == null && ! _bCommitted )
+      {
+         _sCharacterEncoding = sCharacterEncoding;
+      }
+   }
+
+   public Locale getLocale()
+   {
+      return _oLocale == null ? Locale.getDefault() : _oLocale;
+   }
+
+   public void setLocale( Locale oLocale )
+   {
+      if ( ! _bCommitted )
+      {
+         _oLocale = oLocale;
+         setHeader( "Content-Language", oLocale.toString().replace( '_', '-' ) );
+      }
+   }
+
+   public ServletOutputStream getOutputStream()
+   {
+      if ( _oWriter != null )
+      {
+         throw new IllegalStateException( "getWriter() was already called for this response" );
+      }
+
+      if ( _oOutputStream == null )
+      {
+         _oOutputStream = new ServletOutputStream()
+         {
+            public void write( int iByte )
+            {
+               _oOutputBuffer.write( iByte );
+            }
+
+            public void write( byte[] ayBytes, int iOffset, int iLength )
+            {
+               _oOutputBuffer.write( ayBytes, iOffset, iLength );
+            }
+         };
+      }
+
+      return _oOutputStream;
+   }
+
+   public PrintWriter getWriter() throws IOException
+   {
+      if ( _oOutputStream != null )
+      {
+         throw new IllegalStateException( "getOutputStream() was already called for this response" );
+      }
+
+      if ( _oWriter == null )
+      {
+         // the writer fixes the character encoding, and the content type sent must name it
+         _sCharacterEncoding = getCharacterEncoding();
+         _oWriter = new PrintWriter( new OutputStreamWriter( _oOutputBuffer, _sCharacterEncoding ) );
+      }
+
+      return _oWriter;
+   }
+
+   public void setContentLength( int iLength )
+   {
+      // ignored, the length is set when the part is sent
+   }
+
+   public void setBufferSize( int iSize )
+   {
+      // ignored, the output is always buffered in full
+   }
+
+   public int getBufferSize()
+   {
+      return Integer.MAX_VALUE;
+   }
+
+   public void flushBuffer() throws IOException
+   {
+      if ( _oWriter != null )
+      {
+         _oWriter.flush();
+      }
+
+      _bCommitted = true;
+   }
+
+   public boolean isCommitted()
+   {
+      return _bCommitted;
+   }
+
+   public void reset()
+   {
+      if ( _bCommitted )
+      {
+         throw new IllegalStateException( "response already committed" );
+      }
+
+      resetBuffer();
+
+      _oHeaderList.clear();
+      _sContentType  = null;
+      _iStatus       = SC_OK;
+
+      if ( _oWriter == null )
+      {
+         _sCharacterEncoding = null;
+      }
+   }
+
+   public void resetBuffer()
+   {
+      if ( _bCommitted )
+      {
+         throw new IllegalStateException( "response already committed" );
+      }
+
+      if ( _oWriter != null )
+      {
+         _oWriter.flush();
+      }
+
+      _oOutputBuffer.reset();
+   }
+
+   public void setStatus( int iStatus )
+   {
+      if ( ! _bCommitted )
+      {
+         _iStatus = iStatus;
+      }
+   }
+
+   public void setStatus( int iStatus, String sMessage )
+   {
+      setStatus( iStatus );
+   }
+
+   public void sendError( int iStatus ) throws IOException
+   {
+      sendError( iStatus, null );
+   }
+
+   public void sendError( int iStatus, String sMessage ) throws IOException
+   {
+      if ( _bCommitted )
+      {
+         throw new IllegalStateException( "response already committed" );
+      }
+
+      resetBuffer();
+
+      _iStatus = iStatus;
+
+      if ( sMessage != null )
+      {
+         _oOutputStream       = null;
+         _oWriter             = null;
+         _sCharacterEncoding  = "UTF-8";
+         _sContentType        = "text/plain";
+
+         _oOutputBuffer.write( sMessage.getBytes( _sCharacterEncoding ) );
+      }
+
+      _bCommitted = true;
+   }
+
+   public void sendRedirect( String sLocation ) throws IOException
+   {
+      if ( _bCommitted )
+      {
+         throw new IllegalStateException( "response already committed" );
+      }
+
+      resetBuffer();
+
+      _iStatus = SC_MOVED_TEMPORARILY;
+      setHeader( "Location", toAbsoluteURL( sLocation ) );
+
+      _bCommitted = true;
+   }
+
+   public void addCookie( Cookie oCookie )
+   {
+      StringBuffer oSetCookie = new StringBuffer();
+
+      oSetCookie.append( oCookie.getName() ).append( '=' ).append( oCookie.getValue() == null ? "" : oCookie.getValue() );
+
+      if ( oCookie.getMaxAge() >= 0 )
+      {
+         oSetCookie.append( "; Max-Age=" ).append( oCookie.getMaxAge() );
+      }
+
+      if ( oCookie.getDomain() != null )
+      {
+         oSetCookie.append( "; Domain=" ).append( oCookie.getDomain() );
+      }
+
+      if ( oCookie.getPath() != null )
+      {
+         oSetCookie.append( "; Path=" ).append( oCookie.getPath() );
+      }
+
+      if ( oCookie.getSecure() )
+      {
+         oSetCookie.append( "; Secure" );
+      }
+
+      addHeader( "Set-Cookie", oSetCookie.toString() );
+   }
+
+   public boolean containsHeader( String sName )
+   {
+      if ( "Content-Type".equalsIgnoreCase( sName ) )
+      {
+         return _sContentType != null;
+      }
+
+      for ( Iterator oIter = _oHeaderList.iterator(); oIter.hasNext(); )
+      {
+         if ( ( ( String[] ) oIter.next() )[ 0 ].equalsIgnoreCase( sName ) )
+         {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   public void setHeader( String sName, String sValue )
+   {
+      setHeader( sName, sValue, false );
+   }
+
+   public void addHeader( String sName, String sValue )
+   {
+      setHeader( sName, sValue, true );
+   }
+
+   public void setDateHeader( String sName, long lValue )
+   {
+      setHeader( sName, formatDate( lValue ), false );
+   }
+
+   public void addDateHeader( String sName, long lValue )
+   {
+      setHeader( sName, formatDate( lValue ), true );
+   }
+
+   public void setIntHeader( String sName, int iValue )
+   {
+      setHeader( sName, String.valueOf( iValue ), false );
+   }
+
+   public void addIntHeader( String sName, int iValue )
+   {
+      setHeader( sName, String.valueOf( iValue ), true );
+   }
+
+   private void setHeader( String sName, String sValue, boolean bAdd )
+   {
+      if ( _bCommitted || sName == null || sValue == null )
+      {
+         return;
+      }
+
+      if ( "Content-Type".equalsIgnoreCase( sName ) )
+      {
+         setContentType( sValue );
+         return;
+      }
+
+      if ( "Content-Length".equalsIgnoreCase( sName ) )
+      {
+         return;
+      }
+
+      if ( ! bAdd )
+      {
+         for ( Iterator oIter = _oHeaderList.iterator(); oIter.hasNext(); )
+         {
+            if ( ( ( String[] ) oIter.next() )[ 0 ].equalsIgnoreCase( sName ) )
+            {
+               oIter.remove();
+            }
+         }
+      }
+
+      _oHeaderList.add( new String[]{ sName, sValue } );
+   }
+
+   private String toAbsoluteURL( String sLocation )
+   {
+      if ( sLocation.indexOf( "://" ) != -1 )
+      {
+         return sLocation;
+      }
+
+      StringBuffer oRequestURL = _oRequest.getRequestURL();
+
+      // the part of the request URL up to the path
+      String sServerURL = oRequestURL.substring( 0, oRequestURL.length() - _oRequest.getRequestURI().length() );
+
+      if ( sLocation.startsWith( "/" ) )
+      {
+         return sServerURL + sLocation;
+      }
+
+      String sRequestURI = _oRequest.getRequestURI();
+
+      return sServerURL + sRequestURI.substring( 0, sRequestURI.lastIndexOf( '/' ) + 1 ) + sLocation;
+   }
+
+   private static String formatDate( long lValue )
+   {
+      SimpleDateFormat oDateFormat = new SimpleDateFormat( "EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US );
+
+      oDateFormat.setTimeZone( TimeZone.getTimeZone( "GMT" ) );
+
+      return oDateFormat.format( new Date( lValue ) );
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -20,6 +20,7 @@ package com.acciente.induction.dispatcher.controller;
 import com.acciente.commons.reflect.Invoker;
 import com.acciente.commons.reflect.ParameterProviderException;
 import com.acciente.induction.controller.Controller;
+import com.acciente.induction.dispatcher.model.ModelPrefetcher;
 import com.acciente.induction.resolver.ControllerResolver;
 import com.acciente.induction.util.ConstructorNotFoundException;
 import com.acciente.induction.util.MethodNotFoundException;
@@ -42,17 +43,21 @@ public class ControllerExecutor
 {
    private  ControllerPool                      _oControllerPool;
    private  ControllerParameterProviderFactory  _oControllerParameterProviderFactory;
+   private  ModelPrefetcher                     _oModelPrefetcher;
 
    /**
     * Creates a new controller executor instance
     * @param oControllerPool a controller pool
     * @param oControllerParameterProviderFactory a parameter value resolver
+    * @param oModelPrefetcher used to create the models needed by a controller method before it is called
     */
    public ControllerExecutor( ControllerPool                      oControllerPool,
-                              ControllerParameterProviderFactory  oControllerParameterProviderFactory )
+                              ControllerParameterProviderFactory  oControllerParameterProviderFactory,
+                              ModelPrefetcher                     oModelPrefetcher )
    {
       _oControllerPool                       = oControllerPool;
       _oControllerParameterProviderFactory   = oControllerParameterProviderFactory;
+      _oModelPrefetcher                      = oModelPrefetcher;
    }
 
    /**
@@ -113,7 +118,31 @@ public class ControllerExecutor
                                                 oResolution.getMethodName(),
                                                 "parameter exception", e );
       }
+      catch ( ControllerPoolException e )
+      {
+         throw new ControllerExecutorException( oResolution.getClassName(),
+                                                oResolution.getMethodName(),
+                                                "controller pool exhausted", e );
+      }
+
+      try
+      {
+         return execute( oController, oResolution, oRequest, oResponse, oError );
+      }
+      finally
+      {
+         // pool and prototype scope controllers must be returned to the pool when done
+         _oControllerPool.releaseController( oResolution.getClassName(), oController );
+      }
+   }
 
+   private Object execute( Controller                     oController,
+                           ControllerResolver.Resolution  oResolution,
+                           HttpServletRequest             oRequest,
+                           HttpServletResponse            oResponse,
+                           Throwable                      oError )
+      throws ControllerExecutorException
+   {
       // use performance enhanced reflection to determine the methods in the controller with the specified name
       Method oControllerMethod;
       try
@@ -134,6 +163,9 @@ public class ControllerExecutor
 
       try
       {
+         // create the independent models the method needs concurrently, the invoke below then finds them in place
+         _oModelPrefetcher.prefetch( oControllerMethod, oRequest );
+
          if ( oError == null )
          {
             oControllerReturnValue = Invoker.invoke( oControllerMethod,
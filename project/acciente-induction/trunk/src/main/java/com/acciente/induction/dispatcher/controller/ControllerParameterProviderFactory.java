@@ -29,8 +29,11 @@ import com.acciente.induction.dispatcher.model.ModelPool;
 import com.acciente.induction.dispatcher.resolver.RedirectResolverExecutor;
 import com.acciente.induction.dispatcher.resolver.URLResolver;
 import com.acciente.induction.init.config.Config;
+import com.acciente.induction.model.Batch;
 import com.acciente.induction.resolver.ControllerResolver;
 import com.acciente.induction.resolver.RedirectResolver;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.template.FragmentCache;
 import com.acciente.induction.template.TemplatingEngine;
 import com.acciente.induction.util.ConstructorNotFoundException;
 import com.acciente.induction.util.MethodNotFoundException;
@@ -130,10 +133,22 @@ public class ControllerParameterProviderFactory
             {
                oParamValue = _oModelPool.getSystemModel( oParamClass, _oRequest );
             }
+            else if ( oParamClass.isAssignableFrom( Batch.class ) )
+            {
+               oParamValue = _oModelPool.getSystemModel( oParamClass, _oRequest );
+            }
             else if ( oParamClass.isAssignableFrom( ClassLoader.class ) )
             {
                oParamValue = _oClassLoader;
             }
+            else if ( oParamClass.isAssignableFrom( Statistics.class ) )
+            {
+               oParamValue = _oModelPool.getStatistics();
+            }
+            else if ( oParamClass.isAssignableFrom( FragmentCache.class ) )
+            {
+               oParamValue = _oModelPool.getFragmentCache();
+            }
             else
             {
                // check to see if this is a user model class
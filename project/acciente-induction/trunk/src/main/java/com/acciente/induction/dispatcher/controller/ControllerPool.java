@@ -19,13 +19,29 @@ package com.acciente.induction.dispatcher.controller;
 
 import com.acciente.commons.reflect.ParameterProviderException;
 import com.acciente.induction.controller.Controller;
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
 import com.acciente.induction.util.ConstructorNotFoundException;
+import com.acciente.induction.util.MethodNotFoundException;
 import com.acciente.induction.util.ObjectFactory;
+import com.acciente.induction.util.ReflectUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import javax.servlet.ServletConfig;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Internal.
@@ -33,20 +49,40 @@ import java.util.Map;
  * class has not since reloaded the object in the pool is used, otherwise a new controller object is instantiated. There
  * is a single instance of this class per dispatcher servlet.
  *
+ * Each controller class has one of the following scopes (configured in the controller mapping):
+ *
+ *    singleton: a single instance is shared by all requests, this is the default
+ *    pool:      a bounded number of instances, each instance is used by only one request at a time
+ *    prototype: a new instance is created for each request
+ *
+ * Every controller obtained via getController() must be returned via releaseController().
+ *
  * @created Mar 20, 2008
  *
  * @author Adinath Raveendra Raj
  */
 public class ControllerPool
 {
-   private Map             _oControllerCache = new Hashtable();
-   private ClassLoader     _oClassLoader;
-   private ServletConfig   _oServletConfig;
+   private Map                      _oControllerCache       = new Hashtable();
+   private ConcurrentHashMap        _oInstancePoolMap       = new ConcurrentHashMap();
+   private ConcurrentHashMap        _oPrototypeFactoryMap   = new ConcurrentHashMap();
+   private ClassLoader              _oClassLoader;
+   private ServletConfig            _oServletConfig;
+   private Config.ControllerMapping _oControllerMapping;
+   private Statistics               _oStatistics;
+   private Log                      _oLog;
 
-   public ControllerPool( ClassLoader oClassLoader, ServletConfig oServletConfig )
+   public ControllerPool( ClassLoader              oClassLoader,
+                          ServletConfig            oServletConfig,
+                          Config.ControllerMapping oControllerMapping,
+                          Statistics               oStatistics )
    {
-      _oClassLoader     = oClassLoader;
-      _oServletConfig   = oServletConfig;
+      _oClassLoader        = oClassLoader;
+      _oServletConfig      = oServletConfig;
+      _oControllerMapping  = oControllerMapping;
+      _oStatistics         = oStatistics;
+
+      _oLog = LogFactory.getLog( ControllerPool.class );
    }
 
    /**
@@ -61,14 +97,61 @@ public class ControllerPool
     * @throws ConstructorNotFoundException propagated exception
     * @throws InstantiationException propagated exception
     * @throws ParameterProviderException propagated exception
+    * @throws ControllerPoolException if no instance of a pool scope controller became available in time
     */
    public Controller getController( String sControllerClassName )
-      throws ClassNotFoundException, InvocationTargetException, ParameterProviderException, ConstructorNotFoundException, InstantiationException, IllegalAccessException
+      throws ClassNotFoundException, InvocationTargetException, ParameterProviderException, ConstructorNotFoundException, InstantiationException, IllegalAccessException, ControllerPoolException
    {
       // the class definition may have changed so we have to load the class unconditionally our
       // classloader caches so if the class is unchanged this call just returns the last loaded class
       Class oLatestControllerClass = _oClassLoader.loadClass( sControllerClassName );
 
+      Config.ControllerMapping.ControllerScope oControllerScope = _oControllerMapping.getControllerScope( sControllerClassName );
+
+      if ( oControllerScope == null || oControllerScope.isSingleton() )
+      {
+         return getSingletonController( sControllerClassName, oLatestControllerClass );
+      }
+      else if ( oControllerScope.isPool() )
+      {
+         return getInstancePool( sControllerClassName, oControllerScope ).borrow( oLatestControllerClass );
+      }
+      else
+      {
+         return getPrototypeFactory( sControllerClassName, oLatestControllerClass ).create();
+      }
+   }
+
+   /**
+    * Returns a controller obtained via getController() after the controller has completed execution
+    *
+    * @param sControllerClassName fully qualified controller class name, as passed to getController()
+    * @param oController the instance returned by getController()
+    */
+   public void releaseController( String sControllerClassName, Controller oController )
+   {
+      Config.ControllerMapping.ControllerScope oControllerScope = _oControllerMapping.getControllerScope( sControllerClassName );
+
+      if ( oControllerScope == null || oControllerScope.isSingleton() )
+      {
+         // nothing to do, singletons stay in the cache
+         return;
+      }
+
+      if ( oControllerScope.isPool() )
+      {
+         ( ( InstancePool ) _oInstancePoolMap.get( sControllerClassName ) ).giveBack( oController );
+      }
+      else
+      {
+         // a prototype is used for exactly one request
+         destroyController( oController );
+      }
+   }
+
+   private Controller getSingletonController( String sControllerClassName, Class oLatestControllerClass )
+      throws InvocationTargetException, ParameterProviderException, ConstructorNotFoundException, InstantiationException, IllegalAccessException
+   {
       // check if we have a cached controller instance
       Controller  oController = ( Controller ) _oControllerCache.get( sControllerClassName );
 
@@ -98,11 +181,317 @@ public class ControllerPool
       return oController;
    }
 
+   private InstancePool getInstancePool( String sControllerClassName, Config.ControllerMapping.ControllerScope oControllerScope )
+   {
+      InstancePool oInstancePool = ( InstancePool ) _oInstancePoolMap.get( sControllerClassName );
+
+      if ( oInstancePool == null )
+      {
+         InstancePool oNewInstancePool = new InstancePool( sControllerClassName, oControllerScope );
+
+         oInstancePool = ( InstancePool ) _oInstancePoolMap.putIfAbsent( sControllerClassName, oNewInstancePool );
+
+         if ( oInstancePool == null )
+         {
+            oInstancePool = oNewInstancePool;
+         }
+      }
+
+      return oInstancePool;
+   }
+
+   private PrototypeFactory getPrototypeFactory( String sControllerClassName, Class oLatestControllerClass )
+      throws ConstructorNotFoundException, IllegalAccessException
+   {
+      PrototypeFactory oPrototypeFactory = ( PrototypeFactory ) _oPrototypeFactoryMap.get( sControllerClassName );
+
+      // we (re)build the factory if this is the first use or if the controller class has reloaded, two threads
+      // may race to do so, this is harmless since the factories are equivalent
+      if ( oPrototypeFactory == null || oPrototypeFactory.getControllerClass() != oLatestControllerClass )
+      {
+         oPrototypeFactory = new PrototypeFactory( sControllerClassName, oLatestControllerClass );
+
+         _oPrototypeFactoryMap.put( sControllerClassName, oPrototypeFactory );
+      }
+
+      return oPrototypeFactory;
+   }
+
    private Controller createController( Class oControllerClass )
       throws InvocationTargetException, ConstructorNotFoundException, ParameterProviderException, IllegalAccessException, InstantiationException
    {
       return ( Controller ) ObjectFactory.createObject( oControllerClass, new Object[]{ _oServletConfig }, null );
    }
+
+   private void destroyController( Controller oController )
+   {
+      try
+      {
+         ObjectFactory.destroyObject( oController );
+      }
+      catch ( InvocationTargetException e )
+      {
+         _oLog.error( "controller-pool: error destroying controller: " + oController.getClass().getName(), e );
+      }
+      catch ( IllegalAccessException e )
+      {
+         _oLog.error( "controller-pool: error destroying controller: " + oController.getClass().getName(), e );
+      }
+   }
+
+   /**
+    * Internal.
+    * A bounded pool of instances of a single controller class. A semaphore bounds the number of instances
+    * concurrently in use, idle instances are kept in a non-blocking queue. Borrowing an instance when one is
+    * idle involves no locking, a request only waits when all instances are in use.
+    */
+   private class InstancePool
+   {
+      private String                   _sControllerClassName;
+      private long                     _lWaitTimeoutInMillis;
+      private Semaphore                _oPermits;
+      private ConcurrentLinkedQueue    _oIdleInstances = new ConcurrentLinkedQueue();
+
+      private Counter                  _oInUseCounter;
+      private Counter                  _oIdleCounter;
+      private Counter                  _oCreatedCounter;
+      private Counter                  _oWaitCounter;
+      private Counter                  _oWaitTimeCounter;
+      private Counter                  _oMaxWaitTimeCounter;
+      private Counter                  _oTimeoutCounter;
+
+      private InstancePool( String sControllerClassName, Config.ControllerMapping.ControllerScope oControllerScope )
+      {
+         _sControllerClassName   = sControllerClassName;
+         _lWaitTimeoutInMillis   = oControllerScope.getPoolWaitTimeoutInMillis();
+         _oPermits               = new Semaphore( oControllerScope.getPoolSize(), true );
+
+         String sCounterPrefix = "controller-pool." + sControllerClassName + ".";
+
+         _oInUseCounter          = _oStatistics.getCounter( sCounterPrefix + "in-use" );
+         _oIdleCounter           = _oStatistics.getCounter( sCounterPrefix + "idle" );
+         _oCreatedCounter        = _oStatistics.getCounter( sCounterPrefix + "created" );
+         _oWaitCounter           = _oStatistics.getCounter( sCounterPrefix + "waits" );
+         _oWaitTimeCounter       = _oStatistics.getCounter( sCounterPrefix + "wait-time-ms" );
+         _oMaxWaitTimeCounter    = _oStatistics.getCounter( sCounterPrefix + "max-wait-time-ms" );
+         _oTimeoutCounter        = _oStatistics.getCounter( sCounterPrefix + "timeouts" );
+
+         _oStatistics.getCounter( sCounterPrefix + "size" ).set( oControllerScope.getPoolSize() );
+      }
+
+      private Controller borrow( Class oLatestControllerClass )
+         throws InvocationTargetException, ParameterProviderException, ConstructorNotFoundException, InstantiationException, IllegalAccessException, ControllerPoolException
+      {
+         // the fast path, an instance slot is free
+         if ( ! _oPermits.tryAcquire() )
+         {
+            // all instances are in use, so we wait
+            long     lWaitStart = System.currentTimeMillis();
+            boolean  bAcquired;
+
+            try
+            {
+               bAcquired = _oPermits.tryAcquire( _lWaitTimeoutInMillis, TimeUnit.MILLISECONDS );
+            }
+            catch ( InterruptedException e )
+            {
+               Thread.currentThread().interrupt();
+               bAcquired = false;
+            }
+
+            long lWaitTime = System.currentTimeMillis() - lWaitStart;
+
+            _oWaitCounter.increment();
+            _oWaitTimeCounter.add( lWaitTime );
+            _oMaxWaitTimeCounter.setIfGreater( lWaitTime );
+
+            if ( ! bAcquired )
+            {
+               _oTimeoutCounter.increment();
+
+               throw new ControllerPoolException( "controller-pool: timed out after "
+                                                  + lWaitTime
+                                                  + " ms waiting for an instance of controller: "
+                                                  + _sControllerClassName );
+            }
+         }
+
+         // we hold a permit, so we are entitled to use an idle instance or to create a new one
+         Controller oController;
+
+         try
+         {
+            while ( ( oController = ( Controller ) _oIdleInstances.poll() ) != null )
+            {
+               _oIdleCounter.decrement();
+
+               if ( oController.getClass() == oLatestControllerClass )
+               {
+                  break;
+               }
+
+               // the class has been reloaded since this instance was created, decommission it
+               destroyController( oController );
+            }
+
+            if ( oController == null )
+            {
+               oController = createController( oLatestControllerClass );
+
+               _oCreatedCounter.increment();
+            }
+         }
+         catch ( InvocationTargetException e )
+         {
+            _oPermits.release();
+            throw e;
+         }
+         catch ( ParameterProviderException e )
+         {
+            _oPermits.release();
+            throw e;
+         }
+         catch ( ConstructorNotFoundException e )
+         {
+            _oPermits.release();
+            throw e;
+         }
+         catch ( InstantiationException e )
+         {
+            _oPermits.release();
+            throw e;
+         }
+         catch ( IllegalAccessException e )
+         {
+            _oPermits.release();
+            throw e;
+         }
+         catch ( RuntimeException e )
+         {
+            _oPermits.release();
+            throw e;
+         }
+
+         _oInUseCounter.increment();
+
+         return oController;
+      }
+
+      private void giveBack( Controller oController )
+      {
+         _oInUseCounter.decrement();
+
+         _oIdleInstances.offer( oController );
+         _oIdleCounter.increment();
+
+         _oPermits.release();
+      }
+   }
+
+   /**
+    * Internal.
+    * Creates instances of a prototype scope controller. The constructor and optional init() method are
+    * resolved once when the factory is built (and again only if the controller class is reloaded), and
+    * bound to their arguments as method handles, so that creating an instance per request involves no class
+    * introspection, and no argument matching and access checks as with reflective invocation.
+    */
+   private class PrototypeFactory
+   {
+      private Class           _oControllerClass;
+      private MethodHandle    _oConstructorHandle;       // () -> Object
+      private MethodHandle    _oInitHandle;              // ( Object ) -> void, null if there is no init() method
+      private Counter         _oCreatedCounter;
+
+      private PrototypeFactory( String sControllerClassName, Class oControllerClass )
+         throws ConstructorNotFoundException, IllegalAccessException
+      {
+         MethodHandles.Lookup oLookup      = MethodHandles.publicLookup();
+         Constructor          oConstructor = ReflectUtils.getSingletonConstructor( oControllerClass );
+
+         _oControllerClass    = oControllerClass;
+         _oConstructorHandle  = bindArguments( oLookup.unreflectConstructor( oConstructor ), oConstructor.getParameterTypes(), 0 )
+                                 .asType( MethodType.methodType( Object.class ) );
+
+         try
+         {
+            Method oInitMethod = ReflectUtils.getSingletonMethod( oControllerClass, "init" );
+
+            _oInitHandle = bindArguments( oLookup.unreflect( oInitMethod ), oInitMethod.getParameterTypes(), 1 )
+                           .asType( MethodType.methodType( Void.TYPE, Object.class ) );
+         }
+         catch ( MethodNotFoundException e )
+         {
+            // ok if no additional initializer is defined
+            _oInitHandle = null;
+         }
+
+         _oCreatedCounter = _oStatistics.getCounter( "controller-prototype." + sControllerClassName + ".created" );
+      }
+
+      /**
+       * Binds the parameters of a constructor or method to the values provided to controllers, by type, as
+       * Invoker does (a parameter of a type that is not provided receives null)
+       *
+       * @param oHandle the handle of the constructor or method
+       * @param aoParameterTypes the parameter types of the constructor or method
+       * @param iFirstParameter the position of the first parameter in the handle's type (1 for a method, after
+       * the target object)
+       * @return a handle that takes no parameters other than the target object of a method
+       */
+      private MethodHandle bindArguments( MethodHandle oHandle, Class[] aoParameterTypes, int iFirstParameter )
+         throws ConstructorNotFoundException
+      {
+         Object[] aoArgs = new Object[ aoParameterTypes.length ];
+
+         for ( int i = 0; i < aoParameterTypes.length; i++ )
+         {
+            if ( aoParameterTypes[ i ].isPrimitive() )
+            {
+               throw new ConstructorNotFoundException( "class " + _oControllerClass.getName()
+                                                       + ": no value can be provided for a parameter of primitive type: "
+                                                       + aoParameterTypes[ i ].getName() );
+            }
+
+            aoArgs[ i ] = aoParameterTypes[ i ].isInstance( _oServletConfig ) ? _oServletConfig : null;
+         }
+
+         return MethodHandles.insertArguments( oHandle, iFirstParameter, aoArgs );
+      }
+
+      private Class getControllerClass()
+      {
+         return _oControllerClass;
+      }
+
+      private Controller create()
+         throws InvocationTargetException
+      {
+         Object oController;
+
+         try
+         {
+            oController = ( Object ) _oConstructorHandle.invokeExact();
+
+            if ( _oInitHandle != null )
+            {
+               _oInitHandle.invokeExact( oController );
+            }
+         }
+         catch ( Error e )
+         {
+            throw e;
+         }
+         catch ( Throwable e )
+         {
+            // reported as reflective invocation reports an exception thrown by the constructor or init()
+            throw new InvocationTargetException( e );
+         }
+
+         _oCreatedCounter.increment();
+
+         return ( Controller ) oController;
+      }
+   }
 }
 
 // EOF
\ No newline at end of file
@@ -29,6 +29,7 @@ import com.acciente.induction.dispatcher.model.ModelPool;
 import com.acciente.induction.init.config.Config;
 import com.acciente.induction.resolver.ControllerResolver;
 import com.acciente.induction.resolver.ViewResolver;
+import com.acciente.induction.statistics.Statistics;
 import com.acciente.induction.template.TemplatingEngine;
 import com.acciente.induction.util.ConstructorNotFoundException;
 import com.acciente.induction.util.MethodNotFoundException;
@@ -138,6 +139,10 @@ public class RequestInterceptorParameterProviderFactory
             {
                oParamValue = _oClassLoader;
             }
+            else if ( oParamClass.isAssignableFrom( Statistics.class ) )
+            {
+               oParamValue = _oModelPool.getStatistics();
+            }
             else
             {
                // check to see if this is a model class
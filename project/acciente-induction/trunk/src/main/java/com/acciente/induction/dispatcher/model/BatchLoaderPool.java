@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.model;
+
+import com.acciente.commons.reflect.ParameterProviderException;
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.model.BatchException;
+import com.acciente.induction.model.BatchLoader;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.ConstructorNotFoundException;
+import com.acciente.induction.util.ObjectFactory;
+
+import javax.servlet.ServletConfig;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal.
+ * This class manages instances of the batch loader classes configured in the system.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class BatchLoaderPool
+{
+   private Config.ModelDefs   _oModelDefs;
+   private ClassLoader        _oClassLoader;
+   private ServletConfig      _oServletConfig;
+   private Statistics         _oStatistics;
+
+   private Map                _oBatchLoaderMap;
+
+   public BatchLoaderPool( Config.ModelDefs oModelDefs, ClassLoader oClassLoader, ServletConfig oServletConfig, Statistics oStatistics )
+   {
+      _oModelDefs       = oModelDefs;
+      _oClassLoader     = oClassLoader;
+      _oServletConfig   = oServletConfig;
+      _oStatistics      = oStatistics;
+
+      _oBatchLoaderMap  = new Hashtable(); // Hashtable for concurrency safety
+   }
+
+   public boolean isBatchLoaderDefined( String sBatchLoaderName )
+   {
+      return _oModelDefs.getBatchLoaderDef( sBatchLoaderName ) != null;
+   }
+
+   /**
+    * Loads the specified keys using the named batch loader
+    *
+    * @param sBatchLoaderName the name of a configured batch loader
+    * @param oKeyList the keys to load
+    * @return a map from key to value
+    * @throws BatchException if the loader is not configured, could not be created, or failed
+    */
+   public Map load( String sBatchLoaderName, List oKeyList ) throws BatchException
+   {
+      BatchLoader oBatchLoader      = getBatchLoader( sBatchLoaderName );
+      String      sCounterPrefix    = "batch-loader." + sBatchLoaderName;
+      long        lStartTime        = System.currentTimeMillis();
+
+      _oStatistics.getCounter( sCounterPrefix + ".dispatches" ).increment();
+      _oStatistics.getCounter( sCounterPrefix + ".keys" ).add( oKeyList.size() );
+
+      try
+      {
+         Map oValueMap = oBatchLoader.load( oKeyList );
+
+         if ( oValueMap == null )
+         {
+            throw new BatchException( "batch-error: loader: " + sBatchLoaderName + " returned null" );
+         }
+
+         return oValueMap;
+      }
+      catch ( BatchException e )
+      {
+         _oStatistics.getCounter( sCounterPrefix + ".failures" ).increment();
+         throw e;
+      }
+      catch ( Exception e )
+      {
+         _oStatistics.getCounter( sCounterPrefix + ".failures" ).increment();
+         throw new BatchException( "batch-error: loader: " + sBatchLoaderName + " failed to load keys: " + oKeyList, e );
+      }
+      finally
+      {
+         _oStatistics.getCounter( sCounterPrefix + ".time-ms" ).add( System.currentTimeMillis() - lStartTime );
+      }
+   }
+
+   private BatchLoader getBatchLoader( String sBatchLoaderName ) throws BatchException
+   {
+      Config.ModelDefs.BatchLoaderDef oBatchLoaderDef = _oModelDefs.getBatchLoaderDef( sBatchLoaderName );
+
+      if ( oBatchLoaderDef == null )
+      {
+         throw new BatchException( "batch-error: no batch loader configured with name: " + sBatchLoaderName );
+      }
+
+      try
+      {
+         // first load the class (the class loader caches)
+         Class    oBatchLoaderClass = _oClassLoader.loadClass( oBatchLoaderDef.getBatchLoaderClassName() );
+
+         // see if we have a cached instance of the loader class
+         Object   oBatchLoader      = _oBatchLoaderMap.get( sBatchLoaderName );
+
+         if ( oBatchLoader == null || oBatchLoader.getClass().hashCode() != oBatchLoaderClass.hashCode() )
+         {
+            if ( oBatchLoader != null )
+            {
+               // the class was reloaded since the instance was created
+               _oBatchLoaderMap.remove( sBatchLoaderName );
+
+               ObjectFactory.destroyObject( oBatchLoader );
+            }
+
+            oBatchLoader = ObjectFactory.createObject( oBatchLoaderClass,
+                                                       new Object[]{ _oServletConfig, oBatchLoaderDef, _oClassLoader },
+                                                       null );
+
+            if ( ! ( oBatchLoader instanceof BatchLoader ) )
+            {
+               throw new BatchException( "batch-error: class: " + oBatchLoaderClass.getName()
+                                         + " of loader: " + sBatchLoaderName
+                                         + " does not implement: " + BatchLoader.class.getName() );
+            }
+
+            _oBatchLoaderMap.put( sBatchLoaderName, oBatchLoader );
+         }
+
+         return ( BatchLoader ) oBatchLoader;
+      }
+      catch ( ClassNotFoundException e )
+      {  throw new BatchException( "batch-error: unable to create loader: " + sBatchLoaderName, e );   }
+      catch ( InvocationTargetException e )
+      {  throw new BatchException( "batch-error: unable to create loader: " + sBatchLoaderName, e );   }
+      catch ( ParameterProviderException e )
+      {  throw new BatchException( "batch-error: unable to create loader: " + sBatchLoaderName, e );   }
+      catch ( ConstructorNotFoundException e )
+      {  throw new BatchException( "batch-error: unable to create loader: " + sBatchLoaderName, e );   }
+      catch ( InstantiationException e )
+      {  throw new BatchException( "batch-error: unable to create loader: " + sBatchLoaderName, e );   }
+      catch ( IllegalAccessException e )
+      {  throw new BatchException( "batch-error: unable to create loader: " + sBatchLoaderName, e );   }
+   }
+}
+
+// EOF
\ No newline at end of file
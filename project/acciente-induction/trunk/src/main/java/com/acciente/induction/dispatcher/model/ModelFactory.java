@@ -22,9 +22,14 @@ import com.acciente.commons.reflect.ParameterProvider;
 import com.acciente.commons.reflect.ParameterProviderException;
 import com.acciente.induction.controller.Form;
 import com.acciente.induction.controller.HTMLForm;
+import com.acciente.induction.dispatcher.asset.StaticAssetServer;
 import com.acciente.induction.dispatcher.resolver.RedirectResolverExecutor;
 import com.acciente.induction.dispatcher.resolver.URLResolver;
 import com.acciente.induction.init.config.Config;
+import com.acciente.induction.model.Batch;
+import com.acciente.induction.model.ModelKey;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.template.FragmentCache;
 import com.acciente.induction.template.TemplatingEngine;
 import com.acciente.induction.util.ConstructorNotFoundException;
 import com.acciente.induction.util.MethodNotFoundException;
@@ -52,20 +57,25 @@ public class ModelFactory
    private  TemplatingEngine              _oTemplatingEngine;
    private  Config.FileUpload             _oFileUploadConfig;
    private  RedirectResolverExecutor      _oRedirectResolverExecutor;
+   private  StaticAssetServer             _oStaticAssetServer;
 
    private  ConfiguredModelFactoryPool    _oConfiguredModelFactoryPool;
+   private  BatchLoaderPool               _oBatchLoaderPool;
    private  ModelPool                     _oModelPool;
    private  ThreadLocal                   _oCreateInProgressModelClassNameSet  = new ModelClassNameSet();
 
    public ModelFactory( ClassLoader       oClassLoader,
                         ServletConfig     oServletConfig,
-                        Config.FileUpload oFileUploadConfig )
+                        Config.FileUpload oFileUploadConfig,
+                        Config.ModelDefs  oModelDefs,
+                        Statistics        oStatistics )
    {
       _oClassLoader        = oClassLoader;
       _oServletConfig      = oServletConfig;
       _oFileUploadConfig   = oFileUploadConfig;
 
       _oConfiguredModelFactoryPool = new ConfiguredModelFactoryPool( oClassLoader, oServletConfig );
+      _oBatchLoaderPool            = new BatchLoaderPool( oModelDefs, oClassLoader, oServletConfig, oStatistics );
    }
 
    /**
@@ -100,8 +110,33 @@ public class ModelFactory
       _oTemplatingEngine = oTemplatingEngine;
    }
 
+   /**
+    * Sets the static asset server used by URLResolver models to resolve fingerprinted asset URLs, this is
+    * not set if static assets are not configured
+    * @param oStaticAssetServer the static asset server
+    */
+   public void setStaticAssetServer( StaticAssetServer oStaticAssetServer )
+   {
+      _oStaticAssetServer = oStaticAssetServer;
+   }
+
    public Object createModel( Config.ModelDefs.ModelDef oModelDef, HttpServletRequest oHttpServletRequest )
       throws InvocationTargetException, ConstructorNotFoundException, ParameterProviderException, IllegalAccessException, InstantiationException, MethodNotFoundException, ClassNotFoundException
+   {
+      return createModel( oModelDef, oHttpServletRequest, null );
+   }
+
+   /**
+    * Creates a model instance, the model key (if any) is available for injection into the model's constructor
+    * or its factory's createModel() method
+    *
+    * @param oModelDef the definition of the model to create
+    * @param oHttpServletRequest the current request, may be null
+    * @param oModelKey the key of a cache scope model, null for other scopes
+    * @return a new model instance
+    */
+   public Object createModel( Config.ModelDefs.ModelDef oModelDef, HttpServletRequest oHttpServletRequest, ModelKey oModelKey )
+      throws InvocationTargetException, ConstructorNotFoundException, ParameterProviderException, IllegalAccessException, InstantiationException, MethodNotFoundException, ClassNotFoundException
    {
       // we keep track of the model classname we are loading in a thread local set, this allows
       // us to detect cyclic dependencies which would otherwise cause infinite recursion
@@ -121,7 +156,7 @@ public class ModelFactory
 
       try
       {
-         Object[]                oParameterValues        = new Object[]{ _oServletConfig, oModelDef, oHttpServletRequest, _oTemplatingEngine, _oClassLoader };
+         Object[]                oParameterValues        = new Object[]{ _oServletConfig, oModelDef, oHttpServletRequest, _oTemplatingEngine, _oClassLoader, oModelKey };
          ModelParameterProvider  oModelParameterProvider = new ModelParameterProvider( _oModelPool, _oFileUploadConfig, oHttpServletRequest, _oRedirectResolverExecutor );
 
          // does this model class have a factory class defined?
@@ -187,7 +222,11 @@ public class ModelFactory
       }
       else if ( oSystemModelClass.isAssignableFrom( URLResolver.class ) )
       {
-         oSystemModel = new URLResolver( _oRedirectResolverExecutor, oHttpServletRequest );
+         oSystemModel = new URLResolver( _oRedirectResolverExecutor, oHttpServletRequest, _oStaticAssetServer );
+      }
+      else if ( oSystemModelClass.isAssignableFrom( Batch.class ) )
+      {
+         oSystemModel = new RequestBatch( _oBatchLoaderPool );
       }
 
       return oSystemModel;
@@ -249,6 +288,23 @@ public class ModelFactory
 
                oParamValue = _oModelPool.getSystemModel( URLResolver.class, _oHttpServletRequest );
             }
+            else if ( oParamClass.isAssignableFrom( Batch.class ) )
+            {
+               if ( _oHttpServletRequest == null )
+               {
+                  throw new ParameterProviderException( oParamClass + " not available in this context" );
+               }
+
+               oParamValue = _oModelPool.getSystemModel( Batch.class, _oHttpServletRequest );
+            }
+            else if ( oParamClass.isAssignableFrom( Statistics.class ) )
+            {
+               oParamValue = _oModelPool.getStatistics();
+            }
+            else if ( oParamClass.isAssignableFrom( FragmentCache.class ) )
+            {
+               oParamValue = _oModelPool.getFragmentCache();
+            }
             else
             {
                oParamValue = _oModelPool.getModel( oParamClass, _oHttpServletRequest );
@@ -19,16 +19,34 @@ package com.acciente.induction.dispatcher.model;
 
 import com.acciente.commons.reflect.ParameterProviderException;
 import com.acciente.induction.init.config.Config;
+import com.acciente.induction.model.Batch;
+import com.acciente.induction.model.BatchException;
+import com.acciente.induction.model.ModelKey;
+import com.acciente.induction.model.PinnableSessionModelStore;
+import com.acciente.induction.model.SessionModelStore;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.template.FragmentCache;
+import com.acciente.induction.util.ConcurrentLRUCache;
 import com.acciente.induction.util.ConstructorNotFoundException;
 import com.acciente.induction.util.MethodNotFoundException;
 import com.acciente.induction.util.ObjectFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Internal.
@@ -40,18 +58,188 @@ import java.util.Map;
  */
 public class ModelPool
 {
+   private static final int         SESSION_LOCK_STRIPE_COUNT  = 256;   // must be a power of 2
+   private static final long        RECLAIM_INTERVAL_IN_MILLIS = 1000;
+   private static final String      REQUEST_MODEL_MAP_ATTRIBUTE = RequestModelMap.class.getName();
+
    private        Config.ModelDefs  _oModelDefs;
    private        Map               _oAppScopeModelMap;
    private        ModelFactory      _oModelFactory;
    private        ServletContext    _oServletContext;
-
-   public ModelPool( Config.ModelDefs oModelDefs, ModelFactory oModelFactory, ServletContext oServletContext )
+   private        SessionModelStore _oSessionModelStore;
+   private        Statistics        _oStatistics;
+   private        FragmentCache     _oFragmentCache;
+
+   private        ReentrantLock[]   _aoSessionLockStripes;
+   private        Counter           _oSessionLockAcquisitionCounter;
+   private        Counter           _oSessionLockContentionCounter;
+   private        Counter           _oSessionLockWaitTimeCounter;
+
+   private        RequestEpochTracker        _oRequestEpochTracker;
+   private        ScheduledExecutorService   _oScheduler;              // guarded by this
+   private        Map                        _oRefreshScheduledMap;    // used as a concurrent set of the refreshable models scheduled so far
+   private        ConcurrentHashMap          _oCacheScopeModelCacheMap;
+   private        RetiringEvictionListener   _oRetiringEvictionListener;
+   private        Counter                    _oRetiredModelPendingCounter;
+   private        Log                        _oLog;
+
+   public ModelPool( Config.ModelDefs oModelDefs, ModelFactory oModelFactory, ServletContext oServletContext, SessionModelStore oSessionModelStore, FragmentCache oFragmentCache, Statistics oStatistics )
       throws MethodNotFoundException, InvocationTargetException, ClassNotFoundException, ConstructorNotFoundException, ParameterProviderException, IllegalAccessException, InstantiationException
    {
       _oModelDefs             = oModelDefs;
       _oModelFactory          = oModelFactory;
       _oServletContext        = oServletContext;
-      _oAppScopeModelMap      = new Hashtable();   // we use a hashtable instead of a HashMap for safe concurrent access
+      _oSessionModelStore     = oSessionModelStore;
+      _oStatistics            = oStatistics;
+      _oFragmentCache         = oFragmentCache;
+      _oAppScopeModelMap      = new ConcurrentHashMap();   // readers never block, a refresh replaces a model with a single put
+
+      _aoSessionLockStripes   = new ReentrantLock[ SESSION_LOCK_STRIPE_COUNT ];
+      for ( int i = 0; i < _aoSessionLockStripes.length; i++ )
+      {
+         _aoSessionLockStripes[ i ] = new ReentrantLock();
+      }
+
+      _oSessionLockAcquisitionCounter  = oStatistics.getCounter( "model-pool.session-lock.acquisitions" );
+      _oSessionLockContentionCounter   = oStatistics.getCounter( "model-pool.session-lock.contentions" );
+      _oSessionLockWaitTimeCounter     = oStatistics.getCounter( "model-pool.session-lock.wait-time-ms" );
+
+      _oRequestEpochTracker            = new RequestEpochTracker();
+      _oRefreshScheduledMap            = new ConcurrentHashMap();
+      _oCacheScopeModelCacheMap        = new ConcurrentHashMap();
+      _oRetiringEvictionListener       = new RetiringEvictionListener();
+      _oRetiredModelPendingCounter     = oStatistics.getCounter( "model-pool.retired-models.pending" );
+      _oLog                            = LogFactory.getLog( ModelPool.class );
+
+      // the scheduler is started up front if some model is refreshed or is cache scope, otherwise only if an
+      // application scope model is replaced after its class was reloaded (see getScheduler())
+      for ( Iterator oIter = oModelDefs.getModelDefList().iterator(); oIter.hasNext(); )
+      {
+         Config.ModelDefs.ModelDef oModelDef = ( Config.ModelDefs.ModelDef ) oIter.next();
+
+         if ( oModelDef.isRefreshable() || oModelDef.isCacheScope() )
+         {
+            getScheduler();
+            break;
+         }
+      }
+   }
+
+   /**
+    * Returns the statistics registry of the dispatcher, the statistics registry is available for
+    * injection wherever models are available
+    *
+    * @return the statistics registry
+    */
+   public Statistics getStatistics()
+   {
+      return _oStatistics;
+   }
+
+   /**
+    * Returns the cache of rendered template fragments, the fragment cache is available for injection
+    * wherever models are available, so that application code can invalidate fragments
+    *
+    * @return the fragment cache
+    */
+   public FragmentCache getFragmentCache()
+   {
+      return _oFragmentCache;
+   }
+
+   /**
+    * Called when the dispatcher is shutdown to release the resources held by the pool
+    */
+   public synchronized void destroy()
+   {
+      if ( _oScheduler != null )
+      {
+         _oScheduler.shutdownNow();
+      }
+
+      _oSessionModelStore.destroy();
+   }
+
+   /**
+    * Called by the dispatcher when it starts processing a request, models replaced by a refresh are
+    * not destroyed until the requests that may be using them have ended
+    *
+    * @param oHttpServletRequest the request
+    */
+   public void requestStarted( HttpServletRequest oHttpServletRequest )
+   {
+      getRequestModelMap( oHttpServletRequest ).setEpochTicket( _oRequestEpochTracker.requestStarted() );
+   }
+
+   /**
+    * Called by the dispatcher when it completes processing a request, this also releases the session models
+    * pinned by the request
+    *
+    * @param oHttpServletRequest the request
+    */
+   public void requestEnded( HttpServletRequest oHttpServletRequest )
+   {
+      RequestModelMap oRequestModelMap = ( RequestModelMap ) oHttpServletRequest.getAttribute( REQUEST_MODEL_MAP_ATTRIBUTE );
+
+      if ( oRequestModelMap == null )
+      {
+         return;
+      }
+
+      try
+      {
+         if ( _oSessionModelStore instanceof PinnableSessionModelStore )
+         {
+            Object[] aoPins = oRequestModelMap.removeSessionModelPins();
+
+            for ( int i = 0; i < aoPins.length; i++ )
+            {
+               ( ( PinnableSessionModelStore ) _oSessionModelStore ).unpinModel( aoPins[ i ] );
+            }
+         }
+      }
+      finally
+      {
+         requestSuspended( oHttpServletRequest );
+      }
+   }
+
+   /**
+    * Called before a request sends a response body that may take long to send and that does not use models,
+    * such as a file download. Retired models are destroyed strictly in the order they were retired, so a
+    * request that stays open holds back the destruction of every model retired after it started. While a
+    * request is suspended it does not hold back the destruction of retired models, so the body it sends must
+    * not depend on a model that may be replaced by a refresh or evicted from the cache scope.
+    *
+    * @param oHttpServletRequest the request
+    * @return true if the request was suspended, in which case requestResumed() must be called before the
+    * request uses models again, false if the request was not being tracked
+    */
+   public boolean requestSuspended( HttpServletRequest oHttpServletRequest )
+   {
+      RequestModelMap oRequestModelMap = ( RequestModelMap ) oHttpServletRequest.getAttribute( REQUEST_MODEL_MAP_ATTRIBUTE );
+
+      if ( oRequestModelMap == null || oRequestModelMap.getEpochTicket() == null )
+      {
+         return false;
+      }
+
+      Object oTicket = oRequestModelMap.getEpochTicket();
+
+      oRequestModelMap.setEpochTicket( null );
+      _oRequestEpochTracker.requestEnded( oTicket );
+
+      return true;
+   }
+
+   /**
+    * Called after a request suspended by requestSuspended() completes its long send
+    *
+    * @param oHttpServletRequest the request
+    */
+   public void requestResumed( HttpServletRequest oHttpServletRequest )
+   {
+      requestStarted( oHttpServletRequest );
    }
 
    public void initAppModel( String sModelClassName )
@@ -122,6 +310,16 @@ public class ModelPool
       {
          oModel = getRequestScopeModel( oModelDef, oHttpServletRequest );
       }
+      else if ( oModelDef.isCacheScope() )
+      {
+         if ( oHttpServletRequest == null )
+         {
+            throw new IllegalArgumentException( "model-error: attempt to access cache scope model class: "
+                                                + sModelClassName
+                                                + " from a context where no request is available");
+         }
+         oModel = getCacheScopeModel( oModelDef, oHttpServletRequest );
+      }
       else
       {
          throw new IllegalArgumentException( "model-error: unknown scope for model class: " + sModelClassName );
@@ -203,6 +401,11 @@ public class ModelPool
                oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
 
                _oAppScopeModelMap.put( oModelDef.getModelClassName(), oModel );
+
+               if ( oModelDef.isRefreshable() )
+               {
+                  scheduleRefresh( oModelDef );
+               }
             }
          }
       }
@@ -212,13 +415,25 @@ public class ModelPool
          {
             synchronized ( oModelDef )
             {
-               Object oPreviousModel = oModel;
+               // check again, another thread may have replaced the stale instance while we waited on the lock
+               oModel = _oAppScopeModelMap.get( oModelDef.getModelClassName() );
 
-               oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
+               if ( oModel == null || _oModelFactory.isModelStale( oModelDef, oModel ) )
+               {
+                  Object oPreviousModel = oModel;
 
-               _oAppScopeModelMap.put( oModelDef.getModelClassName(), oModel );
+                  oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
 
-               ObjectFactory.destroyObject( oPreviousModel );
+                  _oAppScopeModelMap.put( oModelDef.getModelClassName(), oModel );
+
+                  // requests that read the previous instance may still be using it, so like a refresh
+                  // it is destroyed once those requests have ended
+                  if ( oPreviousModel != null )
+                  {
+                     getScheduler();
+                     _oRequestEpochTracker.retire( oPreviousModel );
+                  }
+               }
             }
          }
       }
@@ -226,6 +441,38 @@ public class ModelPool
       return oModel;
    }
 
+   /**
+    * Returns the scheduler that runs the refreshes and destroys retired models, the scheduler is started the
+    * first time a model is refreshed, is cache scope, or is replaced after its class was reloaded, since only
+    * those models retire instances that may still be in use by requests
+    */
+   private synchronized ScheduledExecutorService getScheduler()
+   {
+      if ( _oScheduler == null )
+      {
+         _oScheduler = new ScheduledThreadPoolExecutor( 1, new SchedulerThreadFactory() );
+         _oScheduler.scheduleWithFixedDelay( new ReclaimTask(),
+                                             RECLAIM_INTERVAL_IN_MILLIS,
+                                             RECLAIM_INTERVAL_IN_MILLIS,
+                                             TimeUnit.MILLISECONDS );
+      }
+
+      return _oScheduler;
+   }
+
+   private void scheduleRefresh( Config.ModelDefs.ModelDef oModelDef )
+   {
+      if ( _oRefreshScheduledMap.put( oModelDef.getModelClassName(), oModelDef ) == null )
+      {
+         long lRefreshIntervalInMillis = oModelDef.getRefreshIntervalInSeconds() * 1000L;
+
+         getScheduler().scheduleWithFixedDelay( new RefreshTask( oModelDef ),
+                                                lRefreshIntervalInMillis,
+                                                lRefreshIntervalInMillis,
+                                                TimeUnit.MILLISECONDS );
+      }
+   }
+
    private Object getSessionScopeModel( Config.ModelDefs.ModelDef oModelDef, HttpServletRequest oHttpServletRequest )
       throws MethodNotFoundException, ClassNotFoundException, InvocationTargetException, ParameterProviderException, ConstructorNotFoundException, InstantiationException, IllegalAccessException
    {
@@ -234,81 +481,316 @@ public class ModelPool
 
       oHttpSession = oHttpServletRequest.getSession( true );
 
-      oModel = oHttpSession.getAttribute( oModelDef.getModelClassName() );
+      // the model is pinned before it is read, so that the store keeps it in memory while the request uses it
+      pinSessionModel( oHttpSession, oModelDef.getModelClassName(), oHttpServletRequest );
 
-      if ( oModel == null )
+      oModel = _oSessionModelStore.getModel( oHttpSession, oModelDef.getModelClassName() );
+
+      // the common case, the model exists and is current, this path takes no locks
+      if ( oModel != null && ! _oModelFactory.isModelStale( oModelDef, oModel ) )
+      {
+         return oModel;
+      }
+
+      // the model needs to be created (or re-created), we lock on a stripe selected by the session id, rather
+      // than on the session object, since containers do not guarantee that the session object is the same
+      // across requests. A thread only holds the stripe of its own session, and the lock is re-entrant,
+      // so a session model that depends on another session model cannot deadlock.
+      ReentrantLock oSessionLock = lockSessionStripe( oHttpSession.getId() );
+
+      try
       {
-         synchronized ( oHttpSession )
+         // check again, we may have waited on the lock while some other thread was creating this model
+         oModel = _oSessionModelStore.getModel( oHttpSession, oModelDef.getModelClassName() );
+
+         if ( oModel == null )
          {
-            oModel = oHttpSession.getAttribute( oModelDef.getModelClassName() );
+            oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
 
-            if ( oModel == null )
-            {
-               oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
+            _oSessionModelStore.setModel( oHttpSession, oModelDef.getModelClassName(), oModel );
 
-               oHttpSession.setAttribute( oModelDef.getModelClassName(), oModel );
-            }
+            pinSessionModel( oHttpSession, oModelDef.getModelClassName(), oHttpServletRequest );
+         }
+         else if ( _oModelFactory.isModelStale( oModelDef, oModel ) )
+         {
+            Object oPreviousModel = oModel;
+
+            oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
+
+            _oSessionModelStore.setModel( oHttpSession, oModelDef.getModelClassName(), oModel );
+
+            pinSessionModel( oHttpSession, oModelDef.getModelClassName(), oHttpServletRequest );
+
+            ObjectFactory.destroyObject( oPreviousModel );
          }
       }
-      else
+      finally
+      {
+         oSessionLock.unlock();
+      }
+
+      return oModel;
+   }
+
+   /**
+    * Pins a session model for the duration of the request, if the session model store moves models out of
+    * memory
+    */
+   private void pinSessionModel( HttpSession oHttpSession, String sModelClassName, HttpServletRequest oHttpServletRequest )
+   {
+      if ( _oSessionModelStore instanceof PinnableSessionModelStore )
       {
-         synchronized ( oModel )
+         PinnableSessionModelStore  oPinnableSessionModelStore  = ( PinnableSessionModelStore ) _oSessionModelStore;
+         Object                     oPin                        = oPinnableSessionModelStore.pinModel( oHttpSession, sModelClassName );
+
+         if ( oPin != null && ! getRequestModelMap( oHttpServletRequest ).addSessionModelPin( oPin ) )
          {
-            if ( _oModelFactory.isModelStale( oModelDef, oModel ) )
-            {
-               Object oPreviousModel = oModel;
+            // the request already holds a pin of this model
+            oPinnableSessionModelStore.unpinModel( oPin );
+         }
+      }
+   }
 
-               oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
+   private ReentrantLock lockSessionStripe( String sSessionId )
+   {
+      // spread the hash bits, since session ids often share long common prefixes
+      int iHash = sSessionId.hashCode();
+      iHash ^= ( iHash >>> 20 ) ^ ( iHash >>> 12 );
+      iHash ^= ( iHash >>> 7 ) ^ ( iHash >>> 4 );
 
-               oHttpSession.setAttribute( oModelDef.getModelClassName(), oModel );
+      ReentrantLock oSessionLock = _aoSessionLockStripes[ iHash & ( SESSION_LOCK_STRIPE_COUNT - 1 ) ];
 
-               ObjectFactory.destroyObject( oPreviousModel );
-            }
+      _oSessionLockAcquisitionCounter.increment();
+
+      if ( ! oSessionLock.tryLock() )
+      {
+         long lWaitStart = System.currentTimeMillis();
+
+         oSessionLock.lock();
+
+         _oSessionLockContentionCounter.increment();
+         _oSessionLockWaitTimeCounter.add( System.currentTimeMillis() - lWaitStart );
+      }
+
+      return oSessionLock;
+   }
+
+   private Object getCacheScopeModel( Config.ModelDefs.ModelDef oModelDef, HttpServletRequest oHttpServletRequest )
+      throws MethodNotFoundException, ClassNotFoundException, InvocationTargetException, ParameterProviderException, ConstructorNotFoundException, InstantiationException, IllegalAccessException
+   {
+      ConcurrentLRUCache   oModelCache = getModelCache( oModelDef );
+      ModelKey             oModelKey   = createModelKey( oModelDef, oHttpServletRequest );
+      Object               oModel;
+
+      oModel = getCachedModel( oModelCache, oModelDef, oModelKey, oHttpServletRequest );
+
+      if ( _oModelFactory.isModelStale( oModelDef, oModel ) )
+      {
+         // only the thread that removes the stale instance retires it, other threads simply get the new instance
+         if ( oModelCache.remove( oModelKey, oModel ) )
+         {
+            _oRequestEpochTracker.retire( oModel );
          }
+
+         oModel = getCachedModel( oModelCache, oModelDef, oModelKey, oHttpServletRequest );
       }
 
       return oModel;
    }
 
+   private ConcurrentLRUCache getModelCache( Config.ModelDefs.ModelDef oModelDef )
+   {
+      ConcurrentLRUCache oModelCache = ( ConcurrentLRUCache ) _oCacheScopeModelCacheMap.get( oModelDef.getModelClassName() );
+
+      if ( oModelCache == null )
+      {
+         Config.ModelDefs.CacheSettings oCacheSettings = oModelDef.getCacheSettings();
+
+         oModelCache = new ConcurrentLRUCache( oCacheSettings.getMaxEntries(),
+                                               oCacheSettings.getTimeToLiveInSeconds() * 1000L,
+                                               _oRetiringEvictionListener,
+                                               _oStatistics,
+                                               "model-pool.cache." + oModelDef.getModelClassName() );
+
+         ConcurrentLRUCache oExistingModelCache
+            = ( ConcurrentLRUCache ) _oCacheScopeModelCacheMap.putIfAbsent( oModelDef.getModelClassName(), oModelCache );
+
+         if ( oExistingModelCache != null )
+         {
+            oModelCache = oExistingModelCache;
+         }
+      }
+
+      return oModelCache;
+   }
+
+   private ModelKey createModelKey( Config.ModelDefs.ModelDef oModelDef, HttpServletRequest oHttpServletRequest )
+   {
+      String[] asKeyParameterNames = oModelDef.getCacheSettings().getKeyParameterNames();
+
+      // if no key parameters are configured the model is keyed by the request path
+      if ( asKeyParameterNames.length == 0 )
+      {
+         return new ModelKey( new String[]{ "path" }, new String[]{ oHttpServletRequest.getPathInfo() } );
+      }
+
+      String[] asKeyParameterValues = new String[ asKeyParameterNames.length ];
+
+      for ( int i = 0; i < asKeyParameterNames.length; i++ )
+      {
+         asKeyParameterValues[ i ] = oHttpServletRequest.getParameter( asKeyParameterNames[ i ] );
+      }
+
+      return new ModelKey( asKeyParameterNames, asKeyParameterValues );
+   }
+
+   private Object getCachedModel( ConcurrentLRUCache                    oModelCache,
+                                  final Config.ModelDefs.ModelDef       oModelDef,
+                                  final ModelKey                        oModelKey,
+                                  final HttpServletRequest              oHttpServletRequest )
+      throws MethodNotFoundException, ClassNotFoundException, InvocationTargetException, ParameterProviderException, ConstructorNotFoundException, InstantiationException, IllegalAccessException
+   {
+      try
+      {
+         return oModelCache.get( oModelKey,
+                                 new ConcurrentLRUCache.Loader()
+                                 {
+                                    public Object load( Object oKey ) throws Exception
+                                    {
+                                       return _oModelFactory.createModel( oModelDef, oHttpServletRequest, oModelKey );
+                                    }
+                                 } );
+      }
+      catch ( ExecutionException e )
+      {
+         // rethrow the exception raised by the model factory (possibly in another thread sharing this load)
+         Throwable oCause = e.getCause();
+
+         if ( oCause instanceof MethodNotFoundException )
+         {  throw ( MethodNotFoundException ) oCause;     }
+         if ( oCause instanceof ClassNotFoundException )
+         {  throw ( ClassNotFoundException ) oCause;      }
+         if ( oCause instanceof InvocationTargetException )
+         {  throw ( InvocationTargetException ) oCause;   }
+         if ( oCause instanceof ParameterProviderException )
+         {  throw ( ParameterProviderException ) oCause;  }
+         if ( oCause instanceof ConstructorNotFoundException )
+         {  throw ( ConstructorNotFoundException ) oCause;   }
+         if ( oCause instanceof InstantiationException )
+         {  throw ( InstantiationException ) oCause;      }
+         if ( oCause instanceof IllegalAccessException )
+         {  throw ( IllegalAccessException ) oCause;      }
+         if ( oCause instanceof RuntimeException )
+         {  throw ( RuntimeException ) oCause;            }
+         if ( oCause instanceof Error )
+         {  throw ( Error ) oCause;                       }
+
+         throw new InvocationTargetException( oCause, "model-error: error creating cache scope model: " + oModelDef.getModelClassName() );
+      }
+   }
+
    private Object getRequestScopeModel( Config.ModelDefs.ModelDef oModelDef, HttpServletRequest oHttpServletRequest )
       throws MethodNotFoundException, ClassNotFoundException, InvocationTargetException, ParameterProviderException, ConstructorNotFoundException, InstantiationException, IllegalAccessException
    {
-      Object      oModel;
+      RequestModelMap   oRequestModelMap  = getRequestModelMap( oHttpServletRequest );
+      String            sModelClassName   = oModelDef.getModelClassName();
+      Object            oModel;
 
-      oModel = oHttpServletRequest.getAttribute( oModelDef.getModelClassName() );
+      oModel = oRequestModelMap.getModel( sModelClassName );
 
-      if ( oModel == null )
+      if ( oModel != null && ! _oModelFactory.isModelStale( oModelDef, oModel ) )
       {
-         synchronized ( oHttpServletRequest )
+         return oModel;
+      }
+
+      // we lock only this model, not the request, so that independent models of a request may be created
+      // concurrently by the prefetcher, the lock is re-entrant so cyclic dependencies are still reported
+      // by the model factory instead of deadlocking
+      ReentrantLock oModelLock = oRequestModelMap.getModelLock( sModelClassName );
+
+      oModelLock.lock();
+      try
+      {
+         oModel = oRequestModelMap.getModel( sModelClassName );
+
+         if ( oModel == null )
          {
-            oModel = oHttpServletRequest.getAttribute( oModelDef.getModelClassName() );
+            oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
 
-            if ( oModel == null )
-            {
-               oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
+            oRequestModelMap.putModel( sModelClassName, oModel );
+         }
+         else if ( _oModelFactory.isModelStale( oModelDef, oModel ) )
+         {
+            Object oPreviousModel = oModel;
 
-               oHttpServletRequest.setAttribute( oModelDef.getModelClassName(), oModel );
-            }
+            oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
+
+            oRequestModelMap.putModel( sModelClassName, oModel );
+
+            ObjectFactory.destroyObject( oPreviousModel );
+         }
+
+         // models created by prefetch threads, or by the request thread while the prefetch threads read the
+         // request, are published as request attributes later by the request thread
+         if ( oRequestModelMap.isRequestThread() && ! oRequestModelMap.isPrefetching() )
+         {
+            oHttpServletRequest.setAttribute( sModelClassName, oModel );
          }
       }
-      else
+      finally
       {
-         synchronized ( oModel )
-         {
-            if ( _oModelFactory.isModelStale( oModelDef, oModel ) )
-            {
-               Object oPreviousModel = oModel;
+         oModelLock.unlock();
+      }
 
-               oModel = _oModelFactory.createModel( oModelDef, oHttpServletRequest );
+      return oModel;
+   }
 
-               oHttpServletRequest.setAttribute( oModelDef.getModelClassName(), oModel );
+   /**
+    * Returns the map holding the request scope models of the specified request, the map is created by the first
+    * call for a request, which should be made by the thread processing the request
+    *
+    * @param oHttpServletRequest the request
+    * @return the request's model map
+    */
+   RequestModelMap getRequestModelMap( HttpServletRequest oHttpServletRequest )
+   {
+      RequestModelMap oRequestModelMap = ( RequestModelMap ) oHttpServletRequest.getAttribute( REQUEST_MODEL_MAP_ATTRIBUTE );
 
-               ObjectFactory.destroyObject( oPreviousModel );
+      if ( oRequestModelMap == null )
+      {
+         // this is the only point at which request scope model access locks the request, once per request
+         synchronized ( oHttpServletRequest )
+         {
+            oRequestModelMap = ( RequestModelMap ) oHttpServletRequest.getAttribute( REQUEST_MODEL_MAP_ATTRIBUTE );
+
+            if ( oRequestModelMap == null )
+            {
+               oRequestModelMap = new RequestModelMap();
+
+               oHttpServletRequest.setAttribute( REQUEST_MODEL_MAP_ATTRIBUTE, oRequestModelMap );
             }
          }
       }
 
-      return oModel;
+      return oRequestModelMap;
+   }
+
+   /**
+    * Publishes the request scope models of the specified request as request attributes, called by the request
+    * thread after models were created by other threads
+    *
+    * @param oHttpServletRequest the request
+    */
+   void publishRequestScopeModels( HttpServletRequest oHttpServletRequest )
+   {
+      Map oModelMap = getRequestModelMap( oHttpServletRequest ).getModelMap();
+
+      for ( Iterator oIter = oModelMap.entrySet().iterator(); oIter.hasNext(); )
+      {
+         Map.Entry oEntry = ( Map.Entry ) oIter.next();
+
+         oHttpServletRequest.setAttribute( ( String ) oEntry.getKey(), oEntry.getValue() );
+      }
    }
 
    public Object getSystemModel( Class oSystemModelClass, HttpServletRequest oHttpServletRequest )
@@ -327,6 +809,15 @@ public class ModelPool
 
       if ( oModel == null )
       {
+         // the prefetcher creates the system models that the prefetched models need before it starts the prefetch
+         // threads, a system model missing here would have to be written to the request by a prefetch thread
+         if ( getRequestModelMap( oHttpServletRequest ).isPrefetching() )
+         {
+            throw new IllegalStateException( "model-error: system model class: "
+                                             + oSystemModelClass.getName()
+                                             + " must be created by the request thread before models are prefetched" );
+         }
+
          synchronized ( oHttpServletRequest )
          {
             oModel = oHttpServletRequest.getAttribute( oSystemModelClass.getCanonicalName() );
@@ -342,6 +833,122 @@ public class ModelPool
 
       return oModel;
    }
+
+   /**
+    * Loads the keys submitted to the batch model of the specified request (if the request used the batch model)
+    * and not loaded yet. This is called before a view is rendered, so that the keys submitted while the models
+    * and the view were created are loaded with one call per batch loader.
+    *
+    * @param oHttpServletRequest the current request
+    * @throws BatchException if a batch loader failed
+    */
+   public void dispatchBatch( HttpServletRequest oHttpServletRequest ) throws BatchException
+   {
+      Batch oBatch = ( Batch ) oHttpServletRequest.getAttribute( Batch.class.getCanonicalName() );
+
+      if ( oBatch != null )
+      {
+         oBatch.dispatch();
+      }
+   }
+
+   /**
+    * Internal.
+    * Rebuilds a refreshable application scope model and swaps in the new instance. Readers are never blocked,
+    * a reader gets either the previous or the new instance, the previous instance is destroyed once the requests
+    * that may be using it have ended. If the rebuild fails the current instance stays in service.
+    */
+   private class RefreshTask implements Runnable
+   {
+      private Config.ModelDefs.ModelDef   _oModelDef;
+      private Counter                     _oRefreshCounter;
+      private Counter                     _oRefreshFailureCounter;
+      private Counter                     _oLastRefreshTimeCounter;
+      private Counter                     _oTotalRefreshTimeCounter;
+
+      private RefreshTask( Config.ModelDefs.ModelDef oModelDef )
+      {
+         String sCounterPrefix = "model-pool.refresh." + oModelDef.getModelClassName();
+
+         _oModelDef                 = oModelDef;
+         _oRefreshCounter           = _oStatistics.getCounter( sCounterPrefix + ".refreshes" );
+         _oRefreshFailureCounter    = _oStatistics.getCounter( sCounterPrefix + ".failures" );
+         _oLastRefreshTimeCounter   = _oStatistics.getCounter( sCounterPrefix + ".last-time-ms" );
+         _oTotalRefreshTimeCounter  = _oStatistics.getCounter( sCounterPrefix + ".total-time-ms" );
+      }
+
+      public void run()
+      {
+         long lStartTime = System.currentTimeMillis();
+
+         try
+         {
+            // the new instance is built without holding any lock
+            Object oModel = _oModelFactory.createModel( _oModelDef, null );
+            Object oPreviousModel;
+
+            // the lock only serializes the swap with a concurrent class-reload of the model
+            synchronized ( _oModelDef )
+            {
+               oPreviousModel = _oAppScopeModelMap.put( _oModelDef.getModelClassName(), oModel );
+            }
+
+            if ( oPreviousModel != null )
+            {
+               _oRequestEpochTracker.retire( oPreviousModel );
+            }
+
+            _oRefreshCounter.increment();
+         }
+         catch ( Exception e )
+         {
+            _oRefreshFailureCounter.increment();
+            _oLog.error( "model-pool: refresh failed for model: " + _oModelDef.getModelClassName(), e );
+         }
+
+         long lRefreshTime = System.currentTimeMillis() - lStartTime;
+
+         _oLastRefreshTimeCounter.set( lRefreshTime );
+         _oTotalRefreshTimeCounter.add( lRefreshTime );
+      }
+   }
+
+   /**
+    * Internal.
+    * Periodically destroys the retired model instances whose requests have drained.
+    */
+   private class ReclaimTask implements Runnable
+   {
+      public void run()
+      {
+         _oRetiredModelPendingCounter.set( _oRequestEpochTracker.reclaim() );
+      }
+   }
+
+   /**
+    * Internal.
+    * Cache scope models evicted from a cache may still be in use by in-flight requests, so they are retired rather
+    * than destroyed immediately.
+    */
+   private class RetiringEvictionListener implements ConcurrentLRUCache.EvictionListener
+   {
+      public void evicted( Object oKey, Object oModel )
+      {
+         _oRequestEpochTracker.retire( oModel );
+      }
+   }
+
+   private static class SchedulerThreadFactory implements ThreadFactory
+   {
+      public Thread newThread( Runnable oRunnable )
+      {
+         Thread oThread = new Thread( oRunnable, "induction-model-pool" );
+
+         oThread.setDaemon( true );
+
+         return oThread;
+      }
+   }
 }
 
 // EOF
\ No newline at end of file
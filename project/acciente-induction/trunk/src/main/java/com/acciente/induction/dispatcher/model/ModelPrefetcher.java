@@ -0,0 +1,640 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.model;
+
+import com.acciente.commons.reflect.ParameterProviderException;
+import com.acciente.induction.controller.Form;
+import com.acciente.induction.dispatcher.resolver.URLResolver;
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.model.Batch;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.ConstructorNotFoundException;
+import com.acciente.induction.util.MethodNotFoundException;
+import com.acciente.induction.util.ReflectUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Internal.
+ * This class creates the request and cache scope models needed by a controller method concurrently,
+ * before the method is invoked.
+ * <p>
+ * For each method a prefetch plan is computed once: the set of request and cache scope models the method
+ * needs (directly or through other models) arranged in levels, such that the models in a level depend only
+ * on models in earlier levels. The models of a level are created concurrently, one of them on the request
+ * thread and the others on the prefetch threads, and the next level starts when the level is complete.
+ * The first failure stops the prefetch and is reported to the caller, the models still being created on
+ * the prefetch threads are interrupted and waited for (until the prefetch timeout) before the request continues.
+ * <p>
+ * The request object is not thread safe, so the request thread parses the request parameters, and creates the
+ * session and the system models (Form, URLResolver, Batch) that a prefetched model may need, before the models
+ * are created on the prefetch threads. While the models are created no thread writes request attributes, the
+ * request scope models are published as request attributes by the request thread afterwards. When all prefetch
+ * threads are busy and the queue of waiting models is full a model is created on the request thread.
+ * <p>
+ * Methods that need fewer than two such models are not prefetched, since there is nothing to overlap.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ModelPrefetcher
+{
+   private static final Class[]        NO_CLASSES                    = new Class[ 0 ];
+   private static final PrefetchPlan   EMPTY_PLAN                    = new PrefetchPlan( null, new Config.ModelDefs.ModelDef[ 0 ][], false, NO_CLASSES );
+   private static final int            MAX_QUEUED_TASKS_PER_THREAD   = 4;
+
+   private static final int            TASK_PENDING                  = 0;
+   private static final int            TASK_STARTED                  = 1;
+   private static final int            TASK_ABANDONED                = 2;
+
+   private  ModelPool            _oModelPool;
+   private  Config.ModelDefs     _oModelDefs;
+   private  ClassLoader          _oClassLoader;
+   private  long                 _lTimeoutInMillis;
+   private  ThreadPoolExecutor   _oExecutor;
+   private  Map                  _oPrefetchPlanMap;
+   private  Log                  _oLog;
+
+   private  Counter              _oPrefetchCounter;
+   private  Counter              _oPrefetchedModelCounter;
+   private  Counter              _oPrefetchFailureCounter;
+   private  Counter              _oPrefetchTimeCounter;
+
+   public ModelPrefetcher( ModelPool oModelPool, Config.ModelDefs oModelDefs, ClassLoader oClassLoader, Statistics oStatistics )
+   {
+      Config.ModelDefs.Prefetch oPrefetchConfig = oModelDefs.getPrefetch();
+
+      _oModelPool       = oModelPool;
+      _oModelDefs       = oModelDefs;
+      _oClassLoader     = oClassLoader;
+      _lTimeoutInMillis = oPrefetchConfig.getTimeoutInMillis();
+      _oPrefetchPlanMap = new ConcurrentHashMap();
+      _oLog             = LogFactory.getLog( ModelPrefetcher.class );
+
+      if ( oPrefetchConfig.isEnabled() )
+      {
+         _oExecutor = new ThreadPoolExecutor( oPrefetchConfig.getThreadPoolSize(),
+                                              oPrefetchConfig.getThreadPoolSize(),
+                                              60, TimeUnit.SECONDS,
+                                              new ArrayBlockingQueue( oPrefetchConfig.getThreadPoolSize() * MAX_QUEUED_TASKS_PER_THREAD ),
+                                              new PrefetchThreadFactory(),
+                                              new ThreadPoolExecutor.CallerRunsPolicy() );
+      }
+
+      _oPrefetchCounter          = oStatistics.getCounter( "model-prefetch.prefetches" );
+      _oPrefetchedModelCounter   = oStatistics.getCounter( "model-prefetch.models" );
+      _oPrefetchFailureCounter   = oStatistics.getCounter( "model-prefetch.failures" );
+      _oPrefetchTimeCounter      = oStatistics.getCounter( "model-prefetch.time-ms" );
+   }
+
+   /**
+    * Creates the request and cache scope models needed by the specified method, if prefetching is enabled
+    *
+    * @param oMethod the controller method about to be invoked
+    * @param oHttpServletRequest the current request
+    * @throws ParameterProviderException if a model could not be created, the cause is the first failure
+    */
+   public void prefetch( Method oMethod, HttpServletRequest oHttpServletRequest ) throws ParameterProviderException
+   {
+      if ( _oExecutor == null )
+      {
+         return;
+      }
+
+      PrefetchPlan oPrefetchPlan = getPrefetchPlan( oMethod );
+
+      if ( oPrefetchPlan.isEmpty() )
+      {
+         return;
+      }
+
+      long lStartTime = System.currentTimeMillis();
+
+      // the request model map must be created by the request thread
+      RequestModelMap oRequestModelMap = _oModelPool.getRequestModelMap( oHttpServletRequest );
+
+      try
+      {
+         // the request object is not thread safe, so the state that the request creates lazily, and the system
+         // models (which are kept as request attributes), are created now by the request thread, after this the
+         // prefetch threads only read the request
+         oHttpServletRequest.getParameterMap();
+
+         if ( oPrefetchPlan._bNeedsSession )
+         {
+            oHttpServletRequest.getSession( true );
+         }
+
+         for ( int i = 0; i < oPrefetchPlan._aoSystemModelClasses.length; i++ )
+         {
+            _oModelPool.getSystemModel( oPrefetchPlan._aoSystemModelClasses[ i ], oHttpServletRequest );
+         }
+      }
+      catch ( Exception e )
+      {
+         _oPrefetchFailureCounter.increment();
+         throw toParameterProviderException( e );
+      }
+
+      oRequestModelMap.setPrefetching( true );
+      try
+      {
+         for ( int i = 0; i < oPrefetchPlan._aaoLevels.length; i++ )
+         {
+            prefetchLevel( oPrefetchPlan._aaoLevels[ i ], oHttpServletRequest, lStartTime + _lTimeoutInMillis );
+         }
+      }
+      catch ( ParameterProviderException e )
+      {
+         _oPrefetchFailureCounter.increment();
+         throw e;
+      }
+      finally
+      {
+         oRequestModelMap.setPrefetching( false );
+
+         _oModelPool.publishRequestScopeModels( oHttpServletRequest );
+
+         _oPrefetchCounter.increment();
+         _oPrefetchTimeCounter.add( System.currentTimeMillis() - lStartTime );
+      }
+   }
+
+   public void destroy()
+   {
+      if ( _oExecutor != null )
+      {
+         _oExecutor.shutdownNow();
+      }
+   }
+
+   private void prefetchLevel( Config.ModelDefs.ModelDef[] aoLevel, HttpServletRequest oHttpServletRequest, long lDeadline )
+      throws ParameterProviderException
+   {
+      CompletionService oCompletionService   = new ExecutorCompletionService( _oExecutor );
+      List              oFutureList          = new ArrayList();
+      List              oTaskList            = new ArrayList();
+      boolean           bCompleted           = false;
+
+      try
+      {
+         // all but the last model of the level are created on the prefetch threads ...
+         for ( int i = 0; i < aoLevel.length - 1; i++ )
+         {
+            PrefetchTask oPrefetchTask = new PrefetchTask( aoLevel[ i ], oHttpServletRequest );
+
+            oTaskList.add( oPrefetchTask );
+            oFutureList.add( oCompletionService.submit( oPrefetchTask ) );
+         }
+
+         // ... and the last on this thread
+         new PrefetchTask( aoLevel[ aoLevel.length - 1 ], oHttpServletRequest ).call();
+
+         // we wait in completion order, so the first failure is reported as soon as it happens
+         for ( int i = 0; i < oFutureList.size(); i++ )
+         {
+            long     lWaitTime   = lDeadline - System.currentTimeMillis();
+            Future   oFuture     = ( lWaitTime > 0 ) ? oCompletionService.poll( lWaitTime, TimeUnit.MILLISECONDS ) : null;
+
+            if ( oFuture == null )
+            {
+               throw new ParameterProviderException( "model-prefetch: timed out after " + _lTimeoutInMillis + " ms waiting for models" );
+            }
+
+            oFuture.get();
+         }
+
+         bCompleted = true;
+
+         _oPrefetchedModelCounter.add( aoLevel.length );
+      }
+      catch ( ExecutionException e )
+      {
+         throw toParameterProviderException( e.getCause() );
+      }
+      catch ( InterruptedException e )
+      {
+         Thread.currentThread().interrupt();
+         throw new ParameterProviderException( "model-prefetch: interrupted while waiting for models", e );
+      }
+      catch ( Exception e )
+      {
+         throw toParameterProviderException( e );
+      }
+      finally
+      {
+         if ( ! bCompleted )
+         {
+            abandonLevel( oFutureList, oTaskList, lDeadline );
+         }
+      }
+   }
+
+   /**
+    * Stops the creation of the models of a level that failed or timed out. The models not yet started are not
+    * created, the others are interrupted, and this method returns once no prefetch thread uses the request, or
+    * at the prefetch deadline, so that a model stuck in I/O that ignores the interrupt does not hold the request.
+    */
+   private void abandonLevel( List oFutureList, List oTaskList, long lDeadline )
+   {
+      boolean bInterrupted = false;
+
+      for ( Iterator oIter = oFutureList.iterator(); oIter.hasNext(); )
+      {
+         ( ( Future ) oIter.next() ).cancel( true );
+      }
+
+      for ( Iterator oIter = oTaskList.iterator(); oIter.hasNext(); )
+      {
+         PrefetchTask oPrefetchTask = ( PrefetchTask ) oIter.next();
+
+         while ( true )
+         {
+            try
+            {
+               if ( ! oPrefetchTask.abandon( lDeadline - System.currentTimeMillis() ) )
+               {
+                  _oLog.warn( "model-prefetch: continuing request while the creation of model: "
+                              + oPrefetchTask._oModelDef.getModelClassName()
+                              + " is still running after the timeout of " + _lTimeoutInMillis + " ms" );
+               }
+               break;
+            }
+            catch ( InterruptedException e )
+            {
+               // the request should not continue while a prefetch thread uses it, so we keep waiting
+               bInterrupted = true;
+            }
+         }
+      }
+
+      if ( bInterrupted )
+      {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private ParameterProviderException toParameterProviderException( Throwable oCause )
+   {
+      if ( oCause instanceof ParameterProviderException )
+      {
+         return ( ParameterProviderException ) oCause;
+      }
+
+      return new ParameterProviderException( "model-prefetch: error creating model", oCause );
+   }
+
+   private PrefetchPlan getPrefetchPlan( Method oMethod )
+   {
+      // the plans are keyed by the method signature, the identity check detects a reloaded controller class
+      String         sMethodKey     = oMethod.getDeclaringClass().getName() + "#" + oMethod.toString();
+      PrefetchPlan   oPrefetchPlan  = ( PrefetchPlan ) _oPrefetchPlanMap.get( sMethodKey );
+
+      if ( oPrefetchPlan == null || oPrefetchPlan._oMethod != oMethod )
+      {
+         oPrefetchPlan = createPrefetchPlan( oMethod );
+
+         _oPrefetchPlanMap.put( sMethodKey, oPrefetchPlan );
+      }
+
+      return oPrefetchPlan;
+   }
+
+   private PrefetchPlan createPrefetchPlan( Method oMethod )
+   {
+      // first find the prefetchable models the method needs, directly or through other models, and the
+      // prefetchable models each of them depends on
+      Map   oDependencyMap = new HashMap();    // model def -> set of the prefetchable model defs it depends on
+      Set   oVisitedSet    = new HashSet();
+
+      try
+      {
+         Set oDirectDependencySet = new LinkedHashSet();
+
+         collectDependencies( oMethod.getParameterTypes(), oDirectDependencySet, oDependencyMap, oVisitedSet );
+      }
+      catch ( Exception e )
+      {
+         // the problem (for example a model without a usable constructor) is reported by the regular resolution
+         _oLog.debug( "model-prefetch: not prefetching models of method: " + oMethod, e );
+
+         return new PrefetchPlan( oMethod, EMPTY_PLAN._aaoLevels, false, NO_CLASSES );
+      }
+
+      if ( oDependencyMap.size() < 2 )
+      {
+         return new PrefetchPlan( oMethod, EMPTY_PLAN._aaoLevels, false, NO_CLASSES );
+      }
+
+      // next arrange the models in levels, a model is placed in the first level after all its dependencies
+      List  oLevelList  = new ArrayList();
+      Set   oPlacedSet  = new HashSet();
+
+      while ( oPlacedSet.size() < oDependencyMap.size() )
+      {
+         List oLevel = new ArrayList();
+
+         for ( Iterator oIter = oDependencyMap.entrySet().iterator(); oIter.hasNext(); )
+         {
+            Map.Entry oEntry = ( Map.Entry ) oIter.next();
+
+            if ( ! oPlacedSet.contains( oEntry.getKey() ) && oPlacedSet.containsAll( ( Set ) oEntry.getValue() ) )
+            {
+               oLevel.add( oEntry.getKey() );
+            }
+         }
+
+         if ( oLevel.isEmpty() )
+         {
+            // cyclic dependency, the model factory reports it when the models are created the regular way
+            return new PrefetchPlan( oMethod, EMPTY_PLAN._aaoLevels, false, NO_CLASSES );
+         }
+
+         oPlacedSet.addAll( oLevel );
+         oLevelList.add( oLevel.toArray( new Config.ModelDefs.ModelDef[ oLevel.size() ] ) );
+      }
+
+      Set      oSystemModelClassSet = new LinkedHashSet();
+      boolean  bNeedsSession        = findRequestState( oDependencyMap.keySet(), oSystemModelClassSet );
+
+      return new PrefetchPlan( oMethod,
+                               ( Config.ModelDefs.ModelDef[][] ) oLevelList.toArray( new Config.ModelDefs.ModelDef[ oLevelList.size() ][] ),
+                               bNeedsSession,
+                               ( Class[] ) oSystemModelClassSet.toArray( new Class[ oSystemModelClassSet.size() ] ) );
+   }
+
+   /**
+    * Finds the request state that creating the specified models may create: the session, if one of the models,
+    * or a model one of them depends on, is a session scope model or receives the session, and the system models
+    * that the models receive, which are kept as request attributes
+    *
+    * @param oModelDefSet the models to be prefetched
+    * @param oSystemModelClassSet the set to which the classes of the system models needed are added
+    * @return true if creating the models may create or use the session
+    */
+   private boolean findRequestState( Set oModelDefSet, Set oSystemModelClassSet )
+   {
+      Set      oVisitedSet    = new HashSet();
+      List     oPendingList   = new ArrayList( oModelDefSet );
+      boolean  bNeedsSession  = false;
+
+      try
+      {
+         while ( ! oPendingList.isEmpty() )
+         {
+            Config.ModelDefs.ModelDef oModelDef = ( Config.ModelDefs.ModelDef ) oPendingList.remove( oPendingList.size() - 1 );
+
+            if ( ! oVisitedSet.add( oModelDef ) )
+            {
+               continue;
+            }
+
+            if ( oModelDef.isSessionScope() )
+            {
+               bNeedsSession = true;
+            }
+
+            Class[] aoTypes = getModelDependencyTypes( oModelDef );
+
+            for ( int i = 0; i < aoTypes.length; i++ )
+            {
+               // the types are checked in the order used by ModelFactory to resolve a model's parameters
+               if ( aoTypes[ i ].isAssignableFrom( Form.class ) )
+               {
+                  oSystemModelClassSet.add( Form.class );
+               }
+               else if ( aoTypes[ i ].isAssignableFrom( HttpServletRequest.class ) )
+               {
+                  // the model receives the request itself, and may only read it on a prefetch thread
+               }
+               else if ( aoTypes[ i ].isAssignableFrom( URLResolver.class ) )
+               {
+                  oSystemModelClassSet.add( URLResolver.class );
+               }
+               else if ( aoTypes[ i ].isAssignableFrom( Batch.class ) )
+               {
+                  oSystemModelClassSet.add( Batch.class );
+               }
+               else if ( HttpSession.class.isAssignableFrom( aoTypes[ i ] ) )
+               {
+                  bNeedsSession = true;
+               }
+               else
+               {
+                  Config.ModelDefs.ModelDef oDependencyModelDef = _oModelDefs.getModelDef( aoTypes[ i ].getCanonicalName() );
+
+                  if ( oDependencyModelDef != null )
+                  {
+                     oPendingList.add( oDependencyModelDef );
+                  }
+               }
+            }
+         }
+
+         return bNeedsSession;
+      }
+      catch ( Exception e )
+      {
+         // the plan was computed using the same lookups, so this is not expected, we assume the worst
+         oSystemModelClassSet.add( Form.class );
+         oSystemModelClassSet.add( Batch.class );
+
+         return true;
+      }
+   }
+
+   /**
+    * Adds to oDependencySet the prefetchable models among the specified types, and recursively the prefetchable
+    * models those depend on, to oDependencyMap
+    */
+   private void collectDependencies( Class[] aoTypes, Set oDependencySet, Map oDependencyMap, Set oVisitedSet )
+      throws ClassNotFoundException, ConstructorNotFoundException, MethodNotFoundException
+   {
+      for ( int i = 0; i < aoTypes.length; i++ )
+      {
+         Config.ModelDefs.ModelDef oModelDef = _oModelDefs.getModelDef( aoTypes[ i ].getCanonicalName() );
+
+         if ( oModelDef == null )
+         {
+            continue;
+         }
+
+         boolean bIsPrefetchable = oModelDef.isRequestScope() || oModelDef.isCacheScope();
+
+         if ( bIsPrefetchable )
+         {
+            oDependencySet.add( oModelDef );
+         }
+
+         if ( oVisitedSet.add( oModelDef ) )
+         {
+            Set oModelDependencySet = new LinkedHashSet();
+
+            collectDependencies( getModelDependencyTypes( oModelDef ), oModelDependencySet, oDependencyMap, oVisitedSet );
+
+            if ( bIsPrefetchable )
+            {
+               oDependencyMap.put( oModelDef, oModelDependencySet );
+            }
+            else
+            {
+               // a model of another scope is not prefetched, but its prefetchable dependencies are
+               oDependencySet.addAll( oModelDependencySet );
+            }
+         }
+         else if ( ! bIsPrefetchable )
+         {
+            // a model of another scope seen before, we still need its prefetchable dependencies
+            Set oModelDependencySet = new LinkedHashSet();
+
+            collectDependencies( getModelDependencyTypes( oModelDef ), oModelDependencySet, oDependencyMap, new HashSet( oVisitedSet ) );
+
+            oDependencySet.addAll( oModelDependencySet );
+         }
+      }
+   }
+
+   private Class[] getModelDependencyTypes( Config.ModelDefs.ModelDef oModelDef )
+      throws ClassNotFoundException, ConstructorNotFoundException, MethodNotFoundException
+   {
+      if ( oModelDef.hasModelFactoryClassName() )
+      {
+         Class oModelFactoryClass = _oClassLoader.loadClass( oModelDef.getModelFactoryClassName() );
+
+         return ReflectUtils.getSingletonMethod( oModelFactoryClass, "createModel", true ).getParameterTypes();
+      }
+      else
+      {
+         Class oModelClass = _oClassLoader.loadClass( oModelDef.getModelClassName() );
+
+         return ReflectUtils.getSingletonConstructor( oModelClass ).getParameterTypes();
+      }
+   }
+
+   private static class PrefetchPlan
+   {
+      private Method                         _oMethod;
+      private Config.ModelDefs.ModelDef[][]  _aaoLevels;
+      private boolean                        _bNeedsSession;
+      private Class[]                        _aoSystemModelClasses;
+
+      private PrefetchPlan( Method oMethod, Config.ModelDefs.ModelDef[][] aaoLevels, boolean bNeedsSession, Class[] aoSystemModelClasses )
+      {
+         _oMethod                = oMethod;
+         _aaoLevels              = aaoLevels;
+         _bNeedsSession          = bNeedsSession;
+         _aoSystemModelClasses   = aoSystemModelClasses;
+      }
+
+      private boolean isEmpty()
+      {
+         return _aaoLevels.length == 0;
+      }
+   }
+
+   private class PrefetchTask implements Callable
+   {
+      private Config.ModelDefs.ModelDef   _oModelDef;
+      private HttpServletRequest          _oHttpServletRequest;
+      private AtomicInteger               _oState     = new AtomicInteger( TASK_PENDING );
+      private CountDownLatch              _oFinished  = new CountDownLatch( 1 );
+
+      private PrefetchTask( Config.ModelDefs.ModelDef oModelDef, HttpServletRequest oHttpServletRequest )
+      {
+         _oModelDef           = oModelDef;
+         _oHttpServletRequest = oHttpServletRequest;
+      }
+
+      public Object call() throws Exception
+      {
+         if ( ! _oState.compareAndSet( TASK_PENDING, TASK_STARTED ) )
+         {
+            // the level was abandoned before this task started
+            throw new CancellationException();
+         }
+
+         try
+         {
+            return _oModelPool.getModel( _oClassLoader.loadClass( _oModelDef.getModelClassName() ), _oHttpServletRequest );
+         }
+         finally
+         {
+            _oFinished.countDown();
+         }
+      }
+
+      /**
+       * Prevents this task from starting, or if it started waits for it to finish
+       *
+       * @param lWaitMillis the longest time to wait
+       * @return false if the task is still running
+       */
+      private boolean abandon( long lWaitMillis ) throws InterruptedException
+      {
+         if ( _oState.compareAndSet( TASK_PENDING, TASK_ABANDONED ) )
+         {
+            return true;
+         }
+
+         return _oFinished.await( Math.max( 0, lWaitMillis ), TimeUnit.MILLISECONDS );
+      }
+   }
+
+   private static class PrefetchThreadFactory implements ThreadFactory
+   {
+      private AtomicInteger _oThreadCounter = new AtomicInteger();
+
+      public Thread newThread( Runnable oRunnable )
+      {
+         Thread oThread = new Thread( oRunnable, "induction-model-prefetch-" + _oThreadCounter.incrementAndGet() );
+
+         oThread.setDaemon( true );
+
+         return oThread;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
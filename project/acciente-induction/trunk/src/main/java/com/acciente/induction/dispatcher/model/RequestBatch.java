@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.model;
+
+import com.acciente.induction.model.Batch;
+import com.acciente.induction.model.BatchException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Internal.
+ * The request scoped implementation of the Batch system model. It keeps, per loader, the keys waiting to be
+ * loaded and the values (or failures) of the keys already loaded.
+ * <p>
+ * The first read of a value that is not loaded, including a key that was never submitted, loads the pending
+ * keys of all the loaders, so a template that reads values while rendering does not load them one at a time.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class RequestBatch implements Batch
+{
+   private BatchLoaderPool _oBatchLoaderPool;
+   private Map             _oLoaderStateMap;
+
+   public RequestBatch( BatchLoaderPool oBatchLoaderPool )
+   {
+      _oBatchLoaderPool = oBatchLoaderPool;
+      _oLoaderStateMap  = new LinkedHashMap();
+   }
+
+   public Value load( String sBatchLoaderName, Object oKey ) throws BatchException
+   {
+      LoaderState oLoaderState = getLoaderState( sBatchLoaderName );
+
+      oLoaderState.submit( oKey );
+
+      return new KeyValue( oLoaderState, oKey );
+   }
+
+   public Object get( String sBatchLoaderName, Object oKey ) throws BatchException
+   {
+      return getLoaderState( sBatchLoaderName ).get( oKey );
+   }
+
+   public void dispatch() throws BatchException
+   {
+      LoaderState[]  aoLoaderStates  = getLoaderStates();
+      BatchException oFirstError     = null;
+
+      for ( int i = 0; i < aoLoaderStates.length; i++ )
+      {
+         try
+         {
+            aoLoaderStates[ i ].dispatch();
+         }
+         catch ( BatchException e )
+         {
+            if ( oFirstError == null )
+            {
+               oFirstError = e;
+            }
+         }
+      }
+
+      if ( oFirstError != null )
+      {
+         throw oFirstError;
+      }
+   }
+
+   private LoaderState[] getLoaderStates()
+   {
+      synchronized ( _oLoaderStateMap )
+      {
+         return ( LoaderState[] ) _oLoaderStateMap.values().toArray( new LoaderState[ _oLoaderStateMap.size() ] );
+      }
+   }
+
+   /**
+    * Loads the pending keys of the specified loader, and then those of the other loaders. The failures are
+    * remembered for each key and reported when a failed value is read, so they are not thrown here.
+    */
+   private void dispatchFor( LoaderState oLoaderState )
+   {
+      LoaderState[] aoLoaderStates = getLoaderStates();
+
+      try
+      {
+         oLoaderState.dispatch();
+      }
+      catch ( BatchException e )
+      {
+         // remembered for each key
+      }
+
+      for ( int i = 0; i < aoLoaderStates.length; i++ )
+      {
+         try
+         {
+            aoLoaderStates[ i ].dispatch();
+         }
+         catch ( BatchException e )
+         {
+            // remembered for each key
+         }
+      }
+   }
+
+   private LoaderState getLoaderState( String sBatchLoaderName ) throws BatchException
+   {
+      synchronized ( _oLoaderStateMap )
+      {
+         LoaderState oLoaderState = ( LoaderState ) _oLoaderStateMap.get( sBatchLoaderName );
+
+         if ( oLoaderState == null )
+         {
+            if ( ! _oBatchLoaderPool.isBatchLoaderDefined( sBatchLoaderName ) )
+            {
+               throw new BatchException( "batch-error: no batch loader configured with name: " + sBatchLoaderName );
+            }
+
+            oLoaderState = new LoaderState( sBatchLoaderName );
+
+            _oLoaderStateMap.put( sBatchLoaderName, oLoaderState );
+         }
+
+         return oLoaderState;
+      }
+   }
+
+   /**
+    * The keys and values of one loader, all methods synchronize on the instance so a key is never loaded twice,
+    * a thread needing a key that is being loaded by another thread waits for that load to complete. A thread
+    * holds the lock of at most one loader at a time.
+    */
+   private class LoaderState
+   {
+      private String _sBatchLoaderName;
+      private Set    _oPendingKeySet   = new LinkedHashSet();
+      private Map    _oValueMap        = new HashMap();
+      private Map    _oFailureMap      = new HashMap();
+
+      private LoaderState( String sBatchLoaderName )
+      {
+         _sBatchLoaderName = sBatchLoaderName;
+      }
+
+      private synchronized void submit( Object oKey )
+      {
+         if ( ! isLoaded( oKey ) )
+         {
+            _oPendingKeySet.add( oKey );
+         }
+      }
+
+      private synchronized boolean isLoaded( Object oKey )
+      {
+         return _oValueMap.containsKey( oKey ) || _oFailureMap.containsKey( oKey );
+      }
+
+      private Object get( Object oKey ) throws BatchException
+      {
+         if ( ! isLoaded( oKey ) )
+         {
+            // the key is queued and loaded along with the keys waiting for this and the other loaders
+            submit( oKey );
+
+            dispatchFor( this );
+         }
+
+         return getLoaded( oKey );
+      }
+
+      private synchronized Object getLoaded( Object oKey ) throws BatchException
+      {
+         BatchException oFailure = ( BatchException ) _oFailureMap.get( oKey );
+
+         if ( oFailure != null )
+         {
+            throw oFailure;
+         }
+
+         return _oValueMap.get( oKey );
+      }
+
+      private synchronized void dispatch() throws BatchException
+      {
+         if ( _oPendingKeySet.isEmpty() )
+         {
+            return;
+         }
+
+         List oKeyList = new ArrayList( _oPendingKeySet );
+
+         _oPendingKeySet.clear();
+
+         try
+         {
+            Map oLoadedValueMap = _oBatchLoaderPool.load( _sBatchLoaderName, oKeyList );
+
+            for ( Iterator oIter = oKeyList.iterator(); oIter.hasNext(); )
+            {
+               Object oKey = oIter.next();
+
+               _oValueMap.put( oKey, oLoadedValueMap.get( oKey ) );
+            }
+         }
+         catch ( BatchException e )
+         {
+            // the failure is remembered for each key, so that the failure is reported to every caller of the key
+            // and the key is not retried for the rest of the request
+            for ( Iterator oIter = oKeyList.iterator(); oIter.hasNext(); )
+            {
+               _oFailureMap.put( oIter.next(), e );
+            }
+
+            throw e;
+         }
+      }
+   }
+
+   private static class KeyValue implements Value
+   {
+      private LoaderState  _oLoaderState;
+      private Object       _oKey;
+
+      private KeyValue( LoaderState oLoaderState, Object oKey )
+      {
+         _oLoaderState  = oLoaderState;
+         _oKey          = oKey;
+      }
+
+      public Object get() throws BatchException
+      {
+         return _oLoaderState.get( _oKey );
+      }
+
+      public boolean isLoaded()
+      {
+         return _oLoaderState.isLoaded( _oKey );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
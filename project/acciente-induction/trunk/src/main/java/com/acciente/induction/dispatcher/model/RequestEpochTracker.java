@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.model;
+
+import com.acciente.induction.util.ObjectFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Internal.
+ * This class tracks in-flight requests so that a model instance that was replaced while requests may
+ * still be using it is destroyed only after those requests have completed (a read-copy-update scheme).
+ * <p>
+ * Each request is counted against the epoch that is current when it starts. Retiring a model closes the
+ * current epoch and starts a new one, a retired model is destroyed once every request that started in
+ * its epoch, or in an earlier epoch, has ended. Starting and ending a request never blocks.
+ * <p>
+ * Since a request that started in an earlier epoch may hold any model retired later, one open request holds
+ * back the destruction of every model retired after it started. A request that sends a long response body
+ * without using models (a download or an event stream) therefore ends its ticket before the send, and takes
+ * a new ticket after it (see ModelPool.requestSuspended()).
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class RequestEpochTracker
+{
+   private AtomicReference _oCurrentEpoch       = new AtomicReference( new Epoch() );
+   private LinkedList      _oClosedEpochList    = new LinkedList();    // guarded by this, oldest epoch first
+   private Log             _oLog                = LogFactory.getLog( RequestEpochTracker.class );
+
+   /**
+    * Called when a request starts
+    *
+    * @return a ticket that must be passed to requestEnded() when the request ends
+    */
+   public Object requestStarted()
+   {
+      while ( true )
+      {
+         Epoch oEpoch = ( Epoch ) _oCurrentEpoch.get();
+
+         oEpoch._oActiveRequestCount.incrementAndGet();
+
+         // if the epoch was closed before we were counted the retiring thread may have missed us, since
+         // we have not yet read any model we can simply back out and join the new epoch
+         if ( _oCurrentEpoch.get() == oEpoch )
+         {
+            return oEpoch;
+         }
+
+         oEpoch._oActiveRequestCount.decrementAndGet();
+      }
+   }
+
+   /**
+    * Called when a request ends
+    *
+    * @param oTicket the ticket returned by requestStarted()
+    */
+   public void requestEnded( Object oTicket )
+   {
+      ( ( Epoch ) oTicket )._oActiveRequestCount.decrementAndGet();
+   }
+
+   /**
+    * Schedules a model instance for destruction once the requests that may be using it have ended, the caller
+    * must have already made the instance unreachable to new requests
+    *
+    * @param oModel the model instance being replaced
+    */
+   public synchronized void retire( Object oModel )
+   {
+      Epoch oClosedEpoch = ( Epoch ) _oCurrentEpoch.getAndSet( new Epoch() );
+
+      oClosedEpoch._oRetiredModelList.add( oModel );
+
+      _oClosedEpochList.addLast( oClosedEpoch );
+   }
+
+   /**
+    * Destroys the retired models whose requests have drained
+    *
+    * @return the number of models still waiting to be destroyed
+    */
+   public int reclaim()
+   {
+      List oReclaimableModelList = new ArrayList();
+      int  iPendingModelCount    = 0;
+
+      synchronized ( this )
+      {
+         // epochs are reclaimed strictly in order, since a request of an earlier epoch may still hold a model
+         // retired in a later epoch
+         while ( ! _oClosedEpochList.isEmpty()
+                 && ( ( Epoch ) _oClosedEpochList.getFirst() )._oActiveRequestCount.get() == 0 )
+         {
+            oReclaimableModelList.addAll( ( ( Epoch ) _oClosedEpochList.removeFirst() )._oRetiredModelList );
+         }
+
+         for ( Iterator oIter = _oClosedEpochList.iterator(); oIter.hasNext(); )
+         {
+            iPendingModelCount += ( ( Epoch ) oIter.next() )._oRetiredModelList.size();
+         }
+      }
+
+      for ( Iterator oIter = oReclaimableModelList.iterator(); oIter.hasNext(); )
+      {
+         Object oModel = oIter.next();
+
+         try
+         {
+            ObjectFactory.destroyObject( oModel );
+         }
+         catch ( InvocationTargetException e )
+         {
+            _oLog.error( "model-pool: error destroying retired model of class: " + oModel.getClass().getName(), e );
+         }
+         catch ( IllegalAccessException e )
+         {
+            _oLog.error( "model-pool: error destroying retired model of class: " + oModel.getClass().getName(), e );
+         }
+      }
+
+      return iPendingModelCount;
+   }
+
+   private static class Epoch
+   {
+      private AtomicInteger   _oActiveRequestCount = new AtomicInteger();
+      private List            _oRetiredModelList   = new ArrayList();
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Internal.
+ * This class holds the request scope models of a single request. Each model has its own lock, so
+ * independent models of the same request may be created concurrently (see ModelPrefetcher). It also holds
+ * the pins of the session models used by the request, which are released when the request ends, and the
+ * ticket with which the request is tracked by the RequestEpochTracker.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+class RequestModelMap
+{
+   private ConcurrentHashMap  _oModelMap            = new ConcurrentHashMap();
+   private ConcurrentHashMap  _oModelLockMap        = new ConcurrentHashMap();
+   private ConcurrentHashMap  _oSessionModelPinMap  = new ConcurrentHashMap();    // used as a concurrent set
+   private Thread             _oRequestThread       = Thread.currentThread();
+   private Object             _oEpochTicket;                                  // null while the request is not tracked
+   private volatile boolean   _bPrefetching;
+
+   Object getModel( String sModelClassName )
+   {
+      return _oModelMap.get( sModelClassName );
+   }
+
+   void putModel( String sModelClassName, Object oModel )
+   {
+      _oModelMap.put( sModelClassName, oModel );
+   }
+
+   Map getModelMap()
+   {
+      return _oModelMap;
+   }
+
+   ReentrantLock getModelLock( String sModelClassName )
+   {
+      ReentrantLock oModelLock = ( ReentrantLock ) _oModelLockMap.get( sModelClassName );
+
+      if ( oModelLock == null )
+      {
+         oModelLock = new ReentrantLock();
+
+         ReentrantLock oExistingModelLock = ( ReentrantLock ) _oModelLockMap.putIfAbsent( sModelClassName, oModelLock );
+
+         if ( oExistingModelLock != null )
+         {
+            oModelLock = oExistingModelLock;
+         }
+      }
+
+      return oModelLock;
+   }
+
+   /**
+    * @param oPin a pin of a session model
+    * @return true if the pin was added, false if the request already holds a pin of the same model
+    */
+   boolean addSessionModelPin( Object oPin )
+   {
+      return _oSessionModelPinMap.putIfAbsent( oPin, oPin ) == null;
+   }
+
+   /**
+    * @return the pins of the session models used by the request, the pins are removed from this map
+    */
+   Object[] removeSessionModelPins()
+   {
+      Object[] aoPins = _oSessionModelPinMap.keySet().toArray();
+
+      _oSessionModelPinMap.clear();
+
+      return aoPins;
+   }
+
+   Object getEpochTicket()
+   {
+      return _oEpochTicket;
+   }
+
+   void setEpochTicket( Object oEpochTicket )
+   {
+      _oEpochTicket = oEpochTicket;
+   }
+
+   /**
+    * @return true while models are being created by prefetch threads, during which no thread may write the
+    * request attributes
+    */
+   boolean isPrefetching()
+   {
+      return _bPrefetching;
+   }
+
+   void setPrefetching( boolean bPrefetching )
+   {
+      _bPrefetching = bPrefetching;
+   }
+
+   /**
+    * @return true if the current thread is the thread that is processing the request, containers do not
+    * guarantee that request attributes may be safely written by other threads
+    */
+   boolean isRequestThread()
+   {
+      return Thread.currentThread() == _oRequestThread;
+   }
+}
+
+// EOF
\ No newline at end of file
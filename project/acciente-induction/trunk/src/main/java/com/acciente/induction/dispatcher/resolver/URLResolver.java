@@ -19,6 +19,7 @@ package com.acciente.induction.dispatcher.resolver;
 
 import com.acciente.commons.reflect.ParameterProviderException;
 import com.acciente.induction.controller.Redirect;
+import com.acciente.induction.dispatcher.asset.StaticAssetServer;
 
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.InvocationTargetException;
@@ -35,12 +36,21 @@ public class URLResolver
 {
    private RedirectResolverExecutor _oRedirectResolverExecutor;
    private HttpServletRequest       _oHttpServletRequest;
+   private StaticAssetServer        _oStaticAssetServer;
 
    public URLResolver( RedirectResolverExecutor oRedirectResolverExecutor,
                        HttpServletRequest       oHttpServletRequest )
+   {
+      this( oRedirectResolverExecutor, oHttpServletRequest, null );
+   }
+
+   public URLResolver( RedirectResolverExecutor oRedirectResolverExecutor,
+                       HttpServletRequest       oHttpServletRequest,
+                       StaticAssetServer        oStaticAssetServer )
    {
       _oRedirectResolverExecutor = oRedirectResolverExecutor;
       _oHttpServletRequest       = oHttpServletRequest;
+      _oStaticAssetServer        = oStaticAssetServer;
    }
 
 
@@ -123,4 +133,22 @@ public class URLResolver
    {
       return _oRedirectResolverExecutor.resolveRedirect( _oHttpServletRequest, new Redirect( sURLPart, oURLQueryParameters ) );
    }
+
+   /**
+    * Use to resolve the URL of a static asset. If static assets are served by Induction the URL contains a
+    * fingerprint of the current content of the asset, so that the browser can cache the asset indefinitely.
+    * If static assets are not configured the path is resolved like any other partial URL.
+    *
+    * @param sAssetPath the path of the asset relative to the static asset directories, e.g. css/site.css
+    * @return a string representing a complete URL
+    */
+   public String resolveAsset( String sAssetPath )
+   {
+      if ( _oStaticAssetServer == null )
+      {
+         return resolve( sAssetPath );
+      }
+
+      return _oStaticAssetServer.getURL( sAssetPath, _oHttpServletRequest );
+   }
 }
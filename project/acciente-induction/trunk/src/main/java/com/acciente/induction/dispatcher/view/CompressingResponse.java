@@ -0,0 +1,566 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Internal.
+ * A response wrapper that gzip compresses the output of a view as it is written.
+ * <p>
+ * The first min-size bytes of output are held back, if the view completes within them the output is sent
+ * uncompressed with a Content-Length, otherwise the response is compressed if its content type is compressible
+ * and the request accepts gzip. From then on the output is compressed as it is written, and a flush of the
+ * writer (for example by a streaming template) flushes the compressed output written so far to the client.
+ * <p>
+ * An ETag set by the view is changed to the ETag of the compressed representation when the response is
+ * compressed, and Vary: Accept-Encoding is added to every response of a compressible content type.
+ * <p>
+ * This class is not thread safe, it is used by a single request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class CompressingResponse extends HttpServletResponseWrapper
+{
+   private static final int   MODE_UNDECIDED    = 0;
+   private static final int   MODE_PLAIN        = 1;
+   private static final int   MODE_COMPRESSED   = 2;
+
+   private ResponseCompression   _oCompression;
+   private boolean               _bAccepted;
+
+   private int                   _iMode;
+   private byte[]                _ayHeldBuffer;
+   private int                   _iHeldLength;
+   private int                   _iContentLength;
+   private String                _sETag;
+   private int                   _iStatus;
+   private boolean               _bEncoded;
+
+   private Deflater              _oDeflater;
+   private CRC32                 _oCRC;
+   private long                  _lInputLength;
+   private long                  _lOutputLength;
+   private boolean               _bHeaderPending;
+   private byte[]                _ayDeflateBuffer;
+   private OutputStream          _oTargetStream;
+
+   private ServletOutputStream   _oOutputStream;
+   private PrintWriter           _oWriter;
+
+   public CompressingResponse( HttpServletResponse oResponse, ResponseCompression oCompression, boolean bAccepted )
+   {
+      super( oResponse );
+
+      _oCompression     = oCompression;
+      _bAccepted        = bAccepted;
+      _iMode            = MODE_UNDECIDED;
+      _ayHeldBuffer     = new byte[ oCompression.getMinSize() ];
+      _iHeldLength      = 0;
+      _iContentLength   = -1;
+      _iStatus          = SC_OK;
+   }
+
+   /**
+    * Completes the response, sends the output held back, or the end of the compressed output, and returns the
+    * deflater to its pool. Must be called once the view has completed normally.
+    *
+    * @throws IOException if the output could not be sent
+    */
+   public void finish() throws IOException
+   {
+      if ( _oWriter != null )
+      {
+         _oWriter.flush();
+      }
+
+      if ( _iMode == MODE_UNDECIDED )
+      {
+         decide( true );
+      }
+
+      if ( _iMode == MODE_COMPRESSED )
+      {
+         finishDeflater();
+      }
+
+      if ( _oTargetStream != null )
+      {
+         _oTargetStream.flush();
+      }
+   }
+
+   /**
+    * Ends the use of the wrapper after the view failed. If compressed output has reached the client the
+    * compressed stream is completed so that the client can read the output sent, otherwise the output is dropped
+    * so that an error response can be sent on the wrapped response.
+    */
+   public void abandon()
+   {
+      if ( _iMode == MODE_COMPRESSED )
+      {
+         if ( isCommitted() )
+         {
+            try
+            {
+               finishDeflater();
+               _oTargetStream.flush();
+            }
+            catch ( IOException e )
+            {
+               // the client has gone, there is nothing more to send
+            }
+         }
+         else
+         {
+            super.resetBuffer();
+
+            // the servlet api has no way to remove a header
+            super.setHeader( "Content-Encoding", "identity" );
+         }
+      }
+
+      releaseDeflater();
+
+      _iHeldLength   = 0;
+      _iMode         = MODE_PLAIN;
+   }
+
+   public ServletOutputStream getOutputStream() throws IOException
+   {
+      if ( _oOutputStream == null )
+      {
+         _oOutputStream = new ServletOutputStream()
+         {
+            public void write( int iByte ) throws IOException
+            {
+               writeOutput( new byte[]{ ( byte ) iByte }, 0, 1 );
+            }
+
+            public void write( byte[] ayBytes, int iOffset, int iLength ) throws IOException
+            {
+               writeOutput( ayBytes, iOffset, iLength );
+            }
+
+            public void flush() throws IOException
+            {
+               flushOutput();
+            }
+         };
+      }
+
+      return _oOutputStream;
+   }
+
+   public PrintWriter getWriter() throws IOException
+   {
+      if ( _oWriter == null )
+      {
+         _oWriter = new PrintWriter( new OutputStreamWriter( getOutputStream(), getCharacterEncoding() ) );
+      }
+
+      return _oWriter;
+   }
+
+   public void flushBuffer() throws IOException
+   {
+      if ( _oWriter != null )
+      {
+         _oWriter.flush();
+      }
+
+      // an explicit flush is a request to send the output so far, so we stop holding it back
+      if ( _iMode == MODE_UNDECIDED && _iHeldLength > 0 )
+      {
+         decide( false );
+      }
+
+      flushOutput();
+      super.flushBuffer();
+   }
+
+   public void reset()
+   {
+      super.reset();
+
+      releaseDeflater();
+
+      _iMode            = MODE_UNDECIDED;
+      _iHeldLength      = 0;
+      _iContentLength   = -1;
+      _sETag            = null;
+      _iStatus          = SC_OK;
+      _bEncoded         = false;
+   }
+
+   public void resetBuffer()
+   {
+      if ( _oWriter != null )
+      {
+         // chars still in the writer belong to the output being dropped
+         _oWriter.flush();
+      }
+
+      super.resetBuffer();
+
+      _iHeldLength = 0;
+
+      if ( _iMode == MODE_COMPRESSED )
+      {
+         // the compressed output written so far was dropped with the buffer, so the compressed stream starts over
+         _oDeflater.reset();
+         _oCRC.reset();
+         _lInputLength     = 0;
+         _lOutputLength    = 0;
+         _bHeaderPending   = true;
+      }
+   }
+
+   public void setContentLength( int iLength )
+   {
+      // the length is only known to be right if the output is not compressed
+      _iContentLength = iLength;
+
+      if ( _iMode == MODE_PLAIN )
+      {
+         super.setContentLength( iLength );
+      }
+   }
+
+   public void setStatus( int iStatus )
+   {
+      super.setStatus( iStatus );
+
+      _iStatus = iStatus;
+   }
+
+   public void setStatus( int iStatus, String sMessage )
+   {
+      setStatus( iStatus );
+   }
+
+   public void sendError( int iStatus ) throws IOException
+   {
+      endBeforeSend();
+      super.sendError( iStatus );
+   }
+
+   public void sendError( int iStatus, String sMessage ) throws IOException
+   {
+      endBeforeSend();
+      super.sendError( iStatus, sMessage );
+   }
+
+   public void sendRedirect( String sLocation ) throws IOException
+   {
+      endBeforeSend();
+      super.sendRedirect( sLocation );
+   }
+
+   public void setHeader( String sName, String sValue )
+   {
+      if ( interceptHeader( sName, sValue ) )
+      {
+         super.setHeader( sName, sValue );
+      }
+   }
+
+   public void addHeader( String sName, String sValue )
+   {
+      if ( interceptHeader( sName, sValue ) )
+      {
+         super.addHeader( sName, sValue );
+      }
+   }
+
+   public void setIntHeader( String sName, int iValue )
+   {
+      if ( "Content-Length".equalsIgnoreCase( sName ) )
+      {
+         setContentLength( iValue );
+         return;
+      }
+
+      super.setIntHeader( sName, iValue );
+   }
+
+   public void addIntHeader( String sName, int iValue )
+   {
+      if ( "Content-Length".equalsIgnoreCase( sName ) )
+      {
+         setContentLength( iValue );
+         return;
+      }
+
+      super.addIntHeader( sName, iValue );
+   }
+
+   /**
+    * @return true if the header should be passed on to the wrapped response now
+    */
+   private boolean interceptHeader( String sName, String sValue )
+   {
+      if ( _iMode != MODE_UNDECIDED )
+      {
+         if ( "ETag".equalsIgnoreCase( sName ) && _iMode == MODE_COMPRESSED && sValue != null )
+         {
+            super.setHeader( sName, ResponseCompression.toCompressedETag( sValue ) );
+            return false;
+         }
+
+         if ( "Content-Length".equalsIgnoreCase( sName ) )
+         {
+            setContentLength( Integer.parseInt( sValue.trim() ) );
+            return false;
+         }
+
+         return true;
+      }
+
+      if ( "Content-Length".equalsIgnoreCase( sName ) )
+      {
+         _iContentLength = Integer.parseInt( sValue.trim() );
+         return false;
+      }
+
+      if ( "ETag".equalsIgnoreCase( sName ) )
+      {
+         // the ETag depends on whether the output is compressed, so it is set when that is decided
+         _sETag = sValue;
+         return false;
+      }
+
+      if ( "Content-Encoding".equalsIgnoreCase( sName ) )
+      {
+         // the view sends output that is already encoded
+         _bEncoded = true;
+      }
+
+      return true;
+   }
+
+   private void endBeforeSend() throws IOException
+   {
+      if ( _iMode == MODE_UNDECIDED )
+      {
+         _iHeldLength = 0;
+         decide( true );
+      }
+   }
+
+   /**
+    * Decides whether the output is compressed, and sends the output held back so far
+    *
+    * @param bComplete true if the view has completed, so the output held back is the complete output
+    */
+   private void decide( boolean bComplete ) throws IOException
+   {
+      boolean bCompressible = ! _bEncoded
+                              && _iStatus != SC_NO_CONTENT
+                              && _iStatus != SC_NOT_MODIFIED
+                              && _iStatus != SC_PARTIAL_CONTENT
+                              && _oCompression.isCompressible( getContentType() );
+
+      if ( bCompressible )
+      {
+         // caches must keep the compressed and the uncompressed responses apart
+         super.addHeader( "Vary", "Accept-Encoding" );
+      }
+
+      if ( bCompressible && _bAccepted && ( ! bComplete || ( _iHeldLength > 0 && _iHeldLength >= _oCompression.getMinSize() ) ) )
+      {
+         _iMode            = MODE_COMPRESSED;
+         _oDeflater        = _oCompression.acquireDeflater();
+         _oCRC             = new CRC32();
+         _ayDeflateBuffer  = new byte[ 8192 ];
+
+         super.setHeader( "Content-Encoding", "gzip" );
+
+         if ( _sETag != null )
+         {
+            super.setHeader( "ETag", ResponseCompression.toCompressedETag( _sETag ) );
+         }
+
+         _bHeaderPending   = true;
+
+         deflate( _ayHeldBuffer, 0, _iHeldLength );
+      }
+      else
+      {
+         _iMode = MODE_PLAIN;
+
+         if ( _sETag != null )
+         {
+            // a 304 response confirms the representation the client would have received
+            super.setHeader( "ETag",
+                             bCompressible && _bAccepted && _iStatus == SC_NOT_MODIFIED
+                             ? ResponseCompression.toCompressedETag( _sETag )
+                             : _sETag );
+         }
+
+         if ( bComplete )
+         {
+            super.setContentLength( _iHeldLength );
+         }
+         else if ( _iContentLength >= 0 )
+         {
+            super.setContentLength( _iContentLength );
+         }
+
+         if ( _iHeldLength > 0 )
+         {
+            writeTarget( _ayHeldBuffer, 0, _iHeldLength );
+         }
+      }
+
+      _iHeldLength = 0;
+   }
+
+   private void writeOutput( byte[] ayBytes, int iOffset, int iLength ) throws IOException
+   {
+      if ( _iMode == MODE_UNDECIDED )
+      {
+         if ( _iHeldLength + iLength <= _ayHeldBuffer.length )
+         {
+            System.arraycopy( ayBytes, iOffset, _ayHeldBuffer, _iHeldLength, iLength );
+            _iHeldLength += iLength;
+            return;
+         }
+
+         decide( false );
+      }
+
+      if ( _iMode == MODE_COMPRESSED )
+      {
+         deflate( ayBytes, iOffset, iLength );
+      }
+      else
+      {
+         writeTarget( ayBytes, iOffset, iLength );
+      }
+   }
+
+   private void flushOutput() throws IOException
+   {
+      // output held back stays held back, so that a view that flushes its writer when done is still sent with
+      // a Content-Length if it is small
+      if ( _iMode == MODE_COMPRESSED )
+      {
+         int iLength;
+
+         do
+         {
+            iLength = _oDeflater.deflate( _ayDeflateBuffer, 0, _ayDeflateBuffer.length, Deflater.SYNC_FLUSH );
+            writeCompressed( _ayDeflateBuffer, 0, iLength );
+         }
+         while ( iLength == _ayDeflateBuffer.length );
+      }
+
+      if ( _oTargetStream != null )
+      {
+         _oTargetStream.flush();
+      }
+   }
+
+   private void deflate( byte[] ayBytes, int iOffset, int iLength ) throws IOException
+   {
+      if ( iLength == 0 )
+      {
+         return;
+      }
+
+      _oCRC.update( ayBytes, iOffset, iLength );
+      _lInputLength += iLength;
+
+      _oDeflater.setInput( ayBytes, iOffset, iLength );
+
+      while ( ! _oDeflater.needsInput() )
+      {
+         writeCompressed( _ayDeflateBuffer, 0, _oDeflater.deflate( _ayDeflateBuffer ) );
+      }
+   }
+
+   private void finishDeflater() throws IOException
+   {
+      _oDeflater.finish();
+
+      while ( ! _oDeflater.finished() )
+      {
+         writeCompressed( _ayDeflateBuffer, 0, _oDeflater.deflate( _ayDeflateBuffer ) );
+      }
+
+      ResponseCompression.writeTrailer( _ayDeflateBuffer, _oCRC.getValue(), _lInputLength );
+      writeCompressed( _ayDeflateBuffer, 0, 8 );
+
+      _oCompression.recordCompressed( _lInputLength, _lOutputLength );
+
+      releaseDeflater();
+      _iMode = MODE_PLAIN;
+   }
+
+   private void releaseDeflater()
+   {
+      if ( _oDeflater != null )
+      {
+         _oCompression.releaseDeflater( _oDeflater );
+         _oDeflater = null;
+      }
+   }
+
+   private void writeCompressed( byte[] ayBytes, int iOffset, int iLength ) throws IOException
+   {
+      if ( _bHeaderPending && iLength > 0 )
+      {
+         // the header is written with the first compressed output, so that it is written again if the buffer is
+         // reset before the response is committed
+         _bHeaderPending = false;
+
+         writeTarget( ResponseCompression.getGZIPHeader(), 0, ResponseCompression.getGZIPHeader().length );
+      }
+
+      writeTarget( ayBytes, iOffset, iLength );
+   }
+
+   private void writeTarget( byte[] ayBytes, int iOffset, int iLength ) throws IOException
+   {
+      if ( iLength == 0 )
+      {
+         return;
+      }
+
+      if ( _oTargetStream == null )
+      {
+         _oTargetStream = super.getOutputStream();
+      }
+
+      _oTargetStream.write( ayBytes, iOffset, iLength );
+      _lOutputLength += iLength;
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Internal.
+ * Implements the validators (ETag and Last-Modified) and the conditional request headers (If-None-Match and
+ * If-Modified-Since) for view responses.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ConditionalGet
+{
+   private static final char[]   HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+   private  boolean  _bComputeETags;
+   private  Counter  _oNotModifiedCounter;
+
+   public ConditionalGet( Config.ConditionalGet oConditionalGetConfig, Statistics oStatistics )
+   {
+      _bComputeETags       = oConditionalGetConfig.isComputeETags();
+      _oNotModifiedCounter = oStatistics.getCounter( "conditional-get.not-modified" );
+   }
+
+   /**
+    * @return true if ETags should be computed from the output of views that do not provide a version
+    */
+   public boolean isComputeETags()
+   {
+      return _bComputeETags;
+   }
+
+   /**
+    * Sets the validators on the response and, if the request is a conditional request that the validators
+    * satisfy, sends a 304 response.
+    *
+    * @param oRequest the request
+    * @param oResponse the response
+    * @param sETag a quoted ETag, or null
+    * @param lLastModified a time in milliseconds, or -1
+    * @return true if a 304 response was sent, in which case no body must be written
+    */
+   public boolean checkNotModified( HttpServletRequest oRequest, HttpServletResponse oResponse, String sETag, long lLastModified )
+   {
+      if ( sETag != null )
+      {
+         oResponse.setHeader( "ETag", sETag );
+      }
+
+      if ( lLastModified >= 0 )
+      {
+         oResponse.setDateHeader( "Last-Modified", lLastModified );
+      }
+
+      // output collected for the output cache must be complete, the output cache answers the conditional
+      // request itself when it sends the output
+      if ( oResponse instanceof OutputCaptureResponse )
+      {
+         return false;
+      }
+
+      if ( isNotModified( oRequest, sETag, lLastModified ) )
+      {
+         oResponse.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+         _oNotModifiedCounter.increment();
+
+         return true;
+      }
+
+      return false;
+   }
+
+   /**
+    * @param oRequest the request
+    * @param sETag a quoted ETag, or null
+    * @param lLastModified a time in milliseconds, or -1
+    * @return true if the request is a conditional GET or HEAD request that the validators satisfy
+    */
+   public boolean isNotModified( HttpServletRequest oRequest, String sETag, long lLastModified )
+   {
+      String sMethod = oRequest.getMethod();
+
+      if ( ! "GET".equals( sMethod ) && ! "HEAD".equals( sMethod ) )
+      {
+         return false;
+      }
+
+      String sIfNoneMatch = oRequest.getHeader( "If-None-Match" );
+
+      // when both headers are present If-None-Match takes precedence (RFC 7232, section 6)
+      if ( sIfNoneMatch != null )
+      {
+         return sETag != null && isETagListMatch( sIfNoneMatch, sETag );
+      }
+
+      if ( lLastModified >= 0 )
+      {
+         long lIfModifiedSince;
+
+         try
+         {
+            lIfModifiedSince = oRequest.getDateHeader( "If-Modified-Since" );
+         }
+         catch ( IllegalArgumentException e )
+         {
+            // an unparseable date is ignored
+            return false;
+         }
+
+         // HTTP dates have a resolution of one second
+         return lIfModifiedSince >= 0 && lLastModified / 1000 <= lIfModifiedSince / 1000;
+      }
+
+      return false;
+   }
+
+   /**
+    * @param sVersion a version string provided by a view
+    * @return the version as a strong ETag
+    */
+   public static String toETag( String sVersion )
+   {
+      StringBuffer oBuffer = new StringBuffer( sVersion.length() + 2 );
+
+      oBuffer.append( '"' );
+      for ( int i = 0; i < sVersion.length(); i++ )
+      {
+         char cChar = sVersion.charAt( i );
+
+         // an ETag cannot contain a quote, a backslash, a space or control characters
+         oBuffer.append( cChar > 0x20 && cChar < 0x7f && cChar != '"' && cChar != '\\' ? cChar : '_' );
+      }
+      oBuffer.append( '"' );
+
+      return oBuffer.toString();
+   }
+
+   /**
+    * @param ayBytes the bytes of the output
+    * @param iOffset the offset of the output in the array
+    * @param iLength the length of the output
+    * @return a strong ETag computed from the bytes of the output
+    */
+   public static String computeETag( byte[] ayBytes, int iOffset, int iLength )
+   {
+      MessageDigest oDigest;
+
+      try
+      {
+         oDigest = MessageDigest.getInstance( "MD5" );
+      }
+      catch ( NoSuchAlgorithmException e )
+      {
+         // every java platform is required to support MD5
+         throw new IllegalStateException( "conditional-get: MD5 digest not available" );
+      }
+
+      oDigest.update( ayBytes, iOffset, iLength );
+
+      byte[]         ayDigest = oDigest.digest();
+      StringBuffer   oBuffer  = new StringBuffer( ayDigest.length * 2 + 2 );
+
+      oBuffer.append( '"' );
+      for ( int i = 0; i < ayDigest.length; i++ )
+      {
+         oBuffer.append( HEX_DIGITS[ ( ayDigest[ i ] >> 4 ) & 0xf ] );
+         oBuffer.append( HEX_DIGITS[ ayDigest[ i ] & 0xf ] );
+      }
+      oBuffer.append( '"' );
+
+      return oBuffer.toString();
+   }
+
+   private static boolean isETagListMatch( String sIfNoneMatch, String sETag )
+   {
+      String[] asTags = sIfNoneMatch.split( "," );
+
+      for ( int i = 0; i < asTags.length; i++ )
+      {
+         String sTag = asTags[ i ].trim();
+
+         if ( sTag.equals( "*" ) )
+         {
+            return true;
+         }
+
+         // If-None-Match uses the weak comparison
+         if ( sTag.startsWith( "W/" ) )
+         {
+            sTag = sTag.substring( 2 );
+         }
+
+         // a compressed response carries a variant of the ETag of the uncompressed output
+         if ( sTag.equals( sETag ) || sTag.equals( ResponseCompression.toCompressedETag( sETag ) ) )
+         {
+            return true;
+         }
+      }
+
+      return false;
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,495 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.view.EventChannel;
+import com.acciente.induction.view.EventStream;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Internal.
+ * Sends event stream views. Each open stream is subscribed to its event channel with a bounded queue of
+ * encoded events, a stream whose queue is full is closed.
+ * <p>
+ * If the request supports asynchronous processing (checked with reflection, since Induction is built
+ * against the Servlet 2.4 API) the request is put in asynchronous mode and released, the queued events and
+ * the heartbeats are written by a shared pool of writer threads, and the stream ends when the channel is
+ * closed, a write fails or the container reports that the request completed. Otherwise the request thread
+ * writes the events and heartbeats of the stream until it ends, the caller suspends the request's model
+ * pool ticket (see ModelPool.requestSuspended()) so that an open stream does not keep retired models alive.
+ * <p>
+ * The following counters are published: event-stream.open-streams, event-stream.events-sent,
+ * event-stream.slow-clients-closed.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class EventStreamSender
+{
+   private static final byte[]   HEARTBEAT         = { ':', '\n', '\n' };
+   private static final byte[]   END_OF_STREAM     = new byte[ 0 ];
+
+   // the Servlet 3.0 asynchronous processing API, null if the container does not provide it
+   private static final Method   REQUEST_IS_ASYNC_SUPPORTED;
+   private static final Method   REQUEST_START_ASYNC;
+   private static final Method   ASYNC_CONTEXT_SET_TIMEOUT;
+   private static final Method   ASYNC_CONTEXT_ADD_LISTENER;
+   private static final Method   ASYNC_CONTEXT_COMPLETE;
+   private static final Class    ASYNC_LISTENER_CLASS;
+
+   static
+   {
+      Method   oIsAsyncSupported = null;
+      Method   oStartAsync       = null;
+      Method   oSetTimeout       = null;
+      Method   oAddListener      = null;
+      Method   oComplete         = null;
+      Class    oAsyncListener    = null;
+
+      try
+      {
+         Class oAsyncContextClass = Class.forName( "javax.servlet.AsyncContext", false, ServletRequest.class.getClassLoader() );
+
+         oAsyncListener    = Class.forName( "javax.servlet.AsyncListener", false, ServletRequest.class.getClassLoader() );
+         oIsAsyncSupported = ServletRequest.class.getMethod( "isAsyncSupported", new Class[ 0 ] );
+         oStartAsync       = ServletRequest.class.getMethod( "startAsync", new Class[ 0 ] );
+         oSetTimeout       = oAsyncContextClass.getMethod( "setTimeout", new Class[]{ long.class } );
+         oAddListener      = oAsyncContextClass.getMethod( "addListener", new Class[]{ oAsyncListener } );
+         oComplete         = oAsyncContextClass.getMethod( "complete", new Class[ 0 ] );
+      }
+      catch ( ClassNotFoundException e )
+      {
+         oStartAsync = null;
+      }
+      catch ( NoSuchMethodException e )
+      {
+         oStartAsync = null;
+      }
+
+      REQUEST_IS_ASYNC_SUPPORTED = oIsAsyncSupported;
+      REQUEST_START_ASYNC        = oStartAsync;
+      ASYNC_CONTEXT_SET_TIMEOUT  = oSetTimeout;
+      ASYNC_CONTEXT_ADD_LISTENER = oAddListener;
+      ASYNC_CONTEXT_COMPLETE     = oComplete;
+      ASYNC_LISTENER_CLASS       = oAsyncListener;
+   }
+
+   private  long                       _lHeartbeatMillis;
+   private  int                        _iMaxQueuedEvents;
+   private  byte[]                     _ayStreamStart;
+
+   private  ExecutorService            _oWriterExecutor;
+   private  ScheduledExecutorService   _oHeartbeatExecutor;
+   private  Set                        _oOpenStreamSet;
+   private  Log                        _oLog;
+
+   private  Counter                    _oOpenStreamCounter;
+   private  Counter                    _oEventsSentCounter;
+   private  Counter                    _oSlowClientCounter;
+
+   public EventStreamSender( Config.EventStream oEventStreamConfig, Statistics oStatistics )
+   {
+      _lHeartbeatMillis    = oEventStreamConfig.getHeartbeatInterval() * 1000L;
+      _iMaxQueuedEvents    = oEventStreamConfig.getMaxQueuedEvents();
+      _ayStreamStart       = oEventStreamConfig.getRetry() > 0
+                             ? ( "retry: " + oEventStreamConfig.getRetry() + "\n\n" ).getBytes()
+                             : HEARTBEAT;
+
+      // a writer thread blocks while a client is slow to read, so writer threads are created as needed
+      _oWriterExecutor     = Executors.newCachedThreadPool( new DaemonThreadFactory( "induction-event-stream-writer" ) );
+      _oHeartbeatExecutor  = Executors.newSingleThreadScheduledExecutor( new DaemonThreadFactory( "induction-event-stream-heartbeat" ) );
+      _oOpenStreamSet      = ConcurrentHashMap.newKeySet();
+      _oLog                = LogFactory.getLog( EventStreamSender.class );
+
+      _oOpenStreamCounter  = oStatistics.getCounter( "event-stream.open-streams" );
+      _oEventsSentCounter  = oStatistics.getCounter( "event-stream.events-sent" );
+      _oSlowClientCounter  = oStatistics.getCounter( "event-stream.slow-clients-closed" );
+   }
+
+   public void send( HttpServletRequest oRequest, HttpServletResponse oResponse, EventStream oEventStream )
+      throws IOException
+   {
+      EventChannel oEventChannel = oEventStream.getEventChannel();
+
+      if ( oEventChannel == null )
+      {
+         throw new IllegalArgumentException( "EventStream must provide an event channel" );
+      }
+
+      oResponse.setContentType( "text/event-stream; charset=UTF-8" );
+      oResponse.setHeader( "Cache-Control", "no-cache" );
+      // stops buffering by an nginx proxy
+      oResponse.setHeader( "X-Accel-Buffering", "no" );
+
+      OutputStream oOutputStream = oResponse.getOutputStream();
+
+      // the headers are sent right away, so that the browser knows the stream is open
+      oOutputStream.write( _ayStreamStart );
+      oOutputStream.flush();
+
+      Object oAsyncContext = startAsync( oRequest );
+      Stream oStream       = new Stream( oEventChannel, oOutputStream, oAsyncContext );
+
+      if ( ! oEventChannel.subscribe( oStream ) )
+      {
+         oStream.close();
+         return;
+      }
+
+      if ( oAsyncContext != null )
+      {
+         oStream.scheduleHeartbeats();
+      }
+      else
+      {
+         oStream.runBlocking();
+      }
+   }
+
+   /**
+    * Ends the open streams and stops the writer and heartbeat threads
+    */
+   public void destroy()
+   {
+      for ( Iterator oIter = _oOpenStreamSet.iterator(); oIter.hasNext(); )
+      {
+         ( ( Stream ) oIter.next() ).close();
+      }
+
+      _oHeartbeatExecutor.shutdownNow();
+      _oWriterExecutor.shutdown();
+   }
+
+   /**
+    * @return the async context of the request, or null if the request does not support asynchronous processing
+    */
+   private Object startAsync( HttpServletRequest oRequest )
+   {
+      if ( REQUEST_START_ASYNC == null )
+      {
+         return null;
+      }
+
+      try
+      {
+         if ( ! ( ( Boolean ) REQUEST_IS_ASYNC_SUPPORTED.invoke( oRequest, ( Object[] ) null ) ).booleanValue() )
+         {
+            return null;
+         }
+
+         Object oAsyncContext = REQUEST_START_ASYNC.invoke( oRequest, ( Object[] ) null );
+
+         // the stream ends when the client disconnects or the channel is closed, not after a timeout
+         ASYNC_CONTEXT_SET_TIMEOUT.invoke( oAsyncContext, new Object[]{ new Long( 0 ) } );
+
+         return oAsyncContext;
+      }
+      catch ( Exception e )
+      {
+         // for example a request wrapper that does not support asynchronous processing
+         _oLog.warn( "event-stream: unable to start asynchronous processing, stream will hold the request thread", e );
+         return null;
+      }
+   }
+
+   /**
+    * An open stream, subscribed to its event channel
+    */
+   private class Stream implements EventChannel.Subscriber, Runnable, InvocationHandler
+   {
+      private  EventChannel      _oEventChannel;
+      private  OutputStream      _oOutputStream;
+      private  Object            _oAsyncContext;
+      private  BlockingQueue     _oEventQueue;
+      private  AtomicBoolean     _oWriteScheduled  = new AtomicBoolean();
+      private  AtomicBoolean     _oClosed          = new AtomicBoolean();
+      private  ScheduledFuture   _oHeartbeatFuture;
+      private  volatile boolean  _bHeartbeatDue;
+
+      private Stream( EventChannel oEventChannel, OutputStream oOutputStream, Object oAsyncContext )
+      {
+         _oEventChannel = oEventChannel;
+         _oOutputStream = oOutputStream;
+         _oAsyncContext = oAsyncContext;
+         _oEventQueue   = new ArrayBlockingQueue( _iMaxQueuedEvents );
+
+         _oOpenStreamSet.add( this );
+         _oOpenStreamCounter.increment();
+
+         if ( _oAsyncContext != null )
+         {
+            addAsyncListener();
+         }
+      }
+
+      public void deliver( byte[] ayEvent )
+      {
+         if ( _oClosed.get() )
+         {
+            return;
+         }
+
+         if ( ! _oEventQueue.offer( ayEvent ) )
+         {
+            // the client does not keep up, we do not let it hold an unbounded number of events
+            _oSlowClientCounter.increment();
+            close();
+            return;
+         }
+
+         scheduleWrite();
+      }
+
+      public void close()
+      {
+         if ( ! _oClosed.compareAndSet( false, true ) )
+         {
+            return;
+         }
+
+         _oEventChannel.unsubscribe( this );
+         _oOpenStreamSet.remove( this );
+         _oOpenStreamCounter.decrement();
+
+         if ( _oHeartbeatFuture != null )
+         {
+            _oHeartbeatFuture.cancel( false );
+         }
+
+         if ( _oAsyncContext != null )
+         {
+            try
+            {
+               ASYNC_CONTEXT_COMPLETE.invoke( _oAsyncContext, ( Object[] ) null );
+            }
+            catch ( Exception e )
+            {
+               // the request already completed, e.g. the client disconnected
+            }
+         }
+         else
+         {
+            // wakes up the request thread, if the queue is full the thread finds the stream closed after
+            // writing the queued events
+            _oEventQueue.offer( END_OF_STREAM );
+         }
+      }
+
+      /**
+       * Writes the queued events on a writer thread, in asynchronous mode
+       */
+      public void run()
+      {
+         _oWriteScheduled.set( false );
+
+         writeQueuedEvents( null );
+      }
+
+      /**
+       * Receives the AsyncListener calls of the container, any of which means that the request is over
+       */
+      public Object invoke( Object oProxy, Method oMethod, Object[] aoArgs )
+      {
+         if ( oMethod.getDeclaringClass() == Object.class )
+         {
+            if ( "equals".equals( oMethod.getName() ) )
+            {
+               return Boolean.valueOf( oProxy == aoArgs[ 0 ] );
+            }
+            return "hashCode".equals( oMethod.getName() ) ? ( Object ) new Integer( System.identityHashCode( oProxy ) ) : toString();
+         }
+
+         if ( ! "onStartAsync".equals( oMethod.getName() ) )
+         {
+            close();
+         }
+
+         return null;
+      }
+
+      private void scheduleHeartbeats()
+      {
+         _oHeartbeatFuture = _oHeartbeatExecutor.scheduleWithFixedDelay( new Runnable()
+                                                                         {
+                                                                            public void run()
+                                                                            {
+                                                                               _bHeartbeatDue = true;
+                                                                               scheduleWrite();
+                                                                            }
+                                                                         },
+                                                                         _lHeartbeatMillis,
+                                                                         _lHeartbeatMillis,
+                                                                         TimeUnit.MILLISECONDS );
+
+         // the stream may have been closed before the heartbeats were scheduled
+         if ( _oClosed.get() )
+         {
+            _oHeartbeatFuture.cancel( false );
+         }
+      }
+
+      private void scheduleWrite()
+      {
+         // in blocking mode the request thread takes the events from the queue
+         if ( _oAsyncContext != null && _oWriteScheduled.compareAndSet( false, true ) )
+         {
+            try
+            {
+               _oWriterExecutor.execute( this );
+            }
+            catch ( RuntimeException e )
+            {
+               // the writer executor was shut down
+               close();
+            }
+         }
+      }
+
+      /**
+       * Sends the events of the stream on the request thread until the stream ends
+       */
+      private void runBlocking()
+      {
+         try
+         {
+            while ( ! _oClosed.get() )
+            {
+               byte[] ayEvent = ( byte[] ) _oEventQueue.poll( _lHeartbeatMillis, TimeUnit.MILLISECONDS );
+
+               if ( ayEvent == null )
+               {
+                  _bHeartbeatDue = true;
+               }
+
+               writeQueuedEvents( ayEvent );
+            }
+         }
+         catch ( InterruptedException e )
+         {
+            close();
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      /**
+       * Writes the queued events (or a heartbeat if one is due and there are no events), and flushes them
+       */
+      private synchronized void writeQueuedEvents( byte[] ayFirstEvent )
+      {
+         if ( _oClosed.get() )
+         {
+            return;
+         }
+
+         try
+         {
+            int iEventCount = 0;
+
+            for ( byte[] ayEvent = ayFirstEvent != null ? ayFirstEvent : ( byte[] ) _oEventQueue.poll();
+                  ayEvent != null;
+                  ayEvent = ( byte[] ) _oEventQueue.poll() )
+            {
+               if ( ayEvent != END_OF_STREAM )
+               {
+                  _oOutputStream.write( ayEvent );
+                  iEventCount++;
+               }
+            }
+
+            if ( iEventCount == 0 && _bHeartbeatDue )
+            {
+               _oOutputStream.write( HEARTBEAT );
+            }
+
+            _bHeartbeatDue = false;
+
+            _oOutputStream.flush();
+            _oEventsSentCounter.add( iEventCount );
+         }
+         catch ( IOException e )
+         {
+            // the client disconnected
+            close();
+         }
+      }
+
+      private void addAsyncListener()
+      {
+         try
+         {
+            Object oAsyncListener = Proxy.newProxyInstance( ASYNC_LISTENER_CLASS.getClassLoader(),
+                                                            new Class[]{ ASYNC_LISTENER_CLASS },
+                                                            this );
+
+            ASYNC_CONTEXT_ADD_LISTENER.invoke( _oAsyncContext, new Object[]{ oAsyncListener } );
+         }
+         catch ( Exception e )
+         {
+            // a disconnected client is then noticed when the next heartbeat is written
+            _oLog.warn( "event-stream: unable to add async listener", e );
+         }
+      }
+   }
+
+   private static class DaemonThreadFactory implements ThreadFactory
+   {
+      private String _sThreadName;
+
+      private DaemonThreadFactory( String sThreadName )
+      {
+         _sThreadName = sThreadName;
+      }
+
+      public Thread newThread( Runnable oRunnable )
+      {
+         Thread oThread = new Thread( oRunnable, _sThreadName );
+
+         oThread.setDaemon( true );
+
+         return oThread;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,469 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.BufferPool;
+import com.acciente.induction.view.ChannelView;
+import com.acciente.induction.view.FileView;
+import com.acciente.induction.view.VersionedView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Internal.
+ * Sends the content of FileView and ChannelView views, without reading the content into memory.
+ * <p>
+ * A file is handed to the servlet container if the container supports sendfile (this is signalled by Tomcat
+ * with the org.apache.tomcat.sendfile.support request attribute), otherwise it is transferred to the response
+ * with FileChannel.transferTo(). Other channels are copied through a pooled buffer.
+ * <p>
+ * A Range header with a single range of bytes is answered with a 206 response, a range that does not overlap
+ * the content with a 416 response. A Range header with several ranges is ignored and the complete content is
+ * sent, since multipart/byteranges responses are not supported. An If-Range header that does not match the
+ * validators of the content also causes the complete content to be sent.
+ * <p>
+ * The following counters are published: file-view.sendfile, file-view.transfers, file-view.partial-content.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class FileSender
+{
+   private static final String   SENDFILE_SUPPORT     = "org.apache.tomcat.sendfile.support";
+   private static final String   SENDFILE_FILENAME    = "org.apache.tomcat.sendfile.filename";
+   private static final String   SENDFILE_START       = "org.apache.tomcat.sendfile.start";
+   private static final String   SENDFILE_END         = "org.apache.tomcat.sendfile.end";
+
+   private  ConditionalGet    _oConditionalGet;
+   private  BufferPool        _oByteArrayPool;
+
+   private  Counter           _oSendfileCounter;
+   private  Counter           _oTransferCounter;
+   private  Counter           _oPartialContentCounter;
+
+   public FileSender( ConditionalGet oConditionalGet, BufferPool oByteArrayPool, Statistics oStatistics )
+   {
+      _oConditionalGet           = oConditionalGet;
+      _oByteArrayPool            = oByteArrayPool;
+
+      _oSendfileCounter          = oStatistics.getCounter( "file-view.sendfile" );
+      _oTransferCounter          = oStatistics.getCounter( "file-view.transfers" );
+      _oPartialContentCounter    = oStatistics.getCounter( "file-view.partial-content" );
+   }
+
+   public void sendFile( HttpServletRequest oRequest, HttpServletResponse oResponse, FileView oFileView ) throws IOException
+   {
+      File oFile = oFileView.getFile();
+
+      if ( oFile == null || ! oFile.isFile() || ! oFile.canRead() )
+      {
+         oResponse.sendError( HttpServletResponse.SC_NOT_FOUND );
+         return;
+      }
+
+      long lLength         = oFile.length();
+      long lLastModified   = oFile.lastModified();
+
+      // the validators of a versioned view were already checked by the view executor
+      if ( ! ( oFileView instanceof VersionedView )
+           && _oConditionalGet.checkNotModified( oRequest, oResponse, null, lLastModified ) )
+      {
+         return;
+      }
+
+      setContentHeaders( oResponse, oFileView.getMimeType(), oFileView.getDownloadName() );
+
+      long[] alRange = getRange( oRequest, oResponse, oFileView, lLength, lLastModified, true );
+
+      if ( alRange == null || "HEAD".equals( oRequest.getMethod() ) )
+      {
+         return;
+      }
+
+      if ( Boolean.TRUE.equals( oRequest.getAttribute( SENDFILE_SUPPORT ) )
+           && ! ( oResponse instanceof OutputCaptureResponse ) )
+      {
+         // the container sends the file after the servlet returns, usually without copying it into user space
+         oRequest.setAttribute( SENDFILE_FILENAME, oFile.getCanonicalPath() );
+         oRequest.setAttribute( SENDFILE_START, new Long( alRange[ 0 ] ) );
+         oRequest.setAttribute( SENDFILE_END, new Long( alRange[ 1 ] ) );
+
+         _oSendfileCounter.increment();
+         return;
+      }
+
+      FileInputStream oFileInputStream = new FileInputStream( oFile );
+
+      try
+      {
+         transfer( oFileInputStream.getChannel(), alRange[ 0 ], alRange[ 1 ] - alRange[ 0 ], oResponse );
+      }
+      finally
+      {
+         oFileInputStream.close();
+      }
+   }
+
+   public void sendChannel( HttpServletRequest oRequest, HttpServletResponse oResponse, ChannelView oChannelView ) throws IOException
+   {
+      ReadableByteChannel oChannel = oChannelView.getChannel();
+
+      try
+      {
+         long     lSize       = oChannelView.getSize();
+         boolean  bSeekable   = lSize >= 0 && oChannel instanceof SeekableByteChannel;
+
+         setContentHeaders( oResponse, oChannelView.getMimeType(), oChannelView.getDownloadName() );
+
+         if ( lSize < 0 )
+         {
+            oResponse.setHeader( "Accept-Ranges", "none" );
+
+            if ( ! "HEAD".equals( oRequest.getMethod() ) )
+            {
+               copy( oChannel, Long.MAX_VALUE, oResponse );
+            }
+            return;
+         }
+
+         long[] alRange = getRange( oRequest, oResponse, oChannelView, lSize, -1, bSeekable );
+
+         if ( alRange == null || "HEAD".equals( oRequest.getMethod() ) )
+         {
+            return;
+         }
+
+         if ( oChannel instanceof FileChannel )
+         {
+            transfer( ( FileChannel ) oChannel, alRange[ 0 ], alRange[ 1 ] - alRange[ 0 ], oResponse );
+         }
+         else
+         {
+            if ( alRange[ 0 ] > 0 )
+            {
+               ( ( SeekableByteChannel ) oChannel ).position( alRange[ 0 ] );
+            }
+
+            copy( oChannel, alRange[ 1 ] - alRange[ 0 ], oResponse );
+         }
+      }
+      finally
+      {
+         oChannel.close();
+      }
+   }
+
+   private void setContentHeaders( HttpServletResponse oResponse, String sMimeType, String sDownloadName )
+   {
+      oResponse.setContentType( sMimeType == null ? "application/octet-stream" : sMimeType );
+
+      if ( sDownloadName != null )
+      {
+         oResponse.setHeader( "Content-Disposition", getContentDisposition( sDownloadName ) );
+      }
+   }
+
+   /**
+    * Sets the status and the headers that describe the part of the content sent
+    *
+    * @return the start (inclusive) and the end (exclusive) of the bytes to send, or null if a 416 response
+    * was sent
+    */
+   private long[] getRange( HttpServletRequest   oRequest,
+                            HttpServletResponse  oResponse,
+                            Object               oViewObject,
+                            long                 lLength,
+                            long                 lLastModified,
+                            boolean              bSeekable )
+   {
+      long[] alRange = null;
+
+      oResponse.setHeader( "Accept-Ranges", bSeekable ? "bytes" : "none" );
+
+      // the output cache must collect the complete content
+      if ( bSeekable
+           && "GET".equals( oRequest.getMethod() )
+           && ! ( oResponse instanceof OutputCaptureResponse )
+           && isIfRangeSatisfied( oRequest, oViewObject, lLastModified ) )
+      {
+         alRange = parseRange( oRequest.getHeader( "Range" ), lLength );
+      }
+
+      if ( alRange == null )
+      {
+         setContentLength( oResponse, lLength );
+         return new long[]{ 0, lLength };
+      }
+
+      if ( alRange[ 0 ] >= lLength || alRange[ 0 ] >= alRange[ 1 ] )
+      {
+         oResponse.setStatus( HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE );
+         oResponse.setHeader( "Content-Range", "bytes */" + lLength );
+         setContentLength( oResponse, 0 );
+         return null;
+      }
+
+      alRange[ 1 ] = Math.min( alRange[ 1 ], lLength );
+
+      oResponse.setStatus( HttpServletResponse.SC_PARTIAL_CONTENT );
+      oResponse.setHeader( "Content-Range", "bytes " + alRange[ 0 ] + "-" + ( alRange[ 1 ] - 1 ) + "/" + lLength );
+      setContentLength( oResponse, alRange[ 1 ] - alRange[ 0 ] );
+
+      _oPartialContentCounter.increment();
+
+      return alRange;
+   }
+
+   /**
+    * @return the requested range as the start (inclusive) and the end (exclusive, possibly beyond the end of the
+    * content), an empty range if the range cannot be satisfied, or null if the complete content should be sent
+    */
+   static long[] parseRange( String sRange, long lLength )
+   {
+      if ( sRange == null || ! sRange.startsWith( "bytes=" ) )
+      {
+         return null;
+      }
+
+      String sSpec = sRange.substring( "bytes=".length() ).trim();
+
+      if ( sSpec.indexOf( ',' ) != -1 )
+      {
+         return null;
+      }
+
+      int iDashIndex = sSpec.indexOf( '-' );
+
+      if ( iDashIndex == -1 )
+      {
+         return null;
+      }
+
+      try
+      {
+         String sFirst  = sSpec.substring( 0, iDashIndex ).trim();
+         String sLast   = sSpec.substring( iDashIndex + 1 ).trim();
+
+         if ( sFirst.length() == 0 )
+         {
+            // a suffix range, the last n bytes
+            long lSuffixLength = Long.parseLong( sLast );
+
+            if ( lSuffixLength < 0 )
+            {
+               // syntactically invalid (bytes=--n), so the header is ignored
+               return null;
+            }
+
+            return lSuffixLength == 0 ? new long[]{ lLength, lLength } : new long[]{ Math.max( 0, lLength - lSuffixLength ), lLength };
+         }
+
+         long lFirst = Long.parseLong( sFirst );
+         long lLast  = ( sLast.length() == 0 ? Long.MAX_VALUE - 1 : Long.parseLong( sLast ) );
+
+         if ( lFirst < 0 || lLast < lFirst )
+         {
+            // syntactically invalid, so the header is ignored
+            return null;
+         }
+
+         return new long[]{ lFirst, lLast + 1 };
+      }
+      catch ( NumberFormatException e )
+      {
+         return null;
+      }
+   }
+
+   private static boolean isIfRangeSatisfied( HttpServletRequest oRequest, Object oViewObject, long lLastModified )
+   {
+      String sIfRange = oRequest.getHeader( "If-Range" );
+
+      if ( sIfRange == null )
+      {
+         return true;
+      }
+
+      String   sVersion = null;
+
+      if ( oViewObject instanceof VersionedView )
+      {
+         sVersion       = ( ( VersionedView ) oViewObject ).getVersion();
+         lLastModified  = ( ( VersionedView ) oViewObject ).getLastModified();
+      }
+
+      if ( sIfRange.startsWith( "\"" ) || sIfRange.startsWith( "W/" ) )
+      {
+         // If-Range uses the strong comparison, so a weak ETag never matches
+         return sVersion != null && sIfRange.equals( ConditionalGet.toETag( sVersion ) );
+      }
+
+      long lIfRangeDate;
+
+      try
+      {
+         lIfRangeDate = oRequest.getDateHeader( "If-Range" );
+      }
+      catch ( IllegalArgumentException e )
+      {
+         return false;
+      }
+
+      return lLastModified >= 0 && lLastModified / 1000 == lIfRangeDate / 1000;
+   }
+
+   private void transfer( FileChannel oChannel, long lPosition, long lCount, HttpServletResponse oResponse ) throws IOException
+   {
+      OutputStream         oOutputStream  = oResponse.getOutputStream();
+      WritableByteChannel  oTarget        = Channels.newChannel( oOutputStream );
+
+      _oTransferCounter.increment();
+
+      while ( lCount > 0 )
+      {
+         long lTransferred = oChannel.transferTo( lPosition, lCount, oTarget );
+
+         if ( lTransferred <= 0 )
+         {
+            throw new EOFException( "file-view: content ended before its length" );
+         }
+
+         lPosition   += lTransferred;
+         lCount      -= lTransferred;
+      }
+
+      oOutputStream.flush();
+   }
+
+   private void copy( ReadableByteChannel oChannel, long lCount, HttpServletResponse oResponse ) throws IOException
+   {
+      OutputStream   oOutputStream  = oResponse.getOutputStream();
+      byte[]         ayBuffer       = ( byte[] ) _oByteArrayPool.acquire();
+
+      try
+      {
+         ByteBuffer oBuffer = ByteBuffer.wrap( ayBuffer );
+
+         while ( lCount > 0 )
+         {
+            oBuffer.clear();
+
+            if ( lCount < oBuffer.capacity() )
+            {
+               oBuffer.limit( ( int ) lCount );
+            }
+
+            int iRead = oChannel.read( oBuffer );
+
+            if ( iRead < 0 )
+            {
+               if ( lCount == Long.MAX_VALUE )
+               {
+                  // the size was not known, so the end of the channel is the end of the content
+                  break;
+               }
+
+               throw new EOFException( "channel-view: content ended before its length" );
+            }
+
+            oOutputStream.write( ayBuffer, 0, iRead );
+
+            if ( lCount != Long.MAX_VALUE )
+            {
+               lCount -= iRead;
+            }
+         }
+
+         oOutputStream.flush();
+      }
+      finally
+      {
+         _oByteArrayPool.release( ayBuffer );
+      }
+   }
+
+   private static void setContentLength( HttpServletResponse oResponse, long lLength )
+   {
+      if ( lLength <= Integer.MAX_VALUE )
+      {
+         oResponse.setContentLength( ( int ) lLength );
+      }
+      else
+      {
+         oResponse.setHeader( "Content-Length", Long.toString( lLength ) );
+      }
+   }
+
+   private static String getContentDisposition( String sDownloadName )
+   {
+      StringBuffer oBuffer = new StringBuffer( "attachment; filename=\"" );
+      boolean      bASCII  = true;
+
+      for ( int i = 0; i < sDownloadName.length(); i++ )
+      {
+         char cChar = sDownloadName.charAt( i );
+
+         if ( cChar < 0x20 || cChar > 0x7e )
+         {
+            bASCII = false;
+            oBuffer.append( '_' );
+         }
+         else
+         {
+            oBuffer.append( cChar == '"' || cChar == '\\' ? '_' : cChar );
+         }
+      }
+      oBuffer.append( '"' );
+
+      if ( ! bASCII )
+      {
+         // RFC 6266 / RFC 5987, browsers that understand filename* prefer it over the ASCII fallback
+         try
+         {
+            oBuffer.append( "; filename*=UTF-8''" ).append( URLEncoder.encode( sDownloadName, "UTF-8" ).replaceAll( "\\+", "%20" ) );
+         }
+         catch ( UnsupportedEncodingException e )
+         {
+            // every java platform is required to support UTF-8
+         }
+      }
+
+      return oBuffer.toString();
+   }
+}
+
+// EOF
\ No newline at end of file
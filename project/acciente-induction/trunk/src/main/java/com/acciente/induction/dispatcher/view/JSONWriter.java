@@ -0,0 +1,567 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Internal.
+ * Serializes an object graph as UTF-8 encoded JSON directly into the buffer of a ResponseOutputBuffer, the
+ * supported values are described in com.acciente.induction.view.JSON.
+ * <p>
+ * Strings are encoded char by char into the buffer and integral numbers are formatted into the buffer,
+ * so that serializing does not create intermediate strings. The getters of a bean class, and the encoded
+ * member names of its properties, are looked up once per class and kept in a ClassValue, so that they are
+ * released with a class that is reloaded.
+ * <p>
+ * This class is not thread safe, it is used by a single request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class JSONWriter
+{
+   // the smallest buffer this writer works with, larger than the longest sequence of bytes written without
+   // checking the space left in the buffer (an escaped char or a long)
+   public static final int MIN_BUFFER_SIZE = 32;
+
+   // a deeper graph most likely contains a cycle
+   private static final int      MAX_DEPTH      = 100;
+
+   private static final Charset  UTF8           = Charset.forName( "UTF-8" );
+   private static final byte[]   NULL           = "null".getBytes( UTF8 );
+   private static final byte[]   TRUE           = "true".getBytes( UTF8 );
+   private static final byte[]   FALSE          = "false".getBytes( UTF8 );
+   private static final byte[]   HEX_DIGITS     = "0123456789abcdef".getBytes( UTF8 );
+
+   private static final ClassValue BEAN_PROPERTIES_BY_CLASS = new ClassValue()
+   {
+      protected Object computeValue( Class oClass )
+      {
+         return new BeanProperties( oClass );
+      }
+   };
+
+   private ResponseOutputBuffer  _oOutputBuffer;
+   private byte[]                _ayBuffer;
+   private int                   _iCount;
+   private int                   _iDepth;
+
+   public JSONWriter( ResponseOutputBuffer oOutputBuffer )
+   {
+      if ( oOutputBuffer.getBuffer().length < MIN_BUFFER_SIZE )
+      {
+         throw new IllegalArgumentException( "json: buffer must be at least " + MIN_BUFFER_SIZE + " bytes" );
+      }
+
+      _oOutputBuffer = oOutputBuffer;
+      _ayBuffer      = oOutputBuffer.getBuffer();
+      _iCount        = oOutputBuffer.getBufferedLength();
+   }
+
+   /**
+    * Serializes a value, the output is left in the output buffer (the part of the output that did not fit in
+    * the buffer has been sent)
+    *
+    * @param oValue the value to serialize
+    * @throws IOException if sending the output fails
+    * @throws IllegalAccessException if a getter cannot be called
+    * @throws InvocationTargetException if a getter throws an exception
+    */
+   public void write( Object oValue ) throws IOException, IllegalAccessException, InvocationTargetException
+   {
+      writeValue( oValue );
+
+      _oOutputBuffer.setBufferedLength( _iCount );
+   }
+
+   private void writeValue( Object oValue ) throws IOException, IllegalAccessException, InvocationTargetException
+   {
+      if ( oValue == null )
+      {
+         writeBytes( NULL );
+      }
+      else if ( oValue instanceof String )
+      {
+         writeString( ( String ) oValue );
+      }
+      else if ( oValue instanceof Number )
+      {
+         writeNumber( ( Number ) oValue );
+      }
+      else if ( oValue instanceof Boolean )
+      {
+         writeBytes( ( ( Boolean ) oValue ).booleanValue() ? TRUE : FALSE );
+      }
+      else if ( oValue instanceof CharSequence || oValue instanceof Character )
+      {
+         writeString( oValue.toString() );
+      }
+      else if ( oValue instanceof Map )
+      {
+         writeMap( ( Map ) oValue );
+      }
+      else if ( oValue instanceof Iterable )
+      {
+         writeIterator( ( ( Iterable ) oValue ).iterator() );
+      }
+      else if ( oValue.getClass().isArray() )
+      {
+         writeArray( oValue );
+      }
+      else if ( oValue instanceof Enum )
+      {
+         writeString( ( ( Enum ) oValue ).name() );
+      }
+      else if ( oValue instanceof Date )
+      {
+         writeLong( ( ( Date ) oValue ).getTime() );
+      }
+      else
+      {
+         writeBean( oValue );
+      }
+   }
+
+   private void writeMap( Map oMap ) throws IOException, IllegalAccessException, InvocationTargetException
+   {
+      enter();
+      writeByte( '{' );
+
+      boolean bFirst = true;
+
+      for ( Iterator oIter = oMap.entrySet().iterator(); oIter.hasNext(); )
+      {
+         Map.Entry oMapEntry = ( Map.Entry ) oIter.next();
+
+         if ( ! bFirst )
+         {
+            writeByte( ',' );
+         }
+         bFirst = false;
+
+         writeString( String.valueOf( oMapEntry.getKey() ) );
+         writeByte( ':' );
+         writeValue( oMapEntry.getValue() );
+      }
+
+      writeByte( '}' );
+      exit();
+   }
+
+   private void writeIterator( Iterator oIter ) throws IOException, IllegalAccessException, InvocationTargetException
+   {
+      enter();
+      writeByte( '[' );
+
+      for ( boolean bFirst = true; oIter.hasNext(); bFirst = false )
+      {
+         if ( ! bFirst )
+         {
+            writeByte( ',' );
+         }
+
+         writeValue( oIter.next() );
+      }
+
+      writeByte( ']' );
+      exit();
+   }
+
+   private void writeArray( Object oArray ) throws IOException, IllegalAccessException, InvocationTargetException
+   {
+      if ( oArray instanceof char[] )
+      {
+         writeString( new String( ( char[] ) oArray ) );
+         return;
+      }
+
+      enter();
+      writeByte( '[' );
+
+      int iLength = Array.getLength( oArray );
+
+      for ( int i = 0; i < iLength; i++ )
+      {
+         if ( i > 0 )
+         {
+            writeByte( ',' );
+         }
+
+         // the most common primitive arrays are written without boxing the elements
+         if ( oArray instanceof Object[] )
+         {
+            writeValue( ( ( Object[] ) oArray )[ i ] );
+         }
+         else if ( oArray instanceof int[] )
+         {
+            writeLong( ( ( int[] ) oArray )[ i ] );
+         }
+         else if ( oArray instanceof long[] )
+         {
+            writeLong( ( ( long[] ) oArray )[ i ] );
+         }
+         else
+         {
+            writeValue( Array.get( oArray, i ) );
+         }
+      }
+
+      writeByte( ']' );
+      exit();
+   }
+
+   private void writeBean( Object oBean ) throws IOException, IllegalAccessException, InvocationTargetException
+   {
+      BeanProperties oBeanProperties = ( BeanProperties ) BEAN_PROPERTIES_BY_CLASS.get( oBean.getClass() );
+
+      enter();
+      writeByte( '{' );
+
+      for ( int i = 0; i < oBeanProperties._aoGetters.length; i++ )
+      {
+         if ( i > 0 )
+         {
+            writeByte( ',' );
+         }
+
+         writeBytes( oBeanProperties._aayMemberNames[ i ] );
+         writeValue( oBeanProperties._aoGetters[ i ].invoke( oBean, ( Object[] ) null ) );
+      }
+
+      writeByte( '}' );
+      exit();
+   }
+
+   private void writeNumber( Number oNumber ) throws IOException
+   {
+      if ( oNumber instanceof Integer
+            || oNumber instanceof Long
+            || oNumber instanceof Short
+            || oNumber instanceof Byte
+            || oNumber instanceof AtomicInteger
+            || oNumber instanceof AtomicLong )
+      {
+         writeLong( oNumber.longValue() );
+      }
+      else if ( oNumber instanceof BigDecimal || oNumber instanceof BigInteger )
+      {
+         writeASCII( oNumber.toString() );
+      }
+      else
+      {
+         double dValue = oNumber.doubleValue();
+
+         if ( Double.isNaN( dValue ) || Double.isInfinite( dValue ) )
+         {
+            // JSON has no representation for these values
+            writeBytes( NULL );
+         }
+         else
+         {
+            // a Float is formatted as a float, which avoids digits that only come from widening it
+            writeASCII( oNumber instanceof Float ? oNumber.toString() : Double.toString( dValue ) );
+         }
+      }
+   }
+
+   private void writeLong( long lValue ) throws IOException
+   {
+      if ( lValue == Long.MIN_VALUE )
+      {
+         // the only long that cannot be negated
+         writeASCII( Long.toString( lValue ) );
+         return;
+      }
+
+      ensureSpace( 20 );
+
+      if ( lValue < 0 )
+      {
+         _ayBuffer[ _iCount++ ] = '-';
+         lValue = -lValue;
+      }
+
+      int iDigits = 1;
+
+      for ( long lRest = lValue / 10; lRest != 0; lRest /= 10 )
+      {
+         iDigits++;
+      }
+
+      for ( int i = _iCount + iDigits - 1; i >= _iCount; i-- )
+      {
+         _ayBuffer[ i ] = ( byte ) ( '0' + ( int ) ( lValue % 10 ) );
+         lValue /= 10;
+      }
+
+      _iCount += iDigits;
+   }
+
+   private void writeString( String sValue ) throws IOException
+   {
+      int iLength = sValue.length();
+
+      writeByte( '"' );
+
+      for ( int i = 0; i < iLength; i++ )
+      {
+         // no char needs more than 12 bytes (a surrogate pair takes 4 bytes, an escaped char 6)
+         if ( _iCount + 12 > _ayBuffer.length )
+         {
+            sendBuffer();
+         }
+
+         char cChar = sValue.charAt( i );
+
+         if ( cChar < 0x80 )
+         {
+            if ( cChar >= 0x20 && cChar != '"' && cChar != '\\' )
+            {
+               _ayBuffer[ _iCount++ ] = ( byte ) cChar;
+            }
+            else
+            {
+               writeEscapedChar( cChar );
+            }
+         }
+         else if ( cChar < 0x800 )
+         {
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0xc0 | ( cChar >> 6 ) );
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0x80 | ( cChar & 0x3f ) );
+         }
+         else if ( Character.isHighSurrogate( cChar ) && i + 1 < iLength && Character.isLowSurrogate( sValue.charAt( i + 1 ) ) )
+         {
+            int iCodePoint = Character.toCodePoint( cChar, sValue.charAt( ++i ) );
+
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0xf0 | ( iCodePoint >> 18 ) );
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0x80 | ( ( iCodePoint >> 12 ) & 0x3f ) );
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0x80 | ( ( iCodePoint >> 6 ) & 0x3f ) );
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0x80 | ( iCodePoint & 0x3f ) );
+         }
+         else if ( Character.isSurrogate( cChar ) || cChar == 0x2028 || cChar == 0x2029 )
+         {
+            // an unpaired surrogate cannot be encoded in UTF-8, the line and paragraph separators are escaped
+            // since they end a string literal in javascript
+            writeEscapedChar( cChar );
+         }
+         else
+         {
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0xe0 | ( cChar >> 12 ) );
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0x80 | ( ( cChar >> 6 ) & 0x3f ) );
+            _ayBuffer[ _iCount++ ] = ( byte ) ( 0x80 | ( cChar & 0x3f ) );
+         }
+      }
+
+      writeByte( '"' );
+   }
+
+   /**
+    * Writes the escape sequence of a char, the caller ensures that there is space for it in the buffer
+    */
+   private void writeEscapedChar( char cChar )
+   {
+      _ayBuffer[ _iCount++ ] = '\\';
+
+      switch ( cChar )
+      {
+         case '"':   _ayBuffer[ _iCount++ ] = '"';    break;
+         case '\\':  _ayBuffer[ _iCount++ ] = '\\';   break;
+         case '\n':  _ayBuffer[ _iCount++ ] = 'n';    break;
+         case '\r':  _ayBuffer[ _iCount++ ] = 'r';    break;
+         case '\t':  _ayBuffer[ _iCount++ ] = 't';    break;
+         case '\b':  _ayBuffer[ _iCount++ ] = 'b';    break;
+         case '\f':  _ayBuffer[ _iCount++ ] = 'f';    break;
+         default:
+            _ayBuffer[ _iCount++ ] = 'u';
+            _ayBuffer[ _iCount++ ] = HEX_DIGITS[ ( cChar >> 12 ) & 0xf ];
+            _ayBuffer[ _iCount++ ] = HEX_DIGITS[ ( cChar >> 8 ) & 0xf ];
+            _ayBuffer[ _iCount++ ] = HEX_DIGITS[ ( cChar >> 4 ) & 0xf ];
+            _ayBuffer[ _iCount++ ] = HEX_DIGITS[ cChar & 0xf ];
+      }
+   }
+
+   private void writeASCII( String sValue ) throws IOException
+   {
+      for ( int i = 0; i < sValue.length(); i++ )
+      {
+         writeByte( sValue.charAt( i ) );
+      }
+   }
+
+   private void writeBytes( byte[] ayBytes ) throws IOException
+   {
+      for ( int iOffset = 0; iOffset < ayBytes.length; )
+      {
+         if ( _iCount == _ayBuffer.length )
+         {
+            sendBuffer();
+         }
+
+         int iLength = Math.min( ayBytes.length - iOffset, _ayBuffer.length - _iCount );
+
+         System.arraycopy( ayBytes, iOffset, _ayBuffer, _iCount, iLength );
+
+         _iCount  += iLength;
+         iOffset  += iLength;
+      }
+   }
+
+   private void writeByte( int iByte ) throws IOException
+   {
+      if ( _iCount == _ayBuffer.length )
+      {
+         sendBuffer();
+      }
+
+      _ayBuffer[ _iCount++ ] = ( byte ) iByte;
+   }
+
+   private void ensureSpace( int iLength ) throws IOException
+   {
+      if ( _iCount + iLength > _ayBuffer.length )
+      {
+         sendBuffer();
+      }
+   }
+
+   private void sendBuffer() throws IOException
+   {
+      _oOutputBuffer.setBufferedLength( _iCount );
+      _oOutputBuffer.sendBuffer();
+
+      _iCount = 0;
+   }
+
+   private void enter()
+   {
+      if ( ++_iDepth > MAX_DEPTH )
+      {
+         throw new IllegalArgumentException( "json: value nested more than " + MAX_DEPTH + " levels deep, does the object graph contain a cycle?" );
+      }
+   }
+
+   private void exit()
+   {
+      _iDepth--;
+   }
+
+   /**
+    * The getters of a bean class and the encoded member names of the properties, in the order of the names
+    */
+   private static class BeanProperties
+   {
+      private Method[]  _aoGetters;
+      private byte[][]  _aayMemberNames;
+
+      private BeanProperties( Class oClass )
+      {
+         Method[] aoMethods   = oClass.getMethods();
+         TreeMap  oGetterMap  = new TreeMap();
+
+         for ( int i = 0; i < aoMethods.length; i++ )
+         {
+            Method   oMethod        = aoMethods[ i ];
+            String   sMethodName    = oMethod.getName();
+            Class    oReturnType    = oMethod.getReturnType();
+            String   sPropertyName;
+
+            if ( Modifier.isStatic( oMethod.getModifiers() )
+                  || oMethod.isBridge()
+                  || oMethod.getParameterTypes().length != 0
+                  || oMethod.getDeclaringClass() == Object.class )
+            {
+               continue;
+            }
+
+            if ( sMethodName.startsWith( "get" ) && sMethodName.length() > 3 && oReturnType != void.class )
+            {
+               sPropertyName = decapitalize( sMethodName.substring( 3 ) );
+            }
+            else if ( sMethodName.startsWith( "is" ) && sMethodName.length() > 2
+                        && ( oReturnType == boolean.class || oReturnType == Boolean.class ) )
+            {
+               sPropertyName = decapitalize( sMethodName.substring( 2 ) );
+            }
+            else
+            {
+               continue;
+            }
+
+            // as for java beans an isXxx() getter is preferred over a getXxx() getter
+            if ( ! oGetterMap.containsKey( sPropertyName ) || sMethodName.startsWith( "is" ) )
+            {
+               oGetterMap.put( sPropertyName, oMethod );
+            }
+         }
+
+         _aoGetters        = new Method[ oGetterMap.size() ];
+         _aayMemberNames   = new byte[ oGetterMap.size() ][];
+
+         int i = 0;
+         for ( Iterator oIter = oGetterMap.entrySet().iterator(); oIter.hasNext(); i++ )
+         {
+            Map.Entry oMapEntry = ( Map.Entry ) oIter.next();
+
+            _aoGetters[ i ]      = ( Method ) oMapEntry.getValue();
+            _aayMemberNames[ i ] = ( "\"" + oMapEntry.getKey() + "\":" ).getBytes( UTF8 );
+
+            if ( ! Modifier.isPublic( _aoGetters[ i ].getDeclaringClass().getModifiers() ) )
+            {
+               // a public method of a class that is not public (e.g. a private nested class) can only be
+               // called once it is made accessible
+               try
+               {
+                  _aoGetters[ i ].setAccessible( true );
+               }
+               catch ( RuntimeException e )
+               {
+                  // not permitted, calling the getter will report the problem
+               }
+            }
+         }
+      }
+
+      private static String decapitalize( String sName )
+      {
+         // as for java beans a name that starts with two capitals, e.g. URL, is left as is
+         if ( sName.length() > 1 && Character.isUpperCase( sName.charAt( 1 ) ) && Character.isUpperCase( sName.charAt( 0 ) ) )
+         {
+            return sName;
+         }
+
+         return Character.toLowerCase( sName.charAt( 0 ) ) + sName.substring( 1 );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
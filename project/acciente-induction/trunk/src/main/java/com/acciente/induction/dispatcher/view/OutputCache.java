@@ -0,0 +1,483 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.view.CacheableView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Internal.
+ * The output cache keeps the complete, encoded output of views so that a request for a cached view is
+ * answered without creating or rendering the view.
+ * <p>
+ * A view is cached if its URL matches a cached-url in the output-cache configuration, or if the view class
+ * implements CacheableView. The cache key is the URL path plus the values of the request parameters and
+ * headers selected for the view.
+ * <p>
+ * When response compression is enabled the output of a compressible view is also kept gzip compressed, so
+ * that a request that accepts gzip is answered without compressing the output again.
+ * <p>
+ * An entry is served until its time to live passes, then for the stale while revalidate period it is still
+ * served to all requests except one, which renders the view again and replaces the entry. Since the output
+ * of a view may depend on the request, the refresh is done by that request rather than in the background.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class OutputCache
+{
+   // the results of serve()
+   public static final int       SERVED            = 0;
+   public static final int       NOT_SERVED        = 1;
+   public static final int       REVALIDATE        = 2;
+
+   private  List                 _oCachedURLList;
+   private  Map                  _oViewPolicyMap;
+   private  ConcurrentMap        _oRevalidatingKeyMap;
+   private  OutputCacheStore     _oStore;
+   private  ConditionalGet       _oConditionalGet;
+   private  ResponseCompression  _oResponseCompression;
+
+   private  Counter              _oHitCounter;
+   private  Counter              _oStaleHitCounter;
+   private  Counter              _oMissCounter;
+   private  Counter              _oStoreCounter;
+
+   public OutputCache( Config.ViewMapping.OutputCache oOutputCacheConfig,
+                       ConditionalGet                 oConditionalGet,
+                       ResponseCompression            oResponseCompression,
+                       Statistics                     oStatistics )
+   {
+      _oCachedURLList         = oOutputCacheConfig.getCachedURLList();
+      _oViewPolicyMap         = new ConcurrentHashMap();
+      _oRevalidatingKeyMap    = new ConcurrentHashMap();
+      _oStore                 = new OutputCacheStore( oOutputCacheConfig.getMaxMemorySize(),
+                                                      oOutputCacheConfig.getSpillFile(),
+                                                      oOutputCacheConfig.getSpillFileSize(),
+                                                      oStatistics );
+      _oConditionalGet        = oConditionalGet;
+      _oResponseCompression   = oResponseCompression;
+
+      _oHitCounter            = oStatistics.getCounter( "output-cache.hits" );
+      _oStaleHitCounter       = oStatistics.getCounter( "output-cache.stale-hits" );
+      _oMissCounter           = oStatistics.getCounter( "output-cache.misses" );
+      _oStoreCounter          = oStatistics.getCounter( "output-cache.stores" );
+   }
+
+   /**
+    * Returns the caching policy for a request that resolved to a view, this method does not create the view
+    *
+    * @param sViewClassName the name of the view class the request resolved to
+    * @param oRequest the request
+    * @return the policy configured for the URL of the request, or the policy last read from an instance of the
+    * view class, or null if the view is not known to be cacheable
+    */
+   public Policy getPolicy( String sViewClassName, HttpServletRequest oRequest )
+   {
+      if ( ! _oCachedURLList.isEmpty() )
+      {
+         String sURLPath = getURLPath( oRequest );
+
+         for ( Iterator oIter = _oCachedURLList.iterator(); oIter.hasNext(); )
+         {
+            Config.ViewMapping.OutputCache.CachedURL oCachedURL = ( Config.ViewMapping.OutputCache.CachedURL ) oIter.next();
+
+            if ( oCachedURL.getURLPattern().matcher( sURLPath ).matches() )
+            {
+               return new Policy( oCachedURL.getKeyParameters(),
+                                  oCachedURL.getKeyHeaders(),
+                                  oCachedURL.getTimeToLive(),
+                                  oCachedURL.getStaleWhileRevalidate() );
+            }
+         }
+      }
+
+      return ( Policy ) _oViewPolicyMap.get( sViewClassName );
+   }
+
+   /**
+    * Returns the caching policy of a view instance, and remembers it so that later requests for the view class
+    * can be answered from the cache without creating the view
+    *
+    * @param oViewObject a view instance
+    * @return the policy of the view, or null if the view is not cacheable
+    */
+   public Policy getPolicy( Object oViewObject )
+   {
+      if ( ! ( oViewObject instanceof CacheableView ) )
+      {
+         return null;
+      }
+
+      CacheableView  oCacheableView = ( CacheableView ) oViewObject;
+      String         sViewClassName = oViewObject.getClass().getName();
+
+      if ( oCacheableView.getCacheTimeToLive() < 1 )
+      {
+         _oViewPolicyMap.remove( sViewClassName );
+         return null;
+      }
+
+      Policy oPolicy = new Policy( oCacheableView.getCacheKeyParameters(),
+                                   oCacheableView.getCacheKeyHeaders(),
+                                   oCacheableView.getCacheTimeToLive(),
+                                   Math.max( 0, oCacheableView.getCacheStaleWhileRevalidate() ) );
+
+      _oViewPolicyMap.put( sViewClassName, oPolicy );
+
+      return oPolicy;
+   }
+
+   /**
+    * @param oPolicy the policy of the view
+    * @param oRequest the request
+    * @return the cache key of the request, or null if the request method does not permit a cached response
+    */
+   public String getKey( Policy oPolicy, HttpServletRequest oRequest )
+   {
+      String sMethod = oRequest.getMethod();
+
+      if ( ! "GET".equals( sMethod ) && ! "HEAD".equals( sMethod ) )
+      {
+         return null;
+      }
+
+      return getKey( oRequest, oPolicy._asKeyParameters, oPolicy._asKeyHeaders );
+   }
+
+   /**
+    * @param oRequest the request
+    * @param asKeyParameters the names of the request parameters whose values are part of the key
+    * @param asKeyHeaders the names of the request headers whose values are part of the key
+    * @return the URL path of the request plus the values of the specified parameters and headers
+    */
+   static String getKey( HttpServletRequest oRequest, String[] asKeyParameters, String[] asKeyHeaders )
+   {
+      StringBuffer oKeyBuffer = new StringBuffer( getURLPath( oRequest ) );
+
+      for ( int i = 0; i < asKeyParameters.length; i++ )
+      {
+         String[] asValues = oRequest.getParameterValues( asKeyParameters[ i ] );
+
+         oKeyBuffer.append( i == 0 ? '?' : '&' ).append( asKeyParameters[ i ] ).append( '=' );
+
+         if ( asValues != null )
+         {
+            for ( int j = 0; j < asValues.length; j++ )
+            {
+               if ( j > 0 )
+               {
+                  oKeyBuffer.append( ',' );
+               }
+               oKeyBuffer.append( asValues[ j ] );
+            }
+         }
+      }
+
+      for ( int i = 0; i < asKeyHeaders.length; i++ )
+      {
+         Enumeration oValues = oRequest.getHeaders( asKeyHeaders[ i ] );
+
+         oKeyBuffer.append( '\n' ).append( asKeyHeaders[ i ] ).append( ':' );
+
+         for ( int j = 0; oValues != null && oValues.hasMoreElements(); j++ )
+         {
+            if ( j > 0 )
+            {
+               oKeyBuffer.append( ',' );
+            }
+            oKeyBuffer.append( oValues.nextElement() );
+         }
+      }
+
+      return oKeyBuffer.toString();
+   }
+
+   /**
+    * Sends the cached output for a key if the cache has a usable entry.
+    * <p>
+    * If this method returns REVALIDATE the entry is stale and this request was picked to refresh it, only then
+    * must the caller call endRevalidation() once the view has been rendered (or has failed).
+    *
+    * @param sKey the cache key of the request
+    * @param oRequest the request
+    * @param oResponse the response
+    * @return SERVED if the response was sent from the cache, otherwise the view must be rendered and the
+    * result is REVALIDATE if this request holds the claim to refresh a stale entry, or NOT_SERVED
+    * @throws IOException if the output could not be sent
+    */
+   public int serve( String sKey, HttpServletRequest oRequest, HttpServletResponse oResponse ) throws IOException
+   {
+      OutputCacheStore.Entry oEntry = _oStore.get( sKey );
+
+      if ( oEntry != null )
+      {
+         long lNow = System.currentTimeMillis();
+
+         if ( lNow < oEntry.getExpiresAt() )
+         {
+            _oHitCounter.increment();
+            send( oEntry, oRequest, oResponse );
+            return SERVED;
+         }
+
+         // a stale entry is served to everyone except the single request that refreshes it
+         if ( lNow < oEntry.getStaleUntil() )
+         {
+            if ( _oRevalidatingKeyMap.putIfAbsent( sKey, Boolean.TRUE ) != null )
+            {
+               _oStaleHitCounter.increment();
+               send( oEntry, oRequest, oResponse );
+               return SERVED;
+            }
+
+            _oMissCounter.increment();
+
+            return REVALIDATE;
+         }
+      }
+
+      _oMissCounter.increment();
+
+      return NOT_SERVED;
+   }
+
+   /**
+    * Releases the claim to refresh a stale entry, called only by the request for which serve() returned
+    * REVALIDATE
+    *
+    * @param sKey the cache key of the request
+    */
+   public void endRevalidation( String sKey )
+   {
+      _oRevalidatingKeyMap.remove( sKey );
+   }
+
+   /**
+    * Sends the output collected from a view, and keeps it in the cache if the view completed normally
+    *
+    * @param sKey the cache key of the request
+    * @param oPolicy the policy of the view
+    * @param oCapture the response wrapper that collected the output of the view
+    * @param oRequest the request
+    * @param oResponse the response
+    * @throws IOException if the output could not be sent
+    */
+   public void storeAndSend( String                 sKey,
+                             Policy                 oPolicy,
+                             OutputCaptureResponse  oCapture,
+                             HttpServletRequest     oRequest,
+                             HttpServletResponse    oResponse )
+      throws IOException
+   {
+      OutputCacheStore.Entry oEntry = store( sKey, oPolicy, oCapture, oResponse );
+
+      if ( oEntry != null )
+      {
+         send( oEntry, oRequest, oResponse );
+      }
+   }
+
+   /**
+    * Creates an entry from the output collected from a view, and keeps it in the cache if a key is specified
+    * and the view completed normally
+    *
+    * @param sKey the cache key of the request, or null to only create the entry
+    * @param oPolicy the policy of the view, or null if sKey is null
+    * @param oCapture the response wrapper that collected the output of the view
+    * @param oResponse the response
+    * @return the entry, or null if the view sent an error or a redirect
+    * @throws IOException if the output could not be read
+    */
+   OutputCacheStore.Entry store( String                 sKey,
+                                 Policy                 oPolicy,
+                                 OutputCaptureResponse  oCapture,
+                                 HttpServletResponse    oResponse )
+      throws IOException
+   {
+      if ( oCapture.isResponseSent() )
+      {
+         // the view sent an error or a redirect, there is nothing more to send
+         return null;
+      }
+
+      long     lNow        = System.currentTimeMillis();
+      byte[]   ayOutput    = oCapture.getOutput();
+      List     oHeaderList = oCapture.getHeaderList();
+
+      // an entry is sent many times, so computing its ETag once when it is stored is cheap
+      if ( _oConditionalGet.isComputeETags() && getHeader( oHeaderList, "ETag" ) == null )
+      {
+         oHeaderList.add( new Object[]{ "ETag", ConditionalGet.computeETag( ayOutput, 0, ayOutput.length ), Boolean.FALSE } );
+      }
+
+      // the output is compressed once here instead of on every request that accepts gzip
+      byte[] ayCompressedOutput = null;
+
+      if ( _oResponseCompression.isEnabled()
+           && ayOutput.length > 0
+           && ayOutput.length >= _oResponseCompression.getMinSize()
+           && _oResponseCompression.isCompressible( oResponse.getContentType() )
+           && getHeader( oHeaderList, "Content-Encoding" ) == null )
+      {
+         ayCompressedOutput = _oResponseCompression.compress( ayOutput );
+      }
+
+      OutputCacheStore.Entry  oEntry   = new OutputCacheStore.Entry( oResponse.getContentType(),
+                                                                     oHeaderList,
+                                                                     ayOutput,
+                                                                     ayCompressedOutput,
+                                                                     sKey == null ? lNow : lNow + oPolicy._iTimeToLive * 1000L,
+                                                                     sKey == null ? lNow : lNow + ( oPolicy._iTimeToLive + oPolicy._iStaleWhileRevalidate ) * 1000L );
+
+      if ( sKey != null && oCapture.isCacheable() )
+      {
+         _oStore.put( sKey, oEntry );
+         _oStoreCounter.increment();
+      }
+
+      return oEntry;
+   }
+
+   public void destroy()
+   {
+      _oStore.close();
+   }
+
+   /**
+    * Sends an entry, compressed if the request accepts it, or a 304 if the request has a matching validator
+    *
+    * @param oEntry the entry
+    * @param oRequest the request
+    * @param oResponse the response
+    * @throws IOException if the output could not be sent
+    */
+   void send( OutputCacheStore.Entry oEntry, HttpServletRequest oRequest, HttpServletResponse oResponse )
+      throws IOException
+   {
+      byte[] ayOutput = oEntry.getOutput();
+
+      if ( oEntry.getContentType() != null )
+      {
+         oResponse.setContentType( oEntry.getContentType() );
+      }
+
+      OutputCaptureResponse.applyHeaders( oEntry.getHeaderList(), oResponse );
+
+      Object oETag         = getHeader( oEntry.getHeaderList(), "ETag" );
+      Object oLastModified = getHeader( oEntry.getHeaderList(), "Last-Modified" );
+
+      if ( _oResponseCompression.isEnabled()
+           && _oResponseCompression.isCompressible( oEntry.getContentType() )
+           && getHeader( oEntry.getHeaderList(), "Content-Encoding" ) == null )
+      {
+         oResponse.addHeader( "Vary", "Accept-Encoding" );
+
+         if ( oEntry.getCompressedOutput() != null && _oResponseCompression.isAcceptedBy( oRequest ) )
+         {
+            ayOutput = oEntry.getCompressedOutput();
+
+            oResponse.setHeader( "Content-Encoding", "gzip" );
+
+            if ( oETag instanceof String )
+            {
+               oResponse.setHeader( "ETag", ResponseCompression.toCompressedETag( ( String ) oETag ) );
+            }
+         }
+      }
+
+      if ( ( oETag instanceof String || oLastModified instanceof Long )
+            && _oConditionalGet.isNotModified( oRequest,
+                                               oETag instanceof String ? ( String ) oETag : null,
+                                               oLastModified instanceof Long ? ( ( Long ) oLastModified ).longValue() : -1 ) )
+      {
+         oResponse.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+         return;
+      }
+
+      oResponse.setContentLength( ayOutput.length );
+
+      if ( ! "HEAD".equals( oRequest.getMethod() ) )
+      {
+         OutputStream oOutputStream = oResponse.getOutputStream();
+
+         oOutputStream.write( ayOutput );
+         oOutputStream.flush();
+      }
+   }
+
+   private static Object getHeader( List oHeaderList, String sName )
+   {
+      for ( Iterator oIter = oHeaderList.iterator(); oIter.hasNext(); )
+      {
+         Object[] aoHeader = ( Object[] ) oIter.next();
+
+         if ( sName.equalsIgnoreCase( ( String ) aoHeader[ 0 ] ) )
+         {
+            return aoHeader[ 1 ];
+         }
+      }
+
+      return null;
+   }
+
+   private static String getURLPath( HttpServletRequest oRequest )
+   {
+      // the same path that the view resolver maps to a view class
+      return oRequest.getPathInfo() == null
+         ? oRequest.getServletPath()
+         : oRequest.getServletPath() + oRequest.getPathInfo();
+   }
+
+   /**
+    * The caching settings that apply to a view
+    */
+   public static class Policy
+   {
+      private String[]  _asKeyParameters;
+      private String[]  _asKeyHeaders;
+      private int       _iTimeToLive;
+      private int       _iStaleWhileRevalidate;
+
+      private Policy( String[] asKeyParameters, String[] asKeyHeaders, int iTimeToLive, int iStaleWhileRevalidate )
+      {
+         _asKeyParameters        = ( asKeyParameters == null ? new String[ 0 ] : asKeyParameters );
+         _asKeyHeaders           = ( asKeyHeaders == null ? new String[ 0 ] : asKeyHeaders );
+         _iTimeToLive            = iTimeToLive;
+         _iStaleWhileRevalidate  = iStaleWhileRevalidate;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
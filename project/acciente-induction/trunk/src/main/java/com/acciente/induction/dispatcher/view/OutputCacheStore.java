@@ -0,0 +1,544 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Internal.
+ * The storage of the output cache, a map bounded by the total size of the cached output.
+ * <p>
+ * The entries are kept in a concurrent map, so lookups do not lock. When the size limit is exceeded entries are
+ * evicted in the order they were stored, except that an entry read since it was last considered is given a
+ * second chance and moved to the back of the order (the clock approximation of least recently used).
+ * Evictions are done by one thread at a time.
+ * <p>
+ * When a spill file is configured, entries evicted from memory are written to a region of a memory mapped file
+ * that is used as a ring, so the oldest spilled entries are overwritten first. Only the output bytes are kept
+ * in the file, the remaining fields of a spilled entry stay in memory and the compressed output is dropped.
+ * The spill file has its own lock, which is only used on a memory miss and on eviction.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class OutputCacheStore
+{
+   // an estimate of the memory used by an entry in addition to its output and key
+   private static final int   ENTRY_OVERHEAD    = 128;
+
+   private  ConcurrentHashMap       _oMemoryMap;
+   private  ConcurrentLinkedQueue   _oEvictionQueue;
+   private  AtomicInteger           _oStaleNodeCount;
+   private  AtomicLong              _oMemorySize;
+   private  long                    _lMaxMemorySize;
+   private  Object                  _oEvictionLock;
+   private  SpillFile               _oSpillFile;
+
+   private  Counter                 _oEvictionCounter;
+   private  Counter                 _oSpillCounter;
+   private  Counter                 _oSpillHitCounter;
+   private  Counter                 _oMemorySizeCounter;
+
+   public OutputCacheStore( int iMaxMemorySize, File oSpillFile, int iSpillFileSize, Statistics oStatistics )
+   {
+      _oMemoryMap       = new ConcurrentHashMap( 64 );
+      _oEvictionQueue   = new ConcurrentLinkedQueue();
+      _oStaleNodeCount  = new AtomicInteger();
+      _oMemorySize      = new AtomicLong();
+      _lMaxMemorySize   = iMaxMemorySize;
+      _oEvictionLock    = new Object();
+
+      if ( oSpillFile != null )
+      {
+         try
+         {
+            _oSpillFile = new SpillFile( oSpillFile, iSpillFileSize );
+         }
+         catch ( IOException e )
+         {
+            // the cache still works without the spill file, evicted entries are simply dropped
+            LogFactory.getLog( OutputCacheStore.class )
+               .warn( "output-cache: unable to map spill file: " + oSpillFile + ", spilling is disabled", e );
+         }
+      }
+
+      _oEvictionCounter    = oStatistics.getCounter( "output-cache.evictions" );
+      _oSpillCounter       = oStatistics.getCounter( "output-cache.spills" );
+      _oSpillHitCounter    = oStatistics.getCounter( "output-cache.spill-hits" );
+      _oMemorySizeCounter  = oStatistics.getCounter( "output-cache.memory-size" );
+   }
+
+   public Entry get( String sKey )
+   {
+      Node oNode = ( Node ) _oMemoryMap.get( sKey );
+
+      if ( oNode != null )
+      {
+         oNode._bReferenced = true;
+
+         return oNode._oEntry;
+      }
+
+      if ( _oSpillFile != null )
+      {
+         Entry oEntry;
+
+         synchronized ( _oSpillFile )
+         {
+            oEntry = _oSpillFile.get( sKey );
+         }
+
+         if ( oEntry != null )
+         {
+            _oSpillHitCounter.increment();
+         }
+
+         return oEntry;
+      }
+
+      return null;
+   }
+
+   public void put( String sKey, Entry oEntry )
+   {
+      Node oNode           = new Node( sKey, oEntry, getWeight( sKey, oEntry ) );
+      Node oPreviousNode   = ( Node ) _oMemoryMap.put( sKey, oNode );
+
+      if ( oPreviousNode != null )
+      {
+         _oMemorySize.addAndGet( - oPreviousNode._lWeight );
+         _oStaleNodeCount.incrementAndGet();
+      }
+
+      removeSpilled( sKey );
+
+      _oEvictionQueue.add( oNode );
+
+      if ( _oMemorySize.addAndGet( oNode._lWeight ) > _lMaxMemorySize
+           || _oStaleNodeCount.get() > _oMemoryMap.size() )
+      {
+         evict();
+      }
+
+      _oMemorySizeCounter.set( _oMemorySize.get() );
+   }
+
+   public void remove( String sKey )
+   {
+      Node oNode = ( Node ) _oMemoryMap.remove( sKey );
+
+      if ( oNode != null )
+      {
+         _oMemorySize.addAndGet( - oNode._lWeight );
+         _oStaleNodeCount.incrementAndGet();
+         _oMemorySizeCounter.set( _oMemorySize.get() );
+      }
+
+      removeSpilled( sKey );
+   }
+
+   public void close()
+   {
+      synchronized ( _oEvictionLock )
+      {
+         _oMemoryMap.clear();
+         _oEvictionQueue.clear();
+         _oStaleNodeCount.set( 0 );
+         _oMemorySize.set( 0 );
+         _oMemorySizeCounter.set( 0 );
+
+         if ( _oSpillFile != null )
+         {
+            synchronized ( _oSpillFile )
+            {
+               _oSpillFile.close();
+            }
+         }
+      }
+   }
+
+   /**
+    * Evicts entries until the total size is back within the limit, note that this evicts the most recently
+    * stored entry too if it alone is larger than the limit
+    */
+   private void evict()
+   {
+      synchronized ( _oEvictionLock )
+      {
+         if ( _oStaleNodeCount.get() > _oMemoryMap.size() )
+         {
+            // the nodes of replaced or removed entries stay in the queue until they are reached, when they
+            // outnumber the live nodes we drop them all in one pass
+            for ( Iterator oIter = _oEvictionQueue.iterator(); oIter.hasNext(); )
+            {
+               Node oNode = ( Node ) oIter.next();
+
+               if ( _oMemoryMap.get( oNode._sKey ) != oNode )
+               {
+                  oIter.remove();
+               }
+            }
+
+            _oStaleNodeCount.set( 0 );
+         }
+
+         // a full turn over the queue clears all the referenced flags, so this many second chances suffice
+         int iSecondChances = _oMemoryMap.size();
+
+         while ( _oMemorySize.get() > _lMaxMemorySize )
+         {
+            Node oNode = ( Node ) _oEvictionQueue.poll();
+
+            if ( oNode == null )
+            {
+               break;
+            }
+
+            if ( _oMemoryMap.get( oNode._sKey ) != oNode )
+            {
+               // the entry was replaced or removed
+               continue;
+            }
+
+            if ( oNode._bReferenced && iSecondChances-- > 0 )
+            {
+               oNode._bReferenced = false;
+               _oEvictionQueue.add( oNode );
+               continue;
+            }
+
+            if ( _oMemoryMap.remove( oNode._sKey, oNode ) )
+            {
+               boolean bSpilled = false;
+
+               _oMemorySize.addAndGet( - oNode._lWeight );
+
+               if ( _oSpillFile != null )
+               {
+                  synchronized ( _oSpillFile )
+                  {
+                     // a put of the key since it was removed from memory has the newer entry
+                     bSpilled = ! _oMemoryMap.containsKey( oNode._sKey ) && _oSpillFile.put( oNode._sKey, oNode._oEntry );
+                  }
+               }
+
+               if ( bSpilled )
+               {
+                  _oSpillCounter.increment();
+               }
+               else
+               {
+                  _oEvictionCounter.increment();
+               }
+            }
+         }
+      }
+   }
+
+   private void removeSpilled( String sKey )
+   {
+      if ( _oSpillFile != null )
+      {
+         synchronized ( _oSpillFile )
+         {
+            _oSpillFile.remove( sKey );
+         }
+      }
+   }
+
+   private static long getWeight( String sKey, Entry oEntry )
+   {
+      byte[] ayCompressedOutput = oEntry.getCompressedOutput();
+
+      return oEntry.getOutput().length
+             + ( ayCompressedOutput == null ? 0 : ayCompressedOutput.length )
+             + sKey.length() * 2 + oEntry.getHeaderList().size() * 64 + ENTRY_OVERHEAD;
+   }
+
+   /**
+    * An immutable cached response
+    */
+   public static class Entry
+   {
+      private String    _sContentType;
+      private List      _oHeaderList;
+      private byte[]    _ayOutput;
+      private byte[]    _ayCompressedOutput;
+      private long      _lExpiresAt;
+      private long      _lStaleUntil;
+
+      public Entry( String sContentType, List oHeaderList, byte[] ayOutput, byte[] ayCompressedOutput, long lExpiresAt, long lStaleUntil )
+      {
+         _sContentType        = sContentType;
+         _oHeaderList         = oHeaderList;
+         _ayOutput            = ayOutput;
+         _ayCompressedOutput  = ayCompressedOutput;
+         _lExpiresAt          = lExpiresAt;
+         _lStaleUntil         = lStaleUntil;
+      }
+
+      public String getContentType()
+      {
+         return _sContentType;
+      }
+
+      /**
+       * @return the headers in the form used by OutputCaptureResponse.applyHeaders()
+       */
+      public List getHeaderList()
+      {
+         return _oHeaderList;
+      }
+
+      public byte[] getOutput()
+      {
+         return _ayOutput;
+      }
+
+      /**
+       * @return the output in gzip format, or null if the output is not kept compressed
+       */
+      public byte[] getCompressedOutput()
+      {
+         return _ayCompressedOutput;
+      }
+
+      public long getExpiresAt()
+      {
+         return _lExpiresAt;
+      }
+
+      public long getStaleUntil()
+      {
+         return _lStaleUntil;
+      }
+
+      private Entry withOutput( byte[] ayOutput )
+      {
+         // only the uncompressed output is kept in the spill file, a spilled entry is sent uncompressed
+         return new Entry( _sContentType, _oHeaderList, ayOutput, null, _lExpiresAt, _lStaleUntil );
+      }
+   }
+
+   /**
+    * An entry in memory, with its weight and the flag used to give a recently read entry a second chance
+    */
+   private static class Node
+   {
+      private           String   _sKey;
+      private           Entry    _oEntry;
+      private           long     _lWeight;
+      private volatile  boolean  _bReferenced;
+
+      private Node( String sKey, Entry oEntry, long lWeight )
+      {
+         _sKey    = sKey;
+         _oEntry  = oEntry;
+         _lWeight = lWeight;
+      }
+   }
+
+   /**
+    * A memory mapped file used as a ring of entry outputs, must be used with its own lock held
+    */
+   private static class SpillFile
+   {
+      private  File              _oFile;
+      private  RandomAccessFile  _oRandomAccessFile;
+      private  MappedByteBuffer  _oBuffer;
+      private  int               _iWritePosition;
+      private  boolean           _bClosed;
+
+      // the live regions in the order written, and the same regions by key
+      private  LinkedList        _oRegionQueue;
+      private  Map               _oRegionMap;
+
+      private SpillFile( File oFile, int iSize ) throws IOException
+      {
+         _oFile               = oFile;
+         _oRandomAccessFile   = new RandomAccessFile( oFile, "rw" );
+
+         try
+         {
+            _oRandomAccessFile.setLength( iSize );
+            _oBuffer = _oRandomAccessFile.getChannel().map( FileChannel.MapMode.READ_WRITE, 0, iSize );
+         }
+         catch ( IOException e )
+         {
+            _oRandomAccessFile.close();
+            throw e;
+         }
+
+         _iWritePosition   = 0;
+         _oRegionQueue     = new LinkedList();
+         _oRegionMap       = new HashMap();
+      }
+
+      private Entry get( String sKey )
+      {
+         Region oRegion = ( Region ) _oRegionMap.get( sKey );
+
+         if ( oRegion == null )
+         {
+            return null;
+         }
+
+         byte[]      ayOutput = new byte[ oRegion._iLength ];
+         ByteBuffer  oBuffer  = _oBuffer.duplicate();
+
+         oBuffer.position( oRegion._iOffset );
+         oBuffer.get( ayOutput );
+
+         return oRegion._oEntry.withOutput( ayOutput );
+      }
+
+      private boolean put( String sKey, Entry oEntry )
+      {
+         byte[]   ayOutput = oEntry.getOutput();
+         int      iLength  = ayOutput.length;
+
+         if ( _bClosed || iLength == 0 || iLength > _oBuffer.capacity() )
+         {
+            return false;
+         }
+
+         remove( sKey );
+
+         // the regions ahead of the write position were written in the previous pass over the file, and are
+         // at the head of the queue in the order of their offsets, if the output does not fit before the end
+         // of the file the regions after the write position are abandoned and we start over at the beginning
+         if ( _iWritePosition + iLength > _oBuffer.capacity() )
+         {
+            while ( ! _oRegionQueue.isEmpty() && ( ( Region ) _oRegionQueue.getFirst() )._iOffset >= _iWritePosition )
+            {
+               dropRegion( ( Region ) _oRegionQueue.removeFirst() );
+            }
+
+            _iWritePosition = 0;
+         }
+
+         // drop the regions of the previous pass that the new output overlaps
+         while ( ! _oRegionQueue.isEmpty() )
+         {
+            Region oOldestRegion = ( Region ) _oRegionQueue.getFirst();
+
+            if ( oOldestRegion._iOffset < _iWritePosition || oOldestRegion._iOffset >= _iWritePosition + iLength )
+            {
+               break;
+            }
+
+            dropRegion( ( Region ) _oRegionQueue.removeFirst() );
+         }
+
+         ByteBuffer oBuffer = _oBuffer.duplicate();
+
+         oBuffer.position( _iWritePosition );
+         oBuffer.put( ayOutput );
+
+         Region oRegion = new Region( sKey, oEntry.withOutput( null ), _iWritePosition, iLength );
+
+         _oRegionQueue.addLast( oRegion );
+         _oRegionMap.put( sKey, oRegion );
+
+         _iWritePosition += iLength;
+
+         return true;
+      }
+
+      private void remove( String sKey )
+      {
+         Region oRegion = ( Region ) _oRegionMap.remove( sKey );
+
+         if ( oRegion != null )
+         {
+            // the region stays in the queue until it is overwritten, it is just no longer reachable
+            oRegion._bLive = false;
+         }
+      }
+
+      private void dropRegion( Region oRegion )
+      {
+         if ( oRegion._bLive )
+         {
+            _oRegionMap.remove( oRegion._sKey );
+         }
+      }
+
+      private void close()
+      {
+         _bClosed = true;
+
+         _oRegionQueue.clear();
+         _oRegionMap.clear();
+
+         try
+         {
+            _oRandomAccessFile.close();
+         }
+         catch ( IOException e )
+         {
+            // nothing useful to do, the file is discarded below
+         }
+
+         // the mapping itself is released when the buffer is collected, on some platforms this prevents the
+         // delete below from succeeding, which is harmless since the contents are not read at startup
+         _oFile.delete();
+      }
+   }
+
+   private static class Region
+   {
+      private String    _sKey;
+      private Entry     _oEntry;
+      private int       _iOffset;
+      private int       _iLength;
+      private boolean   _bLive;
+
+      private Region( String sKey, Entry oEntry, int iOffset, int iLength )
+      {
+         _sKey    = sKey;
+         _oEntry  = oEntry;
+         _iOffset = iOffset;
+         _iLength = iLength;
+         _bLive   = true;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
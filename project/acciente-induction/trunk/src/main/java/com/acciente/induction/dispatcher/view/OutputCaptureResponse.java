@@ -0,0 +1,379 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Internal.
+ * A response wrapper that collects the complete output of a view, and the headers it sets, so that the output
+ * can be kept in the output cache before it is sent to the response.
+ * <p>
+ * The content type, character encoding and status are passed on to the wrapped response as they are set,
+ * since the character encoding of the writer depends on them. Other headers are collected and applied to the
+ * response when the output is sent. An error or a redirect sent by the view is passed on immediately, after
+ * the collected headers are applied.
+ * <p>
+ * This class is not thread safe, it is used by a single request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class OutputCaptureResponse extends HttpServletResponseWrapper
+{
+   private ByteArrayOutputStream _oCaptureStream;
+   private ServletOutputStream   _oOutputStream;
+   private PrintWriter           _oWriter;
+   private List                  _oHeaderList;
+   private int                   _iStatus;
+   private boolean               _bCacheable;
+   private boolean               _bResponseSent;
+
+   public OutputCaptureResponse( HttpServletResponse oResponse )
+   {
+      super( oResponse );
+
+      _oCaptureStream   = new ByteArrayOutputStream();
+      _oHeaderList      = new ArrayList();
+      _iStatus          = SC_OK;
+      _bCacheable       = true;
+      _bResponseSent    = false;
+   }
+
+   /**
+    * @return true if the view completed normally with a 200 status, and did not set a cookie or ask for its
+    * output not to be stored
+    */
+   public boolean isCacheable()
+   {
+      return _bCacheable && _iStatus == SC_OK && ! _bResponseSent;
+   }
+
+   /**
+    * @return true if the view sent an error or a redirect, in which case the response is complete
+    */
+   public boolean isResponseSent()
+   {
+      return _bResponseSent;
+   }
+
+   public int getStatus()
+   {
+      return _iStatus;
+   }
+
+   /**
+    * @return the headers set by the view, each element is an Object[] holding the header name, the value (a
+    * String, Long for a date header or Integer) and a Boolean that is true if the header was added
+    */
+   public List getHeaderList()
+   {
+      return _oHeaderList;
+   }
+
+   /**
+    * @return the output of the view
+    * @throws IOException if the writer could not be flushed
+    */
+   public byte[] getOutput() throws IOException
+   {
+      if ( _oWriter != null )
+      {
+         _oWriter.flush();
+      }
+
+      return _oCaptureStream.toByteArray();
+   }
+
+   public ServletOutputStream getOutputStream() throws IOException
+   {
+      if ( _oOutputStream == null )
+      {
+         _oOutputStream = new ServletOutputStream()
+         {
+            public void write( int iByte )
+            {
+               _oCaptureStream.write( iByte );
+            }
+
+            public void write( byte[] ayBytes, int iOffset, int iLength )
+            {
+               _oCaptureStream.write( ayBytes, iOffset, iLength );
+            }
+         };
+      }
+
+      return _oOutputStream;
+   }
+
+   public PrintWriter getWriter() throws IOException
+   {
+      if ( _oWriter == null )
+      {
+         _oWriter = new PrintWriter( new OutputStreamWriter( _oCaptureStream, getCharacterEncoding() ) );
+      }
+
+      return _oWriter;
+   }
+
+   public void flushBuffer() throws IOException
+   {
+      // the output is sent as a whole after the view completes, so we only move the chars written so far
+      // into the capture buffer
+      if ( _oWriter != null )
+      {
+         _oWriter.flush();
+      }
+   }
+
+   public boolean isCommitted()
+   {
+      return _bResponseSent;
+   }
+
+   public void reset()
+   {
+      super.reset();
+      resetBuffer();
+
+      _oHeaderList.clear();
+      _iStatus       = SC_OK;
+      _bCacheable    = true;
+   }
+
+   public void resetBuffer()
+   {
+      if ( _oWriter != null )
+      {
+         _oWriter.flush();
+      }
+
+      _oCaptureStream.reset();
+   }
+
+   public void setContentLength( int iLength )
+   {
+      // ignored, the length is set when the output is sent
+   }
+
+   public void setBufferSize( int iSize )
+   {
+      // ignored, the output is always buffered in full
+   }
+
+   public void setStatus( int iStatus )
+   {
+      super.setStatus( iStatus );
+
+      _iStatus = iStatus;
+   }
+
+   public void setStatus( int iStatus, String sMessage )
+   {
+      setStatus( iStatus );
+   }
+
+   public void sendError( int iStatus ) throws IOException
+   {
+      _iStatus = iStatus;
+      applyHeaders( _oHeaderList, ( HttpServletResponse ) getResponse() );
+      _bResponseSent = true;
+
+      super.sendError( iStatus );
+   }
+
+   public void sendError( int iStatus, String sMessage ) throws IOException
+   {
+      _iStatus = iStatus;
+      applyHeaders( _oHeaderList, ( HttpServletResponse ) getResponse() );
+      _bResponseSent = true;
+
+      super.sendError( iStatus, sMessage );
+   }
+
+   public void sendRedirect( String sLocation ) throws IOException
+   {
+      _iStatus = SC_MOVED_TEMPORARILY;
+      applyHeaders( _oHeaderList, ( HttpServletResponse ) getResponse() );
+      _bResponseSent = true;
+
+      super.sendRedirect( sLocation );
+   }
+
+   public void addCookie( Cookie oCookie )
+   {
+      // a cookie is specific to a user, so the output must not be shared
+      _bCacheable = false;
+
+      super.addCookie( oCookie );
+   }
+
+   public boolean containsHeader( String sName )
+   {
+      for ( Iterator oIter = _oHeaderList.iterator(); oIter.hasNext(); )
+      {
+         if ( ( ( String ) ( ( Object[] ) oIter.next() )[ 0 ] ).equalsIgnoreCase( sName ) )
+         {
+            return true;
+         }
+      }
+
+      return super.containsHeader( sName );
+   }
+
+   public void setHeader( String sName, String sValue )
+   {
+      setHeader( sName, sValue, false );
+   }
+
+   public void addHeader( String sName, String sValue )
+   {
+      setHeader( sName, sValue, true );
+   }
+
+   public void setDateHeader( String sName, long lValue )
+   {
+      setHeader( sName, new Long( lValue ), false );
+   }
+
+   public void addDateHeader( String sName, long lValue )
+   {
+      setHeader( sName, new Long( lValue ), true );
+   }
+
+   public void setIntHeader( String sName, int iValue )
+   {
+      setHeader( sName, new Integer( iValue ), false );
+   }
+
+   public void addIntHeader( String sName, int iValue )
+   {
+      setHeader( sName, new Integer( iValue ), true );
+   }
+
+   private void setHeader( String sName, Object oValue, boolean bAdd )
+   {
+      if ( "Content-Type".equalsIgnoreCase( sName ) )
+      {
+         // the content type affects the character encoding of the writer, so it is set right away
+         setContentType( oValue.toString() );
+         return;
+      }
+
+      if ( "Content-Length".equalsIgnoreCase( sName ) )
+      {
+         return;
+      }
+
+      if ( "Set-Cookie".equalsIgnoreCase( sName ) )
+      {
+         _bCacheable = false;
+      }
+      else if ( "Cache-Control".equalsIgnoreCase( sName ) )
+      {
+         String sValue = oValue.toString().toLowerCase();
+
+         if ( sValue.indexOf( "no-store" ) != -1 || sValue.indexOf( "private" ) != -1 )
+         {
+            _bCacheable = false;
+         }
+      }
+
+      if ( _bResponseSent )
+      {
+         return;
+      }
+
+      if ( ! bAdd )
+      {
+         for ( Iterator oIter = _oHeaderList.iterator(); oIter.hasNext(); )
+         {
+            if ( ( ( String ) ( ( Object[] ) oIter.next() )[ 0 ] ).equalsIgnoreCase( sName ) )
+            {
+               oIter.remove();
+            }
+         }
+      }
+
+      _oHeaderList.add( new Object[]{ sName, oValue, Boolean.valueOf( bAdd ) } );
+   }
+
+   /**
+    * Sets the collected headers on a response
+    *
+    * @param oHeaderList a list of headers as returned by getHeaderList()
+    * @param oResponse the response to set the headers on
+    */
+   public static void applyHeaders( List oHeaderList, HttpServletResponse oResponse )
+   {
+      for ( Iterator oIter = oHeaderList.iterator(); oIter.hasNext(); )
+      {
+         Object[] aoHeader  = ( Object[] ) oIter.next();
+         String   sName     = ( String ) aoHeader[ 0 ];
+         Object   oValue    = aoHeader[ 1 ];
+         boolean  bAdd      = ( ( Boolean ) aoHeader[ 2 ] ).booleanValue();
+
+         if ( oValue instanceof Long )
+         {
+            if ( bAdd )
+            {
+               oResponse.addDateHeader( sName, ( ( Long ) oValue ).longValue() );
+            }
+            else
+            {
+               oResponse.setDateHeader( sName, ( ( Long ) oValue ).longValue() );
+            }
+         }
+         else if ( oValue instanceof Integer )
+         {
+            if ( bAdd )
+            {
+               oResponse.addIntHeader( sName, ( ( Integer ) oValue ).intValue() );
+            }
+            else
+            {
+               oResponse.setIntHeader( sName, ( ( Integer ) oValue ).intValue() );
+            }
+         }
+         else
+         {
+            if ( bAdd )
+            {
+               oResponse.addHeader( sName, ( String ) oValue );
+            }
+            else
+            {
+               oResponse.setHeader( sName, ( String ) oValue );
+            }
+         }
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
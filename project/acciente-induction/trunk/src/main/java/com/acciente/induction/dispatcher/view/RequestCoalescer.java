@@ -0,0 +1,361 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Internal.
+ * Coalesces identical requests for a view that arrive while the view is being rendered for one of them. The
+ * first request (the leader) renders the view, the identical requests that arrive before it completes wait
+ * for its output and are answered with the same encoded bytes, without creating or rendering the view.
+ * <p>
+ * A request is coalesced if it is a GET or HEAD, its URL matches a coalesced-url in the request-coalescing
+ * configuration, and it has none of the bypass headers or cookies of the coalesced-url. Two requests are
+ * identical if they have the same URL path and the same values for the key parameters and key headers.
+ * <p>
+ * The output of the leader is shared only if the view completed normally with a 200 status, did not set a
+ * cookie or a private or no-store Cache-Control, and did not send a Vary header that names a header other
+ * than Accept-Encoding or the key headers. Otherwise, or if the leader does not complete within the wait
+ * timeout, a waiting request renders the view itself. As with the output cache, these checks apply to the
+ * captured output of the view, headers set by the constructor of a view are sent to the leader's client only.
+ * <p>
+ * Unlike the output cache nothing is kept once the leader completes, so coalescing protects a view whose
+ * output cannot be cached, or whose cache entry has not been created yet, from a burst of identical requests.
+ * <p>
+ * The following counters are published: request-coalescing.leaders, request-coalescing.coalesced,
+ * request-coalescing.timeouts, request-coalescing.not-shared.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class RequestCoalescer
+{
+   private  List           _oCoalescedURLList;
+   private  long           _lWaitTimeoutMillis;
+   private  ConcurrentMap  _oFlightMap;
+   private  OutputCache    _oOutputCache;
+
+   private  Counter        _oLeaderCounter;
+   private  Counter        _oCoalescedCounter;
+   private  Counter        _oTimeoutCounter;
+   private  Counter        _oNotSharedCounter;
+
+   public RequestCoalescer( Config.ViewMapping.RequestCoalescing   oRequestCoalescingConfig,
+                            OutputCache                            oOutputCache,
+                            Statistics                             oStatistics )
+   {
+      _oCoalescedURLList   = oRequestCoalescingConfig.getCoalescedURLList();
+      _lWaitTimeoutMillis  = oRequestCoalescingConfig.getWaitTimeout();
+      _oFlightMap          = new ConcurrentHashMap();
+      _oOutputCache        = oOutputCache;
+
+      _oLeaderCounter      = oStatistics.getCounter( "request-coalescing.leaders" );
+      _oCoalescedCounter   = oStatistics.getCounter( "request-coalescing.coalesced" );
+      _oTimeoutCounter     = oStatistics.getCounter( "request-coalescing.timeouts" );
+      _oNotSharedCounter   = oStatistics.getCounter( "request-coalescing.not-shared" );
+   }
+
+   /**
+    * Joins the request to the in-progress render of an identical request, or makes it the leader of a new one.
+    * <p>
+    * The leader must call complete() once the view is rendered, and leave() in all cases. A request that is not
+    * the leader must call awaitAndSend().
+    *
+    * @param oRequest the request
+    * @return a ticket, or null if the request is not coalesced
+    */
+   public Ticket join( HttpServletRequest oRequest )
+   {
+      if ( _oCoalescedURLList.isEmpty() )
+      {
+         return null;
+      }
+
+      String sMethod = oRequest.getMethod();
+
+      if ( ! "GET".equals( sMethod ) && ! "HEAD".equals( sMethod ) )
+      {
+         return null;
+      }
+
+      Config.ViewMapping.RequestCoalescing.CoalescedURL oCoalescedURL = getCoalescedURL( oRequest );
+
+      if ( oCoalescedURL == null || isBypassed( oCoalescedURL, oRequest ) )
+      {
+         return null;
+      }
+
+      Flight oNewFlight = new Flight( OutputCache.getKey( oRequest, oCoalescedURL.getKeyParameters(), oCoalescedURL.getKeyHeaders() ),
+                                      oCoalescedURL.getKeyHeaders() );
+      Flight oFlight    = ( Flight ) _oFlightMap.putIfAbsent( oNewFlight._sKey, oNewFlight );
+
+      if ( oFlight == null )
+      {
+         _oLeaderCounter.increment();
+
+         return new Ticket( oNewFlight, true );
+      }
+
+      return new Ticket( oFlight, false );
+   }
+
+   /**
+    * Waits for the leader of the request's flight, and sends its output
+    *
+    * @param oTicket the ticket returned by join() for the request
+    * @param oRequest the request
+    * @param oResponse the response
+    * @return true if the response was sent, false if the leader did not complete within the wait timeout, or its
+    * output cannot be shared, in which case the request must render the view itself
+    * @throws IOException if the output could not be sent
+    */
+   public boolean awaitAndSend( Ticket oTicket, HttpServletRequest oRequest, HttpServletResponse oResponse )
+      throws IOException
+   {
+      Flight   oFlight = oTicket._oFlight;
+      boolean  bCompleted;
+
+      try
+      {
+         bCompleted = oFlight._oCompletedLatch.await( _lWaitTimeoutMillis, TimeUnit.MILLISECONDS );
+      }
+      catch ( InterruptedException e )
+      {
+         Thread.currentThread().interrupt();
+         bCompleted = false;
+      }
+
+      if ( ! bCompleted )
+      {
+         _oTimeoutCounter.increment();
+         return false;
+      }
+
+      if ( oFlight._oEntry == null )
+      {
+         _oNotSharedCounter.increment();
+         return false;
+      }
+
+      _oCoalescedCounter.increment();
+
+      _oOutputCache.send( oFlight._oEntry, oRequest, oResponse );
+
+      return true;
+   }
+
+   /**
+    * Called by the leader once the view is rendered, releases the waiting requests with the output of the view
+    * if it can be shared
+    *
+    * @param oTicket the ticket returned by join() for the leader
+    * @param oCapture the response wrapper that collected the output of the view
+    * @param oEntry the output of the view, or null if the view sent an error or a redirect
+    */
+   public void complete( Ticket oTicket, OutputCaptureResponse oCapture, OutputCacheStore.Entry oEntry )
+   {
+      Flight oFlight = oTicket._oFlight;
+
+      if ( oEntry != null && oCapture.isCacheable() && isVaryCovered( oEntry.getHeaderList(), oFlight._asKeyHeaders ) )
+      {
+         oFlight._oEntry = oEntry;
+      }
+
+      release( oFlight );
+   }
+
+   /**
+    * Called by the leader when it is done with the view, whether or not the view completed, so that waiting
+    * requests are not held until the wait timeout if the view failed
+    *
+    * @param oTicket the ticket returned by join() for the leader
+    */
+   public void leave( Ticket oTicket )
+   {
+      if ( oTicket._bLeader )
+      {
+         release( oTicket._oFlight );
+      }
+   }
+
+   private void release( Flight oFlight )
+   {
+      // the flight is removed first, so that a request that arrives after this point starts a new flight
+      _oFlightMap.remove( oFlight._sKey, oFlight );
+      oFlight._oCompletedLatch.countDown();
+   }
+
+   private Config.ViewMapping.RequestCoalescing.CoalescedURL getCoalescedURL( HttpServletRequest oRequest )
+   {
+      String sURLPath = oRequest.getPathInfo() == null
+                        ? oRequest.getServletPath()
+                        : oRequest.getServletPath() + oRequest.getPathInfo();
+
+      for ( Iterator oIter = _oCoalescedURLList.iterator(); oIter.hasNext(); )
+      {
+         Config.ViewMapping.RequestCoalescing.CoalescedURL oCoalescedURL = ( Config.ViewMapping.RequestCoalescing.CoalescedURL ) oIter.next();
+
+         if ( oCoalescedURL.getURLPattern().matcher( sURLPath ).matches() )
+         {
+            return oCoalescedURL;
+         }
+      }
+
+      return null;
+   }
+
+   private static boolean isBypassed( Config.ViewMapping.RequestCoalescing.CoalescedURL oCoalescedURL, HttpServletRequest oRequest )
+   {
+      String[] asBypassHeaders = oCoalescedURL.getBypassHeaders();
+
+      for ( int i = 0; i < asBypassHeaders.length; i++ )
+      {
+         if ( oRequest.getHeader( asBypassHeaders[ i ] ) != null )
+         {
+            return true;
+         }
+      }
+
+      String[] asBypassCookies = oCoalescedURL.getBypassCookies();
+
+      if ( asBypassCookies.length > 0 )
+      {
+         Cookie[] aoCookies = oRequest.getCookies();
+
+         for ( int i = 0; aoCookies != null && i < aoCookies.length; i++ )
+         {
+            for ( int j = 0; j < asBypassCookies.length; j++ )
+            {
+               if ( asBypassCookies[ j ].equals( aoCookies[ i ].getName() ) )
+               {
+                  return true;
+               }
+            }
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * @return true if each header named by the Vary headers of a response is Accept-Encoding (which is handled
+    * when the output is sent) or one of the key headers
+    */
+   private static boolean isVaryCovered( List oHeaderList, String[] asKeyHeaders )
+   {
+      for ( Iterator oIter = oHeaderList.iterator(); oIter.hasNext(); )
+      {
+         Object[] aoHeader = ( Object[] ) oIter.next();
+
+         if ( ! "Vary".equalsIgnoreCase( ( String ) aoHeader[ 0 ] ) )
+         {
+            continue;
+         }
+
+         String[] asVaryHeaders = aoHeader[ 1 ].toString().trim().split( "\\s*,\\s*" );
+
+         for ( int i = 0; i < asVaryHeaders.length; i++ )
+         {
+            if ( asVaryHeaders[ i ].length() > 0
+                 && ! "Accept-Encoding".equalsIgnoreCase( asVaryHeaders[ i ] )
+                 && ! contains( asKeyHeaders, asVaryHeaders[ i ] ) )
+            {
+               // this also covers Vary: *
+               return false;
+            }
+         }
+      }
+
+      return true;
+   }
+
+   private static boolean contains( String[] asNames, String sName )
+   {
+      for ( int i = 0; i < asNames.length; i++ )
+      {
+         if ( asNames[ i ].equalsIgnoreCase( sName ) )
+         {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * A request's place in a flight
+    */
+   public static class Ticket
+   {
+      private  Flight   _oFlight;
+      private  boolean  _bLeader;
+
+      private Ticket( Flight oFlight, boolean bLeader )
+      {
+         _oFlight = oFlight;
+         _bLeader = bLeader;
+      }
+
+      /**
+       * @return true if this request renders the view for the flight
+       */
+      public boolean isLeader()
+      {
+         return _bLeader;
+      }
+   }
+
+   /**
+    * The in-progress render of a view, shared by the identical requests that arrive before it completes
+    */
+   private static class Flight
+   {
+      private  String                  _sKey;
+      private  String[]                _asKeyHeaders;
+      private  CountDownLatch          _oCompletedLatch;
+
+      // written by the leader before the latch is released, the latch makes it visible to the waiting requests
+      private  OutputCacheStore.Entry  _oEntry;
+
+      private Flight( String sKey, String[] asKeyHeaders )
+      {
+         _sKey             = sKey;
+         _asKeyHeaders     = asKeyHeaders;
+         _oCompletedLatch  = new CountDownLatch( 1 );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.BufferPool;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Internal.
+ * Implements the gzip compression of view responses: the negotiation of Accept-Encoding, the selection of the
+ * responses that are worth compressing, and a pool of deflaters so that a deflater (and its native memory) is
+ * not created for every response.
+ * <p>
+ * The following counters are published: compression.responses, compression.bytes-in, compression.bytes-out,
+ * and the counters of the deflater pool under buffer-pool.compression.deflater.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ResponseCompression
+{
+   private static final String   ENCODING_GZIP     = "gzip";
+   private static final String   ETAG_SUFFIX       = "-gzip";
+
+   // a gzip member header with no optional fields, no modification time and an unknown operating system
+   private static final byte[]   GZIP_HEADER       = { 0x1f, ( byte ) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, ( byte ) 0xff };
+
+   private  boolean     _bEnabled;
+   private  int         _iMinSize;
+   private  String[]    _asMimeTypes;
+   private  BufferPool  _oDeflaterPool;
+
+   private  Counter     _oResponseCounter;
+   private  Counter     _oBytesInCounter;
+   private  Counter     _oBytesOutCounter;
+
+   public ResponseCompression( Config.Compression oCompressionConfig, Statistics oStatistics )
+   {
+      List oMimeTypeList = oCompressionConfig.getMimeTypeList();
+
+      _bEnabled         = oCompressionConfig.isEnabled();
+      _iMinSize         = oCompressionConfig.getMinSize();
+      _asMimeTypes      = ( String[] ) oMimeTypeList.toArray( new String[ oMimeTypeList.size() ] );
+      _oDeflaterPool    = new BufferPool( "buffer-pool.compression.deflater",
+                                          new DeflaterBufferType( oCompressionConfig.getLevel() ),
+                                          0,
+                                          oCompressionConfig.getMaxPooledDeflaters(),
+                                          0,
+                                          oStatistics );
+
+      _oResponseCounter = oStatistics.getCounter( "compression.responses" );
+      _oBytesInCounter  = oStatistics.getCounter( "compression.bytes-in" );
+      _oBytesOutCounter = oStatistics.getCounter( "compression.bytes-out" );
+   }
+
+   public boolean isEnabled()
+   {
+      return _bEnabled;
+   }
+
+   /**
+    * @return the size in bytes below which a response is sent uncompressed
+    */
+   public int getMinSize()
+   {
+      return _iMinSize;
+   }
+
+   /**
+    * @param oRequest a request
+    * @return true if the Accept-Encoding header of the request accepts gzip
+    */
+   public boolean isAcceptedBy( HttpServletRequest oRequest )
+   {
+      String sAcceptEncoding = oRequest.getHeader( "Accept-Encoding" );
+
+      if ( sAcceptEncoding == null )
+      {
+         return false;
+      }
+
+      boolean  bAccepted   = false;
+      String[] asCodings   = sAcceptEncoding.split( "," );
+
+      for ( int i = 0; i < asCodings.length; i++ )
+      {
+         String   sCoding        = asCodings[ i ].trim();
+         boolean  bZeroQuality   = false;
+         int      iParamIndex    = sCoding.indexOf( ';' );
+
+         if ( iParamIndex != -1 )
+         {
+            String sParams = sCoding.substring( iParamIndex + 1 ).replaceAll( "\\s", "" );
+
+            bZeroQuality   = sParams.matches( "(?i)q=0(\\.0*)?" );
+            sCoding        = sCoding.substring( 0, iParamIndex ).trim();
+         }
+
+         // an explicit gzip entry takes precedence over the wildcard
+         if ( sCoding.equalsIgnoreCase( ENCODING_GZIP ) || sCoding.equalsIgnoreCase( "x-gzip" ) )
+         {
+            return ! bZeroQuality;
+         }
+
+         if ( sCoding.equals( "*" ) )
+         {
+            bAccepted = ! bZeroQuality;
+         }
+      }
+
+      return bAccepted;
+   }
+
+   /**
+    * @param sContentType a content type, which may include parameters such as the charset
+    * @return true if responses of this content type are compressed
+    */
+   public boolean isCompressible( String sContentType )
+   {
+      if ( sContentType == null )
+      {
+         return false;
+      }
+
+      int iParamIndex = sContentType.indexOf( ';' );
+
+      String sMimeType = ( iParamIndex == -1 ? sContentType : sContentType.substring( 0, iParamIndex ) ).trim().toLowerCase();
+
+      for ( int i = 0; i < _asMimeTypes.length; i++ )
+      {
+         String sPattern = _asMimeTypes[ i ];
+
+         if ( sPattern.endsWith( "/*" )
+              ? sMimeType.startsWith( sPattern.substring( 0, sPattern.length() - 1 ) )
+              : sMimeType.equals( sPattern ) )
+         {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * Returns a response that compresses the output written to it, if compression is enabled and the request
+    * accepts gzip. The caller must call finish() on the returned response when the view completes.
+    *
+    * @param oRequest the request
+    * @param oResponse the response
+    * @return a compressing response, or null if the response should not be wrapped
+    */
+   public CompressingResponse wrap( HttpServletRequest oRequest, HttpServletResponse oResponse )
+   {
+      if ( ! _bEnabled || oResponse instanceof OutputCaptureResponse || oResponse.isCommitted() )
+      {
+         return null;
+      }
+
+      return new CompressingResponse( oResponse, this, isAcceptedBy( oRequest ) );
+   }
+
+   /**
+    * Compresses a complete output, used to keep compressed output in the output cache
+    *
+    * @param ayOutput the output
+    * @return the output in gzip format
+    */
+   public byte[] compress( byte[] ayOutput )
+   {
+      Deflater oDeflater = acquireDeflater();
+
+      try
+      {
+         ByteArrayOutputStream   oCompressed = new ByteArrayOutputStream( ayOutput.length / 3 + GZIP_HEADER.length + 8 );
+         byte[]                  ayBuffer    = new byte[ 8192 ];
+         CRC32                   oCRC        = new CRC32();
+
+         oCRC.update( ayOutput, 0, ayOutput.length );
+
+         oCompressed.write( GZIP_HEADER, 0, GZIP_HEADER.length );
+
+         oDeflater.setInput( ayOutput, 0, ayOutput.length );
+         oDeflater.finish();
+
+         while ( ! oDeflater.finished() )
+         {
+            oCompressed.write( ayBuffer, 0, oDeflater.deflate( ayBuffer ) );
+         }
+
+         writeTrailer( ayBuffer, oCRC.getValue(), ayOutput.length );
+         oCompressed.write( ayBuffer, 0, 8 );
+
+         recordCompressed( ayOutput.length, oCompressed.size() );
+
+         return oCompressed.toByteArray();
+      }
+      finally
+      {
+         releaseDeflater( oDeflater );
+      }
+   }
+
+   /**
+    * @param sETag the ETag of the uncompressed output
+    * @return the ETag of the gzip compressed output, since a compressed response is a different representation
+    * of the output it needs a different strong ETag
+    */
+   public static String toCompressedETag( String sETag )
+   {
+      if ( sETag.length() < 2 || ! sETag.endsWith( "\"" ) )
+      {
+         return sETag;
+      }
+
+      return sETag.substring( 0, sETag.length() - 1 ) + ETAG_SUFFIX + "\"";
+   }
+
+   static byte[] getGZIPHeader()
+   {
+      return GZIP_HEADER;
+   }
+
+   /**
+    * Writes the gzip trailer, the CRC and the length of the uncompressed output, to the first 8 bytes of a buffer
+    */
+   static void writeTrailer( byte[] ayBuffer, long lCRC, long lLength )
+   {
+      for ( int i = 0; i < 4; i++ )
+      {
+         ayBuffer[ i ]     = ( byte ) ( lCRC >> ( i * 8 ) );
+         ayBuffer[ i + 4 ] = ( byte ) ( lLength >> ( i * 8 ) );
+      }
+   }
+
+   Deflater acquireDeflater()
+   {
+      return ( Deflater ) _oDeflaterPool.acquire();
+   }
+
+   void releaseDeflater( Deflater oDeflater )
+   {
+      _oDeflaterPool.release( oDeflater );
+   }
+
+   void recordCompressed( long lBytesIn, long lBytesOut )
+   {
+      _oResponseCounter.increment();
+      _oBytesInCounter.add( lBytesIn );
+      _oBytesOutCounter.add( lBytesOut );
+   }
+
+   /**
+    * Pools deflaters that produce raw deflate output (the gzip framing is written separately), a deflater holds
+    * native memory until it is ended, so the deflaters that the pool does not keep are ended
+    */
+   private static class DeflaterBufferType implements BufferPool.BufferType
+   {
+      private int _iLevel;
+
+      private DeflaterBufferType( int iLevel )
+      {
+         _iLevel = iLevel;
+      }
+
+      public Object createBuffer( int iSize )
+      {
+         return new Deflater( _iLevel, true );
+      }
+
+      public int getSize( Object oBuffer )
+      {
+         // deflaters do not grow, so every released deflater is within the maximum retained size
+         return 0;
+      }
+
+      public void clear( Object oBuffer )
+      {
+         ( ( Deflater ) oBuffer ).reset();
+      }
+
+      public void dispose( Object oBuffer )
+      {
+         ( ( Deflater ) oBuffer ).end();
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
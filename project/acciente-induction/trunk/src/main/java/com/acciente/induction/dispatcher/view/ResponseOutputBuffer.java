@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Internal.
+ * An output stream that collects encoded view output in a fixed size buffer before it is sent to the response.
+ * <p>
+ * If the complete output fits in the buffer the Content-Length of the response is set when the output is
+ * sent, which allows the container to skip chunked encoding. Output that does not fit is passed on to the
+ * response as the buffer fills.
+ * <p>
+ * This class is not thread safe, it is used by a single request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ResponseOutputBuffer extends OutputStream
+{
+   private HttpServletResponse   _oResponse;
+   private byte[]                _ayBuffer;
+   private int                   _iBufferCount;
+   private OutputStream          _oResponseOutputStream;
+   private ByteArrayOutputStream _oWriterFallbackStream;
+
+   public ResponseOutputBuffer( HttpServletResponse oResponse, byte[] ayBuffer )
+   {
+      _oResponse     = oResponse;
+      _ayBuffer      = ayBuffer;
+      _iBufferCount  = 0;
+   }
+
+   public void write( int iByte ) throws IOException
+   {
+      if ( _iBufferCount == _ayBuffer.length )
+      {
+         writeBuffer();
+      }
+
+      _ayBuffer[ _iBufferCount++ ] = ( byte ) iByte;
+   }
+
+   public void write( byte[] ayBytes, int iOffset, int iLength ) throws IOException
+   {
+      if ( iLength > _ayBuffer.length - _iBufferCount )
+      {
+         writeBuffer();
+
+         if ( iLength >= _ayBuffer.length )
+         {
+            getResponseOutputStream().write( ayBytes, iOffset, iLength );
+            return;
+         }
+      }
+
+      System.arraycopy( ayBytes, iOffset, _ayBuffer, _iBufferCount, iLength );
+      _iBufferCount += iLength;
+   }
+
+   /**
+    * The output is only sent when the buffer fills or the buffer is closed, a flush has no effect
+    */
+   public void flush()
+   {
+   }
+
+   /**
+    * Sends the buffered output to the response, setting the Content-Length if all the output was buffered
+    */
+   public void close() throws IOException
+   {
+      boolean bAllOutputBuffered = ( _oResponseOutputStream == null );
+
+      getResponseOutputStream();
+
+      if ( _oWriterFallbackStream != null )
+      {
+         writeBuffer();
+
+         // the length is not known here, since the writer may already hold other output
+         _oResponse.getWriter().write( _oWriterFallbackStream.toString( _oResponse.getCharacterEncoding() ) );
+         _oResponse.getWriter().flush();
+      }
+      else
+      {
+         if ( bAllOutputBuffered )
+         {
+            _oResponse.setContentLength( _iBufferCount );
+         }
+
+         writeBuffer();
+
+         _oResponseOutputStream.flush();
+      }
+   }
+
+   /**
+    * @return true if none of the output has been sent to the response yet
+    */
+   public boolean isAllOutputBuffered()
+   {
+      return _oResponseOutputStream == null;
+   }
+
+   /**
+    * @return the number of bytes held in the buffer
+    */
+   public int getBufferedLength()
+   {
+      return _iBufferCount;
+   }
+
+   /**
+    * Drops the output held in the buffer (output already sent to the response is not affected)
+    */
+   public void discard()
+   {
+      _iBufferCount = 0;
+   }
+
+   /**
+    * Used by writers in this package that encode directly into the buffer (see JSONWriter), such a writer
+    * tracks the length of the output in the buffer and sets it before the buffer is sent or closed
+    *
+    * @return the buffer
+    */
+   byte[] getBuffer()
+   {
+      return _ayBuffer;
+   }
+
+   void setBufferedLength( int iBufferCount )
+   {
+      _iBufferCount = iBufferCount;
+   }
+
+   /**
+    * Sends the output held in the buffer to the response, after which the buffer is empty
+    */
+   void sendBuffer() throws IOException
+   {
+      writeBuffer();
+   }
+
+   private void writeBuffer() throws IOException
+   {
+      OutputStream oResponseOutputStream = getResponseOutputStream();
+
+      if ( _iBufferCount > 0 )
+      {
+         oResponseOutputStream.write( _ayBuffer, 0, _iBufferCount );
+         _iBufferCount = 0;
+      }
+   }
+
+   private OutputStream getResponseOutputStream() throws IOException
+   {
+      if ( _oResponseOutputStream == null )
+      {
+         try
+         {
+            _oResponseOutputStream = _oResponse.getOutputStream();
+         }
+         catch ( IllegalStateException e )
+         {
+            // the response writer is already in use (for example by an interceptor), so the output is
+            // collected and decoded to the writer when the buffer is closed
+            _oWriterFallbackStream  = new ByteArrayOutputStream( _ayBuffer.length * 2 );
+            _oResponseOutputStream  = _oWriterFallbackStream;
+         }
+      }
+
+      return _oResponseOutputStream;
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Internal.
+ * A writer that passes template output to the response writer through a fixed size buffer. The buffered output
+ * is written to the response when the buffer fills, and flushed to the client when the template flushes, so the
+ * memory used for a page is bounded by the buffer size irrespective of the size of the page.
+ * <p>
+ * This class is not thread safe, it is used by a single request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class StreamingResponseWriter extends Writer
+{
+   private Writer    _oResponseWriter;
+   private char[]    _acBuffer;
+   private int       _iBufferCount;
+
+   public StreamingResponseWriter( Writer oResponseWriter, char[] acBuffer )
+   {
+      _oResponseWriter  = oResponseWriter;
+      _acBuffer         = acBuffer;
+      _iBufferCount     = 0;
+   }
+
+   public void write( int iChar ) throws IOException
+   {
+      if ( _iBufferCount == _acBuffer.length )
+      {
+         writeBuffer();
+      }
+
+      _acBuffer[ _iBufferCount++ ] = ( char ) iChar;
+   }
+
+   public void write( char[] acChars, int iOffset, int iLength ) throws IOException
+   {
+      if ( iLength >= _acBuffer.length )
+      {
+         // the chars would not fit the buffer even when empty, so we write them through
+         writeBuffer();
+         _oResponseWriter.write( acChars, iOffset, iLength );
+      }
+      else
+      {
+         if ( iLength > _acBuffer.length - _iBufferCount )
+         {
+            writeBuffer();
+         }
+
+         System.arraycopy( acChars, iOffset, _acBuffer, _iBufferCount, iLength );
+         _iBufferCount += iLength;
+      }
+   }
+
+   public void write( String sChars, int iOffset, int iLength ) throws IOException
+   {
+      // copy the string in buffer sized chunks, this avoids the temporary char array Writer allocates
+      while ( iLength > 0 )
+      {
+         if ( _iBufferCount == _acBuffer.length )
+         {
+            writeBuffer();
+         }
+
+         int iChunkLength = Math.min( iLength, _acBuffer.length - _iBufferCount );
+
+         sChars.getChars( iOffset, iOffset + iChunkLength, _acBuffer, _iBufferCount );
+
+         _iBufferCount  += iChunkLength;
+         iOffset        += iChunkLength;
+         iLength        -= iChunkLength;
+      }
+   }
+
+   /**
+    * Sends the output written so far to the client
+    */
+   public void flush() throws IOException
+   {
+      writeBuffer();
+      _oResponseWriter.flush();
+   }
+
+   /**
+    * Writes the buffered output to the response writer, the response writer is not closed since the
+    * container owns it
+    */
+   public void close() throws IOException
+   {
+      writeBuffer();
+   }
+
+   /**
+    * Drops the output buffered in this writer (output already passed to the response writer is not affected)
+    */
+   public void discard()
+   {
+      _iBufferCount = 0;
+   }
+
+   private void writeBuffer() throws IOException
+   {
+      if ( _iBufferCount > 0 )
+      {
+         _oResponseWriter.write( _acBuffer, 0, _iBufferCount );
+         _iBufferCount = 0;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -18,20 +18,36 @@
 package com.acciente.induction.dispatcher.view;
 
 import com.acciente.commons.reflect.ParameterProviderException;
+import com.acciente.induction.dispatcher.batch.BatchSubResponse;
+import com.acciente.induction.dispatcher.model.ModelPool;
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.model.BatchException;
 import com.acciente.induction.resolver.ViewResolver;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.template.OutputStreamTemplatingEngine;
 import com.acciente.induction.template.TemplatingEngine;
 import com.acciente.induction.template.TemplatingEngineException;
+import com.acciente.induction.util.BufferPool;
 import com.acciente.induction.util.ConstructorNotFoundException;
+import com.acciente.induction.view.ChannelView;
+import com.acciente.induction.view.EventStream;
+import com.acciente.induction.view.FileView;
 import com.acciente.induction.view.Image;
 import com.acciente.induction.view.ImageStream;
+import com.acciente.induction.view.JSON;
+import com.acciente.induction.view.StreamingTemplate;
 import com.acciente.induction.view.Template;
 import com.acciente.induction.view.Text;
+import com.acciente.induction.view.VersionedView;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
@@ -47,23 +63,169 @@ public class ViewExecutor
 {
    private  ViewFactory          _oViewFactory;
    private  TemplatingEngine     _oTemplatingEngine;
-   private  StringWriterPool     _oStringWriterPool;
-   private  CharArrayPool        _oCharArrayPool;
-
-   public ViewExecutor( ViewFactory oViewFactory, TemplatingEngine oTemplatingEngine )
+   private  ModelPool            _oModelPool;
+   private  BufferPool           _oStringWriterPool;
+   private  BufferPool           _oCharArrayPool;
+   private  BufferPool           _oByteArrayPool;
+
+   private  Config.Templating.Streaming   _oStreamingConfig;
+   private  BufferPool                    _oStreamingBufferPool;
+   private  OutputCache                   _oOutputCache;
+   private  RequestCoalescer              _oRequestCoalescer;
+   private  ConditionalGet                _oConditionalGet;
+   private  ResponseCompression           _oResponseCompression;
+   private  FileSender                    _oFileSender;
+   private  EventStreamSender             _oEventStreamSender;
+   private  Log                           _oLog;
+
+   public ViewExecutor( ViewFactory                  oViewFactory,
+                        TemplatingEngine             oTemplatingEngine,
+                        ModelPool                    oModelPool,
+                        Config.Templating.Streaming  oStreamingConfig,
+                        Config.BufferPool            oBufferPoolConfig,
+                        OutputCache                  oOutputCache,
+                        RequestCoalescer             oRequestCoalescer,
+                        ConditionalGet               oConditionalGet,
+                        ResponseCompression          oResponseCompression,
+                        EventStreamSender            oEventStreamSender,
+                        Statistics                   oStatistics )
    {
-      _oViewFactory      = oViewFactory;
-      _oTemplatingEngine = oTemplatingEngine;
-
-      _oStringWriterPool = new StringWriterPool( 32 * 1024 );
-      _oCharArrayPool    = new CharArrayPool( 32 * 1024 );
+      _oViewFactory           = oViewFactory;
+      _oTemplatingEngine      = oTemplatingEngine;
+      _oModelPool             = oModelPool;
+      _oStreamingConfig       = oStreamingConfig;
+      _oOutputCache           = oOutputCache;
+      _oRequestCoalescer      = oRequestCoalescer;
+      _oConditionalGet        = oConditionalGet;
+      _oResponseCompression   = oResponseCompression;
+      _oEventStreamSender     = oEventStreamSender;
+
+      int iBufferSize         = oBufferPoolConfig.getBufferSize();
+      int iMaxPooledBuffers   = oBufferPoolConfig.getMaxPooledBuffers();
+      int iMaxRetainedSize    = oBufferPoolConfig.getMaxRetainedSize();
+
+      _oStringWriterPool = new BufferPool( "buffer-pool.view.string-writer",  BufferPool.STRING_WRITER,  iBufferSize, iMaxPooledBuffers, iMaxRetainedSize, oStatistics );
+      _oCharArrayPool    = new BufferPool( "buffer-pool.view.char-array",     BufferPool.CHAR_ARRAY,     iBufferSize, iMaxPooledBuffers, iMaxRetainedSize, oStatistics );
+      _oByteArrayPool    = new BufferPool( "buffer-pool.view.byte-array",     BufferPool.BYTE_ARRAY,     iBufferSize, iMaxPooledBuffers, iMaxRetainedSize, oStatistics );
+
+      _oFileSender       = new FileSender( oConditionalGet, _oByteArrayPool, oStatistics );
+
+      _oStreamingBufferPool   = new BufferPool( "buffer-pool.view.streaming",
+                                                BufferPool.CHAR_ARRAY,
+                                                oStreamingConfig.getBufferSize(),
+                                                iMaxPooledBuffers,
+                                                iMaxRetainedSize,
+                                                oStatistics );
+      _oLog                   = LogFactory.getLog( ViewExecutor.class );
    }
 
    public void execute( ViewResolver.Resolution    oViewResolution,
                         HttpServletRequest         oRequest,
                         HttpServletResponse        oResponse ) throws ViewExecutorException
    {
-      execute( getView( oViewResolution.getClassName(), oRequest, oResponse, oViewResolution ), oResponse );
+      String                     sViewClassName = oViewResolution.getClassName();
+      OutputCache.Policy         oPolicy        = _oOutputCache.getPolicy( sViewClassName, oRequest );
+      String                     sCacheKey      = null;
+      boolean                    bRevalidating  = false;
+      RequestCoalescer.Ticket    oTicket        = null;
+
+      if ( oPolicy != null )
+      {
+         sCacheKey = _oOutputCache.getKey( oPolicy, oRequest );
+
+         try
+         {
+            int iServeResult = ( sCacheKey == null ? OutputCache.NOT_SERVED : _oOutputCache.serve( sCacheKey, oRequest, oResponse ) );
+
+            if ( iServeResult == OutputCache.SERVED )
+            {
+               // a cached response bypasses the view entirely
+               return;
+            }
+
+            // only the request that claimed the refresh of a stale entry releases the claim
+            bRevalidating = ( iServeResult == OutputCache.REVALIDATE );
+         }
+         catch ( IOException e )
+         {
+            throw new ViewExecutorException( sViewClassName, "output cache: I/O error", e );
+         }
+      }
+
+      try
+      {
+         // identical requests that arrive while the view is being rendered wait for, and share, its output
+         oTicket = _oRequestCoalescer.join( oRequest );
+
+         if ( oTicket != null && ! oTicket.isLeader() )
+         {
+            if ( _oRequestCoalescer.awaitAndSend( oTicket, oRequest, oResponse ) )
+            {
+               return;
+            }
+
+            // the wait timed out, or the output could not be shared, so this request renders the view itself
+            oTicket = null;
+         }
+
+         Object oViewObject = getView( sViewClassName, oRequest, oResponse, oViewResolution );
+
+         if ( oPolicy == null )
+         {
+            // the first time a view class that implements CacheableView is seen we learn its policy here
+            oPolicy = _oOutputCache.getPolicy( oViewObject );
+
+            if ( oPolicy != null )
+            {
+               sCacheKey = _oOutputCache.getKey( oPolicy, oRequest );
+            }
+         }
+
+         if ( sCacheKey == null && oTicket == null )
+         {
+            execute( oViewObject, oRequest, oResponse );
+         }
+         else if ( oTicket == null )
+         {
+            OutputCaptureResponse oCapture = new OutputCaptureResponse( oResponse );
+
+            execute( oViewObject, oRequest, oCapture );
+
+            _oOutputCache.storeAndSend( sCacheKey, oPolicy, oCapture, oRequest, oResponse );
+         }
+         else
+         {
+            OutputCaptureResponse oCapture = new OutputCaptureResponse( oResponse );
+
+            execute( oViewObject, oRequest, oCapture );
+
+            OutputCacheStore.Entry oEntry = _oOutputCache.store( sCacheKey, oPolicy, oCapture, oResponse );
+
+            // the waiting requests are released before the output is sent to this request's client
+            _oRequestCoalescer.complete( oTicket, oCapture, oEntry );
+
+            if ( oEntry != null )
+            {
+               _oOutputCache.send( oEntry, oRequest, oResponse );
+            }
+         }
+      }
+      catch ( IOException e )
+      {
+         throw new ViewExecutorException( sViewClassName, "output cache: I/O error", e );
+      }
+      finally
+      {
+         if ( oTicket != null )
+         {
+            _oRequestCoalescer.leave( oTicket );
+         }
+
+         if ( bRevalidating )
+         {
+            _oOutputCache.endRevalidation( sCacheKey );
+         }
+      }
    }
 
    /**
@@ -80,33 +242,85 @@ public class ViewExecutor
                         HttpServletRequest         oRequest,
                         HttpServletResponse        oResponse ) throws ViewExecutorException
    {
-      if ( Text.class.isAssignableFrom( oViewClass ) )
+      if ( Text.class.isAssignableFrom( oViewClass )
+            || Image.class.isAssignableFrom( oViewClass )
+            || ImageStream.class.isAssignableFrom( oViewClass )
+            || Template.class.isAssignableFrom( oViewClass )
+            || JSON.class.isAssignableFrom( oViewClass )
+            || FileView.class.isAssignableFrom( oViewClass )
+            || ChannelView.class.isAssignableFrom( oViewClass )
+            || EventStream.class.isAssignableFrom( oViewClass ) )
       {
-         processText( oResponse, ( Text ) getView( oViewClass.getName(), oRequest, oResponse, null ) );
+         execute( getView( oViewClass.getName(), oRequest, oResponse, null ), oRequest, oResponse );
       }
-      else if ( Image.class.isAssignableFrom( oViewClass ) )
+   }
+
+   public void execute( Object oViewObject, HttpServletRequest oRequest, HttpServletResponse oResponse ) throws ViewExecutorException
+   {
+      // file and channel content is sent as is, so that it keeps its length and can be sent in ranges, and the
+      // events of an event stream must reach the client as soon as they are flushed
+      CompressingResponse oCompressingResponse
+         = ( oViewObject instanceof FileView || oViewObject instanceof ChannelView || oViewObject instanceof EventStream )
+           ? null
+           : _oResponseCompression.wrap( oRequest, oResponse );
+
+      if ( oCompressingResponse == null )
       {
-         processImage( oResponse, ( Image ) getView( oViewClass.getName(), oRequest, oResponse, null ) );
+         executeView( oViewObject, oRequest, oResponse );
+         return;
       }
-      else if ( ImageStream.class.isAssignableFrom( oViewClass ) )
+
+      boolean bCompleted = false;
+
+      try
       {
-         processImageStream( oResponse, ( ImageStream ) getView( oViewClass.getName(), oRequest, oResponse, null ) );
+         executeView( oViewObject, oRequest, oCompressingResponse );
+
+         oCompressingResponse.finish();
+         bCompleted = true;
       }
-      else if ( Template.class.isAssignableFrom( oViewClass ) )
+      catch ( IOException e )
       {
-         processTemplate( oResponse, ( Template ) getView( oViewClass.getName(), oRequest, oResponse, null ) );
+         throw new ViewExecutorException( oViewObject.getClass().getName(), "compression: I/O error", e );
+      }
+      finally
+      {
+         if ( ! bCompleted )
+         {
+            oCompressingResponse.abandon();
+         }
       }
    }
 
-   public void execute( Object oViewObject, HttpServletResponse oResponse ) throws ViewExecutorException
+   private void executeView( Object oViewObject, HttpServletRequest oRequest, HttpServletResponse oResponse ) throws ViewExecutorException
    {
+      boolean bComputeETag = _oConditionalGet.isComputeETags();
+
+      if ( oViewObject instanceof VersionedView )
+      {
+         VersionedView oVersionedView = ( VersionedView ) oViewObject;
+
+         if ( processVersionedView( oRequest, oResponse, oVersionedView ) )
+         {
+            // answered without rendering the view
+            return;
+         }
+
+         // the version provided by the view is a better ETag than one computed from the output
+         bComputeETag = bComputeETag && oVersionedView.getVersion() == null;
+      }
+
+      // the models and the view are now created, so all the keys they submitted to the batch model can be
+      // loaded together before the view starts rendering
+      dispatchBatch( oRequest );
+
       if ( oViewObject instanceof Text )
       {
-         processText( oResponse, ( Text ) oViewObject );
+         processText( oRequest, oResponse, ( Text ) oViewObject, bComputeETag );
       }
       else if ( oViewObject instanceof Image )
       {
-         processImage( oResponse, ( Image ) oViewObject );
+         processImage( oRequest, oResponse, ( Image ) oViewObject, bComputeETag );
       }
       else if ( oViewObject instanceof ImageStream )
       {
@@ -114,7 +328,23 @@ public class ViewExecutor
       }
       else if ( oViewObject instanceof Template )
       {
-         processTemplate( oResponse, ( Template ) oViewObject );
+         processTemplate( oRequest, oResponse, ( Template ) oViewObject, bComputeETag );
+      }
+      else if ( oViewObject instanceof JSON )
+      {
+         processJSON( oRequest, oResponse, ( JSON ) oViewObject, bComputeETag );
+      }
+      else if ( oViewObject instanceof FileView )
+      {
+         processFileView( oRequest, oResponse, ( FileView ) oViewObject );
+      }
+      else if ( oViewObject instanceof ChannelView )
+      {
+         processChannelView( oRequest, oResponse, ( ChannelView ) oViewObject );
+      }
+      else if ( oViewObject instanceof EventStream )
+      {
+         processEventStream( oRequest, oResponse, ( EventStream ) oViewObject );
       }
       else
       {
@@ -122,6 +352,67 @@ public class ViewExecutor
       }
    }
 
+   /**
+    * Sets the validators provided by a view, and answers the request without rendering the view if the
+    * request is a conditional request that the validators satisfy, or a HEAD request for a template
+    * or image stream
+    *
+    * @return true if the request was answered
+    */
+   private boolean processVersionedView( HttpServletRequest oRequest, HttpServletResponse oResponse, VersionedView oVersionedView )
+   {
+      String   sVersion       = oVersionedView.getVersion();
+      long     lLastModified  = oVersionedView.getLastModified();
+
+      if ( sVersion == null && lLastModified < 0 )
+      {
+         return false;
+      }
+
+      if ( _oConditionalGet.checkNotModified( oRequest,
+                                               oResponse,
+                                               sVersion == null ? null : ConditionalGet.toETag( sVersion ),
+                                               lLastModified ) )
+      {
+         return true;
+      }
+
+      // the headers of a HEAD response are known without rendering a template or an image stream, we do not
+      // skip text and image views since they are cheap to produce and their length can be sent
+      if ( "HEAD".equals( oRequest.getMethod() ) && ! ( oResponse instanceof OutputCaptureResponse ) )
+      {
+         if ( oVersionedView instanceof Template )
+         {
+            String sMimeType = ( ( Template ) oVersionedView ).getMimeType();
+
+            oResponse.setContentType( sMimeType == null ? "text/plain" : sMimeType );
+            return true;
+         }
+
+         if ( oVersionedView instanceof ImageStream && ( ( ImageStream ) oVersionedView ).getMimeType() != null )
+         {
+            oResponse.setContentType( ( ( ImageStream ) oVersionedView ).getMimeType() );
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   private void dispatchBatch( HttpServletRequest oRequest )
+   {
+      try
+      {
+         _oModelPool.dispatchBatch( oRequest );
+      }
+      catch ( BatchException e )
+      {
+         // the batch model records the failure for each key of the failed load, and reports it to the view
+         // when it reads the value of one of those keys, so a view that does not need those values still renders
+         _oLog.warn( "batch load failed before rendering view, the view receives the failure for the keys of the failed load", e );
+      }
+   }
+
    private Object getView( String sViewClassName, HttpServletRequest oRequest, HttpServletResponse oResponse, ViewResolver.Resolution oResolution )
       throws ViewExecutorException
    {
@@ -162,12 +453,20 @@ public class ViewExecutor
       return oViewObject;
    }
 
-   private void processText( HttpServletResponse oResponse, Text oText ) throws ViewExecutorException
+   private void processText( HttpServletRequest oRequest, HttpServletResponse oResponse, Text oText, boolean bComputeETag )
+      throws ViewExecutorException
    {
       try
       {
          oResponse.setContentType( oText.getMimeType() == null ? "text/plain": oText.getMimeType() );
 
+         if ( bComputeETag )
+         {
+            // the text is encoded here so that the ETag can be computed from the bytes sent
+            processEncodedOutput( oRequest, oResponse, oText.getText().getBytes( oResponse.getCharacterEncoding() ) );
+            return;
+         }
+
          BufferedWriter oWriter = new BufferedWriter( oResponse.getWriter() );
          try
       {
@@ -184,7 +483,8 @@ public class ViewExecutor
       }
    }
 
-   private void processImage( HttpServletResponse oResponse, Image oImage ) throws ViewExecutorException
+   private void processImage( HttpServletRequest oRequest, HttpServletResponse oResponse, Image oImage, boolean bComputeETag )
+      throws ViewExecutorException
    {
       try
       {
@@ -201,6 +501,12 @@ public class ViewExecutor
          oResponse.setContentType( oImage.getMimeType() );
          oResponse.setHeader( "Content-Type", oImage.getMimeType() );
 
+         if ( bComputeETag )
+         {
+            processEncodedOutput( oRequest, oResponse, oImage.getImage() );
+            return;
+         }
+
          BufferedOutputStream oStream = new BufferedOutputStream( oResponse.getOutputStream() );
 
          try
@@ -231,8 +537,133 @@ public class ViewExecutor
       oImageStream.writeImage( oResponse );
    }
 
-   private void processTemplate( HttpServletResponse oResponse, Template oTemplate ) throws ViewExecutorException
+   private void processFileView( HttpServletRequest oRequest, HttpServletResponse oResponse, FileView oFileView )
+      throws ViewExecutorException
+   {
+      // a large download may take long, and sending the file does not use models
+      boolean bSuspended = _oModelPool.requestSuspended( oRequest );
+
+      try
+      {
+         _oFileSender.sendFile( oRequest, oResponse, oFileView );
+      }
+      catch ( IOException e )
+      {
+         throw new ViewExecutorException( oFileView.getClass().getName(), "file view I/O error", e );
+      }
+      finally
+      {
+         if ( bSuspended )
+         {
+            _oModelPool.requestResumed( oRequest );
+         }
+      }
+   }
+
+   private void processChannelView( HttpServletRequest oRequest, HttpServletResponse oResponse, ChannelView oChannelView )
+      throws ViewExecutorException
+   {
+      // a large download may take long, the channel was opened by the view, so sending it does not use models
+      boolean bSuspended = _oModelPool.requestSuspended( oRequest );
+
+      try
+      {
+         _oFileSender.sendChannel( oRequest, oResponse, oChannelView );
+      }
+      catch ( IOException e )
+      {
+         throw new ViewExecutorException( oChannelView.getClass().getName(), "channel view I/O error", e );
+      }
+      finally
+      {
+         if ( bSuspended )
+         {
+            _oModelPool.requestResumed( oRequest );
+         }
+      }
+   }
+
+   private void processEventStream( HttpServletRequest oRequest, HttpServletResponse oResponse, EventStream oEventStream )
+      throws ViewExecutorException
+   {
+      if ( oResponse instanceof OutputCaptureResponse )
+      {
+         throw new ViewExecutorException( oEventStream.getClass().getName(), "event stream view cannot be output cached" );
+      }
+
+      if ( oResponse instanceof BatchSubResponse )
+      {
+         throw new ViewExecutorException( oEventStream.getClass().getName(), "event stream view cannot be sent in a batch" );
+      }
+
+      // without asynchronous processing the request thread sends the stream until it ends, which may be hours,
+      // the stream only uses the event channel, so the request must not hold back the destruction of models
+      boolean bSuspended = _oModelPool.requestSuspended( oRequest );
+
+      try
+      {
+         _oEventStreamSender.send( oRequest, oResponse, oEventStream );
+      }
+      catch ( IOException e )
+      {
+         throw new ViewExecutorException( oEventStream.getClass().getName(), "event stream view I/O error", e );
+      }
+      finally
+      {
+         if ( bSuspended )
+         {
+            _oModelPool.requestResumed( oRequest );
+         }
+      }
+   }
+
+   /**
+    * Sends output that is completely encoded, with an ETag computed from the output, or a 304 response if the
+    * request is a conditional request that the ETag satisfies
+    */
+   private void processEncodedOutput( HttpServletRequest oRequest, HttpServletResponse oResponse, byte[] ayOutput )
+      throws IOException
+   {
+      if ( _oConditionalGet.checkNotModified( oRequest, oResponse, ConditionalGet.computeETag( ayOutput, 0, ayOutput.length ), -1 ) )
+      {
+         return;
+      }
+
+      oResponse.setContentLength( ayOutput.length );
+
+      OutputStream oOutputStream;
+      try
+      {
+         oOutputStream = oResponse.getOutputStream();
+      }
+      catch ( IllegalStateException e )
+      {
+         // the response writer is already in use (for example by an interceptor)
+         oResponse.getWriter().write( new String( ayOutput, oResponse.getCharacterEncoding() ) );
+         oResponse.getWriter().flush();
+         return;
+      }
+
+      oOutputStream.write( ayOutput );
+      oOutputStream.flush();
+   }
+
+   private void processTemplate( HttpServletRequest oRequest, HttpServletResponse oResponse, Template oTemplate, boolean bComputeETag )
+      throws ViewExecutorException
    {
+      if ( isStreamingEnabled( oTemplate ) )
+      {
+         // the headers of streamed output are sent before the output is complete, so no ETag is computed
+         processStreamingTemplate( oResponse, oTemplate );
+         return;
+      }
+
+      if ( _oTemplatingEngine instanceof OutputStreamTemplatingEngine )
+      {
+         processTemplateToBytes( oRequest, oResponse, oTemplate, bComputeETag );
+         return;
+      }
+
       try
       {
          if ( oTemplate.getTemplateName() == null )
@@ -240,8 +671,8 @@ public class ViewExecutor
             throw new ViewExecutorException( oTemplate.getClass().getName(), "returned null for template name" );
          }
 
-         StringWriter oTemplateContentWriter = _oStringWriterPool.acquire();
-         char[]       oResponseWriteBuffer   = _oCharArrayPool.acquire();
+         StringWriter oTemplateContentWriter = ( StringWriter ) _oStringWriterPool.acquire();
+         char[]       oResponseWriteBuffer   = ( char[] ) _oCharArrayPool.acquire();
 
          try
          {
@@ -255,6 +686,14 @@ public class ViewExecutor
             // write a content type to the response
             oResponse.setContentType( oTemplate.getMimeType() == null ? "text/plain": oTemplate.getMimeType() );
 
+            if ( bComputeETag )
+            {
+               processEncodedOutput( oRequest,
+                                     oResponse,
+                                     oTemplateContentWriter.getBuffer().toString().getBytes( oResponse.getCharacterEncoding() ) );
+               return;
+            }
+
             // write the contents of the string buffer to the response, we use charAt()
             // to access the string buffer since this seems to be the only way to get at
             // the buffer without triggering a duplication or data copy in the StringBuffer
@@ -317,6 +756,228 @@ public class ViewExecutor
       }
    }
 
+   /**
+    * Renders a template with an engine that produces encoded bytes, the output is collected in a pooled byte
+    * buffer so that the Content-Length can be set when the output fits in the buffer
+    */
+   private void processTemplateToBytes( HttpServletRequest oRequest, HttpServletResponse oResponse, Template oTemplate, boolean bComputeETag )
+      throws ViewExecutorException
+   {
+      try
+      {
+         if ( oTemplate.getTemplateName() == null )
+         {
+            throw new ViewExecutorException( oTemplate.getClass().getName(), "returned null for template name" );
+         }
+
+         // the content type must be set before the character encoding is read, since it may specify the encoding
+         oResponse.setContentType( oTemplate.getMimeType() == null ? "text/plain": oTemplate.getMimeType() );
+
+         byte[]               ayOutputBuffer = ( byte[] ) _oByteArrayPool.acquire();
+         ResponseOutputBuffer oOutputBuffer  = new ResponseOutputBuffer( oResponse, ayOutputBuffer );
+
+         try
+         {
+            ( ( OutputStreamTemplatingEngine ) _oTemplatingEngine )
+               .process( oTemplate, oOutputBuffer, oResponse.getCharacterEncoding() );
+
+            // an ETag can only be computed if the complete output is still in the buffer, since the headers
+            // of output that did not fit the buffer have been sent
+            if ( bComputeETag
+                  && oOutputBuffer.isAllOutputBuffered()
+                  && _oConditionalGet.checkNotModified( oRequest,
+                                                        oResponse,
+                                                        ConditionalGet.computeETag( ayOutputBuffer, 0, oOutputBuffer.getBufferedLength() ),
+                                                        -1 ) )
+            {
+               oOutputBuffer.discard();
+               return;
+            }
+
+            oOutputBuffer.close();
+         }
+         catch ( Exception e )
+         {
+            // drop the partial output if the client has not seen any of it yet
+            if ( ! oResponse.isCommitted() )
+            {
+               oOutputBuffer.discard();
+               oResponse.resetBuffer();
+            }
+
+            throw e;
+         }
+         finally
+         {
+            _oByteArrayPool.release( ayOutputBuffer );
+         }
+      }
+      catch ( IOException e )
+      {
+         throw new ViewExecutorException( oTemplate.getClass().getName(), "template view: I/O error", e );
+      }
+      catch ( TemplatingEngineException e )
+      {
+         throw new ViewExecutorException( oTemplate.getClass().getName(), "template view: templating engine error", e.getCause() );
+      }
+      catch ( ViewExecutorException e )
+      {
+         throw e;
+      }
+      catch ( Exception e )
+      {
+         throw new ViewExecutorException( oTemplate.getClass().getName(), "template view: general error", e );
+      }
+   }
+
+   /**
+    * Serializes the value of a JSON view directly into a pooled byte buffer, so that the Content-Length can be
+    * set (and an ETag computed) when the output fits in the buffer
+    */
+   private void processJSON( HttpServletRequest oRequest, HttpServletResponse oResponse, JSON oJSON, boolean bComputeETag )
+      throws ViewExecutorException
+   {
+      try
+      {
+         // the charset is specified, since the output is decoded with it if the response writer is in use
+         oResponse.setContentType( "application/json; charset=UTF-8" );
+
+         byte[]               ayOutputBuffer = ( byte[] ) _oByteArrayPool.acquire();
+         ResponseOutputBuffer oOutputBuffer
+            = new ResponseOutputBuffer( oResponse,
+                                        ayOutputBuffer.length < JSONWriter.MIN_BUFFER_SIZE
+                                        ? new byte[ JSONWriter.MIN_BUFFER_SIZE ]
+                                        : ayOutputBuffer );
+
+         try
+         {
+            new JSONWriter( oOutputBuffer ).write( oJSON.getValue() );
+
+            if ( bComputeETag
+                  && oOutputBuffer.isAllOutputBuffered()
+                  && _oConditionalGet.checkNotModified( oRequest,
+                                                        oResponse,
+                                                        ConditionalGet.computeETag( oOutputBuffer.getBuffer(), 0, oOutputBuffer.getBufferedLength() ),
+                                                        -1 ) )
+            {
+               oOutputBuffer.discard();
+               return;
+            }
+
+            oOutputBuffer.close();
+         }
+         catch ( Exception e )
+         {
+            // drop the partial output if the client has not seen any of it yet
+            if ( ! oResponse.isCommitted() )
+            {
+               oOutputBuffer.discard();
+               oResponse.resetBuffer();
+            }
+
+            throw e;
+         }
+         finally
+         {
+            _oByteArrayPool.release( ayOutputBuffer );
+         }
+      }
+      catch ( IOException e )
+      {
+         throw new ViewExecutorException( oJSON.getClass().getName(), "json view: I/O error", e );
+      }
+      catch ( InvocationTargetException e )
+      {
+         throw new ViewExecutorException( oJSON.getClass().getName(), "json view: getter error", e.getTargetException() );
+      }
+      catch ( Exception e )
+      {
+         throw new ViewExecutorException( oJSON.getClass().getName(), "json view: general error", e );
+      }
+   }
+
+   private boolean isStreamingEnabled( Template oTemplate )
+   {
+      if ( oTemplate instanceof StreamingTemplate )
+      {
+         return ( ( StreamingTemplate ) oTemplate ).isStreamingEnabled();
+      }
+
+      return _oStreamingConfig.isEnabled();
+   }
+
+   /**
+    * Renders a template directly to the response through a bounded buffer, instead of rendering the complete
+    * template output before the response is written
+    */
+   private void processStreamingTemplate( HttpServletResponse oResponse, Template oTemplate ) throws ViewExecutorException
+   {
+      try
+      {
+         if ( oTemplate.getTemplateName() == null )
+         {
+            throw new ViewExecutorException( oTemplate.getClass().getName(), "returned null for template name" );
+         }
+
+         // the content type must be set before the response writer is obtained, since it may specify the encoding
+         oResponse.setContentType( oTemplate.getMimeType() == null ? "text/plain": oTemplate.getMimeType() );
+
+         char[]                  acStreamingBuffer = ( char[] ) _oStreamingBufferPool.acquire();
+         StreamingResponseWriter oStreamingWriter  = new StreamingResponseWriter( oResponse.getWriter(), acStreamingBuffer );
+
+         try
+         {
+            _oTemplatingEngine.process( oTemplate, oStreamingWriter );
+
+            oStreamingWriter.flush();
+         }
+         catch ( Exception e )
+         {
+            if ( ! oResponse.isCommitted() )
+            {
+               // nothing has reached the client yet, so we drop the partial output and handle the error
+               // exactly as for a buffered template
+               oStreamingWriter.discard();
+               oResponse.resetBuffer();
+
+               throw e;
+            }
+
+            if ( ! _oStreamingConfig.isErrorPolicyTruncate() )
+            {
+               throw e;
+            }
+
+            // part of the output has reached the client, so the status and headers cannot change anymore,
+            // we send the output rendered up to the error and end the response there
+            _oLog.error( "template view: " + oTemplate.getClass().getName()
+                         + " failed after the response was committed, response truncated", e );
+
+            oStreamingWriter.flush();
+         }
+         finally
+         {
+            _oStreamingBufferPool.release( acStreamingBuffer );
+         }
+      }
+      catch ( IOException e )
+      {
+         throw new ViewExecutorException( oTemplate.getClass().getName(), "template view: I/O error", e );
+      }
+      catch ( TemplatingEngineException e )
+      {
+         throw new ViewExecutorException( oTemplate.getClass().getName(), "template view: templating engine error", e.getCause() );
+      }
+      catch ( ViewExecutorException e )
+      {
+         throw e;
+      }
+      catch ( Exception e )
+      {
+         throw new ViewExecutorException( oTemplate.getClass().getName(), "template view: general error", e );
+      }
+   }
+
    private void processObject( HttpServletResponse oResponse, Object oViewObject ) throws ViewExecutorException
    {
       // just print the object to the response
@@ -29,13 +29,20 @@ import com.acciente.induction.dispatcher.model.ModelPool;
 import com.acciente.induction.dispatcher.resolver.RedirectResolverExecutor;
 import com.acciente.induction.dispatcher.resolver.URLResolver;
 import com.acciente.induction.init.config.Config;
+import com.acciente.induction.model.Batch;
 import com.acciente.induction.resolver.RedirectResolver;
 import com.acciente.induction.resolver.ViewResolver;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.template.FragmentCache;
 import com.acciente.induction.template.TemplatingEngine;
 import com.acciente.induction.util.ConstructorNotFoundException;
 import com.acciente.induction.util.MethodNotFoundException;
+import com.acciente.induction.view.ChannelView;
+import com.acciente.induction.view.EventStream;
+import com.acciente.induction.view.FileView;
 import com.acciente.induction.view.Image;
 import com.acciente.induction.view.ImageStream;
+import com.acciente.induction.view.JSON;
 import com.acciente.induction.view.Template;
 import com.acciente.induction.view.Text;
 
@@ -140,6 +147,10 @@ public class ViewParameterProviderFactory
             {
                oParamValue = _oModelPool.getSystemModel( oParamClass, _oRequest );
             }
+            else if ( oParamClass.isAssignableFrom( Batch.class ) )
+            {
+               oParamValue = _oModelPool.getSystemModel( oParamClass, _oRequest );
+            }
             else if ( oParamClass.isAssignableFrom( ClassLoader.class ) )
             {
                oParamValue = _oClassLoader;
@@ -147,10 +158,22 @@ public class ViewParameterProviderFactory
             else if ( Template.class.isAssignableFrom( oParamClass )
                         || Text.class.isAssignableFrom( oParamClass )
                         || Image.class.isAssignableFrom( oParamClass )
-                        || ImageStream.class.isAssignableFrom( oParamClass ) )
+                        || ImageStream.class.isAssignableFrom( oParamClass )
+                        || JSON.class.isAssignableFrom( oParamClass )
+                        || FileView.class.isAssignableFrom( oParamClass )
+                        || ChannelView.class.isAssignableFrom( oParamClass )
+                        || EventStream.class.isAssignableFrom( oParamClass ) )
             {
                oParamValue = _oViewFactory.getView( oParamClass.getName(), _oRequest, _oResponse, null );
             }
+            else if ( oParamClass.isAssignableFrom( Statistics.class ) )
+            {
+               oParamValue = _oModelPool.getStatistics();
+            }
+            else if ( oParamClass.isAssignableFrom( FragmentCache.class ) )
+            {
+               oParamValue = _oModelPool.getFragmentCache();
+            }
             else
             {
                // check to see if this is a model class
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.init;
+
+import com.acciente.commons.lang.Strings;
+import com.acciente.commons.reflect.ParameterProviderException;
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.model.HttpSessionModelStore;
+import com.acciente.induction.model.SessionModelStore;
+import com.acciente.induction.model.TieredSessionModelStore;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.ConstructorNotFoundException;
+import com.acciente.induction.util.ObjectFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.ServletConfig;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Internal.
+ * This class manages initialization of the session model store based on the configured settings
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class SessionModelStoreInitializer
+{
+   public static SessionModelStore getSessionModelStore( Config.ModelDefs.SessionModelStore oSessionModelStoreConfig,
+                                                         ClassLoader                        oClassLoader,
+                                                         ServletConfig                      oServletConfig,
+                                                         Statistics                         oStatistics )
+      throws ClassNotFoundException, IOException, InvocationTargetException, ConstructorNotFoundException, ParameterProviderException, IllegalAccessException, InstantiationException
+   {
+      SessionModelStore oSessionModelStore;
+      String            sSessionModelStoreClassName;
+      Log               oLog;
+
+      oLog = LogFactory.getLog( SessionModelStoreInitializer.class );
+
+      sSessionModelStoreClassName = oSessionModelStoreConfig.getClassName();
+
+      if ( ! Strings.isEmpty( sSessionModelStoreClassName ) )
+      {
+         oLog.info( "loading user-defined session model store: " + sSessionModelStoreClassName );
+
+         Class oSessionModelStoreClass = oClassLoader.loadClass( sSessionModelStoreClassName );
+
+         oSessionModelStore
+            =  ( SessionModelStore )
+               ObjectFactory.createObject( oSessionModelStoreClass,
+                                           new Object[]{ oServletConfig,
+                                                         oSessionModelStoreConfig,
+                                                         oClassLoader,
+                                                         oStatistics
+                                                       },
+                                           null );
+      }
+      else if ( oSessionModelStoreConfig.isPassivationEnabled() )
+      {
+         oLog.info( "session models idle for more than "
+                    + oSessionModelStoreConfig.getPassivateAfterIdleInSeconds()
+                    + " seconds will be passivated to: "
+                    + oSessionModelStoreConfig.getPassivationTarget() );
+
+         oSessionModelStore = new TieredSessionModelStore( oSessionModelStoreConfig, oClassLoader, oStatistics );
+      }
+      else
+      {
+         // if passivation is not configured session models are kept as plain session attributes
+         oSessionModelStore = new HttpSessionModelStore();
+      }
+
+      return oSessionModelStore;
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -21,6 +21,8 @@ import com.acciente.commons.lang.Strings;
 import com.acciente.commons.reflect.ParameterProviderException;
 import com.acciente.induction.dispatcher.model.ModelPool;
 import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.template.FragmentCache;
 import com.acciente.induction.template.FreemarkerTemplatingEngine;
 import com.acciente.induction.template.TemplatingEngine;
 import com.acciente.induction.util.ObjectFactory;
@@ -43,9 +45,12 @@ import java.lang.reflect.InvocationTargetException;
 public class TemplatingEngineInitializer
 {
    public static TemplatingEngine getTemplatingEngine( Config.Templating   oTemplatingConfig,
+                                                       Config.BufferPool   oBufferPoolConfig,
+                                                       FragmentCache       oFragmentCache,
                                                        ModelPool           oModelPool,
                                                        ClassLoader         oClassLoader,
-                                                       ServletConfig       oServletConfig )
+                                                       ServletConfig       oServletConfig,
+                                                       Statistics          oStatistics )
       throws ClassNotFoundException, IOException, InvocationTargetException, ConstructorNotFoundException, ParameterProviderException, IllegalAccessException, InstantiationException
    {
       TemplatingEngine  oTemplatingEngine;
@@ -59,7 +64,12 @@ public class TemplatingEngineInitializer
       if ( Strings.isEmpty( sTemplatingEngineClassName ) )
       {
          // if no templating engine is configured use the freemarker engine as the default
-         oTemplatingEngine = new FreemarkerTemplatingEngine( oTemplatingConfig, oClassLoader, oServletConfig );
+         oTemplatingEngine = new FreemarkerTemplatingEngine( oTemplatingConfig,
+                                                            oClassLoader,
+                                                            oServletConfig,
+                                                            oBufferPoolConfig,
+                                                            oFragmentCache,
+                                                            oStatistics );
       }
       else
       {
@@ -72,7 +82,10 @@ public class TemplatingEngineInitializer
                ObjectFactory.createObject( oTemplatingEngineClass,
                                            new Object[]{ oServletConfig,
                                                          oTemplatingConfig,
-                                                         oClassLoader
+                                                         oClassLoader,
+                                                         oBufferPoolConfig,
+                                                         oFragmentCache,
+                                                         oStatistics
                                                        },
                                            new InitializerParameterProvider( oModelPool, "templating-engine-init" ) );
       }
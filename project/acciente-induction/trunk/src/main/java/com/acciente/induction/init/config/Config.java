@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -53,6 +54,12 @@ public class Config
    private ViewResolver          _oViewResolver          = new ViewResolver();
    private RedirectResolver      _oRedirectResolver      = new RedirectResolver();
    private FileUpload            _oFileUpload            = new FileUpload();
+   private BufferPool            _oBufferPool            = new BufferPool();
+   private ConditionalGet        _oConditionalGet        = new ConditionalGet();
+   private Compression           _oCompression           = new Compression();
+   private StaticAssets          _oStaticAssets          = new StaticAssets();
+   private EventStream           _oEventStream           = new EventStream();
+   private BatchEndpoint         _oBatchEndpoint         = new BatchEndpoint();
 
    /**
     * Defined the classpath to be used for loading java class files. The classpath is
@@ -169,6 +176,66 @@ public class Config
       return _oFileUpload;
    }
 
+   /**
+    * This method is used to access config parameters that control the pools of reusable buffers
+    *
+    * @return an object reference that keeps the buffer pool settings
+    */
+   public BufferPool getBufferPool()
+   {
+      return _oBufferPool;
+   }
+
+   /**
+    * This method is used to access config parameters that control the handling of conditional requests for views
+    *
+    * @return an object reference that keeps the conditional get settings
+    */
+   public ConditionalGet getConditionalGet()
+   {
+      return _oConditionalGet;
+   }
+
+   /**
+    * This method is used to access config parameters that control the compression of view responses
+    *
+    * @return an object reference that keeps the compression settings
+    */
+   public Compression getCompression()
+   {
+      return _oCompression;
+   }
+
+   /**
+    * This method is used to access config parameters that control the serving of static assets
+    *
+    * @return an object reference that keeps the static asset settings
+    */
+   public StaticAssets getStaticAssets()
+   {
+      return _oStaticAssets;
+   }
+
+   /**
+    * This method is used to access config parameters that control the sending of event stream views
+    *
+    * @return an object reference that keeps the event stream settings
+    */
+   public EventStream getEventStream()
+   {
+      return _oEventStream;
+   }
+
+   /**
+    * This method is used to access config parameters that control the batch request endpoint
+    *
+    * @return an object reference that keeps the batch settings
+    */
+   public BatchEndpoint getBatchEndpoint()
+   {
+      return _oBatchEndpoint;
+   }
+
    public String toString()
    {
       return toXML();
@@ -195,6 +262,12 @@ public class Config
       oBuffer.append( _oRedirectResolver.toXML() );
 
       oBuffer.append( _oFileUpload.toXML() );
+      oBuffer.append( _oBufferPool.toXML() );
+      oBuffer.append( _oConditionalGet.toXML() );
+      oBuffer.append( _oCompression.toXML() );
+      oBuffer.append( _oStaticAssets.toXML() );
+      oBuffer.append( _oEventStream.toXML() );
+      oBuffer.append( _oBatchEndpoint.toXML() );
       oBuffer.append( "\n" );
       oBuffer.append( XML.Config.CLOSE_IND );
 
@@ -302,7 +375,10 @@ public class Config
     */
    public static class ModelDefs
    {
-      private Map _oModelDefMap = new HashMap();
+      private Map                _oModelDefMap        = new HashMap();
+      private SessionModelStore  _oSessionModelStore  = new SessionModelStore();
+      private Prefetch           _oPrefetch           = new Prefetch();
+      private Map                _oBatchLoaderDefMap  = new LinkedHashMap();
 
       /**
        * Adds a new model definition
@@ -322,6 +398,77 @@ public class Config
                                boolean    bIsSessionScope,
                                boolean    bIsRequestScope,
                                boolean    bIsInitOnStartUp )
+      {
+         addModelDef( sModelClassName,
+                      sModelFactoryClassName,
+                      bIsStaticScope,
+                      bIsApplicationScope,
+                      bIsSessionScope,
+                      bIsRequestScope,
+                      bIsInitOnStartUp,
+                      0 );
+      }
+
+      /**
+       * Adds a new model definition
+       *
+       * @param sModelClassName string representing a fully qualified model classname
+       * @param sModelFactoryClassName string representing a fully qualified model factory classname
+       * @param bIsApplicationScope true if a single model object should be created per application
+       * @param bIsSessionScope true if a single model object should be created per session
+       * @param bIsRequestScope true if a single model object should be created per request
+       * @param bIsInitOnStartUp true if this model should be created on system startup, otherwise all models are
+       * created on demand. This attribute is only valid for application scope models
+       * @param iRefreshIntervalInSeconds if greater than 0, the model is rebuilt in the background at this interval
+       * and the new instance replaces the current one. This attribute is only valid for application scope models
+       */
+      public void addModelDef( String     sModelClassName,
+                               String     sModelFactoryClassName,
+                               boolean    bIsStaticScope,
+                               boolean    bIsApplicationScope,
+                               boolean    bIsSessionScope,
+                               boolean    bIsRequestScope,
+                               boolean    bIsInitOnStartUp,
+                               int        iRefreshIntervalInSeconds )
+      {
+         addModelDef( sModelClassName,
+                      sModelFactoryClassName,
+                      bIsStaticScope,
+                      bIsApplicationScope,
+                      bIsSessionScope,
+                      bIsRequestScope,
+                      false,
+                      bIsInitOnStartUp,
+                      iRefreshIntervalInSeconds,
+                      null );
+      }
+
+      /**
+       * Adds a new model definition
+       *
+       * @param sModelClassName string representing a fully qualified model classname
+       * @param sModelFactoryClassName string representing a fully qualified model factory classname
+       * @param bIsApplicationScope true if a single model object should be created per application
+       * @param bIsSessionScope true if a single model object should be created per session
+       * @param bIsRequestScope true if a single model object should be created per request
+       * @param bIsCacheScope true if a model object should be created per distinct key and shared across requests
+       * for a limited time
+       * @param bIsInitOnStartUp true if this model should be created on system startup, otherwise all models are
+       * created on demand. This attribute is only valid for application scope models
+       * @param iRefreshIntervalInSeconds if greater than 0, the model is rebuilt in the background at this interval
+       * and the new instance replaces the current one. This attribute is only valid for application scope models
+       * @param oCacheSettings the key and eviction settings of a cache scope model, null to use the defaults
+       */
+      public void addModelDef( String        sModelClassName,
+                               String        sModelFactoryClassName,
+                               boolean       bIsStaticScope,
+                               boolean       bIsApplicationScope,
+                               boolean       bIsSessionScope,
+                               boolean       bIsRequestScope,
+                               boolean       bIsCacheScope,
+                               boolean       bIsInitOnStartUp,
+                               int           iRefreshIntervalInSeconds,
+                               CacheSettings oCacheSettings )
       {
          sModelClassName = sModelClassName.trim();
 
@@ -336,7 +483,10 @@ public class Config
                                                            bIsApplicationScope,
                                                            bIsSessionScope,
                                                            bIsRequestScope,
-                                                           bIsInitOnStartUp ) );
+                                                           bIsCacheScope,
+                                                           bIsInitOnStartUp,
+                                                           iRefreshIntervalInSeconds,
+                                                           oCacheSettings ) );
       }
 
       public ModelDef getModelDef( String sModelClassName )
@@ -349,6 +499,54 @@ public class Config
          return _oModelDefMap.values();
       }
 
+      /**
+       * Adds a new batch loader definition
+       *
+       * @param sName the name under which models and views submit keys to the batch loader
+       * @param sBatchLoaderClassName string representing a fully qualified batch loader classname
+       */
+      public void addBatchLoaderDef( String sName, String sBatchLoaderClassName )
+      {
+         sName = sName.trim();
+
+         if ( _oBatchLoaderDefMap.containsKey( sName ) )
+         {
+            throw new IllegalArgumentException( "config-error: batch loader name: " + sName + " already defined" );
+         }
+
+         _oBatchLoaderDefMap.put( sName, new BatchLoaderDef( sName, sBatchLoaderClassName.trim() ) );
+      }
+
+      public BatchLoaderDef getBatchLoaderDef( String sName )
+      {
+         return ( BatchLoaderDef ) _oBatchLoaderDefMap.get( sName );
+      }
+
+      public Collection getBatchLoaderDefList()
+      {
+         return _oBatchLoaderDefMap.values();
+      }
+
+      /**
+       * Returns the configuration of the store used to hold session scope models
+       *
+       * @return the session model store configuration
+       */
+      public SessionModelStore getSessionModelStore()
+      {
+         return _oSessionModelStore;
+      }
+
+      /**
+       * Returns the configuration of the concurrent prefetch of the models needed by a controller method
+       *
+       * @return the prefetch configuration
+       */
+      public Prefetch getPrefetch()
+      {
+         return _oPrefetch;
+      }
+
       public String toString()
       {
          return toXML();
@@ -367,11 +565,19 @@ public class Config
             oBuffer.append( "\n" );
             oBuffer.append( XML.Config_ModelDefs.OPEN_IND );
 
+            oBuffer.append( _oSessionModelStore.toXML() );
+            oBuffer.append( _oPrefetch.toXML() );
+
             for ( Iterator oIter = _oModelDefMap.values().iterator(); oIter.hasNext(); )
             {
                oBuffer.append( ( ( ModelDef ) oIter.next() ).toXML() );
             }
 
+            for ( Iterator oIter = _oBatchLoaderDefMap.values().iterator(); oIter.hasNext(); )
+            {
+               oBuffer.append( ( ( BatchLoaderDef ) oIter.next() ).toXML() );
+            }
+
             oBuffer.append( "\n" );
             oBuffer.append( XML.Config_ModelDefs.CLOSE_IND );
 
@@ -382,121 +588,148 @@ public class Config
       /**
        * Modular configuration container
        */
-      public static class ModelDef
+      public static class SessionModelStore
       {
-         private String    _sModelClassName;
-         private String    _sModelFactoryClassName;
-         private boolean   _bIsStaticScope;
-         private boolean   _bIsApplicationScope;
-         private boolean   _bIsSessionScope;
-         private boolean   _bIsRequestScope;
-         private boolean   _bIsInitOnStartUp;
+         public static final String PASSIVATION_TARGET_OFF_HEAP   = "off-heap";
+         public static final String PASSIVATION_TARGET_FILE       = "file";
 
-         private  ModelDef( String     sModelClassName,
-                            String     sModelFactoryClassName,
-                            boolean    bIsStaticScope,
-                            boolean    bIsApplicationScope,
-                            boolean    bIsSessionScope,
-                            boolean    bIsRequestScope,
-                            boolean    bIsInitOnStartUp )
+         private String    _sClassName;
+         private int       _iPassivateAfterIdleInSeconds = 0;    // by default session models are never passivated
+         private String    _sPassivationTarget           = PASSIVATION_TARGET_OFF_HEAP;
+         private File      _oPassivationDirectory        = null;
+         private int       _iPassivationRegionSizeInMB   = 64;
+         private int       _iSweepIntervalInSeconds      = 60;
+
+         /**
+          * Returns the name of a user-defined session model store class, if no class is configured the
+          * built-in store is used
+          *
+          * @return a fully qualified class name or null
+          */
+         public String getClassName()
          {
-            if ( sModelClassName == null )
-            {
-               throw new IllegalArgumentException( "config-error: model classname not defined" );
-            }
+            return _sClassName;
+         }
 
-            sModelClassName = sModelClassName.trim();
+         public void setClassName( String sClassName )
+         {
+            _sClassName = sClassName;
+         }
 
-            if ( sModelClassName.length() == 0 )
+         public int getPassivateAfterIdleInSeconds()
+         {
+            return _iPassivateAfterIdleInSeconds;
+         }
+
+         /**
+          * Sets the time a session model may go unused before it is serialized out of the heap, a value
+          * of 0 turns off passivation and session models are kept as plain session attributes
+          *
+          * @param iPassivateAfterIdleInSeconds an idle time in seconds
+          */
+         public void setPassivateAfterIdleInSeconds( int iPassivateAfterIdleInSeconds )
+         {
+            if ( iPassivateAfterIdleInSeconds < 0 )
             {
-               throw new IllegalArgumentException( "config-error: model classname empty" );
+               throw new IllegalArgumentException( "config-error: session model passivate after idle time cannot be negative" );
             }
 
-            // check that only one of the booleans has a true value
-            int iStatedScopes = 0;
+            _iPassivateAfterIdleInSeconds = iPassivateAfterIdleInSeconds;
+         }
 
-            if ( bIsStaticScope )
-            {
-               iStatedScopes++;
-            }
-            if ( bIsApplicationScope )
-            {
-               iStatedScopes++;
-            }
-            if ( bIsSessionScope )
-            {
-               iStatedScopes++;
-            }
-            if ( bIsRequestScope )
-            {
-               iStatedScopes++;
-            }
+         public boolean isPassivationEnabled()
+         {
+            return _iPassivateAfterIdleInSeconds > 0;
+         }
 
-            if ( iStatedScopes == 0 )
-            {
-               throw new IllegalArgumentException( "config-error: model scope not defined" );
-            }
-            else if ( iStatedScopes > 1 )
-            {
-               throw new IllegalArgumentException( "config-error: model scope defined ambiguously" );
-            }
+         public String getPassivationTarget()
+         {
+            return _sPassivationTarget;
+         }
 
-            if ( bIsInitOnStartUp && ! ( bIsStaticScope || bIsApplicationScope ) )
+         /**
+          * Sets where idle session models are kept once serialized, in a direct (off-heap) memory buffer
+          * or in a local file that is memory mapped when the model is read back
+          *
+          * @param sPassivationTarget one of "off-heap" or "file"
+          */
+         public void setPassivationTarget( String sPassivationTarget )
+         {
+            sPassivationTarget = sPassivationTarget.trim().toLowerCase();
+
+            if ( ! ( PASSIVATION_TARGET_OFF_HEAP.equals( sPassivationTarget ) || PASSIVATION_TARGET_FILE.equals( sPassivationTarget ) ) )
             {
-               throw new IllegalArgumentException( "config-error: model classname: "
-                                                   + sModelClassName
-                                                   + " init on startup may only be turned on for static and application scope models" );
+               throw new IllegalArgumentException( "config-error: unrecognized session model passivation target: "
+                                                   + sPassivationTarget
+                                                   + ", expected: "
+                                                   + PASSIVATION_TARGET_OFF_HEAP
+                                                   + " or "
+                                                   + PASSIVATION_TARGET_FILE );
             }
 
-            _sModelClassName        = sModelClassName;
-            _sModelFactoryClassName = sModelFactoryClassName;
-
-            _bIsStaticScope         = bIsStaticScope;
-            _bIsApplicationScope    = bIsApplicationScope;
-            _bIsSessionScope        = bIsSessionScope;
-            _bIsRequestScope        = bIsRequestScope;
-
-            _bIsInitOnStartUp       = bIsInitOnStartUp;
+            _sPassivationTarget = sPassivationTarget;
          }
 
-         public String getModelClassName()
+         public boolean isPassivationTargetFile()
          {
-            return _sModelClassName;
+            return PASSIVATION_TARGET_FILE.equals( _sPassivationTarget );
          }
 
-         public String getModelFactoryClassName()
+         /**
+          * Returns the directory used to hold passivated models when the passivation target is a file, if
+          * no directory is specified the system temporary directory is used
+          *
+          * @return a File object representing a directory or null
+          */
+         public File getPassivationDirectory()
          {
-            return _sModelFactoryClassName;
+            return _oPassivationDirectory;
          }
 
-         public boolean hasModelFactoryClassName()
+         public void setPassivationDirectory( File oPassivationDirectory )
          {
-            return _sModelFactoryClassName != null && _sModelFactoryClassName.trim().length() != 0;
+            _oPassivationDirectory = oPassivationDirectory;
          }
 
-         public boolean isStaticScope()
+         public int getPassivationRegionSizeInMB()
          {
-            return _bIsStaticScope;
+            return _iPassivationRegionSizeInMB;
          }
 
-         public boolean isApplicationScope()
+         /**
+          * Sets the size of the single region (of direct memory, or of the memory mapped file) that holds the
+          * passivated models, when the region is full idle models stay on the heap until space is freed
+          *
+          * @param iPassivationRegionSizeInMB a size in megabytes
+          */
+         public void setPassivationRegionSizeInMB( int iPassivationRegionSizeInMB )
          {
-            return _bIsApplicationScope;
-         }
+            if ( iPassivationRegionSizeInMB < 1 || iPassivationRegionSizeInMB > 1024 )
+            {
+               throw new IllegalArgumentException( "config-error: session model passivation region size must be between 1 and 1024 MB" );
+            }
 
-         public boolean isSessionScope()
-         {
-            return _bIsSessionScope;
+            _iPassivationRegionSizeInMB = iPassivationRegionSizeInMB;
          }
 
-         public boolean isRequestScope()
+         public int getSweepIntervalInSeconds()
          {
-            return _bIsRequestScope;
+            return _iSweepIntervalInSeconds;
          }
 
-         public boolean isInitOnStartUp()
+         /**
+          * Sets how often the store looks for idle session models to passivate
+          *
+          * @param iSweepIntervalInSeconds an interval in seconds
+          */
+         public void setSweepIntervalInSeconds( int iSweepIntervalInSeconds )
          {
-            return _bIsInitOnStartUp;
+            if ( iSweepIntervalInSeconds < 1 )
+            {
+               throw new IllegalArgumentException( "config-error: session model sweep interval must be at least 1 second" );
+            }
+
+            _iSweepIntervalInSeconds = iSweepIntervalInSeconds;
          }
 
          public String toString()
@@ -507,116 +740,82 @@ public class Config
          public String toXML()
          {
             return
-               XML.Config_ModelDefs_ModelDef
-                  .toXML( XML.Config_ModelDefs_ModelDef_Class.toXML( _sModelClassName )
-                          + XML.Config_ModelDefs_ModelDef_FactoryClass.toXML( _sModelFactoryClassName )
-                          + XML.Config_ModelDefs_ModelDef_Scope.toXML( _bIsStaticScope
-                                                                       ? "Static"
-                                                                       : ( _bIsApplicationScope
-                                                                           ? "Application"
-                                                                           : ( _bIsSessionScope
-                                                                               ? "Session"
-                                                                               : ( _bIsRequestScope
-                                                                                    ? "Request"
-                                                                                    : "!! invalid value !!"
-                                                                                 )
-                                                                             )
-                                                                         )
-                                                                     )
-                          + XML.Config_ModelDefs_ModelDef_InitOnStartUp.toXML( _bIsInitOnStartUp )
+               XML.Config_ModelDefs_SessionModelStore
+                  .toXML( XML.Config_ModelDefs_SessionModelStore_Class.toXML( _sClassName )
+                          + XML.Config_ModelDefs_SessionModelStore_PassivateAfterIdle.toXML( _iPassivateAfterIdleInSeconds )
+                          + XML.Config_ModelDefs_SessionModelStore_PassivationTarget.toXML( _sPassivationTarget )
+                          + XML.Config_ModelDefs_SessionModelStore_PassivationDirectory.toXML( _oPassivationDirectory )
+                          + XML.Config_ModelDefs_SessionModelStore_PassivationRegionSize.toXML( _iPassivationRegionSizeInMB )
+                          + XML.Config_ModelDefs_SessionModelStore_SweepInterval.toXML( _iSweepIntervalInSeconds )
                         );
          }
       }
-   }
-
-   /**
-    * Modular configuration container
-    */
-   public static class Templating
-   {
-      private TemplatePath             _oTemplatePath       = new TemplatePath();
-      private Locale                   _oLocale;
-      private TemplatingEngine         _oTemplatingEngine   = new TemplatingEngine();
-      private boolean                  _bExposePublicFields;
 
-      public TemplatePath getTemplatePath()
+      /**
+       * Modular configuration container
+       */
+      public static class Prefetch
       {
-         return _oTemplatePath;
-      }
+         private int    _iThreadPoolSize        = 0;        // by default models are not prefetched
+         private long   _lTimeoutInMillis       = 30000;
 
-      public TemplatingEngine getTemplatingEngine()
-      {
-         return _oTemplatingEngine;
-      }
+         public int getThreadPoolSize()
+         {
+            return _iThreadPoolSize;
+         }
 
-      public Locale getLocale()
-      {
-         return _oLocale;
-      }
-
-      public void setLocale( Locale oLocale )
-      {
-         _oLocale = oLocale;
-      }
-
-      public boolean isExposePublicFields()
-      {
-         return _bExposePublicFields;
-      }
-
-      public void setExposePublicFields( boolean bExposePublicFields )
-      {
-         _bExposePublicFields = bExposePublicFields;
-      }
-
-      public String toString()
-      {
-         return toXML();
-      }
+         /**
+          * Sets the number of threads used to create the independent request and cache scope models of a
+          * controller method concurrently, a value of 0 turns off prefetching
+          *
+          * @param iThreadPoolSize a number of threads
+          */
+         public void setThreadPoolSize( int iThreadPoolSize )
+         {
+            if ( iThreadPoolSize < 0 )
+            {
+               throw new IllegalArgumentException( "config-error: prefetch thread pool size cannot be negative" );
+            }
 
-      public String toXML()
-      {
-         String   sXML_TemplatePath             =  _oTemplatePath.toXML();
-         String   sXML_TemplatingEngineProvider =  _oTemplatingEngine.toXML();
-         String   sXML_Locale                   =  toXML_Locale();
+            _iThreadPoolSize = iThreadPoolSize;
+         }
 
-         if ( sXML_TemplatePath.equals( "" )
-               && sXML_Locale.equals( "" )
-               && sXML_TemplatingEngineProvider.equals( "" )
-            )
+         public boolean isEnabled()
          {
-            return "";
+            return _iThreadPoolSize > 0;
          }
-         else
-         {
-            StringBuffer   oBuffer = new StringBuffer();
-
-            oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_Templating.OPEN_IND );
 
-            oBuffer.append( sXML_TemplatePath );
-            oBuffer.append( sXML_Locale );
-            oBuffer.append( sXML_TemplatingEngineProvider );
+         public long getTimeoutInMillis()
+         {
+            return _lTimeoutInMillis;
+         }
 
-            oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_Templating.CLOSE_IND );
+         /**
+          * Sets the maximum time a request waits for its prefetched models
+          *
+          * @param lTimeoutInMillis a time in milliseconds
+          */
+         public void setTimeoutInMillis( long lTimeoutInMillis )
+         {
+            if ( lTimeoutInMillis < 1 )
+            {
+               throw new IllegalArgumentException( "config-error: prefetch timeout must be at least 1 millisecond" );
+            }
 
-            return  oBuffer.toString();
+            _lTimeoutInMillis = lTimeoutInMillis;
          }
-      }
 
-      private String toXML_Locale()
-      {
-         if ( _oLocale == null )
+         public String toString()
          {
-            return "";
+            return toXML();
          }
-         else
+
+         public String toXML()
          {
             return
-               XML.Config_Templating_Locale
-                  .toXML( XML.Config_Templating_Locale_ISOLanguage.toXML( _oLocale.getLanguage() )
-                          + XML.Config_Templating_Locale_ISOCountry.toXML( _oLocale.getCountry() )
+               XML.Config_ModelDefs_Prefetch
+                  .toXML( XML.Config_ModelDefs_Prefetch_ThreadPoolSize.toXML( _iThreadPoolSize )
+                          + XML.Config_ModelDefs_Prefetch_Timeout.toXML( new Long( _lTimeoutInMillis ) )
                         );
          }
       }
@@ -624,29 +823,25 @@ public class Config
       /**
        * Modular configuration container
        */
-      public static class TemplatingEngine
+      public static class BatchLoaderDef
       {
-         private String    _sClassName;
+         private String _sName;
+         private String _sBatchLoaderClassName;
 
-         /**
-          * Used to set a fully qualified class name that implements the templating engine interface
-          * (the templating engine interface is com.acciente.induction.template.TemplatingEngine)
-          *
-          * @param sClassName a string representing fully qualified classname or null to use the default templating engine
-          */
-         public void setClassName( String sClassName )
+         private BatchLoaderDef( String sName, String sBatchLoaderClassName )
          {
-            _sClassName = sClassName;
+            _sName                  = sName;
+            _sBatchLoaderClassName  = sBatchLoaderClassName;
          }
 
-         /**
-          * Returns the name of the templating engine class configured or null if no value was provided
-          *
-          * @return a string representing a fully qualified class name
-          */
-         public String getClassName()
+         public String getName()
          {
-            return _sClassName;
+            return _sName;
+         }
+
+         public String getBatchLoaderClassName()
+         {
+            return _sBatchLoaderClassName;
          }
 
          public String toString()
@@ -656,73 +851,88 @@ public class Config
 
          public String toXML()
          {
-            if ( _sClassName == null )
-            {
-               return "";
-            }
-            else
-            {
-               return
-                  XML.Config_Templating_TemplatingEngine
-                     .toXML( XML.Config_Templating_TemplatingEngine_Class.toXML( _sClassName ) );
-            }
+            return
+               XML.Config_ModelDefs_BatchLoader
+                  .toXML( XML.Config_ModelDefs_BatchLoader_Name.toXML( _sName )
+                          + XML.Config_ModelDefs_BatchLoader_Class.toXML( _sBatchLoaderClassName )
+                        );
          }
       }
 
       /**
        * Modular configuration container
        */
-      public static class TemplatePath
+      public static class CacheSettings
       {
-         private  List _oTemplatePath = new ArrayList();
+         private String[]  _asKeyParameterNames       = new String[ 0 ];
+         private int       _iMaxEntries               = 1000;
+         private int       _iTimeToLiveInSeconds      = 0;     // by default entries only leave the cache by eviction
 
          /**
-          * Adds a directory to the list of locations in which a template will be searched
+          * Returns the names of the request parameters whose values form the key of the model, if no
+          * parameter names are configured the request path is used as the key
           *
-          * @param oDir a File object representing a directory
+          * @return an array of request parameter names
           */
-         public void addDir( File oDir )
+         public String[] getKeyParameterNames()
          {
-            _oTemplatePath.add( new Dir( oDir ) );
+            return _asKeyParameterNames;
          }
 
-         /**
-          * Adds a class to the list of locations in which a template will be searched,
-          * this setting will only be used by a templating engine that supports it (e.g: Freemarker)
-          * in these cases the templating engine will call the getResource() method on the specified
-          * class to retrieve a template
-          *
-          * @param sLoaderClassName a prefix to append to the template name before attempting
-          * @param sPath a path to where the templates are located, if the path starts with a /
-          * then the path is absolute, otherwise it is assumed to be relative to the package name
-          * of the loader class
-          */
-         public void addLoaderClass( String sLoaderClassName, String sPath )
+         public void setKeyParameterNames( String[] asKeyParameterNames )
          {
-            _oTemplatePath.add( new LoaderClass( sLoaderClassName, sPath ) );
+            for ( int i = 0; i < asKeyParameterNames.length; i++ )
+            {
+               if ( Strings.isEmpty( asKeyParameterNames[ i ] ) )
+               {
+                  throw new IllegalArgumentException( "config-error: cache key parameter name cannot be empty" );
+               }
+               asKeyParameterNames[ i ] = asKeyParameterNames[ i ].trim();
+            }
+
+            _asKeyParameterNames = asKeyParameterNames;
+         }
+
+         public int getMaxEntries()
+         {
+            return _iMaxEntries;
          }
 
          /**
-          * Adds a web application path to the list of locations in which a template will be searched,
-          * this setting will only be used by a templating engine that supports it (e.g: Freemarker)
-          * in these cases the templating engine will call the Servlet context's getResource() method
+          * Sets the maximum number of model instances kept, when the limit is reached the least recently
+          * used instances are evicted
           *
-          * to passing the name to getResource()
-          * @param sRelativePath a path of the web application root (the parent of the WEB-INF folder)
+          * @param iMaxEntries a number of entries
           */
-         public void addWebappPath( String sRelativePath )
+         public void setMaxEntries( int iMaxEntries )
          {
-            _oTemplatePath.add( new WebappPath( sRelativePath ) );
+            if ( iMaxEntries < 1 )
+            {
+               throw new IllegalArgumentException( "config-error: cache max entries must be at least 1" );
+            }
+
+            _iMaxEntries = iMaxEntries;
+         }
+
+         public int getTimeToLiveInSeconds()
+         {
+            return _iTimeToLiveInSeconds;
          }
 
          /**
-          * Returns the list of items added to this path
-          * @return a list, each element in the list is one of the following types:
-          * Dir, Class or WebappPath
+          * Sets the time after which a model instance is discarded and re-created on its next use, a
+          * value of 0 means instances never expire
+          *
+          * @param iTimeToLiveInSeconds a time in seconds
           */
-         public List getList()
+         public void setTimeToLiveInSeconds( int iTimeToLiveInSeconds )
          {
-            return _oTemplatePath;
+            if ( iTimeToLiveInSeconds < 0 )
+            {
+               throw new IllegalArgumentException( "config-error: cache time to live cannot be negative" );
+            }
+
+            _iTimeToLiveInSeconds = iTimeToLiveInSeconds;
          }
 
          public String toString()
@@ -732,222 +942,344 @@ public class Config
 
          public String toXML()
          {
-            if ( _oTemplatePath.size() == 0 )
-            {
-               return "";
-            }
-            else
-            {
-               StringBuffer   oBuffer = new StringBuffer();
+            StringBuffer oKeyParameterNames = new StringBuffer();
 
-               oBuffer.append( "\n" );
-               oBuffer.append( XML.Config_Templating_TemplatePath.OPEN_IND );
-
-               for ( Iterator oIter = _oTemplatePath.iterator(); oIter.hasNext(); )
+            for ( int i = 0; i < _asKeyParameterNames.length; i++ )
+            {
+               if ( i > 0 )
                {
-                  Object oPathItem = oIter.next();
-
-                  if ( oPathItem instanceof Dir )
-                  {
-                     oBuffer.append ( ( ( Dir ) oPathItem ).toXML() );
-                  }
-                  else if ( oPathItem instanceof LoaderClass )
-                  {
-                     oBuffer.append ( ( ( LoaderClass ) oPathItem ).toXML() );
-                  }
-                  else if ( oPathItem instanceof WebappPath )
-                  {
-                     oBuffer.append ( ( ( WebappPath ) oPathItem ).toXML() );
-                  }
-                  else
-                  {
-                     throw new IllegalArgumentException( "config-error: internal error: unknown template path item : " + oPathItem + ", of type: " + oPathItem.getClass() );
-                  }
+                  oKeyParameterNames.append( "," );
                }
-
-               oBuffer.append( "\n" );
-               oBuffer.append( XML.Config_Templating_TemplatePath.CLOSE_IND );
-
-               return oBuffer.toString();
+               oKeyParameterNames.append( _asKeyParameterNames[ i ] );
             }
+
+            return XML.Config_ModelDefs_ModelDef_CacheKeyParameters.toXML( oKeyParameterNames )
+                   + XML.Config_ModelDefs_ModelDef_CacheMaxEntries.toXML( _iMaxEntries )
+                   + XML.Config_ModelDefs_ModelDef_CacheTimeToLive.toXML( _iTimeToLiveInSeconds );
          }
+      }
 
-         /**
-          * Modular configuration container
-          */
-         public static class Dir
+      /**
+       * Modular configuration container
+       */
+      public static class ModelDef
+      {
+         private String    _sModelClassName;
+         private String    _sModelFactoryClassName;
+         private boolean   _bIsStaticScope;
+         private boolean   _bIsApplicationScope;
+         private boolean   _bIsSessionScope;
+         private boolean         _bIsRequestScope;
+         private boolean         _bIsCacheScope;
+         private boolean         _bIsInitOnStartUp;
+         private int             _iRefreshIntervalInSeconds;
+         private CacheSettings   _oCacheSettings;
+
+         private  ModelDef( String        sModelClassName,
+                            String        sModelFactoryClassName,
+                            boolean       bIsStaticScope,
+                            boolean       bIsApplicationScope,
+                            boolean       bIsSessionScope,
+                            boolean       bIsRequestScope,
+                            boolean       bIsCacheScope,
+                            boolean       bIsInitOnStartUp,
+                            int           iRefreshIntervalInSeconds,
+                            CacheSettings oCacheSettings )
          {
-            private  File     _oDir;
-
-            private Dir( File oDir )
+            if ( sModelClassName == null )
             {
-               _oDir = oDir;
+               throw new IllegalArgumentException( "config-error: model classname not defined" );
             }
 
-            public File getDir()
-            {
-               return _oDir;
-            }
+            sModelClassName = sModelClassName.trim();
 
-            public String toString()
+            if ( sModelClassName.length() == 0 )
             {
-               return toXML();
+               throw new IllegalArgumentException( "config-error: model classname empty" );
             }
 
-            public String toXML()
+            // check that only one of the booleans has a true value
+            int iStatedScopes = 0;
+
+            if ( bIsStaticScope )
             {
-               return
-                  XML.Config_Templating_TemplatePath_Directory.toXML( _oDir );
+               iStatedScopes++;
             }
-         }
-
-         /**
-          * Modular configuration container
-          */
-         public static class LoaderClass
-         {
-            private  String _sLoaderClassName;
-            private  String _sPath;
-
-            private LoaderClass( String sLoaderClassName, String sPath )
+            if ( bIsApplicationScope )
             {
-               _sLoaderClassName = sLoaderClassName;
-               _sPath            = sPath;
+               iStatedScopes++;
             }
-
-            public String getLoaderClassName()
+            if ( bIsSessionScope )
             {
-               return _sLoaderClassName;
+               iStatedScopes++;
             }
-
-            public String getPath()
+            if ( bIsRequestScope )
             {
-               return _sPath;
+               iStatedScopes++;
             }
-
-            public String toString()
+            if ( bIsCacheScope )
             {
-               return toXML();
+               iStatedScopes++;
             }
 
-            public String toXML()
+            if ( iStatedScopes == 0 )
             {
-               return
-                  XML.Config_Templating_TemplatePath_LoaderClass
-                     .toXML( XML.Config_Templating_TemplatePath_LoaderClass_Class.toXML( _sLoaderClassName )
-                             + XML.Config_Templating_TemplatePath_LoaderClass_Path.toXML( _sPath )
-                           );
+               throw new IllegalArgumentException( "config-error: model scope not defined" );
+            }
+            else if ( iStatedScopes > 1 )
+            {
+               throw new IllegalArgumentException( "config-error: model scope defined ambiguously" );
             }
-         }
-
-         /**
-          * Modular configuration container
-          */
-         public static class WebappPath
-         {
-            private String _sPath;
 
-            public WebappPath( String sPath )
+            if ( bIsInitOnStartUp && ! ( bIsStaticScope || bIsApplicationScope ) )
             {
-               _sPath = sPath;
+               throw new IllegalArgumentException( "config-error: model classname: "
+                                                   + sModelClassName
+                                                   + " init on startup may only be turned on for static and application scope models" );
             }
 
-            /**
-             * This path is relative to the parent of the WEB-INF directory of the web application
-             * @return a string path
-             */
-            public String getPath()
+            if ( iRefreshIntervalInSeconds < 0 )
             {
-               return _sPath;
+               throw new IllegalArgumentException( "config-error: model classname: "
+                                                   + sModelClassName
+                                                   + " refresh interval cannot be negative" );
             }
 
-            public String toString()
+            if ( iRefreshIntervalInSeconds > 0 && ! bIsApplicationScope )
             {
-               return toXML();
+               throw new IllegalArgumentException( "config-error: model classname: "
+                                                   + sModelClassName
+                                                   + " refresh interval may only be set for application scope models" );
             }
 
-            public String toXML()
+            _sModelClassName        = sModelClassName;
+            _sModelFactoryClassName = sModelFactoryClassName;
+
+            _bIsStaticScope         = bIsStaticScope;
+            _bIsApplicationScope    = bIsApplicationScope;
+            _bIsSessionScope        = bIsSessionScope;
+            _bIsRequestScope        = bIsRequestScope;
+            _bIsCacheScope          = bIsCacheScope;
+
+            _bIsInitOnStartUp       = bIsInitOnStartUp;
+
+            _iRefreshIntervalInSeconds = iRefreshIntervalInSeconds;
+
+            if ( bIsCacheScope )
             {
-               return
-                  XML.Config_Templating_TemplatePath_WebAppPath.toXML( _sPath );
+               _oCacheSettings = ( oCacheSettings == null ) ? new CacheSettings() : oCacheSettings;
+            }
+            else if ( oCacheSettings != null )
+            {
+               throw new IllegalArgumentException( "config-error: model classname: "
+                                                   + sModelClassName
+                                                   + " cache settings may only be set for cache scope models" );
             }
          }
+
+         public String getModelClassName()
+         {
+            return _sModelClassName;
+         }
+
+         public String getModelFactoryClassName()
+         {
+            return _sModelFactoryClassName;
+         }
+
+         public boolean hasModelFactoryClassName()
+         {
+            return _sModelFactoryClassName != null && _sModelFactoryClassName.trim().length() != 0;
+         }
+
+         public boolean isStaticScope()
+         {
+            return _bIsStaticScope;
+         }
+
+         public boolean isApplicationScope()
+         {
+            return _bIsApplicationScope;
+         }
+
+         public boolean isSessionScope()
+         {
+            return _bIsSessionScope;
+         }
+
+         public boolean isRequestScope()
+         {
+            return _bIsRequestScope;
+         }
+
+         public boolean isCacheScope()
+         {
+            return _bIsCacheScope;
+         }
+
+         /**
+          * Returns the key and eviction settings of a cache scope model
+          *
+          * @return the cache settings, null if this is not a cache scope model
+          */
+         public CacheSettings getCacheSettings()
+         {
+            return _oCacheSettings;
+         }
+
+         public boolean isInitOnStartUp()
+         {
+            return _bIsInitOnStartUp;
+         }
+
+         /**
+          * Returns the interval at which the model is rebuilt in the background, a value of 0 means the
+          * model is only rebuilt when its class is reloaded
+          *
+          * @return an interval in seconds
+          */
+         public int getRefreshIntervalInSeconds()
+         {
+            return _iRefreshIntervalInSeconds;
+         }
+
+         public boolean isRefreshable()
+         {
+            return _iRefreshIntervalInSeconds > 0;
+         }
+
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            return
+               XML.Config_ModelDefs_ModelDef
+                  .toXML( XML.Config_ModelDefs_ModelDef_Class.toXML( _sModelClassName )
+                          + XML.Config_ModelDefs_ModelDef_FactoryClass.toXML( _sModelFactoryClassName )
+                          + XML.Config_ModelDefs_ModelDef_Scope.toXML( _bIsStaticScope
+                                                                       ? "Static"
+                                                                       : ( _bIsApplicationScope
+                                                                           ? "Application"
+                                                                           : ( _bIsSessionScope
+                                                                               ? "Session"
+                                                                               : ( _bIsRequestScope
+                                                                                    ? "Request"
+                                                                                    : ( _bIsCacheScope
+                                                                                        ? "Cache"
+                                                                                        : "!! invalid value !!"
+                                                                                      )
+                                                                                 )
+                                                                             )
+                                                                         )
+                                                                     )
+                          + XML.Config_ModelDefs_ModelDef_InitOnStartUp.toXML( _bIsInitOnStartUp )
+                          + ( _iRefreshIntervalInSeconds > 0
+                              ? XML.Config_ModelDefs_ModelDef_RefreshInterval.toXML( _iRefreshIntervalInSeconds )
+                              : ""
+                            )
+                          + ( _oCacheSettings != null ? _oCacheSettings.toXML() : "" )
+                        );
+         }
       }
    }
 
    /**
     * Modular configuration container
     */
-   public static class ControllerMapping
+   public static class Templating
    {
-      private List      _oURLToClassMapList        = new ArrayList();
-      private List      _oErrorToClassMapList      = new ArrayList();
-      private String    _sDefaultHandlerMethodName = "handler";
-      private boolean   _bIgnoreMethodNameCase     = false;
-
-      public URLToClassMap addURLToClassMap( Pattern oURLPattern, String[] asClassPackages, Pattern oClassPattern )
-      {
-         URLToClassMap oURLToClassMap = new URLToClassMap( oURLPattern, asClassPackages, oClassPattern );
+      public static final String OBJECT_WRAPPER_DEFAULT  = "default";
+      public static final String OBJECT_WRAPPER_CACHING  = "caching";
 
-         _oURLToClassMapList.add( oURLToClassMap );
+      private TemplatePath             _oTemplatePath       = new TemplatePath();
+      private Locale                   _oLocale;
+      private TemplatingEngine         _oTemplatingEngine   = new TemplatingEngine();
+      private boolean                  _bExposePublicFields;
+      private String                   _sObjectWrapper      = OBJECT_WRAPPER_DEFAULT;
+      private Streaming                _oStreaming          = new Streaming();
+      private FragmentCache            _oFragmentCache      = new FragmentCache();
 
-         return oURLToClassMap;
+      public TemplatePath getTemplatePath()
+      {
+         return _oTemplatePath;
       }
 
-      public List getURLToClassMapList()
+      public TemplatingEngine getTemplatingEngine()
       {
-         return _oURLToClassMapList;
+         return _oTemplatingEngine;
       }
 
-      public ErrorToClassMap addErrorToClassMap( String sClassName, String sClassMethodName )
+      public Locale getLocale()
       {
-         ErrorToClassMap oErrorToClassMap = new ErrorToClassMap( sClassName, sClassMethodName );
+         return _oLocale;
+      }
 
-         _oErrorToClassMapList.add( oErrorToClassMap );
+      public void setLocale( Locale oLocale )
+      {
+         _oLocale = oLocale;
+      }
 
-         return oErrorToClassMap;
+      public boolean isExposePublicFields()
+      {
+         return _bExposePublicFields;
       }
 
-      public List getErrorToClassMapList()
+      public void setExposePublicFields( boolean bExposePublicFields )
       {
-         return _oErrorToClassMapList;
+         _bExposePublicFields = bExposePublicFields;
       }
 
-      public String getDefaultHandlerMethodName()
+      public String getObjectWrapper()
       {
-         return _sDefaultHandlerMethodName;
+         return _sObjectWrapper;
       }
 
-      public void setDefaultHandlerMethodName( String sDefaultHandlerMethodName )
+      /**
+       * Sets the object wrapper used by the Freemarker templating engine to expose views (and the values
+       * they return) to templates. The default wrapper is Freemarker's DefaultObjectWrapper, the caching
+       * wrapper resolves the properties of each class once and reads them through cached method handles.
+       *
+       * @param sObjectWrapper default or caching
+       */
+      public void setObjectWrapper( String sObjectWrapper )
       {
-         if ( sDefaultHandlerMethodName == null )
+         if ( ! OBJECT_WRAPPER_DEFAULT.equalsIgnoreCase( sObjectWrapper )
+               && ! OBJECT_WRAPPER_CACHING.equalsIgnoreCase( sObjectWrapper ) )
          {
-            throw new IllegalArgumentException( "config-error: default handler name cannot be set to null or empty" );
+            throw new IllegalArgumentException( "config-error: object wrapper must be one of: "
+                                                + OBJECT_WRAPPER_DEFAULT + ", " + OBJECT_WRAPPER_CACHING
+                                                + ", found: " + sObjectWrapper );
          }
 
-         if ( ! Character.isJavaIdentifierStart( sDefaultHandlerMethodName.charAt( 0 )) )
-         {
-            throw new IllegalArgumentException( "config-error: default handler name starts with an invalid character" );
-         }
+         _sObjectWrapper = sObjectWrapper.toLowerCase();
+      }
 
-         _sDefaultHandlerMethodName = sDefaultHandlerMethodName;
+      public boolean isObjectWrapperCaching()
+      {
+         return OBJECT_WRAPPER_CACHING.equals( _sObjectWrapper );
       }
 
-      public boolean isIgnoreMethodNameCase()
+      /**
+       * Returns the configuration of the streaming of template output to the response
+       *
+       * @return the streaming configuration
+       */
+      public Streaming getStreaming()
       {
-         return _bIgnoreMethodNameCase;
+         return _oStreaming;
       }
 
       /**
-       * Controls if the default resolver should respect method case when looking for a method. A resolver
-       * implementation is may choose to ignore this setting.
+       * Returns the configuration of the cache used by the fragment cache directive of the templating engine
        *
-       * @param bIgnoreMethodNameCase if true is specified, it tells the resolver implementation to
-       * search for a handler method name ignoring case.
+       * @return the fragment cache configuration
        */
-      public void setIgnoreMethodNameCase( boolean bIgnoreMethodNameCase )
+      public FragmentCache getFragmentCache()
       {
-         _bIgnoreMethodNameCase = bIgnoreMethodNameCase;
+         return _oFragmentCache;
       }
 
       public String toString()
@@ -957,193 +1289,211 @@ public class Config
 
       public String toXML()
       {
-         StringBuffer   oBuffer = new StringBuffer();
-
-         oBuffer.append( "\n" );
-         oBuffer.append( XML.Config_ControllerMapping.OPEN_IND );
+         String   sXML_TemplatePath             =  _oTemplatePath.toXML();
+         String   sXML_TemplatingEngineProvider =  _oTemplatingEngine.toXML();
+         String   sXML_Locale                   =  toXML_Locale();
+         String   sXML_ObjectWrapper            =  toXML_ObjectWrapper();
+         String   sXML_Streaming                =  _oStreaming.toXML();
+         String   sXML_FragmentCache            =  _oFragmentCache.toXML();
 
-         for ( Iterator oIter = _oURLToClassMapList.iterator(); oIter.hasNext(); )
+         if ( sXML_TemplatePath.equals( "" )
+               && sXML_Locale.equals( "" )
+               && sXML_ObjectWrapper.equals( "" )
+               && sXML_TemplatingEngineProvider.equals( "" )
+               && sXML_Streaming.equals( "" )
+               && sXML_FragmentCache.equals( "" )
+            )
          {
-            oBuffer.append ( ( ( URLToClassMap ) oIter.next() ).toXML() );
+            return "";
          }
-
-         for ( Iterator oIter = _oErrorToClassMapList.iterator(); oIter.hasNext(); )
+         else
          {
-            oBuffer.append ( ( ( ErrorToClassMap ) oIter.next() ).toXML() );
-         }
+            StringBuffer   oBuffer = new StringBuffer();
 
-         oBuffer.append( XML.Config_ControllerMapping_DefaultHandlerMethod.toXML( _sDefaultHandlerMethodName ) );
-         oBuffer.append( XML.Config_ControllerMapping_IgnoreHandlerMethodCase.toXML( _bIgnoreMethodNameCase ) );
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_Templating.OPEN_IND );
 
-         oBuffer.append( "\n" );
-         oBuffer.append( XML.Config_ControllerMapping.CLOSE_IND );
+            oBuffer.append( sXML_TemplatePath );
+            oBuffer.append( sXML_Locale );
+            oBuffer.append( sXML_ObjectWrapper );
+            oBuffer.append( sXML_TemplatingEngineProvider );
+            oBuffer.append( sXML_Streaming );
+            oBuffer.append( sXML_FragmentCache );
 
-         return oBuffer.toString();
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_Templating.CLOSE_IND );
+
+            return  oBuffer.toString();
+         }
       }
 
-      /**
-       * Modular configuration container
-       */
-      public static class URLToClassMap
+      private String toXML_Locale()
       {
-         private String[]  _asClassPackages;
-         private Pattern   _oURLPattern;
-         private Pattern   _oClassPattern;
-         private List      _aoFindReplaceDirectives = new ArrayList();
-
-         private URLToClassMap( Pattern oURLPattern, String[] asClassPackages, Pattern oClassPattern )
+         if ( _oLocale == null )
          {
-            validateURLPattern( oURLPattern );
-            validateClassPackages( asClassPackages );
-            validateClassPattern( oClassPattern );
-
-            _oURLPattern      = oURLPattern;
-            _asClassPackages  = asClassPackages;
-            _oClassPattern    = oClassPattern;
+            return "";
          }
-
-         public Pattern getURLPattern()
+         else
          {
-            return _oURLPattern;
+            return
+               XML.Config_Templating_Locale
+                  .toXML( XML.Config_Templating_Locale_ISOLanguage.toXML( _oLocale.getLanguage() )
+                          + XML.Config_Templating_Locale_ISOCountry.toXML( _oLocale.getCountry() )
+                        );
          }
+      }
 
-         public String[] getClassPackages()
+      private String toXML_ObjectWrapper()
+      {
+         if ( ! isObjectWrapperCaching() )
          {
-            return _asClassPackages;
+            return "";
          }
-
-         public Pattern getClassPattern()
+         else
          {
-            return _oClassPattern;
+            return XML.Config_Templating_ObjectWrapper.toXML( _sObjectWrapper );
          }
+      }
 
-         public void addClassFindReplaceDirective( String sFindStr, String sReplaceStr )
+      /**
+       * Modular configuration container
+       */
+      public static class Streaming
+      {
+         public static final String ERROR_POLICY_TRUNCATE   = "truncate";
+         public static final String ERROR_POLICY_PROPAGATE  = "propagate";
+
+         private boolean   _bEnabled         = false;    // by default template output is buffered in full
+         private int       _iBufferSize      = 8 * 1024;
+         private String    _sErrorPolicy     = ERROR_POLICY_TRUNCATE;
+
+         public boolean isEnabled()
          {
-            _aoFindReplaceDirectives.add( new FindReplaceDirective( sFindStr, sReplaceStr ) );
+            return _bEnabled;
          }
 
-         public List getClassFindReplaceDirectives()
+         /**
+          * Sets whether templates stream their output to the response as it is rendered, instead of rendering
+          * in full before the first byte is sent. A view can override this setting by implementing the
+          * com.acciente.induction.view.StreamingTemplate interface.
+          *
+          * @param bEnabled true to stream the output of all templates
+          */
+         public void setEnabled( boolean bEnabled )
          {
-            return _aoFindReplaceDirectives;
+            _bEnabled = bEnabled;
          }
 
-         public String toString()
+         public int getBufferSize()
          {
-            return toXML();
+            return _iBufferSize;
          }
 
-         public String toXML()
+         /**
+          * Sets the number of characters buffered before streamed output is passed to the response
+          *
+          * @param iBufferSize a number of characters
+          */
+         public void setBufferSize( int iBufferSize )
          {
-            StringBuffer   oBuffer = new StringBuffer();
-
-            oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap.OPEN_IND );
-
-            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap_URLPattern.toXML( _oURLPattern ) );
-            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap_ClassPackages.toXML( Arrays.asList( _asClassPackages ) ) );
-            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap_ClassPattern.toXML( _oClassPattern ) );
-
-            for ( Iterator oIter = _aoFindReplaceDirectives.iterator(); oIter.hasNext(); )
+            if ( iBufferSize < 1 )
             {
-               oBuffer.append ( ( ( FindReplaceDirective ) oIter.next() ).toXML() );
+               throw new IllegalArgumentException( "config-error: streaming buffer size must be at least 1" );
             }
 
-            oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap.CLOSE_IND );
-
-            return oBuffer.toString();
+            _iBufferSize = iBufferSize;
          }
 
-         public static class FindReplaceDirective
+         public String getErrorPolicy()
          {
-            private  String   _sFindStr;
-            private  String   _sReplaceStr;
+            return _sErrorPolicy;
+         }
 
-            private FindReplaceDirective( String sFindStr, String sReplaceStr )
+         /**
+          * Sets what happens when a template fails after part of its output has been sent. With the truncate
+          * policy the error is logged and the response ends where the output stopped, with the propagate policy
+          * the error is handled like any other view error (the error controller, if any, sees a committed response).
+          * An error raised before any output is sent is always handled like any other view error.
+          *
+          * @param sErrorPolicy truncate or propagate
+          */
+         public void setErrorPolicy( String sErrorPolicy )
+         {
+            if ( ! ERROR_POLICY_TRUNCATE.equalsIgnoreCase( sErrorPolicy )
+                  && ! ERROR_POLICY_PROPAGATE.equalsIgnoreCase( sErrorPolicy ) )
             {
-               if ( sFindStr == null )
-               {
-                  throw new IllegalArgumentException( "config-error: find string cannot be null!" );
-               }
-
-               if ( sReplaceStr == null )
-               {
-                  throw new IllegalArgumentException( "config-error: replace string cannot be null!" );
-               }
-
-               _sFindStr      = sFindStr;
-               _sReplaceStr   = sReplaceStr;
+               throw new IllegalArgumentException( "config-error: streaming error policy must be one of: "
+                                                   + ERROR_POLICY_TRUNCATE + ", " + ERROR_POLICY_PROPAGATE
+                                                   + ", found: " + sErrorPolicy );
             }
 
-            public String getFindString()
-            {
-               return _sFindStr;
-            }
+            _sErrorPolicy = sErrorPolicy.toLowerCase();
+         }
 
-            public String getReplaceString()
-            {
-               return _sReplaceStr;
-            }
+         public boolean isErrorPolicyTruncate()
+         {
+            return ERROR_POLICY_TRUNCATE.equals( _sErrorPolicy );
+         }
 
-            public String toString()
-            {
-               return toXML();
-            }
+         public String toString()
+         {
+            return toXML();
+         }
 
-            public String toXML()
-            {
-               return
-                  XML.Config_ControllerMapping_URLToClassMap_ClassReplace
-                     .toXML( XML.Config_ControllerMapping_URLToClassMap_ClassReplace_Find.toXML( _sFindStr )
-                             + XML.Config_ControllerMapping_URLToClassMap_ClassReplace_Replace.toXML( _sReplaceStr )
-                           );
-            }
+         public String toXML()
+         {
+            return
+               XML.Config_Templating_Streaming
+                  .toXML( XML.Config_Templating_Streaming_Enabled.toXML( _bEnabled )
+                          + XML.Config_Templating_Streaming_BufferSize.toXML( _iBufferSize )
+                          + XML.Config_Templating_Streaming_ErrorPolicy.toXML( _sErrorPolicy )
+                        );
          }
       }
 
       /**
        * Modular configuration container
        */
-      public static class ErrorToClassMap
+      public static class FragmentCache
       {
-         private ExceptionPattern   _oExceptionPattern = new ExceptionPattern( "java.lang.Throwable", true );
-         private String             _sClassName;
-         private String             _sClassMethodName;
+         private boolean   _bEnabled         = true;
+         private int       _iMaxEntries      = 1000;
 
-         public ErrorToClassMap( String sClassName, String sClassMethodName )
+         public boolean isEnabled()
          {
-            if ( sClassName == null )
-            {
-               throw new IllegalArgumentException( "config-error: controller class name cannot be empty" );
-            }
-
-            _sClassName       = sClassName;
-            _sClassMethodName = sClassMethodName;
+            return _bEnabled;
          }
 
-         public void setExceptionPattern( String sClassName, boolean bIncludeDerived )
+         /**
+          * Sets whether fragments rendered with the cache directive are kept, when disabled the directive
+          * renders its body on every request
+          *
+          * @param bEnabled true to cache fragments
+          */
+         public void setEnabled( boolean bEnabled )
          {
-            if ( sClassName == null )
-            {
-               throw new IllegalArgumentException( "config-error: exception pattern class name cannot be empty" );
-            }
-
-            _oExceptionPattern = new ExceptionPattern( sClassName, bIncludeDerived );
+            _bEnabled = bEnabled;
          }
 
-         public ExceptionPattern getExceptionPattern()
+         public int getMaxEntries()
          {
-            return _oExceptionPattern;
+            return _iMaxEntries;
          }
 
-         public String getClassName()
+         /**
+          * Sets the maximum number of fragments kept, when the limit is reached the least recently used
+          * fragments are dropped
+          *
+          * @param iMaxEntries a number of fragments
+          */
+         public void setMaxEntries( int iMaxEntries )
          {
-            return _sClassName;
-         }
+            if ( iMaxEntries < 1 )
+            {
+               throw new IllegalArgumentException( "config-error: fragment cache max entries must be at least 1" );
+            }
 
-         public String getClassMethodName()
-         {
-            return _sClassMethodName;
+            _iMaxEntries = iMaxEntries;
          }
 
          public String toString()
@@ -1154,196 +1504,251 @@ public class Config
          public String toXML()
          {
             return
-               XML.Config_ControllerMapping_ErrorToClassMap
-                  .toXML( _oExceptionPattern.toXML()
-                          + XML.Config_ControllerMapping_ErrorToClassMap_ClassName.toXML( _sClassName )
+               XML.Config_Templating_FragmentCache
+                  .toXML( XML.Config_Templating_FragmentCache_Enabled.toXML( _bEnabled )
+                          + XML.Config_Templating_FragmentCache_MaxEntries.toXML( _iMaxEntries )
                         );
          }
+      }
 
-         public static class ExceptionPattern
-         {
-            private String    _sClassname;
-            private boolean   _bIncludeDerived;
+      /**
+       * Modular configuration container
+       */
+      public static class TemplatingEngine
+      {
+         private String    _sClassName;
 
-            public ExceptionPattern( String sClassname, boolean bIncludeDerived )
-            {
-               _sClassname       = sClassname;
-               _bIncludeDerived  = bIncludeDerived;
-            }
+         /**
+          * Used to set a fully qualified class name that implements the templating engine interface
+          * (the templating engine interface is com.acciente.induction.template.TemplatingEngine)
+          *
+          * @param sClassName a string representing fully qualified classname or null to use the default templating engine
+          */
+         public void setClassName( String sClassName )
+         {
+            _sClassName = sClassName;
+         }
 
-            public String getClassName()
-            {
-               return _sClassname;
-            }
+         /**
+          * Returns the name of the templating engine class configured or null if no value was provided
+          *
+          * @return a string representing a fully qualified class name
+          */
+         public String getClassName()
+         {
+            return _sClassName;
+         }
 
-            public boolean isIncludeDerived()
-            {
-               return _bIncludeDerived;
-            }
+         public String toString()
+         {
+            return toXML();
+         }
 
-            public String toString()
+         public String toXML()
+         {
+            if ( _sClassName == null )
             {
-               return toXML();
+               return "";
             }
-
-            public String toXML()
+            else
             {
                return
-                  XML.Config_ControllerMapping_ErrorToClassMap_ExceptionPattern
-                     .toXML( XML.Config_ControllerMapping_ErrorToClassMap_ExceptionPattern_ClassName.toXML( _sClassname )
-                             + XML.Config_ControllerMapping_ErrorToClassMap_ExceptionPattern_IncludeDerived.toXML( _bIncludeDerived )
-                           );
+                  XML.Config_Templating_TemplatingEngine
+                     .toXML( XML.Config_Templating_TemplatingEngine_Class.toXML( _sClassName ) );
             }
          }
       }
-   }
-
-   /**
-    * Modular configuration container
-    */
-   public static class ViewMapping
-   {
-      private List      _oURLToClassMapList        = new ArrayList();
 
-      public URLToClassMap addURLToClassMap( Pattern oURLPattern, String[] asClassPackages, Pattern oClassPattern )
+      /**
+       * Modular configuration container
+       */
+      public static class TemplatePath
       {
-         URLToClassMap oURLToClassMap = new URLToClassMap( oURLPattern, asClassPackages, oClassPattern );
+         private  List _oTemplatePath = new ArrayList();
 
-         _oURLToClassMapList.add( oURLToClassMap );
+         /**
+          * Adds a directory to the list of locations in which a template will be searched
+          *
+          * @param oDir a File object representing a directory
+          */
+         public void addDir( File oDir )
+         {
+            _oTemplatePath.add( new Dir( oDir ) );
+         }
 
-         return oURLToClassMap;
-      }
+         /**
+          * Adds a class to the list of locations in which a template will be searched,
+          * this setting will only be used by a templating engine that supports it (e.g: Freemarker)
+          * in these cases the templating engine will call the getResource() method on the specified
+          * class to retrieve a template
+          *
+          * @param sLoaderClassName a prefix to append to the template name before attempting
+          * @param sPath a path to where the templates are located, if the path starts with a /
+          * then the path is absolute, otherwise it is assumed to be relative to the package name
+          * of the loader class
+          */
+         public void addLoaderClass( String sLoaderClassName, String sPath )
+         {
+            _oTemplatePath.add( new LoaderClass( sLoaderClassName, sPath ) );
+         }
 
-      public List getURLToClassMapList()
-      {
-         return _oURLToClassMapList;
-      }
-
-      public String toString()
-      {
-         return toXML();
-      }
-
-      public String toXML()
-      {
-         StringBuffer   oBuffer = new StringBuffer();
-
-         oBuffer.append( "\n" );
-         oBuffer.append( XML.Config_ViewMapping.OPEN_IND );
-
-         for ( Iterator oIter = _oURLToClassMapList.iterator(); oIter.hasNext(); )
+         /**
+          * Adds a web application path to the list of locations in which a template will be searched,
+          * this setting will only be used by a templating engine that supports it (e.g: Freemarker)
+          * in these cases the templating engine will call the Servlet context's getResource() method
+          *
+          * to passing the name to getResource()
+          * @param sRelativePath a path of the web application root (the parent of the WEB-INF folder)
+          */
+         public void addWebappPath( String sRelativePath )
          {
-            oBuffer.append ( ( ( URLToClassMap ) oIter.next() ).toXML() );
+            _oTemplatePath.add( new WebappPath( sRelativePath ) );
          }
 
-         oBuffer.append( "\n" );
-         oBuffer.append( XML.Config_ViewMapping.CLOSE_IND );
-
-         return oBuffer.toString();
-      }
-
-      /**
-       * Modular configuration container
-       */
-      public static class URLToClassMap
-      {
-         private String[]  _asClassPackages;
-         private Pattern   _oURLPattern;
-         private Pattern   _oClassPattern;
-         private List      _aoFindReplaceDirectives = new ArrayList();
-
-         private URLToClassMap( Pattern oURLPattern, String[] asClassPackages, Pattern oClassPattern )
+         /**
+          * Returns the list of items added to this path
+          * @return a list, each element in the list is one of the following types:
+          * Dir, Class or WebappPath
+          */
+         public List getList()
          {
-            validateURLPattern( oURLPattern );
-            validateClassPackages( asClassPackages );
-            validateClassPattern( oClassPattern );
-
-            _oURLPattern      = oURLPattern;
-            _asClassPackages  = asClassPackages;
-            _oClassPattern    = oClassPattern;
+            return _oTemplatePath;
          }
 
-         public Pattern getURLPattern()
+         public String toString()
          {
-            return _oURLPattern;
+            return toXML();
          }
 
-         public String[] getClassPackages()
+         public String toXML()
          {
-            return _asClassPackages;
-         }
+            if ( _oTemplatePath.size() == 0 )
+            {
+               return "";
+            }
+            else
+            {
+               StringBuffer   oBuffer = new StringBuffer();
 
-         public Pattern getClassPattern()
-         {
-            return _oClassPattern;
-         }
+               oBuffer.append( "\n" );
+               oBuffer.append( XML.Config_Templating_TemplatePath.OPEN_IND );
 
-         public void addClassFindReplaceDirective( String sFindStr, String sReplaceStr )
-         {
-            _aoFindReplaceDirectives.add( new FindReplaceDirective( sFindStr, sReplaceStr ) );
-         }
+               for ( Iterator oIter = _oTemplatePath.iterator(); oIter.hasNext(); )
+               {
+                  Object oPathItem = oIter.next();
 
-         public List getClassFindReplaceDirectives()
-         {
-            return _aoFindReplaceDirectives;
-         }
+                  if ( oPathItem instanceof Dir )
+                  {
+                     oBuffer.append ( ( ( Dir ) oPathItem ).toXML() );
+                  }
+                  else if ( oPathItem instanceof LoaderClass )
+                  {
+                     oBuffer.append ( ( ( LoaderClass ) oPathItem ).toXML() );
+                  }
+                  else if ( oPathItem instanceof WebappPath )
+                  {
+                     oBuffer.append ( ( ( WebappPath ) oPathItem ).toXML() );
+                  }
+                  else
+                  {
+                     throw new IllegalArgumentException( "config-error: internal error: unknown template path item : " + oPathItem + ", of type: " + oPathItem.getClass() );
+                  }
+               }
 
-         public String toString()
-         {
-            return toXML();
+               oBuffer.append( "\n" );
+               oBuffer.append( XML.Config_Templating_TemplatePath.CLOSE_IND );
+
+               return oBuffer.toString();
+            }
          }
 
-         public String toXML()
+         /**
+          * Modular configuration container
+          */
+         public static class Dir
          {
-            StringBuffer   oBuffer = new StringBuffer();
-
-            oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_ViewMapping_URLToClassMap.OPEN_IND );
+            private  File     _oDir;
 
-            oBuffer.append( XML.Config_ViewMapping_URLToClassMap_URLPattern.toXML( _oURLPattern ) );
-            oBuffer.append( XML.Config_ViewMapping_URLToClassMap_ClassPackages.toXML( Arrays.asList( _asClassPackages ) ) );
-            oBuffer.append( XML.Config_ViewMapping_URLToClassMap_ClassPattern.toXML( _oClassPattern ) );
+            private Dir( File oDir )
+            {
+               _oDir = oDir;
+            }
 
-            for ( Iterator oIter = _aoFindReplaceDirectives.iterator(); oIter.hasNext(); )
+            public File getDir()
             {
-               oBuffer.append ( ( ( FindReplaceDirective ) oIter.next() ).toXML() );
+               return _oDir;
             }
 
-            oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_ViewMapping_URLToClassMap.CLOSE_IND );
+            public String toString()
+            {
+               return toXML();
+            }
 
-            return oBuffer.toString();
+            public String toXML()
+            {
+               return
+                  XML.Config_Templating_TemplatePath_Directory.toXML( _oDir );
+            }
          }
 
-         public static class FindReplaceDirective
+         /**
+          * Modular configuration container
+          */
+         public static class LoaderClass
          {
-            private  String   _sFindStr;
-            private  String   _sReplaceStr;
+            private  String _sLoaderClassName;
+            private  String _sPath;
 
-            private FindReplaceDirective( String sFindStr, String sReplaceStr )
+            private LoaderClass( String sLoaderClassName, String sPath )
             {
-               if ( sFindStr == null )
-               {
-                  throw new IllegalArgumentException( "config-error: find string cannot be null!" );
-               }
+               _sLoaderClassName = sLoaderClassName;
+               _sPath            = sPath;
+            }
 
-               if ( sReplaceStr == null )
-               {
-                  throw new IllegalArgumentException( "config-error: replace string cannot be null!" );
-               }
+            public String getLoaderClassName()
+            {
+               return _sLoaderClassName;
+            }
 
-               _sFindStr      = sFindStr;
-               _sReplaceStr   = sReplaceStr;
+            public String getPath()
+            {
+               return _sPath;
             }
 
-            public String getFindString()
+            public String toString()
             {
-               return _sFindStr;
+               return toXML();
             }
 
-            public String getReplaceString()
+            public String toXML()
             {
-               return _sReplaceStr;
+               return
+                  XML.Config_Templating_TemplatePath_LoaderClass
+                     .toXML( XML.Config_Templating_TemplatePath_LoaderClass_Class.toXML( _sLoaderClassName )
+                             + XML.Config_Templating_TemplatePath_LoaderClass_Path.toXML( _sPath )
+                           );
+            }
+         }
+
+         /**
+          * Modular configuration container
+          */
+         public static class WebappPath
+         {
+            private String _sPath;
+
+            public WebappPath( String sPath )
+            {
+               _sPath = sPath;
+            }
+
+            /**
+             * This path is relative to the parent of the WEB-INF directory of the web application
+             * @return a string path
+             */
+            public String getPath()
+            {
+               return _sPath;
             }
 
             public String toString()
@@ -1354,10 +1759,7 @@ public class Config
             public String toXML()
             {
                return
-                  XML.Config_ViewMapping_URLToClassMap_ClassReplace
-                     .toXML( XML.Config_ViewMapping_URLToClassMap_ClassReplace_Find.toXML( _sFindStr )
-                             + XML.Config_ViewMapping_URLToClassMap_ClassReplace_Replace.toXML( _sReplaceStr )
-                           );
+                  XML.Config_Templating_TemplatePath_WebAppPath.toXML( _sPath );
             }
          }
       }
@@ -1366,64 +1768,154 @@ public class Config
    /**
     * Modular configuration container
     */
-   public static class RedirectMapping
+   public static class ControllerMapping
    {
-      private List   _oClassToURLMapList = new ArrayList();
-      private String _sURLBase           = "";
+      private List      _oURLToClassMapList        = new ArrayList();
+      private List      _oErrorToClassMapList      = new ArrayList();
+      private String    _sDefaultHandlerMethodName = "handler";
+      private boolean   _bIgnoreMethodNameCase     = false;
+      private List      _oControllerScopeList      = new ArrayList();
 
-      public ClassToURLMap addClassToURLMap( String[] asClassPackages, Pattern oClassPattern, String sURLFormat, String sAlternateURLFormat )
+      public URLToClassMap addURLToClassMap( Pattern oURLPattern, String[] asClassPackages, Pattern oClassPattern )
       {
-         ClassToURLMap oClassToURLMap = new ClassToURLMap( asClassPackages, oClassPattern, sURLFormat, sAlternateURLFormat );
+         URLToClassMap oURLToClassMap = new URLToClassMap( oURLPattern, asClassPackages, oClassPattern );
 
-         _oClassToURLMapList.add( oClassToURLMap );
+         _oURLToClassMapList.add( oURLToClassMap );
 
-         return oClassToURLMap;
+         return oURLToClassMap;
       }
 
-      public List getClassToURLMapList()
+      public List getURLToClassMapList()
       {
-         return _oClassToURLMapList;
+         return _oURLToClassMapList;
       }
 
-      public String getURLBase()
+      public ErrorToClassMap addErrorToClassMap( String sClassName, String sClassMethodName )
       {
-         return _sURLBase;
+         ErrorToClassMap oErrorToClassMap = new ErrorToClassMap( sClassName, sClassMethodName );
+
+         _oErrorToClassMapList.add( oErrorToClassMap );
+
+         return oErrorToClassMap;
       }
 
-      public void setURLBase( String sURLBase )
+      public List getErrorToClassMapList()
       {
-         _sURLBase = sURLBase;
+         return _oErrorToClassMapList;
       }
 
-      public String toString()
+      public String getDefaultHandlerMethodName()
       {
-         return toXML();
+         return _sDefaultHandlerMethodName;
       }
 
-      public String toXML()
+      public void setDefaultHandlerMethodName( String sDefaultHandlerMethodName )
       {
-         if ( _oClassToURLMapList.size() == 0 && Strings.isEmpty( _sURLBase ) )
+         if ( sDefaultHandlerMethodName == null )
          {
-            return "";
+            throw new IllegalArgumentException( "config-error: default handler name cannot be set to null or empty" );
+         }
+
+         if ( ! Character.isJavaIdentifierStart( sDefaultHandlerMethodName.charAt( 0 )) )
+         {
+            throw new IllegalArgumentException( "config-error: default handler name starts with an invalid character" );
+         }
+
+         _sDefaultHandlerMethodName = sDefaultHandlerMethodName;
+      }
+
+      public boolean isIgnoreMethodNameCase()
+      {
+         return _bIgnoreMethodNameCase;
+      }
+
+      /**
+       * Controls if the default resolver should respect method case when looking for a method. A resolver
+       * implementation is may choose to ignore this setting.
+       *
+       * @param bIgnoreMethodNameCase if true is specified, it tells the resolver implementation to
+       * search for a handler method name ignoring case.
+       */
+      public void setIgnoreMethodNameCase( boolean bIgnoreMethodNameCase )
+      {
+         _bIgnoreMethodNameCase = bIgnoreMethodNameCase;
+      }
+
+      /**
+       * Adds a scope definition for the controller classes whose fully qualified name matches the
+       * specified class pattern. Controllers not matched by any scope definition are singletons.
+       *
+       * @param oClassPattern a regex matched against a fully qualified controller class name
+       * @param sScope one of singleton, pool or prototype
+       * @return the newly added scope definition
+       */
+      public ControllerScope addControllerScope( Pattern oClassPattern, String sScope )
+      {
+         ControllerScope oControllerScope = new ControllerScope( oClassPattern, sScope );
+
+         _oControllerScopeList.add( oControllerScope );
+
+         return oControllerScope;
+      }
+
+      public List getControllerScopeList()
+      {
+         return _oControllerScopeList;
+      }
+
+      /**
+       * Returns the first scope definition whose class pattern matches the specified class name
+       *
+       * @param sControllerClassName a fully qualified controller class name
+       * @return a scope definition, or null if the controller is not matched by any scope definition
+       */
+      public ControllerScope getControllerScope( String sControllerClassName )
+      {
+         for ( Iterator oIter = _oControllerScopeList.iterator(); oIter.hasNext(); )
+         {
+            ControllerScope oControllerScope = ( ControllerScope ) oIter.next();
+
+            if ( oControllerScope.getClassPattern().matcher( sControllerClassName ).matches() )
+            {
+               return oControllerScope;
+            }
          }
 
+         return null;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
          StringBuffer   oBuffer = new StringBuffer();
 
          oBuffer.append( "\n" );
-         oBuffer.append( XML.Config_RedirectMapping.OPEN_IND );
+         oBuffer.append( XML.Config_ControllerMapping.OPEN_IND );
 
-         for ( Iterator oIter = _oClassToURLMapList.iterator(); oIter.hasNext(); )
+         for ( Iterator oIter = _oURLToClassMapList.iterator(); oIter.hasNext(); )
          {
-            oBuffer.append ( ( ( ClassToURLMap ) oIter.next() ).toXML() );
+            oBuffer.append ( ( ( URLToClassMap ) oIter.next() ).toXML() );
          }
 
-         if ( ! Strings.isEmpty( _sURLBase ) )
+         for ( Iterator oIter = _oErrorToClassMapList.iterator(); oIter.hasNext(); )
          {
-            oBuffer.append( XML.Config_RedirectMapping_URLBase.toXML( _sURLBase ) );
+            oBuffer.append ( ( ( ErrorToClassMap ) oIter.next() ).toXML() );
+         }
+
+         oBuffer.append( XML.Config_ControllerMapping_DefaultHandlerMethod.toXML( _sDefaultHandlerMethodName ) );
+         oBuffer.append( XML.Config_ControllerMapping_IgnoreHandlerMethodCase.toXML( _bIgnoreMethodNameCase ) );
+
+         for ( Iterator oIter = _oControllerScopeList.iterator(); oIter.hasNext(); )
+         {
+            oBuffer.append ( ( ( ControllerScope ) oIter.next() ).toXML() );
          }
 
          oBuffer.append( "\n" );
-         oBuffer.append( XML.Config_RedirectMapping.CLOSE_IND );
+         oBuffer.append( XML.Config_ControllerMapping.CLOSE_IND );
 
          return oBuffer.toString();
       }
@@ -1431,47 +1923,27 @@ public class Config
       /**
        * Modular configuration container
        */
-      public static class ClassToURLMap
+      public static class URLToClassMap
       {
-         public static final String    SHORTNAME_LITERAL       = "$Name";
-         public static final String    METHODNAME_LITERAL      = "$Method";
-
-         public static final String    SHORTNAME_SEARCH_REGEX  = "\\$Name";
-         public static final String    METHODNAME_SEARCH_REGEX = "\\$Method";
-
-         private String[]     _asClassPackages;
-         private Pattern      _oClassPattern;
-         private String       _sURLFormat;
-         private String       _sAlternateURLFormat;
-         private List         _aoFindReplaceDirectives = new ArrayList();
+         private String[]  _asClassPackages;
+         private Pattern   _oURLPattern;
+         private Pattern   _oClassPattern;
+         private List      _aoFindReplaceDirectives = new ArrayList();
 
-         private ClassToURLMap( String[] asClassPackages, Pattern oClassPattern, String sURLFormat, String sAlternateURLFormat )
+         private URLToClassMap( Pattern oURLPattern, String[] asClassPackages, Pattern oClassPattern )
          {
+            validateURLPattern( oURLPattern );
+            validateClassPackages( asClassPackages );
             validateClassPattern( oClassPattern );
 
-            if ( sURLFormat.indexOf( SHORTNAME_LITERAL ) == -1 )
-            {
-               throw new IllegalArgumentException( "config-error: URL format must use: "
-                                                   + SHORTNAME_LITERAL
-                                                   + " may optionally use: "
-                                                   + METHODNAME_LITERAL );
-            }
-
-            // check the optional alternate URL format, if present
-            if ( sAlternateURLFormat != null
-                 && ( sAlternateURLFormat.indexOf( SHORTNAME_LITERAL ) == -1
-                      || sAlternateURLFormat.indexOf( METHODNAME_LITERAL ) == -1 ) )
-            {
-               throw new IllegalArgumentException( "config-error: Alternate URL format must use both: "
-                                                   + SHORTNAME_LITERAL
-                                                   + " and: "
-                                                   + METHODNAME_LITERAL );
-            }
+            _oURLPattern      = oURLPattern;
+            _asClassPackages  = asClassPackages;
+            _oClassPattern    = oClassPattern;
+         }
 
-            _asClassPackages     = asClassPackages;
-            _oClassPattern       = oClassPattern;
-            _sURLFormat          = sURLFormat;
-            _sAlternateURLFormat = sAlternateURLFormat;
+         public Pattern getURLPattern()
+         {
+            return _oURLPattern;
          }
 
          public String[] getClassPackages()
@@ -1484,16 +1956,6 @@ public class Config
             return _oClassPattern;
          }
 
-         public String getURLFormat()
-         {
-            return _sURLFormat;
-         }
-
-         public String getAlternateURLFormat()
-         {
-            return _sAlternateURLFormat;
-         }
-
          public void addClassFindReplaceDirective( String sFindStr, String sReplaceStr )
          {
             _aoFindReplaceDirectives.add( new FindReplaceDirective( sFindStr, sReplaceStr ) );
@@ -1514,12 +1976,11 @@ public class Config
             StringBuffer   oBuffer = new StringBuffer();
 
             oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap.OPEN_IND );
+            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap.OPEN_IND );
 
-            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap_ClassPackages.toXML( _asClassPackages ) );
-            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap_ClassPattern.toXML( _oClassPattern ) );
-            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap_URLFormat.toXML( _sURLFormat ) );
-            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap_URLFormatAlt.toXML( _sAlternateURLFormat ) );
+            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap_URLPattern.toXML( _oURLPattern ) );
+            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap_ClassPackages.toXML( Arrays.asList( _asClassPackages ) ) );
+            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap_ClassPattern.toXML( _oClassPattern ) );
 
             for ( Iterator oIter = _aoFindReplaceDirectives.iterator(); oIter.hasNext(); )
             {
@@ -1527,7 +1988,7 @@ public class Config
             }
 
             oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap.CLOSE_IND );
+            oBuffer.append( XML.Config_ControllerMapping_URLToClassMap.CLOSE_IND );
 
             return oBuffer.toString();
          }
@@ -1544,108 +2005,1800 @@ public class Config
                   throw new IllegalArgumentException( "config-error: find string cannot be null!" );
                }
 
-               if ( sReplaceStr == null )
-               {
-                  throw new IllegalArgumentException( "config-error: replace string cannot be null!" );
-               }
+               if ( sReplaceStr == null )
+               {
+                  throw new IllegalArgumentException( "config-error: replace string cannot be null!" );
+               }
+
+               _sFindStr      = sFindStr;
+               _sReplaceStr   = sReplaceStr;
+            }
+
+            public String getFindString()
+            {
+               return _sFindStr;
+            }
+
+            public String getReplaceString()
+            {
+               return _sReplaceStr;
+            }
+
+            public String toString()
+            {
+               return toXML();
+            }
+
+            public String toXML()
+            {
+               return
+                  XML.Config_ControllerMapping_URLToClassMap_ClassReplace
+                     .toXML( XML.Config_ControllerMapping_URLToClassMap_ClassReplace_Find.toXML( _sFindStr )
+                             + XML.Config_ControllerMapping_URLToClassMap_ClassReplace_Replace.toXML( _sReplaceStr )
+                           );
+            }
+         }
+      }
+
+      /**
+       * Modular configuration container
+       */
+      public static class ErrorToClassMap
+      {
+         private ExceptionPattern   _oExceptionPattern = new ExceptionPattern( "java.lang.Throwable", true );
+         private String             _sClassName;
+         private String             _sClassMethodName;
+
+         public ErrorToClassMap( String sClassName, String sClassMethodName )
+         {
+            if ( sClassName == null )
+            {
+               throw new IllegalArgumentException( "config-error: controller class name cannot be empty" );
+            }
+
+            _sClassName       = sClassName;
+            _sClassMethodName = sClassMethodName;
+         }
+
+         public void setExceptionPattern( String sClassName, boolean bIncludeDerived )
+         {
+            if ( sClassName == null )
+            {
+               throw new IllegalArgumentException( "config-error: exception pattern class name cannot be empty" );
+            }
+
+            _oExceptionPattern = new ExceptionPattern( sClassName, bIncludeDerived );
+         }
+
+         public ExceptionPattern getExceptionPattern()
+         {
+            return _oExceptionPattern;
+         }
+
+         public String getClassName()
+         {
+            return _sClassName;
+         }
+
+         public String getClassMethodName()
+         {
+            return _sClassMethodName;
+         }
+
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            return
+               XML.Config_ControllerMapping_ErrorToClassMap
+                  .toXML( _oExceptionPattern.toXML()
+                          + XML.Config_ControllerMapping_ErrorToClassMap_ClassName.toXML( _sClassName )
+                        );
+         }
+
+         public static class ExceptionPattern
+         {
+            private String    _sClassname;
+            private boolean   _bIncludeDerived;
+
+            public ExceptionPattern( String sClassname, boolean bIncludeDerived )
+            {
+               _sClassname       = sClassname;
+               _bIncludeDerived  = bIncludeDerived;
+            }
+
+            public String getClassName()
+            {
+               return _sClassname;
+            }
+
+            public boolean isIncludeDerived()
+            {
+               return _bIncludeDerived;
+            }
+
+            public String toString()
+            {
+               return toXML();
+            }
+
+            public String toXML()
+            {
+               return
+                  XML.Config_ControllerMapping_ErrorToClassMap_ExceptionPattern
+                     .toXML( XML.Config_ControllerMapping_ErrorToClassMap_ExceptionPattern_ClassName.toXML( _sClassname )
+                             + XML.Config_ControllerMapping_ErrorToClassMap_ExceptionPattern_IncludeDerived.toXML( _bIncludeDerived )
+                           );
+            }
+         }
+      }
+
+      /**
+       * Modular configuration container
+       */
+      public static class ControllerScope
+      {
+         public static final String SINGLETON = "singleton";
+         public static final String POOL      = "pool";
+         public static final String PROTOTYPE = "prototype";
+
+         private Pattern   _oClassPattern;
+         private String    _sScope;
+         private int       _iPoolSize                 = 16;
+         private long      _lPoolWaitTimeoutInMillis  = 10 * 1000;
+
+         private ControllerScope( Pattern oClassPattern, String sScope )
+         {
+            if ( oClassPattern == null )
+            {
+               throw new IllegalArgumentException( "config-error: controller scope class pattern cannot be empty!" );
+            }
+
+            if ( sScope == null )
+            {
+               throw new IllegalArgumentException( "config-error: controller scope cannot be empty!" );
+            }
+
+            sScope = sScope.trim().toLowerCase();
+
+            if ( ! ( sScope.equals( SINGLETON ) || sScope.equals( POOL ) || sScope.equals( PROTOTYPE ) ) )
+            {
+               throw new IllegalArgumentException( "config-error: unknown controller scope: "
+                                                   + sScope
+                                                   + ", expected one of: singleton, pool, prototype" );
+            }
+
+            _oClassPattern = oClassPattern;
+            _sScope        = sScope;
+         }
+
+         public Pattern getClassPattern()
+         {
+            return _oClassPattern;
+         }
+
+         public String getScope()
+         {
+            return _sScope;
+         }
+
+         public boolean isSingleton()
+         {
+            return _sScope.equals( SINGLETON );
+         }
+
+         public boolean isPool()
+         {
+            return _sScope.equals( POOL );
+         }
+
+         public boolean isPrototype()
+         {
+            return _sScope.equals( PROTOTYPE );
+         }
+
+         public int getPoolSize()
+         {
+            return _iPoolSize;
+         }
+
+         /**
+          * Sets the maximum number of controller instances a pool scope controller may have. This
+          * is also the maximum number of requests that may concurrently execute the controller.
+          *
+          * @param iPoolSize the maximum number of instances
+          */
+         public void setPoolSize( int iPoolSize )
+         {
+            if ( iPoolSize < 1 )
+            {
+               throw new IllegalArgumentException( "config-error: controller pool size must be at least 1" );
+            }
+
+            _iPoolSize = iPoolSize;
+         }
+
+         public long getPoolWaitTimeoutInMillis()
+         {
+            return _lPoolWaitTimeoutInMillis;
+         }
+
+         /**
+          * Sets the maximum time a request will wait for an instance when all the instances of a pool
+          * scope controller are in use, after this time the request fails.
+          *
+          * @param lPoolWaitTimeoutInMillis a time in milliseconds
+          */
+         public void setPoolWaitTimeoutInMillis( long lPoolWaitTimeoutInMillis )
+         {
+            _lPoolWaitTimeoutInMillis = lPoolWaitTimeoutInMillis;
+         }
+
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            return
+               XML.Config_ControllerMapping_ControllerScope
+                  .toXML( XML.Config_ControllerMapping_ControllerScope_ClassPattern.toXML( _oClassPattern )
+                          + XML.Config_ControllerMapping_ControllerScope_Scope.toXML( _sScope )
+                          + XML.Config_ControllerMapping_ControllerScope_PoolSize.toXML( _iPoolSize )
+                          + XML.Config_ControllerMapping_ControllerScope_PoolWaitTimeout.toXML( new Long( _lPoolWaitTimeoutInMillis ) )
+                        );
+         }
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class ViewMapping
+   {
+      private List               _oURLToClassMapList        = new ArrayList();
+      private OutputCache        _oOutputCache              = new OutputCache();
+      private RequestCoalescing  _oRequestCoalescing        = new RequestCoalescing();
+
+      public URLToClassMap addURLToClassMap( Pattern oURLPattern, String[] asClassPackages, Pattern oClassPattern )
+      {
+         URLToClassMap oURLToClassMap = new URLToClassMap( oURLPattern, asClassPackages, oClassPattern );
+
+         _oURLToClassMapList.add( oURLToClassMap );
+
+         return oURLToClassMap;
+      }
+
+      public List getURLToClassMapList()
+      {
+         return _oURLToClassMapList;
+      }
+
+      public OutputCache getOutputCache()
+      {
+         return _oOutputCache;
+      }
+
+      public RequestCoalescing getRequestCoalescing()
+      {
+         return _oRequestCoalescing;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         StringBuffer   oBuffer = new StringBuffer();
+
+         oBuffer.append( "\n" );
+         oBuffer.append( XML.Config_ViewMapping.OPEN_IND );
+
+         for ( Iterator oIter = _oURLToClassMapList.iterator(); oIter.hasNext(); )
+         {
+            oBuffer.append ( ( ( URLToClassMap ) oIter.next() ).toXML() );
+         }
+
+         oBuffer.append( _oOutputCache.toXML() );
+         oBuffer.append( _oRequestCoalescing.toXML() );
+
+         oBuffer.append( "\n" );
+         oBuffer.append( XML.Config_ViewMapping.CLOSE_IND );
+
+         return oBuffer.toString();
+      }
+
+      /**
+       * Modular configuration container
+       */
+      public static class URLToClassMap
+      {
+         private String[]  _asClassPackages;
+         private Pattern   _oURLPattern;
+         private Pattern   _oClassPattern;
+         private List      _aoFindReplaceDirectives = new ArrayList();
+
+         private URLToClassMap( Pattern oURLPattern, String[] asClassPackages, Pattern oClassPattern )
+         {
+            validateURLPattern( oURLPattern );
+            validateClassPackages( asClassPackages );
+            validateClassPattern( oClassPattern );
+
+            _oURLPattern      = oURLPattern;
+            _asClassPackages  = asClassPackages;
+            _oClassPattern    = oClassPattern;
+         }
+
+         public Pattern getURLPattern()
+         {
+            return _oURLPattern;
+         }
+
+         public String[] getClassPackages()
+         {
+            return _asClassPackages;
+         }
+
+         public Pattern getClassPattern()
+         {
+            return _oClassPattern;
+         }
+
+         public void addClassFindReplaceDirective( String sFindStr, String sReplaceStr )
+         {
+            _aoFindReplaceDirectives.add( new FindReplaceDirective( sFindStr, sReplaceStr ) );
+         }
+
+         public List getClassFindReplaceDirectives()
+         {
+            return _aoFindReplaceDirectives;
+         }
+
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            StringBuffer   oBuffer = new StringBuffer();
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_ViewMapping_URLToClassMap.OPEN_IND );
+
+            oBuffer.append( XML.Config_ViewMapping_URLToClassMap_URLPattern.toXML( _oURLPattern ) );
+            oBuffer.append( XML.Config_ViewMapping_URLToClassMap_ClassPackages.toXML( Arrays.asList( _asClassPackages ) ) );
+            oBuffer.append( XML.Config_ViewMapping_URLToClassMap_ClassPattern.toXML( _oClassPattern ) );
+
+            for ( Iterator oIter = _aoFindReplaceDirectives.iterator(); oIter.hasNext(); )
+            {
+               oBuffer.append ( ( ( FindReplaceDirective ) oIter.next() ).toXML() );
+            }
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_ViewMapping_URLToClassMap.CLOSE_IND );
+
+            return oBuffer.toString();
+         }
+
+         public static class FindReplaceDirective
+         {
+            private  String   _sFindStr;
+            private  String   _sReplaceStr;
+
+            private FindReplaceDirective( String sFindStr, String sReplaceStr )
+            {
+               if ( sFindStr == null )
+               {
+                  throw new IllegalArgumentException( "config-error: find string cannot be null!" );
+               }
+
+               if ( sReplaceStr == null )
+               {
+                  throw new IllegalArgumentException( "config-error: replace string cannot be null!" );
+               }
+
+               _sFindStr      = sFindStr;
+               _sReplaceStr   = sReplaceStr;
+            }
+
+            public String getFindString()
+            {
+               return _sFindStr;
+            }
+
+            public String getReplaceString()
+            {
+               return _sReplaceStr;
+            }
+
+            public String toString()
+            {
+               return toXML();
+            }
+
+            public String toXML()
+            {
+               return
+                  XML.Config_ViewMapping_URLToClassMap_ClassReplace
+                     .toXML( XML.Config_ViewMapping_URLToClassMap_ClassReplace_Find.toXML( _sFindStr )
+                             + XML.Config_ViewMapping_URLToClassMap_ClassReplace_Replace.toXML( _sReplaceStr )
+                           );
+            }
+         }
+      }
+
+      /**
+       * Modular configuration container
+       */
+      public static class OutputCache
+      {
+         private int       _iMaxMemorySize      = 32 * 1024 * 1024;
+         private File      _oSpillFile          = null;
+         private int       _iSpillFileSize      = 256 * 1024 * 1024;
+         private List      _oCachedURLList      = new ArrayList();
+
+         public int getMaxMemorySize()
+         {
+            return _iMaxMemorySize;
+         }
+
+         /**
+          * Sets the maximum number of bytes of cached output kept in memory, when the limit is reached the least
+          * recently used entries are moved to the spill file (if one is configured) or dropped
+          *
+          * @param iMaxMemorySize a size in bytes
+          */
+         public void setMaxMemorySize( int iMaxMemorySize )
+         {
+            if ( iMaxMemorySize < 0 )
+            {
+               throw new IllegalArgumentException( "config-error: max memory size cannot be negative" );
+            }
+
+            _iMaxMemorySize = iMaxMemorySize;
+         }
+
+         public File getSpillFile()
+         {
+            return _oSpillFile;
+         }
+
+         /**
+          * Sets the local file that is memory mapped to hold entries evicted from memory, by default there is no
+          * spill file and evicted entries are dropped
+          *
+          * @param oSpillFile a file, the file is created if needed and its contents are discarded at startup
+          */
+         public void setSpillFile( File oSpillFile )
+         {
+            _oSpillFile = oSpillFile;
+         }
+
+         public int getSpillFileSize()
+         {
+            return _iSpillFileSize;
+         }
+
+         /**
+          * Sets the size of the spill file
+          *
+          * @param iSpillFileSize a size in bytes
+          */
+         public void setSpillFileSize( int iSpillFileSize )
+         {
+            if ( iSpillFileSize < 1 )
+            {
+               throw new IllegalArgumentException( "config-error: spill file size must be at least 1" );
+            }
+
+            _iSpillFileSize = iSpillFileSize;
+         }
+
+         public CachedURL addCachedURL( Pattern oURLPattern,
+                                        String[] asKeyParameters,
+                                        String[] asKeyHeaders,
+                                        int iTimeToLive,
+                                        int iStaleWhileRevalidate )
+         {
+            CachedURL oCachedURL = new CachedURL( oURLPattern, asKeyParameters, asKeyHeaders, iTimeToLive, iStaleWhileRevalidate );
+
+            _oCachedURLList.add( oCachedURL );
+
+            return oCachedURL;
+         }
+
+         public List getCachedURLList()
+         {
+            return _oCachedURLList;
+         }
+
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            StringBuffer   oBuffer = new StringBuffer();
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_ViewMapping_OutputCache.OPEN_IND );
+
+            oBuffer.append( XML.Config_ViewMapping_OutputCache_MaxMemorySize.toXML( _iMaxMemorySize ) );
+            oBuffer.append( XML.Config_ViewMapping_OutputCache_SpillFile.toXML( _oSpillFile ) );
+            oBuffer.append( XML.Config_ViewMapping_OutputCache_SpillFileSize.toXML( _iSpillFileSize ) );
+
+            for ( Iterator oIter = _oCachedURLList.iterator(); oIter.hasNext(); )
+            {
+               oBuffer.append ( ( ( CachedURL ) oIter.next() ).toXML() );
+            }
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_ViewMapping_OutputCache.CLOSE_IND );
+
+            return oBuffer.toString();
+         }
+
+         /**
+          * Modular configuration container
+          */
+         public static class CachedURL
+         {
+            private Pattern   _oURLPattern;
+            private String[]  _asKeyParameters;
+            private String[]  _asKeyHeaders;
+            private int       _iTimeToLive;
+            private int       _iStaleWhileRevalidate;
+
+            private CachedURL( Pattern oURLPattern,
+                               String[] asKeyParameters,
+                               String[] asKeyHeaders,
+                               int iTimeToLive,
+                               int iStaleWhileRevalidate )
+            {
+               if ( oURLPattern == null )
+               {
+                  throw new IllegalArgumentException( "config-error: URL pattern cannot be null!" );
+               }
+
+               if ( iTimeToLive < 1 )
+               {
+                  throw new IllegalArgumentException( "config-error: time to live must be at least 1 second" );
+               }
+
+               if ( iStaleWhileRevalidate < 0 )
+               {
+                  throw new IllegalArgumentException( "config-error: stale while revalidate cannot be negative" );
+               }
+
+               _oURLPattern            = oURLPattern;
+               _asKeyParameters        = ( asKeyParameters == null ? new String[ 0 ] : asKeyParameters );
+               _asKeyHeaders           = ( asKeyHeaders == null ? new String[ 0 ] : asKeyHeaders );
+               _iTimeToLive            = iTimeToLive;
+               _iStaleWhileRevalidate  = iStaleWhileRevalidate;
+            }
+
+            public Pattern getURLPattern()
+            {
+               return _oURLPattern;
+            }
+
+            public String[] getKeyParameters()
+            {
+               return _asKeyParameters;
+            }
+
+            public String[] getKeyHeaders()
+            {
+               return _asKeyHeaders;
+            }
+
+            public int getTimeToLive()
+            {
+               return _iTimeToLive;
+            }
+
+            public int getStaleWhileRevalidate()
+            {
+               return _iStaleWhileRevalidate;
+            }
+
+            public String toString()
+            {
+               return toXML();
+            }
+
+            public String toXML()
+            {
+               return
+                  XML.Config_ViewMapping_OutputCache_CachedURL
+                     .toXML( XML.Config_ViewMapping_OutputCache_CachedURL_URLPattern.toXML( _oURLPattern )
+                             + XML.Config_ViewMapping_OutputCache_CachedURL_KeyParameters.toXML( Arrays.asList( _asKeyParameters ) )
+                             + XML.Config_ViewMapping_OutputCache_CachedURL_KeyHeaders.toXML( Arrays.asList( _asKeyHeaders ) )
+                             + XML.Config_ViewMapping_OutputCache_CachedURL_TimeToLive.toXML( _iTimeToLive )
+                             + XML.Config_ViewMapping_OutputCache_CachedURL_StaleWhileRevalidate.toXML( _iStaleWhileRevalidate )
+                           );
+            }
+         }
+      }
+
+      /**
+       * Modular configuration container
+       */
+      public static class RequestCoalescing
+      {
+         private int       _iWaitTimeout        = 5000;
+         private List      _oCoalescedURLList   = new ArrayList();
+
+         public int getWaitTimeout()
+         {
+            return _iWaitTimeout;
+         }
+
+         /**
+          * Sets the time a request waits for the output of an identical request that is in progress, a request
+          * that waits longer renders the view itself
+          *
+          * @param iWaitTimeout a time in milliseconds
+          */
+         public void setWaitTimeout( int iWaitTimeout )
+         {
+            if ( iWaitTimeout < 1 )
+            {
+               throw new IllegalArgumentException( "config-error: wait timeout must be at least 1 millisecond" );
+            }
+
+            _iWaitTimeout = iWaitTimeout;
+         }
+
+         public CoalescedURL addCoalescedURL( Pattern  oURLPattern,
+                                              String[] asKeyParameters,
+                                              String[] asKeyHeaders,
+                                              String[] asBypassHeaders,
+                                              String[] asBypassCookies )
+         {
+            CoalescedURL oCoalescedURL = new CoalescedURL( oURLPattern, asKeyParameters, asKeyHeaders, asBypassHeaders, asBypassCookies );
+
+            _oCoalescedURLList.add( oCoalescedURL );
+
+            return oCoalescedURL;
+         }
+
+         public List getCoalescedURLList()
+         {
+            return _oCoalescedURLList;
+         }
+
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            StringBuffer   oBuffer = new StringBuffer();
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_ViewMapping_RequestCoalescing.OPEN_IND );
+
+            oBuffer.append( XML.Config_ViewMapping_RequestCoalescing_WaitTimeout.toXML( _iWaitTimeout ) );
+
+            for ( Iterator oIter = _oCoalescedURLList.iterator(); oIter.hasNext(); )
+            {
+               oBuffer.append ( ( ( CoalescedURL ) oIter.next() ).toXML() );
+            }
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_ViewMapping_RequestCoalescing.CLOSE_IND );
+
+            return oBuffer.toString();
+         }
+
+         /**
+          * Modular configuration container
+          */
+         public static class CoalescedURL
+         {
+            private Pattern   _oURLPattern;
+            private String[]  _asKeyParameters;
+            private String[]  _asKeyHeaders;
+            private String[]  _asBypassHeaders;
+            private String[]  _asBypassCookies;
+
+            private CoalescedURL( Pattern  oURLPattern,
+                                  String[] asKeyParameters,
+                                  String[] asKeyHeaders,
+                                  String[] asBypassHeaders,
+                                  String[] asBypassCookies )
+            {
+               if ( oURLPattern == null )
+               {
+                  throw new IllegalArgumentException( "config-error: URL pattern cannot be null!" );
+               }
+
+               _oURLPattern      = oURLPattern;
+               _asKeyParameters  = ( asKeyParameters == null ? new String[ 0 ] : asKeyParameters );
+               _asKeyHeaders     = ( asKeyHeaders == null ? new String[ 0 ] : asKeyHeaders );
+               // by default a request with credentials is not coalesced, since its output is likely personalized
+               _asBypassHeaders  = ( asBypassHeaders == null ? new String[]{ "Authorization" } : asBypassHeaders );
+               _asBypassCookies  = ( asBypassCookies == null ? new String[ 0 ] : asBypassCookies );
+            }
+
+            public Pattern getURLPattern()
+            {
+               return _oURLPattern;
+            }
+
+            public String[] getKeyParameters()
+            {
+               return _asKeyParameters;
+            }
+
+            public String[] getKeyHeaders()
+            {
+               return _asKeyHeaders;
+            }
+
+            public String[] getBypassHeaders()
+            {
+               return _asBypassHeaders;
+            }
+
+            public String[] getBypassCookies()
+            {
+               return _asBypassCookies;
+            }
+
+            public String toString()
+            {
+               return toXML();
+            }
+
+            public String toXML()
+            {
+               return
+                  XML.Config_ViewMapping_RequestCoalescing_CoalescedURL
+                     .toXML( XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_URLPattern.toXML( _oURLPattern )
+                             + XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_KeyParameters.toXML( Arrays.asList( _asKeyParameters ) )
+                             + XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_KeyHeaders.toXML( Arrays.asList( _asKeyHeaders ) )
+                             + XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_BypassHeaders.toXML( Arrays.asList( _asBypassHeaders ) )
+                             + XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_BypassCookies.toXML( Arrays.asList( _asBypassCookies ) )
+                           );
+            }
+         }
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class RedirectMapping
+   {
+      private List   _oClassToURLMapList = new ArrayList();
+      private String _sURLBase           = "";
+
+      public ClassToURLMap addClassToURLMap( String[] asClassPackages, Pattern oClassPattern, String sURLFormat, String sAlternateURLFormat )
+      {
+         ClassToURLMap oClassToURLMap = new ClassToURLMap( asClassPackages, oClassPattern, sURLFormat, sAlternateURLFormat );
+
+         _oClassToURLMapList.add( oClassToURLMap );
+
+         return oClassToURLMap;
+      }
+
+      public List getClassToURLMapList()
+      {
+         return _oClassToURLMapList;
+      }
+
+      public String getURLBase()
+      {
+         return _sURLBase;
+      }
+
+      public void setURLBase( String sURLBase )
+      {
+         _sURLBase = sURLBase;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         if ( _oClassToURLMapList.size() == 0 && Strings.isEmpty( _sURLBase ) )
+         {
+            return "";
+         }
+
+         StringBuffer   oBuffer = new StringBuffer();
+
+         oBuffer.append( "\n" );
+         oBuffer.append( XML.Config_RedirectMapping.OPEN_IND );
+
+         for ( Iterator oIter = _oClassToURLMapList.iterator(); oIter.hasNext(); )
+         {
+            oBuffer.append ( ( ( ClassToURLMap ) oIter.next() ).toXML() );
+         }
+
+         if ( ! Strings.isEmpty( _sURLBase ) )
+         {
+            oBuffer.append( XML.Config_RedirectMapping_URLBase.toXML( _sURLBase ) );
+         }
+
+         oBuffer.append( "\n" );
+         oBuffer.append( XML.Config_RedirectMapping.CLOSE_IND );
+
+         return oBuffer.toString();
+      }
+
+      /**
+       * Modular configuration container
+       */
+      public static class ClassToURLMap
+      {
+         public static final String    SHORTNAME_LITERAL       = "$Name";
+         public static final String    METHODNAME_LITERAL      = "$Method";
+
+         public static final String    SHORTNAME_SEARCH_REGEX  = "\\$Name";
+         public static final String    METHODNAME_SEARCH_REGEX = "\\$Method";
+
+         private String[]     _asClassPackages;
+         private Pattern      _oClassPattern;
+         private String       _sURLFormat;
+         private String       _sAlternateURLFormat;
+         private List         _aoFindReplaceDirectives = new ArrayList();
+
+         private ClassToURLMap( String[] asClassPackages, Pattern oClassPattern, String sURLFormat, String sAlternateURLFormat )
+         {
+            validateClassPattern( oClassPattern );
+
+            if ( sURLFormat.indexOf( SHORTNAME_LITERAL ) == -1 )
+            {
+               throw new IllegalArgumentException( "config-error: URL format must use: "
+                                                   + SHORTNAME_LITERAL
+                                                   + " may optionally use: "
+                                                   + METHODNAME_LITERAL );
+            }
+
+            // check the optional alternate URL format, if present
+            if ( sAlternateURLFormat != null
+                 && ( sAlternateURLFormat.indexOf( SHORTNAME_LITERAL ) == -1
+                      || sAlternateURLFormat.indexOf( METHODNAME_LITERAL ) == -1 ) )
+            {
+               throw new IllegalArgumentException( "config-error: Alternate URL format must use both: "
+                                                   + SHORTNAME_LITERAL
+                                                   + " and: "
+                                                   + METHODNAME_LITERAL );
+            }
+
+            _asClassPackages     = asClassPackages;
+            _oClassPattern       = oClassPattern;
+            _sURLFormat          = sURLFormat;
+            _sAlternateURLFormat = sAlternateURLFormat;
+         }
+
+         public String[] getClassPackages()
+         {
+            return _asClassPackages;
+         }
+
+         public Pattern getClassPattern()
+         {
+            return _oClassPattern;
+         }
+
+         public String getURLFormat()
+         {
+            return _sURLFormat;
+         }
+
+         public String getAlternateURLFormat()
+         {
+            return _sAlternateURLFormat;
+         }
+
+         public void addClassFindReplaceDirective( String sFindStr, String sReplaceStr )
+         {
+            _aoFindReplaceDirectives.add( new FindReplaceDirective( sFindStr, sReplaceStr ) );
+         }
+
+         public List getClassFindReplaceDirectives()
+         {
+            return _aoFindReplaceDirectives;
+         }
+
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            StringBuffer   oBuffer = new StringBuffer();
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap.OPEN_IND );
+
+            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap_ClassPackages.toXML( _asClassPackages ) );
+            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap_ClassPattern.toXML( _oClassPattern ) );
+            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap_URLFormat.toXML( _sURLFormat ) );
+            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap_URLFormatAlt.toXML( _sAlternateURLFormat ) );
+
+            for ( Iterator oIter = _aoFindReplaceDirectives.iterator(); oIter.hasNext(); )
+            {
+               oBuffer.append ( ( ( FindReplaceDirective ) oIter.next() ).toXML() );
+            }
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_RedirectMapping_ClassToURLMap.CLOSE_IND );
+
+            return oBuffer.toString();
+         }
+
+         public static class FindReplaceDirective
+         {
+            private  String   _sFindStr;
+            private  String   _sReplaceStr;
+
+            private FindReplaceDirective( String sFindStr, String sReplaceStr )
+            {
+               if ( sFindStr == null )
+               {
+                  throw new IllegalArgumentException( "config-error: find string cannot be null!" );
+               }
+
+               if ( sReplaceStr == null )
+               {
+                  throw new IllegalArgumentException( "config-error: replace string cannot be null!" );
+               }
+
+               _sFindStr      = sFindStr;
+               _sReplaceStr   = sReplaceStr;
+            }
+
+            public String getFindString()
+            {
+               return _sFindStr;
+            }
+
+            public String getReplaceString()
+            {
+               return _sReplaceStr;
+            }
+
+            public String toString()
+            {
+               return toXML();
+            }
+
+            public String toXML()
+            {
+               return
+                  XML.Config_RedirectMapping_ClassToURLMap_ClassReplace
+                     .toXML( XML.Config_RedirectMapping_ClassToURLMap_ClassReplace_Find.toXML( _sFindStr )
+                             + XML.Config_RedirectMapping_ClassToURLMap_ClassReplace_Replace.toXML( _sReplaceStr )
+                           );
+            }
+         }
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class RequestInterceptors
+   {
+      private List _oRequestInterceptorList = new ArrayList();
+
+      public void addRequestInterceptor( String sClassname )
+      {
+         _oRequestInterceptorList.add( new RequestInterceptor( sClassname ) );
+      }
+
+      public List getRequestInterceptorList()
+      {
+         return _oRequestInterceptorList;
+      }
+
+      public String toXML()
+      {
+         if ( _oRequestInterceptorList.size() == 0 )
+         {
+            return "";
+         }
+         else
+         {
+            StringBuffer   oBuffer = new StringBuffer();
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_RequestInterceptors.OPEN_IND );
+
+            for ( Iterator oIter = _oRequestInterceptorList.iterator(); oIter.hasNext(); )
+            {
+               RequestInterceptor oRequestInterceptor = ( RequestInterceptor ) oIter.next();
+
+               oBuffer.append ( oRequestInterceptor.toXML() );
+            }
+
+            oBuffer.append( "\n" );
+            oBuffer.append( XML.Config_RequestInterceptors.CLOSE_IND );
+
+            return oBuffer.toString();
+         }
+      }
+
+      public static class RequestInterceptor
+      {
+         private String    _sClassName;
+
+         /**
+          * Creates a new request interceptor
+          *
+          * @param sClassName a fully qualified class name used to intercept an HTTP request
+          */
+         private RequestInterceptor( String sClassName )
+         {
+            _sClassName = sClassName;
+         }
+
+         /**
+          * Returns the name of the class used to intercept an HTTP request
+          *
+          * @return a string representing a fully qualified class name
+          */
+         public String getClassName()
+         {
+            return _sClassName;
+         }
+
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            return
+               XML.Config_RequestInterceptor
+                  .toXML( XML.Config_RequestInterceptor_Class.toXML( _sClassName ) );
+         }
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class ControllerResolver
+   {
+      private String    _sClassName;
+
+      /**
+       * Used to set a fully qualified class name used to resolve a HTTP request to a controller name (and method).
+       * This parameter is usually not set. When not set, a default controller resolver that maps a URL path to
+       * a controller name and method is used.
+       *
+       * @param sClassName a string representing fully qualified classname or null to use the default resolver
+       */
+      public void setClassName( String sClassName )
+      {
+         _sClassName = sClassName;
+      }
+
+      /**
+       * Returns the name of the class used to resolve a HTTP request to a controller name (and method).
+       *
+       * @return a string representing a fully qualified class name
+       */
+      public String getClassName()
+      {
+         return _sClassName;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         return
+            XML.Config_ControllerResolver
+               .toXML( XML.Config_ControllerResolver_Class.toXML( _sClassName ) );
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class ViewResolver
+   {
+      private String    _sClassName;
+
+      /**
+       * Used to set a fully qualified class name used to resolve a HTTP request to a view name (and method).
+       * This parameter is usually not set. When not set, a default view resolver that maps a URL path to
+       * a view name and method is used.
+       *
+       * @param sClassName a string representing fully qualified classname or null to use the default resolver
+       */
+      public void setClassName( String sClassName )
+      {
+         _sClassName = sClassName;
+      }
+
+      /**
+       * Returns the name of the class used to resolve a HTTP request to a view name (and method).
+       *
+       * @return a string representing a fully qualified class name
+       */
+      public String getClassName()
+      {
+         return _sClassName;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         return
+            XML.Config_ViewResolver
+               .toXML( XML.Config_ViewResolver_Class.toXML( _sClassName ) );
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class RedirectResolver
+   {
+      private String    _sClassName;
+
+      /**
+       * Used to set a fully qualified class name used to resolve a redirect request.
+       *
+       * @param sClassName a string representing fully qualified classname or null to use the default resolver
+       */
+      public void setClassName( String sClassName )
+      {
+         _sClassName = sClassName;
+      }
+
+      /**
+       * Returns the name of the class used to resolve a redirect request.
+       *
+       * @return a string representing a fully qualified class name
+       */
+      public String getClassName()
+      {
+         return _sClassName;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         return
+            XML.Config_RedirectResolver
+               .toXML( XML.Config_RedirectResolver_Class.toXML( _sClassName ) );
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class FileUpload
+   {
+      private static final int _1_KB = 1024;
+      private static final int _1_MB = 1024 * 1024;
+
+      private int    _iMaxUploadSizeInBytes              = 10 * _1_MB;  // by default files larger than 10 megabytes are not allowed
+      private int    _iStoreFileOnDiskThresholdInBytes   = 10 * _1_KB;  // by default files larger than 10 kilobytes are stored on disk instead of memory
+      private File   _oUploadedFileStorageDir            = null;
+
+      public void setUploadedFileStorageDir( File oUploadedFileStorageDir )
+      {
+         _oUploadedFileStorageDir = oUploadedFileStorageDir;
+      }
+
+      /**
+       * Returns the path to which uploaded files that are too large to be kept in memory
+       * should be written, if no directory is specified all files are kept in memory
+       *
+       * @return a File object representing a path to which the uploaded files should be saved
+       */
+      public File getUploadedFileStorageDir()
+      {
+         return _oUploadedFileStorageDir;
+      }
+
+      public int getMaxUploadSizeInBytes()
+      {
+         return _iMaxUploadSizeInBytes;
+      }
+
+      /**
+       * Sets the maximum upload file size in bytes will be accepted
+       *
+       * @param iMaxUploadSizeInBytes a file size in bytes
+       */
+      public void setMaxUploadSizeInBytes( int iMaxUploadSizeInBytes )
+      {
+         _iMaxUploadSizeInBytes = iMaxUploadSizeInBytes;
+      }
+
+      public int getStoreOnDiskThresholdInBytes()
+      {
+         return _iStoreFileOnDiskThresholdInBytes;
+      }
+
+      /**
+       * Set a file size in bytes above which the uploaded file will be stored on disk
+       *
+       * @param iStoreOnDiskThresholdInBytes a file size in bytes
+       */
+      public void setStoreOnDiskThresholdInBytes( int iStoreOnDiskThresholdInBytes )
+      {
+         _iStoreFileOnDiskThresholdInBytes = iStoreOnDiskThresholdInBytes;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         return
+            XML.Config_FileUpload
+               .toXML( XML.Config_FileUpload_MaxUploadSize.toXML( _iMaxUploadSizeInBytes )
+                       + XML.Config_FileUpload_StoreFileOnDiskThreshold.toXML( _iStoreFileOnDiskThresholdInBytes )
+                       + XML.Config_FileUpload_UploadedFileStorageDir.toXML( _oUploadedFileStorageDir )
+                     );
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class BufferPool
+   {
+      private int    _iBufferSize            = 32 * 1024;
+      private int    _iMaxPooledBuffers      = 64;
+      private int    _iMaxRetainedSize       = 256 * 1024;   // by default buffers that grew beyond 256K are not pooled
+
+      public int getBufferSize()
+      {
+         return _iBufferSize;
+      }
+
+      /**
+       * Sets the initial size of the buffers used to render views
+       *
+       * @param iBufferSize a size in chars or bytes (depending on the buffer)
+       */
+      public void setBufferSize( int iBufferSize )
+      {
+         if ( iBufferSize < 1 )
+         {
+            throw new IllegalArgumentException( "config-error: buffer size must be at least 1" );
+         }
+
+         _iBufferSize = iBufferSize;
+      }
+
+      public int getMaxPooledBuffers()
+      {
+         return _iMaxPooledBuffers;
+      }
+
+      /**
+       * Sets the maximum number of idle buffers each pool keeps for reuse, a value of 0 turns off pooling
+       *
+       * @param iMaxPooledBuffers a number of buffers
+       */
+      public void setMaxPooledBuffers( int iMaxPooledBuffers )
+      {
+         if ( iMaxPooledBuffers < 0 )
+         {
+            throw new IllegalArgumentException( "config-error: max pooled buffers cannot be negative" );
+         }
+
+         _iMaxPooledBuffers = iMaxPooledBuffers;
+      }
+
+      public int getMaxRetainedSize()
+      {
+         return _iMaxRetainedSize;
+      }
+
+      /**
+       * Sets the size above which a buffer that grew while in use is dropped instead of returned to its pool
+       *
+       * @param iMaxRetainedSize a size in chars or bytes (depending on the buffer)
+       */
+      public void setMaxRetainedSize( int iMaxRetainedSize )
+      {
+         if ( iMaxRetainedSize < 1 )
+         {
+            throw new IllegalArgumentException( "config-error: max retained size must be at least 1" );
+         }
+
+         _iMaxRetainedSize = iMaxRetainedSize;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         return
+            XML.Config_BufferPool
+               .toXML( XML.Config_BufferPool_BufferSize.toXML( _iBufferSize )
+                       + XML.Config_BufferPool_MaxPooledBuffers.toXML( _iMaxPooledBuffers )
+                       + XML.Config_BufferPool_MaxRetainedSize.toXML( _iMaxRetainedSize )
+                     );
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class ConditionalGet
+   {
+      private boolean   _bComputeETags       = false;
+
+      public boolean isComputeETags()
+      {
+         return _bComputeETags;
+      }
+
+      /**
+       * Sets whether an ETag is computed from the output of text, image and (non-streaming) template views that do
+       * not provide a version, so that a repeated request with If-None-Match is answered with a 304 response.
+       * Views that implement com.acciente.induction.view.VersionedView are always answered with a 304 response
+       * when their version or last modified time is unchanged, regardless of this setting.
+       *
+       * @param bComputeETags true to compute ETags from the view output
+       */
+      public void setComputeETags( boolean bComputeETags )
+      {
+         _bComputeETags = bComputeETags;
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         return
+            XML.Config_ConditionalGet
+               .toXML( XML.Config_ConditionalGet_ComputeETags.toXML( _bComputeETags ) );
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class Compression
+   {
+      private boolean   _bEnabled               = false;
+      private int       _iMinSize               = 1024;
+      private int       _iLevel                 = 6;
+      private int       _iMaxPooledDeflaters    = 32;
+      private List      _oMimeTypeList          = new ArrayList( Arrays.asList( new String[]{ "text/html",
+                                                                                               "text/plain",
+                                                                                               "text/css",
+                                                                                               "text/xml",
+                                                                                               "text/javascript",
+                                                                                               "application/javascript",
+                                                                                               "application/json",
+                                                                                               "application/xml",
+                                                                                               "image/svg+xml" } ) );
+
+      public boolean isEnabled()
+      {
+         return _bEnabled;
+      }
+
+      /**
+       * Sets whether view responses are gzip compressed for clients that accept it
+       *
+       * @param bEnabled true to compress view responses
+       */
+      public void setEnabled( boolean bEnabled )
+      {
+         _bEnabled = bEnabled;
+      }
+
+      public int getMinSize()
+      {
+         return _iMinSize;
+      }
+
+      /**
+       * Sets the size below which a response is sent uncompressed, since compressing a small response saves
+       * little and costs a deflater
+       *
+       * @param iMinSize a size in bytes
+       */
+      public void setMinSize( int iMinSize )
+      {
+         if ( iMinSize < 0 )
+         {
+            throw new IllegalArgumentException( "config-error: min size cannot be negative" );
+         }
+
+         _iMinSize = iMinSize;
+      }
+
+      public int getLevel()
+      {
+         return _iLevel;
+      }
+
+      /**
+       * Sets the deflate compression level
+       *
+       * @param iLevel a level from 1 (fastest) to 9 (smallest output)
+       */
+      public void setLevel( int iLevel )
+      {
+         if ( iLevel < 1 || iLevel > 9 )
+         {
+            throw new IllegalArgumentException( "config-error: level must be between 1 and 9" );
+         }
+
+         _iLevel = iLevel;
+      }
+
+      public int getMaxPooledDeflaters()
+      {
+         return _iMaxPooledDeflaters;
+      }
+
+      /**
+       * Sets the maximum number of idle deflaters kept for reuse, a value of 0 turns off pooling
+       *
+       * @param iMaxPooledDeflaters a number of deflaters
+       */
+      public void setMaxPooledDeflaters( int iMaxPooledDeflaters )
+      {
+         if ( iMaxPooledDeflaters < 0 )
+         {
+            throw new IllegalArgumentException( "config-error: max pooled deflaters cannot be negative" );
+         }
+
+         _iMaxPooledDeflaters = iMaxPooledDeflaters;
+      }
+
+      /**
+       * @return the list of mime types (a String, or a String ending in /* to match a major type) that are
+       * compressed
+       */
+      public List getMimeTypeList()
+      {
+         return _oMimeTypeList;
+      }
+
+      /**
+       * Replaces the list of mime types that are compressed
+       *
+       * @param asMimeTypes mime types, a mime type ending in /* matches all the minor types of a major type
+       */
+      public void setMimeTypes( String[] asMimeTypes )
+      {
+         if ( asMimeTypes == null || asMimeTypes.length == 0 )
+         {
+            throw new IllegalArgumentException( "config-error: at least one mime type must be specified" );
+         }
+
+         _oMimeTypeList.clear();
+
+         for ( int i = 0; i < asMimeTypes.length; i++ )
+         {
+            _oMimeTypeList.add( asMimeTypes[ i ].toLowerCase() );
+         }
+      }
+
+      public String toString()
+      {
+         return toXML();
+      }
+
+      public String toXML()
+      {
+         return
+            XML.Config_Compression
+               .toXML( XML.Config_Compression_Enabled.toXML( _bEnabled )
+                       + XML.Config_Compression_MinSize.toXML( _iMinSize )
+                       + XML.Config_Compression_Level.toXML( _iLevel )
+                       + XML.Config_Compression_MaxPooledDeflaters.toXML( _iMaxPooledDeflaters )
+                       + XML.Config_Compression_MimeTypes.toXML( _oMimeTypeList )
+                     );
+      }
+   }
+
+   /**
+    * Modular configuration container
+    */
+   public static class StaticAssets
+   {
+      private String    _sURLPrefix          = "/static";
+      private List      _oRootList           = new ArrayList();
+      private int       _iMaxMemorySize      = 16 * 1024 * 1024;
+      private int       _iMaxAssetSize       = 1024 * 1024;
+      private int       _iMaxAge             = 365 * 24 * 60 * 60;
+      private boolean   _bGzip               = true;
+      private boolean   _bPreload            = false;
+      private boolean   _bWatch              = true;
+
+      /**
+       * @return true if at least one root directory is configured
+       */
+      public boolean isEnabled()
+      {
+         return ! _oRootList.isEmpty();
+      }
+
+      public String getURLPrefix()
+      {
+         return _sURLPrefix;
+      }
+
+      /**
+       * Sets the path prefix of the URLs that are served from the root directories, the prefix is matched
+       * against the servlet path and path info of the request
+       *
+       * @param sURLPrefix a path starting with a /, e.g. /static
+       */
+      public void setURLPrefix( String sURLPrefix )
+      {
+         if ( Strings.isEmpty( sURLPrefix ) || ! sURLPrefix.startsWith( "/" ) )
+         {
+            throw new IllegalArgumentException( "config-error: url prefix must start with a /" );
+         }
+
+         // a trailing / is implied
+         _sURLPrefix = sURLPrefix.endsWith( "/" ) ? sURLPrefix.substring( 0, sURLPrefix.length() - 1 ) : sURLPrefix;
+      }
+
+      /**
+       * Adds a directory to the list of directories from which assets are served, an asset is served from
+       * the first directory that contains it
+       *
+       * @param oDir a File object representing a directory
+       */
+      public void addDir( File oDir )
+      {
+         _oRootList.add( new Dir( oDir ) );
+      }
+
+      /**
+       * Adds a web application path to the list of directories from which assets are served, the path is
+       * mapped to a directory with the servlet context's getRealPath() method
+       *
+       * @param sRelativePath a path of the web application root (the parent of the WEB-INF folder)
+       */
+      public void addWebappPath( String sRelativePath )
+      {
+         _oRootList.add( new WebappPath( sRelativePath ) );
+      }
+
+      /**
+       * @return the list of root directories, each element is a Dir or a WebappPath
+       */
+      public List getRootList()
+      {
+         return _oRootList;
+      }
+
+      public int getMaxMemorySize()
+      {
+         return _iMaxMemorySize;
+      }
+
+      /**
+       * Sets the maximum total size of the assets kept in memory, including their compressed form
+       *
+       * @param iMaxMemorySize a size in bytes
+       */
+      public void setMaxMemorySize( int iMaxMemorySize )
+      {
+         if ( iMaxMemorySize < 0 )
+         {
+            throw new IllegalArgumentException( "config-error: max memory size cannot be negative" );
+         }
+
+         _iMaxMemorySize = iMaxMemorySize;
+      }
+
+      public int getMaxAssetSize()
+      {
+         return _iMaxAssetSize;
+      }
+
+      /**
+       * Sets the size above which an asset is not kept in memory, but sent from its file on every request
+       *
+       * @param iMaxAssetSize a size in bytes
+       */
+      public void setMaxAssetSize( int iMaxAssetSize )
+      {
+         if ( iMaxAssetSize < 0 )
+         {
+            throw new IllegalArgumentException( "config-error: max asset size cannot be negative" );
+         }
+
+         _iMaxAssetSize = iMaxAssetSize;
+      }
+
+      public int getMaxAge()
+      {
+         return _iMaxAge;
+      }
+
+      /**
+       * Sets the max-age sent in the Cache-Control header of an asset requested with a fingerprinted URL
+       *
+       * @param iMaxAge a time in seconds
+       */
+      public void setMaxAge( int iMaxAge )
+      {
+         if ( iMaxAge < 0 )
+         {
+            throw new IllegalArgumentException( "config-error: max age cannot be negative" );
+         }
 
-               _sFindStr      = sFindStr;
-               _sReplaceStr   = sReplaceStr;
-            }
+         _iMaxAge = iMaxAge;
+      }
 
-            public String getFindString()
-            {
-               return _sFindStr;
-            }
+      public boolean isGzip()
+      {
+         return _bGzip;
+      }
 
-            public String getReplaceString()
-            {
-               return _sReplaceStr;
-            }
+      /**
+       * Sets whether assets of the mime types configured for compression are kept gzip compressed as well, so
+       * that clients that accept gzip get the compressed form
+       *
+       * @param bGzip true to keep compressed assets
+       */
+      public void setGzip( boolean bGzip )
+      {
+         _bGzip = bGzip;
+      }
 
-            public String toString()
-            {
-               return toXML();
-            }
+      public boolean isPreload()
+      {
+         return _bPreload;
+      }
 
-            public String toXML()
-            {
-               return
-                  XML.Config_RedirectMapping_ClassToURLMap_ClassReplace
-                     .toXML( XML.Config_RedirectMapping_ClassToURLMap_ClassReplace_Find.toXML( _sFindStr )
-                             + XML.Config_RedirectMapping_ClassToURLMap_ClassReplace_Replace.toXML( _sReplaceStr )
-                           );
-            }
-         }
+      /**
+       * Sets whether all the assets are loaded into memory at startup, instead of when each is first requested
+       *
+       * @param bPreload true to load assets at startup
+       */
+      public void setPreload( boolean bPreload )
+      {
+         _bPreload = bPreload;
       }
-   }
 
-   /**
-    * Modular configuration container
-    */
-   public static class RequestInterceptors
-   {
-      private List _oRequestInterceptorList = new ArrayList();
+      public boolean isWatch()
+      {
+         return _bWatch;
+      }
 
-      public void addRequestInterceptor( String sClassname )
+      /**
+       * Sets whether the root directories are watched for changes, so that a changed asset is reloaded and gets
+       * a new fingerprint
+       *
+       * @param bWatch true to watch the root directories
+       */
+      public void setWatch( boolean bWatch )
       {
-         _oRequestInterceptorList.add( new RequestInterceptor( sClassname ) );
+         _bWatch = bWatch;
       }
 
-      public List getRequestInterceptorList()
+      public String toString()
       {
-         return _oRequestInterceptorList;
+         return toXML();
       }
 
       public String toXML()
       {
-         if ( _oRequestInterceptorList.size() == 0 )
+         if ( _oRootList.isEmpty() )
          {
             return "";
          }
-         else
+
+         StringBuffer oRootBuffer = new StringBuffer();
+
+         for ( Iterator oIter = _oRootList.iterator(); oIter.hasNext(); )
          {
-            StringBuffer   oBuffer = new StringBuffer();
+            oRootBuffer.append( oIter.next().toString() );
+         }
 
-            oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_RequestInterceptors.OPEN_IND );
+         return
+            XML.Config_StaticAssets
+               .toXML( XML.Config_StaticAssets_URLPrefix.toXML( _sURLPrefix )
+                       + oRootBuffer.toString()
+                       + XML.Config_StaticAssets_MaxMemorySize.toXML( _iMaxMemorySize )
+                       + XML.Config_StaticAssets_MaxAssetSize.toXML( _iMaxAssetSize )
+                       + XML.Config_StaticAssets_MaxAge.toXML( _iMaxAge )
+                       + XML.Config_StaticAssets_Gzip.toXML( _bGzip )
+                       + XML.Config_StaticAssets_Preload.toXML( _bPreload )
+                       + XML.Config_StaticAssets_Watch.toXML( _bWatch )
+                     );
+      }
 
-            for ( Iterator oIter = _oRequestInterceptorList.iterator(); oIter.hasNext(); )
-            {
-               RequestInterceptor oRequestInterceptor = ( RequestInterceptor ) oIter.next();
+      /**
+       * Modular configuration container
+       */
+      public static class Dir
+      {
+         private  File     _oDir;
 
-               oBuffer.append ( oRequestInterceptor.toXML() );
-            }
+         private Dir( File oDir )
+         {
+            _oDir = oDir;
+         }
 
-            oBuffer.append( "\n" );
-            oBuffer.append( XML.Config_RequestInterceptors.CLOSE_IND );
+         public File getDir()
+         {
+            return _oDir;
+         }
 
-            return oBuffer.toString();
+         public String toString()
+         {
+            return toXML();
+         }
+
+         public String toXML()
+         {
+            return
+               XML.Config_StaticAssets_Directory.toXML( _oDir );
          }
       }
 
-      public static class RequestInterceptor
+      /**
+       * Modular configuration container
+       */
+      public static class WebappPath
       {
-         private String    _sClassName;
+         private String _sPath;
 
-         /**
-          * Creates a new request interceptor
-          *
-          * @param sClassName a fully qualified class name used to intercept an HTTP request
-          */
-         private RequestInterceptor( String sClassName )
+         private WebappPath( String sPath )
          {
-            _sClassName = sClassName;
+            _sPath = sPath;
          }
 
          /**
-          * Returns the name of the class used to intercept an HTTP request
-          *
-          * @return a string representing a fully qualified class name
+          * This path is relative to the parent of the WEB-INF directory of the web application
+          * @return a string path
           */
-         public String getClassName()
+         public String getPath()
          {
-            return _sClassName;
+            return _sPath;
          }
 
          public String toString()
@@ -1656,8 +3809,7 @@ public class Config
          public String toXML()
          {
             return
-               XML.Config_RequestInterceptor
-                  .toXML( XML.Config_RequestInterceptor_Class.toXML( _sClassName ) );
+               XML.Config_StaticAssets_WebAppPath.toXML( _sPath );
          }
       }
    }
@@ -1665,72 +3817,72 @@ public class Config
    /**
     * Modular configuration container
     */
-   public static class ControllerResolver
+   public static class EventStream
    {
-      private String    _sClassName;
+      private int       _iHeartbeatInterval     = 15;
+      private int       _iMaxQueuedEvents       = 64;
+      private int       _iRetry                 = 0;
 
-      /**
-       * Used to set a fully qualified class name used to resolve a HTTP request to a controller name (and method).
-       * This parameter is usually not set. When not set, a default controller resolver that maps a URL path to
-       * a controller name and method is used.
-       *
-       * @param sClassName a string representing fully qualified classname or null to use the default resolver
-       */
-      public void setClassName( String sClassName )
+      public int getHeartbeatInterval()
       {
-         _sClassName = sClassName;
+         return _iHeartbeatInterval;
       }
 
       /**
-       * Returns the name of the class used to resolve a HTTP request to a controller name (and method).
+       * Sets the interval at which a comment line is sent to a client that received no events, so that
+       * proxies do not close the idle connection and a disconnected client is noticed
        *
-       * @return a string representing a fully qualified class name
+       * @param iHeartbeatInterval an interval in seconds
        */
-      public String getClassName()
+      public void setHeartbeatInterval( int iHeartbeatInterval )
       {
-         return _sClassName;
-      }
+         if ( iHeartbeatInterval < 1 )
+         {
+            throw new IllegalArgumentException( "config-error: heartbeat interval must be at least 1 second" );
+         }
 
-      public String toString()
-      {
-         return toXML();
+         _iHeartbeatInterval = iHeartbeatInterval;
       }
 
-      public String toXML()
+      public int getMaxQueuedEvents()
       {
-         return
-            XML.Config_ControllerResolver
-               .toXML( XML.Config_ControllerResolver_Class.toXML( _sClassName ) );
+         return _iMaxQueuedEvents;
       }
-   }
-
-   /**
-    * Modular configuration container
-    */
-   public static class ViewResolver
-   {
-      private String    _sClassName;
 
       /**
-       * Used to set a fully qualified class name used to resolve a HTTP request to a view name (and method).
-       * This parameter is usually not set. When not set, a default view resolver that maps a URL path to
-       * a view name and method is used.
+       * Sets the number of events that may wait to be sent to a client, a client that falls further behind
+       * is disconnected (it may reconnect)
        *
-       * @param sClassName a string representing fully qualified classname or null to use the default resolver
+       * @param iMaxQueuedEvents a number of events
        */
-      public void setClassName( String sClassName )
+      public void setMaxQueuedEvents( int iMaxQueuedEvents )
       {
-         _sClassName = sClassName;
+         if ( iMaxQueuedEvents < 1 )
+         {
+            throw new IllegalArgumentException( "config-error: max queued events must be at least 1" );
+         }
+
+         _iMaxQueuedEvents = iMaxQueuedEvents;
+      }
+
+      public int getRetry()
+      {
+         return _iRetry;
       }
 
       /**
-       * Returns the name of the class used to resolve a HTTP request to a view name (and method).
+       * Sets the reconnection delay sent to clients when a stream starts
        *
-       * @return a string representing a fully qualified class name
+       * @param iRetry a delay in milliseconds, 0 to leave the delay to the client
        */
-      public String getClassName()
+      public void setRetry( int iRetry )
       {
-         return _sClassName;
+         if ( iRetry < 0 )
+         {
+            throw new IllegalArgumentException( "config-error: retry cannot be negative" );
+         }
+
+         _iRetry = iRetry;
       }
 
       public String toString()
@@ -1741,107 +3893,142 @@ public class Config
       public String toXML()
       {
          return
-            XML.Config_ViewResolver
-               .toXML( XML.Config_ViewResolver_Class.toXML( _sClassName ) );
+            XML.Config_EventStream
+               .toXML( XML.Config_EventStream_HeartbeatInterval.toXML( _iHeartbeatInterval )
+                       + XML.Config_EventStream_MaxQueuedEvents.toXML( _iMaxQueuedEvents )
+                       + XML.Config_EventStream_Retry.toXML( _iRetry )
+                     );
       }
    }
 
    /**
     * Modular configuration container
     */
-   public static class RedirectResolver
+   public static class BatchEndpoint
    {
-      private String    _sClassName;
+      private boolean   _bEnabled               = false;
+      private String    _sPath                  = "/_batch";
+      private int       _iMaxSubRequests        = 30;
+      private int       _iParallelism           = 4;
+      private int       _iMaxThreads            = 64;
+      private int       _iTimeout               = 30000;
+
+      public boolean isEnabled()
+      {
+         return _bEnabled;
+      }
 
       /**
-       * Used to set a fully qualified class name used to resolve a redirect request.
+       * Enables or disables the batch request endpoint
        *
-       * @param sClassName a string representing fully qualified classname or null to use the default resolver
+       * @param bEnabled true to answer batch requests
        */
-      public void setClassName( String sClassName )
+      public void setEnabled( boolean bEnabled )
       {
-         _sClassName = sClassName;
+         _bEnabled = bEnabled;
+      }
+
+      public String getPath()
+      {
+         return _sPath;
       }
 
       /**
-       * Returns the name of the class used to resolve a redirect request.
+       * Sets the path (the part of the request URI after the context path) at which batch requests are
+       * accepted
        *
-       * @return a string representing a fully qualified class name
+       * @param sPath a path that starts with a /
        */
-      public String getClassName()
+      public void setPath( String sPath )
       {
-         return _sClassName;
-      }
+         if ( sPath == null || ! sPath.startsWith( "/" ) )
+         {
+            throw new IllegalArgumentException( "config-error: batch path must start with a /" );
+         }
 
-      public String toString()
-      {
-         return toXML();
+         _sPath = sPath;
       }
 
-      public String toXML()
+      public int getMaxSubRequests()
       {
-         return
-            XML.Config_RedirectResolver
-               .toXML( XML.Config_RedirectResolver_Class.toXML( _sClassName ) );
+         return _iMaxSubRequests;
       }
-   }
 
-   /**
-    * Modular configuration container
-    */
-   public static class FileUpload
-   {
-      private static final int _1_KB = 1024;
-      private static final int _1_MB = 1024 * 1024;
+      /**
+       * Sets the largest number of sub-requests accepted in one batch, a larger batch is rejected
+       *
+       * @param iMaxSubRequests a number of sub-requests
+       */
+      public void setMaxSubRequests( int iMaxSubRequests )
+      {
+         if ( iMaxSubRequests < 1 )
+         {
+            throw new IllegalArgumentException( "config-error: max sub-requests must be at least 1" );
+         }
 
-      private int    _iMaxUploadSizeInBytes              = 10 * _1_MB;  // by default files larger than 10 megabytes are not allowed
-      private int    _iStoreFileOnDiskThresholdInBytes   = 10 * _1_KB;  // by default files larger than 10 kilobytes are stored on disk instead of memory
-      private File   _oUploadedFileStorageDir            = null;
+         _iMaxSubRequests = iMaxSubRequests;
+      }
 
-      public void setUploadedFileStorageDir( File oUploadedFileStorageDir )
+      public int getParallelism()
       {
-         _oUploadedFileStorageDir = oUploadedFileStorageDir;
+         return _iParallelism;
       }
 
       /**
-       * Returns the path to which uploaded files that are too large to be kept in memory
-       * should be written, if no directory is specified all files are kept in memory
+       * Sets the number of sub-requests of one batch that are dispatched at the same time
        *
-       * @return a File object representing a path to which the uploaded files should be saved
+       * @param iParallelism a number of sub-requests, 1 to dispatch the sub-requests one after the other
        */
-      public File getUploadedFileStorageDir()
+      public void setParallelism( int iParallelism )
       {
-         return _oUploadedFileStorageDir;
+         if ( iParallelism < 1 )
+         {
+            throw new IllegalArgumentException( "config-error: batch parallelism must be at least 1" );
+         }
+
+         _iParallelism = iParallelism;
       }
 
-      public int getMaxUploadSizeInBytes()
+      public int getMaxThreads()
       {
-         return _iMaxUploadSizeInBytes;
+         return _iMaxThreads;
       }
 
       /**
-       * Sets the maximum upload file size in bytes will be accepted
+       * Sets the number of threads shared by all batches to dispatch sub-requests, sub-requests wait for
+       * a free thread when all are busy
        *
-       * @param iMaxUploadSizeInBytes a file size in bytes
+       * @param iMaxThreads a number of threads
        */
-      public void setMaxUploadSizeInBytes( int iMaxUploadSizeInBytes )
+      public void setMaxThreads( int iMaxThreads )
       {
-         _iMaxUploadSizeInBytes = iMaxUploadSizeInBytes;
+         if ( iMaxThreads < 1 )
+         {
+            throw new IllegalArgumentException( "config-error: batch max threads must be at least 1" );
+         }
+
+         _iMaxThreads = iMaxThreads;
       }
 
-      public int getStoreOnDiskThresholdInBytes()
+      public int getTimeout()
       {
-         return _iStoreFileOnDiskThresholdInBytes;
+         return _iTimeout;
       }
 
       /**
-       * Set a file size in bytes above which the uploaded file will be stored on disk
+       * Sets the time after which the sub-requests of a batch that were not started yet are answered
+       * with a 504 status
        *
-       * @param iStoreOnDiskThresholdInBytes a file size in bytes
+       * @param iTimeout a time in milliseconds
        */
-      public void setStoreOnDiskThresholdInBytes( int iStoreOnDiskThresholdInBytes )
+      public void setTimeout( int iTimeout )
       {
-         _iStoreFileOnDiskThresholdInBytes = iStoreOnDiskThresholdInBytes;
+         if ( iTimeout < 1 )
+         {
+            throw new IllegalArgumentException( "config-error: batch timeout must be at least 1 millisecond" );
+         }
+
+         _iTimeout = iTimeout;
       }
 
       public String toString()
@@ -1852,10 +4039,13 @@ public class Config
       public String toXML()
       {
          return
-            XML.Config_FileUpload
-               .toXML( XML.Config_FileUpload_MaxUploadSize.toXML( _iMaxUploadSizeInBytes )
-                       + XML.Config_FileUpload_StoreFileOnDiskThreshold.toXML( _iStoreFileOnDiskThresholdInBytes )
-                       + XML.Config_FileUpload_UploadedFileStorageDir.toXML( _oUploadedFileStorageDir )
+            XML.Config_BatchEndpoint
+               .toXML( XML.Config_BatchEndpoint_Enabled.toXML( _bEnabled )
+                       + XML.Config_BatchEndpoint_Path.toXML( _sPath )
+                       + XML.Config_BatchEndpoint_MaxSubRequests.toXML( _iMaxSubRequests )
+                       + XML.Config_BatchEndpoint_Parallelism.toXML( _iParallelism )
+                       + XML.Config_BatchEndpoint_MaxThreads.toXML( _iMaxThreads )
+                       + XML.Config_BatchEndpoint_Timeout.toXML( _iTimeout )
                      );
       }
    }
@@ -41,6 +41,23 @@ public class XML
    public static final XML Config_ModelDefs_ModelDef_FactoryClass                = new XML( "factory-class",      Config_ModelDefs_ModelDef );
    public static final XML Config_ModelDefs_ModelDef_Scope                       = new XML( "scope",              Config_ModelDefs_ModelDef );
    public static final XML Config_ModelDefs_ModelDef_InitOnStartUp               = new XML( "init-on-startup",    Config_ModelDefs_ModelDef );
+   public static final XML Config_ModelDefs_ModelDef_RefreshInterval             = new XML( "refresh-interval",   Config_ModelDefs_ModelDef );
+   public static final XML Config_ModelDefs_ModelDef_CacheKeyParameters          = new XML( "cache-key-parameters", Config_ModelDefs_ModelDef );
+   public static final XML Config_ModelDefs_ModelDef_CacheMaxEntries             = new XML( "cache-max-entries",    Config_ModelDefs_ModelDef );
+   public static final XML Config_ModelDefs_ModelDef_CacheTimeToLive             = new XML( "cache-time-to-live",   Config_ModelDefs_ModelDef );
+   public static final XML Config_ModelDefs_SessionModelStore                    = new XML( "session-model-store",   Config_ModelDefs );
+   public static final XML Config_ModelDefs_SessionModelStore_Class              = new XML( "class",                 Config_ModelDefs_SessionModelStore );
+   public static final XML Config_ModelDefs_SessionModelStore_PassivateAfterIdle = new XML( "passivate-after-idle",  Config_ModelDefs_SessionModelStore );
+   public static final XML Config_ModelDefs_SessionModelStore_PassivationTarget  = new XML( "passivation-target",    Config_ModelDefs_SessionModelStore );
+   public static final XML Config_ModelDefs_SessionModelStore_PassivationDirectory = new XML( "passivation-directory", Config_ModelDefs_SessionModelStore );
+   public static final XML Config_ModelDefs_SessionModelStore_PassivationRegionSize = new XML( "passivation-region-size", Config_ModelDefs_SessionModelStore );
+   public static final XML Config_ModelDefs_SessionModelStore_SweepInterval      = new XML( "sweep-interval",        Config_ModelDefs_SessionModelStore );
+   public static final XML Config_ModelDefs_Prefetch                             = new XML( "prefetch",              Config_ModelDefs );
+   public static final XML Config_ModelDefs_Prefetch_ThreadPoolSize              = new XML( "thread-pool-size",      Config_ModelDefs_Prefetch );
+   public static final XML Config_ModelDefs_Prefetch_Timeout                     = new XML( "timeout",               Config_ModelDefs_Prefetch );
+   public static final XML Config_ModelDefs_BatchLoader                          = new XML( "batch-loader",          Config_ModelDefs );
+   public static final XML Config_ModelDefs_BatchLoader_Name                     = new XML( "name",                  Config_ModelDefs_BatchLoader );
+   public static final XML Config_ModelDefs_BatchLoader_Class                    = new XML( "class",                 Config_ModelDefs_BatchLoader );
 
    public static final XML Config_Templating                                     = new XML( "templating",            Config );
    public static final XML Config_Templating_TemplatePath                        = new XML( "template-path",         Config_Templating );
@@ -53,8 +70,16 @@ public class XML
    public static final XML Config_Templating_Locale_ISOLanguage                  = new XML( "iso-language",          Config_Templating_Locale );
    public static final XML Config_Templating_Locale_ISOCountry                   = new XML( "iso-country",           Config_Templating_Locale );
    public static final XML Config_Templating_ExposePublicFields                  = new XML( "expose-public-fields",  Config_Templating );
+   public static final XML Config_Templating_ObjectWrapper                       = new XML( "object-wrapper",        Config_Templating );
    public static final XML Config_Templating_TemplatingEngine                    = new XML( "templating-engine",     Config_Templating );
    public static final XML Config_Templating_TemplatingEngine_Class              = new XML( "class",                 Config_Templating_TemplatingEngine );
+   public static final XML Config_Templating_Streaming                           = new XML( "streaming",             Config_Templating );
+   public static final XML Config_Templating_Streaming_Enabled                   = new XML( "enabled",               Config_Templating_Streaming );
+   public static final XML Config_Templating_Streaming_BufferSize                = new XML( "buffer-size",           Config_Templating_Streaming );
+   public static final XML Config_Templating_Streaming_ErrorPolicy               = new XML( "error-policy",          Config_Templating_Streaming );
+   public static final XML Config_Templating_FragmentCache                       = new XML( "fragment-cache",        Config_Templating );
+   public static final XML Config_Templating_FragmentCache_Enabled               = new XML( "enabled",               Config_Templating_FragmentCache );
+   public static final XML Config_Templating_FragmentCache_MaxEntries            = new XML( "max-entries",           Config_Templating_FragmentCache );
 
    public static final XML Config_ControllerMapping                                             = new XML( "controller-mapping",          Config );
    public static final XML Config_ControllerMapping_URLToClassMap                               = new XML( "url-to-class-map",            Config_ControllerMapping );
@@ -72,6 +97,11 @@ public class XML
    public static final XML Config_ControllerMapping_ErrorToClassMap_ExceptionPattern_IncludeDerived   = new XML( "include-derived",             Config_ControllerMapping_ErrorToClassMap_ExceptionPattern );
    public static final XML Config_ControllerMapping_ErrorToClassMap_ClassName                         = new XML( "class-name",                  Config_ControllerMapping_ErrorToClassMap );
    public static final XML Config_ControllerMapping_ErrorToClassMap_ClassMethodName                   = new XML( "class-method-name",           Config_ControllerMapping_ErrorToClassMap );
+   public static final XML Config_ControllerMapping_ControllerScope                                   = new XML( "controller-scope",            Config_ControllerMapping );
+   public static final XML Config_ControllerMapping_ControllerScope_ClassPattern                      = new XML( "class-pattern",               Config_ControllerMapping_ControllerScope );
+   public static final XML Config_ControllerMapping_ControllerScope_Scope                             = new XML( "scope",                       Config_ControllerMapping_ControllerScope );
+   public static final XML Config_ControllerMapping_ControllerScope_PoolSize                          = new XML( "pool-size",                   Config_ControllerMapping_ControllerScope );
+   public static final XML Config_ControllerMapping_ControllerScope_PoolWaitTimeout                   = new XML( "pool-wait-timeout",           Config_ControllerMapping_ControllerScope );
 
    public static final XML Config_ViewMapping                                    = new XML( "view-mapping",                Config );
    public static final XML Config_ViewMapping_URLToClassMap                      = new XML( "url-to-class-map",            Config_ViewMapping );
@@ -81,6 +111,24 @@ public class XML
    public static final XML Config_ViewMapping_URLToClassMap_ClassReplace         = new XML( "class-replace",               Config_ViewMapping_URLToClassMap );
    public static final XML Config_ViewMapping_URLToClassMap_ClassReplace_Find    = new XML( "find",                        Config_ViewMapping_URLToClassMap_ClassReplace );
    public static final XML Config_ViewMapping_URLToClassMap_ClassReplace_Replace = new XML( "replace",                     Config_ViewMapping_URLToClassMap_ClassReplace );
+   public static final XML Config_ViewMapping_OutputCache                                    = new XML( "output-cache",             Config_ViewMapping );
+   public static final XML Config_ViewMapping_OutputCache_MaxMemorySize                      = new XML( "max-memory-size",          Config_ViewMapping_OutputCache );
+   public static final XML Config_ViewMapping_OutputCache_SpillFile                          = new XML( "spill-file",               Config_ViewMapping_OutputCache );
+   public static final XML Config_ViewMapping_OutputCache_SpillFileSize                      = new XML( "spill-file-size",          Config_ViewMapping_OutputCache );
+   public static final XML Config_ViewMapping_OutputCache_CachedURL                          = new XML( "cached-url",               Config_ViewMapping_OutputCache );
+   public static final XML Config_ViewMapping_OutputCache_CachedURL_URLPattern               = new XML( "url-pattern",              Config_ViewMapping_OutputCache_CachedURL );
+   public static final XML Config_ViewMapping_OutputCache_CachedURL_KeyParameters            = new XML( "key-parameters",           Config_ViewMapping_OutputCache_CachedURL );
+   public static final XML Config_ViewMapping_OutputCache_CachedURL_KeyHeaders               = new XML( "key-headers",              Config_ViewMapping_OutputCache_CachedURL );
+   public static final XML Config_ViewMapping_OutputCache_CachedURL_TimeToLive               = new XML( "time-to-live",             Config_ViewMapping_OutputCache_CachedURL );
+   public static final XML Config_ViewMapping_OutputCache_CachedURL_StaleWhileRevalidate     = new XML( "stale-while-revalidate",   Config_ViewMapping_OutputCache_CachedURL );
+   public static final XML Config_ViewMapping_RequestCoalescing                              = new XML( "request-coalescing",       Config_ViewMapping );
+   public static final XML Config_ViewMapping_RequestCoalescing_WaitTimeout                  = new XML( "wait-timeout",             Config_ViewMapping_RequestCoalescing );
+   public static final XML Config_ViewMapping_RequestCoalescing_CoalescedURL                 = new XML( "coalesced-url",            Config_ViewMapping_RequestCoalescing );
+   public static final XML Config_ViewMapping_RequestCoalescing_CoalescedURL_URLPattern      = new XML( "url-pattern",              Config_ViewMapping_RequestCoalescing_CoalescedURL );
+   public static final XML Config_ViewMapping_RequestCoalescing_CoalescedURL_KeyParameters   = new XML( "key-parameters",           Config_ViewMapping_RequestCoalescing_CoalescedURL );
+   public static final XML Config_ViewMapping_RequestCoalescing_CoalescedURL_KeyHeaders      = new XML( "key-headers",              Config_ViewMapping_RequestCoalescing_CoalescedURL );
+   public static final XML Config_ViewMapping_RequestCoalescing_CoalescedURL_BypassHeaders   = new XML( "bypass-headers",           Config_ViewMapping_RequestCoalescing_CoalescedURL );
+   public static final XML Config_ViewMapping_RequestCoalescing_CoalescedURL_BypassCookies   = new XML( "bypass-cookies",           Config_ViewMapping_RequestCoalescing_CoalescedURL );
 
    public static final XML Config_RedirectMapping                                   = new XML( "redirect-mapping",            Config );
    public static final XML Config_RedirectMapping_ClassToURLMap                     = new XML( "class-to-url-map",            Config_RedirectMapping );
@@ -111,6 +159,45 @@ public class XML
    public static final XML Config_FileUpload_StoreFileOnDiskThreshold            = new XML( "store-file-on-disk-threshold",   Config_FileUpload );
    public static final XML Config_FileUpload_UploadedFileStorageDir              = new XML( "uploaded-file-storage-dir",      Config_FileUpload );
 
+   public static final XML Config_BufferPool                                     = new XML( "buffer-pool",                    Config );
+   public static final XML Config_BufferPool_BufferSize                          = new XML( "buffer-size",                    Config_BufferPool );
+   public static final XML Config_BufferPool_MaxPooledBuffers                    = new XML( "max-pooled-buffers",             Config_BufferPool );
+   public static final XML Config_BufferPool_MaxRetainedSize                     = new XML( "max-retained-size",              Config_BufferPool );
+
+   public static final XML Config_ConditionalGet                                 = new XML( "conditional-get",                Config );
+   public static final XML Config_ConditionalGet_ComputeETags                    = new XML( "compute-etags",                  Config_ConditionalGet );
+
+   public static final XML Config_Compression                                    = new XML( "compression",                    Config );
+   public static final XML Config_Compression_Enabled                            = new XML( "enabled",                        Config_Compression );
+   public static final XML Config_Compression_MinSize                            = new XML( "min-size",                       Config_Compression );
+   public static final XML Config_Compression_Level                              = new XML( "level",                          Config_Compression );
+   public static final XML Config_Compression_MaxPooledDeflaters                 = new XML( "max-pooled-deflaters",           Config_Compression );
+   public static final XML Config_Compression_MimeTypes                          = new XML( "mime-types",                     Config_Compression );
+
+   public static final XML Config_StaticAssets                                   = new XML( "static-assets",                  Config );
+   public static final XML Config_StaticAssets_URLPrefix                         = new XML( "url-prefix",                     Config_StaticAssets );
+   public static final XML Config_StaticAssets_Directory                         = new XML( "directory",                      Config_StaticAssets );
+   public static final XML Config_StaticAssets_WebAppPath                        = new XML( "web-app-path",                   Config_StaticAssets );
+   public static final XML Config_StaticAssets_MaxMemorySize                     = new XML( "max-memory-size",                Config_StaticAssets );
+   public static final XML Config_StaticAssets_MaxAssetSize                      = new XML( "max-asset-size",                 Config_StaticAssets );
+   public static final XML Config_StaticAssets_MaxAge                            = new XML( "max-age",                        Config_StaticAssets );
+   public static final XML Config_StaticAssets_Gzip                              = new XML( "gzip",                           Config_StaticAssets );
+   public static final XML Config_StaticAssets_Preload                           = new XML( "preload",                        Config_StaticAssets );
+   public static final XML Config_StaticAssets_Watch                             = new XML( "watch",                          Config_StaticAssets );
+
+   public static final XML Config_EventStream                                    = new XML( "event-stream",                   Config );
+   public static final XML Config_EventStream_HeartbeatInterval                  = new XML( "heartbeat-interval",             Config_EventStream );
+   public static final XML Config_EventStream_MaxQueuedEvents                    = new XML( "max-queued-events",              Config_EventStream );
+   public static final XML Config_EventStream_Retry                              = new XML( "retry",                          Config_EventStream );
+
+   public static final XML Config_BatchEndpoint                                  = new XML( "batch-endpoint",                 Config );
+   public static final XML Config_BatchEndpoint_Enabled                          = new XML( "enabled",                        Config_BatchEndpoint );
+   public static final XML Config_BatchEndpoint_Path                             = new XML( "path",                           Config_BatchEndpoint );
+   public static final XML Config_BatchEndpoint_MaxSubRequests                   = new XML( "max-sub-requests",               Config_BatchEndpoint );
+   public static final XML Config_BatchEndpoint_Parallelism                      = new XML( "parallelism",                    Config_BatchEndpoint );
+   public static final XML Config_BatchEndpoint_MaxThreads                       = new XML( "max-threads",                    Config_BatchEndpoint );
+   public static final XML Config_BatchEndpoint_Timeout                          = new XML( "timeout",                        Config_BatchEndpoint );
+
    public final   String   OPEN;
    public final   String   CLOSE;
    public final   String   OPEN_IND;
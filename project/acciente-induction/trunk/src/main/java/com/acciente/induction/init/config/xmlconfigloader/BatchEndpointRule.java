@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.init.config.xmlconfigloader;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.commons.lang.Strings;
+import org.apache.commons.digester.Rule;
+import org.xml.sax.Attributes;
+
+/**
+ * Internal.
+ * BatchEndpointRule
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class BatchEndpointRule extends Rule
+{
+   private  Config.BatchEndpoint _oBatchEndpoint;
+
+   private  Boolean              _oEnabled;
+   private  String               _sPath;
+   private  Integer              _oMaxSubRequests;
+   private  Integer              _oParallelism;
+   private  Integer              _oMaxThreads;
+   private  Integer              _oTimeout;
+
+   public BatchEndpointRule( Config.BatchEndpoint oBatchEndpoint )
+   {
+      _oBatchEndpoint = oBatchEndpoint;
+   }
+
+   public void begin( String sNamespace, String sName, Attributes oAttributes )
+   {
+      _oEnabled            = null;
+      _sPath               = null;
+      _oMaxSubRequests     = null;
+      _oParallelism        = null;
+      _oMaxThreads         = null;
+      _oTimeout            = null;
+   }
+
+   public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+   {
+      try
+      {
+         if ( _oEnabled != null )
+         {
+            _oBatchEndpoint.setEnabled( _oEnabled.booleanValue() );
+         }
+
+         if ( _sPath != null )
+         {
+            _oBatchEndpoint.setPath( _sPath );
+         }
+
+         if ( _oMaxSubRequests != null )
+         {
+            _oBatchEndpoint.setMaxSubRequests( _oMaxSubRequests.intValue() );
+         }
+
+         if ( _oParallelism != null )
+         {
+            _oBatchEndpoint.setParallelism( _oParallelism.intValue() );
+         }
+
+         if ( _oMaxThreads != null )
+         {
+            _oBatchEndpoint.setMaxThreads( _oMaxThreads.intValue() );
+         }
+
+         if ( _oTimeout != null )
+         {
+            _oBatchEndpoint.setTimeout( _oTimeout.intValue() );
+         }
+      }
+      catch ( IllegalArgumentException e )
+      {
+         throw new XMLConfigLoaderException( "config > batch-endpoint: " + e.getMessage() );
+      }
+   }
+
+   public ParamEnabledRule createParamEnabledRule()
+   {
+      return new ParamEnabledRule();
+   }
+
+   public ParamPathRule createParamPathRule()
+   {
+      return new ParamPathRule();
+   }
+
+   public ParamMaxSubRequestsRule createParamMaxSubRequestsRule()
+   {
+      return new ParamMaxSubRequestsRule();
+   }
+
+   public ParamParallelismRule createParamParallelismRule()
+   {
+      return new ParamParallelismRule();
+   }
+
+   public ParamMaxThreadsRule createParamMaxThreadsRule()
+   {
+      return new ParamMaxThreadsRule();
+   }
+
+   public ParamTimeoutRule createParamTimeoutRule()
+   {
+      return new ParamTimeoutRule();
+   }
+
+   private class ParamEnabledRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText )
+      {
+         _oEnabled = Boolean.valueOf( sText.trim() );
+      }
+   }
+
+   private class ParamPathRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > batch-endpoint > path: must specify a path" );
+         }
+         _sPath = sText.trim();
+      }
+   }
+
+   private class ParamMaxSubRequestsRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > batch-endpoint > max-sub-requests: must specify a valid integer value" );
+         }
+         _oMaxSubRequests = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamParallelismRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > batch-endpoint > parallelism: must specify a valid integer value" );
+         }
+         _oParallelism = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamMaxThreadsRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > batch-endpoint > max-threads: must specify a valid integer value" );
+         }
+         _oMaxThreads = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamTimeoutRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > batch-endpoint > timeout: must specify a valid integer value" );
+         }
+         _oTimeout = new Integer( sText.trim() );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
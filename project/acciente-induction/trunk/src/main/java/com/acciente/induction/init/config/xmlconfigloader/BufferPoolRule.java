@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.init.config.xmlconfigloader;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.commons.lang.Strings;
+import org.apache.commons.digester.Rule;
+import org.xml.sax.Attributes;
+
+/**
+ * Internal.
+ * BufferPoolRule
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class BufferPoolRule extends Rule
+{
+   private  Config.BufferPool    _oBufferPool;
+
+   private  Integer              _oBufferSize;
+   private  Integer              _oMaxPooledBuffers;
+   private  Integer              _oMaxRetainedSize;
+
+   public BufferPoolRule( Config.BufferPool oBufferPool )
+   {
+      _oBufferPool = oBufferPool;
+   }
+
+   public void begin( String sNamespace, String sName, Attributes oAttributes )
+   {
+      _oBufferSize         = null;
+      _oMaxPooledBuffers   = null;
+      _oMaxRetainedSize    = null;
+   }
+
+   public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+   {
+      try
+      {
+         if ( _oBufferSize != null )
+         {
+            _oBufferPool.setBufferSize( _oBufferSize.intValue() );
+         }
+
+         if ( _oMaxPooledBuffers != null )
+         {
+            _oBufferPool.setMaxPooledBuffers( _oMaxPooledBuffers.intValue() );
+         }
+
+         if ( _oMaxRetainedSize != null )
+         {
+            _oBufferPool.setMaxRetainedSize( _oMaxRetainedSize.intValue() );
+         }
+      }
+      catch ( IllegalArgumentException e )
+      {
+         throw new XMLConfigLoaderException( "config > buffer-pool: " + e.getMessage() );
+      }
+   }
+
+   public ParamBufferSizeRule createParamBufferSizeRule()
+   {
+      return new ParamBufferSizeRule();
+   }
+
+   public ParamMaxPooledBuffersRule createParamMaxPooledBuffersRule()
+   {
+      return new ParamMaxPooledBuffersRule();
+   }
+
+   public ParamMaxRetainedSizeRule createParamMaxRetainedSizeRule()
+   {
+      return new ParamMaxRetainedSizeRule();
+   }
+
+   private class ParamBufferSizeRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > buffer-pool > buffer-size: must specify a valid integer value" );
+         }
+         _oBufferSize = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamMaxPooledBuffersRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > buffer-pool > max-pooled-buffers: must specify a valid integer value" );
+         }
+         _oMaxPooledBuffers = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamMaxRetainedSizeRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > buffer-pool > max-retained-size: must specify a valid integer value" );
+         }
+         _oMaxRetainedSize = new Integer( sText.trim() );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.init.config.xmlconfigloader;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.commons.lang.Strings;
+import org.apache.commons.digester.Rule;
+import org.xml.sax.Attributes;
+
+/**
+ * Internal.
+ * CompressionRule
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class CompressionRule extends Rule
+{
+   private  Config.Compression   _oCompression;
+
+   private  Boolean              _oEnabled;
+   private  Integer              _oMinSize;
+   private  Integer              _oLevel;
+   private  Integer              _oMaxPooledDeflaters;
+   private  String[]             _asMimeTypes;
+
+   public CompressionRule( Config.Compression oCompression )
+   {
+      _oCompression = oCompression;
+   }
+
+   public void begin( String sNamespace, String sName, Attributes oAttributes )
+   {
+      _oEnabled            = null;
+      _oMinSize            = null;
+      _oLevel              = null;
+      _oMaxPooledDeflaters = null;
+      _asMimeTypes         = null;
+   }
+
+   public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+   {
+      try
+      {
+         if ( _oEnabled != null )
+         {
+            _oCompression.setEnabled( _oEnabled.booleanValue() );
+         }
+
+         if ( _oMinSize != null )
+         {
+            _oCompression.setMinSize( _oMinSize.intValue() );
+         }
+
+         if ( _oLevel != null )
+         {
+            _oCompression.setLevel( _oLevel.intValue() );
+         }
+
+         if ( _oMaxPooledDeflaters != null )
+         {
+            _oCompression.setMaxPooledDeflaters( _oMaxPooledDeflaters.intValue() );
+         }
+
+         if ( _asMimeTypes != null )
+         {
+            _oCompression.setMimeTypes( _asMimeTypes );
+         }
+      }
+      catch ( IllegalArgumentException e )
+      {
+         throw new XMLConfigLoaderException( "config > compression: " + e.getMessage() );
+      }
+   }
+
+   public ParamEnabledRule createParamEnabledRule()
+   {
+      return new ParamEnabledRule();
+   }
+
+   public ParamMinSizeRule createParamMinSizeRule()
+   {
+      return new ParamMinSizeRule();
+   }
+
+   public ParamLevelRule createParamLevelRule()
+   {
+      return new ParamLevelRule();
+   }
+
+   public ParamMaxPooledDeflatersRule createParamMaxPooledDeflatersRule()
+   {
+      return new ParamMaxPooledDeflatersRule();
+   }
+
+   public ParamMimeTypesRule createParamMimeTypesRule()
+   {
+      return new ParamMimeTypesRule();
+   }
+
+   private class ParamEnabledRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText )
+      {
+         _oEnabled = Boolean.valueOf( sText.trim() );
+      }
+   }
+
+   private class ParamMinSizeRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > compression > min-size: must specify a valid integer value" );
+         }
+         _oMinSize = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamLevelRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > compression > level: must specify a valid integer value" );
+         }
+         _oLevel = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamMaxPooledDeflatersRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > compression > max-pooled-deflaters: must specify a valid integer value" );
+         }
+         _oMaxPooledDeflaters = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamMimeTypesRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > compression > mime-types: must specify at least one mime type" );
+         }
+         _asMimeTypes = sText.trim().split( "\\s*[;,]\\s*" );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
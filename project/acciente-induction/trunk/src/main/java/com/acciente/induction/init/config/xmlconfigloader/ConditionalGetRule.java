@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.init.config.xmlconfigloader;
+
+import com.acciente.induction.init.config.Config;
+import org.apache.commons.digester.Rule;
+import org.xml.sax.Attributes;
+
+/**
+ * Internal.
+ * ConditionalGetRule
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ConditionalGetRule extends Rule
+{
+   private  Config.ConditionalGet   _oConditionalGet;
+
+   private  Boolean                 _oComputeETags;
+
+   public ConditionalGetRule( Config.ConditionalGet oConditionalGet )
+   {
+      _oConditionalGet = oConditionalGet;
+   }
+
+   public void begin( String sNamespace, String sName, Attributes oAttributes )
+   {
+      _oComputeETags = null;
+   }
+
+   public void end( String sNamespace, String sName )
+   {
+      if ( _oComputeETags != null )
+      {
+         _oConditionalGet.setComputeETags( _oComputeETags.booleanValue() );
+      }
+   }
+
+   public ParamComputeETagsRule createParamComputeETagsRule()
+   {
+      return new ParamComputeETagsRule();
+   }
+
+   private class ParamComputeETagsRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText )
+      {
+         _oComputeETags = Boolean.valueOf( sText.trim() );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -69,6 +69,11 @@ public class ControllerMappingRule extends Rule
       return new AddErrorToClassMapRule();
    }
 
+   public AddControllerScopeRule createAddControllerScopeRule()
+   {
+      return new AddControllerScopeRule();
+   }
+
    public void begin( String sNamespace, String sName, Attributes oAttributes )
    {
       // reset data stored in rule
@@ -367,4 +372,115 @@ public class ControllerMappingRule extends Rule
          }
       }
    }
+
+   public class AddControllerScopeRule extends Rule
+   {
+      private  Pattern  _oClassPattern;
+      private  String   _sScope;
+      private  Integer  _oPoolSize;
+      private  Long     _oPoolWaitTimeout;
+
+      public void begin( String sNamespace, String sName, Attributes oAttributes )
+      {
+         // reset data stored in rule
+         _oClassPattern    = null;
+         _sScope           = null;
+         _oPoolSize        = null;
+         _oPoolWaitTimeout = null;
+      }
+
+      public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+      {
+         if ( _oClassPattern == null )
+         {
+            throw new XMLConfigLoaderException( "config > controller-mapping > controller-scope > class pattern is a required attribute" );
+         }
+
+         if ( _sScope == null )
+         {
+            throw new XMLConfigLoaderException( "config > controller-mapping > controller-scope > scope is a required attribute" );
+         }
+
+         Config.ControllerMapping.ControllerScope oControllerScope
+            = _oControllerMapping.addControllerScope( _oClassPattern, _sScope );
+
+         if ( _oPoolSize != null )
+         {
+            oControllerScope.setPoolSize( _oPoolSize.intValue() );
+         }
+
+         if ( _oPoolWaitTimeout != null )
+         {
+            oControllerScope.setPoolWaitTimeoutInMillis( _oPoolWaitTimeout.longValue() );
+         }
+      }
+
+      public ParamClassPatternRule createParamClassPatternRule()
+      {
+         return new ParamClassPatternRule();
+      }
+
+      public ParamScopeRule createParamScopeRule()
+      {
+         return new ParamScopeRule();
+      }
+
+      public ParamPoolSizeRule createParamPoolSizeRule()
+      {
+         return new ParamPoolSizeRule();
+      }
+
+      public ParamPoolWaitTimeoutRule createParamPoolWaitTimeoutRule()
+      {
+         return new ParamPoolWaitTimeoutRule();
+      }
+
+      private class ParamClassPatternRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > controller-mapping > controller-scope > class-pattern: must specify a valid regex" );
+            }
+            _oClassPattern = Pattern.compile( sText );
+         }
+      }
+
+      private class ParamScopeRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > controller-mapping > controller-scope > scope: must specify a scope, specify singleton, pool or prototype" );
+            }
+            _sScope = sText;
+         }
+      }
+
+      private class ParamPoolSizeRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > controller-mapping > controller-scope > pool-size: must specify a valid integer value" );
+            }
+            _oPoolSize = new Integer( sText.trim() );
+         }
+      }
+
+      private class ParamPoolWaitTimeoutRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > controller-mapping > controller-scope > pool-wait-timeout: must specify a valid integer value" );
+            }
+            _oPoolWaitTimeout = new Long( sText.trim() );
+         }
+      }
+   }
 }
\ No newline at end of file
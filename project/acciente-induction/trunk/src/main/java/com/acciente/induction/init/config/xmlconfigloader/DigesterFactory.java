@@ -63,11 +63,37 @@ public class DigesterFactory
 
          {
             ModelDefsRule.AddModelDefRule oModelDefsAddModelDefRule = oModelDefsRule.createAddModelDefRule();
-            oDigester.addRule( XML.Config_ModelDefs_ModelDef.PATTERN,               oModelDefsAddModelDefRule );
-            oDigester.addRule( XML.Config_ModelDefs_ModelDef_Class.PATTERN,         oModelDefsAddModelDefRule.createParamClassRule() );
-            oDigester.addRule( XML.Config_ModelDefs_ModelDef_FactoryClass.PATTERN,  oModelDefsAddModelDefRule.createParamFactoryClassRule() );
-            oDigester.addRule( XML.Config_ModelDefs_ModelDef_Scope.PATTERN,         oModelDefsAddModelDefRule.createParamScopeRule() );
-            oDigester.addRule( XML.Config_ModelDefs_ModelDef_InitOnStartUp.PATTERN, oModelDefsAddModelDefRule.createParamInitOnStartUpRule() );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef.PATTERN,                    oModelDefsAddModelDefRule );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef_Class.PATTERN,              oModelDefsAddModelDefRule.createParamClassRule() );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef_FactoryClass.PATTERN,       oModelDefsAddModelDefRule.createParamFactoryClassRule() );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef_Scope.PATTERN,              oModelDefsAddModelDefRule.createParamScopeRule() );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef_InitOnStartUp.PATTERN,      oModelDefsAddModelDefRule.createParamInitOnStartUpRule() );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef_RefreshInterval.PATTERN,    oModelDefsAddModelDefRule.createParamRefreshIntervalRule() );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef_CacheKeyParameters.PATTERN, oModelDefsAddModelDefRule.createParamCacheKeyParametersRule() );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef_CacheMaxEntries.PATTERN,    oModelDefsAddModelDefRule.createParamCacheMaxEntriesRule() );
+            oDigester.addRule( XML.Config_ModelDefs_ModelDef_CacheTimeToLive.PATTERN,    oModelDefsAddModelDefRule.createParamCacheTimeToLiveRule() );
+         }
+         {
+            ModelDefsRule.SessionModelStoreRule oSessionModelStoreRule = oModelDefsRule.createSessionModelStoreRule();
+            oDigester.addRule( XML.Config_ModelDefs_SessionModelStore.PATTERN,                      oSessionModelStoreRule );
+            oDigester.addRule( XML.Config_ModelDefs_SessionModelStore_Class.PATTERN,                oSessionModelStoreRule.createParamClassRule() );
+            oDigester.addRule( XML.Config_ModelDefs_SessionModelStore_PassivateAfterIdle.PATTERN,   oSessionModelStoreRule.createParamPassivateAfterIdleRule() );
+            oDigester.addRule( XML.Config_ModelDefs_SessionModelStore_PassivationTarget.PATTERN,    oSessionModelStoreRule.createParamPassivationTargetRule() );
+            oDigester.addRule( XML.Config_ModelDefs_SessionModelStore_PassivationDirectory.PATTERN, oSessionModelStoreRule.createParamPassivationDirectoryRule() );
+            oDigester.addRule( XML.Config_ModelDefs_SessionModelStore_PassivationRegionSize.PATTERN, oSessionModelStoreRule.createParamPassivationRegionSizeRule() );
+            oDigester.addRule( XML.Config_ModelDefs_SessionModelStore_SweepInterval.PATTERN,        oSessionModelStoreRule.createParamSweepIntervalRule() );
+         }
+         {
+            ModelDefsRule.PrefetchRule oPrefetchRule = oModelDefsRule.createPrefetchRule();
+            oDigester.addRule( XML.Config_ModelDefs_Prefetch.PATTERN,                  oPrefetchRule );
+            oDigester.addRule( XML.Config_ModelDefs_Prefetch_ThreadPoolSize.PATTERN,   oPrefetchRule.createParamThreadPoolSizeRule() );
+            oDigester.addRule( XML.Config_ModelDefs_Prefetch_Timeout.PATTERN,          oPrefetchRule.createParamTimeoutRule() );
+         }
+         {
+            ModelDefsRule.AddBatchLoaderDefRule oAddBatchLoaderDefRule = oModelDefsRule.createAddBatchLoaderDefRule();
+            oDigester.addRule( XML.Config_ModelDefs_BatchLoader.PATTERN,               oAddBatchLoaderDefRule );
+            oDigester.addRule( XML.Config_ModelDefs_BatchLoader_Name.PATTERN,          oAddBatchLoaderDefRule.createParamNameRule() );
+            oDigester.addRule( XML.Config_ModelDefs_BatchLoader_Class.PATTERN,         oAddBatchLoaderDefRule.createParamClassRule() );
          }
       }
 
@@ -90,11 +116,25 @@ public class DigesterFactory
             oDigester.addRule( XML.Config_Templating_Locale_ISOCountry.PATTERN,  oSetLocaleRule.createParamISOCountryRule() );
          }
          oDigester.addRule( XML.Config_Templating_ExposePublicFields.PATTERN,    oTemplatingRule.createExposePublicFieldsRule() );
+         oDigester.addRule( XML.Config_Templating_ObjectWrapper.PATTERN,         oTemplatingRule.createObjectWrapperRule() );
          {
             TemplatingRule.TemplatingEngineRule oTemplatingEngineRule = oTemplatingRule.createTemplatingEngineRule();
             oDigester.addRule( XML.Config_Templating_TemplatingEngine.PATTERN,         oTemplatingEngineRule );
             oDigester.addRule( XML.Config_Templating_TemplatingEngine_Class.PATTERN,   oTemplatingEngineRule.createParamClassRule() );
          }
+         {
+            TemplatingRule.StreamingRule oStreamingRule = oTemplatingRule.createStreamingRule();
+            oDigester.addRule( XML.Config_Templating_Streaming.PATTERN,                oStreamingRule );
+            oDigester.addRule( XML.Config_Templating_Streaming_Enabled.PATTERN,        oStreamingRule.createParamEnabledRule() );
+            oDigester.addRule( XML.Config_Templating_Streaming_BufferSize.PATTERN,     oStreamingRule.createParamBufferSizeRule() );
+            oDigester.addRule( XML.Config_Templating_Streaming_ErrorPolicy.PATTERN,    oStreamingRule.createParamErrorPolicyRule() );
+         }
+         {
+            TemplatingRule.FragmentCacheRule oFragmentCacheRule = oTemplatingRule.createFragmentCacheRule();
+            oDigester.addRule( XML.Config_Templating_FragmentCache.PATTERN,              oFragmentCacheRule );
+            oDigester.addRule( XML.Config_Templating_FragmentCache_Enabled.PATTERN,      oFragmentCacheRule.createParamEnabledRule() );
+            oDigester.addRule( XML.Config_Templating_FragmentCache_MaxEntries.PATTERN,   oFragmentCacheRule.createParamMaxEntriesRule() );
+         }
       }
 
       // controller-mapping config rules
@@ -136,6 +176,16 @@ public class DigesterFactory
                oDigester.addRule( XML.Config_ControllerMapping_ErrorToClassMap_ExceptionPattern_IncludeDerived.PATTERN, oExceptionPatternRule.createParamIncludeDerivedRule() );
             }
          }
+         {
+            ControllerMappingRule.AddControllerScopeRule
+               oAddControllerScopeRule = oControllerMappingRule.createAddControllerScopeRule();
+
+            oDigester.addRule( XML.Config_ControllerMapping_ControllerScope.PATTERN,                  oAddControllerScopeRule );
+            oDigester.addRule( XML.Config_ControllerMapping_ControllerScope_ClassPattern.PATTERN,     oAddControllerScopeRule.createParamClassPatternRule() );
+            oDigester.addRule( XML.Config_ControllerMapping_ControllerScope_Scope.PATTERN,            oAddControllerScopeRule.createParamScopeRule() );
+            oDigester.addRule( XML.Config_ControllerMapping_ControllerScope_PoolSize.PATTERN,         oAddControllerScopeRule.createParamPoolSizeRule() );
+            oDigester.addRule( XML.Config_ControllerMapping_ControllerScope_PoolWaitTimeout.PATTERN,  oAddControllerScopeRule.createParamPoolWaitTimeoutRule() );
+         }
       }
 
       // view-mapping config rules
@@ -156,6 +206,42 @@ public class DigesterFactory
                oDigester.addRule( XML.Config_ViewMapping_URLToClassMap_ClassReplace_Replace.PATTERN,  oAddClassFindReplaceDirectiveRule.createParamReplaceRule() );
             }
          }
+
+         {
+            ViewMappingRule.OutputCacheRule oOutputCacheRule = oViewMappingRule.createOutputCacheRule();
+            oDigester.addRule( XML.Config_ViewMapping_OutputCache.PATTERN,                      oOutputCacheRule );
+            oDigester.addRule( XML.Config_ViewMapping_OutputCache_MaxMemorySize.PATTERN,        oOutputCacheRule.createParamMaxMemorySizeRule() );
+            oDigester.addRule( XML.Config_ViewMapping_OutputCache_SpillFile.PATTERN,            oOutputCacheRule.createParamSpillFileRule() );
+            oDigester.addRule( XML.Config_ViewMapping_OutputCache_SpillFileSize.PATTERN,        oOutputCacheRule.createParamSpillFileSizeRule() );
+            {
+               ViewMappingRule.OutputCacheRule.AddCachedURLRule
+                  oAddCachedURLRule = oOutputCacheRule.createAddCachedURLRule();
+
+               oDigester.addRule( XML.Config_ViewMapping_OutputCache_CachedURL.PATTERN,                       oAddCachedURLRule );
+               oDigester.addRule( XML.Config_ViewMapping_OutputCache_CachedURL_URLPattern.PATTERN,            oAddCachedURLRule.createParamURLPatternRule() );
+               oDigester.addRule( XML.Config_ViewMapping_OutputCache_CachedURL_KeyParameters.PATTERN,         oAddCachedURLRule.createParamKeyParametersRule() );
+               oDigester.addRule( XML.Config_ViewMapping_OutputCache_CachedURL_KeyHeaders.PATTERN,            oAddCachedURLRule.createParamKeyHeadersRule() );
+               oDigester.addRule( XML.Config_ViewMapping_OutputCache_CachedURL_TimeToLive.PATTERN,            oAddCachedURLRule.createParamTimeToLiveRule() );
+               oDigester.addRule( XML.Config_ViewMapping_OutputCache_CachedURL_StaleWhileRevalidate.PATTERN,  oAddCachedURLRule.createParamStaleWhileRevalidateRule() );
+            }
+         }
+
+         {
+            ViewMappingRule.RequestCoalescingRule oRequestCoalescingRule = oViewMappingRule.createRequestCoalescingRule();
+            oDigester.addRule( XML.Config_ViewMapping_RequestCoalescing.PATTERN,                oRequestCoalescingRule );
+            oDigester.addRule( XML.Config_ViewMapping_RequestCoalescing_WaitTimeout.PATTERN,    oRequestCoalescingRule.createParamWaitTimeoutRule() );
+            {
+               ViewMappingRule.RequestCoalescingRule.AddCoalescedURLRule
+                  oAddCoalescedURLRule = oRequestCoalescingRule.createAddCoalescedURLRule();
+
+               oDigester.addRule( XML.Config_ViewMapping_RequestCoalescing_CoalescedURL.PATTERN,                  oAddCoalescedURLRule );
+               oDigester.addRule( XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_URLPattern.PATTERN,       oAddCoalescedURLRule.createParamURLPatternRule() );
+               oDigester.addRule( XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_KeyParameters.PATTERN,    oAddCoalescedURLRule.createParamKeyParametersRule() );
+               oDigester.addRule( XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_KeyHeaders.PATTERN,       oAddCoalescedURLRule.createParamKeyHeadersRule() );
+               oDigester.addRule( XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_BypassHeaders.PATTERN,    oAddCoalescedURLRule.createParamBypassHeadersRule() );
+               oDigester.addRule( XML.Config_ViewMapping_RequestCoalescing_CoalescedURL_BypassCookies.PATTERN,    oAddCoalescedURLRule.createParamBypassCookiesRule() );
+            }
+         }
       }
 
       // redirect-mapping config rules
@@ -223,6 +309,69 @@ public class DigesterFactory
          oDigester.addRule( XML.Config_FileUpload_UploadedFileStorageDir.PATTERN,      oFileUploadRule.createParamUploadedFileStorageDirRule() );
       }
 
+      // buffer-pool config rules
+      {
+         BufferPoolRule oBufferPoolRule = new BufferPoolRule( oConfig.getBufferPool() );
+         oDigester.addRule( XML.Config_BufferPool.PATTERN,                             oBufferPoolRule );
+         oDigester.addRule( XML.Config_BufferPool_BufferSize.PATTERN,                  oBufferPoolRule.createParamBufferSizeRule() );
+         oDigester.addRule( XML.Config_BufferPool_MaxPooledBuffers.PATTERN,            oBufferPoolRule.createParamMaxPooledBuffersRule() );
+         oDigester.addRule( XML.Config_BufferPool_MaxRetainedSize.PATTERN,             oBufferPoolRule.createParamMaxRetainedSizeRule() );
+      }
+
+      // conditional-get config rules
+      {
+         ConditionalGetRule oConditionalGetRule = new ConditionalGetRule( oConfig.getConditionalGet() );
+         oDigester.addRule( XML.Config_ConditionalGet.PATTERN,                         oConditionalGetRule );
+         oDigester.addRule( XML.Config_ConditionalGet_ComputeETags.PATTERN,            oConditionalGetRule.createParamComputeETagsRule() );
+      }
+
+      // compression config rules
+      {
+         CompressionRule oCompressionRule = new CompressionRule( oConfig.getCompression() );
+         oDigester.addRule( XML.Config_Compression.PATTERN,                            oCompressionRule );
+         oDigester.addRule( XML.Config_Compression_Enabled.PATTERN,                    oCompressionRule.createParamEnabledRule() );
+         oDigester.addRule( XML.Config_Compression_MinSize.PATTERN,                    oCompressionRule.createParamMinSizeRule() );
+         oDigester.addRule( XML.Config_Compression_Level.PATTERN,                      oCompressionRule.createParamLevelRule() );
+         oDigester.addRule( XML.Config_Compression_MaxPooledDeflaters.PATTERN,         oCompressionRule.createParamMaxPooledDeflatersRule() );
+         oDigester.addRule( XML.Config_Compression_MimeTypes.PATTERN,                  oCompressionRule.createParamMimeTypesRule() );
+      }
+
+      // static-assets config rules
+      {
+         StaticAssetsRule oStaticAssetsRule = new StaticAssetsRule( oConfig.getStaticAssets() );
+         oDigester.addRule( XML.Config_StaticAssets.PATTERN,                           oStaticAssetsRule );
+         oDigester.addRule( XML.Config_StaticAssets_URLPrefix.PATTERN,                 oStaticAssetsRule.createParamURLPrefixRule() );
+         oDigester.addRule( XML.Config_StaticAssets_Directory.PATTERN,                 oStaticAssetsRule.createAddDirRule() );
+         oDigester.addRule( XML.Config_StaticAssets_WebAppPath.PATTERN,                oStaticAssetsRule.createAddWebAppPathRule() );
+         oDigester.addRule( XML.Config_StaticAssets_MaxMemorySize.PATTERN,             oStaticAssetsRule.createParamMaxMemorySizeRule() );
+         oDigester.addRule( XML.Config_StaticAssets_MaxAssetSize.PATTERN,              oStaticAssetsRule.createParamMaxAssetSizeRule() );
+         oDigester.addRule( XML.Config_StaticAssets_MaxAge.PATTERN,                    oStaticAssetsRule.createParamMaxAgeRule() );
+         oDigester.addRule( XML.Config_StaticAssets_Gzip.PATTERN,                      oStaticAssetsRule.createParamGzipRule() );
+         oDigester.addRule( XML.Config_StaticAssets_Preload.PATTERN,                   oStaticAssetsRule.createParamPreloadRule() );
+         oDigester.addRule( XML.Config_StaticAssets_Watch.PATTERN,                     oStaticAssetsRule.createParamWatchRule() );
+      }
+
+      // event-stream config rules
+      {
+         EventStreamRule oEventStreamRule = new EventStreamRule( oConfig.getEventStream() );
+         oDigester.addRule( XML.Config_EventStream.PATTERN,                            oEventStreamRule );
+         oDigester.addRule( XML.Config_EventStream_HeartbeatInterval.PATTERN,          oEventStreamRule.createParamHeartbeatIntervalRule() );
+         oDigester.addRule( XML.Config_EventStream_MaxQueuedEvents.PATTERN,            oEventStreamRule.createParamMaxQueuedEventsRule() );
+         oDigester.addRule( XML.Config_EventStream_Retry.PATTERN,                      oEventStreamRule.createParamRetryRule() );
+      }
+
+      // batch-endpoint config rules
+      {
+         BatchEndpointRule oBatchEndpointRule = new BatchEndpointRule( oConfig.getBatchEndpoint() );
+         oDigester.addRule( XML.Config_BatchEndpoint.PATTERN,                          oBatchEndpointRule );
+         oDigester.addRule( XML.Config_BatchEndpoint_Enabled.PATTERN,                  oBatchEndpointRule.createParamEnabledRule() );
+         oDigester.addRule( XML.Config_BatchEndpoint_Path.PATTERN,                     oBatchEndpointRule.createParamPathRule() );
+         oDigester.addRule( XML.Config_BatchEndpoint_MaxSubRequests.PATTERN,           oBatchEndpointRule.createParamMaxSubRequestsRule() );
+         oDigester.addRule( XML.Config_BatchEndpoint_Parallelism.PATTERN,              oBatchEndpointRule.createParamParallelismRule() );
+         oDigester.addRule( XML.Config_BatchEndpoint_MaxThreads.PATTERN,               oBatchEndpointRule.createParamMaxThreadsRule() );
+         oDigester.addRule( XML.Config_BatchEndpoint_Timeout.PATTERN,                  oBatchEndpointRule.createParamTimeoutRule() );
+      }
+
       return oDigester;
    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.init.config.xmlconfigloader;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.commons.lang.Strings;
+import org.apache.commons.digester.Rule;
+import org.xml.sax.Attributes;
+
+/**
+ * Internal.
+ * EventStreamRule
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class EventStreamRule extends Rule
+{
+   private  Config.EventStream   _oEventStream;
+
+   private  Integer              _oHeartbeatInterval;
+   private  Integer              _oMaxQueuedEvents;
+   private  Integer              _oRetry;
+
+   public EventStreamRule( Config.EventStream oEventStream )
+   {
+      _oEventStream = oEventStream;
+   }
+
+   public void begin( String sNamespace, String sName, Attributes oAttributes )
+   {
+      _oHeartbeatInterval  = null;
+      _oMaxQueuedEvents    = null;
+      _oRetry              = null;
+   }
+
+   public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+   {
+      try
+      {
+         if ( _oHeartbeatInterval != null )
+         {
+            _oEventStream.setHeartbeatInterval( _oHeartbeatInterval.intValue() );
+         }
+
+         if ( _oMaxQueuedEvents != null )
+         {
+            _oEventStream.setMaxQueuedEvents( _oMaxQueuedEvents.intValue() );
+         }
+
+         if ( _oRetry != null )
+         {
+            _oEventStream.setRetry( _oRetry.intValue() );
+         }
+      }
+      catch ( IllegalArgumentException e )
+      {
+         throw new XMLConfigLoaderException( "config > event-stream: " + e.getMessage() );
+      }
+   }
+
+   public ParamHeartbeatIntervalRule createParamHeartbeatIntervalRule()
+   {
+      return new ParamHeartbeatIntervalRule();
+   }
+
+   public ParamMaxQueuedEventsRule createParamMaxQueuedEventsRule()
+   {
+      return new ParamMaxQueuedEventsRule();
+   }
+
+   public ParamRetryRule createParamRetryRule()
+   {
+      return new ParamRetryRule();
+   }
+
+   private class ParamHeartbeatIntervalRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > event-stream > heartbeat-interval: must specify a valid integer value" );
+         }
+         _oHeartbeatInterval = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamMaxQueuedEventsRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > event-stream > max-queued-events: must specify a valid integer value" );
+         }
+         _oMaxQueuedEvents = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamRetryRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > event-stream > retry: must specify a valid integer value" );
+         }
+         _oRetry = new Integer( sText.trim() );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -22,6 +22,8 @@ import com.acciente.induction.init.config.Config;
 import org.apache.commons.digester.Rule;
 import org.xml.sax.Attributes;
 
+import java.io.File;
+
 /**
  * Internal.
  * ModelDefsRule
@@ -44,6 +46,21 @@ public class ModelDefsRule extends Rule
       return new AddModelDefRule();
    }
 
+   public SessionModelStoreRule createSessionModelStoreRule()
+   {
+      return new SessionModelStoreRule();
+   }
+
+   public PrefetchRule createPrefetchRule()
+   {
+      return new PrefetchRule();
+   }
+
+   public AddBatchLoaderDefRule createAddBatchLoaderDefRule()
+   {
+      return new AddBatchLoaderDefRule();
+   }
+
    public class AddModelDefRule extends Rule
    {
       private String       _sModelClassName;
@@ -52,7 +69,12 @@ public class ModelDefsRule extends Rule
       private boolean      _bIsApplicationScope;
       private boolean      _bIsSessionScope;
       private boolean      _bIsRequestScope;
+      private boolean      _bIsCacheScope;
       private boolean      _bIsInitOnStartUp;
+      private int          _iRefreshInterval;
+      private String[]     _asCacheKeyParameters;
+      private Integer      _oCacheMaxEntries;
+      private Integer      _oCacheTimeToLive;
 
       public void begin( String sNamespace, String sName, Attributes oAttributes )
       {
@@ -63,7 +85,12 @@ public class ModelDefsRule extends Rule
          _bIsApplicationScope    = false;
          _bIsSessionScope        = false;
          _bIsRequestScope        = false;
+         _bIsCacheScope          = false;
          _bIsInitOnStartUp       = false;
+         _iRefreshInterval       = 0;
+         _asCacheKeyParameters   = null;
+         _oCacheMaxEntries       = null;
+         _oCacheTimeToLive       = null;
       }
 
       public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
@@ -72,18 +99,53 @@ public class ModelDefsRule extends Rule
          {
             throw new XMLConfigLoaderException( "config > modeldefs > model: class is a required attribute" );
          }
-         if ( ! ( _bIsStaticScope || _bIsApplicationScope || _bIsSessionScope || _bIsRequestScope ) )
+         if ( ! ( _bIsStaticScope || _bIsApplicationScope || _bIsSessionScope || _bIsRequestScope || _bIsCacheScope ) )
          {
             throw new XMLConfigLoaderException( "config > modeldefs > model: scope is a required attribute" );
          }
 
+         Config.ModelDefs.CacheSettings oCacheSettings = null;
+
+         if ( _asCacheKeyParameters != null || _oCacheMaxEntries != null || _oCacheTimeToLive != null )
+         {
+            if ( ! _bIsCacheScope )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > model: cache settings are only allowed for cache scope, model class: " + _sModelClassName );
+            }
+
+            oCacheSettings = new Config.ModelDefs.CacheSettings();
+
+            try
+            {
+               if ( _asCacheKeyParameters != null )
+               {
+                  oCacheSettings.setKeyParameterNames( _asCacheKeyParameters );
+               }
+               if ( _oCacheMaxEntries != null )
+               {
+                  oCacheSettings.setMaxEntries( _oCacheMaxEntries.intValue() );
+               }
+               if ( _oCacheTimeToLive != null )
+               {
+                  oCacheSettings.setTimeToLiveInSeconds( _oCacheTimeToLive.intValue() );
+               }
+            }
+            catch ( IllegalArgumentException e )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > model: " + e.getMessage() + ", model class: " + _sModelClassName );
+            }
+         }
+
          _oModelDefs.addModelDef( _sModelClassName,
                                   _sModelFactoryClassName,
                                   _bIsStaticScope,
                                   _bIsApplicationScope,
                                   _bIsSessionScope,
                                   _bIsRequestScope,
-                                  _bIsInitOnStartUp );
+                                  _bIsCacheScope,
+                                  _bIsInitOnStartUp,
+                                  _iRefreshInterval,
+                                  oCacheSettings );
       }
 
       public ParamClassRule createParamClassRule()
@@ -106,6 +168,26 @@ public class ModelDefsRule extends Rule
          return new ParamInitOnStartUpRule();
       }
 
+      public ParamRefreshIntervalRule createParamRefreshIntervalRule()
+      {
+         return new ParamRefreshIntervalRule();
+      }
+
+      public ParamCacheKeyParametersRule createParamCacheKeyParametersRule()
+      {
+         return new ParamCacheKeyParametersRule();
+      }
+
+      public ParamCacheMaxEntriesRule createParamCacheMaxEntriesRule()
+      {
+         return new ParamCacheMaxEntriesRule();
+      }
+
+      public ParamCacheTimeToLiveRule createParamCacheTimeToLiveRule()
+      {
+         return new ParamCacheTimeToLiveRule();
+      }
+
       private class ParamClassRule extends Rule
       {
          public void body( String sNamespace, String sName, String sText )
@@ -144,6 +226,10 @@ public class ModelDefsRule extends Rule
             {
                _bIsRequestScope     = true;
             }
+            else if ( "cache".equalsIgnoreCase( sText ) )
+            {
+               _bIsCacheScope       = true;
+            }
             else
             {
                throw new XMLConfigLoaderException( "modeldefs config: unrecognized scope: " + sText + " for model class: " + _sModelClassName );
@@ -171,6 +257,336 @@ public class ModelDefsRule extends Rule
             }
          }
       }
+
+      private class ParamRefreshIntervalRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > model > refresh-interval: must specify a valid integer value" );
+            }
+            _iRefreshInterval = Integer.parseInt( sText.trim() );
+         }
+      }
+
+      private class ParamCacheKeyParametersRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > model > cache-key-parameters: must specify one or more parameter names" );
+            }
+            _asCacheKeyParameters = sText.trim().split( "\\s*[;,]\\s*" );
+         }
+      }
+
+      private class ParamCacheMaxEntriesRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > model > cache-max-entries: must specify a valid integer value" );
+            }
+            _oCacheMaxEntries = new Integer( sText.trim() );
+         }
+      }
+
+      private class ParamCacheTimeToLiveRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > model > cache-time-to-live: must specify a valid integer value" );
+            }
+            _oCacheTimeToLive = new Integer( sText.trim() );
+         }
+      }
+   }
+
+   public class SessionModelStoreRule extends Rule
+   {
+      private String    _sClassName;
+      private Integer   _oPassivateAfterIdle;
+      private String    _sPassivationTarget;
+      private File      _oPassivationDirectory;
+      private Integer   _oPassivationRegionSize;
+      private Integer   _oSweepInterval;
+
+      public void begin( String sNamespace, String sName, Attributes oAttributes )
+      {
+         // reset data stored in rule
+         _sClassName             = null;
+         _oPassivateAfterIdle    = null;
+         _sPassivationTarget     = null;
+         _oPassivationDirectory  = null;
+         _oPassivationRegionSize = null;
+         _oSweepInterval         = null;
+      }
+
+      public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+      {
+         Config.ModelDefs.SessionModelStore oSessionModelStore = _oModelDefs.getSessionModelStore();
+
+         try
+         {
+            if ( ! Strings.isEmpty( _sClassName ) )
+            {
+               oSessionModelStore.setClassName( _sClassName.trim() );
+            }
+            if ( _oPassivateAfterIdle != null )
+            {
+               oSessionModelStore.setPassivateAfterIdleInSeconds( _oPassivateAfterIdle.intValue() );
+            }
+            if ( _sPassivationTarget != null )
+            {
+               oSessionModelStore.setPassivationTarget( _sPassivationTarget );
+            }
+            if ( _oPassivationDirectory != null )
+            {
+               oSessionModelStore.setPassivationDirectory( _oPassivationDirectory );
+            }
+            if ( _oPassivationRegionSize != null )
+            {
+               oSessionModelStore.setPassivationRegionSizeInMB( _oPassivationRegionSize.intValue() );
+            }
+            if ( _oSweepInterval != null )
+            {
+               oSessionModelStore.setSweepIntervalInSeconds( _oSweepInterval.intValue() );
+            }
+         }
+         catch ( IllegalArgumentException e )
+         {
+            throw new XMLConfigLoaderException( "config > modeldefs > session-model-store: " + e.getMessage() );
+         }
+      }
+
+      public ParamClassRule createParamClassRule()
+      {
+         return new ParamClassRule();
+      }
+
+      public ParamPassivateAfterIdleRule createParamPassivateAfterIdleRule()
+      {
+         return new ParamPassivateAfterIdleRule();
+      }
+
+      public ParamPassivationTargetRule createParamPassivationTargetRule()
+      {
+         return new ParamPassivationTargetRule();
+      }
+
+      public ParamPassivationDirectoryRule createParamPassivationDirectoryRule()
+      {
+         return new ParamPassivationDirectoryRule();
+      }
+
+      public ParamPassivationRegionSizeRule createParamPassivationRegionSizeRule()
+      {
+         return new ParamPassivationRegionSizeRule();
+      }
+
+      public ParamSweepIntervalRule createParamSweepIntervalRule()
+      {
+         return new ParamSweepIntervalRule();
+      }
+
+      private class ParamClassRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText )
+         {
+            _sClassName = sText;
+         }
+      }
+
+      private class ParamPassivateAfterIdleRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > session-model-store > passivate-after-idle: must specify a valid integer value" );
+            }
+            _oPassivateAfterIdle = new Integer( sText.trim() );
+         }
+      }
+
+      private class ParamPassivationTargetRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > session-model-store > passivation-target: must specify off-heap or file" );
+            }
+            _sPassivationTarget = sText;
+         }
+      }
+
+      private class ParamPassivationDirectoryRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > session-model-store > passivation-directory: must specify a directory name" );
+            }
+            _oPassivationDirectory = new File( sText.trim() );
+         }
+      }
+
+      private class ParamPassivationRegionSizeRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > session-model-store > passivation-region-size: must specify a valid integer value" );
+            }
+            _oPassivationRegionSize = new Integer( sText.trim() );
+         }
+      }
+
+      private class ParamSweepIntervalRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > session-model-store > sweep-interval: must specify a valid integer value" );
+            }
+            _oSweepInterval = new Integer( sText.trim() );
+         }
+      }
+   }
+
+   public class PrefetchRule extends Rule
+   {
+      private Integer   _oThreadPoolSize;
+      private Long      _oTimeout;
+
+      public void begin( String sNamespace, String sName, Attributes oAttributes )
+      {
+         // reset data stored in rule
+         _oThreadPoolSize  = null;
+         _oTimeout         = null;
+      }
+
+      public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+      {
+         try
+         {
+            if ( _oThreadPoolSize != null )
+            {
+               _oModelDefs.getPrefetch().setThreadPoolSize( _oThreadPoolSize.intValue() );
+            }
+            if ( _oTimeout != null )
+            {
+               _oModelDefs.getPrefetch().setTimeoutInMillis( _oTimeout.longValue() );
+            }
+         }
+         catch ( IllegalArgumentException e )
+         {
+            throw new XMLConfigLoaderException( "config > modeldefs > prefetch: " + e.getMessage() );
+         }
+      }
+
+      public ParamThreadPoolSizeRule createParamThreadPoolSizeRule()
+      {
+         return new ParamThreadPoolSizeRule();
+      }
+
+      public ParamTimeoutRule createParamTimeoutRule()
+      {
+         return new ParamTimeoutRule();
+      }
+
+      private class ParamThreadPoolSizeRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > prefetch > thread-pool-size: must specify a valid integer value" );
+            }
+            _oThreadPoolSize = new Integer( sText.trim() );
+         }
+      }
+
+      private class ParamTimeoutRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > modeldefs > prefetch > timeout: must specify a valid integer value" );
+            }
+            _oTimeout = new Long( sText.trim() );
+         }
+      }
+   }
+
+   public class AddBatchLoaderDefRule extends Rule
+   {
+      private String    _sName;
+      private String    _sClassName;
+
+      public void begin( String sNamespace, String sName, Attributes oAttributes )
+      {
+         // reset data stored in rule
+         _sName      = null;
+         _sClassName = null;
+      }
+
+      public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( _sName ) )
+         {
+            throw new XMLConfigLoaderException( "config > modeldefs > batch-loader: name is a required attribute" );
+         }
+         if ( Strings.isEmpty( _sClassName ) )
+         {
+            throw new XMLConfigLoaderException( "config > modeldefs > batch-loader: class is a required attribute" );
+         }
+
+         try
+         {
+            _oModelDefs.addBatchLoaderDef( _sName, _sClassName );
+         }
+         catch ( IllegalArgumentException e )
+         {
+            throw new XMLConfigLoaderException( "config > modeldefs > batch-loader: " + e.getMessage() );
+         }
+      }
+
+      public ParamNameRule createParamNameRule()
+      {
+         return new ParamNameRule();
+      }
+
+      public ParamClassRule createParamClassRule()
+      {
+         return new ParamClassRule();
+      }
+
+      private class ParamNameRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText )
+         {
+            _sName = sText;
+         }
+      }
+
+      private class ParamClassRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText )
+         {
+            _sClassName = sText;
+         }
+      }
    }
 }
 
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.init.config.xmlconfigloader;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.commons.lang.Strings;
+import org.apache.commons.digester.Rule;
+import org.xml.sax.Attributes;
+
+import java.io.File;
+
+/**
+ * Internal.
+ * StaticAssetsRule
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class StaticAssetsRule extends Rule
+{
+   private  Config.StaticAssets  _oStaticAssets;
+
+   private  String               _sURLPrefix;
+   private  Integer              _oMaxMemorySize;
+   private  Integer              _oMaxAssetSize;
+   private  Integer              _oMaxAge;
+   private  Boolean              _oGzip;
+   private  Boolean              _oPreload;
+   private  Boolean              _oWatch;
+
+   public StaticAssetsRule( Config.StaticAssets oStaticAssets )
+   {
+      _oStaticAssets = oStaticAssets;
+   }
+
+   public void begin( String sNamespace, String sName, Attributes oAttributes )
+   {
+      _sURLPrefix       = null;
+      _oMaxMemorySize   = null;
+      _oMaxAssetSize    = null;
+      _oMaxAge          = null;
+      _oGzip            = null;
+      _oPreload         = null;
+      _oWatch           = null;
+   }
+
+   public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+   {
+      try
+      {
+         if ( _sURLPrefix != null )
+         {
+            _oStaticAssets.setURLPrefix( _sURLPrefix );
+         }
+
+         if ( _oMaxMemorySize != null )
+         {
+            _oStaticAssets.setMaxMemorySize( _oMaxMemorySize.intValue() );
+         }
+
+         if ( _oMaxAssetSize != null )
+         {
+            _oStaticAssets.setMaxAssetSize( _oMaxAssetSize.intValue() );
+         }
+
+         if ( _oMaxAge != null )
+         {
+            _oStaticAssets.setMaxAge( _oMaxAge.intValue() );
+         }
+
+         if ( _oGzip != null )
+         {
+            _oStaticAssets.setGzip( _oGzip.booleanValue() );
+         }
+
+         if ( _oPreload != null )
+         {
+            _oStaticAssets.setPreload( _oPreload.booleanValue() );
+         }
+
+         if ( _oWatch != null )
+         {
+            _oStaticAssets.setWatch( _oWatch.booleanValue() );
+         }
+      }
+      catch ( IllegalArgumentException e )
+      {
+         throw new XMLConfigLoaderException( "config > static-assets: " + e.getMessage() );
+      }
+   }
+
+   public ParamURLPrefixRule createParamURLPrefixRule()
+   {
+      return new ParamURLPrefixRule();
+   }
+
+   public AddDirRule createAddDirRule()
+   {
+      return new AddDirRule();
+   }
+
+   public AddWebAppPathRule createAddWebAppPathRule()
+   {
+      return new AddWebAppPathRule();
+   }
+
+   public ParamMaxMemorySizeRule createParamMaxMemorySizeRule()
+   {
+      return new ParamMaxMemorySizeRule();
+   }
+
+   public ParamMaxAssetSizeRule createParamMaxAssetSizeRule()
+   {
+      return new ParamMaxAssetSizeRule();
+   }
+
+   public ParamMaxAgeRule createParamMaxAgeRule()
+   {
+      return new ParamMaxAgeRule();
+   }
+
+   public ParamGzipRule createParamGzipRule()
+   {
+      return new ParamGzipRule();
+   }
+
+   public ParamPreloadRule createParamPreloadRule()
+   {
+      return new ParamPreloadRule();
+   }
+
+   public ParamWatchRule createParamWatchRule()
+   {
+      return new ParamWatchRule();
+   }
+
+   private class ParamURLPrefixRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText )
+      {
+         _sURLPrefix = sText.trim();
+      }
+   }
+
+   private class AddDirRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > static-assets > directory: directory cannot be empty" );
+         }
+         _oStaticAssets.addDir( new File( sText.trim() ) );
+      }
+   }
+
+   private class AddWebAppPathRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > static-assets > web-app-path: must specify a path" );
+         }
+         _oStaticAssets.addWebappPath( sText.trim() );
+      }
+   }
+
+   private class ParamMaxMemorySizeRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > static-assets > max-memory-size: must specify a valid integer value" );
+         }
+         _oMaxMemorySize = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamMaxAssetSizeRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > static-assets > max-asset-size: must specify a valid integer value" );
+         }
+         _oMaxAssetSize = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamMaxAgeRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > static-assets > max-age: must specify a valid integer value" );
+         }
+         _oMaxAge = new Integer( sText.trim() );
+      }
+   }
+
+   private class ParamGzipRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText )
+      {
+         _oGzip = Boolean.valueOf( sText.trim() );
+      }
+   }
+
+   private class ParamPreloadRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText )
+      {
+         _oPreload = Boolean.valueOf( sText.trim() );
+      }
+   }
+
+   private class ParamWatchRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText )
+      {
+         _oWatch = Boolean.valueOf( sText.trim() );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -50,6 +50,11 @@ public class TemplatingRule
       return new ExposePublicFieldsRule();
    }
 
+   public ObjectWrapperRule createObjectWrapperRule()
+   {
+      return new ObjectWrapperRule();
+   }
+
    public TemplatePathAddDirRule createTemplatePathAddDirRule()
    {
       return new TemplatePathAddDirRule();
@@ -75,6 +80,16 @@ public class TemplatingRule
       return new TemplatingEngineRule();
    }
 
+   public StreamingRule createStreamingRule()
+   {
+      return new StreamingRule();
+   }
+
+   public FragmentCacheRule createFragmentCacheRule()
+   {
+      return new FragmentCacheRule();
+   }
+
    /**
     * TemplatePathAddDirRule
     */
@@ -86,6 +101,21 @@ public class TemplatingRule
       }
    }
 
+   /**
+    * ObjectWrapperRule
+    */
+   private class ObjectWrapperRule extends Rule
+   {
+      public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+      {
+         if ( Strings.isEmpty( sText ) )
+         {
+            throw new XMLConfigLoaderException( "config > templating > object-wrapper: value cannot be empty" );
+         }
+         _oTemplating.setObjectWrapper( sText.trim() );
+      }
+   }
+
    /**
     * TemplatePathAddDirRule
     */
@@ -270,6 +300,155 @@ public class TemplatingRule
          }
       }
    }
+
+   /**
+    * StreamingRule
+    */
+   public class StreamingRule extends Rule
+   {
+      private Boolean   _oEnabled;
+      private Integer   _oBufferSize;
+      private String    _sErrorPolicy;
+
+      public void begin( String sNamespace, String sName, Attributes oAttributes )
+      {
+         // reset data stored in rule
+         _oEnabled      = null;
+         _oBufferSize   = null;
+         _sErrorPolicy  = null;
+      }
+
+      public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+      {
+         try
+         {
+            if ( _oEnabled != null )
+            {
+               _oTemplating.getStreaming().setEnabled( _oEnabled.booleanValue() );
+            }
+            if ( _oBufferSize != null )
+            {
+               _oTemplating.getStreaming().setBufferSize( _oBufferSize.intValue() );
+            }
+            if ( ! Strings.isEmpty( _sErrorPolicy ) )
+            {
+               _oTemplating.getStreaming().setErrorPolicy( _sErrorPolicy.trim() );
+            }
+         }
+         catch ( IllegalArgumentException e )
+         {
+            throw new XMLConfigLoaderException( "config > templating > streaming: " + e.getMessage() );
+         }
+      }
+
+      public ParamEnabledRule createParamEnabledRule()
+      {
+         return new ParamEnabledRule();
+      }
+
+      public ParamBufferSizeRule createParamBufferSizeRule()
+      {
+         return new ParamBufferSizeRule();
+      }
+
+      public ParamErrorPolicyRule createParamErrorPolicyRule()
+      {
+         return new ParamErrorPolicyRule();
+      }
+
+      private class ParamEnabledRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText )
+         {
+            _oEnabled = Boolean.valueOf( sText.trim() );
+         }
+      }
+
+      private class ParamBufferSizeRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > templating > streaming > buffer-size: must specify a valid integer value" );
+            }
+            _oBufferSize = new Integer( sText.trim() );
+         }
+      }
+
+      private class ParamErrorPolicyRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText )
+         {
+            _sErrorPolicy = sText;
+         }
+      }
+   }
+
+   /**
+    * FragmentCacheRule
+    */
+   public class FragmentCacheRule extends Rule
+   {
+      private Boolean   _oEnabled;
+      private Integer   _oMaxEntries;
+
+      public void begin( String sNamespace, String sName, Attributes oAttributes )
+      {
+         // reset data stored in rule
+         _oEnabled      = null;
+         _oMaxEntries   = null;
+      }
+
+      public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+      {
+         try
+         {
+            if ( _oEnabled != null )
+            {
+               _oTemplating.getFragmentCache().setEnabled( _oEnabled.booleanValue() );
+            }
+            if ( _oMaxEntries != null )
+            {
+               _oTemplating.getFragmentCache().setMaxEntries( _oMaxEntries.intValue() );
+            }
+         }
+         catch ( IllegalArgumentException e )
+         {
+            throw new XMLConfigLoaderException( "config > templating > fragment-cache: " + e.getMessage() );
+         }
+      }
+
+      public ParamEnabledRule createParamEnabledRule()
+      {
+         return new ParamEnabledRule();
+      }
+
+      public ParamMaxEntriesRule createParamMaxEntriesRule()
+      {
+         return new ParamMaxEntriesRule();
+      }
+
+      private class ParamEnabledRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText )
+         {
+            _oEnabled = Boolean.valueOf( sText.trim() );
+         }
+      }
+
+      private class ParamMaxEntriesRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > templating > fragment-cache > max-entries: must specify a valid integer value" );
+            }
+            _oMaxEntries = new Integer( sText.trim() );
+         }
+      }
+   }
 }
 
 // EOF
\ No newline at end of file
@@ -18,9 +18,11 @@
 package com.acciente.induction.init.config.xmlconfigloader;
 
 import com.acciente.induction.init.config.Config;
+import com.acciente.commons.lang.Strings;
 import org.apache.commons.digester.Rule;
 import org.xml.sax.Attributes;
 
+import java.io.File;
 import java.util.regex.Pattern;
 import java.util.List;
 import java.util.ArrayList;
@@ -52,6 +54,16 @@ public class ViewMappingRule extends Rule
       return new AddURLToClassMapRule();
    }
 
+   public OutputCacheRule createOutputCacheRule()
+   {
+      return new OutputCacheRule();
+   }
+
+   public RequestCoalescingRule createRequestCoalescingRule()
+   {
+      return new RequestCoalescingRule();
+   }
+
    public class AddURLToClassMapRule extends Rule
    {
       private  Pattern  _oURLPattern;
@@ -194,4 +206,371 @@ public class ViewMappingRule extends Rule
          }
       }
    }
+   public class OutputCacheRule extends Rule
+   {
+      private  Integer  _oMaxMemorySize;
+      private  File     _oSpillFile;
+      private  Integer  _oSpillFileSize;
+
+      public void begin( String sNamespace, String sName, Attributes oAttributes )
+      {
+         // reset data stored in rule
+         _oMaxMemorySize   = null;
+         _oSpillFile       = null;
+         _oSpillFileSize   = null;
+      }
+
+      public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+      {
+         try
+         {
+            if ( _oMaxMemorySize != null )
+            {
+               _oViewMapping.getOutputCache().setMaxMemorySize( _oMaxMemorySize.intValue() );
+            }
+
+            if ( _oSpillFile != null )
+            {
+               _oViewMapping.getOutputCache().setSpillFile( _oSpillFile );
+            }
+
+            if ( _oSpillFileSize != null )
+            {
+               _oViewMapping.getOutputCache().setSpillFileSize( _oSpillFileSize.intValue() );
+            }
+         }
+         catch ( IllegalArgumentException e )
+         {
+            throw new XMLConfigLoaderException( "config > view-mapping > output-cache: " + e.getMessage() );
+         }
+      }
+
+      public ParamMaxMemorySizeRule createParamMaxMemorySizeRule()
+      {
+         return new ParamMaxMemorySizeRule();
+      }
+
+      public ParamSpillFileRule createParamSpillFileRule()
+      {
+         return new ParamSpillFileRule();
+      }
+
+      public ParamSpillFileSizeRule createParamSpillFileSizeRule()
+      {
+         return new ParamSpillFileSizeRule();
+      }
+
+      public AddCachedURLRule createAddCachedURLRule()
+      {
+         return new AddCachedURLRule();
+      }
+
+      private class ParamMaxMemorySizeRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > output-cache > max-memory-size: must specify a valid integer value" );
+            }
+            _oMaxMemorySize = new Integer( sText.trim() );
+         }
+      }
+
+      private class ParamSpillFileRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > output-cache > spill-file: must specify a valid file name" );
+            }
+            _oSpillFile = new File( sText.trim() );
+         }
+      }
+
+      private class ParamSpillFileSizeRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > output-cache > spill-file-size: must specify a valid integer value" );
+            }
+            _oSpillFileSize = new Integer( sText.trim() );
+         }
+      }
+
+      public class AddCachedURLRule extends Rule
+      {
+         private  Pattern  _oURLPattern;
+         private  String[] _asKeyParameters;
+         private  String[] _asKeyHeaders;
+         private  Integer  _oTimeToLive;
+         private  Integer  _oStaleWhileRevalidate;
+
+         public void begin( String sNamespace, String sName, Attributes oAttributes )
+         {
+            // reset data stored in rule
+            _oURLPattern            = null;
+            _asKeyParameters        = null;
+            _asKeyHeaders           = null;
+            _oTimeToLive            = null;
+            _oStaleWhileRevalidate  = null;
+         }
+
+         public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+         {
+            if ( _oURLPattern == null )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > output-cache > cached-url > URL pattern is a required attribute" );
+            }
+
+            if ( _oTimeToLive == null )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > output-cache > cached-url > time to live is a required attribute" );
+            }
+
+            try
+            {
+               _oViewMapping.getOutputCache().addCachedURL( _oURLPattern,
+                                                            _asKeyParameters,
+                                                            _asKeyHeaders,
+                                                            _oTimeToLive.intValue(),
+                                                            _oStaleWhileRevalidate == null ? 0 : _oStaleWhileRevalidate.intValue() );
+            }
+            catch ( IllegalArgumentException e )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > output-cache > cached-url: " + e.getMessage() );
+            }
+         }
+
+         public ParamURLPatternRule createParamURLPatternRule()
+         {
+            return new ParamURLPatternRule();
+         }
+
+         public ParamKeyParametersRule createParamKeyParametersRule()
+         {
+            return new ParamKeyParametersRule();
+         }
+
+         public ParamKeyHeadersRule createParamKeyHeadersRule()
+         {
+            return new ParamKeyHeadersRule();
+         }
+
+         public ParamTimeToLiveRule createParamTimeToLiveRule()
+         {
+            return new ParamTimeToLiveRule();
+         }
+
+         public ParamStaleWhileRevalidateRule createParamStaleWhileRevalidateRule()
+         {
+            return new ParamStaleWhileRevalidateRule();
+         }
+
+         private class ParamURLPatternRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText )
+            {
+               _oURLPattern = Pattern.compile( sText, Pattern.CASE_INSENSITIVE );
+            }
+         }
+
+         private class ParamKeyParametersRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText )
+            {
+               _asKeyParameters = Strings.isEmpty( sText ) ? null : sText.trim().split( "\\s*[;,]\\s*" );
+            }
+         }
+
+         private class ParamKeyHeadersRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText )
+            {
+               _asKeyHeaders = Strings.isEmpty( sText ) ? null : sText.trim().split( "\\s*[;,]\\s*" );
+            }
+         }
+
+         private class ParamTimeToLiveRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+            {
+               if ( Strings.isEmpty( sText ) )
+               {
+                  throw new XMLConfigLoaderException( "config > view-mapping > output-cache > cached-url > time-to-live: must specify a valid integer value" );
+               }
+               _oTimeToLive = new Integer( sText.trim() );
+            }
+         }
+
+         private class ParamStaleWhileRevalidateRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+            {
+               if ( Strings.isEmpty( sText ) )
+               {
+                  throw new XMLConfigLoaderException( "config > view-mapping > output-cache > cached-url > stale-while-revalidate: must specify a valid integer value" );
+               }
+               _oStaleWhileRevalidate = new Integer( sText.trim() );
+            }
+         }
+      }
+   }
+
+   public class RequestCoalescingRule extends Rule
+   {
+      private  Integer  _oWaitTimeout;
+
+      public void begin( String sNamespace, String sName, Attributes oAttributes )
+      {
+         // reset data stored in rule
+         _oWaitTimeout = null;
+      }
+
+      public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+      {
+         try
+         {
+            if ( _oWaitTimeout != null )
+            {
+               _oViewMapping.getRequestCoalescing().setWaitTimeout( _oWaitTimeout.intValue() );
+            }
+         }
+         catch ( IllegalArgumentException e )
+         {
+            throw new XMLConfigLoaderException( "config > view-mapping > request-coalescing: " + e.getMessage() );
+         }
+      }
+
+      public ParamWaitTimeoutRule createParamWaitTimeoutRule()
+      {
+         return new ParamWaitTimeoutRule();
+      }
+
+      public AddCoalescedURLRule createAddCoalescedURLRule()
+      {
+         return new AddCoalescedURLRule();
+      }
+
+      private class ParamWaitTimeoutRule extends Rule
+      {
+         public void body( String sNamespace, String sName, String sText ) throws XMLConfigLoaderException
+         {
+            if ( Strings.isEmpty( sText ) )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > request-coalescing > wait-timeout: must specify a valid integer value" );
+            }
+            _oWaitTimeout = new Integer( sText.trim() );
+         }
+      }
+
+      public class AddCoalescedURLRule extends Rule
+      {
+         private  Pattern  _oURLPattern;
+         private  String[] _asKeyParameters;
+         private  String[] _asKeyHeaders;
+         private  String[] _asBypassHeaders;
+         private  String[] _asBypassCookies;
+
+         public void begin( String sNamespace, String sName, Attributes oAttributes )
+         {
+            // reset data stored in rule
+            _oURLPattern      = null;
+            _asKeyParameters  = null;
+            _asKeyHeaders     = null;
+            _asBypassHeaders  = null;
+            _asBypassCookies  = null;
+         }
+
+         public void end( String sNamespace, String sName ) throws XMLConfigLoaderException
+         {
+            if ( _oURLPattern == null )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > request-coalescing > coalesced-url > URL pattern is a required attribute" );
+            }
+
+            try
+            {
+               _oViewMapping.getRequestCoalescing().addCoalescedURL( _oURLPattern,
+                                                                     _asKeyParameters,
+                                                                     _asKeyHeaders,
+                                                                     _asBypassHeaders,
+                                                                     _asBypassCookies );
+            }
+            catch ( IllegalArgumentException e )
+            {
+               throw new XMLConfigLoaderException( "config > view-mapping > request-coalescing > coalesced-url: " + e.getMessage() );
+            }
+         }
+
+         public ParamURLPatternRule createParamURLPatternRule()
+         {
+            return new ParamURLPatternRule();
+         }
+
+         public ParamKeyParametersRule createParamKeyParametersRule()
+         {
+            return new ParamKeyParametersRule();
+         }
+
+         public ParamKeyHeadersRule createParamKeyHeadersRule()
+         {
+            return new ParamKeyHeadersRule();
+         }
+
+         public ParamBypassHeadersRule createParamBypassHeadersRule()
+         {
+            return new ParamBypassHeadersRule();
+         }
+
+         public ParamBypassCookiesRule createParamBypassCookiesRule()
+         {
+            return new ParamBypassCookiesRule();
+         }
+
+         private class ParamURLPatternRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText )
+            {
+               _oURLPattern = Pattern.compile( sText, Pattern.CASE_INSENSITIVE );
+            }
+         }
+
+         private class ParamKeyParametersRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText )
+            {
+               _asKeyParameters = Strings.isEmpty( sText ) ? null : sText.trim().split( "\\s*[;,]\\s*" );
+            }
+         }
+
+         private class ParamKeyHeadersRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText )
+            {
+               _asKeyHeaders = Strings.isEmpty( sText ) ? null : sText.trim().split( "\\s*[;,]\\s*" );
+            }
+         }
+
+         private class ParamBypassHeadersRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText )
+            {
+               // an empty element turns off the default bypass header
+               _asBypassHeaders = Strings.isEmpty( sText ) ? new String[ 0 ] : sText.trim().split( "\\s*[;,]\\s*" );
+            }
+         }
+
+         private class ParamBypassCookiesRule extends Rule
+         {
+            public void body( String sNamespace, String sName, String sText )
+            {
+               _asBypassCookies = Strings.isEmpty( sText ) ? null : sText.trim().split( "\\s*[;,]\\s*" );
+            }
+         }
+      }
+   }
 }
\ No newline at end of file
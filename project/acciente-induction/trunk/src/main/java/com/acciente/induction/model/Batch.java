@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.model;
+
+/**
+ * This interface provides request scoped, batched access to the configured batch loaders. It is available
+ * for injection into models, views and controllers, like the Form system model.
+ * <p>
+ * Code that needs a value calls load() to submit the key and get a handle to the value, the key is not
+ * loaded right away. Keys submitted for the same loader are collected and loaded in one call to the
+ * loader, either when the value of one of them is first needed, or when the framework dispatches all
+ * pending keys just before a view is rendered. When a value is needed the pending keys of the other loaders
+ * are loaded too. This allows the models and views of a request to state the values they need up front,
+ * and have them loaded with one backend call per loader.
+ * <p>
+ * Loaded values are cached for the rest of the request, a key submitted again is not loaded again.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface Batch
+{
+   /**
+    * Submits a key to the specified loader and returns a handle to its value, the key is loaded with the
+    * other pending keys of the loader
+    *
+    * @param sBatchLoaderName the name of a configured batch loader
+    * @param oKey the key to load
+    * @return a handle to the value of the key
+    * @throws BatchException if no batch loader is configured with the specified name
+    */
+   public Value load( String sBatchLoaderName, Object oKey ) throws BatchException;
+
+   /**
+    * Returns the value of the specified key, if the key is not yet loaded it is loaded right away
+    * together with the pending keys of all the loaders
+    *
+    * @param sBatchLoaderName the name of a configured batch loader
+    * @param oKey the key to load
+    * @return the value of the key, null if the loader returned no value for the key
+    * @throws BatchException if no batch loader is configured with the specified name or the load failed
+    */
+   public Object get( String sBatchLoaderName, Object oKey ) throws BatchException;
+
+   /**
+    * Loads the pending keys of all loaders
+    *
+    * @throws BatchException if a load failed, the keys of the other loaders are still loaded
+    */
+   public void dispatch() throws BatchException;
+
+   /**
+    * A handle to the value of a key submitted to a batch loader
+    */
+   public interface Value
+   {
+      /**
+       * Returns the value, loading it (together with the pending keys of all the loaders) if needed
+       *
+       * @return the value of the key, null if the loader returned no value for the key
+       * @throws BatchException if the load failed
+       */
+      public Object get() throws BatchException;
+
+      /**
+       * @return true if the value has been loaded (or failed to load)
+       */
+      public boolean isLoaded();
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.model;
+
+/**
+ * Exception thrown by a batch model when a batch loader is not configured or fails to load.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class BatchException extends Exception
+{
+   public BatchException( String sMessage )
+   {
+      super( sMessage );
+   }
+
+   public BatchException( String sMessage, Throwable oCause )
+   {
+      super( sMessage, oCause );
+   }
+}
+
+// EOF
\ No newline at end of file
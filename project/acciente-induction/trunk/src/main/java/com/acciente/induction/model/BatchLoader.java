@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This interface is implemented by a class that loads many values in one bulk call, for example
+ * a single SQL query with an IN clause in place of one query per id.
+ * <p>
+ * A batch loader is configured under a name in the model-defs section of the configuration. Models,
+ * views and controllers submit keys to the loader via the Batch system model, the keys submitted
+ * during a request are collected and passed to the loader in one call.
+ * <p>
+ * A class implementing this interface is expected to have a single public contructor
+ * adhering to the following convention:<p>
+ *   - the single constructor should accepts no arguments or<p>
+ *   - the single constructor should declare formal parameters using only the
+ *     following types:<p>
+ *     - javax.servlet.ServletConfig<p>
+ *     - com.acciente.induction.init.config.Config.ModelDefs.BatchLoaderDef<p>
+ *     - java.lang.ClassLoader (the class loader that loads the model classes)<p>
+ * <p>
+ * A single instance of the loader serves all requests, so the load() method must be safe for concurrent use.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface BatchLoader
+{
+   /**
+    * Loads the values of the specified keys
+    *
+    * @param oKeyList the distinct keys to load, in the order they were first submitted
+    * @return a map from key to value, a key missing from the map is treated as having a null value
+    * @throws Exception if the values could not be loaded, the exception is reported to every caller
+    * waiting for one of the keys
+    */
+   public Map load( List oKeyList ) throws Exception;
+}
+
+// EOF
\ No newline at end of file
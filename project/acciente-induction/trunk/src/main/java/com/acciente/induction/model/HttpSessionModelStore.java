@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.model;
+
+import javax.servlet.http.HttpSession;
+
+/**
+ * The default session model store, this store keeps each session model as a plain attribute
+ * of the session.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class HttpSessionModelStore implements SessionModelStore
+{
+   public Object getModel( HttpSession oHttpSession, String sModelClassName )
+   {
+      return oHttpSession.getAttribute( sModelClassName );
+   }
+
+   public void setModel( HttpSession oHttpSession, String sModelClassName, Object oModel )
+   {
+      oHttpSession.setAttribute( sModelClassName, oModel );
+   }
+
+   public void destroy()
+   {
+      // nothing to release
+   }
+}
+
+// EOF
\ No newline at end of file
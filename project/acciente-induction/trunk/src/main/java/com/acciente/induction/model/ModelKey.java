@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The key of a cache scope model. A cache scope model is shared by all requests that produce the
+ * same key, the key is made of the values of the request parameters configured for the model.
+ * <p>
+ * A ModelKey is available for injection into the constructor of a cache scope model, or into the
+ * createModel() method of its factory.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ModelKey implements Serializable
+{
+   private String[]  _asNames;
+   private String[]  _asValues;
+   private int       _iHashCode;
+
+   /**
+    * Creates a key
+    *
+    * @param asNames the names of the key components
+    * @param asValues the values of the key components, a value may be null
+    */
+   public ModelKey( String[] asNames, String[] asValues )
+   {
+      if ( asNames.length != asValues.length )
+      {
+         throw new IllegalArgumentException( "model-key: the number of names and values must match" );
+      }
+
+      _asNames    = asNames.clone();
+      _asValues   = asValues.clone();
+      _iHashCode  = Arrays.hashCode( _asValues );
+   }
+
+   public int size()
+   {
+      return _asValues.length;
+   }
+
+   public String getName( int iIndex )
+   {
+      return _asNames[ iIndex ];
+   }
+
+   public String getValue( int iIndex )
+   {
+      return _asValues[ iIndex ];
+   }
+
+   /**
+    * Returns the value of the named key component
+    *
+    * @param sName the name of a key component
+    * @return the value of the component, null if the key has no such component or if the value is null
+    */
+   public String getValue( String sName )
+   {
+      for ( int i = 0; i < _asNames.length; i++ )
+      {
+         if ( _asNames[ i ].equals( sName ) )
+         {
+            return _asValues[ i ];
+         }
+      }
+
+      return null;
+   }
+
+   public boolean equals( Object oObject )
+   {
+      if ( this == oObject )
+      {
+         return true;
+      }
+
+      if ( ! ( oObject instanceof ModelKey ) )
+      {
+         return false;
+      }
+
+      ModelKey oOther = ( ModelKey ) oObject;
+
+      return _iHashCode == oOther._iHashCode
+             && Arrays.equals( _asValues, oOther._asValues )
+             && Arrays.equals( _asNames, oOther._asNames );
+   }
+
+   public int hashCode()
+   {
+      return _iHashCode;
+   }
+
+   public String toString()
+   {
+      StringBuffer oBuffer = new StringBuffer();
+
+      for ( int i = 0; i < _asNames.length; i++ )
+      {
+         if ( i > 0 )
+         {
+            oBuffer.append( "&" );
+         }
+         oBuffer.append( _asNames[ i ] ).append( "=" ).append( _asValues[ i ] );
+      }
+
+      return oBuffer.toString();
+   }
+}
+
+// EOF
\ No newline at end of file
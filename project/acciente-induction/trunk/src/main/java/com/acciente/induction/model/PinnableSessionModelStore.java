@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.model;
+
+import javax.servlet.http.HttpSession;
+
+/**
+ * A session model store that may move models out of memory implements this interface so that the models in
+ * use by a request stay in memory until the request ends.
+ * <p>
+ * The dispatcher pins a session model before it reads the model from the store, and releases the pin when the
+ * request ends. A pinned model must not be passivated, since the request would continue to use an instance
+ * that the store no longer returns. Both methods must be safe for concurrent use.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface PinnableSessionModelStore extends SessionModelStore
+{
+   /**
+    * Pins the model stored under the specified name in the specified session, the model is kept in memory
+    * until the pin is released
+    *
+    * @param oHttpSession the session that owns the model
+    * @param sModelClassName the name of the model class
+    * @return a pin that must be passed to unpinModel(), or null if no model is stored under the name, pins of
+    * the same model compare equal
+    */
+   public Object pinModel( HttpSession oHttpSession, String sModelClassName );
+
+   /**
+    * Releases a pin
+    *
+    * @param oPin a pin returned by pinModel()
+    */
+   public void unpinModel( Object oPin );
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.model;
+
+import javax.servlet.http.HttpSession;
+
+/**
+ * This interface is used to abstract where session scope models are kept between requests.
+ * <p>
+ * A class implementing this interface is expected to have a single public contructor
+ * adhering to the following convention:<p>
+ *   - the single constructor should accepts no arguments or<p>
+ *   - the single constructor should declare formal parameters using only the
+ *     following types:<p>
+ *     - javax.servlet.ServletConfig<p>
+ *     - com.acciente.induction.init.config.Config.ModelDefs.SessionModelStore<p>
+ *     - java.lang.ClassLoader (the class loader that loads the model classes)<p>
+ *     - com.acciente.induction.statistics.Statistics<p>
+ * <p>
+ * getModel() is called without any locks held and must be safe for concurrent use. setModel() is
+ * only called while the session's model lock is held, so a store never sees two concurrent
+ * setModel() calls for the same session.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface SessionModelStore
+{
+   /**
+    * Returns the model stored under the specified name in the specified session
+    *
+    * @param oHttpSession the session that owns the model
+    * @param sModelClassName the name of the model class
+    * @return the model object, or null if no model is available
+    */
+   public Object getModel( HttpSession oHttpSession, String sModelClassName );
+
+   /**
+    * Stores a model in the specified session, replacing any model previously stored under the same name
+    *
+    * @param oHttpSession the session that owns the model
+    * @param sModelClassName the name of the model class
+    * @param oModel the model object
+    */
+   public void setModel( HttpSession oHttpSession, String sModelClassName, Object oModel );
+
+   /**
+    * Called when the dispatcher is shutdown, to release any resources held by the store
+    */
+   public void destroy();
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,648 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.model;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A session model store that keeps recently used session models on the heap and moves idle
+ * models out of the heap.
+ * <p>
+ * Each model is kept in the session inside a small holder object. A background sweeper
+ * periodically serializes the models that have not been accessed for the configured idle
+ * time into a passivation region and drops the heap reference. The next access to the model
+ * deserializes it back onto the heap using the class loader that loads the model classes,
+ * after which the usual staleness check applies.
+ * <p>
+ * The passivation region is a single block of direct (off-heap) memory, or a single memory
+ * mapped file, allocated when the store is created. It is divided into fixed size blocks, a
+ * passivated model occupies as many blocks as it needs and its blocks are freed as soon as
+ * the model is rehydrated or discarded. When the region is full idle models stay on the heap
+ * until blocks are freed.
+ * <p>
+ * Models that are not serializable are simply left on the heap, as are models pinned by a
+ * request that is in progress. The passivated copy of a model is released when its session
+ * attribute is removed, for example when the session is invalidated.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class TieredSessionModelStore implements PinnableSessionModelStore
+{
+   private  long                 _lPassivateAfterIdleInMillis;
+   private  PassivationRegion    _oPassivationRegion;
+   private  ClassLoader          _oClassLoader;
+
+   private  Map         _oBoundHolderMap;    // used as a concurrent set of the holders currently bound to a session
+   private  Timer       _oSweepTimer;
+   private  Log         _oLog;
+
+   private  Counter     _oPassivationCounter;
+   private  Counter     _oPassivationFailureCounter;
+   private  Counter     _oRehydrationCounter;
+   private  Counter     _oRehydrationFailureCounter;
+   private  Counter     _oPassivatedModelCounter;
+   private  Counter     _oPassivatedBytesCounter;
+   private  Counter     _oSweepTimeCounter;
+
+   public TieredSessionModelStore( Config.ModelDefs.SessionModelStore oSessionModelStoreConfig,
+                                   ClassLoader                        oClassLoader,
+                                   Statistics                         oStatistics )
+      throws IOException
+   {
+      _lPassivateAfterIdleInMillis  = oSessionModelStoreConfig.getPassivateAfterIdleInSeconds() * 1000L;
+      _oClassLoader                 = oClassLoader;
+      _oBoundHolderMap              = new ConcurrentHashMap();
+      _oLog                         = LogFactory.getLog( TieredSessionModelStore.class );
+
+      int iRegionSize = oSessionModelStoreConfig.getPassivationRegionSizeInMB() * 1024 * 1024;
+
+      if ( oSessionModelStoreConfig.isPassivationTargetFile() )
+      {
+         File oPassivationDirectory = oSessionModelStoreConfig.getPassivationDirectory();
+
+         if ( oPassivationDirectory == null )
+         {
+            oPassivationDirectory = new File( System.getProperty( "java.io.tmpdir" ) );
+         }
+
+         if ( ! oPassivationDirectory.isDirectory() && ! oPassivationDirectory.mkdirs() )
+         {
+            throw new IOException( "session-model-store: unable to create passivation directory: " + oPassivationDirectory );
+         }
+
+         _oPassivationRegion = new PassivationRegion( iRegionSize, File.createTempFile( "induction-models-", ".bin", oPassivationDirectory ) );
+      }
+      else
+      {
+         _oPassivationRegion = new PassivationRegion( iRegionSize, null );
+      }
+
+      _oPassivationCounter          = oStatistics.getCounter( "session-model-store.passivations" );
+      _oPassivationFailureCounter   = oStatistics.getCounter( "session-model-store.passivation-failures" );
+      _oRehydrationCounter          = oStatistics.getCounter( "session-model-store.rehydrations" );
+      _oRehydrationFailureCounter   = oStatistics.getCounter( "session-model-store.rehydration-failures" );
+      _oPassivatedModelCounter      = oStatistics.getCounter( "session-model-store.passivated-models" );
+      _oPassivatedBytesCounter      = oStatistics.getCounter( "session-model-store.passivated-bytes" );
+      _oSweepTimeCounter            = oStatistics.getCounter( "session-model-store.sweep-time-ms" );
+
+      long lSweepIntervalInMillis = oSessionModelStoreConfig.getSweepIntervalInSeconds() * 1000L;
+
+      _oSweepTimer = new Timer( "induction-session-model-sweeper", true );
+      _oSweepTimer.schedule( new SweepTask(), lSweepIntervalInMillis, lSweepIntervalInMillis );
+   }
+
+   public Object getModel( HttpSession oHttpSession, String sModelClassName )
+   {
+      Object oAttribute = oHttpSession.getAttribute( sModelClassName );
+
+      if ( oAttribute instanceof ModelHolder )
+      {
+         return ( ( ModelHolder ) oAttribute ).getModel();
+      }
+
+      return oAttribute;
+   }
+
+   public void setModel( HttpSession oHttpSession, String sModelClassName, Object oModel )
+   {
+      // binding a new holder unbinds the previous holder (if any), which releases its passivated copy
+      oHttpSession.setAttribute( sModelClassName, new ModelHolder( this, oModel ) );
+   }
+
+   public Object pinModel( HttpSession oHttpSession, String sModelClassName )
+   {
+      Object oAttribute = oHttpSession.getAttribute( sModelClassName );
+
+      if ( oAttribute instanceof ModelHolder )
+      {
+         ( ( ModelHolder ) oAttribute ).pin();
+
+         return oAttribute;
+      }
+
+      return null;
+   }
+
+   public void unpinModel( Object oPin )
+   {
+      ( ( ModelHolder ) oPin ).unpin();
+   }
+
+   public void destroy()
+   {
+      _oSweepTimer.cancel();
+
+      // bring all passivated models back onto the heap, this frees the passivation region and leaves the
+      // sessions in a state the container can persist or discard as usual
+      for ( Iterator oIter = _oBoundHolderMap.keySet().iterator(); oIter.hasNext(); )
+      {
+         ( ( ModelHolder ) oIter.next() ).getModel();
+      }
+
+      _oPassivationRegion.close();
+   }
+
+   private void sweep()
+   {
+      long lNow = System.currentTimeMillis();
+
+      for ( Iterator oIter = _oBoundHolderMap.keySet().iterator(); oIter.hasNext(); )
+      {
+         try
+         {
+            ( ( ModelHolder ) oIter.next() ).passivateIfIdle( lNow, _lPassivateAfterIdleInMillis );
+         }
+         catch ( RuntimeException e )
+         {
+            _oLog.error( "session-model-store: unexpected error passivating model", e );
+         }
+      }
+
+      _oSweepTimeCounter.add( System.currentTimeMillis() - lNow );
+   }
+
+   /**
+    * Serializes a model into the passivation region
+    *
+    * @param oModel the model
+    * @return the passivated model, or null if the model could not be passivated this time, for example since
+    * the region is full
+    * @throws NotSerializableException if the model can never be passivated
+    */
+   private PassivatedModel passivate( Object oModel ) throws NotSerializableException
+   {
+      if ( ! ( oModel instanceof Serializable ) )
+      {
+         throw new NotSerializableException( oModel.getClass().getName() );
+      }
+
+      PassivatedModel oPassivatedModel = null;
+
+      try
+      {
+         ByteArrayOutputStream   oByteArrayOutputStream  = new ByteArrayOutputStream();
+         ObjectOutputStream      oObjectOutputStream     = new ObjectOutputStream( oByteArrayOutputStream );
+
+         oObjectOutputStream.writeObject( oModel );
+         oObjectOutputStream.close();
+
+         oPassivatedModel = _oPassivationRegion.write( oByteArrayOutputStream.toByteArray() );
+
+         if ( oPassivatedModel == null )
+         {
+            // the region is full, the model stays on the heap and is tried again on a later sweep
+            _oPassivationFailureCounter.increment();
+         }
+         else
+         {
+            _oPassivationCounter.increment();
+            _oPassivatedModelCounter.increment();
+            _oPassivatedBytesCounter.add( oPassivatedModel.getSize() );
+         }
+      }
+      catch ( NotSerializableException e )
+      {
+         // some object in the model's graph is not serializable, the model stays on the heap
+         _oPassivationFailureCounter.increment();
+         throw e;
+      }
+      catch ( IOException e )
+      {
+         _oPassivationFailureCounter.increment();
+         _oLog.warn( "session-model-store: unable to passivate model of class: " + oModel.getClass().getName(), e );
+      }
+
+      return oPassivatedModel;
+   }
+
+   private Object rehydrate( PassivatedModel oPassivatedModel )
+   {
+      Object oModel = null;
+
+      try
+      {
+         oModel = new ModelObjectInputStream( new ByteArrayInputStream( _oPassivationRegion.read( oPassivatedModel ) ), _oClassLoader ).readObject();
+
+         _oRehydrationCounter.increment();
+      }
+      catch ( IOException e )
+      {
+         // typically the model class was changed incompatibly since the model was passivated, the model
+         // is dropped and will be re-created on demand
+         _oRehydrationFailureCounter.increment();
+         _oLog.warn( "session-model-store: unable to rehydrate model, model discarded", e );
+      }
+      catch ( ClassNotFoundException e )
+      {
+         _oRehydrationFailureCounter.increment();
+         _oLog.warn( "session-model-store: unable to rehydrate model, model discarded", e );
+      }
+      finally
+      {
+         release( oPassivatedModel );
+      }
+
+      return oModel;
+   }
+
+   private void release( PassivatedModel oPassivatedModel )
+   {
+      _oPassivatedModelCounter.decrement();
+      _oPassivatedBytesCounter.add( - oPassivatedModel.getSize() );
+
+      _oPassivationRegion.free( oPassivatedModel );
+   }
+
+   private class SweepTask extends TimerTask
+   {
+      public void run()
+      {
+         sweep();
+      }
+   }
+
+   /**
+    * Internal.
+    * The object actually stored in the session. The model reference, the last access time and the
+    * pin count are volatile (or atomic) so that the common case (a resident model) is served without
+    * locking, the holder's monitor is only taken to passivate and to rehydrate.
+    */
+   private static class ModelHolder implements HttpSessionBindingListener, Serializable
+   {
+      private transient          TieredSessionModelStore _oStore;
+      private transient volatile Object                  _oModel;
+      private transient volatile long                    _lLastAccessTime;
+      private transient          AtomicInteger           _oPinCount;
+      private transient          PassivatedModel         _oPassivatedModel;
+      private transient          boolean                 _bIsNotPassivatable;
+
+      private ModelHolder( TieredSessionModelStore oStore, Object oModel )
+      {
+         _oStore           = oStore;
+         _oModel           = oModel;
+         _lLastAccessTime  = System.currentTimeMillis();
+         _oPinCount        = new AtomicInteger();
+      }
+
+      private void pin()
+      {
+         // the pin count must be written before the model reference is read, see passivateIfIdle()
+         _oPinCount.incrementAndGet();
+      }
+
+      private void unpin()
+      {
+         // the access time is updated so that the model is considered idle from the end of the request
+         _lLastAccessTime = System.currentTimeMillis();
+
+         _oPinCount.decrementAndGet();
+      }
+
+      private Object getModel()
+      {
+         // the access time must be written before the model reference is read, see passivateIfIdle()
+         _lLastAccessTime = System.currentTimeMillis();
+
+         Object oModel = _oModel;
+
+         if ( oModel == null )
+         {
+            synchronized ( this )
+            {
+               oModel = _oModel;
+
+               if ( oModel == null && _oPassivatedModel != null )
+               {
+                  oModel = _oStore.rehydrate( _oPassivatedModel );
+
+                  _oPassivatedModel = null;
+                  _oModel           = oModel;
+               }
+            }
+         }
+
+         return oModel;
+      }
+
+      private synchronized void passivateIfIdle( long lNow, long lPassivateAfterIdleInMillis )
+      {
+         Object oModel = _oModel;
+
+         if ( oModel == null || _bIsNotPassivatable || isInUse( lNow, lPassivateAfterIdleInMillis ) )
+         {
+            return;
+         }
+
+         // we unpublish the model before checking the pin count and the access time again, since a reader
+         // writes these before reading the model reference, either we see the reader here and back out, or the
+         // reader sees the null reference and waits on this holder's monitor for the rehydrated model
+         _oModel = null;
+
+         if ( isInUse( lNow, lPassivateAfterIdleInMillis ) )
+         {
+            _oModel = oModel;
+            return;
+         }
+
+         PassivatedModel oPassivatedModel;
+
+         try
+         {
+            oPassivatedModel = _oStore.passivate( oModel );
+         }
+         catch ( NotSerializableException e )
+         {
+            _bIsNotPassivatable  = true;
+            oPassivatedModel     = null;
+         }
+
+         if ( oPassivatedModel == null )
+         {
+            _oModel = oModel;
+         }
+         else
+         {
+            _oPassivatedModel = oPassivatedModel;
+         }
+      }
+
+      private boolean isInUse( long lNow, long lPassivateAfterIdleInMillis )
+      {
+         return _oPinCount.get() > 0 || lNow - _lLastAccessTime < lPassivateAfterIdleInMillis;
+      }
+
+      public void valueBound( HttpSessionBindingEvent oEvent )
+      {
+         if ( _oStore != null )
+         {
+            _oStore._oBoundHolderMap.put( this, this );
+         }
+      }
+
+      public void valueUnbound( HttpSessionBindingEvent oEvent )
+      {
+         if ( _oStore != null )
+         {
+            _oStore._oBoundHolderMap.remove( this );
+
+            synchronized ( this )
+            {
+               if ( _oPassivatedModel != null )
+               {
+                  _oStore.release( _oPassivatedModel );
+                  _oPassivatedModel = null;
+               }
+            }
+         }
+      }
+
+      private void writeObject( ObjectOutputStream oObjectOutputStream ) throws IOException
+      {
+         // the container is persisting or replicating the session, we write out the model itself
+         oObjectOutputStream.defaultWriteObject();
+         oObjectOutputStream.writeObject( getModel() );
+      }
+
+      private void readObject( ObjectInputStream oObjectInputStream ) throws IOException, ClassNotFoundException
+      {
+         // a holder restored by the container is not attached to a store, it simply keeps the model on the heap
+         oObjectInputStream.defaultReadObject();
+
+         _oModel           = oObjectInputStream.readObject();
+         _lLastAccessTime  = System.currentTimeMillis();
+         _oPinCount        = new AtomicInteger();
+      }
+   }
+
+   /**
+    * Internal.
+    * The serialized form of a model that is no longer on the heap, the blocks of the passivation region
+    * that hold it.
+    */
+   private static class PassivatedModel
+   {
+      private int[]  _aiBlocks;
+      private int    _iSize;
+
+      private PassivatedModel( int[] aiBlocks, int iSize )
+      {
+         _aiBlocks   = aiBlocks;
+         _iSize      = iSize;
+      }
+
+      private int getSize()
+      {
+         return _iSize;
+      }
+   }
+
+   /**
+    * Internal.
+    * A single region of direct memory, or of a memory mapped file, divided into blocks of BLOCK_SIZE bytes.
+    * A passivated model is written to as many free blocks as it needs, in any order, so the region does not
+    * fragment. The blocks are freed explicitly when the model is rehydrated or discarded.
+    * <p>
+    * Only the allocation and the freeing of blocks is synchronized, the bytes of a passivated model are
+    * written and read through views of the buffer, without locking.
+    */
+   private static class PassivationRegion
+   {
+      private static final int   BLOCK_SIZE = 1024;
+
+      private File         _oFile;
+      private ByteBuffer   _oBuffer;
+      private int[]        _aiFreeBlocks;    // a stack of the indexes of the free blocks
+      private int          _iFreeBlockCount;
+
+      private PassivationRegion( int iSize, File oFile ) throws IOException
+      {
+         if ( oFile == null )
+         {
+            _oBuffer = ByteBuffer.allocateDirect( iSize );
+         }
+         else
+         {
+            RandomAccessFile oRandomAccessFile = new RandomAccessFile( oFile, "rw" );
+
+            try
+            {
+               oRandomAccessFile.setLength( iSize );
+
+               // the mapping stays valid after the file is closed
+               _oBuffer = oRandomAccessFile.getChannel().map( FileChannel.MapMode.READ_WRITE, 0, iSize );
+            }
+            catch ( IOException e )
+            {
+               oFile.delete();
+               throw e;
+            }
+            finally
+            {
+               oRandomAccessFile.close();
+            }
+
+            _oFile = oFile;
+         }
+
+         _aiFreeBlocks     = new int[ iSize / BLOCK_SIZE ];
+         _iFreeBlockCount  = _aiFreeBlocks.length;
+
+         for ( int i = 0; i < _aiFreeBlocks.length; i++ )
+         {
+            // the lowest blocks are allocated first
+            _aiFreeBlocks[ i ] = _aiFreeBlocks.length - 1 - i;
+         }
+      }
+
+      /**
+       * @return the passivated model, or null if the region does not have enough free blocks
+       */
+      private PassivatedModel write( byte[] ayModel )
+      {
+         int[] aiBlocks = allocate( ( ayModel.length + BLOCK_SIZE - 1 ) / BLOCK_SIZE );
+
+         if ( aiBlocks == null )
+         {
+            return null;
+         }
+
+         ByteBuffer oBuffer = _oBuffer.duplicate();
+
+         for ( int i = 0; i < aiBlocks.length; i++ )
+         {
+            int iOffset = i * BLOCK_SIZE;
+
+            oBuffer.position( aiBlocks[ i ] * BLOCK_SIZE );
+            oBuffer.put( ayModel, iOffset, Math.min( BLOCK_SIZE, ayModel.length - iOffset ) );
+         }
+
+         return new PassivatedModel( aiBlocks, ayModel.length );
+      }
+
+      private byte[] read( PassivatedModel oPassivatedModel )
+      {
+         byte[]      ayModel  = new byte[ oPassivatedModel._iSize ];
+         ByteBuffer  oBuffer  = _oBuffer.duplicate();
+
+         for ( int i = 0; i < oPassivatedModel._aiBlocks.length; i++ )
+         {
+            int iOffset = i * BLOCK_SIZE;
+
+            oBuffer.position( oPassivatedModel._aiBlocks[ i ] * BLOCK_SIZE );
+            oBuffer.get( ayModel, iOffset, Math.min( BLOCK_SIZE, ayModel.length - iOffset ) );
+         }
+
+         return ayModel;
+      }
+
+      private synchronized int[] allocate( int iBlockCount )
+      {
+         if ( iBlockCount > _iFreeBlockCount )
+         {
+            return null;
+         }
+
+         int[] aiBlocks = new int[ iBlockCount ];
+
+         for ( int i = 0; i < iBlockCount; i++ )
+         {
+            aiBlocks[ i ] = _aiFreeBlocks[ --_iFreeBlockCount ];
+         }
+
+         return aiBlocks;
+      }
+
+      private synchronized void free( PassivatedModel oPassivatedModel )
+      {
+         for ( int i = 0; i < oPassivatedModel._aiBlocks.length; i++ )
+         {
+            _aiFreeBlocks[ _iFreeBlockCount++ ] = oPassivatedModel._aiBlocks[ i ];
+         }
+      }
+
+      private void close()
+      {
+         if ( _oFile != null && ! _oFile.delete() )
+         {
+            // on some platforms a file cannot be deleted while a mapping of it is still reachable
+            _oFile.deleteOnExit();
+         }
+      }
+   }
+
+   /**
+    * Internal.
+    * Resolves the classes of a rehydrated model using the class loader that loads the model classes,
+    * so that models of reloadable classes are deserialized into the current version of their class.
+    */
+   private static class ModelObjectInputStream extends ObjectInputStream
+   {
+      private ClassLoader _oClassLoader;
+
+      private ModelObjectInputStream( InputStream oInputStream, ClassLoader oClassLoader ) throws IOException
+      {
+         super( oInputStream );
+
+         _oClassLoader = oClassLoader;
+      }
+
+      protected Class resolveClass( ObjectStreamClass oObjectStreamClass ) throws IOException, ClassNotFoundException
+      {
+         try
+         {
+            return Class.forName( oObjectStreamClass.getName(), false, _oClassLoader );
+         }
+         catch ( ClassNotFoundException e )
+         {
+            // primitive types and a few other cases are handled by the default implementation
+            return super.resolveClass( oObjectStreamClass );
+         }
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named, thread-safe counter. A counter is used both for monotonic counts (e.g. number of cache
+ * misses) and for levels (e.g. number of pooled objects currently in use).
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class Counter
+{
+   private String       _sName;
+   private AtomicLong   _oValue = new AtomicLong();
+
+   Counter( String sName )
+   {
+      _sName = sName;
+   }
+
+   public String getName()
+   {
+      return _sName;
+   }
+
+   public long get()
+   {
+      return _oValue.get();
+   }
+
+   public void increment()
+   {
+      _oValue.incrementAndGet();
+   }
+
+   public void decrement()
+   {
+      _oValue.decrementAndGet();
+   }
+
+   public void add( long lDelta )
+   {
+      _oValue.addAndGet( lDelta );
+   }
+
+   public void set( long lValue )
+   {
+      _oValue.set( lValue );
+   }
+
+   /**
+    * Sets the counter to the specified value, if the value is larger than the current value
+    *
+    * @param lValue a candidate maximum
+    */
+   public void setIfGreater( long lValue )
+   {
+      long lCurrentValue;
+
+      while ( lValue > ( lCurrentValue = _oValue.get() ) )
+      {
+         if ( _oValue.compareAndSet( lCurrentValue, lValue ) )
+         {
+            break;
+         }
+      }
+   }
+
+   public String toString()
+   {
+      return _sName + " = " + _oValue.get();
+   }
+}
+
+// EOF
\ No newline at end of file
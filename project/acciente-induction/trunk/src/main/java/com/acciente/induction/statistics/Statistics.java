@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.statistics;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is a registry of named counters used by the Induction dispatcher to publish
+ * operational statistics, such as pool occupancy, lock contention or cache hit rates.
+ *
+ * A single instance is created per dispatcher servlet, this instance may be injected into
+ * controllers, views, models and request interceptors by simply declaring a parameter of
+ * this type.
+ *
+ * Counter names are dot separated, the first segment names the subsystem that maintains
+ * the counter, e.g. controller-pool.com.acme.app.ReportController.wait-time-ms.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class Statistics
+{
+   private ConcurrentHashMap  _oCounterMap = new ConcurrentHashMap();
+
+   /**
+    * Returns the counter with the specified name, creating it if needed
+    *
+    * @param sCounterName the name of the counter
+    * @return a counter, never null
+    */
+   public Counter getCounter( String sCounterName )
+   {
+      Counter oCounter = ( Counter ) _oCounterMap.get( sCounterName );
+
+      if ( oCounter == null )
+      {
+         Counter oNewCounter = new Counter( sCounterName );
+
+         // another thread may have registered the same counter in the meantime, if so we use its instance
+         oCounter = ( Counter ) _oCounterMap.putIfAbsent( sCounterName, oNewCounter );
+
+         if ( oCounter == null )
+         {
+            oCounter = oNewCounter;
+         }
+      }
+
+      return oCounter;
+   }
+
+   /**
+    * Returns the current value of the specified counter
+    *
+    * @param sCounterName the name of the counter
+    * @return the value of the counter, or 0 if no counter with the specified name exists
+    */
+   public long getValue( String sCounterName )
+   {
+      Counter oCounter = ( Counter ) _oCounterMap.get( sCounterName );
+
+      return oCounter == null ? 0 : oCounter.get();
+   }
+
+   /**
+    * Returns a snapshot of all the counters
+    *
+    * @return a map sorted by counter name, each value is a Long
+    */
+   public SortedMap getValues()
+   {
+      return getValues( "" );
+   }
+
+   /**
+    * Returns a snapshot of all the counters whose names start with the specified prefix
+    *
+    * @param sCounterNamePrefix a counter name prefix, e.g. "controller-pool."
+    * @return a map sorted by counter name, each value is a Long
+    */
+   public SortedMap getValues( String sCounterNamePrefix )
+   {
+      SortedMap   oValues = new TreeMap();
+
+      for ( Iterator oIter = _oCounterMap.entrySet().iterator(); oIter.hasNext(); )
+      {
+         Map.Entry   oEntry = ( Map.Entry ) oIter.next();
+         String      sCounterName = ( String ) oEntry.getKey();
+
+         if ( sCounterName.startsWith( sCounterNamePrefix ) )
+         {
+            oValues.put( sCounterName, new Long( ( ( Counter ) oEntry.getValue() ).get() ) );
+         }
+      }
+
+      return oValues;
+   }
+
+   public String toString()
+   {
+      StringBuffer   oBuffer = new StringBuffer();
+
+      for ( Iterator oIter = getValues().entrySet().iterator(); oIter.hasNext(); )
+      {
+         Map.Entry   oEntry = ( Map.Entry ) oIter.next();
+
+         oBuffer.append( oEntry.getKey() ).append( " = " ).append( oEntry.getValue() ).append( "\n" );
+      }
+
+      return oBuffer.toString();
+   }
+}
+
+// EOF
\ No newline at end of file
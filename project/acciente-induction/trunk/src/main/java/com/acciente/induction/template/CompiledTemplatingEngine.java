@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.template.compiled.CompiledTemplate;
+import com.acciente.induction.template.compiled.TemplateCompiler;
+import com.acciente.induction.util.BufferPool;
+import com.acciente.induction.util.EncodedSegmentCache;
+import com.acciente.induction.util.EncodingWriter;
+import com.acciente.induction.view.Template;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.ServletConfig;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A templating engine that compiles each template into a Java class, the class renders the template by
+ * calling the getters of the view directly instead of looking up each property by reflection on each render.
+ * The templates are written in the subset of the Freemarker template language described in TemplateCompiler,
+ * so an application can switch between this engine and the Freemarker engine without changing its templates.
+ * <p>
+ * This engine is selected with the following configuration:
+ * <pre>
+ *    &lt;templating-engine&gt;
+ *       &lt;class&gt;com.acciente.induction.template.CompiledTemplatingEngine&lt;/class&gt;
+ *    &lt;/templating-engine&gt;
+ * </pre>
+ * A template is compiled the first time it is rendered for a view class, since the code generated for a
+ * template depends on the class of the view. The Java compiler of the JDK is used, so this engine requires
+ * the application to run on a JDK. A compiled template is recompiled when the template, or a template it
+ * includes, changes, this is checked at most every few seconds.
+ * <p>
+ * The counter compiled-templates.compilations is published.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class CompiledTemplatingEngine implements OutputStreamTemplatingEngine
+{
+   private static final long  UPDATE_CHECK_INTERVAL_MILLIS   = 5000;
+
+   private  TemplateCompiler  _oTemplateCompiler;
+   private  Counter           _oCompilationCounter;
+   private  Log               _oLog;
+
+   // the compiled templates of a view class are kept with the class, so they are released with a reloaded class
+   private  ClassValue        _oTemplateMaps                = new ClassValue()
+                                                              {
+                                                                 protected Object computeValue( Class oViewClass )
+                                                                 {
+                                                                    return new ConcurrentHashMap();
+                                                                 }
+                                                              };
+
+   private  EncodedSegmentCache  _oEncodedSegmentCache   = new EncodedSegmentCache();
+   private  BufferPool           _oEncodeBufferPool;
+
+   public CompiledTemplatingEngine( Config.Templating   oConfig,
+                                    ServletConfig       oServletConfig,
+                                    Config.BufferPool   oBufferPoolConfig,
+                                    FragmentCache       oFragmentCache,
+                                    Statistics          oStatistics )
+      throws ClassNotFoundException, TemplatingEngineException
+   {
+      if ( ToolProvider.getSystemJavaCompiler() == null )
+      {
+         throw new TemplatingEngineException( "compiled-templates > no Java compiler is available, this templating engine requires a JDK" );
+      }
+
+      _oLog = LogFactory.getLog( CompiledTemplatingEngine.class );
+
+      _oTemplateCompiler   = new TemplateCompiler( oConfig, oServletConfig, oFragmentCache );
+      _oCompilationCounter = oStatistics.getCounter( "compiled-templates.compilations" );
+
+      // the encode buffers only collect the bytes between writes to the output stream, so they are small
+      _oEncodeBufferPool = new BufferPool( "buffer-pool.template.encoder",
+                                           BufferPool.BYTE_ARRAY,
+                                           8 * 1024,
+                                           oBufferPoolConfig.getMaxPooledBuffers(),
+                                           8 * 1024,
+                                           oStatistics );
+
+      if ( oConfig.getLocale() != null )
+      {
+         _oLog.info( "compiled-templates > using configured locale > " + oConfig.getLocale() );
+      }
+
+      _oLog.info( "compiled-templates > expose public fields > " + oConfig.isExposePublicFields() );
+   }
+
+   public void process( Template oTemplate, Writer oWriter ) throws TemplatingEngineException, IOException
+   {
+      getCompiledTemplate( oTemplate.getClass(), oTemplate.getTemplateName() ).process( oTemplate, oWriter );
+   }
+
+   public void process( Template oTemplate, OutputStream oOutputStream, String sCharacterEncoding ) throws TemplatingEngineException, IOException
+   {
+      // the static text of a compiled template is written as the same char array on every render,
+      // the encoding writer uses this to encode the registered static text once per template instead of once
+      // per request
+      byte[]         ayEncodeBuffer = ( byte[] ) _oEncodeBufferPool.acquire();
+      EncodingWriter oWriter        = new EncodingWriter( oOutputStream,
+                                                          Charset.forName( sCharacterEncoding ),
+                                                          _oEncodedSegmentCache,
+                                                          ayEncodeBuffer );
+
+      try
+      {
+         process( oTemplate, oWriter );
+
+         oWriter.close();
+      }
+      finally
+      {
+         _oEncodeBufferPool.release( ayEncodeBuffer );
+      }
+   }
+
+   private CompiledTemplate getCompiledTemplate( Class oViewClass, String sTemplateName ) throws TemplatingEngineException, IOException
+   {
+      Map                  oTemplateMap   = ( Map ) _oTemplateMaps.get( oViewClass );
+      CompiledTemplateRef  oTemplateRef   = ( CompiledTemplateRef ) oTemplateMap.get( sTemplateName );
+
+      if ( oTemplateRef == null || oTemplateRef.isModified() )
+      {
+         // compiling is slow, so concurrent first renders of a template for a view class wait for one compilation
+         synchronized ( oTemplateMap )
+         {
+            oTemplateRef = ( CompiledTemplateRef ) oTemplateMap.get( sTemplateName );
+
+            if ( oTemplateRef == null || oTemplateRef.isModified() )
+            {
+               long lStartTime = System.currentTimeMillis();
+
+               CompiledTemplate oCompiledTemplate = _oTemplateCompiler.compile( sTemplateName, oViewClass );
+
+               oCompiledTemplate.registerStaticText( _oEncodedSegmentCache );
+
+               oTemplateRef = new CompiledTemplateRef( oCompiledTemplate );
+
+               oTemplateMap.put( sTemplateName, oTemplateRef );
+
+               _oCompilationCounter.increment();
+
+               _oLog.info( "compiled-templates > compiled > " + sTemplateName + " for view > " + oViewClass.getName()
+                           + " in " + ( System.currentTimeMillis() - lStartTime ) + " ms" );
+            }
+         }
+      }
+
+      return oTemplateRef._oCompiledTemplate;
+   }
+
+   /**
+    * A compiled template, with the state of the check for changes to its templates
+    */
+   private static class CompiledTemplateRef
+   {
+      private           CompiledTemplate  _oCompiledTemplate;
+      private volatile  long              _lNextCheckTime;
+      private volatile  boolean           _bModified;
+
+      private CompiledTemplateRef( CompiledTemplate oCompiledTemplate )
+      {
+         _oCompiledTemplate   = oCompiledTemplate;
+         _lNextCheckTime      = System.currentTimeMillis() + UPDATE_CHECK_INTERVAL_MILLIS;
+      }
+
+      private boolean isModified()
+      {
+         long lNow = System.currentTimeMillis();
+
+         // once a change is seen it stays seen, so that the thread that recompiles sees it too
+         if ( ! _bModified && lNow >= _lNextCheckTime )
+         {
+            _lNextCheckTime   = lNow + UPDATE_CHECK_INTERVAL_MILLIS;
+            _bModified        = _oCompiledTemplate.isModified();
+         }
+
+         return _bModified;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.ConcurrentLRUCache;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of rendered template fragments that is shared by all requests. The templating engine uses this
+ * cache to implement its fragment cache directive (for the default Freemarker engine: the <@cache> directive),
+ * and application code can request this class to invalidate fragments when the data they show changes.
+ * <p>
+ * Fragments are identified by a string key chosen by the template, keys should be chosen so that related
+ * fragments share a prefix (for example nav.main and nav.footer), since fragments can be invalidated by
+ * key prefix. A fragment is rendered once when it is missing, concurrent requests for the same missing
+ * fragment wait for that rendering instead of each rendering the fragment.
+ * <p>
+ * An instance of this class may be requested in the constructor of any model, controller or view, and
+ * in the constructor of a templating engine.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class FragmentCache
+{
+   private  boolean              _bEnabled;
+   private  ConcurrentLRUCache   _oCache;
+   private  AtomicLong           _oInvalidationSequence;
+   private  Counter              _oInvalidationCounter;
+
+   public FragmentCache( Config.Templating.FragmentCache oFragmentCacheConfig, Statistics oStatistics )
+   {
+      _bEnabled               = oFragmentCacheConfig.isEnabled();
+      _oCache                 = new ConcurrentLRUCache( oFragmentCacheConfig.getMaxEntries(), 0, null, oStatistics, "fragment-cache" );
+      _oInvalidationSequence  = new AtomicLong();
+      _oInvalidationCounter   = oStatistics.getCounter( "fragment-cache.invalidations" );
+   }
+
+   /**
+    * Returns the cached fragment for a key, if the fragment is missing or expired it is rendered and cached.
+    *
+    * @param sKey the key of the fragment
+    * @param iTimeToLiveInSeconds the number of seconds a newly rendered fragment is kept, 0 if the fragment is
+    * kept until it is invalidated or evicted
+    * @param oRenderer used to render the fragment when it is missing
+    * @return the fragment
+    * @throws IOException if the renderer failed with an I/O error
+    * @throws TemplatingEngineException if the renderer failed, the renderer's exception is the cause
+    */
+   public String render( String sKey, int iTimeToLiveInSeconds, Renderer oRenderer )
+      throws IOException, TemplatingEngineException
+   {
+      if ( sKey == null )
+      {
+         throw new IllegalArgumentException( "fragment-cache: key cannot be null" );
+      }
+
+      if ( iTimeToLiveInSeconds < 0 )
+      {
+         throw new IllegalArgumentException( "fragment-cache: time to live cannot be negative, key: " + sKey );
+      }
+
+      if ( ! _bEnabled )
+      {
+         return renderFragment( sKey, oRenderer );
+      }
+
+      try
+      {
+         FragmentLoader oLoader = new FragmentLoader( iTimeToLiveInSeconds, oRenderer );
+
+         // an expired fragment is removed and loaded again, the second load always returns a fresh
+         // fragment unless another thread loaded an already expired fragment in between
+         for ( int i = 0; ; i++ )
+         {
+            Fragment oFragment = ( Fragment ) _oCache.get( sKey, oLoader );
+
+            if ( oFragment.isInvalid() )
+            {
+               // an invalidation ran while this fragment was rendered, so it may show data older than the
+               // invalidation, we use it for this request but do not keep it
+               _oCache.remove( sKey, oFragment );
+               return oFragment._sText;
+            }
+
+            if ( ! oFragment.isExpired() || i > 0 )
+            {
+               return oFragment._sText;
+            }
+
+            _oCache.remove( sKey, oFragment );
+         }
+      }
+      catch ( ExecutionException e )
+      {
+         throw toRenderException( sKey, e.getCause() );
+      }
+   }
+
+   /**
+    * Removes the fragment with the specified key
+    *
+    * @param sKey the key of the fragment
+    */
+   public void invalidate( String sKey )
+   {
+      _oInvalidationSequence.incrementAndGet();
+      _oInvalidationCounter.increment();
+
+      _oCache.remove( sKey );
+   }
+
+   /**
+    * Removes all the fragments whose key starts with the specified prefix
+    *
+    * @param sKeyPrefix the key prefix
+    * @return the number of fragments removed
+    */
+   public int invalidateByKeyPrefix( String sKeyPrefix )
+   {
+      _oInvalidationSequence.incrementAndGet();
+      _oInvalidationCounter.increment();
+
+      return _oCache.removeByKeyPrefix( sKeyPrefix );
+   }
+
+   /**
+    * Removes all the fragments
+    */
+   public void invalidateAll()
+   {
+      invalidateByKeyPrefix( "" );
+   }
+
+   private static String renderFragment( String sKey, Renderer oRenderer )
+      throws IOException, TemplatingEngineException
+   {
+      try
+      {
+         return oRenderer.render();
+      }
+      catch ( Exception e )
+      {
+         throw toRenderException( sKey, e );
+      }
+   }
+
+   private static TemplatingEngineException toRenderException( String sKey, Throwable oCause )
+      throws IOException
+   {
+      if ( oCause instanceof IOException )
+      {
+         throw ( IOException ) oCause;
+      }
+
+      if ( oCause instanceof RuntimeException )
+      {
+         throw ( RuntimeException ) oCause;
+      }
+
+      if ( oCause instanceof Error )
+      {
+         throw ( Error ) oCause;
+      }
+
+      return new TemplatingEngineException( "fragment-cache: error rendering fragment, key: " + sKey, oCause );
+   }
+
+   /**
+    * Renders a fragment when it is not in the cache
+    */
+   public static interface Renderer
+   {
+      public String render() throws Exception;
+   }
+
+   private class FragmentLoader implements ConcurrentLRUCache.Loader
+   {
+      private int       _iTimeToLiveInSeconds;
+      private Renderer  _oRenderer;
+
+      private FragmentLoader( int iTimeToLiveInSeconds, Renderer oRenderer )
+      {
+         _iTimeToLiveInSeconds   = iTimeToLiveInSeconds;
+         _oRenderer              = oRenderer;
+      }
+
+      public Object load( Object oKey ) throws Exception
+      {
+         long     lStartSequence = _oInvalidationSequence.get();
+         String   sText          = _oRenderer.render();
+
+         if ( sText == null )
+         {
+            throw new IllegalStateException( "fragment-cache: renderer returned null, key: " + oKey );
+         }
+
+         return new Fragment( sText,
+                              _iTimeToLiveInSeconds == 0 ? Long.MAX_VALUE : System.currentTimeMillis() + _iTimeToLiveInSeconds * 1000L,
+                              lStartSequence != _oInvalidationSequence.get() );
+      }
+   }
+
+   private static class Fragment
+   {
+      private String    _sText;
+      private long      _lExpiryTime;
+      private boolean   _bInvalidatedWhileRendering;
+
+      private Fragment( String sText, long lExpiryTime, boolean bInvalidatedWhileRendering )
+      {
+         _sText                        = sText;
+         _lExpiryTime                  = lExpiryTime;
+         _bInvalidatedWhileRendering   = bInvalidatedWhileRendering;
+      }
+
+      private boolean isExpired()
+      {
+         return System.currentTimeMillis() >= _lExpiryTime;
+      }
+
+      private boolean isInvalid()
+      {
+         // this conservatively treats any invalidation that ran while the fragment was rendered as applying to
+         // this fragment, once the fragment is removed a fresh one is rendered for the next request
+         return _bInvalidatedWhileRendering;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
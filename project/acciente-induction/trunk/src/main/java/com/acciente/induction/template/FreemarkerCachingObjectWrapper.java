@@ -0,0 +1,429 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template;
+
+import freemarker.template.AdapterTemplateModel;
+import freemarker.template.DefaultObjectWrapper;
+import freemarker.template.TemplateCollectionModel;
+import freemarker.template.TemplateHashModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateNumberModel;
+import freemarker.template.TemplateScalarModel;
+
+import java.beans.IndexedPropertyDescriptor;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Internal.
+ * A Freemarker object wrapper that exposes views, and the beans they return, through models that read
+ * properties with method handles resolved once per class. Freemarker's DefaultObjectWrapper finds the getter
+ * of a property in its introspection cache on each access, and invokes it reflectively.
+ * <p>
+ * The property table of a class holds the readable properties (and public fields, if fields are exposed) that
+ * Freemarker reads the same way for all the instances of the class. A key that is not in the table, such as a
+ * method name, is passed to the model that DefaultObjectWrapper creates for the object, so templates behave
+ * as with DefaultObjectWrapper. The tables are kept in a ClassValue, so the table of a reloaded class is
+ * released with the class.
+ * <p>
+ * Strings, numbers, dates, collections, maps and the other values that DefaultObjectWrapper handles
+ * specially are wrapped by DefaultObjectWrapper, except that the model of a small integer and the model of
+ * an enum constant are created once and reused, since these values are immutable. Classes of the platform
+ * are also left to DefaultObjectWrapper.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class FreemarkerCachingObjectWrapper extends DefaultObjectWrapper
+{
+   private static final int            MIN_CACHED_NUMBER    = -128;
+   private static final int            MAX_CACHED_NUMBER    = 1023;
+   private static final MethodType     ACCESSOR_TYPE        = MethodType.methodType( Object.class, Object.class );
+   private static final PropertyTable  NOT_A_BEAN           = new PropertyTable( new HashMap(), 0 );
+   private static final NumberModel[]  __aoIntegerModels    = new NumberModel[ MAX_CACHED_NUMBER - MIN_CACHED_NUMBER + 1 ];
+   private static final NumberModel[]  __aoLongModels       = new NumberModel[ MAX_CACHED_NUMBER - MIN_CACHED_NUMBER + 1 ];
+
+   static
+   {
+      for ( int i = MIN_CACHED_NUMBER; i <= MAX_CACHED_NUMBER; i++ )
+      {
+         __aoIntegerModels[ i - MIN_CACHED_NUMBER ]   = new NumberModel( new Integer( i ) );
+         __aoLongModels[ i - MIN_CACHED_NUMBER ]      = new NumberModel( new Long( i ) );
+      }
+   }
+
+   private ClassValue _oPropertyTables = new ClassValue()
+                                         {
+                                            protected Object computeValue( Class oClass )
+                                            {
+                                               return isBeanClass( oClass ) ? createPropertyTable( oClass ) : NOT_A_BEAN;
+                                            }
+                                         };
+
+   public TemplateModel wrap( Object oObject ) throws TemplateModelException
+   {
+      if ( oObject == null )
+      {
+         return super.wrap( oObject );
+      }
+
+      if ( oObject instanceof Integer )
+      {
+         int iValue = ( ( Integer ) oObject ).intValue();
+
+         if ( iValue >= MIN_CACHED_NUMBER && iValue <= MAX_CACHED_NUMBER )
+         {
+            return __aoIntegerModels[ iValue - MIN_CACHED_NUMBER ];
+         }
+      }
+      else if ( oObject instanceof Long )
+      {
+         long lValue = ( ( Long ) oObject ).longValue();
+
+         if ( lValue >= MIN_CACHED_NUMBER && lValue <= MAX_CACHED_NUMBER )
+         {
+            return __aoLongModels[ ( int ) lValue - MIN_CACHED_NUMBER ];
+         }
+      }
+
+      PropertyTable oPropertyTable = ( PropertyTable ) _oPropertyTables.get( oObject.getClass() );
+
+      if ( oPropertyTable == NOT_A_BEAN )
+      {
+         return super.wrap( oObject );
+      }
+
+      if ( oPropertyTable._aoEnumModels != null )
+      {
+         int      iOrdinal    = ( ( Enum ) oObject ).ordinal();
+         BeanModel oEnumModel = oPropertyTable._aoEnumModels[ iOrdinal ];
+
+         if ( oEnumModel == null )
+         {
+            // a race here only creates a model that is dropped, the models are equivalent
+            oEnumModel = new BeanModel( oObject, oPropertyTable );
+
+            oPropertyTable._aoEnumModels[ iOrdinal ] = oEnumModel;
+         }
+
+         return oEnumModel;
+      }
+
+      return new BeanModel( oObject, oPropertyTable );
+   }
+
+   /**
+    * @return true if DefaultObjectWrapper wraps the instances of the class in a bean model
+    */
+   private static boolean isBeanClass( Class oClass )
+   {
+      return ! oClass.isArray()
+             && ! oClass.getName().startsWith( "java." )
+             && ! oClass.getName().startsWith( "javax." )
+             && ! oClass.getName().startsWith( "org.python." )
+             && ! TemplateModel.class.isAssignableFrom( oClass )
+             && ! String.class.isAssignableFrom( oClass )
+             && ! Number.class.isAssignableFrom( oClass )
+             && ! Date.class.isAssignableFrom( oClass )
+             && ! Boolean.class.isAssignableFrom( oClass )
+             && ! Character.class.isAssignableFrom( oClass )
+             && ! Collection.class.isAssignableFrom( oClass )
+             && ! Map.class.isAssignableFrom( oClass )
+             && ! Iterator.class.isAssignableFrom( oClass )
+             && ! Enumeration.class.isAssignableFrom( oClass )
+             && ! ResourceBundle.class.isAssignableFrom( oClass )
+             && ! org.w3c.dom.Node.class.isAssignableFrom( oClass );
+   }
+
+   private PropertyTable createPropertyTable( Class oClass )
+   {
+      Map                  oAccessorMap   = new HashMap();
+      MethodHandles.Lookup oLookup        = MethodHandles.publicLookup();
+      Set                  oMethodNames   = new HashSet();
+      Method[]             aoMethods      = oClass.getMethods();
+
+      for ( int i = 0; i < aoMethods.length; i++ )
+      {
+         oMethodNames.add( aoMethods[ i ].getName() );
+      }
+
+      if ( isExposeFields() )
+      {
+         Field[] aoFields = oClass.getFields();
+
+         for ( int i = 0; i < aoFields.length; i++ )
+         {
+            if ( ! Modifier.isStatic( aoFields[ i ].getModifiers() ) )
+            {
+               try
+               {
+                  oAccessorMap.put( aoFields[ i ].getName(), oLookup.unreflectGetter( aoFields[ i ] ).asType( ACCESSOR_TYPE ) );
+               }
+               catch ( IllegalAccessException e )
+               {
+                  // left to the model of DefaultObjectWrapper
+               }
+            }
+         }
+      }
+
+      try
+      {
+         PropertyDescriptor[] aoPropertyDescriptors = Introspector.getBeanInfo( oClass ).getPropertyDescriptors();
+
+         for ( int i = 0; i < aoPropertyDescriptors.length; i++ )
+         {
+            PropertyDescriptor   oPropertyDescriptor  = aoPropertyDescriptors[ i ];
+            Method               oReadMethod          = getPublicMethod( oClass, oPropertyDescriptor.getReadMethod() );
+
+            // a property that is shadowed by a method of the same name, and the class property, are left to the
+            // model of DefaultObjectWrapper, so that they are resolved exactly as Freemarker does
+            if ( oReadMethod == null
+                 || oPropertyDescriptor instanceof IndexedPropertyDescriptor
+                 || oPropertyDescriptor.getName().equals( "class" )
+                 || oMethodNames.contains( oPropertyDescriptor.getName() ) )
+            {
+               continue;
+            }
+
+            try
+            {
+               oAccessorMap.put( oPropertyDescriptor.getName(), oLookup.unreflect( oReadMethod ).asType( ACCESSOR_TYPE ) );
+            }
+            catch ( IllegalAccessException e )
+            {
+               // left to the model of DefaultObjectWrapper
+            }
+         }
+      }
+      catch ( IntrospectionException e )
+      {
+         // all keys are left to the model of DefaultObjectWrapper
+      }
+
+      return new PropertyTable( oAccessorMap, oClass.isEnum() ? oClass.getEnumConstants().length : 0 );
+   }
+
+   /**
+    * @return the method, or the method it implements or overrides, declared in a public class or interface,
+    * as Freemarker only calls a getter through a public class
+    */
+   private static Method getPublicMethod( Class oClass, Method oMethod )
+   {
+      if ( oMethod == null || Modifier.isPublic( oMethod.getDeclaringClass().getModifiers() ) )
+      {
+         return oMethod;
+      }
+
+      for ( Class oSuperClass = oClass; oSuperClass != null; oSuperClass = oSuperClass.getSuperclass() )
+      {
+         Method oPublicMethod = getPublicMethod( oSuperClass, oMethod.getName(), oMethod.getParameterTypes() );
+
+         if ( oPublicMethod != null )
+         {
+            return oPublicMethod;
+         }
+      }
+
+      return null;
+   }
+
+   private static Method getPublicMethod( Class oClass, String sName, Class[] aoParameterTypes )
+   {
+      if ( Modifier.isPublic( oClass.getModifiers() ) )
+      {
+         try
+         {
+            Method oMethod = oClass.getMethod( sName, aoParameterTypes );
+
+            if ( Modifier.isPublic( oMethod.getDeclaringClass().getModifiers() ) )
+            {
+               return oMethod;
+            }
+         }
+         catch ( NoSuchMethodException e )
+         {
+            return null;
+         }
+      }
+
+      Class[] aoInterfaces = oClass.getInterfaces();
+
+      for ( int i = 0; i < aoInterfaces.length; i++ )
+      {
+         Method oMethod = getPublicMethod( aoInterfaces[ i ], sName, aoParameterTypes );
+
+         if ( oMethod != null )
+         {
+            return oMethod;
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * The accessors of the properties of a class
+    */
+   private static class PropertyTable
+   {
+      private  Map            _oAccessorMap;
+      private  BeanModel[]    _aoEnumModels;
+
+      private PropertyTable( Map oAccessorMap, int iEnumConstantCount )
+      {
+         _oAccessorMap  = oAccessorMap;
+         _aoEnumModels  = iEnumConstantCount > 0 ? new BeanModel[ iEnumConstantCount ] : null;
+      }
+   }
+
+   /**
+    * The model of a bean, a property in the property table of the bean's class is read through its method handle,
+    * anything else is passed to the model created by DefaultObjectWrapper
+    */
+   private class BeanModel implements TemplateHashModelEx, TemplateScalarModel, AdapterTemplateModel
+   {
+      private final  Object                  _oObject;
+      private final  PropertyTable           _oPropertyTable;
+      private        TemplateHashModelEx     _oDefaultModel;
+
+      private BeanModel( Object oObject, PropertyTable oPropertyTable )
+      {
+         _oObject          = oObject;
+         _oPropertyTable   = oPropertyTable;
+      }
+
+      public TemplateModel get( String sKey ) throws TemplateModelException
+      {
+         MethodHandle oAccessor = ( MethodHandle ) _oPropertyTable._oAccessorMap.get( sKey );
+
+         if ( oAccessor == null )
+         {
+            return getDefaultModel().get( sKey );
+         }
+
+         Object oValue;
+
+         try
+         {
+            oValue = ( Object ) oAccessor.invokeExact( _oObject );
+         }
+         catch ( Error e )
+         {
+            throw e;
+         }
+         catch ( Exception e )
+         {
+            throw new TemplateModelException( "error reading property: " + sKey + " of class: " + _oObject.getClass().getName(), e );
+         }
+         catch ( Throwable e )
+         {
+            throw new TemplateModelException( "error reading property: " + sKey + " of class: " + _oObject.getClass().getName() + ": " + e );
+         }
+
+         return wrap( oValue );
+      }
+
+      public boolean isEmpty() throws TemplateModelException
+      {
+         return getDefaultModel().isEmpty();
+      }
+
+      public int size() throws TemplateModelException
+      {
+         return getDefaultModel().size();
+      }
+
+      public TemplateCollectionModel keys() throws TemplateModelException
+      {
+         return getDefaultModel().keys();
+      }
+
+      public TemplateCollectionModel values() throws TemplateModelException
+      {
+         return getDefaultModel().values();
+      }
+
+      public String getAsString()
+      {
+         return _oObject.toString();
+      }
+
+      public Object getAdaptedObject( Class oHint )
+      {
+         return _oObject;
+      }
+
+      private TemplateHashModelEx getDefaultModel() throws TemplateModelException
+      {
+         // created only when a template uses the bean in a way that the property table does not cover, a race
+         // here only creates a model that is dropped
+         if ( _oDefaultModel == null )
+         {
+            _oDefaultModel = ( TemplateHashModelEx ) FreemarkerCachingObjectWrapper.super.wrap( _oObject );
+         }
+
+         return _oDefaultModel;
+      }
+   }
+
+   /**
+    * An immutable number model, unlike SimpleNumber its field is final, so an instance can be shared by threads
+    */
+   private static class NumberModel implements TemplateNumberModel
+   {
+      private final  Number   _oNumber;
+
+      private NumberModel( Number oNumber )
+      {
+         _oNumber = oNumber;
+      }
+
+      public Number getAsNumber()
+      {
+         return _oNumber;
+      }
+
+      public String toString()
+      {
+         return _oNumber.toString();
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template;
+
+import freemarker.core.Environment;
+import freemarker.template.TemplateDirectiveBody;
+import freemarker.template.TemplateDirectiveModel;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateNumberModel;
+import freemarker.template.TemplateScalarModel;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Internal.
+ * The Freemarker directive that caches the output of its body in the fragment cache, it is registered as a
+ * shared variable named cache, and used as follows:
+ * <pre>
+ *    &lt;@cache key="nav.main" ttl=300&gt;
+ *       ... expensive markup ...
+ *    &lt;/@cache&gt;
+ * </pre>
+ * The key is required, the ttl (in seconds) is optional, without a ttl the fragment is kept until it is
+ * invalidated or evicted.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class FreemarkerFragmentCacheDirective implements TemplateDirectiveModel
+{
+   public static final String DIRECTIVE_NAME = "cache";
+
+   private static final String PARAM_KEY  = "key";
+   private static final String PARAM_TTL  = "ttl";
+
+   private FragmentCache   _oFragmentCache;
+
+   public FreemarkerFragmentCacheDirective( FragmentCache oFragmentCache )
+   {
+      _oFragmentCache = oFragmentCache;
+   }
+
+   public void execute( Environment oEnvironment, Map oParams, TemplateModel[] aoLoopVars, final TemplateDirectiveBody oBody )
+      throws TemplateException, IOException
+   {
+      String   sKey        = null;
+      int      iTimeToLive = 0;
+
+      if ( oBody == null )
+      {
+         return;
+      }
+
+      if ( oParams.get( PARAM_KEY ) instanceof TemplateScalarModel )
+      {
+         sKey = ( ( TemplateScalarModel ) oParams.get( PARAM_KEY ) ).getAsString();
+      }
+
+      if ( sKey == null )
+      {
+         throw new TemplateModelException( DIRECTIVE_NAME + ": the " + PARAM_KEY + " parameter is required and must be a string" );
+      }
+
+      if ( oParams.get( PARAM_TTL ) != null )
+      {
+         if ( ! ( oParams.get( PARAM_TTL ) instanceof TemplateNumberModel ) )
+         {
+            throw new TemplateModelException( DIRECTIVE_NAME + ": the " + PARAM_TTL + " parameter must be a number" );
+         }
+
+         iTimeToLive = ( ( TemplateNumberModel ) oParams.get( PARAM_TTL ) ).getAsNumber().intValue();
+
+         if ( iTimeToLive < 0 )
+         {
+            throw new TemplateModelException( DIRECTIVE_NAME + ": the " + PARAM_TTL + " parameter cannot be negative" );
+         }
+      }
+
+      for ( Iterator oIter = oParams.keySet().iterator(); oIter.hasNext(); )
+      {
+         Object oParamName = oIter.next();
+
+         if ( ! PARAM_KEY.equals( oParamName ) && ! PARAM_TTL.equals( oParamName ) )
+         {
+            throw new TemplateModelException( DIRECTIVE_NAME + ": unsupported parameter: " + oParamName );
+         }
+      }
+
+      String sFragment;
+
+      try
+      {
+         sFragment
+            = _oFragmentCache.render( sKey,
+                                      iTimeToLive,
+                                      new FragmentCache.Renderer()
+                                      {
+                                         public String render() throws Exception
+                                         {
+                                            // the body is rendered in this thread, with the environment of this request
+                                            StringWriter oWriter = new StringWriter();
+
+                                            oBody.render( oWriter );
+
+                                            return oWriter.toString();
+                                         }
+                                      } );
+      }
+      catch ( TemplatingEngineException e )
+      {
+         if ( e.getCause() instanceof TemplateException )
+         {
+            throw ( TemplateException ) e.getCause();
+         }
+
+         throw new TemplateModelException( DIRECTIVE_NAME + ": error rendering fragment: " + sKey, ( Exception ) e.getCause() );
+      }
+
+      oEnvironment.getOut().write( sFragment );
+   }
+}
+
+// EOF
\ No newline at end of file
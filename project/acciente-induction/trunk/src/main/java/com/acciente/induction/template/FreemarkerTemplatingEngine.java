@@ -18,12 +18,18 @@
 package com.acciente.induction.template;
 
 import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.util.BufferPool;
+import com.acciente.induction.util.EncodedSegmentCache;
+import com.acciente.induction.util.EncodingWriter;
 import com.acciente.induction.view.Template;
 import freemarker.cache.ClassTemplateLoader;
 import freemarker.cache.FileTemplateLoader;
 import freemarker.cache.MultiTemplateLoader;
 import freemarker.cache.TemplateLoader;
 import freemarker.cache.WebappTemplateLoader;
+import freemarker.core.TemplateElement;
+import freemarker.core.TextBlock;
 import freemarker.template.Configuration;
 import freemarker.template.DefaultObjectWrapper;
 import freemarker.template.TemplateException;
@@ -32,8 +38,12 @@ import org.apache.commons.logging.LogFactory;
 
 import javax.servlet.ServletConfig;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 
@@ -44,17 +54,50 @@ import java.util.List;
  *
  * @author Adinath Raveendra Raj
  */
-public class FreemarkerTemplatingEngine implements TemplatingEngine
+public class FreemarkerTemplatingEngine implements OutputStreamTemplatingEngine
 {
-   private  Configuration  _oConfiguration;
+   // the name of the custom attribute that marks a parsed template whose static text was registered
+   private static final String   STATIC_TEXT_REGISTERED  = "com.acciente.induction.static-text-registered";
+
+   // the field of a text block that holds its static text, null if it is not accessible
+   private static final Field    __oTextBlockTextField   = getTextBlockTextField();
+
+   private  Configuration        _oConfiguration;
+
+   private  EncodedSegmentCache  _oEncodedSegmentCache   = new EncodedSegmentCache();
+   private  BufferPool           _oEncodeBufferPool;
 
    public FreemarkerTemplatingEngine( Config.Templating        oConfig,
                                       ClassLoader              oClassLoader,
                                       ServletConfig            oServletConfig )
       throws IOException, ClassNotFoundException
+   {
+      this( oConfig,
+            oClassLoader,
+            oServletConfig,
+            new Config.BufferPool(),
+            new FragmentCache( oConfig.getFragmentCache(), new Statistics() ),
+            new Statistics() );
+   }
+
+   public FreemarkerTemplatingEngine( Config.Templating        oConfig,
+                                      ClassLoader              oClassLoader,
+                                      ServletConfig            oServletConfig,
+                                      Config.BufferPool        oBufferPoolConfig,
+                                      FragmentCache            oFragmentCache,
+                                      Statistics               oStatistics )
+      throws IOException, ClassNotFoundException
    {
       Log oLog;
 
+      // the encode buffers only collect the bytes between writes to the output stream, so they are small
+      _oEncodeBufferPool = new BufferPool( "buffer-pool.template.encoder",
+                                           BufferPool.BYTE_ARRAY,
+                                           8 * 1024,
+                                           oBufferPoolConfig.getMaxPooledBuffers(),
+                                           8 * 1024,
+                                           oStatistics );
+
       oLog = LogFactory.getLog( FreemarkerTemplatingEngine.class );
 
       _oConfiguration = new Configuration();
@@ -114,8 +157,12 @@ public class FreemarkerTemplatingEngine implements TemplatingEngine
       oTemplateLoaderList.toArray( oTemplateLoaderArray );
       _oConfiguration.setTemplateLoader( new MultiTemplateLoader( oTemplateLoaderArray ) );
 
-      // next set the object wrapper handler
-      DefaultObjectWrapper oDefaultObjectWrapper = new DefaultObjectWrapper();
+      // next set the object wrapper handler, the caching wrapper resolves the properties of each class once
+      DefaultObjectWrapper oDefaultObjectWrapper = oConfig.isObjectWrapperCaching()
+                                                   ? new FreemarkerCachingObjectWrapper()
+                                                   : new DefaultObjectWrapper();
+
+      oLog.info( "freemarker > object wrapper > " + oConfig.getObjectWrapper() );
 
       // should publics fields in views be available in the templates
       oDefaultObjectWrapper.setExposeFields( oConfig.isExposePublicFields() );
@@ -134,15 +181,21 @@ public class FreemarkerTemplatingEngine implements TemplatingEngine
       {
          oLog.warn( "freemarker > no locale configured, using default > " + _oConfiguration.getLocale() );
       }
+
+      // the fragment cache directive is available in all templates as <@cache key=... ttl=...>
+      _oConfiguration.setSharedVariable( FreemarkerFragmentCacheDirective.DIRECTIVE_NAME,
+                                         new FreemarkerFragmentCacheDirective( oFragmentCache ) );
    }
 
    public void process( Template oTemplate, Writer oWriter ) throws TemplatingEngineException, IOException
    {
       try
       {
-         _oConfiguration
-            .getTemplate( oTemplate.getTemplateName() )
-               .process( oTemplate, oWriter );
+         freemarker.template.Template oFreemarkerTemplate = _oConfiguration.getTemplate( oTemplate.getTemplateName() );
+
+         registerStaticText( oFreemarkerTemplate );
+
+         oFreemarkerTemplate.process( oTemplate, oWriter );
       }
       catch ( TemplateException e )
       {
@@ -150,6 +203,89 @@ public class FreemarkerTemplatingEngine implements TemplatingEngine
       }
    }
 
+   public void process( Template oTemplate, OutputStream oOutputStream, String sCharacterEncoding ) throws TemplatingEngineException, IOException
+   {
+      // the static text of a parsed freemarker template is written as the same char array on every render,
+      // the encoding writer uses this to encode the registered static text once per template instead of once
+      // per request
+      byte[]         ayEncodeBuffer = ( byte[] ) _oEncodeBufferPool.acquire();
+      EncodingWriter oWriter        = new EncodingWriter( oOutputStream,
+                                                          Charset.forName( sCharacterEncoding ),
+                                                          _oEncodedSegmentCache,
+                                                          ayEncodeBuffer );
+
+      try
+      {
+         process( oTemplate, oWriter );
+
+         oWriter.close();
+      }
+      finally
+      {
+         _oEncodeBufferPool.release( ayEncodeBuffer );
+      }
+   }
+
+   /**
+    * Registers the static text of a parsed template with the encoded segment cache, once per parsed template
+    *
+    * @param oFreemarkerTemplate a parsed template
+    */
+   private void registerStaticText( freemarker.template.Template oFreemarkerTemplate )
+   {
+      if ( __oTextBlockTextField != null && oFreemarkerTemplate.getCustomAttribute( STATIC_TEXT_REGISTERED ) == null )
+      {
+         // a race here only registers the same text blocks twice, which is harmless
+         registerStaticText( oFreemarkerTemplate.getRootTreeNode() );
+
+         oFreemarkerTemplate.setCustomAttribute( STATIC_TEXT_REGISTERED, Boolean.TRUE );
+      }
+   }
+
+   private void registerStaticText( TemplateElement oTemplateElement )
+   {
+      if ( oTemplateElement instanceof TextBlock )
+      {
+         try
+         {
+            char[] acText = ( char[] ) __oTextBlockTextField.get( oTemplateElement );
+
+            if ( acText.length >= EncodingWriter.MIN_CACHED_SEGMENT_LENGTH )
+            {
+               _oEncodedSegmentCache.registerSegment( acText );
+            }
+         }
+         catch ( IllegalAccessException e )
+         {
+            // not expected since the field was made accessible, the text is then encoded on every write
+         }
+      }
+
+      for ( Enumeration oChildren = oTemplateElement.children(); oChildren.hasMoreElements(); )
+      {
+         registerStaticText( ( TemplateElement ) oChildren.nextElement() );
+      }
+   }
+
+   private static Field getTextBlockTextField()
+   {
+      try
+      {
+         Field oField = TextBlock.class.getDeclaredField( "text" );
+
+         oField.setAccessible( true );
+
+         return oField.getType() == char[].class ? oField : null;
+      }
+      catch ( Exception e )
+      {
+         // the static text of freemarker templates is then encoded on every write
+         LogFactory.getLog( FreemarkerTemplatingEngine.class ).warn( "freemarker > static text of templates is not accessible, it will not be pre-encoded", e );
+
+         return null;
+      }
+   }
+
    /**
     * This method was added to allow classes to extend this class to modify the Freemarker configuration
     * @return
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template;
+
+import com.acciente.induction.view.Template;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A templating engine implements this interface, in addition to the TemplatingEngine interface, if it can
+ * render a template directly to bytes. When the configured engine implements this interface the template
+ * views are rendered through this method, which avoids encoding the complete page output on every request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface OutputStreamTemplatingEngine extends TemplatingEngine
+{
+   /**
+    * This method is used to process a template to an output stream via this instance of the templating engine
+    *
+    * @param oTemplate the template object to process
+    * @param oOutputStream the stream that receives the encoded output, it is not closed by this method
+    * @param sCharacterEncoding the name of the charset in which to encode the output
+    */
+   public void process( Template oTemplate, OutputStream oOutputStream, String sCharacterEncoding ) throws TemplatingEngineException, IOException;
+}
+
+// EOF
\ No newline at end of file
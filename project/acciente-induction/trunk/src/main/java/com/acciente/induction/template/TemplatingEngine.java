@@ -32,6 +32,9 @@ import java.io.Writer;
  *     following types:<p>
  *     - javax.servlet.ServletConfig<p>
  *     - com.acciente.induction.init.config.Config.Templating<p>
+ *     - com.acciente.induction.init.config.Config.BufferPool<p>
+ *     - com.acciente.induction.template.FragmentCache<p>
+ *     - com.acciente.induction.statistics.Statistics<p>
  *
  * @created Apr 17, 2008
  *
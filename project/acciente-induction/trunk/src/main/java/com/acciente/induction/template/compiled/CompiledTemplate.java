@@ -0,0 +1,928 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+import com.acciente.induction.template.FragmentCache;
+import com.acciente.induction.template.TemplatingEngineException;
+import com.acciente.induction.util.EncodedSegmentCache;
+import com.acciente.induction.util.EncodingWriter;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.net.URLEncoder;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The superclass of the classes generated for compiled templates. It provides the methods used by the
+ * generated code to output and convert values, with the semantics of the corresponding Freemarker operations.
+ * <p>
+ * The generated code accesses the properties of a value through its getters when the class of the value is
+ * known when the template is compiled, the properties of other values are accessed through the property
+ * method of this class, which looks up and caches the getters by class.
+ * <p>
+ * An instance is compiled for a template and a view class and is shared by all the requests that render the
+ * template for that view class. This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public abstract class CompiledTemplate
+{
+   private static final Object      NO_PROPERTY          = new Object();
+   private static final ClassValue  __oPropertyTables    = new ClassValue()
+                                                           {
+                                                              protected Object computeValue( Class oClass )
+                                                              {
+                                                                 return new ConcurrentHashMap();
+                                                              }
+                                                           };
+   private static final ThreadLocal __oNumberFormat      = new ThreadLocal();
+
+   private  String         _sTemplateName;
+   private  Locale         _oLocale;
+   private  boolean        _bExposePublicFields;
+   private  FragmentCache  _oFragmentCache;
+   private  List           _oSourceList;
+
+   /**
+    * Called by the template compiler once, after creating the instance
+    */
+   void init( String sTemplateName, Locale oLocale, boolean bExposePublicFields, FragmentCache oFragmentCache, List oSourceList )
+   {
+      _sTemplateName       = sTemplateName;
+      _oLocale             = oLocale;
+      _bExposePublicFields = bExposePublicFields;
+      _oFragmentCache      = oFragmentCache;
+      _oSourceList         = oSourceList;
+   }
+
+   /**
+    * @return the name of the template
+    */
+   public String getTemplateName()
+   {
+      return _sTemplateName;
+   }
+
+   /**
+    * @return true if the template, or a template it includes, was changed since it was compiled
+    */
+   public boolean isModified()
+   {
+      for ( int i = 0; i < _oSourceList.size(); i++ )
+      {
+         if ( ( ( TemplateLoader.Source ) _oSourceList.get( i ) ).isModified() )
+         {
+            return true;
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * Registers the static text of this template with an encoded segment cache, so that a writer that encodes
+    * its output can write the text as cached encoded bytes
+    *
+    * @param oEncodedSegmentCache the cache
+    */
+   public final void registerStaticText( EncodedSegmentCache oEncodedSegmentCache )
+   {
+      char[][] aacStaticText = getStaticText();
+
+      for ( int i = 0; i < aacStaticText.length; i++ )
+      {
+         if ( aacStaticText[ i ].length >= EncodingWriter.MIN_CACHED_SEGMENT_LENGTH )
+         {
+            oEncodedSegmentCache.registerSegment( aacStaticText[ i ] );
+         }
+      }
+   }
+
+   /**
+    * Renders this template
+    *
+    * @param oRoot the view, an instance of the view class for which this template was compiled
+    * @param oWriter the writer that receives the output
+    * @throws TemplatingEngineException if the template used an undefined value or a value of an unexpected type,
+    * or a getter failed
+    * @throws IOException if the writer failed
+    */
+   public final void process( Object oRoot, Writer oWriter ) throws TemplatingEngineException, IOException
+   {
+      try
+      {
+         execute( oRoot, oWriter );
+      }
+      catch ( TemplatingEngineException e )
+      {
+         throw e;
+      }
+      catch ( IOException e )
+      {
+         throw e;
+      }
+      catch ( InvocationTargetException e )
+      {
+         throw new TemplatingEngineException( "template " + _sTemplateName + ": error in getter", e.getTargetException() );
+      }
+      catch ( Exception e )
+      {
+         throw new TemplatingEngineException( "template " + _sTemplateName + ": error", e );
+      }
+   }
+
+   /**
+    * Implemented by the generated code to render the template
+    */
+   protected abstract void execute( Object oRoot, Writer oWriter ) throws Exception;
+
+   /**
+    * Implemented by the generated code to return the char arrays that hold the static text of the template
+    */
+   protected abstract char[][] getStaticText();
+
+   // methods used by the generated code, a description argument is a template location followed by the
+   // text of the expression and is used in error messages
+
+   protected static char[] chars( String[] asParts )
+   {
+      StringBuffer oBuffer = new StringBuffer();
+
+      for ( int i = 0; i < asParts.length; i++ )
+      {
+         oBuffer.append( asParts[ i ] );
+      }
+
+      return oBuffer.toString().toCharArray();
+   }
+
+   protected static Object nn( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      if ( oValue == null )
+      {
+         throw new TemplatingEngineException( sDescription + " is undefined" );
+      }
+
+      return oValue;
+   }
+
+   protected static boolean bool( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      if ( ! ( nn( oValue, sDescription ) instanceof Boolean ) )
+      {
+         throw new TemplatingEngineException( sDescription + " is not a boolean, it is a " + oValue.getClass().getName() );
+      }
+
+      return ( ( Boolean ) oValue ).booleanValue();
+   }
+
+   protected static Object dflt( Object oValue, Object oDefault )
+   {
+      return oValue != null ? oValue : oDefault;
+   }
+
+   /**
+    * Returns a property of a value, the value is a map or an object with a getter (or a public field, if
+    * public fields are exposed) for the property
+    *
+    * @return the value of the property, or null if the value or the property is null or if there is no
+    * such property
+    */
+   protected final Object property( Object oValue, String sName ) throws IllegalAccessException, InvocationTargetException
+   {
+      if ( oValue == null )
+      {
+         return null;
+      }
+
+      if ( oValue instanceof Map )
+      {
+         return ( ( Map ) oValue ).get( sName );
+      }
+
+      Map      oPropertyTable = ( Map ) __oPropertyTables.get( oValue.getClass() );
+      Object   oAccessor      = oPropertyTable.get( sName );
+
+      if ( oAccessor == null )
+      {
+         oAccessor = findAccessor( oValue.getClass(), sName, true );
+
+         if ( oAccessor == null )
+         {
+            oAccessor = NO_PROPERTY;
+         }
+         else if ( ! Modifier.isPublic( ( ( Member ) oAccessor ).getDeclaringClass().getModifiers() ) )
+         {
+            // a public getter of a class that is not public, as is common for the implementations of an interface
+            ( ( AccessibleObject ) oAccessor ).setAccessible( true );
+         }
+
+         oPropertyTable.put( sName, oAccessor );
+      }
+
+      if ( oAccessor instanceof Method )
+      {
+         return ( ( Method ) oAccessor ).invoke( oValue, ( Object[] ) null );
+      }
+
+      if ( oAccessor instanceof Field && _bExposePublicFields )
+      {
+         return ( ( Field ) oAccessor ).get( oValue );
+      }
+
+      return null;
+   }
+
+   protected final void write( Writer oWriter, String sValue, String sDescription ) throws IOException, TemplatingEngineException
+   {
+      oWriter.write( ( String ) nn( sValue, sDescription ) );
+   }
+
+   protected final void write( Writer oWriter, Object oValue, String sDescription ) throws IOException, TemplatingEngineException
+   {
+      if ( oValue instanceof Boolean )
+      {
+         // as in Freemarker, a boolean must be converted with ?string to be output
+         throw new TemplatingEngineException( sDescription + " is a boolean, it must be converted to a string with ?string" );
+      }
+
+      oWriter.write( string( oValue, sDescription ) );
+   }
+
+   protected final void write( Writer oWriter, long lValue ) throws IOException
+   {
+      oWriter.write( getNumberFormat().format( lValue ) );
+   }
+
+   protected final void write( Writer oWriter, double dValue ) throws IOException
+   {
+      oWriter.write( getNumberFormat().format( dValue ) );
+   }
+
+   protected final void write( Writer oWriter, char cValue ) throws IOException
+   {
+      oWriter.write( cValue );
+   }
+
+   /**
+    * Converts a value to a string as an interpolation would output it: numbers are formatted for the locale
+    */
+   protected final String string( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      if ( nn( oValue, sDescription ) instanceof String )
+      {
+         return ( String ) oValue;
+      }
+
+      if ( oValue instanceof Number )
+      {
+         return getNumberFormat().format( oValue );
+      }
+
+      return oValue.toString();
+   }
+
+   protected final String string( String sValue, String sDescription ) throws TemplatingEngineException
+   {
+      return ( String ) nn( sValue, sDescription );
+   }
+
+   protected final String string( long lValue )
+   {
+      return getNumberFormat().format( lValue );
+   }
+
+   protected final String string( double dValue )
+   {
+      return getNumberFormat().format( dValue );
+   }
+
+   protected final String string( boolean bValue )
+   {
+      return bValue ? "true" : "false";
+   }
+
+   protected final String string( char cValue )
+   {
+      return String.valueOf( cValue );
+   }
+
+   /**
+    * Converts a value to a string in the format that does not depend on the locale, the ?c built-in
+    */
+   protected static String c( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      if ( nn( oValue, sDescription ) instanceof Boolean )
+      {
+         return oValue.toString();
+      }
+
+      if ( ! ( oValue instanceof Number ) )
+      {
+         throw new TemplatingEngineException( sDescription + " is not a number or a boolean, it is a " + oValue.getClass().getName() );
+      }
+
+      if ( isIntegral( ( Number ) oValue ) )
+      {
+         return oValue.toString();
+      }
+
+      BigDecimal oDecimal = toBigDecimal( ( Number ) oValue );
+
+      return oDecimal.signum() == 0 ? "0" : oDecimal.stripTrailingZeros().toPlainString();
+   }
+
+   protected static String c( long lValue )
+   {
+      return String.valueOf( lValue );
+   }
+
+   protected static String c( double dValue )
+   {
+      if ( dValue == Math.rint( dValue ) && Math.abs( dValue ) < 1e15 )
+      {
+         return String.valueOf( ( long ) dValue );
+      }
+
+      return BigDecimal.valueOf( dValue ).stripTrailingZeros().toPlainString();
+   }
+
+   protected static String c( boolean bValue )
+   {
+      return bValue ? "true" : "false";
+   }
+
+   protected static String html( String sValue )
+   {
+      return escape( sValue, false );
+   }
+
+   protected static String xml( String sValue )
+   {
+      return escape( sValue, true );
+   }
+
+   protected static String jsString( String sValue )
+   {
+      StringBuffer oBuffer = new StringBuffer( sValue.length() + 16 );
+
+      for ( int i = 0; i < sValue.length(); i++ )
+      {
+         char cChar = sValue.charAt( i );
+
+         switch ( cChar )
+         {
+            case '\\':  oBuffer.append( "\\\\" );  break;
+            case '"':   oBuffer.append( "\\\"" );  break;
+            case '\'':  oBuffer.append( "\\'" );   break;
+            case '\n':  oBuffer.append( "\\n" );   break;
+            case '\r':  oBuffer.append( "\\r" );   break;
+            case '\t':  oBuffer.append( "\\t" );   break;
+            case '\b':  oBuffer.append( "\\b" );   break;
+            case '\f':  oBuffer.append( "\\f" );   break;
+            case '<':   oBuffer.append( "\\x3C" ); break;
+            case '>':   oBuffer.append( "\\x3E" ); break;
+            default:    oBuffer.append( cChar );
+         }
+      }
+
+      return oBuffer.toString();
+   }
+
+   protected static String url( String sValue ) throws UnsupportedEncodingException
+   {
+      // as in Freemarker a space is escaped as %20, not as +
+      return URLEncoder.encode( sValue, "UTF-8" ).replace( "+", "%20" );
+   }
+
+   protected static String capFirst( String sValue )
+   {
+      int i = 0;
+
+      while ( i < sValue.length() && Character.isWhitespace( sValue.charAt( i ) ) )
+      {
+         i++;
+      }
+
+      if ( i == sValue.length() )
+      {
+         return sValue;
+      }
+
+      return sValue.substring( 0, i ) + Character.toUpperCase( sValue.charAt( i ) ) + sValue.substring( i + 1 );
+   }
+
+   protected final String upperCase( String sValue )
+   {
+      return sValue.toUpperCase( getLocale() );
+   }
+
+   protected final String lowerCase( String sValue )
+   {
+      return sValue.toLowerCase( getLocale() );
+   }
+
+   protected static int size( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      if ( nn( oValue, sDescription ) instanceof Collection )
+      {
+         return ( ( Collection ) oValue ).size();
+      }
+
+      if ( oValue instanceof Map )
+      {
+         return ( ( Map ) oValue ).size();
+      }
+
+      if ( oValue.getClass().isArray() )
+      {
+         return Array.getLength( oValue );
+      }
+
+      throw new TemplatingEngineException( sDescription + " is not a sequence or a hash, it is a " + oValue.getClass().getName() );
+   }
+
+   protected static boolean hasContent( Object oValue )
+   {
+      if ( oValue == null )
+      {
+         return false;
+      }
+
+      if ( oValue instanceof String )
+      {
+         return ( ( String ) oValue ).length() > 0;
+      }
+
+      if ( oValue instanceof Collection )
+      {
+         return ! ( ( Collection ) oValue ).isEmpty();
+      }
+
+      if ( oValue instanceof Map )
+      {
+         return ! ( ( Map ) oValue ).isEmpty();
+      }
+
+      if ( oValue.getClass().isArray() )
+      {
+         return Array.getLength( oValue ) > 0;
+      }
+
+      return true;
+   }
+
+   protected static Collection keys( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      return toMap( oValue, sDescription ).keySet();
+   }
+
+   protected static Collection values( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      return toMap( oValue, sDescription ).values();
+   }
+
+   /**
+    * Returns an iterator over the items of a sequence: an iterable, an iterator, an enumeration or an array
+    */
+   protected static Iterator iterator( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      if ( nn( oValue, sDescription ) instanceof Iterable )
+      {
+         return ( ( Iterable ) oValue ).iterator();
+      }
+
+      if ( oValue instanceof Iterator )
+      {
+         return ( Iterator ) oValue;
+      }
+
+      if ( oValue instanceof Enumeration )
+      {
+         return Collections.list( ( Enumeration ) oValue ).iterator();
+      }
+
+      if ( oValue instanceof Object[] )
+      {
+         return Arrays.asList( ( Object[] ) oValue ).iterator();
+      }
+
+      if ( oValue.getClass().isArray() )
+      {
+         List oList = new ArrayList( Array.getLength( oValue ) );
+
+         for ( int i = 0; i < Array.getLength( oValue ); i++ )
+         {
+            oList.add( Array.get( oValue, i ) );
+         }
+
+         return oList.iterator();
+      }
+
+      if ( oValue instanceof Map )
+      {
+         throw new TemplatingEngineException( sDescription + " is a hash, list its ?keys or its ?values" );
+      }
+
+      throw new TemplatingEngineException( sDescription + " is not a sequence, it is a " + oValue.getClass().getName() );
+   }
+
+   /**
+    * Compares two values for equality: numbers are compared by value, and strings, booleans and dates are
+    * compared with values of the same type
+    */
+   protected static boolean eq( Object oLeft, Object oRight, String sDescription ) throws TemplatingEngineException
+   {
+      nn( oLeft, sDescription );
+      nn( oRight, sDescription );
+
+      if ( oLeft instanceof Number && oRight instanceof Number )
+      {
+         return compareNumbers( ( Number ) oLeft, ( Number ) oRight ) == 0;
+      }
+
+      if ( oLeft instanceof Character )
+      {
+         oLeft = oLeft.toString();
+      }
+
+      if ( oRight instanceof Character )
+      {
+         oRight = oRight.toString();
+      }
+
+      if ( ( oLeft instanceof String && oRight instanceof String )
+           || ( oLeft instanceof Boolean && oRight instanceof Boolean )
+           || ( oLeft instanceof Date && oRight instanceof Date ) )
+      {
+         return oLeft.equals( oRight );
+      }
+
+      if ( oLeft.getClass() == oRight.getClass() )
+      {
+         // for example two enum values
+         return oLeft.equals( oRight );
+      }
+
+      throw new TemplatingEngineException( sDescription + ": cannot compare a " + oLeft.getClass().getName() + " with a " + oRight.getClass().getName() );
+   }
+
+   /**
+    * Compares two numbers or two dates
+    *
+    * @return a negative number, zero or a positive number if the first value is less than, equal to or
+    * greater than the second value
+    */
+   protected static int compare( Object oLeft, Object oRight, String sDescription ) throws TemplatingEngineException
+   {
+      nn( oLeft, sDescription );
+      nn( oRight, sDescription );
+
+      if ( oLeft instanceof Number && oRight instanceof Number )
+      {
+         return compareNumbers( ( Number ) oLeft, ( Number ) oRight );
+      }
+
+      if ( oLeft instanceof Date && oRight instanceof Date )
+      {
+         return ( ( Date ) oLeft ).compareTo( ( Date ) oRight );
+      }
+
+      throw new TemplatingEngineException( sDescription + ": only numbers and dates can be compared with < > <= >=" );
+   }
+
+   /**
+    * Adds two numbers, or concatenates two values if either is a string
+    */
+   protected final Object add( Object oLeft, Object oRight, String sDescription ) throws TemplatingEngineException
+   {
+      if ( nn( oLeft, sDescription ) instanceof Number && nn( oRight, sDescription ) instanceof Number )
+      {
+         return arithmetic( '+', oLeft, oRight, sDescription );
+      }
+
+      if ( oLeft instanceof String || oRight instanceof String || oLeft instanceof Character || oRight instanceof Character )
+      {
+         return string( oLeft, sDescription ) + string( oRight, sDescription );
+      }
+
+      throw new TemplatingEngineException( sDescription + ": cannot add a " + oLeft.getClass().getName() + " and a " + oRight.getClass().getName() );
+   }
+
+   /**
+    * Applies an arithmetic operator to two numbers, the result is a long if both numbers are integral and
+    * the operator is not /, or the division has no remainder
+    *
+    * @param cOperator one of: + - * / %
+    */
+   protected static Number arithmetic( char cOperator, Object oLeft, Object oRight, String sDescription ) throws TemplatingEngineException
+   {
+      Number oLeftNumber   = number( oLeft, sDescription );
+      Number oRightNumber  = number( oRight, sDescription );
+
+      if ( isIntegral( oLeftNumber ) && isIntegral( oRightNumber ) && ! ( oLeftNumber instanceof BigInteger || oRightNumber instanceof BigInteger ) )
+      {
+         long lLeft  = oLeftNumber.longValue();
+         long lRight = oRightNumber.longValue();
+
+         switch ( cOperator )
+         {
+            case '+':   return new Long( lLeft + lRight );
+            case '-':   return new Long( lLeft - lRight );
+            case '*':   return new Long( lLeft * lRight );
+            case '%':   return new Long( lLeft % lRight );
+            default:
+               if ( lRight != 0 && lLeft % lRight == 0 )
+               {
+                  return new Long( lLeft / lRight );
+               }
+
+               return new Double( ( double ) lLeft / lRight );
+         }
+      }
+
+      if ( oLeftNumber instanceof BigDecimal || oRightNumber instanceof BigDecimal
+           || oLeftNumber instanceof BigInteger || oRightNumber instanceof BigInteger )
+      {
+         BigDecimal oLeftDecimal  = toBigDecimal( oLeftNumber );
+         BigDecimal oRightDecimal = toBigDecimal( oRightNumber );
+
+         switch ( cOperator )
+         {
+            case '+':   return oLeftDecimal.add( oRightDecimal );
+            case '-':   return oLeftDecimal.subtract( oRightDecimal );
+            case '*':   return oLeftDecimal.multiply( oRightDecimal );
+            case '%':   return oLeftDecimal.remainder( oRightDecimal );
+            default:    return oLeftDecimal.divide( oRightDecimal, MathContext.DECIMAL64 );
+         }
+      }
+
+      double dLeft  = oLeftNumber.doubleValue();
+      double dRight = oRightNumber.doubleValue();
+
+      switch ( cOperator )
+      {
+         case '+':   return new Double( dLeft + dRight );
+         case '-':   return new Double( dLeft - dRight );
+         case '*':   return new Double( dLeft * dRight );
+         case '%':   return new Double( dLeft % dRight );
+         default:    return new Double( dLeft / dRight );
+      }
+   }
+
+   protected static Number number( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      if ( ! ( nn( oValue, sDescription ) instanceof Number ) )
+      {
+         throw new TemplatingEngineException( sDescription + " is not a number, it is a " + oValue.getClass().getName() );
+      }
+
+      return ( Number ) oValue;
+   }
+
+   /**
+    * Renders a fragment through the fragment cache, the cache directive
+    */
+   protected final String fragment( Object oKey, Object oTimeToLive, FragmentCache.Renderer oRenderer, String sDescription )
+      throws IOException, TemplatingEngineException
+   {
+      int iTimeToLive = 0;
+
+      if ( ! ( oKey instanceof String ) )
+      {
+         throw new TemplatingEngineException( sDescription + ": the key parameter is required and must be a string" );
+      }
+
+      if ( oTimeToLive != null )
+      {
+         if ( ! ( oTimeToLive instanceof Number ) )
+         {
+            throw new TemplatingEngineException( sDescription + ": the ttl parameter must be a number" );
+         }
+
+         iTimeToLive = ( ( Number ) oTimeToLive ).intValue();
+
+         if ( iTimeToLive < 0 )
+         {
+            throw new TemplatingEngineException( sDescription + ": the ttl parameter cannot be negative" );
+         }
+      }
+
+      return _oFragmentCache.render( ( String ) oKey, iTimeToLive, oRenderer );
+   }
+
+   /**
+    * Finds the getter, or the public field, that provides a property of the instances of a class. The getters
+    * are found with the same rules as used by Freemarker.
+    *
+    * @param oClass the class
+    * @param sName the name of the property
+    * @param bIncludeFields true if a public field is returned when there is no getter
+    * @return a Method, a Field or null if the class does not have the property
+    */
+   static Object findAccessor( Class oClass, String sName, boolean bIncludeFields )
+   {
+      try
+      {
+         PropertyDescriptor[] aoPropertyDescriptors = Introspector.getBeanInfo( oClass ).getPropertyDescriptors();
+
+         for ( int i = 0; i < aoPropertyDescriptors.length; i++ )
+         {
+            if ( aoPropertyDescriptors[ i ].getName().equals( sName ) && aoPropertyDescriptors[ i ].getReadMethod() != null )
+            {
+               return aoPropertyDescriptors[ i ].getReadMethod();
+            }
+         }
+      }
+      catch ( IntrospectionException e )
+      {
+         // treated as a class without properties
+      }
+
+      if ( bIncludeFields )
+      {
+         try
+         {
+            Field oField = oClass.getField( sName );
+
+            if ( ! Modifier.isStatic( oField.getModifiers() ) )
+            {
+               return oField;
+            }
+         }
+         catch ( NoSuchFieldException e )
+         {
+            // no field either
+         }
+      }
+
+      return null;
+   }
+
+   private Locale getLocale()
+   {
+      return _oLocale != null ? _oLocale : Locale.getDefault();
+   }
+
+   private NumberFormat getNumberFormat()
+   {
+      // a number format is not thread safe, so each thread keeps one for the last locale it used
+      Object[] aoNumberFormat = ( Object[] ) __oNumberFormat.get();
+      Locale   oLocale        = getLocale();
+
+      if ( aoNumberFormat == null || ! aoNumberFormat[ 0 ].equals( oLocale ) )
+      {
+         aoNumberFormat = new Object[]{ oLocale, NumberFormat.getNumberInstance( oLocale ) };
+
+         __oNumberFormat.set( aoNumberFormat );
+      }
+
+      return ( NumberFormat ) aoNumberFormat[ 1 ];
+   }
+
+   private static Map toMap( Object oValue, String sDescription ) throws TemplatingEngineException
+   {
+      if ( ! ( nn( oValue, sDescription ) instanceof Map ) )
+      {
+         throw new TemplatingEngineException( sDescription + " is not a hash, it is a " + oValue.getClass().getName() );
+      }
+
+      return ( Map ) oValue;
+   }
+
+   private static String escape( String sValue, boolean bEscapeApostrophe )
+   {
+      StringBuffer oBuffer = null;
+
+      for ( int i = 0; i < sValue.length(); i++ )
+      {
+         char     cChar          = sValue.charAt( i );
+         String   sReplacement;
+
+         switch ( cChar )
+         {
+            case '<':   sReplacement = "&lt;";     break;
+            case '>':   sReplacement = "&gt;";     break;
+            case '&':   sReplacement = "&amp;";    break;
+            case '"':   sReplacement = "&quot;";   break;
+            case '\'':  sReplacement = bEscapeApostrophe ? "&apos;" : null; break;
+            default:    sReplacement = null;
+         }
+
+         if ( sReplacement != null && oBuffer == null )
+         {
+            // most values need no escaping, so the buffer is only created at the first escaped character
+            oBuffer = new StringBuffer( sValue.length() + 16 );
+            oBuffer.append( sValue, 0, i );
+         }
+
+         if ( oBuffer != null )
+         {
+            if ( sReplacement != null )
+            {
+               oBuffer.append( sReplacement );
+            }
+            else
+            {
+               oBuffer.append( cChar );
+            }
+         }
+      }
+
+      return oBuffer == null ? sValue : oBuffer.toString();
+   }
+
+   private static boolean isIntegral( Number oNumber )
+   {
+      return oNumber instanceof Long
+             || oNumber instanceof Integer
+             || oNumber instanceof Short
+             || oNumber instanceof Byte
+             || oNumber instanceof BigInteger;
+   }
+
+   private static int compareNumbers( Number oLeft, Number oRight )
+   {
+      if ( isIntegral( oLeft ) && isIntegral( oRight ) && ! ( oLeft instanceof BigInteger || oRight instanceof BigInteger ) )
+      {
+         long lLeft  = oLeft.longValue();
+         long lRight = oRight.longValue();
+
+         return lLeft < lRight ? -1 : ( lLeft == lRight ? 0 : 1 );
+      }
+
+      if ( oLeft instanceof Double || oLeft instanceof Float || oRight instanceof Double || oRight instanceof Float )
+      {
+         if ( ! ( oLeft instanceof BigDecimal || oRight instanceof BigDecimal ) )
+         {
+            return Double.compare( oLeft.doubleValue(), oRight.doubleValue() );
+         }
+      }
+
+      return toBigDecimal( oLeft ).compareTo( toBigDecimal( oRight ) );
+   }
+
+   private static BigDecimal toBigDecimal( Number oNumber )
+   {
+      if ( oNumber instanceof BigDecimal )
+      {
+         return ( BigDecimal ) oNumber;
+      }
+
+      if ( oNumber instanceof BigInteger )
+      {
+         return new BigDecimal( ( BigInteger ) oNumber );
+      }
+
+      if ( isIntegral( oNumber ) )
+      {
+         return BigDecimal.valueOf( oNumber.longValue() );
+      }
+
+      return new BigDecimal( oNumber.toString() );
+   }
+}
+
+// EOF
\ No newline at end of file
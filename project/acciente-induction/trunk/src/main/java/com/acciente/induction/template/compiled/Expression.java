@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+/**
+ * Internal.
+ * The expressions of a compiled template, as parsed from the template source.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+abstract class Expression
+{
+   private  int      _iLine;
+   private  String   _sText;
+
+   protected Expression( int iLine, String sText )
+   {
+      _iLine   = iLine;
+      _sText   = sText;
+   }
+
+   /**
+    * @return the line of the template on which this expression starts
+    */
+   public int getLine()
+   {
+      return _iLine;
+   }
+
+   /**
+    * @return the source text of this expression, used in error messages
+    */
+   public String getText()
+   {
+      return _sText;
+   }
+
+   /**
+    * A string, number or boolean literal
+    */
+   static class Literal extends Expression
+   {
+      private  Object   _oValue;
+
+      Literal( int iLine, String sText, Object oValue )
+      {
+         super( iLine, sText );
+
+         _oValue = oValue;
+      }
+
+      /**
+       * @return a String, a Long, a Double or a Boolean
+       */
+      public Object getValue()
+      {
+         return _oValue;
+      }
+   }
+
+   /**
+    * A reference to a variable: a loop variable, a macro parameter, an assigned variable or a property of
+    * the view
+    */
+   static class Variable extends Expression
+   {
+      private  String   _sName;
+
+      Variable( int iLine, String sName )
+      {
+         super( iLine, sName );
+
+         _sName = sName;
+      }
+
+      public String getName()
+      {
+         return _sName;
+      }
+   }
+
+   /**
+    * The access of a property of a value, as in user.name
+    */
+   static class Property extends Expression
+   {
+      private  Expression  _oTarget;
+      private  String      _sName;
+
+      Property( Expression oTarget, String sName )
+      {
+         super( oTarget.getLine(), oTarget.getText() + "." + sName );
+
+         _oTarget = oTarget;
+         _sName   = sName;
+      }
+
+      public Expression getTarget()
+      {
+         return _oTarget;
+      }
+
+      public String getName()
+      {
+         return _sName;
+      }
+   }
+
+   /**
+    * The application of a built-in to a value, as in name?html
+    */
+   static class BuiltIn extends Expression
+   {
+      private  Expression  _oTarget;
+      private  String      _sName;
+
+      BuiltIn( Expression oTarget, String sName )
+      {
+         super( oTarget.getLine(), oTarget.getText() + "?" + sName );
+
+         _oTarget = oTarget;
+         _sName   = sName;
+      }
+
+      public Expression getTarget()
+      {
+         return _oTarget;
+      }
+
+      public String getName()
+      {
+         return _sName;
+      }
+   }
+
+   /**
+    * A unary operator, the operator is ! or -
+    */
+   static class Unary extends Expression
+   {
+      private  String      _sOperator;
+      private  Expression  _oOperand;
+
+      Unary( int iLine, String sOperator, Expression oOperand )
+      {
+         super( iLine, sOperator + oOperand.getText() );
+
+         _sOperator  = sOperator;
+         _oOperand   = oOperand;
+      }
+
+      public String getOperator()
+      {
+         return _sOperator;
+      }
+
+      public Expression getOperand()
+      {
+         return _oOperand;
+      }
+   }
+
+   /**
+    * A binary operator, the operator is one of: || && == != < > <= >= + - * / %
+    */
+   static class Binary extends Expression
+   {
+      private  String      _sOperator;
+      private  Expression  _oLeft;
+      private  Expression  _oRight;
+
+      Binary( String sOperator, Expression oLeft, Expression oRight )
+      {
+         super( oLeft.getLine(), oLeft.getText() + " " + sOperator + " " + oRight.getText() );
+
+         _sOperator  = sOperator;
+         _oLeft      = oLeft;
+         _oRight     = oRight;
+      }
+
+      public String getOperator()
+      {
+         return _sOperator;
+      }
+
+      public Expression getLeft()
+      {
+         return _oLeft;
+      }
+
+      public Expression getRight()
+      {
+         return _oRight;
+      }
+   }
+
+   /**
+    * The default value operator, as in name!"anonymous", the default is null if none was specified
+    */
+   static class Default extends Expression
+   {
+      private  Expression  _oTarget;
+      private  Expression  _oDefault;
+
+      Default( Expression oTarget, Expression oDefault )
+      {
+         super( oTarget.getLine(), oTarget.getText() + "!" + ( oDefault == null ? "" : oDefault.getText() ) );
+
+         _oTarget    = oTarget;
+         _oDefault   = oDefault;
+      }
+
+      public Expression getTarget()
+      {
+         return _oTarget;
+      }
+
+      public Expression getDefault()
+      {
+         return _oDefault;
+      }
+   }
+
+   /**
+    * The existence test, as in name??
+    */
+   static class Exists extends Expression
+   {
+      private  Expression  _oTarget;
+
+      Exists( Expression oTarget )
+      {
+         super( oTarget.getLine(), oTarget.getText() + "??" );
+
+         _oTarget = oTarget;
+      }
+
+      public Expression getTarget()
+      {
+         return _oTarget;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,564 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+import com.acciente.induction.template.TemplatingEngineException;
+
+/**
+ * Internal.
+ * Parses the expressions of a template, the expression syntax is the subset of the Freemarker expression
+ * syntax described in CompiledTemplatingEngine.
+ * <p>
+ * The parser is positioned on a fragment of the template source, such as the content of an interpolation
+ * or the parameters of a directive, and is used by the template parser to read the expressions, names and
+ * keywords in the fragment.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+class ExpressionParser
+{
+   private  String   _sTemplateName;
+   private  String   _sText;
+   private  int      _iPos;
+   private  int      _iLine;
+
+   /**
+    * Creates a parser for a fragment of a template
+    *
+    * @param sTemplateName the name of the template, used in error messages
+    * @param sText the fragment of the template to parse
+    * @param iLine the line of the template on which the fragment starts
+    */
+   ExpressionParser( String sTemplateName, String sText, int iLine )
+   {
+      _sTemplateName = sTemplateName;
+      _sText         = sText;
+      _iLine         = iLine;
+   }
+
+   /**
+    * @return true if only white space remains in the fragment
+    */
+   public boolean isAtEnd()
+   {
+      skipWhiteSpace();
+
+      return _iPos == _sText.length();
+   }
+
+   /**
+    * Reads the next name in the fragment, if any
+    *
+    * @return the name, or null if the fragment is not positioned on a name
+    */
+   public String parseName()
+   {
+      skipWhiteSpace();
+
+      if ( _iPos == _sText.length() || ! Character.isJavaIdentifierStart( _sText.charAt( _iPos ) ) )
+      {
+         return null;
+      }
+
+      int iStart = _iPos;
+
+      while ( _iPos < _sText.length() && Character.isJavaIdentifierPart( _sText.charAt( _iPos ) ) )
+      {
+         _iPos++;
+      }
+
+      return _sText.substring( iStart, _iPos );
+   }
+
+   /**
+    * Reads a name, failing if the fragment is not positioned on a name
+    *
+    * @param sWhat describes the expected name, used in the error message
+    * @return the name
+    */
+   public String expectName( String sWhat ) throws TemplatingEngineException
+   {
+      String sName = parseName();
+
+      if ( sName == null )
+      {
+         throw error( "expected " + sWhat );
+      }
+
+      return sName;
+   }
+
+   /**
+    * Reads the specified token if the fragment is positioned on it
+    *
+    * @param sToken a symbol or a keyword
+    * @return true if the token was read
+    */
+   public boolean consume( String sToken )
+   {
+      skipWhiteSpace();
+
+      if ( ! _sText.startsWith( sToken, _iPos ) )
+      {
+         return false;
+      }
+
+      int iEnd = _iPos + sToken.length();
+
+      // a keyword must not be followed by more name characters
+      if ( Character.isJavaIdentifierStart( sToken.charAt( 0 ) )
+           && iEnd < _sText.length()
+           && Character.isJavaIdentifierPart( _sText.charAt( iEnd ) ) )
+      {
+         return false;
+      }
+
+      _iPos = iEnd;
+
+      return true;
+   }
+
+   /**
+    * Reads the specified token, failing if the fragment is not positioned on it
+    *
+    * @param sToken a symbol or a keyword
+    */
+   public void expect( String sToken ) throws TemplatingEngineException
+   {
+      if ( ! consume( sToken ) )
+      {
+         throw error( "expected " + sToken );
+      }
+   }
+
+   /**
+    * Fails if anything other than white space remains in the fragment
+    */
+   public void expectEnd() throws TemplatingEngineException
+   {
+      if ( ! isAtEnd() )
+      {
+         throw error( "unexpected: " + _sText.substring( _iPos ) );
+      }
+   }
+
+   /**
+    * Reads an expression
+    *
+    * @return the expression
+    */
+   public Expression parseExpression() throws TemplatingEngineException
+   {
+      return parseOr();
+   }
+
+   /**
+    * Creates an exception for a syntax error at the current position of this parser
+    *
+    * @param sMessage a description of the error
+    * @return the exception, to be thrown by the caller
+    */
+   public TemplatingEngineException error( String sMessage )
+   {
+      return TemplateParser.error( _sTemplateName, _iLine, sMessage );
+   }
+
+   // the operators in the order of increasing precedence
+
+   private Expression parseOr() throws TemplatingEngineException
+   {
+      Expression oExpression = parseAnd();
+
+      while ( consume( "||" ) )
+      {
+         oExpression = new Expression.Binary( "||", oExpression, parseAnd() );
+      }
+
+      return oExpression;
+   }
+
+   private Expression parseAnd() throws TemplatingEngineException
+   {
+      Expression oExpression = parseEquality();
+
+      while ( consume( "&&" ) )
+      {
+         oExpression = new Expression.Binary( "&&", oExpression, parseEquality() );
+      }
+
+      return oExpression;
+   }
+
+   private Expression parseEquality() throws TemplatingEngineException
+   {
+      Expression oExpression = parseRelational();
+
+      for ( ;; )
+      {
+         if ( consume( "==" ) )
+         {
+            oExpression = new Expression.Binary( "==", oExpression, parseRelational() );
+         }
+         else if ( consume( "!=" ) )
+         {
+            oExpression = new Expression.Binary( "!=", oExpression, parseRelational() );
+         }
+         else if ( isAt( "=" ) )
+         {
+            // as in Freemarker a single = is also a comparison
+            consume( "=" );
+            oExpression = new Expression.Binary( "==", oExpression, parseRelational() );
+         }
+         else
+         {
+            return oExpression;
+         }
+      }
+   }
+
+   private Expression parseRelational() throws TemplatingEngineException
+   {
+      Expression oExpression = parseAdditive();
+
+      for ( ;; )
+      {
+         String sOperator;
+
+         // the keyword forms are needed in directives, where > ends the directive tag
+         if ( consume( "<=" ) || consume( "lte" ) )
+         {
+            sOperator = "<=";
+         }
+         else if ( consume( ">=" ) || consume( "gte" ) )
+         {
+            sOperator = ">=";
+         }
+         else if ( consume( "<" ) || consume( "lt" ) )
+         {
+            sOperator = "<";
+         }
+         else if ( consume( ">" ) || consume( "gt" ) )
+         {
+            sOperator = ">";
+         }
+         else
+         {
+            return oExpression;
+         }
+
+         oExpression = new Expression.Binary( sOperator, oExpression, parseAdditive() );
+      }
+   }
+
+   private Expression parseAdditive() throws TemplatingEngineException
+   {
+      Expression oExpression = parseMultiplicative();
+
+      for ( ;; )
+      {
+         if ( consume( "+" ) )
+         {
+            oExpression = new Expression.Binary( "+", oExpression, parseMultiplicative() );
+         }
+         else if ( consume( "-" ) )
+         {
+            oExpression = new Expression.Binary( "-", oExpression, parseMultiplicative() );
+         }
+         else
+         {
+            return oExpression;
+         }
+      }
+   }
+
+   private Expression parseMultiplicative() throws TemplatingEngineException
+   {
+      Expression oExpression = parseUnary();
+
+      for ( ;; )
+      {
+         if ( consume( "*" ) )
+         {
+            oExpression = new Expression.Binary( "*", oExpression, parseUnary() );
+         }
+         else if ( consume( "/" ) )
+         {
+            oExpression = new Expression.Binary( "/", oExpression, parseUnary() );
+         }
+         else if ( consume( "%" ) )
+         {
+            oExpression = new Expression.Binary( "%", oExpression, parseUnary() );
+         }
+         else
+         {
+            return oExpression;
+         }
+      }
+   }
+
+   private Expression parseUnary() throws TemplatingEngineException
+   {
+      int iLine = _iLine;
+
+      if ( isAt( "!" ) )
+      {
+         consume( "!" );
+
+         return new Expression.Unary( iLine, "!", parseUnary() );
+      }
+
+      if ( consume( "-" ) )
+      {
+         return new Expression.Unary( iLine, "-", parseUnary() );
+      }
+
+      return parsePostfix();
+   }
+
+   private Expression parsePostfix() throws TemplatingEngineException
+   {
+      Expression oExpression = parsePrimary();
+
+      for ( ;; )
+      {
+         if ( consume( "." ) )
+         {
+            oExpression = new Expression.Property( oExpression, expectName( "a property name after ." ) );
+         }
+         else if ( consume( "??" ) )
+         {
+            oExpression = new Expression.Exists( oExpression );
+         }
+         else if ( consume( "?" ) )
+         {
+            oExpression = new Expression.BuiltIn( oExpression, expectName( "a built-in name after ?" ) );
+         }
+         else if ( isAt( "!" ) )
+         {
+            consume( "!" );
+
+            // the default value may be omitted, as in name!
+            Expression oDefault = isAtPrimary() ? parsePostfix() : null;
+
+            return new Expression.Default( oExpression, oDefault );
+         }
+         else
+         {
+            return oExpression;
+         }
+      }
+   }
+
+   private Expression parsePrimary() throws TemplatingEngineException
+   {
+      skipWhiteSpace();
+
+      if ( _iPos == _sText.length() )
+      {
+         throw error( "expression expected" );
+      }
+
+      int   iLine = _iLine;
+      char  cChar = _sText.charAt( _iPos );
+
+      if ( consume( "(" ) )
+      {
+         Expression oExpression = parseExpression();
+
+         expect( ")" );
+
+         return oExpression;
+      }
+
+      if ( cChar == '"' || cChar == '\'' )
+      {
+         int      iStart   = _iPos;
+         String   sValue   = parseString( cChar );
+
+         return new Expression.Literal( iLine, _sText.substring( iStart, _iPos ), sValue );
+      }
+
+      if ( Character.isDigit( cChar ) )
+      {
+         int iStart = _iPos;
+
+         while ( _iPos < _sText.length() && Character.isDigit( _sText.charAt( _iPos ) ) )
+         {
+            _iPos++;
+         }
+
+         if ( _iPos + 1 < _sText.length() && _sText.charAt( _iPos ) == '.' && Character.isDigit( _sText.charAt( _iPos + 1 ) ) )
+         {
+            _iPos++;
+
+            while ( _iPos < _sText.length() && Character.isDigit( _sText.charAt( _iPos ) ) )
+            {
+               _iPos++;
+            }
+
+            return new Expression.Literal( iLine, _sText.substring( iStart, _iPos ), Double.valueOf( _sText.substring( iStart, _iPos ) ) );
+         }
+
+         try
+         {
+            return new Expression.Literal( iLine, _sText.substring( iStart, _iPos ), Long.valueOf( _sText.substring( iStart, _iPos ) ) );
+         }
+         catch ( NumberFormatException e )
+         {
+            throw error( "number too large: " + _sText.substring( iStart, _iPos ) );
+         }
+      }
+
+      String sName = parseName();
+
+      if ( sName == null )
+      {
+         throw error( "unexpected: " + _sText.substring( _iPos ) );
+      }
+
+      if ( sName.equals( "true" ) || sName.equals( "false" ) )
+      {
+         return new Expression.Literal( iLine, sName, Boolean.valueOf( sName ) );
+      }
+
+      return new Expression.Variable( iLine, sName );
+   }
+
+   private String parseString( char cQuote ) throws TemplatingEngineException
+   {
+      StringBuffer oBuffer = new StringBuffer();
+
+      // skip the opening quote
+      _iPos++;
+
+      for ( ;; )
+      {
+         if ( _iPos == _sText.length() )
+         {
+            throw error( "unterminated string literal" );
+         }
+
+         char cChar = _sText.charAt( _iPos++ );
+
+         if ( cChar == cQuote )
+         {
+            return oBuffer.toString();
+         }
+
+         if ( cChar == '\n' )
+         {
+            _iLine++;
+         }
+
+         if ( cChar != '\\' )
+         {
+            oBuffer.append( cChar );
+            continue;
+         }
+
+         if ( _iPos == _sText.length() )
+         {
+            throw error( "unterminated string literal" );
+         }
+
+         cChar = _sText.charAt( _iPos++ );
+
+         switch ( cChar )
+         {
+            case 'n':   oBuffer.append( '\n' );  break;
+            case 'r':   oBuffer.append( '\r' );  break;
+            case 't':   oBuffer.append( '\t' );  break;
+            case 'b':   oBuffer.append( '\b' );  break;
+            case 'f':   oBuffer.append( '\f' );  break;
+            case 'l':   oBuffer.append( '<' );   break;
+            case 'g':   oBuffer.append( '>' );   break;
+            case 'a':   oBuffer.append( '&' );   break;
+            case '"':
+            case '\'':
+            case '\\':
+            case '{':
+            case '$':   oBuffer.append( cChar ); break;
+            case 'x':
+            {
+               int iStart = _iPos;
+
+               while ( _iPos < _sText.length() && _iPos - iStart < 4 && Character.digit( _sText.charAt( _iPos ), 16 ) >= 0 )
+               {
+                  _iPos++;
+               }
+
+               if ( _iPos == iStart )
+               {
+                  throw error( "hexadecimal digits expected after \\x" );
+               }
+
+               oBuffer.append( ( char ) Integer.parseInt( _sText.substring( iStart, _iPos ), 16 ) );
+               break;
+            }
+            default:
+               throw error( "unsupported escape sequence in string literal: \\" + cChar );
+         }
+      }
+   }
+
+   /**
+    * @return true if the fragment is positioned on the specified symbol and not on a longer symbol that starts
+    * with it, used to tell = from == and ! from !=
+    */
+   private boolean isAt( String sSymbol )
+   {
+      skipWhiteSpace();
+
+      return _sText.startsWith( sSymbol, _iPos )
+             && ! _sText.startsWith( sSymbol + "=", _iPos );
+   }
+
+   /**
+    * @return true if the fragment is positioned on the start of a literal, a name or a parenthesized expression
+    */
+   private boolean isAtPrimary()
+   {
+      skipWhiteSpace();
+
+      if ( _iPos == _sText.length() )
+      {
+         return false;
+      }
+
+      char cChar = _sText.charAt( _iPos );
+
+      return cChar == '(' || cChar == '"' || cChar == '\'' || Character.isDigit( cChar ) || Character.isJavaIdentifierStart( cChar );
+   }
+
+   private void skipWhiteSpace()
+   {
+      while ( _iPos < _sText.length() && Character.isWhitespace( _sText.charAt( _iPos ) ) )
+      {
+         if ( _sText.charAt( _iPos ) == '\n' )
+         {
+            _iLine++;
+         }
+
+         _iPos++;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
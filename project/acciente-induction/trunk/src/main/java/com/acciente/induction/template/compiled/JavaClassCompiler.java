@@ -0,0 +1,471 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+import com.acciente.induction.template.TemplatingEngineException;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Internal.
+ * Compiles the generated source of a template with the Java compiler of the running JDK, and loads the
+ * resulting classes in a class loader whose parent is the class loader of the view.
+ * <p>
+ * The classes of a web application are usually not on the class path of the JVM, so the compiler is not
+ * given a class path, instead the compiler reads the class files of the classes named by the generated
+ * source (and of their superclasses, interfaces and enclosing classes) from the class loaders that loaded
+ * them. The classes of the platform are read by the compiler as usual.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+class JavaClassCompiler
+{
+   private static final List     OPTIONS  = Arrays.asList( new String[]{ "-proc:none", "-nowarn", "-g" } );
+   private static final Charset  UTF_8    = Charset.forName( "UTF-8" );
+
+   /**
+    * Checks if generated code, loaded by a child of a class loader, can use a class by its name
+    *
+    * @param oClass a class
+    * @param oClassLoader the class loader of the view
+    * @return true if the class is public, is the class found by its name from the class loader, and its
+    * class file can be read
+    */
+   static boolean isUsable( Class oClass, ClassLoader oClassLoader )
+   {
+      if ( oClass.getCanonicalName() == null )
+      {
+         // an anonymous or local class
+         return false;
+      }
+
+      for ( Class oEnclosingClass = oClass; oEnclosingClass != null; oEnclosingClass = oEnclosingClass.getEnclosingClass() )
+      {
+         if ( ! Modifier.isPublic( oEnclosingClass.getModifiers() ) )
+         {
+            return false;
+         }
+      }
+
+      if ( isPlatformClass( oClass ) )
+      {
+         // classes of the platform outside the java packages may be in packages that the compiler does not expose
+         return oClass.getName().startsWith( "java." );
+      }
+
+      try
+      {
+         if ( Class.forName( oClass.getName(), false, oClassLoader ) != oClass )
+         {
+            return false;
+         }
+      }
+      catch ( ClassNotFoundException e )
+      {
+         return false;
+      }
+      catch ( LinkageError e )
+      {
+         return false;
+      }
+
+      return hasClassFile( oClass );
+   }
+
+   /**
+    * Compiles a class and loads it
+    *
+    * @param sClassName the fully qualified name of the class
+    * @param sSource the source of the class
+    * @param oReferencedClassSet the classes named in the source
+    * @param oParentClassLoader the class loader that loaded the referenced classes
+    * @return the class
+    * @throws TemplatingEngineException if the JDK compiler is not available or the source did not compile
+    */
+   static Class compile( String sClassName, String sSource, Set oReferencedClassSet, ClassLoader oParentClassLoader )
+      throws TemplatingEngineException
+   {
+      JavaCompiler oCompiler = ToolProvider.getSystemJavaCompiler();
+
+      if ( oCompiler == null )
+      {
+         throw new TemplatingEngineException( "compiled-templates > no Java compiler is available, templates can only be compiled when running on a JDK" );
+      }
+
+      DiagnosticCollector     oDiagnosticCollector = new DiagnosticCollector();
+      StandardJavaFileManager oStandardFileManager = oCompiler.getStandardFileManager( oDiagnosticCollector, null, UTF_8 );
+      ClassFileManager        oClassFileManager;
+
+      try
+      {
+         oStandardFileManager.setLocation( StandardLocation.CLASS_PATH, Collections.EMPTY_LIST );
+      }
+      catch ( IOException e )
+      {
+         throw new TemplatingEngineException( "compiled-templates > error setting up the Java compiler", e );
+      }
+
+      oClassFileManager = new ClassFileManager( oStandardFileManager, getClassPathClasses( oReferencedClassSet ) );
+
+      JavaCompiler.CompilationTask oTask
+         = oCompiler.getTask( null,
+                              oClassFileManager,
+                              oDiagnosticCollector,
+                              OPTIONS,
+                              null,
+                              Collections.singletonList( new SourceFile( sClassName, sSource ) ) );
+
+      if ( ! oTask.call().booleanValue() )
+      {
+         StringBuffer oMessage = new StringBuffer( "compiled-templates > error compiling class: " + sClassName );
+
+         for ( Iterator oIter = oDiagnosticCollector.getDiagnostics().iterator(); oIter.hasNext(); )
+         {
+            Diagnostic oDiagnostic = ( Diagnostic ) oIter.next();
+
+            if ( oDiagnostic.getKind() == Diagnostic.Kind.ERROR )
+            {
+               oMessage.append( "\n   line " ).append( oDiagnostic.getLineNumber() ).append( ": " ).append( oDiagnostic.getMessage( null ) );
+            }
+         }
+
+         throw new TemplatingEngineException( oMessage.toString() );
+      }
+
+      try
+      {
+         return new TemplateClassLoader( oParentClassLoader, oClassFileManager.getOutputMap() ).loadClass( sClassName );
+      }
+      catch ( ClassNotFoundException e )
+      {
+         throw new TemplatingEngineException( "compiled-templates > compiler did not produce class: " + sClassName, e );
+      }
+   }
+
+   /**
+    * @return the classes whose class files the compiler needs, by package name
+    */
+   private static Map getClassPathClasses( Set oReferencedClassSet )
+   {
+      Map   oClassesByPackage = new HashMap();
+      List  oPendingList      = new ArrayList( oReferencedClassSet );
+      Set   oVisitedSet       = new HashSet();
+
+      // the compiler checks the arguments and the exceptions of the methods called by the generated code
+      for ( Iterator oIter = oReferencedClassSet.iterator(); oIter.hasNext(); )
+      {
+         addSignatureClasses( ( Class ) oIter.next(), oPendingList );
+      }
+
+      while ( ! oPendingList.isEmpty() )
+      {
+         Class oClass = ( Class ) oPendingList.remove( oPendingList.size() - 1 );
+
+         while ( oClass.isArray() )
+         {
+            oClass = oClass.getComponentType();
+         }
+
+         if ( oClass.isPrimitive() || isPlatformClass( oClass ) || ! oVisitedSet.add( oClass ) )
+         {
+            continue;
+         }
+
+         if ( ! hasClassFile( oClass ) )
+         {
+            // a generated class, the compiler fails only if it needs this class
+            continue;
+         }
+
+         String   sPackageName   = oClass.getName().lastIndexOf( '.' ) < 0 ? "" : oClass.getName().substring( 0, oClass.getName().lastIndexOf( '.' ) );
+         List     oPackageList   = ( List ) oClassesByPackage.get( sPackageName );
+
+         if ( oPackageList == null )
+         {
+            oPackageList = new ArrayList();
+            oClassesByPackage.put( sPackageName, oPackageList );
+         }
+
+         oPackageList.add( new ClassPathFile( oClass ) );
+
+         if ( oClass.getSuperclass() != null )
+         {
+            oPendingList.add( oClass.getSuperclass() );
+         }
+
+         oPendingList.addAll( Arrays.asList( oClass.getInterfaces() ) );
+
+         if ( oClass.getEnclosingClass() != null )
+         {
+            oPendingList.add( oClass.getEnclosingClass() );
+         }
+      }
+
+      return oClassesByPackage;
+   }
+
+   /**
+    * Adds the parameter, return and exception types of the methods a class declares or inherits, that are
+    * visible to a subclass
+    */
+   private static void addSignatureClasses( Class oClass, List oTargetList )
+   {
+      try
+      {
+         for ( Class oDeclaringClass = oClass; oDeclaringClass != null && ! isPlatformClass( oDeclaringClass ); oDeclaringClass = oDeclaringClass.getSuperclass() )
+         {
+            addSignatureClasses( oDeclaringClass.getDeclaredMethods(), oTargetList );
+         }
+
+         addSignatureClasses( oClass.getMethods(), oTargetList );
+      }
+      catch ( LinkageError e )
+      {
+         // a class in a signature cannot be loaded, if the compiler needs it the compilation fails
+      }
+   }
+
+   private static void addSignatureClasses( Method[] aoMethods, List oTargetList )
+   {
+      for ( int i = 0; i < aoMethods.length; i++ )
+      {
+         if ( ! Modifier.isPrivate( aoMethods[ i ].getModifiers() ) )
+         {
+            oTargetList.add( aoMethods[ i ].getReturnType() );
+            oTargetList.addAll( Arrays.asList( aoMethods[ i ].getParameterTypes() ) );
+            oTargetList.addAll( Arrays.asList( aoMethods[ i ].getExceptionTypes() ) );
+         }
+      }
+   }
+
+   private static boolean isPlatformClass( Class oClass )
+   {
+      ClassLoader oClassLoader = oClass.getClassLoader();
+
+      // since Java 9 the parent of the system class loader is the platform class loader
+      return oClassLoader == null || oClassLoader == ClassLoader.getSystemClassLoader().getParent();
+   }
+
+   private static boolean hasClassFile( Class oClass )
+   {
+      // the class loaders that reload classes provide the class files as streams, but not as URLs
+      InputStream oClassFile = oClass.getClassLoader().getResourceAsStream( getClassFileName( oClass ) );
+
+      if ( oClassFile == null )
+      {
+         return false;
+      }
+
+      try
+      {
+         oClassFile.close();
+      }
+      catch ( IOException e )
+      {
+         // ignored, the class file was found
+      }
+
+      return true;
+   }
+
+   private static String getClassFileName( Class oClass )
+   {
+      return oClass.getName().replace( '.', '/' ) + ".class";
+   }
+
+   /**
+    * Serves the class files of the referenced classes as the class path, and keeps the compiled classes in memory
+    */
+   private static class ClassFileManager extends ForwardingJavaFileManager
+   {
+      private  Map   _oClassPathMap;
+      private  Map   _oOutputMap = new HashMap();
+
+      private ClassFileManager( JavaFileManager oFileManager, Map oClassPathMap )
+      {
+         super( oFileManager );
+
+         _oClassPathMap = oClassPathMap;
+      }
+
+      public Iterable list( JavaFileManager.Location oLocation, String sPackageName, Set oKinds, boolean bRecurse )
+         throws IOException
+      {
+         if ( oLocation == StandardLocation.CLASS_PATH && oKinds.contains( JavaFileObject.Kind.CLASS ) )
+         {
+            List oPackageList = ( List ) _oClassPathMap.get( sPackageName );
+
+            if ( oPackageList != null )
+            {
+               return oPackageList;
+            }
+         }
+
+         return super.list( oLocation, sPackageName, oKinds, bRecurse );
+      }
+
+      public String inferBinaryName( JavaFileManager.Location oLocation, JavaFileObject oFile )
+      {
+         if ( oFile instanceof ClassPathFile )
+         {
+            return ( ( ClassPathFile ) oFile )._oClass.getName();
+         }
+
+         return super.inferBinaryName( oLocation, oFile );
+      }
+
+      public JavaFileObject getJavaFileForOutput( JavaFileManager.Location oLocation,
+                                                  String sClassName,
+                                                  JavaFileObject.Kind oKind,
+                                                  FileObject oSibling )
+      {
+         OutputFile oOutputFile = new OutputFile( sClassName );
+
+         _oOutputMap.put( sClassName, oOutputFile );
+
+         return oOutputFile;
+      }
+
+      private Map getOutputMap()
+      {
+         return _oOutputMap;
+      }
+   }
+
+   private static class SourceFile extends SimpleJavaFileObject
+   {
+      private  String   _sSource;
+
+      private SourceFile( String sClassName, String sSource )
+      {
+         super( URI.create( "string:///" + sClassName.replace( '.', '/' ) + JavaFileObject.Kind.SOURCE.extension ), JavaFileObject.Kind.SOURCE );
+
+         _sSource = sSource;
+      }
+
+      public CharSequence getCharContent( boolean bIgnoreEncodingErrors )
+      {
+         return _sSource;
+      }
+   }
+
+   private static class ClassPathFile extends SimpleJavaFileObject
+   {
+      private  Class    _oClass;
+
+      private ClassPathFile( Class oClass )
+      {
+         super( URI.create( "classloader:///" + getClassFileName( oClass ) ), JavaFileObject.Kind.CLASS );
+
+         _oClass = oClass;
+      }
+
+      public InputStream openInputStream() throws IOException
+      {
+         InputStream oClassFile = _oClass.getClassLoader().getResourceAsStream( getClassFileName( _oClass ) );
+
+         if ( oClassFile == null )
+         {
+            throw new IOException( "compiled-templates > class file not found: " + _oClass.getName() );
+         }
+
+         return oClassFile;
+      }
+   }
+
+   private static class OutputFile extends SimpleJavaFileObject
+   {
+      private  ByteArrayOutputStream   _oBytes = new ByteArrayOutputStream();
+
+      private OutputFile( String sClassName )
+      {
+         super( URI.create( "memory:///" + sClassName.replace( '.', '/' ) + JavaFileObject.Kind.CLASS.extension ), JavaFileObject.Kind.CLASS );
+      }
+
+      public OutputStream openOutputStream()
+      {
+         return _oBytes;
+      }
+
+      public InputStream openInputStream()
+      {
+         return new ByteArrayInputStream( _oBytes.toByteArray() );
+      }
+   }
+
+   /**
+    * Defines the classes produced by a compilation
+    */
+   private static class TemplateClassLoader extends ClassLoader
+   {
+      private  Map   _oOutputMap;
+
+      private TemplateClassLoader( ClassLoader oParentClassLoader, Map oOutputMap )
+      {
+         super( oParentClassLoader );
+
+         _oOutputMap = oOutputMap;
+      }
+
+      protected Class findClass( String sClassName ) throws ClassNotFoundException
+      {
+         OutputFile oOutputFile = ( OutputFile ) _oOutputMap.get( sClassName );
+
+         if ( oOutputFile == null )
+         {
+            throw new ClassNotFoundException( sClassName );
+         }
+
+         byte[] abClass = oOutputFile._oBytes.toByteArray();
+
+         return defineClass( sClassName, abClass, 0, abClass.length );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,1262 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+import com.acciente.induction.template.TemplatingEngineException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Internal.
+ * Generates the Java source of the class of a compiled template, for a parsed template and a view class.
+ * <p>
+ * The generated code is typed: a property of a value whose class is known when the template is compiled is
+ * read by calling its getter, starting with the properties of the view. The class of the items of a list is
+ * taken from the generic type of the getter that returns the list. Only when the class of a value is not
+ * known (or not accessible to the generated class) is the property read through the property lookup of
+ * CompiledTemplate.
+ * <p>
+ * Macros are expanded at each call, so the parameters of a macro have the type of the values passed by the
+ * call. A macro therefore cannot call itself.
+ * <p>
+ * This class is not thread safe, an instance is used to generate a single class.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+class JavaSourceGenerator
+{
+   public static final String PACKAGE_NAME = "com.acciente.induction.template.compiled.generated";
+
+   // keeps each string literal well below the limit on the size of a constant in a class file
+   private static final int   MAX_STRING_LITERAL_LENGTH  = 16 * 1024;
+
+   private  String         _sClassName;
+   private  List           _oNodeList;
+   private  Map            _oMacroMap;
+   private  Class          _oViewClass;
+   private  ClassLoader    _oViewClassLoader;
+   private  boolean        _bExposePublicFields;
+
+   private  StringBuffer   _oFields             = new StringBuffer();
+   private  StringBuffer   _oMethods            = new StringBuffer();
+   private  StringBuffer   _oBody               = new StringBuffer();
+   private  int            _iIndent;
+   private  int            _iNextId;
+   private  Map            _oTextFieldMap       = new HashMap();
+   private  Map            _oAssignIndexMap     = new HashMap();
+   private  Set            _oReferencedClassSet = new HashSet();
+   private  Map            _oUsableClassMap     = new HashMap();
+   private  Code           _oRoot;
+   private  String         _sWriter             = "w";
+   private  int            _iFragmentDepth;
+   private  String         _sTemplateName;
+
+   /**
+    * Creates a generator
+    *
+    * @param sClassName the simple name of the generated class, the class is in the package PACKAGE_NAME
+    * @param oNodeList the nodes of the template
+    * @param oMacroMap the macros of the template, by name
+    * @param oViewClass the class of the views that the generated class renders
+    * @param bExposePublicFields true if the public fields of values are properties
+    */
+   JavaSourceGenerator( String sClassName, List oNodeList, Map oMacroMap, Class oViewClass, boolean bExposePublicFields )
+   {
+      _sClassName          = sClassName;
+      _oNodeList           = oNodeList;
+      _oMacroMap           = oMacroMap;
+      _oViewClass          = oViewClass;
+      _oViewClassLoader    = oViewClass.getClassLoader();
+      _bExposePublicFields = bExposePublicFields;
+   }
+
+   /**
+    * Generates the source
+    *
+    * @param sTemplateName the name of the template, used in error messages
+    * @return the Java source of the class
+    * @throws TemplatingEngineException if the template uses a directive in a way that is not supported
+    */
+   public String generate( String sTemplateName ) throws TemplatingEngineException
+   {
+      _sTemplateName = sTemplateName;
+
+      collectAssigns( _oNodeList );
+
+      for ( Iterator oIter = _oMacroMap.values().iterator(); oIter.hasNext(); )
+      {
+         collectAssigns( ( ( Node.Macro ) oIter.next() ).getBody() );
+      }
+
+      _oRoot   = new Code( "v", isUsable( _oViewClass ) ? _oViewClass : Object.class, null, false );
+      _iIndent = 2;
+
+      if ( _oAssignIndexMap.size() > 0 )
+      {
+         line( "final Object[] a = new Object[ " + _oAssignIndexMap.size() + " ];" );
+      }
+
+      generateNodes( _oNodeList, new Frame( null, null, new ArrayList() ) );
+
+      _oReferencedClassSet.add( CompiledTemplate.class );
+
+      StringBuffer oSource = new StringBuffer();
+
+      oSource.append( "package " ).append( PACKAGE_NAME ).append( ";\n\n" );
+      oSource.append( "public final class " ).append( _sClassName ).append( " extends " ).append( CompiledTemplate.class.getName() ).append( "\n{\n" );
+      oSource.append( _oFields ).append( "\n" );
+      oSource.append( "   protected void execute( Object oRoot, java.io.Writer w ) throws Exception\n   {\n" );
+      oSource.append( "      final " ).append( javaType( _oRoot._oType ) ).append( " v = ( " ).append( javaType( _oRoot._oType ) ).append( " ) oRoot;\n" );
+      oSource.append( _oBody );
+      oSource.append( "   }\n" );
+      oSource.append( "\n   protected char[][] getStaticText()\n   {\n      return new char[][]{ " );
+
+      for ( int i = 0; i < _oTextFieldMap.size(); i++ )
+      {
+         oSource.append( i > 0 ? ", " : "" ).append( "T" ).append( i );
+      }
+
+      oSource.append( " };\n   }\n" );
+      oSource.append( _oMethods );
+      oSource.append( "}\n" );
+
+      return oSource.toString();
+   }
+
+   /**
+    * @return the classes named in the generated source, the compiler must be able to read these classes
+    */
+   public Set getReferencedClassSet()
+   {
+      return _oReferencedClassSet;
+   }
+
+   // statements
+
+   private void generateNodes( List oNodeList, Frame oFrame ) throws TemplatingEngineException
+   {
+      for ( int i = 0; i < oNodeList.size(); i++ )
+      {
+         Node     oNode                = ( Node ) oNodeList.get( i );
+         String   sSavedTemplateName   = _sTemplateName;
+
+         // the nodes of a macro or of an included template are from another template
+         _sTemplateName = oNode.getTemplateName();
+
+         if ( oNode instanceof Node.Text )
+         {
+            line( _sWriter + ".write( " + getTextField( ( ( Node.Text ) oNode ).getText() ) + " );" );
+         }
+         else if ( oNode instanceof Node.Interpolation )
+         {
+            generateInterpolation( ( ( Node.Interpolation ) oNode ).getExpression(), oFrame );
+         }
+         else if ( oNode instanceof Node.If )
+         {
+            generateIf( ( Node.If ) oNode, oFrame );
+         }
+         else if ( oNode instanceof Node.ListLoop )
+         {
+            generateListLoop( ( Node.ListLoop ) oNode, oFrame );
+         }
+         else if ( oNode instanceof Node.Assign )
+         {
+            Node.Assign oAssign = ( Node.Assign ) oNode;
+
+            line( "a[ " + _oAssignIndexMap.get( oAssign.getName() ) + " ] = "
+                  + checked( expression( oAssign.getExpression(), oFrame ), oAssign.getExpression() )._sJava + ";" );
+         }
+         else if ( oNode instanceof Node.Call )
+         {
+            generateCall( ( Node.Call ) oNode, oFrame );
+         }
+         else if ( oNode instanceof Node.Nested )
+         {
+            // the body of the call is rendered with the variables of the caller
+            if ( oFrame._oNestedBody != null )
+            {
+               generateNodes( oFrame._oNestedBody, oFrame._oNestedFrame );
+            }
+         }
+         else if ( oNode instanceof Node.Break )
+         {
+            if ( oFrame._sLoopLabel == null || oFrame._iLoopFragmentDepth != _iFragmentDepth )
+            {
+               throw error( oNode.getLine(), "#break can only be used in a #list" );
+            }
+
+            // the if keeps the compiler from rejecting the statements that follow as unreachable
+            line( "if ( true ) break " + oFrame._sLoopLabel + ";" );
+         }
+
+         _sTemplateName = sSavedTemplateName;
+      }
+   }
+
+   private void generateInterpolation( Expression oExpression, Frame oFrame ) throws TemplatingEngineException
+   {
+      Code oCode = expression( oExpression, oFrame );
+
+      if ( oCode._oType == boolean.class )
+      {
+         throw error( oExpression.getLine(), "a boolean must be converted to a string with ?string to be output: " + oExpression.getText() );
+      }
+
+      if ( oCode._oType == String.class && ! oCode._bNullable )
+      {
+         line( _sWriter + ".write( " + oCode._sJava + " );" );
+      }
+      else if ( oCode._oType.isPrimitive() )
+      {
+         line( "write( " + _sWriter + ", " + oCode._sJava + " );" );
+      }
+      else
+      {
+         line( "write( " + _sWriter + ", " + oCode._sJava + ", " + describe( oExpression ) + " );" );
+      }
+   }
+
+   private void generateIf( Node.If oIf, Frame oFrame ) throws TemplatingEngineException
+   {
+      for ( int i = 0; i < oIf.getConditionList().size(); i++ )
+      {
+         Expression oCondition = ( Expression ) oIf.getConditionList().get( i );
+
+         line( ( i == 0 ? "if ( " : "else if ( " ) + booleanCode( expression( oCondition, oFrame ), oCondition ) + " )" );
+         block( ( List ) oIf.getBodyList().get( i ), oFrame );
+      }
+
+      if ( oIf.hasElse() )
+      {
+         line( "else" );
+         block( oIf.getElseBody(), oFrame );
+      }
+   }
+
+   private void generateListLoop( Node.ListLoop oListLoop, Frame oFrame ) throws TemplatingEngineException
+   {
+      Code     oSequence   = checked( expression( oListLoop.getSequence(), oFrame ), oListLoop.getSequence() );
+      int      iId         = _iNextId++;
+      String   sLabel      = "L" + iId;
+      String   sItem       = "x" + iId;
+      String   sIndex      = "i" + iId;
+      String   sCounter    = "n" + iId;
+      Frame    oLoopFrame  = new Frame( oFrame, sLabel, oFrame._oMacroNameList );
+      Class    oItemType;
+      String   sHasNext;
+
+      oLoopFrame._iLoopFragmentDepth = _iFragmentDepth;
+      oLoopFrame._oNestedBody        = oFrame._oNestedBody;
+      oLoopFrame._oNestedFrame       = oFrame._oNestedFrame;
+
+      if ( oSequence._oType.isArray() )
+      {
+         String sArray = "a" + iId;
+
+         oItemType = oSequence._oType.getComponentType();
+         sHasNext  = "( " + sIndex + " + 1 < " + sArray + ".length )";
+
+         line( "final " + javaType( oSequence._oType ) + " " + sArray + " = " + oSequence._sJava + ";" );
+         line( sLabel + ": for ( int " + sCounter + " = 0; " + sCounter + " < " + sArray + ".length; " + sCounter + "++ )" );
+         line( "{" );
+         _iIndent++;
+         line( "final " + javaType( oItemType ) + " " + sItem + " = " + sArray + "[ " + sCounter + " ];" );
+      }
+      else
+      {
+         String sIterator = "it" + iId;
+
+         oItemType = usableOrObject( oSequence.getElementType() );
+         sHasNext  = sIterator + ".hasNext()";
+
+         if ( Iterable.class.isAssignableFrom( oSequence._oType ) )
+         {
+            line( "final java.util.Iterator " + sIterator + " = " + oSequence._sJava + ".iterator();" );
+         }
+         else
+         {
+            line( "final java.util.Iterator " + sIterator + " = iterator( " + oSequence._sJava + ", " + describe( oListLoop.getSequence() ) + " );" );
+         }
+         line( sLabel + ": for ( int " + sCounter + " = 0; " + sIterator + ".hasNext(); " + sCounter + "++ )" );
+         line( "{" );
+         _iIndent++;
+         line( "final " + javaType( oItemType ) + " " + sItem + " = " + cast( oItemType, sIterator + ".next()" ) + ";" );
+      }
+
+      line( "final int " + sIndex + " = " + sCounter + ";" );
+
+      oLoopFrame.put( oListLoop.getVariableName(), new Code( sItem, oItemType, null, ! oItemType.isPrimitive() ) );
+      oLoopFrame.put( oListLoop.getVariableName() + "_index", new Code( sIndex, int.class, null, false ) );
+      oLoopFrame.put( oListLoop.getVariableName() + "_has_next", new Code( sHasNext, boolean.class, null, false ) );
+
+      generateNodes( oListLoop.getBody(), oLoopFrame );
+
+      _iIndent--;
+      line( "}" );
+   }
+
+   private void generateCall( Node.Call oCall, Frame oFrame ) throws TemplatingEngineException
+   {
+      Node.Macro oMacro = ( Node.Macro ) _oMacroMap.get( oCall.getName() );
+
+      if ( oMacro == null )
+      {
+         if ( oCall.getName().equals( "cache" ) )
+         {
+            generateFragment( oCall, oFrame );
+            return;
+         }
+
+         throw error( oCall.getLine(), "unknown macro: " + oCall.getName() );
+      }
+
+      if ( oFrame._oMacroNameList.contains( oMacro.getName() ) )
+      {
+         throw error( oCall.getLine(), "the macro " + oMacro.getName() + " calls itself, recursive macros are not supported" );
+      }
+
+      for ( int i = 0; i < oCall.getParameterNameList().size(); i++ )
+      {
+         if ( ! oMacro.getParameterNameList().contains( oCall.getParameterNameList().get( i ) ) )
+         {
+            throw error( oCall.getLine(), "the macro " + oMacro.getName() + " has no parameter " + oCall.getParameterNameList().get( i ) );
+         }
+      }
+
+      List oMacroNameList = new ArrayList( oFrame._oMacroNameList );
+
+      oMacroNameList.add( oMacro.getName() );
+
+      // a macro sees its parameters and the global variables, but not the loop variables of the caller
+      Frame oMacroFrame = new Frame( null, null, oMacroNameList );
+
+      oMacroFrame._oNestedBody   = oCall.getBody();
+      oMacroFrame._oNestedFrame  = oFrame;
+
+      line( "{" );
+      _iIndent++;
+
+      for ( int i = 0; i < oMacro.getParameterNameList().size(); i++ )
+      {
+         String   sParameterName = ( String ) oMacro.getParameterNameList().get( i );
+         int      iArgument      = oCall.getParameterNameList().indexOf( sParameterName );
+         Code     oValue;
+
+         if ( iArgument >= 0 )
+         {
+            Expression oArgument = ( Expression ) oCall.getParameterValueList().get( iArgument );
+
+            oValue = checked( expression( oArgument, oFrame ), oArgument );
+         }
+         else if ( oMacro.getParameterDefaultList().get( i ) != null )
+         {
+            Expression  oDefault             = ( Expression ) oMacro.getParameterDefaultList().get( i );
+            String      sSavedTemplateName   = _sTemplateName;
+
+            // a default is evaluated in the macro, it may use the parameters before it
+            _sTemplateName = oMacro.getTemplateName();
+            oValue = checked( expression( oDefault, oMacroFrame ), oDefault );
+            _sTemplateName = sSavedTemplateName;
+         }
+         else
+         {
+            throw error( oCall.getLine(), "the macro " + oMacro.getName() + " requires the parameter " + sParameterName );
+         }
+
+         String sParameter = "p" + _iNextId++;
+
+         line( "final " + javaType( oValue._oType ) + " " + sParameter + " = " + oValue._sJava + ";" );
+
+         oMacroFrame.put( sParameterName, new Code( sParameter, oValue._oType, oValue._oGenericType, false, oValue._oElementType ) );
+      }
+
+      generateNodes( oMacro.getBody(), oMacroFrame );
+
+      _iIndent--;
+      line( "}" );
+   }
+
+   /**
+    * Generates the cache directive, the body is rendered in a FragmentCache.Renderer
+    */
+   private void generateFragment( Node.Call oCall, Frame oFrame ) throws TemplatingEngineException
+   {
+      String   sKey           = null;
+      String   sTimeToLive    = "null";
+      String   sWriter        = "w" + _iNextId++;
+      String   sSavedWriter   = _sWriter;
+
+      for ( int i = 0; i < oCall.getParameterNameList().size(); i++ )
+      {
+         String      sParameterName = ( String ) oCall.getParameterNameList().get( i );
+         Expression  oValue         = ( Expression ) oCall.getParameterValueList().get( i );
+
+         if ( sParameterName.equals( "key" ) )
+         {
+            sKey = expression( oValue, oFrame )._sJava;
+         }
+         else if ( sParameterName.equals( "ttl" ) )
+         {
+            sTimeToLive = expression( oValue, oFrame )._sJava;
+         }
+         else
+         {
+            throw error( oCall.getLine(), "cache: unsupported parameter: " + sParameterName );
+         }
+      }
+
+      if ( sKey == null )
+      {
+         throw error( oCall.getLine(), "cache: the key parameter is required" );
+      }
+
+      line( _sWriter + ".write( fragment( " + sKey + ", " + sTimeToLive + ", new " + javaType( com.acciente.induction.template.FragmentCache.Renderer.class ) + "()" );
+      line( "{" );
+      _iIndent++;
+      line( "public String render() throws Exception" );
+      line( "{" );
+      _iIndent++;
+      line( "final java.io.StringWriter " + sWriter + " = new java.io.StringWriter();" );
+
+      // the body is in another class, so a #break in the body cannot end a #list around the directive
+      _sWriter = sWriter;
+      _iFragmentDepth++;
+
+      if ( oCall.getBody() != null )
+      {
+         generateNodes( oCall.getBody(), oFrame );
+      }
+
+      _iFragmentDepth--;
+      _sWriter = sSavedWriter;
+
+      line( "return " + sWriter + ".toString();" );
+      _iIndent--;
+      line( "}" );
+      _iIndent--;
+      line( "}, " + javaString( "template " + _sTemplateName + ", line " + oCall.getLine() + ": cache" ) + " ) );" );
+
+      _oReferencedClassSet.add( com.acciente.induction.template.FragmentCache.Renderer.class );
+   }
+
+   private void block( List oNodeList, Frame oFrame ) throws TemplatingEngineException
+   {
+      line( "{" );
+      _iIndent++;
+      generateNodes( oNodeList, oFrame );
+      _iIndent--;
+      line( "}" );
+   }
+
+   // expressions
+
+   private Code expression( Expression oExpression, Frame oFrame ) throws TemplatingEngineException
+   {
+      if ( oExpression instanceof Expression.Literal )
+      {
+         Object oValue = ( ( Expression.Literal ) oExpression ).getValue();
+
+         if ( oValue instanceof String )
+         {
+            return new Code( javaString( ( String ) oValue ), String.class, null, false );
+         }
+         else if ( oValue instanceof Long )
+         {
+            long lValue = ( ( Long ) oValue ).longValue();
+
+            if ( lValue <= Integer.MAX_VALUE )
+            {
+               return new Code( String.valueOf( lValue ), int.class, null, false );
+            }
+
+            return new Code( lValue + "L", long.class, null, false );
+         }
+         else if ( oValue instanceof Double )
+         {
+            return new Code( oValue + "d", double.class, null, false );
+         }
+         else
+         {
+            return new Code( oValue.toString(), boolean.class, null, false );
+         }
+      }
+      else if ( oExpression instanceof Expression.Variable )
+      {
+         String   sName    = ( ( Expression.Variable ) oExpression ).getName();
+         Code     oLocal   = getLocal( sName, oFrame );
+
+         return oLocal != null ? oLocal : property( _oRoot, sName );
+      }
+      else if ( oExpression instanceof Expression.Property )
+      {
+         Expression.Property oProperty = ( Expression.Property ) oExpression;
+
+         return property( checked( expression( oProperty.getTarget(), oFrame ), oProperty.getTarget() ), oProperty.getName() );
+      }
+      else if ( oExpression instanceof Expression.BuiltIn )
+      {
+         return builtIn( ( Expression.BuiltIn ) oExpression, oFrame );
+      }
+      else if ( oExpression instanceof Expression.Unary )
+      {
+         Expression.Unary  oUnary   = ( Expression.Unary ) oExpression;
+         Code              oOperand = expression( oUnary.getOperand(), oFrame );
+
+         if ( oUnary.getOperator().equals( "!" ) )
+         {
+            return new Code( "( ! " + booleanCode( oOperand, oUnary.getOperand() ) + " )", boolean.class, null, false );
+         }
+
+         if ( isNumber( oOperand._oType ) )
+         {
+            return new Code( "( - " + oOperand._sJava + " )", oOperand._oType, null, false );
+         }
+
+         return new Code( "arithmetic( '-', 0L, " + oOperand._sJava + ", " + describe( oExpression ) + " )", Number.class, null, false );
+      }
+      else if ( oExpression instanceof Expression.Binary )
+      {
+         return binary( ( Expression.Binary ) oExpression, oFrame );
+      }
+      else if ( oExpression instanceof Expression.Default )
+      {
+         Expression.Default   oDefault    = ( Expression.Default ) oExpression;
+         Code                 oTarget     = nullSafe( oDefault.getTarget(), oFrame );
+         Code                 oFallback;
+
+         // as in Freemarker a missing default is an empty string
+         oFallback = oDefault.getDefault() == null
+                     ? new Code( "\"\"", String.class, null, false )
+                     : expression( oDefault.getDefault(), oFrame );
+
+         if ( oTarget._oType == oFallback._oType && ! oFallback._oType.isPrimitive() )
+         {
+            return new Code( cast( oTarget._oType, "dflt( " + oTarget._sJava + ", " + oFallback._sJava + " )" ),
+                             oTarget._oType,
+                             oTarget._oGenericType,
+                             oFallback._bNullable,
+                             oTarget._oElementType );
+         }
+
+         return new Code( "dflt( " + oTarget._sJava + ", " + oFallback._sJava + " )", Object.class, null, oFallback._bNullable );
+      }
+      else
+      {
+         Code oTarget = nullSafe( ( ( Expression.Exists ) oExpression ).getTarget(), oFrame );
+
+         return new Code( "( " + oTarget._sJava + " != null )", boolean.class, null, false );
+      }
+   }
+
+   private Code binary( Expression.Binary oBinary, Frame oFrame ) throws TemplatingEngineException
+   {
+      String   sOperator   = oBinary.getOperator();
+      Code     oLeft       = expression( oBinary.getLeft(), oFrame );
+      Code     oRight      = expression( oBinary.getRight(), oFrame );
+      String   sDescribe   = describe( oBinary );
+      boolean  bNumbers    = isNumber( oLeft._oType ) && isNumber( oRight._oType );
+
+      if ( sOperator.equals( "&&" ) || sOperator.equals( "||" ) )
+      {
+         return new Code( "( " + booleanCode( oLeft, oBinary.getLeft() ) + " " + sOperator + " " + booleanCode( oRight, oBinary.getRight() ) + " )",
+                          boolean.class, null, false );
+      }
+
+      if ( sOperator.equals( "==" ) || sOperator.equals( "!=" ) )
+      {
+         if ( bNumbers || ( oLeft._oType == boolean.class && oRight._oType == boolean.class ) )
+         {
+            return new Code( "( " + oLeft._sJava + " " + sOperator + " " + oRight._sJava + " )", boolean.class, null, false );
+         }
+
+         return new Code( "( " + ( sOperator.equals( "!=" ) ? "! " : "" ) + "eq( " + oLeft._sJava + ", " + oRight._sJava + ", " + sDescribe + " ) )",
+                          boolean.class, null, false );
+      }
+
+      if ( sOperator.equals( "<" ) || sOperator.equals( ">" ) || sOperator.equals( "<=" ) || sOperator.equals( ">=" ) )
+      {
+         if ( bNumbers )
+         {
+            return new Code( "( " + oLeft._sJava + " " + sOperator + " " + oRight._sJava + " )", boolean.class, null, false );
+         }
+
+         return new Code( "( compare( " + oLeft._sJava + ", " + oRight._sJava + ", " + sDescribe + " ) " + sOperator + " 0 )",
+                          boolean.class, null, false );
+      }
+
+      if ( sOperator.equals( "+" ) && ( oLeft._oType == String.class || oRight._oType == String.class ) )
+      {
+         return new Code( "( " + stringCode( oLeft, oBinary.getLeft() ) + " + " + stringCode( oRight, oBinary.getRight() ) + " )",
+                          String.class, null, false );
+      }
+
+      if ( bNumbers )
+      {
+         if ( sOperator.equals( "/" ) || isFloatingPoint( oLeft._oType ) || isFloatingPoint( oRight._oType ) )
+         {
+            return new Code( "( ( double ) " + oLeft._sJava + " " + sOperator + " " + oRight._sJava + " )", double.class, null, false );
+         }
+
+         return new Code( "( ( long ) " + oLeft._sJava + " " + sOperator + " " + oRight._sJava + " )", long.class, null, false );
+      }
+
+      if ( sOperator.equals( "+" ) )
+      {
+         return new Code( "add( " + oLeft._sJava + ", " + oRight._sJava + ", " + sDescribe + " )", Object.class, null, false );
+      }
+
+      return new Code( "arithmetic( '" + sOperator + "', " + oLeft._sJava + ", " + oRight._sJava + ", " + sDescribe + " )",
+                       Number.class, null, false );
+   }
+
+   private Code builtIn( Expression.BuiltIn oBuiltIn, Frame oFrame ) throws TemplatingEngineException
+   {
+      String      sName    = oBuiltIn.getName();
+      Expression  oTarget  = oBuiltIn.getTarget();
+
+      if ( sName.equals( "has_content" ) )
+      {
+         // as with ?? an undefined value is not an error
+         Code oValue = isPath( oTarget ) ? nullSafe( oTarget, oFrame ) : expression( oTarget, oFrame );
+
+         return new Code( "hasContent( " + oValue._sJava + " )", boolean.class, null, false );
+      }
+
+      Code oValue = expression( oTarget, oFrame );
+
+      if ( sName.equals( "c" ) )
+      {
+         return new Code( oValue._oType.isPrimitive()
+                          ? "c( " + oValue._sJava + " )"
+                          : "c( " + oValue._sJava + ", " + describe( oTarget ) + " )",
+                          String.class, null, false );
+      }
+
+      if ( sName.equals( "size" ) )
+      {
+         Code oChecked = checked( oValue, oTarget );
+
+         if ( oValue._oType.isArray() )
+         {
+            return new Code( oChecked._sJava + ".length", int.class, null, false );
+         }
+
+         if ( Collection.class.isAssignableFrom( oValue._oType ) || Map.class.isAssignableFrom( oValue._oType ) )
+         {
+            return new Code( oChecked._sJava + ".size()", int.class, null, false );
+         }
+
+         return new Code( "size( " + oValue._sJava + ", " + describe( oTarget ) + " )", int.class, null, false );
+      }
+
+      if ( sName.equals( "keys" ) || sName.equals( "values" ) )
+      {
+         boolean bKeys = sName.equals( "keys" );
+
+         if ( Map.class.isAssignableFrom( oValue._oType ) )
+         {
+            return new Code( checked( oValue, oTarget )._sJava + ( bKeys ? ".keySet()" : ".values()" ),
+                             Collection.class,
+                             null,
+                             false,
+                             getTypeArgument( oValue._oGenericType, Map.class, bKeys ? 0 : 1 ) );
+         }
+
+         return new Code( sName + "( " + oValue._sJava + ", " + describe( oTarget ) + " )", Collection.class, null, false );
+      }
+
+      // the remaining built-ins apply to strings
+      String sString = stringCode( oValue, oTarget );
+
+      if ( sName.equals( "string" ) )
+      {
+         return new Code( sString, String.class, null, false );
+      }
+      else if ( sName.equals( "html" ) )
+      {
+         return new Code( "html( " + sString + " )", String.class, null, false );
+      }
+      else if ( sName.equals( "xml" ) )
+      {
+         return new Code( "xml( " + sString + " )", String.class, null, false );
+      }
+      else if ( sName.equals( "js_string" ) )
+      {
+         return new Code( "jsString( " + sString + " )", String.class, null, false );
+      }
+      else if ( sName.equals( "url" ) )
+      {
+         return new Code( "url( " + sString + " )", String.class, null, false );
+      }
+      else if ( sName.equals( "upper_case" ) )
+      {
+         return new Code( "upperCase( " + sString + " )", String.class, null, false );
+      }
+      else if ( sName.equals( "lower_case" ) )
+      {
+         return new Code( "lowerCase( " + sString + " )", String.class, null, false );
+      }
+      else if ( sName.equals( "cap_first" ) )
+      {
+         return new Code( "capFirst( " + sString + " )", String.class, null, false );
+      }
+      else if ( sName.equals( "trim" ) )
+      {
+         return new Code( sString + ".trim()", String.class, null, false );
+      }
+      else if ( sName.equals( "length" ) )
+      {
+         return new Code( sString + ".length()", int.class, null, false );
+      }
+
+      throw error( oBuiltIn.getLine(), "unsupported built-in: ?" + sName );
+   }
+
+   /**
+    * Generates a method that evaluates a variable or a chain of properties, returning null instead of failing
+    * when a value in the chain is undefined. This is used by the ! and ?? operators.
+    *
+    * @return the call of the method, its type is the type of the last property of the chain
+    */
+   private Code nullSafe( Expression oTarget, Frame oFrame ) throws TemplatingEngineException
+   {
+      List        oPropertyNameList = new ArrayList();
+      Expression  oExpression       = oTarget;
+
+      if ( ! isPath( oTarget ) )
+      {
+         throw error( oTarget.getLine(), "the ! and ?? operators and ?has_content can only be applied to variables and properties: " + oTarget.getText() );
+      }
+
+      while ( oExpression instanceof Expression.Property )
+      {
+         oPropertyNameList.add( 0, ( ( Expression.Property ) oExpression ).getName() );
+         oExpression = ( ( Expression.Property ) oExpression ).getTarget();
+      }
+
+      String   sName = ( ( Expression.Variable ) oExpression ).getName();
+      Code     oBase = getLocal( sName, oFrame );
+
+      if ( oBase == null )
+      {
+         oBase = _oRoot;
+         oPropertyNameList.add( 0, sName );
+      }
+
+      String         sMethod  = "ns" + _iNextId++;
+      StringBuffer   oMethod  = new StringBuffer();
+      Code           oValue   = new Code( "p", oBase._oType, oBase._oGenericType, oBase._bNullable, oBase._oElementType );
+
+      oMethod.append( "\n   private Object " ).append( sMethod ).append( "( final " ).append( javaType( oBase._oType ) ).append( " p ) throws Exception\n   {\n" );
+
+      for ( int i = 0; i < oPropertyNameList.size(); i++ )
+      {
+         if ( oValue._bNullable )
+         {
+            oMethod.append( "      if ( " ).append( oValue._sJava ).append( " == null ) return null;\n" );
+         }
+
+         Code     oProperty   = property( oValue, ( String ) oPropertyNameList.get( i ) );
+         String   sLocal      = "s" + i;
+
+         oMethod.append( "      final " ).append( javaType( oProperty._oType ) ).append( " " ).append( sLocal )
+            .append( " = " ).append( oProperty._sJava ).append( ";\n" );
+
+         oValue = new Code( sLocal, oProperty._oType, oProperty._oGenericType, oProperty._bNullable, oProperty._oElementType );
+      }
+
+      oMethod.append( "      return " ).append( oValue._sJava ).append( ";\n   }\n" );
+
+      _oMethods.append( oMethod );
+
+      return new Code( sMethod + "( " + oBase._sJava + " )",
+                       oValue._oType.isPrimitive() ? Object.class : oValue._oType,
+                       oValue._oGenericType,
+                       true,
+                       oValue._oElementType );
+   }
+
+   /**
+    * Generates the access of a property of a value, the value must not be null
+    */
+   private Code property( Code oValue, String sName )
+   {
+      Class oType = oValue._oType;
+
+      if ( Map.class.isAssignableFrom( oType ) )
+      {
+         return new Code( oValue._sJava + ".get( " + javaString( sName ) + " )", Object.class, null, true );
+      }
+
+      if ( ! oType.isPrimitive() && oType != Object.class )
+      {
+         Object oAccessor = CompiledTemplate.findAccessor( oType, sName, _bExposePublicFields );
+
+         if ( oAccessor instanceof Method )
+         {
+            Method oGetter = ( Method ) oAccessor;
+
+            if ( isUsable( oGetter.getReturnType() ) && isUsable( oGetter.getExceptionTypes() ) )
+            {
+               return new Code( oValue._sJava + "." + oGetter.getName() + "()",
+                                oGetter.getReturnType(),
+                                oGetter.getGenericReturnType(),
+                                ! oGetter.getReturnType().isPrimitive() );
+            }
+         }
+         else if ( oAccessor instanceof Field )
+         {
+            Field oField = ( Field ) oAccessor;
+
+            if ( isUsable( oField.getType() ) )
+            {
+               return new Code( oValue._sJava + "." + oField.getName(), oField.getType(), oField.getGenericType(), ! oField.getType().isPrimitive() );
+            }
+         }
+      }
+
+      // the class of the value is not known, or the property is not accessible, so it is looked up when rendering
+      return new Code( "property( " + oValue._sJava + ", " + javaString( sName ) + " )", Object.class, null, true );
+   }
+
+   /**
+    * @return the code of a value that fails with an undefined error if the value is null
+    */
+   private Code checked( Code oCode, Expression oExpression )
+   {
+      if ( ! oCode._bNullable )
+      {
+         return oCode;
+      }
+
+      return new Code( cast( oCode._oType, "nn( " + oCode._sJava + ", " + describe( oExpression ) + " )" ),
+                       oCode._oType,
+                       oCode._oGenericType,
+                       false,
+                       oCode._oElementType );
+   }
+
+   private String booleanCode( Code oCode, Expression oExpression )
+   {
+      if ( oCode._oType == boolean.class )
+      {
+         return oCode._sJava;
+      }
+
+      return "bool( " + oCode._sJava + ", " + describe( oExpression ) + " )";
+   }
+
+   private String stringCode( Code oCode, Expression oExpression )
+   {
+      if ( oCode._oType == String.class && ! oCode._bNullable )
+      {
+         return oCode._sJava;
+      }
+
+      if ( oCode._oType.isPrimitive() )
+      {
+         return "string( " + oCode._sJava + " )";
+      }
+
+      return "string( " + oCode._sJava + ", " + describe( oExpression ) + " )";
+   }
+
+   private Code getLocal( String sName, Frame oFrame )
+   {
+      for ( Frame oScope = oFrame; oScope != null; oScope = oScope._oParent )
+      {
+         Code oCode = ( Code ) oScope._oVariableMap.get( sName );
+
+         if ( oCode != null )
+         {
+            return oCode;
+         }
+      }
+
+      if ( _oAssignIndexMap.containsKey( sName ) )
+      {
+         return new Code( "a[ " + _oAssignIndexMap.get( sName ) + " ]", Object.class, null, true );
+      }
+
+      return null;
+   }
+
+   // utility methods
+
+   private void collectAssigns( List oNodeList )
+   {
+      for ( int i = 0; i < oNodeList.size(); i++ )
+      {
+         Node oNode = ( Node ) oNodeList.get( i );
+
+         if ( oNode instanceof Node.Assign )
+         {
+            if ( ! _oAssignIndexMap.containsKey( ( ( Node.Assign ) oNode ).getName() ) )
+            {
+               _oAssignIndexMap.put( ( ( Node.Assign ) oNode ).getName(), new Integer( _oAssignIndexMap.size() ) );
+            }
+         }
+         else if ( oNode instanceof Node.If )
+         {
+            Node.If oIf = ( Node.If ) oNode;
+
+            for ( int j = 0; j < oIf.getBodyList().size(); j++ )
+            {
+               collectAssigns( ( List ) oIf.getBodyList().get( j ) );
+            }
+
+            if ( oIf.hasElse() )
+            {
+               collectAssigns( oIf.getElseBody() );
+            }
+         }
+         else if ( oNode instanceof Node.ListLoop )
+         {
+            collectAssigns( ( ( Node.ListLoop ) oNode ).getBody() );
+         }
+         else if ( oNode instanceof Node.Call && ( ( Node.Call ) oNode ).getBody() != null )
+         {
+            collectAssigns( ( ( Node.Call ) oNode ).getBody() );
+         }
+      }
+   }
+
+   private String getTextField( String sText )
+   {
+      String sField = ( String ) _oTextFieldMap.get( sText );
+
+      if ( sField == null )
+      {
+         sField = "T" + _oTextFieldMap.size();
+
+         _oFields.append( "   private static final char[] " ).append( sField ).append( " = chars( new String[]{ " );
+
+         for ( int iStart = 0; iStart < sText.length(); iStart += MAX_STRING_LITERAL_LENGTH )
+         {
+            _oFields.append( iStart > 0 ? ", " : "" ).append( javaString( sText.substring( iStart, Math.min( sText.length(), iStart + MAX_STRING_LITERAL_LENGTH ) ) ) );
+         }
+
+         _oFields.append( " } );\n" );
+
+         _oTextFieldMap.put( sText, sField );
+      }
+
+      return sField;
+   }
+
+   /**
+    * @return a Java string literal that describes the location and text of an expression, for error messages
+    */
+   private String describe( Expression oExpression )
+   {
+      return javaString( "template " + _sTemplateName + ", line " + oExpression.getLine() + ": " + oExpression.getText() );
+   }
+
+   private TemplatingEngineException error( int iLine, String sMessage )
+   {
+      return TemplateParser.error( _sTemplateName, iLine, sMessage );
+   }
+
+   private void line( String sLine )
+   {
+      for ( int i = 0; i < _iIndent; i++ )
+      {
+         _oBody.append( "   " );
+      }
+
+      _oBody.append( sLine ).append( '\n' );
+   }
+
+   /**
+    * @return true if the generated class can name the class: the class and its enclosing classes are public,
+    * and the class is the one found by its name from the class loader of the view
+    */
+   private boolean isUsable( Class oClass )
+   {
+      while ( oClass.isArray() )
+      {
+         oClass = oClass.getComponentType();
+      }
+
+      if ( oClass.isPrimitive() )
+      {
+         return true;
+      }
+
+      Boolean oUsable = ( Boolean ) _oUsableClassMap.get( oClass );
+
+      if ( oUsable == null )
+      {
+         oUsable = Boolean.valueOf( JavaClassCompiler.isUsable( oClass, _oViewClassLoader ) );
+
+         _oUsableClassMap.put( oClass, oUsable );
+
+         if ( oUsable.booleanValue() )
+         {
+            _oReferencedClassSet.add( oClass );
+         }
+      }
+
+      return oUsable.booleanValue();
+   }
+
+   private boolean isUsable( Class[] aoClasses )
+   {
+      for ( int i = 0; i < aoClasses.length; i++ )
+      {
+         if ( ! isUsable( aoClasses[ i ] ) )
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   private Class usableOrObject( Class oClass )
+   {
+      return oClass != null && isUsable( oClass ) ? oClass : Object.class;
+   }
+
+   private static boolean isPath( Expression oExpression )
+   {
+      while ( oExpression instanceof Expression.Property )
+      {
+         oExpression = ( ( Expression.Property ) oExpression ).getTarget();
+      }
+
+      return oExpression instanceof Expression.Variable;
+   }
+
+   private static boolean isNumber( Class oType )
+   {
+      return oType == int.class
+             || oType == long.class
+             || oType == double.class
+             || oType == float.class
+             || oType == short.class
+             || oType == byte.class;
+   }
+
+   private static boolean isFloatingPoint( Class oType )
+   {
+      return oType == double.class || oType == float.class;
+   }
+
+   private static String cast( Class oType, String sJava )
+   {
+      if ( oType == Object.class )
+      {
+         return sJava;
+      }
+
+      return "( ( " + javaType( oType ) + " ) " + sJava + " )";
+   }
+
+   private static String javaType( Class oType )
+   {
+      if ( oType.isArray() )
+      {
+         return javaType( oType.getComponentType() ) + "[]";
+      }
+
+      return oType.isPrimitive() ? oType.getName() : oType.getCanonicalName();
+   }
+
+   /**
+    * @return the class of a type argument of a generic type, or null if it is not known
+    */
+   private static Class getTypeArgument( Type oType, Class oGenericClass, int iArgument )
+   {
+      if ( oType instanceof ParameterizedType )
+      {
+         ParameterizedType oParameterizedType = ( ParameterizedType ) oType;
+
+         // only the classes of the platform are trusted to pass their type arguments on to the generic
+         // class unchanged, as in List<T> implements Iterable<T>
+         if ( oParameterizedType.getRawType() instanceof Class
+              && ( ( Class ) oParameterizedType.getRawType() ).getClassLoader() == null
+              && oGenericClass.isAssignableFrom( ( Class ) oParameterizedType.getRawType() )
+              && ( ( Class ) oParameterizedType.getRawType() ).getTypeParameters().length == oGenericClass.getTypeParameters().length )
+         {
+            return toClass( oParameterizedType.getActualTypeArguments()[ iArgument ] );
+         }
+      }
+
+      return null;
+   }
+
+   private static Class toClass( Type oType )
+   {
+      if ( oType instanceof Class )
+      {
+         return ( Class ) oType;
+      }
+
+      if ( oType instanceof ParameterizedType && ( ( ParameterizedType ) oType ).getRawType() instanceof Class )
+      {
+         return ( Class ) ( ( ParameterizedType ) oType ).getRawType();
+      }
+
+      if ( oType instanceof WildcardType && ( ( WildcardType ) oType ).getUpperBounds().length == 1 )
+      {
+         return toClass( ( ( WildcardType ) oType ).getUpperBounds()[ 0 ] );
+      }
+
+      // a type variable
+      return null;
+   }
+
+   static String javaString( String sText )
+   {
+      StringBuffer oBuffer = new StringBuffer( sText.length() + 2 );
+
+      oBuffer.append( '"' );
+
+      for ( int i = 0; i < sText.length(); i++ )
+      {
+         char cChar = sText.charAt( i );
+
+         switch ( cChar )
+         {
+            case '"':   oBuffer.append( "\\\"" );  break;
+            case '\\':  oBuffer.append( "\\\\" );  break;
+            case '\n':  oBuffer.append( "\\n" );   break;
+            case '\r':  oBuffer.append( "\\r" );   break;
+            case '\t':  oBuffer.append( "\\t" );   break;
+            default:
+               if ( cChar < 0x20 )
+               {
+                  // an octal escape, since a unicode escape of a line break would end the literal
+                  oBuffer.append( '\\' ).append( Integer.toOctalString( cChar ) );
+               }
+               else if ( cChar > 0x7e )
+               {
+                  String sHex = Integer.toHexString( cChar );
+
+                  oBuffer.append( "\\u" ).append( "0000".substring( sHex.length() ) ).append( sHex );
+               }
+               else
+               {
+                  oBuffer.append( cChar );
+               }
+         }
+      }
+
+      return oBuffer.append( '"' ).toString();
+   }
+
+   /**
+    * The Java code of a value, with its static type
+    */
+   private static class Code
+   {
+      private  String   _sJava;
+      private  Class    _oType;
+      private  Type     _oGenericType;
+      private  boolean  _bNullable;
+      private  Class    _oElementType;
+
+      private Code( String sJava, Class oType, Type oGenericType, boolean bNullable )
+      {
+         this( sJava, oType, oGenericType, bNullable, null );
+      }
+
+      private Code( String sJava, Class oType, Type oGenericType, boolean bNullable, Class oElementType )
+      {
+         _sJava         = sJava;
+         _oType         = oType;
+         _oGenericType  = oGenericType;
+         _bNullable     = bNullable;
+         _oElementType  = oElementType;
+      }
+
+      /**
+       * @return the class of the items of this value, if it is a sequence, or null if it is not known
+       */
+      private Class getElementType()
+      {
+         if ( _oElementType != null )
+         {
+            return _oElementType;
+         }
+
+         if ( _oType.isArray() )
+         {
+            return _oType.getComponentType();
+         }
+
+         Class oElementType = getTypeArgument( _oGenericType, Iterable.class, 0 );
+
+         if ( oElementType == null )
+         {
+            oElementType = getTypeArgument( _oGenericType, Iterator.class, 0 );
+         }
+
+         if ( oElementType == null )
+         {
+            oElementType = getTypeArgument( _oGenericType, Enumeration.class, 0 );
+         }
+
+         return oElementType;
+      }
+   }
+
+   /**
+    * The variables visible at a point of the template, and the context of the macro being expanded
+    */
+   private static class Frame
+   {
+      private  Frame   _oParent;
+      private  Map     _oVariableMap        = new HashMap();
+      private  String  _sLoopLabel;
+      private  int     _iLoopFragmentDepth;
+      private  List    _oNestedBody;
+      private  Frame   _oNestedFrame;
+      private  List    _oMacroNameList;
+
+      private Frame( Frame oParent, String sLoopLabel, List oMacroNameList )
+      {
+         _oParent          = oParent;
+         _sLoopLabel       = sLoopLabel;
+         _oMacroNameList   = oMacroNameList;
+      }
+
+      private void put( String sName, Code oCode )
+      {
+         _oVariableMap.put( sName, oCode );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Internal.
+ * The elements of a compiled template, as parsed from the template source. The content of an included
+ * template is parsed into the nodes of the including template, so each node records the template it came from.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+abstract class Node
+{
+   private  String   _sTemplateName;
+   private  int      _iLine;
+
+   protected Node( String sTemplateName, int iLine )
+   {
+      _sTemplateName = sTemplateName;
+      _iLine         = iLine;
+   }
+
+   public String getTemplateName()
+   {
+      return _sTemplateName;
+   }
+
+   public int getLine()
+   {
+      return _iLine;
+   }
+
+   /**
+    * Static text
+    */
+   static class Text extends Node
+   {
+      private  String   _sText;
+
+      Text( String sTemplateName, int iLine, String sText )
+      {
+         super( sTemplateName, iLine );
+
+         _sText = sText;
+      }
+
+      public String getText()
+      {
+         return _sText;
+      }
+   }
+
+   /**
+    * An interpolation, as in ${user.name}
+    */
+   static class Interpolation extends Node
+   {
+      private  Expression  _oExpression;
+
+      Interpolation( String sTemplateName, int iLine, Expression oExpression )
+      {
+         super( sTemplateName, iLine );
+
+         _oExpression = oExpression;
+      }
+
+      public Expression getExpression()
+      {
+         return _oExpression;
+      }
+   }
+
+   /**
+    * An if directive with its elseif and else branches
+    */
+   static class If extends Node
+   {
+      private  List  _oConditionList  = new ArrayList();
+      private  List  _oBodyList       = new ArrayList();
+      private  List  _oElseBody;
+
+      If( String sTemplateName, int iLine )
+      {
+         super( sTemplateName, iLine );
+      }
+
+      /**
+       * Adds an if or an elseif branch
+       *
+       * @param oCondition the condition of the branch
+       * @return the list that receives the nodes of the branch
+       */
+      public List addBranch( Expression oCondition )
+      {
+         List oBody = new ArrayList();
+
+         _oConditionList.add( oCondition );
+         _oBodyList.add( oBody );
+
+         return oBody;
+      }
+
+      /**
+       * Adds the else branch
+       *
+       * @return the list that receives the nodes of the branch
+       */
+      public List addElse()
+      {
+         _oElseBody = new ArrayList();
+
+         return _oElseBody;
+      }
+
+      public boolean hasElse()
+      {
+         return _oElseBody != null;
+      }
+
+      /**
+       * @return the list of conditions, the body of the condition at an index is at the same index of the
+       * body list
+       */
+      public List getConditionList()
+      {
+         return _oConditionList;
+      }
+
+      public List getBodyList()
+      {
+         return _oBodyList;
+      }
+
+      /**
+       * @return the nodes of the else branch, or null if there is no else branch
+       */
+      public List getElseBody()
+      {
+         return _oElseBody;
+      }
+   }
+
+   /**
+    * A list directive, as in <#list users as user>
+    */
+   static class ListLoop extends Node
+   {
+      private  Expression  _oSequence;
+      private  String      _sVariableName;
+      private  List        _oBody         = new ArrayList();
+
+      ListLoop( String sTemplateName, int iLine, Expression oSequence, String sVariableName )
+      {
+         super( sTemplateName, iLine );
+
+         _oSequence     = oSequence;
+         _sVariableName = sVariableName;
+      }
+
+      public Expression getSequence()
+      {
+         return _oSequence;
+      }
+
+      public String getVariableName()
+      {
+         return _sVariableName;
+      }
+
+      public List getBody()
+      {
+         return _oBody;
+      }
+   }
+
+   /**
+    * An assignment of a variable, as in <#assign title = "Home">
+    */
+   static class Assign extends Node
+   {
+      private  String      _sName;
+      private  Expression  _oExpression;
+
+      Assign( String sTemplateName, int iLine, String sName, Expression oExpression )
+      {
+         super( sTemplateName, iLine );
+
+         _sName         = sName;
+         _oExpression   = oExpression;
+      }
+
+      public String getName()
+      {
+         return _sName;
+      }
+
+      public Expression getExpression()
+      {
+         return _oExpression;
+      }
+   }
+
+   /**
+    * A call of a macro or of the cache directive, as in <@greet name=user.name/>
+    */
+   static class Call extends Node
+   {
+      private  String   _sName;
+      private  List     _oParameterNameList  = new ArrayList();
+      private  List     _oParameterValueList = new ArrayList();
+      private  List     _oBody;
+
+      Call( String sTemplateName, int iLine, String sName )
+      {
+         super( sTemplateName, iLine );
+
+         _sName = sName;
+      }
+
+      public String getName()
+      {
+         return _sName;
+      }
+
+      public void addParameter( String sName, Expression oValue )
+      {
+         _oParameterNameList.add( sName );
+         _oParameterValueList.add( oValue );
+      }
+
+      public List getParameterNameList()
+      {
+         return _oParameterNameList;
+      }
+
+      public List getParameterValueList()
+      {
+         return _oParameterValueList;
+      }
+
+      /**
+       * Adds a body to this call
+       *
+       * @return the list that receives the nodes of the body
+       */
+      public List addBody()
+      {
+         _oBody = new ArrayList();
+
+         return _oBody;
+      }
+
+      /**
+       * @return the nodes of the body, or null if the call has no body
+       */
+      public List getBody()
+      {
+         return _oBody;
+      }
+   }
+
+   /**
+    * A nested directive, it renders the body of the macro call in a macro
+    */
+   static class Nested extends Node
+   {
+      Nested( String sTemplateName, int iLine )
+      {
+         super( sTemplateName, iLine );
+      }
+   }
+
+   /**
+    * A break directive, it ends the innermost list
+    */
+   static class Break extends Node
+   {
+      Break( String sTemplateName, int iLine )
+      {
+         super( sTemplateName, iLine );
+      }
+   }
+
+   /**
+    * The definition of a macro, as in <#macro greet name greeting="Hello">, this node is not part of the
+    * body of a template, macros are collected by name when the template is parsed
+    */
+   static class Macro extends Node
+   {
+      private  String   _sName;
+      private  List     _oParameterNameList     = new ArrayList();
+      private  List     _oParameterDefaultList  = new ArrayList();
+      private  List     _oBody                  = new ArrayList();
+
+      Macro( String sTemplateName, int iLine, String sName )
+      {
+         super( sTemplateName, iLine );
+
+         _sName = sName;
+      }
+
+      public String getName()
+      {
+         return _sName;
+      }
+
+      /**
+       * Adds a parameter to this macro
+       *
+       * @param sName the name of the parameter
+       * @param oDefault the default value of the parameter, or null if the parameter is required
+       */
+      public void addParameter( String sName, Expression oDefault )
+      {
+         _oParameterNameList.add( sName );
+         _oParameterDefaultList.add( oDefault );
+      }
+
+      public List getParameterNameList()
+      {
+         return _oParameterNameList;
+      }
+
+      public List getParameterDefaultList()
+      {
+         return _oParameterDefaultList;
+      }
+
+      public List getBody()
+      {
+         return _oBody;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.template.FragmentCache;
+import com.acciente.induction.template.TemplatingEngineException;
+
+import javax.servlet.ServletConfig;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Internal.
+ * Compiles a template into a Java class that renders the template for a specific view class.
+ * <p>
+ * The compiled templates support the subset of the Freemarker template language that is used by typical
+ * view templates, so a template can be rendered by either engine: interpolations, #if/#elseif/#else,
+ * #list (with the _index and _has_next variables), #break, #assign, #include, #macro with #nested and
+ * parameter defaults, the fragment cache directive (&lt;@cache&gt;), the ! and ?? operators, and the common
+ * string, sequence and hash built-ins. A template that uses anything else fails to compile with an error
+ * that names the line of the template.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class TemplateCompiler
+{
+   private static final AtomicInteger  __oClassSequence = new AtomicInteger();
+
+   private  TemplateLoader    _oTemplateLoader;
+   private  Config.Templating _oConfig;
+   private  FragmentCache     _oFragmentCache;
+
+   public TemplateCompiler( Config.Templating oConfig, ServletConfig oServletConfig, FragmentCache oFragmentCache )
+      throws ClassNotFoundException
+   {
+      _oTemplateLoader  = new TemplateLoader( oConfig.getTemplatePath(), oServletConfig );
+      _oConfig          = oConfig;
+      _oFragmentCache   = oFragmentCache;
+   }
+
+   /**
+    * Compiles a template for a view class
+    *
+    * @param sTemplateName the name of the template
+    * @param oViewClass the class of the views that will be rendered with the compiled template
+    * @return the compiled template
+    * @throws TemplatingEngineException if the template was not found, uses an unsupported feature of the
+    * template language, or the generated class did not compile
+    * @throws IOException if the template could not be read
+    */
+   public CompiledTemplate compile( String sTemplateName, Class oViewClass ) throws TemplatingEngineException, IOException
+   {
+      TemplateParser       oTemplateParser   = new TemplateParser( _oTemplateLoader );
+      List                 oNodeList         = oTemplateParser.parse( sTemplateName );
+      String               sClassName        = "Template" + __oClassSequence.incrementAndGet() + "_" + toIdentifier( sTemplateName );
+      JavaSourceGenerator  oSourceGenerator  = new JavaSourceGenerator( sClassName,
+                                                                        oNodeList,
+                                                                        oTemplateParser.getMacroMap(),
+                                                                        oViewClass,
+                                                                        _oConfig.isExposePublicFields() );
+      String               sSource           = oSourceGenerator.generate( sTemplateName );
+      Class                oTemplateClass    = JavaClassCompiler.compile( JavaSourceGenerator.PACKAGE_NAME + "." + sClassName,
+                                                                          sSource,
+                                                                          oSourceGenerator.getReferencedClassSet(),
+                                                                          oViewClass.getClassLoader() );
+      CompiledTemplate     oCompiledTemplate;
+
+      try
+      {
+         oCompiledTemplate = ( CompiledTemplate ) oTemplateClass.newInstance();
+      }
+      catch ( InstantiationException e )
+      {
+         throw new TemplatingEngineException( "compiled-templates > error creating compiled template: " + sTemplateName, e );
+      }
+      catch ( IllegalAccessException e )
+      {
+         throw new TemplatingEngineException( "compiled-templates > error creating compiled template: " + sTemplateName, e );
+      }
+
+      oCompiledTemplate.init( sTemplateName,
+                              _oConfig.getLocale(),
+                              _oConfig.isExposePublicFields(),
+                              _oFragmentCache,
+                              oTemplateParser.getSourceList() );
+
+      return oCompiledTemplate;
+   }
+
+   /**
+    * @return the file name of a template, without the extension, reduced to the characters allowed in a class name
+    */
+   private static String toIdentifier( String sTemplateName )
+   {
+      String         sFileName   = sTemplateName.substring( sTemplateName.lastIndexOf( '/' ) + 1 );
+      StringBuffer   oIdentifier = new StringBuffer();
+
+      if ( sFileName.indexOf( '.' ) > 0 )
+      {
+         sFileName = sFileName.substring( 0, sFileName.indexOf( '.' ) );
+      }
+
+      for ( int i = 0; i < sFileName.length(); i++ )
+      {
+         oIdentifier.append( Character.isJavaIdentifierPart( sFileName.charAt( i ) ) && sFileName.charAt( i ) < 0x80 ? sFileName.charAt( i ) : '_' );
+      }
+
+      return oIdentifier.toString();
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+import com.acciente.induction.init.config.Config;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Internal.
+ * Loads the source of templates from the configured template path. The entries of the template path are
+ * interpreted the same way as by the Freemarker templating engine, so that both engines find the same templates.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+class TemplateLoader
+{
+   private  List     _oRootList  = new ArrayList();
+   private  Charset  _oCharset   = Charset.defaultCharset();
+
+   TemplateLoader( Config.Templating.TemplatePath oTemplatePath, ServletConfig oServletConfig ) throws ClassNotFoundException
+   {
+      Log oLog = LogFactory.getLog( TemplateLoader.class );
+
+      for ( Iterator oIter = oTemplatePath.getList().iterator(); oIter.hasNext(); )
+      {
+         Object oLoaderPathItem = oIter.next();
+
+         if ( oLoaderPathItem instanceof Config.Templating.TemplatePath.Dir )
+         {
+            Config.Templating.TemplatePath.Dir oDir = ( Config.Templating.TemplatePath.Dir ) oLoaderPathItem;
+
+            if ( ! oDir.getDir().exists() )
+            {
+               oLog.warn( "compiled-templates > template load path > ignoring missing directory > " + oDir.getDir() );
+            }
+            else
+            {
+               oLog.info( "compiled-templates > template load path > adding directory > " + oDir.getDir() );
+
+               _oRootList.add( oDir.getDir() );
+            }
+         }
+         else if ( oLoaderPathItem instanceof Config.Templating.TemplatePath.LoaderClass )
+         {
+            Config.Templating.TemplatePath.LoaderClass oLoaderClass = ( Config.Templating.TemplatePath.LoaderClass ) oLoaderPathItem;
+
+            oLog.info( "compiled-templates > template load path > adding class > "
+                       + oLoaderClass.getLoaderClassName()
+                       + ", prefix: "
+                       + oLoaderClass.getPath() );
+
+            _oRootList.add( new ClassRoot( Class.forName( oLoaderClass.getLoaderClassName() ),
+                                           toDirectoryPath( oLoaderClass.getPath() ) ) );
+         }
+         else if ( oLoaderPathItem instanceof Config.Templating.TemplatePath.WebappPath )
+         {
+            Config.Templating.TemplatePath.WebappPath oWebappPath = ( Config.Templating.TemplatePath.WebappPath ) oLoaderPathItem;
+
+            oLog.info( "compiled-templates > template load path > adding webapp path > " + oWebappPath.getPath() );
+
+            String sPath = toDirectoryPath( oWebappPath.getPath() );
+
+            _oRootList.add( new WebappRoot( oServletConfig.getServletContext(), sPath.startsWith( "/" ) ? sPath : "/" + sPath ) );
+         }
+         else
+         {
+            throw new IllegalArgumentException( "Unexpected template path type in configuration: " + oLoaderPathItem.getClass() );
+         }
+      }
+   }
+
+   /**
+    * Loads the source of a template, the template path entries are searched in order
+    *
+    * @param sName the name of the template, relative to the entries of the template path
+    * @return the source, or null if the template was not found
+    * @throws IOException if the template was found but could not be read
+    */
+   public Source load( String sName ) throws IOException
+   {
+      for ( Iterator oIter = _oRootList.iterator(); oIter.hasNext(); )
+      {
+         Object oRoot = oIter.next();
+         URL    oURL;
+
+         if ( oRoot instanceof File )
+         {
+            File oFile = new File( ( File ) oRoot, sName );
+
+            if ( oFile.isFile() )
+            {
+               long lLastModified = oFile.lastModified();
+
+               return new Source( sName, read( oFile.toURI().toURL() ), oFile, null, lLastModified );
+            }
+
+            continue;
+         }
+         else if ( oRoot instanceof ClassRoot )
+         {
+            oURL = ( ( ClassRoot ) oRoot ).getResource( sName );
+         }
+         else
+         {
+            oURL = ( ( WebappRoot ) oRoot ).getResource( sName );
+         }
+
+         if ( oURL != null )
+         {
+            long lLastModified = getLastModified( oURL );
+
+            return new Source( sName, read( oURL ), null, oURL, lLastModified );
+         }
+      }
+
+      return null;
+   }
+
+   private String read( URL oURL ) throws IOException
+   {
+      URLConnection  oConnection    = oURL.openConnection();
+      InputStream    oInputStream;
+
+      // a jar URL connection would otherwise keep returning the content of a replaced jar
+      oConnection.setUseCaches( false );
+      oInputStream = oConnection.getInputStream();
+
+      try
+      {
+         ByteArrayOutputStream   oBuffer  = new ByteArrayOutputStream();
+         byte[]                  ayBytes  = new byte[ 8 * 1024 ];
+         int                     iCount;
+
+         while ( ( iCount = oInputStream.read( ayBytes ) ) != -1 )
+         {
+            oBuffer.write( ayBytes, 0, iCount );
+         }
+
+         return new String( oBuffer.toByteArray(), _oCharset.name() );
+      }
+      finally
+      {
+         oInputStream.close();
+      }
+   }
+
+   private static long getLastModified( URL oURL )
+   {
+      try
+      {
+         URLConnection oConnection = oURL.openConnection();
+
+         oConnection.setUseCaches( false );
+
+         long lLastModified = oConnection.getLastModified();
+
+         // only the last modified time is needed, but some URL connections open a stream that must be closed
+         oConnection.getInputStream().close();
+
+         return lLastModified;
+      }
+      catch ( IOException e )
+      {
+         return 0;
+      }
+   }
+
+   private static String toDirectoryPath( String sPath )
+   {
+      if ( sPath == null || sPath.length() == 0 )
+      {
+         return "";
+      }
+
+      return sPath.endsWith( "/" ) ? sPath : sPath + "/";
+   }
+
+   /**
+    * The source of a template
+    */
+   static class Source
+   {
+      private  String   _sName;
+      private  String   _sText;
+      private  File     _oFile;
+      private  URL      _oURL;
+      private  long     _lLastModified;
+
+      private Source( String sName, String sText, File oFile, URL oURL, long lLastModified )
+      {
+         _sName         = sName;
+         _sText         = sText;
+         _oFile         = oFile;
+         _oURL          = oURL;
+         _lLastModified = lLastModified;
+      }
+
+      public String getName()
+      {
+         return _sName;
+      }
+
+      public String getText()
+      {
+         return _sText;
+      }
+
+      /**
+       * @return true if the template was changed since this source was loaded, a source whose last modified
+       * time is not known is never considered modified
+       */
+      public boolean isModified()
+      {
+         if ( _oFile != null )
+         {
+            return _oFile.lastModified() != _lLastModified;
+         }
+
+         return _lLastModified != 0 && getLastModified( _oURL ) != _lLastModified;
+      }
+   }
+
+   private static class ClassRoot
+   {
+      private  Class    _oLoaderClass;
+      private  String   _sPath;
+
+      private ClassRoot( Class oLoaderClass, String sPath )
+      {
+         _oLoaderClass  = oLoaderClass;
+         _sPath         = sPath;
+      }
+
+      private URL getResource( String sName )
+      {
+         // as in Freemarker a path that does not start with / is relative to the package of the loader class
+         return _oLoaderClass.getResource( _sPath + sName );
+      }
+   }
+
+   private static class WebappRoot
+   {
+      private  ServletContext   _oServletContext;
+      private  String           _sPath;
+
+      private WebappRoot( ServletContext oServletContext, String sPath )
+      {
+         _oServletContext  = oServletContext;
+         _sPath            = sPath;
+      }
+
+      private URL getResource( String sName ) throws IOException
+      {
+         return _oServletContext.getResource( _sPath + sName );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,775 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.template.compiled;
+
+import com.acciente.induction.template.TemplatingEngineException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal.
+ * Parses a template, and the templates it includes, into a list of nodes and a map of macros.
+ * <p>
+ * The content of an included template is parsed into the nodes of the including template, and the macros
+ * defined by all the templates are collected into one map, so a macro can be called before it is defined
+ * and from any of the templates. As in Freemarker, the indentation and the line break of a line that
+ * contains only directive tags, macro call tags and comments is not part of the output.
+ * <p>
+ * This class is not thread safe, an instance is used to parse a single template.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+class TemplateParser
+{
+   private static final int   TEXT           = 0;
+   private static final int   COMMENT        = 1;
+   private static final int   INTERPOLATION  = 2;
+   private static final int   DIRECTIVE      = 3;
+   private static final int   CALL           = 4;
+
+   private  TemplateLoader   _oTemplateLoader;
+   private  Map              _oMacroMap        = new HashMap();
+   private  List             _oSourceList      = new ArrayList();
+   private  LinkedList       _oIncludeStack    = new LinkedList();
+
+   TemplateParser( TemplateLoader oTemplateLoader )
+   {
+      _oTemplateLoader = oTemplateLoader;
+   }
+
+   /**
+    * Parses a template
+    *
+    * @param sTemplateName the name of the template
+    * @return the list of nodes of the template
+    * @throws TemplatingEngineException if the template or an included template was not found or has a syntax error
+    * @throws IOException if a template could not be read
+    */
+   public List parse( String sTemplateName ) throws TemplatingEngineException, IOException
+   {
+      List oNodeList = new ArrayList();
+
+      parseTemplate( normalizeName( sTemplateName ), oNodeList, false, null, 0 );
+
+      return oNodeList;
+   }
+
+   /**
+    * @return the macros defined by the parsed templates, by name
+    */
+   public Map getMacroMap()
+   {
+      return _oMacroMap;
+   }
+
+   /**
+    * @return the sources of the parsed template and of the templates it includes
+    */
+   public List getSourceList()
+   {
+      return _oSourceList;
+   }
+
+   /**
+    * Creates an exception for an error at a line of a template
+    *
+    * @param sTemplateName the name of the template
+    * @param iLine the line of the error
+    * @param sMessage a description of the error
+    * @return the exception, to be thrown by the caller
+    */
+   static TemplatingEngineException error( String sTemplateName, int iLine, String sMessage )
+   {
+      return new TemplatingEngineException( "template " + sTemplateName + ", line " + iLine + ": " + sMessage );
+   }
+
+   private void parseTemplate( String sTemplateName, List oTarget, boolean bInMacro, String sIncludingTemplateName, int iIncludingLine )
+      throws TemplatingEngineException, IOException
+   {
+      if ( _oIncludeStack.contains( sTemplateName ) )
+      {
+         throw error( sIncludingTemplateName, iIncludingLine, "recursive include of " + sTemplateName );
+      }
+
+      TemplateLoader.Source oSource = _oTemplateLoader.load( sTemplateName );
+
+      if ( oSource == null )
+      {
+         if ( sIncludingTemplateName == null )
+         {
+            throw new TemplatingEngineException( "template not found: " + sTemplateName );
+         }
+
+         throw error( sIncludingTemplateName, iIncludingLine, "included template not found: " + sTemplateName );
+      }
+
+      _oSourceList.add( oSource );
+      _oIncludeStack.addLast( sTemplateName );
+
+      TokenReader oTokenReader = new TokenReader( sTemplateName, oSource.getText() );
+      Token       oEndToken    = parseNodes( oTokenReader, oTarget, bInMacro );
+
+      if ( oEndToken != null )
+      {
+         throw error( sTemplateName, oEndToken._iLine, "unexpected " + oEndToken.describe() );
+      }
+
+      _oIncludeStack.removeLast();
+   }
+
+   /**
+    * Parses nodes into a list until the end of the template or until a token that ends or divides a directive
+    *
+    * @return the token that ended the list (an end tag, an else or an elseif), or null at the end of the template
+    */
+   private Token parseNodes( TokenReader oTokenReader, List oTarget, boolean bInMacro )
+      throws TemplatingEngineException, IOException
+   {
+      String   sTemplateName  = oTokenReader._sTemplateName;
+      Token    oToken;
+
+      while ( ( oToken = oTokenReader.next() ) != null )
+      {
+         if ( oToken._iType == TEXT )
+         {
+            if ( oToken._sContent.length() > 0 )
+            {
+               oTarget.add( new Node.Text( sTemplateName, oToken._iLine, oToken._sContent ) );
+            }
+         }
+         else if ( oToken._iType == INTERPOLATION )
+         {
+            ExpressionParser oParser = oToken.getParser( sTemplateName );
+
+            oTarget.add( new Node.Interpolation( sTemplateName, oToken._iLine, oParser.parseExpression() ) );
+
+            oParser.expectEnd();
+         }
+         else if ( oToken._iType == CALL )
+         {
+            if ( oToken._bEndTag )
+            {
+               return oToken;
+            }
+
+            oTarget.add( parseCall( oTokenReader, oToken, bInMacro ) );
+         }
+         else if ( oToken._iType == DIRECTIVE )
+         {
+            if ( oToken._bEndTag || oToken._sName.equals( "else" ) || oToken._sName.equals( "elseif" ) )
+            {
+               return oToken;
+            }
+
+            parseDirective( oTokenReader, oToken, oTarget, bInMacro );
+         }
+      }
+
+      return null;
+   }
+
+   private void parseDirective( TokenReader oTokenReader, Token oToken, List oTarget, boolean bInMacro )
+      throws TemplatingEngineException, IOException
+   {
+      String            sTemplateName  = oTokenReader._sTemplateName;
+      String            sName          = oToken._sName;
+      ExpressionParser  oParser        = oToken.getParser( sTemplateName );
+
+      if ( sName.equals( "if" ) )
+      {
+         Node.If  oIf   = new Node.If( sTemplateName, oToken._iLine );
+         List     oBody = oIf.addBranch( parseCondition( oParser ) );
+
+         for ( ;; )
+         {
+            Token oEndToken = expectEndToken( oTokenReader, oToken, parseNodes( oTokenReader, oBody, bInMacro ) );
+
+            if ( oEndToken._bEndTag && oEndToken._sName.equals( "if" ) )
+            {
+               break;
+            }
+            else if ( ! oEndToken._bEndTag && oEndToken._sName.equals( "elseif" ) && ! oIf.hasElse() )
+            {
+               oBody = oIf.addBranch( parseCondition( oEndToken.getParser( sTemplateName ) ) );
+            }
+            else if ( ! oEndToken._bEndTag && oEndToken._sName.equals( "else" ) && ! oIf.hasElse() )
+            {
+               oEndToken.getParser( sTemplateName ).expectEnd();
+
+               oBody = oIf.addElse();
+            }
+            else
+            {
+               throw error( sTemplateName, oEndToken._iLine, "unexpected " + oEndToken.describe() );
+            }
+         }
+
+         oTarget.add( oIf );
+      }
+      else if ( sName.equals( "list" ) )
+      {
+         Expression oSequence = oParser.parseExpression();
+
+         oParser.expect( "as" );
+
+         Node.ListLoop oListLoop = new Node.ListLoop( sTemplateName, oToken._iLine, oSequence, oParser.expectName( "a loop variable name after as" ) );
+
+         oParser.expectEnd();
+
+         expectEndTag( oTokenReader, oToken, parseNodes( oTokenReader, oListLoop.getBody(), bInMacro ) );
+
+         oTarget.add( oListLoop );
+      }
+      else if ( sName.equals( "assign" ) )
+      {
+         do
+         {
+            String sVariableName = oParser.expectName( "a variable name" );
+
+            oParser.expect( "=" );
+
+            oTarget.add( new Node.Assign( sTemplateName, oToken._iLine, sVariableName, oParser.parseExpression() ) );
+         }
+         while ( ! oParser.isAtEnd() );
+      }
+      else if ( sName.equals( "include" ) )
+      {
+         Expression oIncludeName = oParser.parseExpression();
+
+         oParser.expectEnd();
+
+         if ( ! ( oIncludeName instanceof Expression.Literal ) || ! ( ( ( Expression.Literal ) oIncludeName ).getValue() instanceof String ) )
+         {
+            throw error( sTemplateName, oToken._iLine, "the name of an included template must be a string literal" );
+         }
+
+         String sIncludeName = ( String ) ( ( Expression.Literal ) oIncludeName ).getValue();
+
+         parseTemplate( resolveName( sTemplateName, sIncludeName ), oTarget, bInMacro, sTemplateName, oToken._iLine );
+      }
+      else if ( sName.equals( "macro" ) )
+      {
+         if ( bInMacro )
+         {
+            throw error( sTemplateName, oToken._iLine, "a macro cannot be defined in a macro" );
+         }
+
+         Node.Macro oMacro = new Node.Macro( sTemplateName, oToken._iLine, oParser.expectName( "a macro name" ) );
+
+         while ( ! oParser.isAtEnd() )
+         {
+            String sParameterName = oParser.expectName( "a parameter name" );
+
+            if ( oMacro.getParameterNameList().contains( sParameterName ) )
+            {
+               throw error( sTemplateName, oToken._iLine, "duplicate parameter: " + sParameterName );
+            }
+
+            oMacro.addParameter( sParameterName, oParser.consume( "=" ) ? oParser.parseExpression() : null );
+         }
+
+         expectEndTag( oTokenReader, oToken, parseNodes( oTokenReader, oMacro.getBody(), true ) );
+
+         // as in Freemarker a macro defined later replaces a macro with the same name
+         _oMacroMap.put( oMacro.getName(), oMacro );
+      }
+      else if ( sName.equals( "nested" ) )
+      {
+         if ( ! bInMacro )
+         {
+            throw error( sTemplateName, oToken._iLine, "#nested can only be used in a macro" );
+         }
+
+         oParser.expectEnd();
+
+         oTarget.add( new Node.Nested( sTemplateName, oToken._iLine ) );
+      }
+      else if ( sName.equals( "break" ) )
+      {
+         oParser.expectEnd();
+
+         oTarget.add( new Node.Break( sTemplateName, oToken._iLine ) );
+      }
+      else
+      {
+         throw error( sTemplateName, oToken._iLine, "unsupported directive: #" + sName );
+      }
+   }
+
+   private Node.Call parseCall( TokenReader oTokenReader, Token oToken, boolean bInMacro )
+      throws TemplatingEngineException, IOException
+   {
+      String            sTemplateName  = oTokenReader._sTemplateName;
+      ExpressionParser  oParser        = oToken.getParser( sTemplateName );
+      Node.Call         oCall          = new Node.Call( sTemplateName, oToken._iLine, oToken._sName );
+
+      while ( ! oParser.isAtEnd() )
+      {
+         String sParameterName = oParser.expectName( "a parameter name" );
+
+         if ( oCall.getParameterNameList().contains( sParameterName ) )
+         {
+            throw error( sTemplateName, oToken._iLine, "duplicate parameter: " + sParameterName );
+         }
+
+         oParser.expect( "=" );
+
+         oCall.addParameter( sParameterName, oParser.parseExpression() );
+      }
+
+      if ( ! oToken._bEmptyTag )
+      {
+         Token oEndToken = expectEndToken( oTokenReader, oToken, parseNodes( oTokenReader, oCall.addBody(), bInMacro ) );
+
+         // as in Freemarker the name may be omitted from the end tag of a call, as in </@>
+         if ( oEndToken._iType != CALL
+              || ! oEndToken._bEndTag
+              || ( oEndToken._sName.length() > 0 && ! oEndToken._sName.equals( oToken._sName ) ) )
+         {
+            throw error( sTemplateName, oEndToken._iLine, "unexpected " + oEndToken.describe() + ", expected </@" + oToken._sName + ">" );
+         }
+      }
+
+      return oCall;
+   }
+
+   private Expression parseCondition( ExpressionParser oParser ) throws TemplatingEngineException
+   {
+      Expression oCondition = oParser.parseExpression();
+
+      oParser.expectEnd();
+
+      return oCondition;
+   }
+
+   private Token expectEndToken( TokenReader oTokenReader, Token oStartToken, Token oEndToken ) throws TemplatingEngineException
+   {
+      if ( oEndToken == null )
+      {
+         throw error( oTokenReader._sTemplateName, oStartToken._iLine, "unclosed " + oStartToken.describe() );
+      }
+
+      return oEndToken;
+   }
+
+   private void expectEndTag( TokenReader oTokenReader, Token oStartToken, Token oEndToken ) throws TemplatingEngineException
+   {
+      expectEndToken( oTokenReader, oStartToken, oEndToken );
+
+      if ( oEndToken._iType != DIRECTIVE || ! oEndToken._bEndTag || ! oEndToken._sName.equals( oStartToken._sName ) )
+      {
+         throw error( oTokenReader._sTemplateName,
+                      oEndToken._iLine,
+                      "unexpected " + oEndToken.describe() + ", expected </#" + oStartToken._sName + ">" );
+      }
+
+      oEndToken.getParser( oTokenReader._sTemplateName ).expectEnd();
+   }
+
+   /**
+    * Resolves the name of an included template, a name that starts with / is relative to the template path,
+    * any other name is relative to the directory of the including template
+    */
+   private static String resolveName( String sIncludingTemplateName, String sIncludeName )
+   {
+      if ( sIncludeName.startsWith( "/" ) )
+      {
+         return normalizeName( sIncludeName );
+      }
+
+      int iLastSlash = sIncludingTemplateName.lastIndexOf( '/' );
+
+      return normalizeName( sIncludingTemplateName.substring( 0, iLastSlash + 1 ) + sIncludeName );
+   }
+
+   private static String normalizeName( String sName )
+   {
+      LinkedList     oPartList   = new LinkedList();
+      String[]       asParts     = sName.split( "/" );
+      StringBuffer   oBuffer     = new StringBuffer();
+
+      for ( int i = 0; i < asParts.length; i++ )
+      {
+         if ( asParts[ i ].equals( ".." ) )
+         {
+            if ( ! oPartList.isEmpty() )
+            {
+               oPartList.removeLast();
+            }
+         }
+         else if ( asParts[ i ].length() > 0 && ! asParts[ i ].equals( "." ) )
+         {
+            oPartList.addLast( asParts[ i ] );
+         }
+      }
+
+      for ( int i = 0; i < oPartList.size(); i++ )
+      {
+         if ( i > 0 )
+         {
+            oBuffer.append( '/' );
+         }
+
+         oBuffer.append( oPartList.get( i ) );
+      }
+
+      return oBuffer.toString();
+   }
+
+   /**
+    * A tag, interpolation, comment or text of a template
+    */
+   private static class Token
+   {
+      private  int      _iType;
+      private  int      _iStart;
+      private  int      _iEnd;
+      private  int      _iLine;
+      private  int      _iContentLine;
+      private  String   _sName;
+      private  String   _sContent;
+      private  boolean  _bEndTag;
+      private  boolean  _bEmptyTag;
+
+      private Token( int iType, int iStart, int iEnd, int iLine )
+      {
+         _iType   = iType;
+         _iStart  = iStart;
+         _iEnd    = iEnd;
+         _iLine   = iLine;
+      }
+
+      private ExpressionParser getParser( String sTemplateName )
+      {
+         return new ExpressionParser( sTemplateName, _sContent == null ? "" : _sContent, _iContentLine );
+      }
+
+      private String describe()
+      {
+         return "<" + ( _bEndTag ? "/" : "" ) + ( _iType == CALL ? "@" : "#" ) + _sName + ">";
+      }
+   }
+
+   /**
+    * Splits the source of a template into tokens and strips the white space of the lines that contain only
+    * directive tags, macro call tags and comments
+    */
+   private static class TokenReader
+   {
+      private  String   _sTemplateName;
+      private  String   _sText;
+      private  int[]    _aiLineStarts;
+      private  List     _oTokenList    = new ArrayList();
+      private  int      _iNextToken;
+
+      private TokenReader( String sTemplateName, String sText ) throws TemplatingEngineException
+      {
+         _sTemplateName = sTemplateName;
+         _sText         = sText;
+
+         computeLineStarts();
+         tokenize();
+         stripWhiteSpace();
+      }
+
+      private Token next()
+      {
+         return _iNextToken < _oTokenList.size() ? ( Token ) _oTokenList.get( _iNextToken++ ) : null;
+      }
+
+      private void tokenize() throws TemplatingEngineException
+      {
+         int iTextStart = 0;
+         int iPos       = 0;
+
+         while ( iPos < _sText.length() )
+         {
+            Token oToken = null;
+
+            if ( _sText.startsWith( "<#--", iPos ) )
+            {
+               int iEnd = _sText.indexOf( "-->", iPos + 4 );
+
+               if ( iEnd == -1 )
+               {
+                  throw error( _sTemplateName, getLine( iPos ), "unclosed comment" );
+               }
+
+               oToken = new Token( COMMENT, iPos, iEnd + 3, getLine( iPos ) );
+            }
+            else if ( _sText.startsWith( "${", iPos ) )
+            {
+               int iEnd = findEnd( iPos + 2, '}' );
+
+               oToken = new Token( INTERPOLATION, iPos, iEnd + 1, getLine( iPos ) );
+               oToken._sContent     = _sText.substring( iPos + 2, iEnd );
+               oToken._iContentLine = getLine( iPos + 2 );
+            }
+            else if ( isTagStart( iPos, "<#" ) || isTagStart( iPos, "</#" ) )
+            {
+               oToken = readTag( DIRECTIVE, iPos );
+            }
+            else if ( isTagStart( iPos, "<@" ) || isTagStart( iPos, "</@" ) || _sText.startsWith( "</@>", iPos ) )
+            {
+               oToken = readTag( CALL, iPos );
+            }
+
+            if ( oToken == null )
+            {
+               iPos++;
+            }
+            else
+            {
+               addText( iTextStart, iPos );
+
+               _oTokenList.add( oToken );
+
+               iPos = iTextStart = oToken._iEnd;
+            }
+         }
+
+         addText( iTextStart, _sText.length() );
+      }
+
+      private boolean isTagStart( int iPos, String sPrefix )
+      {
+         int iNamePos = iPos + sPrefix.length();
+
+         return _sText.startsWith( sPrefix, iPos )
+                && iNamePos < _sText.length()
+                && Character.isJavaIdentifierStart( _sText.charAt( iNamePos ) );
+      }
+
+      private Token readTag( int iType, int iPos ) throws TemplatingEngineException
+      {
+         boolean  bEndTag     = _sText.charAt( iPos + 1 ) == '/';
+         int      iNameStart  = iPos + ( bEndTag ? 3 : 2 );
+         int      iNameEnd    = iNameStart;
+
+         while ( iNameEnd < _sText.length() && Character.isJavaIdentifierPart( _sText.charAt( iNameEnd ) ) )
+         {
+            iNameEnd++;
+         }
+
+         int   iEnd     = findEnd( iNameEnd, '>' );
+         Token oToken   = new Token( iType, iPos, iEnd + 1, getLine( iPos ) );
+
+         oToken._sName        = _sText.substring( iNameStart, iNameEnd );
+         oToken._sContent     = _sText.substring( iNameEnd, iEnd );
+         oToken._iContentLine = getLine( iNameEnd );
+         oToken._bEndTag      = bEndTag;
+
+         if ( oToken._sContent.endsWith( "/" ) )
+         {
+            oToken._sContent  = oToken._sContent.substring( 0, oToken._sContent.length() - 1 );
+            oToken._bEmptyTag = true;
+         }
+
+         return oToken;
+      }
+
+      /**
+       * Finds the end of a tag or an interpolation, the end character is ignored in string literals and,
+       * if the end character is >, in parentheses
+       */
+      private int findEnd( int iPos, char cEnd ) throws TemplatingEngineException
+      {
+         int      iStart   = iPos;
+         int      iDepth   = 0;
+         char     cQuote   = 0;
+
+         for ( ; iPos < _sText.length(); iPos++ )
+         {
+            char cChar = _sText.charAt( iPos );
+
+            if ( cQuote != 0 )
+            {
+               if ( cChar == '\\' )
+               {
+                  iPos++;
+               }
+               else if ( cChar == cQuote )
+               {
+                  cQuote = 0;
+               }
+            }
+            else if ( cChar == '"' || cChar == '\'' )
+            {
+               cQuote = cChar;
+            }
+            else if ( cChar == '(' )
+            {
+               iDepth++;
+            }
+            else if ( cChar == ')' )
+            {
+               iDepth--;
+            }
+            else if ( cChar == cEnd && ( iDepth <= 0 || cEnd != '>' ) )
+            {
+               return iPos;
+            }
+         }
+
+         throw error( _sTemplateName, getLine( iStart ), "missing " + cEnd );
+      }
+
+      private void addText( int iStart, int iEnd )
+      {
+         if ( iEnd > iStart )
+         {
+            _oTokenList.add( new Token( TEXT, iStart, iEnd, getLine( iStart ) ) );
+         }
+      }
+
+      private void stripWhiteSpace()
+      {
+         boolean[]   abStripped  = new boolean[ _sText.length() ];
+         int         iToken      = 0;
+
+         for ( int iLine = 0; iLine < _aiLineStarts.length; iLine++ )
+         {
+            int      iLineStart  = _aiLineStarts[ iLine ];
+            int      iLineEnd    = iLine + 1 < _aiLineStarts.length ? _aiLineStarts[ iLine + 1 ] : _sText.length();
+            boolean  bHasTag     = false;
+            boolean  bStrip      = true;
+
+            // skip the tokens that end before this line, the tokens are in order and cover the complete text
+            while ( iToken < _oTokenList.size() && ( ( Token ) _oTokenList.get( iToken ) )._iEnd <= iLineStart )
+            {
+               iToken++;
+            }
+
+            for ( int i = iToken; i < _oTokenList.size() && bStrip; i++ )
+            {
+               Token oToken = ( Token ) _oTokenList.get( i );
+
+               if ( oToken._iStart >= iLineEnd )
+               {
+                  break;
+               }
+
+               if ( oToken._iType == TEXT )
+               {
+                  for ( int iPos = Math.max( oToken._iStart, iLineStart ); iPos < Math.min( oToken._iEnd, iLineEnd ); iPos++ )
+                  {
+                     if ( ! Character.isWhitespace( _sText.charAt( iPos ) ) )
+                     {
+                        bStrip = false;
+                     }
+                  }
+               }
+               else if ( ( oToken._iType == DIRECTIVE || oToken._iType == CALL || oToken._iType == COMMENT )
+                         && oToken._iStart >= iLineStart
+                         && oToken._iEnd <= iLineEnd )
+               {
+                  bHasTag = true;
+               }
+               else
+               {
+                  bStrip = false;
+               }
+            }
+
+            if ( bStrip && bHasTag )
+            {
+               for ( int iPos = iLineStart; iPos < iLineEnd; iPos++ )
+               {
+                  abStripped[ iPos ] = true;
+               }
+            }
+         }
+
+         for ( int i = 0; i < _oTokenList.size(); i++ )
+         {
+            Token oToken = ( Token ) _oTokenList.get( i );
+
+            if ( oToken._iType == TEXT )
+            {
+               StringBuffer oBuffer = new StringBuffer( oToken._iEnd - oToken._iStart );
+
+               for ( int iPos = oToken._iStart; iPos < oToken._iEnd; iPos++ )
+               {
+                  if ( ! abStripped[ iPos ] )
+                  {
+                     oBuffer.append( _sText.charAt( iPos ) );
+                  }
+               }
+
+               oToken._sContent = oBuffer.toString();
+            }
+         }
+      }
+
+      private void computeLineStarts()
+      {
+         List oLineStartList = new ArrayList();
+
+         oLineStartList.add( new Integer( 0 ) );
+
+         for ( int iPos = 0; iPos < _sText.length(); iPos++ )
+         {
+            if ( _sText.charAt( iPos ) == '\n' && iPos + 1 < _sText.length() )
+            {
+               oLineStartList.add( new Integer( iPos + 1 ) );
+            }
+         }
+
+         _aiLineStarts = new int[ oLineStartList.size() ];
+
+         for ( int i = 0; i < _aiLineStarts.length; i++ )
+         {
+            _aiLineStarts[ i ] = ( ( Integer ) oLineStartList.get( i ) ).intValue();
+         }
+      }
+
+      /**
+       * @return the 1-based line number of a position in the text
+       */
+      private int getLine( int iPos )
+      {
+         int iLow    = 0;
+         int iHigh   = _aiLineStarts.length - 1;
+
+         while ( iLow < iHigh )
+         {
+            int iMiddle = ( iLow + iHigh + 1 ) / 2;
+
+            if ( _aiLineStarts[ iMiddle ] <= iPos )
+            {
+               iLow = iMiddle;
+            }
+            else
+            {
+               iHigh = iMiddle - 1;
+            }
+         }
+
+         return iLow + 1;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
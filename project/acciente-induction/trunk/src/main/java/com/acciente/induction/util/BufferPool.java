@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.util;
+
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Internal.
+ * A bounded pool of reusable buffers (char arrays, byte arrays, string writers, ...).
+ * <p>
+ * The pool keeps at most a configured number of idle buffers, spread over a number of stripes. A thread
+ * acquires from and releases to the stripe selected by its id, and each stripe is an array of slots
+ * updated with compare-and-set, so acquire and release take no locks. When its stripe is empty a thread
+ * creates a new buffer (a miss), when its stripe is full a released buffer is disposed of (a discard).
+ * <p>
+ * A buffer that has grown beyond the configured maximum retained size (for example a string writer that
+ * held a very large page) is not returned to the pool, so a single large response does not pin a large
+ * buffer for the life of the application.
+ * <p>
+ * The following counters are published with the pool name as prefix: acquires, misses, discards, oversize.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class BufferPool
+{
+   public static final BufferType CHAR_ARRAY    = new CharArrayBufferType();
+   public static final BufferType BYTE_ARRAY    = new ByteArrayBufferType();
+   public static final BufferType STRING_WRITER = new StringWriterBufferType();
+
+   private BufferType               _oBufferType;
+   private int                      _iBufferSize;
+   private int                      _iMaxRetainedSize;
+   private AtomicReferenceArray[]   _aoStripes;
+
+   private Counter                  _oAcquireCounter;
+   private Counter                  _oMissCounter;
+   private Counter                  _oDiscardCounter;
+   private Counter                  _oOversizeCounter;
+
+   /**
+    * Creates a buffer pool
+    *
+    * @param sName the name of the pool, used as the prefix of the pool's counters
+    * @param oBufferType the type of buffer pooled
+    * @param iBufferSize the size of a new buffer
+    * @param iMaxPooledBuffers the maximum number of idle buffers kept, 0 turns off pooling
+    * @param iMaxRetainedSize the maximum size of a buffer that is returned to the pool
+    * @param oStatistics the statistics registry
+    */
+   public BufferPool( String       sName,
+                      BufferType   oBufferType,
+                      int          iBufferSize,
+                      int          iMaxPooledBuffers,
+                      int          iMaxRetainedSize,
+                      Statistics   oStatistics )
+   {
+      _oBufferType      = oBufferType;
+      _iBufferSize      = iBufferSize;
+      _iMaxRetainedSize = Math.max( iBufferSize, iMaxRetainedSize );
+
+      // enough stripes that threads rarely share one, but each stripe holds at least a few buffers
+      int iStripeCount  = Math.max( 1, Math.min( Integer.highestOneBit( Runtime.getRuntime().availableProcessors() * 2 ),
+                                                 Integer.highestOneBit( Math.max( 1, iMaxPooledBuffers / 4 ) ) ) );
+      int iSlotCount    = ( iMaxPooledBuffers + iStripeCount - 1 ) / iStripeCount;
+
+      _aoStripes = new AtomicReferenceArray[ iStripeCount ];
+
+      for ( int i = 0; i < _aoStripes.length; i++ )
+      {
+         _aoStripes[ i ] = new AtomicReferenceArray( iSlotCount );
+      }
+
+      _oAcquireCounter  = oStatistics.getCounter( sName + ".acquires" );
+      _oMissCounter     = oStatistics.getCounter( sName + ".misses" );
+      _oDiscardCounter  = oStatistics.getCounter( sName + ".discards" );
+      _oOversizeCounter = oStatistics.getCounter( sName + ".oversize" );
+   }
+
+   public int getBufferSize()
+   {
+      return _iBufferSize;
+   }
+
+   /**
+    * Returns an idle buffer from the pool, or a new buffer if the pool has none
+    *
+    * @return a buffer of the pool's buffer type, cleared
+    */
+   public Object acquire()
+   {
+      _oAcquireCounter.increment();
+
+      AtomicReferenceArray oStripe = getStripe();
+
+      for ( int i = 0; i < oStripe.length(); i++ )
+      {
+         Object oBuffer = oStripe.get( i );
+
+         if ( oBuffer != null && oStripe.compareAndSet( i, oBuffer, null ) )
+         {
+            return oBuffer;
+         }
+      }
+
+      _oMissCounter.increment();
+
+      return _oBufferType.createBuffer( _iBufferSize );
+   }
+
+   /**
+    * Returns a buffer to the pool, the buffer must not be used by the caller after this call
+    *
+    * @param oBuffer a buffer previously acquired from this pool
+    */
+   public void release( Object oBuffer )
+   {
+      if ( _oBufferType.getSize( oBuffer ) > _iMaxRetainedSize )
+      {
+         _oOversizeCounter.increment();
+         _oBufferType.dispose( oBuffer );
+         return;
+      }
+
+      _oBufferType.clear( oBuffer );
+
+      AtomicReferenceArray oStripe = getStripe();
+
+      for ( int i = 0; i < oStripe.length(); i++ )
+      {
+         if ( oStripe.get( i ) == null && oStripe.compareAndSet( i, null, oBuffer ) )
+         {
+            return;
+         }
+      }
+
+      _oDiscardCounter.increment();
+      _oBufferType.dispose( oBuffer );
+   }
+
+   private AtomicReferenceArray getStripe()
+   {
+      // the stripe count is a power of two
+      return _aoStripes[ ( int ) ( Thread.currentThread().getId() & ( _aoStripes.length - 1 ) ) ];
+   }
+
+   /**
+    * Implemented for each kind of buffer managed by a buffer pool
+    */
+   public static interface BufferType
+   {
+      /**
+       * @param iSize the configured buffer size
+       * @return a new buffer
+       */
+      public Object createBuffer( int iSize );
+
+      /**
+       * @param oBuffer a buffer
+       * @return the current size of the buffer, compared to the maximum retained size of the pool
+       */
+      public int getSize( Object oBuffer );
+
+      /**
+       * Prepares a released buffer for reuse
+       *
+       * @param oBuffer a buffer
+       */
+      public void clear( Object oBuffer );
+
+      /**
+       * Releases the resources held by a buffer that is not returned to the pool
+       *
+       * @param oBuffer a buffer
+       */
+      public void dispose( Object oBuffer );
+   }
+
+   private static class CharArrayBufferType implements BufferType
+   {
+      public Object createBuffer( int iSize )
+      {
+         return new char[ iSize ];
+      }
+
+      public int getSize( Object oBuffer )
+      {
+         return ( ( char[] ) oBuffer ).length;
+      }
+
+      public void clear( Object oBuffer )
+      {
+         // the users of char arrays track the used length themselves
+      }
+
+      public void dispose( Object oBuffer )
+      {
+         // left to the garbage collector
+      }
+   }
+
+   private static class ByteArrayBufferType implements BufferType
+   {
+      public Object createBuffer( int iSize )
+      {
+         return new byte[ iSize ];
+      }
+
+      public int getSize( Object oBuffer )
+      {
+         return ( ( byte[] ) oBuffer ).length;
+      }
+
+      public void clear( Object oBuffer )
+      {
+         // the users of byte arrays track the used length themselves
+      }
+
+      public void dispose( Object oBuffer )
+      {
+         // left to the garbage collector
+      }
+   }
+
+   private static class StringWriterBufferType implements BufferType
+   {
+      public Object createBuffer( int iSize )
+      {
+         return new StringWriter( iSize );
+      }
+
+      public int getSize( Object oBuffer )
+      {
+         return ( ( StringWriter ) oBuffer ).getBuffer().capacity();
+      }
+
+      public void clear( Object oBuffer )
+      {
+         ( ( StringWriter ) oBuffer ).getBuffer().setLength( 0 );
+      }
+
+      public void dispose( Object oBuffer )
+      {
+         // left to the garbage collector
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
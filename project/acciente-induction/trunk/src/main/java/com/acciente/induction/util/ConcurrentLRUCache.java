@@ -0,0 +1,480 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.util;
+
+import com.acciente.induction.statistics.Counter;
+import com.acciente.induction.statistics.Statistics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Internal.
+ * A bounded, thread-safe cache with least-recently-used eviction and an optional time-to-live.
+ * <p>
+ * The cache is split into segments, each with its own lock and its own share of the capacity, so the
+ * eviction order is LRU within a segment. The shares add up to exactly the maximum number of entries, and
+ * a small cache uses fewer segments, so that no segment is left with a share of zero.
+ * <p>
+ * Values are created on a miss by a caller supplied loader, and creation is single-flight: concurrent misses
+ * on the same key wait for the one load in progress instead of each running the loader.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ConcurrentLRUCache
+{
+   private static final int   MAX_SEGMENT_COUNT = 16;    // must be a power of 2
+
+   private  Segment[]         _aoSegments;
+   private  int               _iSegmentMask;
+   private  long              _lTimeToLiveInMillis;
+   private  EvictionListener  _oEvictionListener;
+   private  ConcurrentHashMap _oLoadInProgressMap;
+
+   private  Counter           _oHitCounter;
+   private  Counter           _oMissCounter;
+   private  Counter           _oEvictionCounter;
+   private  Counter           _oExpirationCounter;
+   private  Counter           _oLoadFailureCounter;
+   private  Counter           _oSizeCounter;
+
+   /**
+    * Creates a cache
+    *
+    * @param iMaxEntries the maximum number of entries in the cache
+    * @param lTimeToLiveInMillis the time after which an entry expires, 0 if entries do not expire
+    * @param oEvictionListener notified of entries removed by eviction or expiry, may be null
+    * @param oStatistics the registry to which the cache statistics are published
+    * @param sCounterPrefix the prefix of the names of the statistics counters of this cache
+    */
+   public ConcurrentLRUCache( int               iMaxEntries,
+                              long              lTimeToLiveInMillis,
+                              EvictionListener  oEvictionListener,
+                              Statistics        oStatistics,
+                              String            sCounterPrefix )
+   {
+      if ( iMaxEntries < 1 )
+      {
+         throw new IllegalArgumentException( "cache: max entries must be at least 1" );
+      }
+
+      // the segment count is the largest power of 2 not over the max entries, so every segment has room
+      // for at least one entry, the remainder of the division is spread one entry each over the first segments
+      int iSegmentCount = 1;
+      while ( iSegmentCount < MAX_SEGMENT_COUNT && iSegmentCount * 2 <= iMaxEntries )
+      {
+         iSegmentCount *= 2;
+      }
+
+      _aoSegments    = new Segment[ iSegmentCount ];
+      _iSegmentMask  = iSegmentCount - 1;
+      for ( int i = 0; i < _aoSegments.length; i++ )
+      {
+         _aoSegments[ i ] = new Segment( iMaxEntries / iSegmentCount + ( i < iMaxEntries % iSegmentCount ? 1 : 0 ) );
+      }
+
+      _lTimeToLiveInMillis = lTimeToLiveInMillis;
+      _oEvictionListener   = oEvictionListener;
+      _oLoadInProgressMap  = new ConcurrentHashMap();
+
+      _oHitCounter         = oStatistics.getCounter( sCounterPrefix + ".hits" );
+      _oMissCounter        = oStatistics.getCounter( sCounterPrefix + ".misses" );
+      _oEvictionCounter    = oStatistics.getCounter( sCounterPrefix + ".evictions" );
+      _oExpirationCounter  = oStatistics.getCounter( sCounterPrefix + ".expirations" );
+      _oLoadFailureCounter = oStatistics.getCounter( sCounterPrefix + ".load-failures" );
+      _oSizeCounter        = oStatistics.getCounter( sCounterPrefix + ".size" );
+   }
+
+   /**
+    * Returns the value cached for the specified key, if there is no value (or the value expired) the loader
+    * is used to create the value
+    *
+    * @param oKey the key
+    * @param oLoader used to create the value on a miss
+    * @return the cached or newly loaded value
+    * @throws ExecutionException if the loader failed, the loader's exception is the cause
+    */
+   public Object get( Object oKey, Loader oLoader ) throws ExecutionException
+   {
+      Segment oSegment = getSegment( oKey );
+      Object  oValue   = oSegment.get( oKey );
+
+      if ( oValue != null )
+      {
+         _oHitCounter.increment();
+         return oValue;
+      }
+
+      _oMissCounter.increment();
+
+      FutureTask oNewLoad  = new FutureTask( new LoadCallable( oSegment, oKey, oLoader ) );
+      FutureTask oLoad     = ( FutureTask ) _oLoadInProgressMap.putIfAbsent( oKey, oNewLoad );
+
+      if ( oLoad == null )
+      {
+         // no load in progress for this key, so we run the load in this thread
+         oLoad = oNewLoad;
+
+         try
+         {
+            oLoad.run();
+         }
+         finally
+         {
+            _oLoadInProgressMap.remove( oKey, oNewLoad );
+         }
+      }
+
+      try
+      {
+         return oLoad.get();
+      }
+      catch ( InterruptedException e )
+      {
+         Thread.currentThread().interrupt();
+         throw new ExecutionException( "cache: interrupted while waiting for value of key: " + oKey, e );
+      }
+   }
+
+   /**
+    * Removes the entry for the specified key, if the entry currently maps to the specified value
+    *
+    * @param oKey the key
+    * @param oValue the value expected to be mapped to the key
+    * @return true if the entry was removed
+    */
+   public boolean remove( Object oKey, Object oValue )
+   {
+      return getSegment( oKey ).remove( oKey, oValue );
+   }
+
+   /**
+    * Removes the entry for the specified key
+    *
+    * @param oKey the key
+    * @return true if there was an entry for the key
+    */
+   public boolean remove( Object oKey )
+   {
+      return getSegment( oKey ).remove( oKey );
+   }
+
+   /**
+    * Removes all the entries whose key is a string that starts with the specified prefix
+    *
+    * @param sKeyPrefix the prefix, an empty prefix removes all entries with a string key
+    * @return the number of entries removed
+    */
+   public int removeByKeyPrefix( String sKeyPrefix )
+   {
+      int iRemovedCount = 0;
+
+      for ( int i = 0; i < _aoSegments.length; i++ )
+      {
+         iRemovedCount += _aoSegments[ i ].removeByKeyPrefix( sKeyPrefix );
+      }
+
+      return iRemovedCount;
+   }
+
+   private Segment getSegment( Object oKey )
+   {
+      // spread the hash bits, since keys often have poorly distributed hash codes
+      int iHash = oKey.hashCode();
+      iHash ^= ( iHash >>> 20 ) ^ ( iHash >>> 12 );
+      iHash ^= ( iHash >>> 7 ) ^ ( iHash >>> 4 );
+
+      return _aoSegments[ iHash & _iSegmentMask ];
+   }
+
+   /**
+    * Creates the value for a key on a cache miss.
+    */
+   public static interface Loader
+   {
+      public Object load( Object oKey ) throws Exception;
+   }
+
+   /**
+    * Notified when an entry is removed from the cache because it was evicted or because it expired.
+    * The listener is called while the cache segment is locked, and must not call back into the cache.
+    */
+   public static interface EvictionListener
+   {
+      public void evicted( Object oKey, Object oValue );
+   }
+
+   private class LoadCallable implements Callable
+   {
+      private Segment   _oSegment;
+      private Object    _oKey;
+      private Loader    _oLoader;
+
+      private LoadCallable( Segment oSegment, Object oKey, Loader oLoader )
+      {
+         _oSegment   = oSegment;
+         _oKey       = oKey;
+         _oLoader    = oLoader;
+      }
+
+      public Object call() throws Exception
+      {
+         // a load for this key may have completed between our miss and the time we started this load
+         Object oValue = _oSegment.get( _oKey );
+
+         if ( oValue == null )
+         {
+            try
+            {
+               oValue = _oLoader.load( _oKey );
+            }
+            catch ( Exception e )
+            {
+               _oLoadFailureCounter.increment();
+               throw e;
+            }
+
+            if ( oValue == null )
+            {
+               _oLoadFailureCounter.increment();
+               throw new IllegalStateException( "cache: loader returned null for key: " + _oKey );
+            }
+
+            _oSegment.put( _oKey, oValue );
+         }
+
+         return oValue;
+      }
+   }
+
+   private class Segment
+   {
+      private ReentrantLock   _oLock         = new ReentrantLock();
+      private LinkedHashMap   _oEntryMap     = new LinkedHashMap( 16, 0.75f, true );   // in access order
+      private int             _iMaxEntries;
+      private long            _lEarliestExpiryTime = Long.MAX_VALUE;    // no entry expires before this time
+
+      private Segment( int iMaxEntries )
+      {
+         _iMaxEntries = iMaxEntries;
+      }
+
+      private Object get( Object oKey )
+      {
+         _oLock.lock();
+         try
+         {
+            Entry oEntry = ( Entry ) _oEntryMap.get( oKey );
+
+            if ( oEntry == null )
+            {
+               return null;
+            }
+
+            if ( oEntry.isExpired() )
+            {
+               _oEntryMap.remove( oKey );
+               _oSizeCounter.decrement();
+               _oExpirationCounter.increment();
+               notifyEvicted( oKey, oEntry._oValue );
+
+               return null;
+            }
+
+            return oEntry._oValue;
+         }
+         finally
+         {
+            _oLock.unlock();
+         }
+      }
+
+      private void put( Object oKey, Object oValue )
+      {
+         _oLock.lock();
+         try
+         {
+            // expired entries are otherwise only removed when read, so a key that is never read again
+            // would hold its slot (and its value) until it became the least recently used entry
+            if ( System.currentTimeMillis() >= _lEarliestExpiryTime )
+            {
+               removeExpired();
+            }
+
+            Entry oNewEntry      = new Entry( oValue );
+            Entry oPreviousEntry = ( Entry ) _oEntryMap.put( oKey, oNewEntry );
+
+            _lEarliestExpiryTime = Math.min( _lEarliestExpiryTime, oNewEntry._lExpiryTime );
+
+            if ( oPreviousEntry == null )
+            {
+               _oSizeCounter.increment();
+            }
+            else
+            {
+               notifyEvicted( oKey, oPreviousEntry._oValue );
+            }
+
+            // the iteration order is the access order, so the first entries are the least recently used
+            for ( Iterator oIter = _oEntryMap.entrySet().iterator(); _oEntryMap.size() > _iMaxEntries && oIter.hasNext(); )
+            {
+               Map.Entry oEldestEntry = ( Map.Entry ) oIter.next();
+
+               oIter.remove();
+               _oSizeCounter.decrement();
+               _oEvictionCounter.increment();
+               notifyEvicted( oEldestEntry.getKey(), ( ( Entry ) oEldestEntry.getValue() )._oValue );
+            }
+         }
+         finally
+         {
+            _oLock.unlock();
+         }
+      }
+
+      private void removeExpired()
+      {
+         long lEarliestExpiryTime = Long.MAX_VALUE;
+
+         for ( Iterator oIter = _oEntryMap.entrySet().iterator(); oIter.hasNext(); )
+         {
+            Map.Entry   oMapEntry   = ( Map.Entry ) oIter.next();
+            Entry       oEntry      = ( Entry ) oMapEntry.getValue();
+
+            if ( oEntry.isExpired() )
+            {
+               oIter.remove();
+               _oSizeCounter.decrement();
+               _oExpirationCounter.increment();
+               notifyEvicted( oMapEntry.getKey(), oEntry._oValue );
+            }
+            else
+            {
+               lEarliestExpiryTime = Math.min( lEarliestExpiryTime, oEntry._lExpiryTime );
+            }
+         }
+
+         _lEarliestExpiryTime = lEarliestExpiryTime;
+      }
+
+      private boolean remove( Object oKey, Object oValue )
+      {
+         _oLock.lock();
+         try
+         {
+            Entry oEntry = ( Entry ) _oEntryMap.get( oKey );
+
+            if ( oEntry != null && oEntry._oValue == oValue )
+            {
+               _oEntryMap.remove( oKey );
+               _oSizeCounter.decrement();
+
+               return true;
+            }
+
+            return false;
+         }
+         finally
+         {
+            _oLock.unlock();
+         }
+      }
+
+      private boolean remove( Object oKey )
+      {
+         _oLock.lock();
+         try
+         {
+            if ( _oEntryMap.remove( oKey ) != null )
+            {
+               _oSizeCounter.decrement();
+
+               return true;
+            }
+
+            return false;
+         }
+         finally
+         {
+            _oLock.unlock();
+         }
+      }
+
+      private int removeByKeyPrefix( String sKeyPrefix )
+      {
+         int iRemovedCount = 0;
+
+         _oLock.lock();
+         try
+         {
+            for ( Iterator oIter = _oEntryMap.keySet().iterator(); oIter.hasNext(); )
+            {
+               Object oKey = oIter.next();
+
+               if ( oKey instanceof String && ( ( String ) oKey ).startsWith( sKeyPrefix ) )
+               {
+                  oIter.remove();
+                  _oSizeCounter.decrement();
+                  iRemovedCount++;
+               }
+            }
+         }
+         finally
+         {
+            _oLock.unlock();
+         }
+
+         return iRemovedCount;
+      }
+
+      private void notifyEvicted( Object oKey, Object oValue )
+      {
+         if ( _oEvictionListener != null )
+         {
+            _oEvictionListener.evicted( oKey, oValue );
+         }
+      }
+   }
+
+   private class Entry
+   {
+      private Object _oValue;
+      private long   _lExpiryTime;
+
+      private Entry( Object oValue )
+      {
+         _oValue        = oValue;
+         _lExpiryTime   = ( _lTimeToLiveInMillis > 0 ) ? System.currentTimeMillis() + _lTimeToLiveInMillis : Long.MAX_VALUE;
+      }
+
+      private boolean isExpired()
+      {
+         return System.currentTimeMillis() >= _lExpiryTime;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.util;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Internal.
+ * A cache of the encoded bytes of the static text segments of parsed templates.
+ * <p>
+ * A template engine keeps the static text of a parsed template in char arrays and writes the same array
+ * instances on every render. The engine registers these arrays with this cache when a template is parsed (or
+ * compiled), the cache then maps each registered array, by identity, to its encoded bytes in each charset so
+ * that static markup is encoded once per parsed template instead of once per request. An array that was not
+ * registered is never cached, since its content may change between writes. The arrays are held weakly, so the
+ * entries of a template that is reparsed or discarded are released with the template.
+ * <p>
+ * The cache is split into segments, each with its own lock, to keep lookups from concurrent requests from
+ * contending on a single lock.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class EncodedSegmentCache
+{
+   private static final int      SEGMENT_COUNT  = 16;
+
+   // marks a segment that cannot be encoded on its own
+   private static final byte[]   NOT_ENCODABLE  = new byte[ 0 ];
+
+   private Map[]     _aoSegments;
+
+   public EncodedSegmentCache()
+   {
+      _aoSegments = new Map[ SEGMENT_COUNT ];
+
+      for ( int i = 0; i < _aoSegments.length; i++ )
+      {
+         // arrays do not override equals() and hashCode(), so the weak map is keyed by identity
+         _aoSegments[ i ] = new WeakHashMap();
+      }
+   }
+
+   /**
+    * Registers a static text segment, only registered segments are cached
+    *
+    * @param acSegment a char array of a parsed template whose content never changes
+    */
+   public void registerSegment( char[] acSegment )
+   {
+      Map oSegment = getSegment( acSegment );
+
+      synchronized ( oSegment )
+      {
+         if ( ! oSegment.containsKey( acSegment ) )
+         {
+            // the encoded bytes of the segment, by charset
+            oSegment.put( acSegment, new HashMap( 4 ) );
+         }
+      }
+   }
+
+   /**
+    * Returns the encoded bytes of the specified static text segment, encoding and caching them on first use
+    *
+    * @param acSegment a char array
+    * @param oCharset the charset to encode with
+    * @return the encoded bytes, or null if the array was not registered as a static text segment or if the
+    * segment cannot be encoded on its own (for example it ends in the first half of a surrogate pair)
+    */
+   public byte[] getEncodedSegment( char[] acSegment, Charset oCharset )
+   {
+      Map      oSegment = getSegment( acSegment );
+      Map      oEncodedSegmentMap;
+      byte[]   ayEncodedSegment;
+
+      synchronized ( oSegment )
+      {
+         oEncodedSegmentMap = ( Map ) oSegment.get( acSegment );
+
+         if ( oEncodedSegmentMap == null )
+         {
+            return null;
+         }
+
+         ayEncodedSegment = ( byte[] ) oEncodedSegmentMap.get( oCharset );
+      }
+
+      if ( ayEncodedSegment == null )
+      {
+         ayEncodedSegment = encode( acSegment, oCharset );
+
+         synchronized ( oSegment )
+         {
+            oEncodedSegmentMap.put( oCharset, ayEncodedSegment );
+         }
+      }
+
+      return ayEncodedSegment == NOT_ENCODABLE ? null : ayEncodedSegment;
+   }
+
+   private Map getSegment( char[] acSegment )
+   {
+      return _aoSegments[ ( System.identityHashCode( acSegment ) & 0x7fffffff ) % SEGMENT_COUNT ];
+   }
+
+   private byte[] encode( char[] acSegment, Charset oCharset )
+   {
+      if ( acSegment.length > 0
+            && ( Character.isLowSurrogate( acSegment[ 0 ] ) || Character.isHighSurrogate( acSegment[ acSegment.length - 1 ] ) ) )
+      {
+         // a segment with half of a surrogate pair at an edge depends on the text around it
+         return NOT_ENCODABLE;
+      }
+
+      try
+      {
+         CharsetEncoder oEncoder = oCharset.newEncoder()
+                                       .onMalformedInput( CodingErrorAction.REPLACE )
+                                       .onUnmappableCharacter( CodingErrorAction.REPLACE );
+
+         ByteBuffer     oEncoded = oEncoder.encode( CharBuffer.wrap( acSegment ) );
+         byte[]         ayBytes  = new byte[ oEncoded.remaining() ];
+
+         oEncoded.get( ayBytes );
+
+         return ayBytes;
+      }
+      catch ( CharacterCodingException e )
+      {
+         return NOT_ENCODABLE;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Internal.
+ * A writer that encodes text directly into an output stream, using a caller supplied byte buffer.
+ * <p>
+ * A write of a complete char array of at least MIN_CACHED_SEGMENT_LENGTH chars that the template engine
+ * registered as a static text segment with the EncodedSegmentCache is copied to the output as the cached
+ * encoded bytes of the segment. All other text (the dynamic values, and any char array that was not
+ * registered) is encoded as it is written.
+ * <p>
+ * This class is not thread safe, it is used by a single request.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class EncodingWriter extends Writer
+{
+   public static final int MIN_CACHED_SEGMENT_LENGTH = 32;
+
+   private OutputStream          _oOutputStream;
+   private EncodedSegmentCache   _oEncodedSegmentCache;
+   private Charset               _oCharset;
+   private CharsetEncoder        _oEncoder;
+   private ByteBuffer            _oByteBuffer;
+   private CharBuffer            _oSurrogateBuffer;
+   private boolean               _bHasPendingSurrogate;
+
+   /**
+    * Creates an encoding writer
+    *
+    * @param oOutputStream the stream that receives the encoded output
+    * @param oCharset the charset of the output
+    * @param oEncodedSegmentCache the cache of encoded static segments
+    * @param ayBuffer a buffer used to collect encoded bytes before they are written to the stream, must be
+    * at least 16 bytes long
+    */
+   public EncodingWriter( OutputStream oOutputStream, Charset oCharset, EncodedSegmentCache oEncodedSegmentCache, byte[] ayBuffer )
+   {
+      _oOutputStream          = oOutputStream;
+      _oEncodedSegmentCache   = oEncodedSegmentCache;
+      _oCharset               = oCharset;
+      _oEncoder               = oCharset.newEncoder()
+                                    .onMalformedInput( CodingErrorAction.REPLACE )
+                                    .onUnmappableCharacter( CodingErrorAction.REPLACE );
+      _oByteBuffer            = ByteBuffer.wrap( ayBuffer );
+      _oSurrogateBuffer       = CharBuffer.allocate( 2 );
+   }
+
+   public void write( char[] acChars ) throws IOException
+   {
+      if ( acChars.length >= MIN_CACHED_SEGMENT_LENGTH && ! _bHasPendingSurrogate )
+      {
+         byte[] ayEncodedSegment = _oEncodedSegmentCache.getEncodedSegment( acChars, _oCharset );
+
+         if ( ayEncodedSegment != null )
+         {
+            writeBytes( ayEncodedSegment );
+            return;
+         }
+      }
+
+      encode( CharBuffer.wrap( acChars ) );
+   }
+
+   public void write( char[] acChars, int iOffset, int iLength ) throws IOException
+   {
+      if ( iOffset == 0 && iLength == acChars.length )
+      {
+         write( acChars );
+      }
+      else
+      {
+         encode( CharBuffer.wrap( acChars, iOffset, iLength ) );
+      }
+   }
+
+   public void write( String sChars, int iOffset, int iLength ) throws IOException
+   {
+      encode( CharBuffer.wrap( sChars, iOffset, iOffset + iLength ) );
+   }
+
+   public void write( int iChar ) throws IOException
+   {
+      encode( CharBuffer.wrap( new char[]{ ( char ) iChar } ) );
+   }
+
+   /**
+    * Encodes any pending input and writes all encoded bytes to the output stream, the output stream is also
+    * flushed
+    */
+   public void flush() throws IOException
+   {
+      drainBuffer();
+      _oOutputStream.flush();
+   }
+
+   /**
+    * Completes the encoding and writes all encoded bytes to the output stream, the output stream is not closed
+    */
+   public void close() throws IOException
+   {
+      if ( _bHasPendingSurrogate )
+      {
+         // an unpaired high surrogate at the end of the output, the encoder replaces it
+         _oSurrogateBuffer.flip();
+         encode( _oSurrogateBuffer, true );
+         _oSurrogateBuffer.clear();
+         _bHasPendingSurrogate = false;
+      }
+      else
+      {
+         // the encoder can only be flushed once it has been told that the input ended
+         encode( CharBuffer.allocate( 0 ), true );
+      }
+
+      while ( _oEncoder.flush( _oByteBuffer ).isOverflow() )
+      {
+         drainBuffer();
+      }
+
+      drainBuffer();
+   }
+
+   private void encode( CharBuffer oChars ) throws IOException
+   {
+      if ( _bHasPendingSurrogate && oChars.hasRemaining() )
+      {
+         // complete the surrogate pair left over from the previous write
+         _oSurrogateBuffer.put( oChars.get() );
+         _oSurrogateBuffer.flip();
+         encode( _oSurrogateBuffer, false );
+         _oSurrogateBuffer.clear();
+         _bHasPendingSurrogate = false;
+      }
+
+      encode( oChars, false );
+
+      if ( oChars.hasRemaining() )
+      {
+         // the encoder stops short of a high surrogate at the end of the input, we keep it for the next write
+         _oSurrogateBuffer.put( oChars.get() );
+         _bHasPendingSurrogate = true;
+      }
+   }
+
+   private void encode( CharBuffer oChars, boolean bEndOfInput ) throws IOException
+   {
+      while ( true )
+      {
+         CoderResult oResult = _oEncoder.encode( oChars, _oByteBuffer, bEndOfInput );
+
+         if ( oResult.isOverflow() )
+         {
+            drainBuffer();
+         }
+         else if ( oResult.isUnderflow() )
+         {
+            return;
+         }
+         else
+         {
+            // not expected since the encoder replaces malformed and unmappable input
+            oResult.throwException();
+         }
+      }
+   }
+
+   private void writeBytes( byte[] ayBytes ) throws IOException
+   {
+      if ( ayBytes.length > _oByteBuffer.remaining() )
+      {
+         drainBuffer();
+      }
+
+      if ( ayBytes.length > _oByteBuffer.remaining() )
+      {
+         // larger than the buffer, so written through
+         _oOutputStream.write( ayBytes );
+      }
+      else
+      {
+         _oByteBuffer.put( ayBytes );
+      }
+   }
+
+   private void drainBuffer() throws IOException
+   {
+      if ( _oByteBuffer.position() > 0 )
+      {
+         _oOutputStream.write( _oByteBuffer.array(), _oByteBuffer.arrayOffset(), _oByteBuffer.position() );
+         _oByteBuffer.clear();
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
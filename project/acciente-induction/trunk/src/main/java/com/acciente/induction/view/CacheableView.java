@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.view;
+
+/**
+ * A view implements this interface to have its output kept in the output cache, this is an alternative to
+ * listing the view URL in the output-cache section of the view mapping configuration (when both apply the
+ * configuration takes precedence).
+ * <p>
+ * The cache is consulted before the view is created, so on a cache hit the view is neither created nor
+ * rendered. Since the cache settings are read from a view instance after it renders, the values returned
+ * by the methods below should be constants of the view class and should not depend on the request.
+ * <p>
+ * Only views reached via the view mapping (i.e. not views returned by a controller) are cached, and only
+ * successful GET and HEAD requests whose response does not set a cookie are stored.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface CacheableView
+{
+   /**
+    * @return the number of seconds the output of this view is served from the cache, a value less than
+    * one turns off caching for this view
+    */
+   int getCacheTimeToLive();
+
+   /**
+    * @return the number of seconds past its time to live during which the cached output is still served,
+    * while one request renders the view again to refresh the cache
+    */
+   int getCacheStaleWhileRevalidate();
+
+   /**
+    * @return the names of the request parameters whose values distinguish the cached output of this view,
+    * or null if the output only depends on the URL path
+    */
+   String[] getCacheKeyParameters();
+
+   /**
+    * @return the names of the request headers whose values distinguish the cached output of this view
+    * (for example Accept-Language), or null if no header is used
+    */
+   String[] getCacheKeyHeaders();
+}
+
+// EOF
\ No newline at end of file
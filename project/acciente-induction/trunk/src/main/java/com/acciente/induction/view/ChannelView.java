@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.view;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * This view interface should be implemented to send content read from a byte channel to the browser, for
+ * example content read from a blob store or a file opened by the view.
+ * <p>
+ * Induction reads the channel through a bounded buffer (a file channel is transferred to the response
+ * directly) and closes the channel when done. If the size of the content is known and the channel is a
+ * FileChannel or a SeekableByteChannel, a request with a Range header for a single range of bytes is answered
+ * with a 206 (Partial Content) response.
+ *
+ * @see FileView
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface ChannelView
+{
+   /**
+    * This method when called by Induction should return a channel positioned at the start of the content,
+    * the channel is closed by Induction
+    *
+    * @return an open channel
+    * @throws IOException if the channel could not be opened
+    */
+   ReadableByteChannel getChannel() throws IOException;
+
+   /**
+    * This method should return the size of the content in bytes
+    *
+    * @return the size of the content, or -1 if the size is not known
+    */
+   long getSize();
+
+   /**
+    * This method should return the mime type of the content
+    *
+    * @return a string representation of a mime type, e.g. video/mp4
+    */
+   String getMimeType();
+
+   /**
+    * This method should return the name under which the browser should save the content, or null to let the
+    * browser display the content
+    *
+    * @return a file name sent in a Content-Disposition: attachment header, or null
+    */
+   String getDownloadName();
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.view;
+
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A channel on which an application publishes events to the browsers that have an EventStream view open
+ * on the channel. A channel is typically kept by an application scope model, for example:
+ * <pre>
+ *    // in the model
+ *    private EventChannel _oPriceUpdates = new EventChannel();
+ *
+ *    public EventChannel getPriceUpdates()  { return _oPriceUpdates; }
+ *
+ *    public void updatePrice( ... )
+ *    {
+ *       ...
+ *       _oPriceUpdates.publish( "price", sPriceJSON );
+ *    }
+ * </pre>
+ * Publishing does not wait for the events to be sent, each event is encoded once and queued for every
+ * open stream.
+ * <p>
+ * This class is thread safe.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class EventChannel
+{
+   private static final Charset  UTF8  = Charset.forName( "UTF-8" );
+
+   private List            _oSubscriberList  = new CopyOnWriteArrayList();
+   private volatile boolean _bClosed;
+
+   /**
+    * Publishes an event without an event name (a message event in the browser)
+    *
+    * @param sData the event data, may contain line breaks
+    */
+   public void publish( String sData )
+   {
+      publish( null, null, sData );
+   }
+
+   /**
+    * Publishes a named event
+    *
+    * @param sEventName the event name, dispatched as an event of this type in the browser
+    * @param sData the event data, may contain line breaks
+    */
+   public void publish( String sEventName, String sData )
+   {
+      publish( sEventName, null, sData );
+   }
+
+   /**
+    * Publishes a named event with an id, the browser sends the id of the last event it received in the
+    * Last-Event-ID header when it reconnects
+    *
+    * @param sEventName the event name, or null for a message event
+    * @param sEventId the event id, or null
+    * @param sData the event data, may contain line breaks
+    */
+   public void publish( String sEventName, String sEventId, String sData )
+   {
+      if ( _bClosed || _oSubscriberList.isEmpty() )
+      {
+         return;
+      }
+
+      byte[] ayEvent = encodeEvent( sEventName, sEventId, sData );
+
+      for ( Iterator oIter = _oSubscriberList.iterator(); oIter.hasNext(); )
+      {
+         ( ( Subscriber ) oIter.next() ).deliver( ayEvent );
+      }
+   }
+
+   /**
+    * @return the number of open streams on this channel
+    */
+   public int getSubscriberCount()
+   {
+      return _oSubscriberList.size();
+   }
+
+   /**
+    * Ends all the streams open on this channel, a stream opened on a closed channel ends immediately
+    */
+   public void close()
+   {
+      _bClosed = true;
+
+      for ( Iterator oIter = _oSubscriberList.iterator(); oIter.hasNext(); )
+      {
+         ( ( Subscriber ) oIter.next() ).close();
+      }
+   }
+
+   public boolean isClosed()
+   {
+      return _bClosed;
+   }
+
+   /**
+    * Internal.
+    * Used by Induction to add an open stream to the channel.
+    *
+    * @param oSubscriber the stream
+    * @return false if the channel is closed
+    */
+   public boolean subscribe( Subscriber oSubscriber )
+   {
+      _oSubscriberList.add( oSubscriber );
+
+      // a close() that ran concurrently may not have seen this subscriber
+      if ( _bClosed )
+      {
+         _oSubscriberList.remove( oSubscriber );
+         return false;
+      }
+
+      return true;
+   }
+
+   /**
+    * Internal.
+    * Used by Induction to remove a stream that ended.
+    *
+    * @param oSubscriber the stream
+    */
+   public void unsubscribe( Subscriber oSubscriber )
+   {
+      _oSubscriberList.remove( oSubscriber );
+   }
+
+   private static byte[] encodeEvent( String sEventName, String sEventId, String sData )
+   {
+      StringBuffer oBuffer = new StringBuffer( sData == null ? 32 : sData.length() + 32 );
+
+      if ( sEventName != null )
+      {
+         oBuffer.append( "event: " ).append( checkField( "event name", sEventName ) ).append( '\n' );
+      }
+
+      if ( sEventId != null )
+      {
+         oBuffer.append( "id: " ).append( checkField( "event id", sEventId ) ).append( '\n' );
+      }
+
+      // each line of the data is sent in a data field, the browser joins them with line feeds
+      String sLines = sData == null ? "" : sData;
+
+      for ( int iStart = 0, iEnd; iStart <= sLines.length(); iStart = iEnd + 1 )
+      {
+         iEnd = iStart;
+         while ( iEnd < sLines.length() && sLines.charAt( iEnd ) != '\n' && sLines.charAt( iEnd ) != '\r' )
+         {
+            iEnd++;
+         }
+
+         oBuffer.append( "data: " ).append( sLines, iStart, iEnd ).append( '\n' );
+
+         if ( iEnd < sLines.length() - 1 && sLines.charAt( iEnd ) == '\r' && sLines.charAt( iEnd + 1 ) == '\n' )
+         {
+            iEnd++;
+         }
+      }
+
+      // a blank line ends the event
+      oBuffer.append( '\n' );
+
+      return oBuffer.toString().getBytes( UTF8 );
+   }
+
+   private static String checkField( String sFieldName, String sValue )
+   {
+      if ( sValue.indexOf( '\n' ) != -1 || sValue.indexOf( '\r' ) != -1 )
+      {
+         throw new IllegalArgumentException( "event-channel: " + sFieldName + " cannot contain a line break" );
+      }
+
+      return sValue;
+   }
+
+   /**
+    * Internal.
+    * An open stream on the channel.
+    */
+   public static interface Subscriber
+   {
+      /**
+       * Queues an encoded event for the stream, this method must not block
+       *
+       * @param ayEvent the event encoded as UTF-8 text/event-stream lines
+       */
+      void deliver( byte[] ayEvent );
+
+      /**
+       * Ends the stream
+       */
+      void close();
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.view;
+
+/**
+ * This view interface should be implemented to push events to the browser as they happen, using the
+ * server-sent events protocol (the browser's EventSource API).
+ * <p>
+ * The response is sent with the content type text/event-stream and stays open: every event published on
+ * the event channel returned by getEventChannel() is sent to the browser until the browser disconnects or
+ * the channel is closed. A comment line is sent to an idle stream at the configured heartbeat interval.
+ * Each stream queues at most the configured number of events, a browser that does not keep up is
+ * disconnected (the browser reconnects on its own).
+ * <p>
+ * If the servlet container supports asynchronous requests (Servlet 3.0 or later, with async-supported set
+ * for the Induction dispatcher servlet in web.xml) an open stream does not hold a request thread, otherwise
+ * the request thread sends the events of the stream until it ends.
+ * <p>
+ * An open stream does not keep alive the model that owns its channel: if that model is replaced by a
+ * refresh, the stream ends when the replaced model closes the channel in its destroy() method, and the
+ * browser reconnects to the channel of the new model.
+ *
+ * @see EventChannel
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface EventStream
+{
+   /**
+    * This method should return the channel whose events are sent to the browser, typically a channel kept
+    * by an application scope model
+    *
+    * @return an event channel
+    */
+   EventChannel getEventChannel();
+}
+
+// EOF
\ No newline at end of file
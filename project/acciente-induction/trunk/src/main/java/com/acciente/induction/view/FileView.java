@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.view;
+
+import java.io.File;
+
+/**
+ * This view interface should be implemented to send the contents of a file to the browser, for example a
+ * generated report or a media file.
+ * <p>
+ * Induction sends the file without reading it into memory, using the sendfile support of the servlet
+ * container when it is available, otherwise by transferring the file to the response with a file channel.
+ * The response has a Content-Length and a Last-Modified header (unless the view also implements
+ * VersionedView), and a request with a Range header for a single range of bytes is answered with a 206
+ * (Partial Content) response, so that downloads can be resumed and media can be seeked.
+ *
+ * @see ChannelView
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface FileView
+{
+   /**
+    * This method should return the file to send, a file that does not exist is answered with a 404 (Not
+    * Found) response
+    *
+    * @return a file
+    */
+   File getFile();
+
+   /**
+    * This method should return the mime type of the file content
+    *
+    * @return a string representation of a mime type, e.g. application/pdf
+    */
+   String getMimeType();
+
+   /**
+    * This method should return the name under which the browser should save the file, or null to let the
+    * browser display the content
+    *
+    * @return a file name sent in a Content-Disposition: attachment header, or null
+    */
+   String getDownloadName();
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.view;
+
+/**
+ * This view interface should be implemented to send an object to the browser as JSON.
+ * <p>
+ * The object returned by getValue() is serialized directly to the response as UTF-8 encoded JSON with the
+ * content type application/json, without first building the JSON text as a string. The following values
+ * are supported:
+ * <ul>
+ * <li>null, strings (and other character sequences), characters, booleans and numbers (NaN and infinite
+ * values are sent as null)</li>
+ * <li>maps, which become JSON objects (keys are converted with String.valueOf())</li>
+ * <li>collections, iterables and arrays, which become JSON arrays</li>
+ * <li>enums, which are sent as their name, and dates, which are sent as milliseconds since the epoch</li>
+ * <li>any other object, which becomes a JSON object with a member for each public getter (a public
+ * non-static no-argument method named getXxx(), or isXxx() returning a boolean), in the order of the
+ * member names</li>
+ * </ul>
+ * The getters of a class are looked up only once, and the object graph must not contain cycles.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface JSON
+{
+   /**
+    * This method should return the object to serialize
+    *
+    * @return an object graph, or null
+    */
+   Object getValue();
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.view;
+
+/**
+ * A template view implements this interface to choose, for itself, whether its output is streamed to the
+ * response as it is rendered, overriding the streaming setting in the templating configuration.
+ * <p>
+ * A streamed template starts sending output as soon as the streaming buffer fills, or when the template
+ * explicitly flushes its output (for example with the FreeMarker &lt;#flush&gt; directive right after the
+ * page header), so the time to first byte does not depend on the time needed to render the whole page.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface StreamingTemplate extends Template
+{
+   /**
+    * @return true if the output of this template should be streamed to the response, false if it should
+    * be rendered in full before it is sent
+    */
+   boolean isStreamingEnabled();
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.view;
+
+/**
+ * A view implements this interface to provide validators for its output without rendering it, typically a
+ * view of a stored image or document implements this interface using the version or the modification time
+ * of the stored data.
+ * <p>
+ * The version is sent as a strong ETag and the last modified time as the Last-Modified header, a request
+ * with a matching If-None-Match (or, without If-None-Match, a matching If-Modified-Since) is answered with
+ * a 304 (Not Modified) response, without rendering the view. A HEAD request for a template view that
+ * implements this interface is answered without rendering the template.
+ * <p>
+ * The version must change whenever the bytes of the output change.
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public interface VersionedView
+{
+   /**
+    * @return a string that identifies the current version of the output of this view, or null if the
+    * view only provides a last modified time
+    */
+   String getVersion();
+
+   /**
+    * @return the time the output of this view last changed in milliseconds since the epoch, or -1 if the
+    * view only provides a version
+    */
+   long getLastModified();
+}
+
+// EOF
\ No newline at end of file
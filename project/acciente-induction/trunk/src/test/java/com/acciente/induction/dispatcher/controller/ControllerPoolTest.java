@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.controller;
+
+import com.acciente.induction.controller.Controller;
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Statistics;
+import junit.framework.TestCase;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.regex.Pattern;
+
+/**
+ * Tests the pool and prototype scopes of ControllerPool
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ControllerPoolTest extends TestCase
+{
+   private static final long  POOL_WAIT_TIMEOUT_IN_MILLIS = 200;
+
+   private ServletConfig      _oServletConfig;
+   private Statistics         _oStatistics;
+   private ControllerPool     _oControllerPool;
+
+   protected void setUp()
+   {
+      Config.ControllerMapping                  oControllerMapping  = new Config().getControllerMapping();
+      Config.ControllerMapping.ControllerScope  oPoolScope;
+
+      oPoolScope = oControllerMapping.addControllerScope( Pattern.compile( ".*PooledController" ), Config.ControllerMapping.ControllerScope.POOL );
+      oPoolScope.setPoolSize( 1 );
+      oPoolScope.setPoolWaitTimeoutInMillis( POOL_WAIT_TIMEOUT_IN_MILLIS );
+
+      oControllerMapping.addControllerScope( Pattern.compile( ".*PrototypeController" ), Config.ControllerMapping.ControllerScope.PROTOTYPE );
+
+      _oServletConfig   = new TestServletConfig();
+      _oStatistics      = new Statistics();
+      _oControllerPool  = new ControllerPool( getClass().getClassLoader(), _oServletConfig, oControllerMapping, _oStatistics );
+   }
+
+   public void testPooledControllerIsReused() throws Exception
+   {
+      Controller oController = _oControllerPool.getController( PooledController.class.getName() );
+
+      _oControllerPool.releaseController( PooledController.class.getName(), oController );
+
+      assertSame( oController, _oControllerPool.getController( PooledController.class.getName() ) );
+   }
+
+   public void testBorrowTimesOutWhenPoolIsExhausted() throws Exception
+   {
+      _oControllerPool.getController( PooledController.class.getName() );
+
+      long lStartTime = System.currentTimeMillis();
+
+      try
+      {
+         _oControllerPool.getController( PooledController.class.getName() );
+         fail( "expected ControllerPoolException" );
+      }
+      catch ( ControllerPoolException e )
+      {
+         assertTrue( System.currentTimeMillis() - lStartTime >= POOL_WAIT_TIMEOUT_IN_MILLIS );
+      }
+
+      String sCounterPrefix = "controller-pool." + PooledController.class.getName() + ".";
+
+      assertEquals( 1, _oStatistics.getCounter( sCounterPrefix + "timeouts" ).get() );
+      assertEquals( 1, _oStatistics.getCounter( sCounterPrefix + "in-use" ).get() );
+   }
+
+   public void testReleasedControllerUnblocksWaitingBorrower() throws Exception
+   {
+      final Controller oController = _oControllerPool.getController( PooledController.class.getName() );
+
+      Thread oReleaseThread = new Thread()
+      {
+         public void run()
+         {
+            try
+            {
+               Thread.sleep( POOL_WAIT_TIMEOUT_IN_MILLIS / 4 );
+            }
+            catch ( InterruptedException e )
+            {
+               // release right away
+            }
+
+            _oControllerPool.releaseController( PooledController.class.getName(), oController );
+         }
+      };
+
+      oReleaseThread.start();
+
+      assertSame( oController, _oControllerPool.getController( PooledController.class.getName() ) );
+
+      oReleaseThread.join();
+   }
+
+   public void testPrototypeControllerIsCreatedAndInitializedPerCall() throws Exception
+   {
+      PrototypeController oFirstController  = ( PrototypeController ) _oControllerPool.getController( PrototypeController.class.getName() );
+      PrototypeController oSecondController = ( PrototypeController ) _oControllerPool.getController( PrototypeController.class.getName() );
+
+      assertFalse( oFirstController == oSecondController );
+      assertSame( _oServletConfig, oFirstController.getServletConfig() );
+      assertSame( _oServletConfig, oFirstController.getInitServletConfig() );
+      assertNull( oFirstController.getInitServletContext() );
+   }
+
+   public static class PooledController implements Controller
+   {
+   }
+
+   public static class PrototypeController implements Controller
+   {
+      private ServletConfig   _oServletConfig;
+      private ServletConfig   _oInitServletConfig;
+      private ServletContext  _oInitServletContext;
+
+      public PrototypeController( ServletConfig oServletConfig )
+      {
+         _oServletConfig = oServletConfig;
+      }
+
+      public void init( ServletContext oServletContext, ServletConfig oServletConfig )
+      {
+         _oInitServletContext = oServletContext;
+         _oInitServletConfig  = oServletConfig;
+      }
+
+      public ServletConfig getServletConfig()
+      {
+         return _oServletConfig;
+      }
+
+      public ServletConfig getInitServletConfig()
+      {
+         return _oInitServletConfig;
+      }
+
+      public ServletContext getInitServletContext()
+      {
+         return _oInitServletContext;
+      }
+   }
+
+   private static class TestServletConfig implements ServletConfig
+   {
+      public String getServletName()
+      {
+         return "test";
+      }
+
+      public ServletContext getServletContext()
+      {
+         return null;
+      }
+
+      public String getInitParameter( String sName )
+      {
+         return null;
+      }
+
+      public Enumeration getInitParameterNames()
+      {
+         return Collections.enumeration( Collections.EMPTY_LIST );
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.model;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the order in which RequestEpochTracker destroys retired models
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class RequestEpochTrackerTest extends TestCase
+{
+   private RequestEpochTracker   _oRequestEpochTracker;
+
+   protected void setUp()
+   {
+      _oRequestEpochTracker = new RequestEpochTracker();
+   }
+
+   public void testRetiredModelIsDestroyedAfterItsRequestsEnd()
+   {
+      TestModel   oModel   = new TestModel();
+      Object      oTicket  = _oRequestEpochTracker.requestStarted();
+
+      _oRequestEpochTracker.retire( oModel );
+
+      assertEquals( 1, _oRequestEpochTracker.reclaim() );
+      assertFalse( oModel.isDestroyed() );
+
+      _oRequestEpochTracker.requestEnded( oTicket );
+
+      assertEquals( 0, _oRequestEpochTracker.reclaim() );
+      assertTrue( oModel.isDestroyed() );
+   }
+
+   public void testRequestStartedAfterRetireDoesNotHoldModel()
+   {
+      TestModel   oModel   = new TestModel();
+
+      _oRequestEpochTracker.retire( oModel );
+
+      Object      oTicket  = _oRequestEpochTracker.requestStarted();
+
+      assertEquals( 0, _oRequestEpochTracker.reclaim() );
+      assertTrue( oModel.isDestroyed() );
+
+      _oRequestEpochTracker.requestEnded( oTicket );
+   }
+
+   public void testEpochsAreReclaimedInOrder()
+   {
+      TestModel   oFirstModel    = new TestModel();
+      TestModel   oSecondModel   = new TestModel();
+      Object      oFirstTicket   = _oRequestEpochTracker.requestStarted();
+
+      _oRequestEpochTracker.retire( oFirstModel );
+
+      Object      oSecondTicket  = _oRequestEpochTracker.requestStarted();
+
+      _oRequestEpochTracker.retire( oSecondModel );
+      _oRequestEpochTracker.requestEnded( oSecondTicket );
+
+      // the first request may still hold the second model, it started before the second model was retired
+      assertEquals( 2, _oRequestEpochTracker.reclaim() );
+      assertFalse( oFirstModel.isDestroyed() );
+      assertFalse( oSecondModel.isDestroyed() );
+
+      _oRequestEpochTracker.requestEnded( oFirstTicket );
+
+      assertEquals( 0, _oRequestEpochTracker.reclaim() );
+      assertTrue( oFirstModel.isDestroyed() );
+      assertTrue( oSecondModel.isDestroyed() );
+   }
+
+   public void testSuspendedLongRequestDoesNotHoldBackLaterEpochs()
+   {
+      TestModel   oModel   = new TestModel();
+
+      // a long download: the request reads its models, then suspends its ticket while it sends the body
+      Object      oTicket  = _oRequestEpochTracker.requestStarted();
+
+      _oRequestEpochTracker.requestEnded( oTicket );
+
+      // a short request that overlaps the model's retirement
+      Object      oShortTicket   = _oRequestEpochTracker.requestStarted();
+
+      _oRequestEpochTracker.retire( oModel );
+      _oRequestEpochTracker.requestEnded( oShortTicket );
+
+      assertEquals( 0, _oRequestEpochTracker.reclaim() );
+      assertTrue( oModel.isDestroyed() );
+
+      // the download completes and resumes its ticket for the rest of the request
+      oTicket = _oRequestEpochTracker.requestStarted();
+
+      _oRequestEpochTracker.retire( new TestModel() );
+      _oRequestEpochTracker.requestEnded( oTicket );
+
+      assertEquals( 0, _oRequestEpochTracker.reclaim() );
+   }
+
+   public static class TestModel
+   {
+      private boolean _bDestroyed;
+
+      public void destroy()
+      {
+         _bDestroyed = true;
+      }
+
+      public boolean isDestroyed()
+      {
+         return _bDestroyed;
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the parsing of the Range header by FileSender
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class FileSenderTest extends TestCase
+{
+   private static final long LENGTH = 1000;
+
+   public void testBoundedRange()
+   {
+      assertRange( 0, 500, "bytes=0-499" );
+      assertRange( 500, 1000, "bytes=500-999" );
+      assertRange( 10, 11, "bytes=10-10" );
+   }
+
+   public void testOpenEndedRange()
+   {
+      assertRange( 900, Long.MAX_VALUE, "bytes=900-" );
+   }
+
+   public void testRangeBeyondEndIsReturnedAsRequested()
+   {
+      // the caller clips the end to the content length, and answers 416 if the start is beyond it
+      assertRange( 500, 2000, "bytes=500-1999" );
+      assertRange( 1000, 1001, "bytes=1000-1000" );
+   }
+
+   public void testSuffixRange()
+   {
+      assertRange( 900, 1000, "bytes=-100" );
+      assertRange( 0, 1000, "bytes=-5000" );
+   }
+
+   public void testEmptySuffixRangeIsUnsatisfiable()
+   {
+      assertRange( 1000, 1000, "bytes=-0" );
+   }
+
+   public void testWhitespaceIsIgnored()
+   {
+      assertRange( 0, 100, "bytes= 0 - 99 " );
+   }
+
+   public void testInvalidRangeIsIgnored()
+   {
+      assertNull( FileSender.parseRange( null, LENGTH ) );
+      assertNull( FileSender.parseRange( "items=0-99", LENGTH ) );
+      assertNull( FileSender.parseRange( "bytes=", LENGTH ) );
+      assertNull( FileSender.parseRange( "bytes=100", LENGTH ) );
+      assertNull( FileSender.parseRange( "bytes=-", LENGTH ) );
+      assertNull( FileSender.parseRange( "bytes=99-10", LENGTH ) );
+      assertNull( FileSender.parseRange( "bytes=a-b", LENGTH ) );
+      assertNull( FileSender.parseRange( "bytes=--5", LENGTH ) );
+   }
+
+   public void testMultipleRangesAreIgnored()
+   {
+      // multipart/byteranges responses are not supported, so the complete content is sent
+      assertNull( FileSender.parseRange( "bytes=0-9,20-29", LENGTH ) );
+   }
+
+   private static void assertRange( long lStart, long lEnd, String sRange )
+   {
+      long[] alRange = FileSender.parseRange( sRange, LENGTH );
+
+      assertNotNull( alRange );
+      assertEquals( lStart, alRange[ 0 ] );
+      assertEquals( lEnd, alRange[ 1 ] );
+   }
+}
+
+// EOF
\ No newline at end of file
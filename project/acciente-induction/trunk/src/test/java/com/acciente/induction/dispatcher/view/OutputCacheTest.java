@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.dispatcher.view;
+
+import com.acciente.induction.init.config.Config;
+import com.acciente.induction.statistics.Statistics;
+import com.acciente.induction.view.CacheableView;
+import junit.framework.TestCase;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Tests that a stale output cache entry is refreshed by a single request at a time
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class OutputCacheTest extends TestCase
+{
+   private static final String   KEY      = "/cached";
+   private static final String   OUTPUT   = "cached output";
+
+   private Statistics            _oStatistics;
+   private OutputCache           _oOutputCache;
+
+   protected void setUp()
+   {
+      Config oConfig = new Config();
+
+      _oStatistics   = new Statistics();
+      _oOutputCache  = new OutputCache( oConfig.getViewMapping().getOutputCache(),
+                                        new ConditionalGet( oConfig.getConditionalGet(), _oStatistics ),
+                                        new ResponseCompression( oConfig.getCompression(), _oStatistics ),
+                                        _oStatistics );
+   }
+
+   public void testMissIsNotClaimed() throws Exception
+   {
+      assertEquals( OutputCache.NOT_SERVED, serve() );
+      assertEquals( OutputCache.NOT_SERVED, serve() );
+   }
+
+   public void testFreshEntryIsServed() throws Exception
+   {
+      store( 60 );
+
+      TestResponse oResponse = new TestResponse();
+
+      assertEquals( OutputCache.SERVED, _oOutputCache.serve( KEY, createRequest(), oResponse.getResponse() ) );
+      assertEquals( OUTPUT, oResponse.getOutput() );
+   }
+
+   public void testOnlyOneRequestClaimsStaleEntry() throws Exception
+   {
+      store( 1 );
+      waitUntilStale();
+
+      // the first request holds the claim, the others are served the stale entry until the claim is released
+      assertEquals( OutputCache.REVALIDATE, serve() );
+      assertEquals( OutputCache.SERVED, serve() );
+      assertEquals( OutputCache.SERVED, serve() );
+      assertEquals( 2, _oStatistics.getCounter( "output-cache.stale-hits" ).get() );
+
+      _oOutputCache.endRevalidation( KEY );
+
+      assertEquals( OutputCache.REVALIDATE, serve() );
+   }
+
+   public void testRefreshedEntryIsServedFresh() throws Exception
+   {
+      store( 1 );
+      waitUntilStale();
+
+      assertEquals( OutputCache.REVALIDATE, serve() );
+
+      store( 60 );
+      _oOutputCache.endRevalidation( KEY );
+
+      assertEquals( OutputCache.SERVED, serve() );
+      assertEquals( 0, _oStatistics.getCounter( "output-cache.stale-hits" ).get() );
+   }
+
+   private int serve() throws Exception
+   {
+      return _oOutputCache.serve( KEY, createRequest(), new TestResponse().getResponse() );
+   }
+
+   private void store( int iTimeToLive ) throws Exception
+   {
+      TestResponse            oResponse   = new TestResponse();
+      OutputCaptureResponse   oCapture    = new OutputCaptureResponse( oResponse.getResponse() );
+
+      oCapture.getOutputStream().write( OUTPUT.getBytes( "UTF-8" ) );
+
+      _oOutputCache.storeAndSend( KEY, _oOutputCache.getPolicy( new TestView( iTimeToLive ) ), oCapture, createRequest(), oResponse.getResponse() );
+   }
+
+   private void waitUntilStale() throws InterruptedException
+   {
+      // the time to live is in seconds
+      Thread.sleep( 1100 );
+   }
+
+   private static HttpServletRequest createRequest()
+   {
+      return ( HttpServletRequest ) Proxy.newProxyInstance( OutputCacheTest.class.getClassLoader(),
+                                                            new Class[]{ HttpServletRequest.class },
+                                                            new InvocationHandler()
+                                                            {
+                                                               public Object invoke( Object oProxy, Method oMethod, Object[] aoArgs )
+                                                               {
+                                                                  if ( oMethod.getName().equals( "getMethod" ) )
+                                                                  {
+                                                                     return "GET";
+                                                                  }
+                                                                  if ( oMethod.getName().equals( "getServletPath" ) )
+                                                                  {
+                                                                     return KEY;
+                                                                  }
+                                                                  return null;
+                                                               }
+                                                            } );
+   }
+
+   /**
+    * A response that keeps what is written to it
+    */
+   private static class TestResponse implements InvocationHandler
+   {
+      private ByteArrayOutputStream _oOutput = new ByteArrayOutputStream();
+
+      private HttpServletResponse getResponse()
+      {
+         return ( HttpServletResponse ) Proxy.newProxyInstance( OutputCacheTest.class.getClassLoader(),
+                                                                new Class[]{ HttpServletResponse.class },
+                                                                this );
+      }
+
+      private String getOutput() throws Exception
+      {
+         return _oOutput.toString( "UTF-8" );
+      }
+
+      public Object invoke( Object oProxy, Method oMethod, Object[] aoArgs )
+      {
+         if ( oMethod.getName().equals( "getOutputStream" ) )
+         {
+            return new ServletOutputStream()
+            {
+               public void write( int iByte )
+               {
+                  _oOutput.write( iByte );
+               }
+            };
+         }
+         if ( oMethod.getReturnType() == Boolean.TYPE )
+         {
+            return Boolean.FALSE;
+         }
+         if ( oMethod.getReturnType() == Integer.TYPE )
+         {
+            return new Integer( 0 );
+         }
+         return null;
+      }
+   }
+
+   public static class TestView implements CacheableView
+   {
+      private int _iTimeToLive;
+
+      private TestView( int iTimeToLive )
+      {
+         _iTimeToLive = iTimeToLive;
+      }
+
+      public int getCacheTimeToLive()
+      {
+         return _iTimeToLive;
+      }
+
+      public int getCacheStaleWhileRevalidate()
+      {
+         return 60;
+      }
+
+      public String[] getCacheKeyParameters()
+      {
+         return new String[ 0 ];
+      }
+
+      public String[] getCacheKeyHeaders()
+      {
+         return new String[ 0 ];
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.util;
+
+import com.acciente.induction.statistics.Statistics;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the bound, eviction, expiry and single-flight loading of ConcurrentLRUCache
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class ConcurrentLRUCacheTest extends TestCase
+{
+   private Statistics   _oStatistics;
+   private List         _oEvictedKeyList;
+
+   protected void setUp()
+   {
+      _oStatistics      = new Statistics();
+      _oEvictedKeyList  = new ArrayList();
+   }
+
+   public void testSizeNeverExceedsMaxEntries() throws Exception
+   {
+      ConcurrentLRUCache oCache = createCache( 100, 0 );
+
+      for ( int i = 0; i < 1000; i++ )
+      {
+         oCache.get( "key-" + i, new CountingLoader() );
+
+         assertTrue( _oStatistics.getCounter( "test.size" ).get() <= 100 );
+      }
+
+      assertEquals( 100, _oStatistics.getCounter( "test.size" ).get() );
+      assertEquals( 900, _oStatistics.getCounter( "test.evictions" ).get() );
+      assertEquals( 900, _oEvictedKeyList.size() );
+   }
+
+   public void testSmallCacheHoldsMaxEntries() throws Exception
+   {
+      // a capacity that is not a multiple of the segment count must still be filled exactly
+      ConcurrentLRUCache   oCache   = createCache( 3, 0 );
+      CountingLoader       oLoader  = new CountingLoader();
+
+      for ( int i = 0; i < 50; i++ )
+      {
+         oCache.get( "key-" + i, oLoader );
+      }
+
+      assertEquals( 3, _oStatistics.getCounter( "test.size" ).get() );
+   }
+
+   public void testLeastRecentlyUsedEntryIsEvicted() throws Exception
+   {
+      // a cache of 3 entries has 2 segments, the first holds 2 entries, keys with a hash code of 0 all map
+      // to the first segment, so the eviction order of these keys is the LRU order
+      ConcurrentLRUCache   oCache   = createCache( 3, 0 );
+      CountingLoader       oLoader  = new CountingLoader();
+
+      oCache.get( new SameSegmentKey( "first" ), oLoader );
+      oCache.get( new SameSegmentKey( "second" ), oLoader );
+      oCache.get( new SameSegmentKey( "first" ), oLoader );
+      oCache.get( new SameSegmentKey( "third" ), oLoader );
+
+      assertEquals( 1, _oEvictedKeyList.size() );
+      assertEquals( new SameSegmentKey( "second" ), _oEvictedKeyList.get( 0 ) );
+
+      oCache.get( new SameSegmentKey( "first" ), oLoader );
+
+      assertEquals( 3, oLoader.getLoadCount() );
+      assertEquals( 2, _oStatistics.getCounter( "test.hits" ).get() );
+   }
+
+   public void testExpiredEntryIsLoadedAgain() throws Exception
+   {
+      ConcurrentLRUCache   oCache   = createCache( 10, 50 );
+      CountingLoader       oLoader  = new CountingLoader();
+
+      oCache.get( "key", oLoader );
+
+      Thread.sleep( 100 );
+
+      oCache.get( "key", oLoader );
+
+      assertEquals( 2, oLoader.getLoadCount() );
+      assertEquals( 1, _oStatistics.getCounter( "test.expirations" ).get() );
+   }
+
+   public void testConcurrentMissesRunOneLoad() throws Exception
+   {
+      final ConcurrentLRUCache   oCache         = createCache( 10, 0 );
+      final CountDownLatch       oLoadStarted   = new CountDownLatch( 1 );
+      final CountDownLatch       oReleaseLoad   = new CountDownLatch( 1 );
+      final AtomicInteger        oLoadCount     = new AtomicInteger();
+      final Object[]             aoValues       = new Object[ 4 ];
+
+      final ConcurrentLRUCache.Loader oLoader = new ConcurrentLRUCache.Loader()
+      {
+         public Object load( Object oKey ) throws Exception
+         {
+            oLoadCount.incrementAndGet();
+            oLoadStarted.countDown();
+            oReleaseLoad.await();
+
+            return new Object();
+         }
+      };
+
+      Thread[] aoThreads = new Thread[ aoValues.length ];
+
+      for ( int i = 0; i < aoThreads.length; i++ )
+      {
+         final int iIndex = i;
+
+         aoThreads[ i ] = new Thread()
+         {
+            public void run()
+            {
+               try
+               {
+                  aoValues[ iIndex ] = oCache.get( "key", oLoader );
+               }
+               catch ( Exception e )
+               {
+                  // the value stays null and the test fails below
+               }
+            }
+         };
+         aoThreads[ i ].start();
+      }
+
+      assertTrue( oLoadStarted.await( 5, TimeUnit.SECONDS ) );
+
+      // give the other threads time to reach the cache while the load is in progress
+      Thread.sleep( 100 );
+      oReleaseLoad.countDown();
+
+      for ( int i = 0; i < aoThreads.length; i++ )
+      {
+         aoThreads[ i ].join();
+      }
+
+      assertEquals( 1, oLoadCount.get() );
+
+      for ( int i = 0; i < aoValues.length; i++ )
+      {
+         assertNotNull( aoValues[ i ] );
+         assertSame( aoValues[ 0 ], aoValues[ i ] );
+      }
+   }
+
+   public void testFailedLoadIsNotCached() throws Exception
+   {
+      ConcurrentLRUCache   oCache   = createCache( 10, 0 );
+      CountingLoader       oLoader  = new CountingLoader();
+
+      try
+      {
+         oCache.get( "key", new ConcurrentLRUCache.Loader()
+         {
+            public Object load( Object oKey ) throws Exception
+            {
+               throw new Exception( "load failed" );
+            }
+         } );
+         fail( "expected ExecutionException" );
+      }
+      catch ( ExecutionException e )
+      {
+         assertEquals( "load failed", e.getCause().getMessage() );
+      }
+
+      oCache.get( "key", oLoader );
+
+      assertEquals( 1, oLoader.getLoadCount() );
+      assertEquals( 1, _oStatistics.getCounter( "test.load-failures" ).get() );
+   }
+
+   private ConcurrentLRUCache createCache( int iMaxEntries, long lTimeToLiveInMillis )
+   {
+      return new ConcurrentLRUCache( iMaxEntries,
+                                     lTimeToLiveInMillis,
+                                     new ConcurrentLRUCache.EvictionListener()
+                                     {
+                                        public void evicted( Object oKey, Object oValue )
+                                        {
+                                           synchronized ( _oEvictedKeyList )
+                                           {
+                                              _oEvictedKeyList.add( oKey );
+                                           }
+                                        }
+                                     },
+                                     _oStatistics,
+                                     "test" );
+   }
+
+   private static class SameSegmentKey
+   {
+      private String _sName;
+
+      private SameSegmentKey( String sName )
+      {
+         _sName = sName;
+      }
+
+      public boolean equals( Object oObject )
+      {
+         return oObject instanceof SameSegmentKey && ( ( SameSegmentKey ) oObject )._sName.equals( _sName );
+      }
+
+      public int hashCode()
+      {
+         return 0;
+      }
+
+      public String toString()
+      {
+         return _sName;
+      }
+   }
+
+   private static class CountingLoader implements ConcurrentLRUCache.Loader
+   {
+      private AtomicInteger _oLoadCount = new AtomicInteger();
+
+      public Object load( Object oKey )
+      {
+         _oLoadCount.incrementAndGet();
+
+         return "value-of-" + oKey;
+      }
+
+      private int getLoadCount()
+      {
+         return _oLoadCount.get();
+      }
+   }
+}
+
+// EOF
\ No newline at end of file
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Acciente, LLC
+ *
+ * Acciente, LLC licenses this file to you under the
+ * Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in
+ * writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.acciente.induction.util;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Tests the use of the encoded segment cache by EncodingWriter
+ *
+ * @created Oct 19, 2026
+ *
+ * @author agent
+ */
+public class EncodingWriterTest extends TestCase
+{
+   private static final Charset  UTF_8 = Charset.forName( "UTF-8" );
+
+   private EncodedSegmentCache   _oEncodedSegmentCache;
+   private ByteArrayOutputStream _oOutputStream;
+   private EncodingWriter        _oEncodingWriter;
+
+   protected void setUp()
+   {
+      _oEncodedSegmentCache   = new EncodedSegmentCache();
+      _oOutputStream          = new ByteArrayOutputStream();
+      _oEncodingWriter        = new EncodingWriter( _oOutputStream, UTF_8, _oEncodedSegmentCache, new byte[ 16 ] );
+   }
+
+   public void testRewrittenBufferIsEncodedWithNewContents() throws IOException
+   {
+      char[] acBuffer = new char[ 40 ];
+
+      Arrays.fill( acBuffer, 'a' );
+      _oEncodingWriter.write( acBuffer );
+
+      Arrays.fill( acBuffer, 'b' );
+      _oEncodingWriter.write( acBuffer );
+
+      Arrays.fill( acBuffer, 'c' );
+      _oEncodingWriter.write( acBuffer, 0, acBuffer.length );
+
+      _oEncodingWriter.close();
+
+      assertEquals( repeat( 'a', 40 ) + repeat( 'b', 40 ) + repeat( 'c', 40 ), _oOutputStream.toString( "UTF-8" ) );
+   }
+
+   public void testRegisteredSegmentIsWrittenAsCachedBytes() throws IOException
+   {
+      char[] acSegment = ( repeat( '\u00e9', 20 ) + repeat( 'x', 20 ) ).toCharArray();
+
+      _oEncodedSegmentCache.registerSegment( acSegment );
+
+      _oEncodingWriter.write( acSegment );
+      _oEncodingWriter.write( "-" );
+      _oEncodingWriter.write( acSegment );
+      _oEncodingWriter.close();
+
+      assertEquals( new String( acSegment ) + "-" + new String( acSegment ), _oOutputStream.toString( "UTF-8" ) );
+      assertSame( _oEncodedSegmentCache.getEncodedSegment( acSegment, UTF_8 ),
+                  _oEncodedSegmentCache.getEncodedSegment( acSegment, UTF_8 ) );
+   }
+
+   public void testUnregisteredSegmentIsNotCached()
+   {
+      assertNull( _oEncodedSegmentCache.getEncodedSegment( repeat( 'a', 40 ).toCharArray(), UTF_8 ) );
+   }
+
+   public void testSurrogatePairSplitAcrossWrites() throws IOException
+   {
+      String sText = repeat( 'a', 39 ) + "\ud83d\ude00" + repeat( 'b', 39 );
+
+      _oEncodingWriter.write( sText.substring( 0, 40 ).toCharArray() );
+      _oEncodingWriter.write( sText.substring( 40 ).toCharArray() );
+      _oEncodingWriter.close();
+
+      assertEquals( sText, _oOutputStream.toString( "UTF-8" ) );
+   }
+
+   private static String repeat( char cChar, int iCount )
+   {
+      char[] acChars = new char[ iCount ];
+
+      Arrays.fill( acChars, cChar );
+
+      return new String( acChars );
+   }
+}
+
+// EOF
\ No newline at end of file